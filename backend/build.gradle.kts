@@ -2,6 +2,8 @@ plugins {
     java
     id("org.springframework.boot") version "4.0.2"
     id("io.spring.dependency-management") version "1.1.7"
+    // JMH-бенчмарки горячих путей: исходники в src/jmh/java, запуск — ./gradlew jmh
+    id("me.champeau.jmh") version "0.7.3"
 }
 
 group = "dev.savushkin"
@@ -64,6 +66,8 @@ dependencies {
     // для извлечения имени FK-констрейнта/detail при обработке ошибок удаления (issue #35)
     implementation("org.postgresql:postgresql")
     testRuntimeOnly("org.junit.platform:junit-platform-launcher")
+    // PostgreSQL в процессе для тестов адаптеров с SQL, специфичным для PostgreSQL (ON CONFLICT, частичные индексы)
+    testImplementation("io.zonky.test:embedded-postgres:2.1.0")
 
     // Mockito Agent jar (используем ту же версию, что резолвится для тестов через BOM Spring).
     // Если понадобится зафиксировать версию — можно указать :mockito-core:<version>.
@@ -78,3 +82,59 @@ tasks.withType<Test> {
     jvmArgs("-javaagent:${mockitoAgent.singleFile.absolutePath}")
 }
 
+// Результаты JMH в JSON — для сравнения между коммитами (например, jmh.morethan.io или jmh-visualizer).
+// Подмножество бенчмарков: ./gradlew jmh -PjmhIncludes=UnitDetailServiceBenchmark
+jmh {
+    resultFormat = "JSON"
+    resultsFile = layout.buildDirectory.file("reports/jmh/results.json")
+    providers.gradleProperty("jmhIncludes").orNull?.let { includes.add(it) }
+}
+
+// ─────────────────────────────────────────────────────────────────────────────
+// Нагрузочный стенд (src/load/java): бэкенд + синтетические аппараты + WS-клиенты в одной JVM,
+// PostgreSQL — embedded (zonky), сеть и Docker не нужны.
+// Запуск: ./gradlew loadTest -Pload.machines=40 -Pload.liveClients=300 -Pload.unitClients=100
+// Сетевой путь профиля prod (TcpPrintSrvClient → FakePrintSrvServer): -Pload.transport=tcp -Pload.fake.latencyMs=20
+// Приём через встроенный журнал (источник log вместо опроса): -Pload.transport=log
+// Кластер (лидер + N WS-узлов отдельными JVM на шине PostgreSQL): -Pload.wsNodes=3
+// Отчёт: build/reports/load/load-report.json
+// ─────────────────────────────────────────────────────────────────────────────
+val load: SourceSet by sourceSets.creating {
+    compileClasspath += sourceSets.main.get().output
+    runtimeClasspath += sourceSets.main.get().output
+}
+
+configurations["loadImplementation"].extendsFrom(configurations.implementation.get())
+configurations["loadRuntimeOnly"].extendsFrom(configurations.runtimeOnly.get())
+
+// Юнит-тесты компонентов стенда (гистограмма, протокол fake PrintSrv) лежат в src/test
+sourceSets.test {
+    compileClasspath += load.output
+    runtimeClasspath += load.output
+}
+
+dependencies {
+    "loadImplementation"("io.zonky.test:embedded-postgres:2.1.0")
+}
+
+tasks.register<JavaExec>("loadTest") {
+    group = "verification"
+    description = "Runs the offline WebSocket/PrintSrv load harness and writes build/reports/load/load-report.json"
+    classpath = load.runtimeClasspath
+    mainClass = "dev.savushkin.scada.mobile.backend.load.LoadHarness"
+    workingDir = projectDir
+    jvmArgs("-Xmx2g", "-XX:+UseG1GC")
+    // -Pload.<name>=<value> → -Dload.<name>=<value> (см. LoadConfig)
+    systemProperties(providers.gradlePropertiesPrefixedBy("load.").get())
+    systemProperty("load.reportDir", layout.buildDirectory.dir("reports/load").get().asFile.absolutePath)
+}
+
+// Fake PrintSrv (протокол P001) отдельным процессом — для локального прогона профиля prod.
+// Запуск: ./gradlew fakePrintSrv -Pfake.basePort=19100 -Pfake.latencyMs=20 -Pfake.disconnectProbability=0.01
+tasks.register<JavaExec>("fakePrintSrv") {
+    group = "application"
+    description = "Runs a fake PrintSrv TCP server for every mock-snapshots seed on localhost"
+    classpath = load.runtimeClasspath
+    mainClass = "dev.savushkin.scada.mobile.backend.load.FakePrintSrvServer"
+    systemProperties(providers.gradlePropertiesPrefixedBy("fake.").get())
+}
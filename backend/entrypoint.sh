@@ -1,10 +1,20 @@
 #!/bin/sh
 set -e
 
+APP_JAR=/app/extracted/app.jar
+JAVA_OPTS=""
+
+# Class Data Sharing: при первом запуске JVM записывает архив загруженных классов
+# при остановке, следующие старты подгружают их из архива (быстрее restart-to-ready).
+# Архив пересоздаётся автоматически, если jar-файлы изменились.
+if [ "${SCADA_MOBILE_CDS_ENABLED}" = "true" ]; then
+    JAVA_OPTS="-XX:SharedArchiveFile=/app/cds/app.jsa -XX:+AutoCreateSharedArchive"
+fi
+
 # Если контейнер стартовал от root (UID 0) — запускаем java напрямую
 if [ "$(id -u)" = "0" ]; then
     echo "Запуск от root (UID 0). Пропускаю переключение пользователя..."
-    exec java -jar /app/app.jar
+    exec java $JAVA_OPTS -jar "$APP_JAR"
 fi
 
 # Иначе — мы создали appuser в Dockerfile, переключаемся на него
@@ -12,7 +22,7 @@ USER_ID=$(id -u appuser)
 GROUP_ID=$(id -g appuser)
 
 echo "Настраиваю права для юзера $USER_ID:$GROUP_ID..."
-chown -R "$USER_ID:$GROUP_ID" /app/logs
+chown -R "$USER_ID:$GROUP_ID" /app/logs /app/cds
 
 echo "Запускаю приложение от юзера appuser..."
-exec su-exec appuser java -jar /app/app.jar
\ No newline at end of file
+exec su-exec appuser java $JAVA_OPTS -jar "$APP_JAR"
\ No newline at end of file
@@ -0,0 +1,118 @@
+package dev.savushkin.scada.mobile.backend.api.dto;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.savushkin.scada.mobile.backend.benchmark.MockSnapshotFixture;
+import dev.savushkin.scada.mobile.backend.config.JacksonConfig;
+import dev.savushkin.scada.mobile.backend.services.UnitDetailService;
+import dev.savushkin.scada.mobile.backend.services.WorkshopService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson-сериализация WebSocket-сообщений тем же {@link ObjectMapper}, что в приложении
+ * ({@link JacksonConfig}). Сериализация выполняется один раз на рассылку, поэтому её
+ * стоимость определяет задержку fan-out на каждый poll-проход.
+ * <ul>
+ *   <li>{@code serialize} — {@code writeValueAsString} сообщения типа {@code type}.</li>
+ * </ul>
+ * Сообщения каналов {@code /ws/live} и {@code /ws/unit/*} с live-данными собраны из
+ * {@code mock-snapshots} (аппарат {@code grunwald11}); {@code ALERT_SNAPSHOT} и
+ * {@code NOTIFICATION_SNAPSHOT} содержат по одной записи на аппарат seed-данных.
+ * Запуск: {@code ./gradlew jmh -PjmhIncludes=WsMessageSerializationBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class WsMessageSerializationBenchmark {
+
+    private static final String UNIT = "grunwald11";
+    private static final String TIMESTAMP = "2026-03-01T10:23:45";
+
+    @Param({
+            "UNITS_STATUS", "WORKSHOPS_STATUS", "ALERT", "ALERT_SNAPSHOT", "NOTIFICATION",
+            "NOTIFICATION_SNAPSHOT", "ADMIN_NOTIFICATION", "USER_ASSIGNMENTS",
+            "LINE_STATUS", "DEVICES_STATUS", "QUEUE", "ERRORS",
+            "EMPLOYEE_CHANGED", "WORKSHOP_CHANGED", "ROLE_CHANGED", "UNIT_CHANGED", "DEVICE_CHANGED",
+            "DEVICE_CATALOG_CHANGED", "DEVICE_TYPE_CHANGED", "USER_NOTIFICATION_SETTINGS_CHANGED",
+            "FORCE_LOGOUT"
+    })
+    public String type;
+
+    private final ObjectMapper objectMapper = new JacksonConfig().objectMapper();
+    private Object message;
+
+    @Setup
+    public void setUp() {
+        MockSnapshotFixture fixture = MockSnapshotFixture.load();
+        message = messages(fixture).get(type);
+        if (message == null) {
+            throw new IllegalStateException("No message for type " + type);
+        }
+    }
+
+    @Benchmark
+    public String serialize() throws JsonProcessingException {
+        return objectMapper.writeValueAsString(message);
+    }
+
+    private static Map<String, Object> messages(MockSnapshotFixture fixture) {
+        UnitDetailService units = fixture.unitDetailService();
+        WorkshopService workshops = fixture.workshopService();
+        long workshopId = MockSnapshotFixture.WORKSHOP_ID;
+
+        List<AlertMessageDTO> alerts = new ArrayList<>();
+        List<NotificationMessageDTO> notifications = new ArrayList<>();
+        for (String instanceId : fixture.instanceIds()) {
+            alerts.add(AlertMessageDTO.active(workshopId, instanceId, instanceId, "Critical",
+                    List.of(new AlertErrorDTO("scada", 1, "Ошибка камеры агрегации")), TIMESTAMP));
+            notifications.add(NotificationMessageDTO.activated(instanceId, instanceId, "42", "Иванов И.И.", TIMESTAMP));
+        }
+
+        Map<String, Object> messages = new HashMap<>();
+        messages.put("UNITS_STATUS", UnitsStatusMessageDTO.of(workshopId, TIMESTAMP, workshops.getUnitsStatus(workshopId)));
+        messages.put("WORKSHOPS_STATUS", WorkshopsStatusMessageDTO.of(workshops.getWorkshopsStatus()));
+        messages.put("ALERT", alerts.getFirst());
+        messages.put("ALERT_SNAPSHOT", AlertSnapshotMessageDTO.of(alerts));
+        messages.put("NOTIFICATION", notifications.getFirst());
+        messages.put("NOTIFICATION_SNAPSHOT", NotificationSnapshotMessageDTO.of(notifications));
+        messages.put("ADMIN_NOTIFICATION", new AdminNotificationMessageDTO("ADMIN_NOTIFICATION", "DEVICE_DISCOVERED",
+                "INFO", UNIT, "Printer14", 7L, null, "Обнаружено новое устройство Printer14", TIMESTAMP));
+        messages.put("USER_ASSIGNMENTS", UserAssignmentsMessageDTO.of(List.of(
+                new UserAssignmentsMessageDTO.AssignedUnitPayload(1L, UNIT, UNIT),
+                new UserAssignmentsMessageDTO.AssignedUnitPayload(2L, "hassia2", "hassia2"))));
+        messages.put("LINE_STATUS", units.buildLineStatus(UNIT));
+        messages.put("DEVICES_STATUS", units.buildDevicesStatus(UNIT));
+        messages.put("QUEUE", units.buildQueueStatus(UNIT));
+        messages.put("ERRORS", units.buildErrorsStatus(UNIT));
+        messages.put("EMPLOYEE_CHANGED", EmployeeChangedMessageDTO.of(
+                new EmployeeChangedMessageDTO.EmployeePayload(42L, "Иванов Иван Иванович", "1042", 2L, "Оператор", true),
+                "UPDATED"));
+        messages.put("WORKSHOP_CHANGED", WorkshopChangedMessageDTO.of(
+                new WorkshopChangedMessageDTO.WorkshopPayload(workshopId, "Аппаратный цех", true, 14), "UPDATED"));
+        messages.put("ROLE_CHANGED", RoleChangedMessageDTO.of(
+                new RoleChangedMessageDTO.RolePayload(2L, "Оператор"), "UPDATED"));
+        messages.put("UNIT_CHANGED", UnitChangedMessageDTO.of(
+                new UnitChangedMessageDTO.UnitPayload(1L, UNIT, workshopId, UNIT, true), "UPDATED"));
+        messages.put("DEVICE_CHANGED", DeviceChangedMessageDTO.of(
+                new DeviceChangedMessageDTO.DevicePayload(10L, 1L, UNIT, 7L), "CREATED"));
+        messages.put("DEVICE_CATALOG_CHANGED", DeviceCatalogChangedMessageDTO.of(
+                new DeviceCatalogChangedMessageDTO.DeviceCatalogPayload(7L, "Printer14", "Принтер 14", 1L, true),
+                "CREATED"));
+        messages.put("DEVICE_TYPE_CHANGED", DeviceTypeChangedMessageDTO.of(
+                new DeviceTypeChangedMessageDTO.DeviceTypePayload(1L, "PRINTER", "Принтер"), "UPDATED"));
+        messages.put("USER_NOTIFICATION_SETTINGS_CHANGED", UserNotificationSettingsChangedMessageDTO.of(
+                new UserNotificationSettingsChangedMessageDTO.UserNotificationSettingsPayload(5L, 42L, 1L, true, false, true),
+                "UPDATED"));
+        messages.put("FORCE_LOGOUT", ForceLogoutMessageDTO.of("PASSWORD_CHANGED"));
+        return messages;
+    }
+}
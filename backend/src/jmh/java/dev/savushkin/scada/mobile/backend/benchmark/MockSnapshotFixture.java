@@ -0,0 +1,242 @@
+package dev.savushkin.scada.mobile.backend.benchmark;
+
+import ch.qos.logback.classic.Level;
+import dev.savushkin.scada.mobile.backend.application.ports.InstanceSnapshotRepository;
+import dev.savushkin.scada.mobile.backend.application.ports.PrintSrvTopologyRepository;
+import dev.savushkin.scada.mobile.backend.domain.model.PrintSrvInstance;
+import dev.savushkin.scada.mobile.backend.domain.model.Workshop;
+import dev.savushkin.scada.mobile.backend.infrastructure.integration.printsrv.PrintSrvMapper;
+import dev.savushkin.scada.mobile.backend.infrastructure.integration.printsrv.dto.QueryAllResponseDTO;
+import dev.savushkin.scada.mobile.backend.infrastructure.integration.printsrv.mock.MockInstanceState;
+import dev.savushkin.scada.mobile.backend.infrastructure.integration.printsrv.mock.MockPrintSrvClient;
+import dev.savushkin.scada.mobile.backend.infrastructure.integration.printsrv.mock.XmlSnapshotLoader;
+import dev.savushkin.scada.mobile.backend.infrastructure.store.InMemoryInstanceSnapshotStore;
+import dev.savushkin.scada.mobile.backend.infrastructure.store.UnitErrorStore;
+import dev.savushkin.scada.mobile.backend.services.DeviceCompositionService;
+import dev.savushkin.scada.mobile.backend.services.UnitDetailService;
+import dev.savushkin.scada.mobile.backend.services.WorkshopService;
+import org.jspecify.annotations.NonNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Общий стенд бенчмарков: реальные seed-данные {@code mock-snapshots}, прогнанные через
+ * {@link MockPrintSrvClient} и {@link PrintSrvMapper}, и сервисы поверх in-memory хранилищ —
+ * без Spring-контекста и БД.
+ *
+ * <p>Каждый каталог {@code mock-snapshots/<instanceId>/} (кроме {@code default}) становится
+ * аппаратом цеха {@link #WORKSHOP_ID}. Параметр {@code copies} клонирует набор аппаратов
+ * ({@code hassia2}, {@code hassia2-1}, …), чтобы мерить сервисы на цехе нужного размера.
+ */
+public final class MockSnapshotFixture {
+
+    public static final long WORKSHOP_ID = 1L;
+
+    private static final String SNAPSHOT_PATTERN = "classpath*:mock-snapshots/*/*___Unit0.xml";
+    private static final String FILENAME_SUFFIX = "___Unit0.xml";
+
+    private final Map<String, Map<String, QueryAllResponseDTO>> responses = new LinkedHashMap<>();
+    private final InMemoryInstanceSnapshotStore snapshots = new InMemoryInstanceSnapshotStore();
+    private final UnitErrorStore errors = new UnitErrorStore();
+    private final InMemoryTopologyRepository topology;
+    private final UnitDetailService unitDetailService;
+    private final WorkshopService workshopService;
+
+    private MockSnapshotFixture(int copies) {
+        quietLogging();
+        Map<String, TreeSet<String>> seedDevices = discoverSeedDevices();
+        XmlSnapshotLoader loader = new XmlSnapshotLoader();
+        PrintSrvMapper mapper = new PrintSrvMapper();
+        List<PrintSrvInstance> instances = new ArrayList<>();
+
+        for (int copy = 0; copy < copies; copy++) {
+            for (Map.Entry<String, TreeSet<String>> seed : seedDevices.entrySet()) {
+                String seedId = seed.getKey();
+                String instanceId = copy == 0 ? seedId : seedId + "-" + copy;
+                MockInstanceState state = new MockInstanceState(instanceId);
+                for (String device : seed.getValue()) {
+                    state.initDevice(device, loader.loadForDevice(device, null, seedId));
+                }
+                MockPrintSrvClient client = new MockPrintSrvClient(instanceId, state, false);
+                Map<String, QueryAllResponseDTO> byDevice = new LinkedHashMap<>();
+                for (String device : seed.getValue()) {
+                    QueryAllResponseDTO dto = queryAll(client, device);
+                    byDevice.put(device, dto);
+                    snapshots.save(instanceId, device, mapper.toDomainDeviceSnapshot(dto).withReceivedAt(Instant.now()));
+                }
+                responses.put(instanceId, byDevice);
+                instances.add(toInstance(instanceId, List.copyOf(seed.getValue())));
+            }
+        }
+
+        topology = new InMemoryTopologyRepository(instances);
+        DeviceCompositionService composition = new DeviceCompositionService(snapshots, topology);
+        unitDetailService = new UnitDetailService(topology, snapshots, errors, composition);
+        workshopService = new WorkshopService(topology, snapshots, composition, errors);
+        for (PrintSrvInstance instance : instances) {
+            errors.update(instance.instanceId(), WORKSHOP_ID,
+                    unitDetailService.extractActiveErrors(instance.instanceId()));
+        }
+    }
+
+    /**
+     * Загружает все seed-аппараты один раз.
+     */
+    public static @NonNull MockSnapshotFixture load() {
+        return load(1);
+    }
+
+    /**
+     * Загружает seed-аппараты {@code copies} раз под разными идентификаторами.
+     */
+    public static @NonNull MockSnapshotFixture load(int copies) {
+        if (copies < 1) {
+            throw new IllegalArgumentException("copies must be >= 1");
+        }
+        return new MockSnapshotFixture(copies);
+    }
+
+    /**
+     * Снижает уровень логирования до {@code WARN}: без {@code logback-spring.xml}
+     * logback по умолчанию пишет {@code DEBUG} в консоль и искажает замеры.
+     */
+    public static void quietLogging() {
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+    }
+
+    public @NonNull List<String> instanceIds() {
+        return List.copyOf(responses.keySet());
+    }
+
+    /**
+     * Сырой ответ QueryAll устройства — вход {@link PrintSrvMapper#toDomainDeviceSnapshot}.
+     */
+    public @NonNull QueryAllResponseDTO response(String instanceId, String device) {
+        QueryAllResponseDTO dto = responses.getOrDefault(instanceId, Map.of()).get(device);
+        if (dto == null) {
+            throw new IllegalArgumentException("No seed response for " + instanceId + "/" + device);
+        }
+        return dto;
+    }
+
+    public @NonNull InstanceSnapshotRepository snapshots() {
+        return snapshots;
+    }
+
+    public @NonNull PrintSrvTopologyRepository topology() {
+        return topology;
+    }
+
+    public @NonNull UnitErrorStore errors() {
+        return errors;
+    }
+
+    public @NonNull UnitDetailService unitDetailService() {
+        return unitDetailService;
+    }
+
+    public @NonNull WorkshopService workshopService() {
+        return workshopService;
+    }
+
+    // ─── Private ─────────────────────────────────────────────────────────────
+
+    /**
+     * instanceId → имена устройств по XML-файлам classpath (работает и из jar).
+     */
+    private static Map<String, TreeSet<String>> discoverSeedDevices() {
+        Map<String, TreeSet<String>> result = new TreeMap<>();
+        try {
+            for (Resource resource : new PathMatchingResourcePatternResolver().getResources(SNAPSHOT_PATTERN)) {
+                String[] segments = resource.getURL().toString().split("/");
+                String instanceId = segments[segments.length - 2];
+                String filename = segments[segments.length - 1];
+                if (!"default".equals(instanceId)) {
+                    result.computeIfAbsent(instanceId, k -> new TreeSet<>())
+                            .add(filename.substring(0, filename.length() - FILENAME_SUFFIX.length()));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot list mock-snapshots", e);
+        }
+        if (result.isEmpty()) {
+            throw new IllegalStateException("mock-snapshots not found on classpath");
+        }
+        return result;
+    }
+
+    private static QueryAllResponseDTO queryAll(MockPrintSrvClient client, String device) {
+        try {
+            return client.queryAll(device);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static PrintSrvInstance toInstance(String instanceId, List<String> devices) {
+        List<String> printers = new ArrayList<>();
+        List<String> aggregationCams = new ArrayList<>();
+        List<String> aggregationBoxCams = new ArrayList<>();
+        List<String> checkerCams = new ArrayList<>();
+        for (String device : devices) {
+            if (device.startsWith("Printer")) {
+                printers.add(device);
+            } else if (device.startsWith("CamAgregationBox")) {
+                aggregationBoxCams.add(device);
+            } else if (device.startsWith("CamAgregation")) {
+                aggregationCams.add(device);
+            } else if (device.startsWith("CamChecker")) {
+                checkerCams.add(device);
+            }
+        }
+        return new PrintSrvInstance(instanceId, instanceId, WORKSHOP_ID, "localhost", 0, devices,
+                printers, aggregationCams, aggregationBoxCams, checkerCams, Map.of(), Map.of());
+    }
+
+    /**
+     * Топология в памяти вместо {@code PrintSrvTopologyJpaAdapter}.
+     */
+    private static final class InMemoryTopologyRepository implements PrintSrvTopologyRepository {
+
+        private final List<PrintSrvInstance> instances;
+        private final Map<String, PrintSrvInstance> byId = new LinkedHashMap<>();
+
+        private InMemoryTopologyRepository(List<PrintSrvInstance> instances) {
+            this.instances = List.copyOf(instances);
+            instances.forEach(instance -> byId.put(instance.instanceId(), instance));
+        }
+
+        @Override
+        public @NonNull List<PrintSrvInstance> findAllActiveInstances() {
+            return instances;
+        }
+
+        @Override
+        public @NonNull Optional<PrintSrvInstance> findByInstanceId(@NonNull String instanceId) {
+            return Optional.ofNullable(byId.get(instanceId));
+        }
+
+        @Override
+        public @NonNull List<Workshop> findAllActiveWorkshops() {
+            return List.of(new Workshop(WORKSHOP_ID, "Benchmark"));
+        }
+
+        @Override
+        public @NonNull String getConfigETag() {
+            return "\"benchmark\"";
+        }
+    }
+}
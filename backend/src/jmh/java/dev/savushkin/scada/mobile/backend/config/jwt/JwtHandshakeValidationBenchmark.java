@@ -0,0 +1,72 @@
+package dev.savushkin.scada.mobile.backend.config.jwt;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Путь валидации access-токена при WebSocket handshake
+ * ({@code WebSocketJwtInterceptor → JwtTokenProvider#validateAccessTokenClaims}).
+ * <ul>
+ *   <li>{@code legacyRebuildPerCall} — прежнее поведение: ключ и парсер строятся на каждый вызов;</li>
+ *   <li>{@code cachedParserColdToken} — переиспользуемые ключ и парсер, кэш проверенных токенов выключен
+ *       (первое предъявление токена);</li>
+ *   <li>{@code cachedParserRepeatToken} — повторное предъявление того же токена (переподключение).</li>
+ * </ul>
+ * Запуск: {@code ./gradlew jmh}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtHandshakeValidationBenchmark {
+
+    private static final String SECRET = "benchmark-secret-benchmark-secret-benchmark-secret";
+
+    private JwtTokenProvider uncachedProvider;
+    private JwtTokenProvider cachedProvider;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        uncachedProvider = new JwtTokenProvider(properties(0));
+        cachedProvider = new JwtTokenProvider(properties(10_000));
+        token = cachedProvider.generateAccessToken(42L, "USER");
+        // Прогрев: ключ, парсер и запись кэша уже построены до измерений.
+        uncachedProvider.validateAccessTokenClaims(token);
+        cachedProvider.validateAccessTokenClaims(token);
+    }
+
+    @Benchmark
+    public Claims legacyRebuildPerCall() {
+        return Jwts.parser()
+                .verifyWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                .build()
+                .parseSignedClaims(token)
+                .getPayload();
+    }
+
+    @Benchmark
+    public Claims cachedParserColdToken() {
+        return uncachedProvider.validateAccessTokenClaims(token);
+    }
+
+    @Benchmark
+    public Claims cachedParserRepeatToken() {
+        return cachedProvider.validateAccessTokenClaims(token);
+    }
+
+    private static JwtProperties properties(int verifiedCacheMaxEntries) {
+        JwtProperties properties = new JwtProperties();
+        properties.setAccessSecret(SECRET);
+        properties.setAccessExpirationMinutes(60);
+        properties.setVerifiedCacheMaxEntries(verifiedCacheMaxEntries);
+        return properties;
+    }
+}
@@ -0,0 +1,45 @@
+package dev.savushkin.scada.mobile.backend.infrastructure.integration.printsrv;
+
+import dev.savushkin.scada.mobile.backend.benchmark.MockSnapshotFixture;
+import dev.savushkin.scada.mobile.backend.domain.model.DeviceSnapshot;
+import dev.savushkin.scada.mobile.backend.infrastructure.integration.printsrv.dto.QueryAllResponseDTO;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Маппинг ответа QueryAll в доменный {@link DeviceSnapshot} — выполняется на каждое
+ * устройство каждого poll-прохода. Вход — реальные ответы из {@code mock-snapshots}:
+ * {@code scada} и {@code BatchQueue} несут сотни свойств, принтер и камера — десятки.
+ * <ul>
+ *   <li>{@code toDomainDeviceSnapshot} — {@link PrintSrvMapper#toDomainDeviceSnapshot}.</li>
+ * </ul>
+ * Запуск: {@code ./gradlew jmh -PjmhIncludes=PrintSrvMapperBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PrintSrvMapperBenchmark {
+
+    @Param({"hassia2", "grunwald11"})
+    public String instanceId;
+
+    @Param({"scada", "Line", "BatchQueue", "Printer11", "CamAgregation"})
+    public String device;
+
+    private final PrintSrvMapper mapper = new PrintSrvMapper();
+    private QueryAllResponseDTO response;
+
+    @Setup
+    public void setUp() {
+        response = MockSnapshotFixture.load().response(instanceId, device);
+    }
+
+    @Benchmark
+    public DeviceSnapshot toDomainDeviceSnapshot() {
+        return mapper.toDomainDeviceSnapshot(response);
+    }
+}
@@ -0,0 +1,103 @@
+package dev.savushkin.scada.mobile.backend.infrastructure.polling;
+
+import ch.qos.logback.classic.Level;
+import org.openjdk.jmh.annotations.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Стоимость диагностического логирования одного устройства за poll при выключенном
+ * {@code DEBUG}/{@code TRACE} (prod: {@code scada.polling.diagnostic} на уровне {@code WARN}).
+ * Операция — та же последовательность вызовов, что делает {@code TcpPrintSrvClient} на устройство.
+ * <ul>
+ *   <li>{@code baseline} — пустая операция;</li>
+ *   <li>{@code legacyWithMdc} — прежнее поведение: копия MDC, четыре {@code put}, лямбда и
+ *       восстановление карты на каждый вызов;</li>
+ *   <li>{@code levelGuarded} — текущий {@link PollingLogger} внутри итерации worker-а.</li>
+ * </ul>
+ * Запуск: {@code ./gradlew jmh}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-XX:+UseParallelGC")
+@State(Scope.Thread)
+public class PollingLoggerBenchmark {
+
+    private static final Logger legacyLog = LoggerFactory.getLogger("scada.polling.diagnostic");
+
+    private final String instanceId = "bosch";
+    private final String device = "Line1";
+    private final String requestJson = "{\"DeviceName\":\"Line1\",\"Command\":\"QueryAll\"}";
+    private final String responseBody = "{\"DeviceName\":\"Line1\",\"Units\":{}}";
+
+    @Setup
+    public void setUp() {
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger("scada.polling.diagnostic"))
+                .setLevel(Level.WARN);
+        PollingLogger.beginIteration(instanceId);
+    }
+
+    @TearDown
+    public void tearDown() {
+        PollingLogger.endIteration();
+    }
+
+    @Benchmark
+    public void baseline() {
+    }
+
+    @Benchmark
+    public void legacyWithMdc() {
+        withMdc(instanceId, 2, () -> legacyLog.debug("[CONNECT] reusing existing socket to {}:{}", "10.0.0.1", 9100));
+        withMdc(instanceId, device, 3, () -> legacyLog.debug("[REQUEST] device='{}', requestJson={}", device, requestJson));
+        withMdc(instanceId, 3, () -> legacyLog.trace("[REQUEST] sent magic={} bytes, body={} bytes", 4, 48));
+        withMdc(instanceId, device, 4, () -> legacyLog.debug("[RESPONSE] device='{}', responseLength={} bytes", device, 1024));
+        withMdc(instanceId, device, 4, () -> legacyLog.trace("[RESPONSE] device='{}', body={}", device, responseBody));
+        withMdc(instanceId, device, 5, () -> legacyLog.debug("[PARSE] device='{}', parsed deviceName='{}', units={}",
+                device, device, 12));
+    }
+
+    @Benchmark
+    public void levelGuarded() {
+        PollingLogger.logSocketReused(instanceId, "10.0.0.1", 9100);
+        PollingLogger.logRequestSent(instanceId, device, requestJson);
+        PollingLogger.logRequestBytes(instanceId, 4, 48);
+        PollingLogger.logResponseHeader(instanceId, device, 1024);
+        PollingLogger.logResponseBody(instanceId, device, responseBody);
+        PollingLogger.logParseSuccess(instanceId, device, device, 12);
+    }
+
+    /**
+     * Копия прежнего {@code PollingLogger.withMdc} — эталон для сравнения.
+     */
+    private static void withMdc(String instanceId, String device, int step, Runnable action) {
+        Map<String, String> previous = MDC.getCopyOfContextMap();
+        try {
+            if (instanceId != null) {
+                MDC.put("instanceId", instanceId);
+            }
+            if (device != null) {
+                MDC.put("device", device);
+            }
+            MDC.put("step", String.valueOf(step));
+            MDC.put("component", "POLLING");
+            action.run();
+        } finally {
+            if (previous != null) {
+                MDC.setContextMap(previous);
+            } else {
+                MDC.clear();
+            }
+        }
+    }
+
+    private static void withMdc(String instanceId, int step, Runnable action) {
+        withMdc(instanceId, null, step, action);
+    }
+}
@@ -0,0 +1,97 @@
+package dev.savushkin.scada.mobile.backend.infrastructure.store;
+
+import dev.savushkin.scada.mobile.backend.api.dto.AlertErrorDTO;
+import dev.savushkin.scada.mobile.backend.api.dto.AlertMessageDTO;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * {@link ActiveAlertStore#updateAndDiff} под конкуренцией: {@value #WRITERS} потоков-поллеров обновляют
+ * каждый свои аппараты (как worker-ы инстансов цеха), один поток читает {@link ActiveAlertStore#getAll()}
+ * (снапшот {@code ALERT_SNAPSHOT} при подключении клиентов).
+ * <ul>
+ *   <li>группа {@code steady} — алёрт аппарата не меняется между проходами (типичный случай, дельта пустая);</li>
+ *   <li>группа {@code toggling} — алёрт появляется и исчезает на каждом проходе (каждый вызов даёт дельту).</li>
+ * </ul>
+ * Запуск: {@code ./gradlew jmh -PjmhIncludes=ActiveAlertStoreBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Group)
+public class ActiveAlertStoreBenchmark {
+
+    static final int WRITERS = 50;
+
+    private static final int UNITS_PER_THREAD = 16;
+
+    private final ActiveAlertStore store = new ActiveAlertStore();
+
+    /**
+     * Аппараты одного потока-поллера и заранее построенные алёрты.
+     */
+    @State(Scope.Thread)
+    public static class Poller {
+
+        private static final AtomicInteger THREADS = new AtomicInteger();
+
+        private final String[] units = new String[UNITS_PER_THREAD];
+        private final AlertMessageDTO[] alerts = new AlertMessageDTO[UNITS_PER_THREAD];
+        private int cursor;
+        private boolean active;
+
+        @Setup
+        public void setUp() {
+            int thread = THREADS.getAndIncrement();
+            for (int i = 0; i < UNITS_PER_THREAD; i++) {
+                units[i] = "unit-" + thread + "-" + i;
+                alerts[i] = AlertMessageDTO.active(1L, units[i], units[i], "Critical",
+                        List.of(new AlertErrorDTO("scada", 1, "Ошибка")), "2026-03-01T10:23:45");
+            }
+        }
+
+        private int next() {
+            int index = cursor;
+            cursor = (index + 1) % UNITS_PER_THREAD;
+            if (cursor == 0) {
+                active = !active;
+            }
+            return index;
+        }
+    }
+
+    @Benchmark
+    @Group("steady")
+    @GroupThreads(WRITERS)
+    public ActiveAlertStore.Delta steadyUpdate(Poller poller) {
+        int i = poller.next();
+        return store.updateAndDiff(poller.units[i], poller.alerts[i]);
+    }
+
+    @Benchmark
+    @Group("steady")
+    @GroupThreads(1)
+    public List<AlertMessageDTO> steadySnapshot() {
+        return store.getAll();
+    }
+
+    @Benchmark
+    @Group("toggling")
+    @GroupThreads(WRITERS)
+    public ActiveAlertStore.Delta togglingUpdate(Poller poller) {
+        int i = poller.next();
+        return store.updateAndDiff(poller.units[i], poller.active ? poller.alerts[i] : null);
+    }
+
+    @Benchmark
+    @Group("toggling")
+    @GroupThreads(1)
+    public List<AlertMessageDTO> togglingSnapshot() {
+        return store.getAll();
+    }
+}
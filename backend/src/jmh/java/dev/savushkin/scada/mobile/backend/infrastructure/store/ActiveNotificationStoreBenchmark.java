@@ -0,0 +1,81 @@
+package dev.savushkin.scada.mobile.backend.infrastructure.store;
+
+import dev.savushkin.scada.mobile.backend.api.dto.NotificationMessageDTO;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * {@link ActiveNotificationStore#updateAndDiff} под конкуренцией: {@value ActiveAlertStoreBenchmark#WRITERS}
+ * потоков включают и снимают уведомления своих аппаратов (волна вызовов при остановке линий),
+ * один поток читает {@link ActiveNotificationStore#getAll()} ({@code NOTIFICATION_SNAPSHOT}
+ * при подключении клиентов). Каждый вызов даёт дельту, поэтому снимок пересобирается.
+ * <p>
+ * Запуск: {@code ./gradlew jmh -PjmhIncludes=ActiveNotificationStoreBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Group)
+public class ActiveNotificationStoreBenchmark {
+
+    private static final int UNITS_PER_THREAD = 4;
+
+    private final ActiveNotificationStore store = new ActiveNotificationStore();
+
+    /**
+     * Аппараты одного потока и заранее построенные сообщения.
+     */
+    @State(Scope.Thread)
+    public static class Caller {
+
+        private static final AtomicInteger THREADS = new AtomicInteger();
+
+        private final String[] units = new String[UNITS_PER_THREAD];
+        private final NotificationMessageDTO[] activated = new NotificationMessageDTO[UNITS_PER_THREAD];
+        private final NotificationMessageDTO[] deactivated = new NotificationMessageDTO[UNITS_PER_THREAD];
+        private int cursor;
+        private boolean active = true;
+
+        @Setup
+        public void setUp() {
+            int thread = THREADS.getAndIncrement();
+            for (int i = 0; i < UNITS_PER_THREAD; i++) {
+                units[i] = "unit-" + thread + "-" + i;
+                activated[i] = NotificationMessageDTO.activated(units[i], units[i], "42", "Иванов И.И.",
+                        "2026-03-01T10:23:45");
+                deactivated[i] = NotificationMessageDTO.deactivated(units[i], units[i], "42", "Иванов И.И.",
+                        "2026-03-01T10:24:45");
+            }
+        }
+
+        private NotificationMessageDTO next() {
+            int index = cursor;
+            cursor = (index + 1) % UNITS_PER_THREAD;
+            NotificationMessageDTO message = active ? activated[index] : deactivated[index];
+            if (cursor == 0) {
+                active = !active;
+            }
+            return message;
+        }
+    }
+
+    @Benchmark
+    @Group("toggling")
+    @GroupThreads(ActiveAlertStoreBenchmark.WRITERS)
+    public ActiveNotificationStore.Delta togglingUpdate(Caller caller) {
+        NotificationMessageDTO message = caller.next();
+        return store.updateAndDiff(message.unitId(), message);
+    }
+
+    @Benchmark
+    @Group("toggling")
+    @GroupThreads(1)
+    public List<NotificationMessageDTO> togglingSnapshot() {
+        return store.getAll();
+    }
+}
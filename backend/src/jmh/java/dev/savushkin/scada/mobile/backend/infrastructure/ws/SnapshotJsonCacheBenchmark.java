@@ -0,0 +1,86 @@
+package dev.savushkin.scada.mobile.backend.infrastructure.ws;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.savushkin.scada.mobile.backend.api.dto.AlertErrorDTO;
+import dev.savushkin.scada.mobile.backend.api.dto.AlertMessageDTO;
+import dev.savushkin.scada.mobile.backend.api.dto.AlertSnapshotMessageDTO;
+import dev.savushkin.scada.mobile.backend.api.dto.NotificationMessageDTO;
+import dev.savushkin.scada.mobile.backend.api.dto.NotificationSnapshotMessageDTO;
+import dev.savushkin.scada.mobile.backend.config.JacksonConfig;
+import dev.savushkin.scada.mobile.backend.infrastructure.store.ActiveAlertStore;
+import dev.savushkin.scada.mobile.backend.infrastructure.store.ActiveNotificationStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * Снапшоты {@code /ws/live} для одного нового соединения при неизменных хранилищах —
+ * типичный шаг волны переподключений.
+ * <ul>
+ *   <li>{@code *Jackson} — прежний путь: сериализация снапшота на каждое соединение;</li>
+ *   <li>{@code *Cached} — {@link SnapshotJsonCache}: готовая строка {@code ALERT_SNAPSHOT},
+ *       склейка {@code NOTIFICATION_SNAPSHOT} пользователя из фрагментов.</li>
+ * </ul>
+ * Пользователь видит половину аппаратов ({@code units} — активных алёртов и уведомлений).
+ * Запуск: {@code ./gradlew jmh -PjmhIncludes=SnapshotJsonCacheBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SnapshotJsonCacheBenchmark {
+
+    private static final String TIMESTAMP = "2026-03-01T10:23:45";
+
+    @Param({"10", "100"})
+    public int units;
+
+    private final ObjectMapper objectMapper = new JacksonConfig().objectMapper();
+    private final ActiveAlertStore alertStore = new ActiveAlertStore();
+    private final ActiveNotificationStore notificationStore = new ActiveNotificationStore();
+    private final Predicate<NotificationMessageDTO> visible = n -> n.unitId().hashCode() % 2 == 0;
+    private SnapshotJsonCache cache;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        List<AlertMessageDTO> alerts = new ArrayList<>();
+        List<NotificationMessageDTO> notifications = new ArrayList<>();
+        for (int i = 0; i < units; i++) {
+            String unitId = "unit-" + i;
+            alerts.add(AlertMessageDTO.active(1L, unitId, unitId, "Critical",
+                    List.of(new AlertErrorDTO("scada", 1, "Ошибка камеры агрегации")), TIMESTAMP));
+            notifications.add(NotificationMessageDTO.activated(unitId, unitId, "42", "Иванов И.И.", TIMESTAMP));
+        }
+        alertStore.replaceAll(alerts);
+        notificationStore.replaceAll(notifications);
+        cache = new SnapshotJsonCache(alertStore, notificationStore, objectMapper, new SimpleMeterRegistry());
+    }
+
+    @Benchmark
+    public String alertSnapshotJackson() throws JsonProcessingException {
+        return objectMapper.writeValueAsString(AlertSnapshotMessageDTO.of(alertStore.getAll()));
+    }
+
+    @Benchmark
+    public String alertSnapshotCached() throws JsonProcessingException {
+        return cache.alertSnapshot();
+    }
+
+    @Benchmark
+    public String notificationSnapshotJackson() throws JsonProcessingException {
+        return objectMapper.writeValueAsString(NotificationSnapshotMessageDTO.of(
+                notificationStore.getAll().stream().filter(visible).toList()));
+    }
+
+    @Benchmark
+    public String notificationSnapshotCached() throws JsonProcessingException {
+        return cache.notificationSnapshot(visible);
+    }
+}
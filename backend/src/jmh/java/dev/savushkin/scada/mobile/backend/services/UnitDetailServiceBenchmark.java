@@ -0,0 +1,56 @@
+package dev.savushkin.scada.mobile.backend.services;
+
+import dev.savushkin.scada.mobile.backend.api.dto.DevicesStatusMessageDTO;
+import dev.savushkin.scada.mobile.backend.api.dto.LineStatusMessageDTO;
+import dev.savushkin.scada.mobile.backend.benchmark.MockSnapshotFixture;
+import dev.savushkin.scada.mobile.backend.domain.model.DeviceError;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сборка сообщений канала {@code /ws/unit/*} из snapshot-ов аппарата — выполняется
+ * на каждый poll-проход для каждого аппарата с подписчиками
+ * ({@code extractActiveErrors} — для каждого аппарата всегда).
+ * <ul>
+ *   <li>{@code buildLineStatus} — {@code LINE_STATUS} (Line, первый принтер, BatchQueue);</li>
+ *   <li>{@code buildDevicesStatus} — {@code DEVICES_STATUS} (состав устройств и scada);</li>
+ *   <li>{@code extractActiveErrors} — активные ошибки из scada и камер.</li>
+ * </ul>
+ * {@code grunwald11} — самый крупный аппарат seed-данных (4 принтера, 10 камер).
+ * Запуск: {@code ./gradlew jmh -PjmhIncludes=UnitDetailServiceBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class UnitDetailServiceBenchmark {
+
+    @Param({"hassia2", "grunwald11"})
+    public String instanceId;
+
+    private UnitDetailService service;
+
+    @Setup
+    public void setUp() {
+        service = MockSnapshotFixture.load().unitDetailService();
+    }
+
+    @Benchmark
+    public LineStatusMessageDTO buildLineStatus() {
+        return service.buildLineStatus(instanceId);
+    }
+
+    @Benchmark
+    public DevicesStatusMessageDTO buildDevicesStatus() {
+        return service.buildDevicesStatus(instanceId);
+    }
+
+    @Benchmark
+    public List<DeviceError> extractActiveErrors() {
+        return service.extractActiveErrors(instanceId);
+    }
+}
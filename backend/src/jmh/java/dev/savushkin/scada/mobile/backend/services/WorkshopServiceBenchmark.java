@@ -0,0 +1,41 @@
+package dev.savushkin.scada.mobile.backend.services;
+
+import dev.savushkin.scada.mobile.backend.api.dto.UnitStatusDTO;
+import dev.savushkin.scada.mobile.backend.benchmark.MockSnapshotFixture;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Статусы всех аппаратов цеха — REST {@code /workshops/{id}/units/status} и снапшот
+ * {@code UNITS_STATUS} при подписке на цех в {@code /ws/live}.
+ * <ul>
+ *   <li>{@code getUnitsStatus} — {@link WorkshopService#getUnitsStatus} для цеха из
+ *       {@code copies × seed-аппаратов}.</li>
+ * </ul>
+ * Запуск: {@code ./gradlew jmh -PjmhIncludes=WorkshopServiceBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class WorkshopServiceBenchmark {
+
+    @Param({"1", "4"})
+    public int copies;
+
+    private WorkshopService service;
+
+    @Setup
+    public void setUp() {
+        service = MockSnapshotFixture.load(copies).workshopService();
+    }
+
+    @Benchmark
+    public List<UnitStatusDTO> getUnitsStatus() {
+        return service.getUnitsStatus(MockSnapshotFixture.WORKSHOP_ID);
+    }
+}
@@ -0,0 +1,327 @@
+package dev.savushkin.scada.mobile.backend.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.savushkin.scada.mobile.backend.infrastructure.integration.printsrv.QueryAllJson;
+import dev.savushkin.scada.mobile.backend.infrastructure.integration.printsrv.dto.QueryAllResponseDTO;
+import dev.savushkin.scada.mobile.backend.infrastructure.integration.printsrv.mock.MockInstanceState;
+import dev.savushkin.scada.mobile.backend.infrastructure.integration.printsrv.mock.MockPrintSrvClient;
+import dev.savushkin.scada.mobile.backend.infrastructure.integration.printsrv.mock.MockPrintSrvProperties;
+import dev.savushkin.scada.mobile.backend.infrastructure.integration.printsrv.mock.MockStateSimulator;
+import dev.savushkin.scada.mobile.backend.infrastructure.integration.printsrv.mock.XmlSnapshotLoader;
+import org.jspecify.annotations.Nullable;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Поддельный PrintSrv: TCP-сервер протокола P001 ({@code "P001"} + длина big-endian + JSON
+ * в windows-1251), по одному порту на инстанс — как у реальных аппаратов.
+ *
+ * <p>Состояние инстанса — {@link MockInstanceState} из seed-файлов {@code mock-snapshots}
+ * ({@link XmlSnapshotLoader}); фоновый тик продвигает его правилами {@link MockStateSimulator}.
+ * Ответ на {@code QueryAll} собирается тем же {@link MockPrintSrvClient}, но проходит весь
+ * сетевой путь {@code TcpPrintSrvClient}: кадрирование, кодировку, переиспользование сокета
+ * и таймауты.
+ *
+ * <p>Сбои задаются {@link Faults}: задержка и джиттер ответа, запись ответа частями,
+ * обрыв соединения посреди ответа и кадр длиннее лимита клиента (10 MB).
+ *
+ * <p>Встраивается в JVM ({@link #addInstance}, {@link #close()}) или запускается отдельным
+ * процессом: {@code ./gradlew fakePrintSrv -Pfake.basePort=19100 -Pfake.latencyMs=20}.
+ */
+public final class FakePrintSrvServer implements Closeable {
+
+    private static final byte[] MAGIC = {'P', '0', '0', '1'};
+    private static final Charset CHARSET = Charset.forName("windows-1251");
+    private static final int MAX_REQUEST_SIZE = 64 * 1024;
+    private static final int OVERSIZED_LENGTH = 16 * 1024 * 1024;
+    private static final String SCADA_DEVICE = "scada";
+
+    /**
+     * Профиль сбоев; вероятности — на один запрос.
+     *
+     * @param latencyMs              базовая задержка ответа
+     * @param jitterMs               случайная добавка к задержке, {@code [0, jitterMs]}
+     * @param chunkBytes             запись ответа частями по столько байт; 0 — одной записью
+     * @param chunkDelayMs           пауза между частями
+     * @param disconnectProbability  обрыв соединения после половины тела ответа
+     * @param oversizedProbability   заголовок с длиной больше лимита клиента и закрытие
+     */
+    public record Faults(
+            long latencyMs,
+            long jitterMs,
+            int chunkBytes,
+            long chunkDelayMs,
+            double disconnectProbability,
+            double oversizedProbability
+    ) {
+        public static final Faults NONE = new Faults(0, 0, 0, 0, 0.0, 0.0);
+
+        /**
+         * Читает профиль из system properties {@code <prefix>latencyMs}, {@code <prefix>jitterMs}, …
+         */
+        public static Faults fromSystemProperties(String prefix) {
+            return new Faults(
+                    Long.getLong(prefix + "latencyMs", 0L),
+                    Long.getLong(prefix + "jitterMs", 0L),
+                    Integer.getInteger(prefix + "chunkBytes", 0),
+                    Long.getLong(prefix + "chunkDelayMs", 0L),
+                    Double.parseDouble(System.getProperty(prefix + "disconnectProbability", "0")),
+                    Double.parseDouble(System.getProperty(prefix + "oversizedProbability", "0")));
+        }
+    }
+
+    private final Faults faults;
+    private final MockStateSimulator simulator;
+    private final long tickIntervalMs;
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final XmlSnapshotLoader loader = new XmlSnapshotLoader();
+    private final Map<String, Instance> instances = new ConcurrentHashMap<>();
+    private final List<Closeable> sockets = new CopyOnWriteArrayList<>();
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder injectedFaults = new LongAdder();
+    private final Thread ticker;
+
+    private volatile boolean running = true;
+
+    /**
+     * @param simulation параметры симуляции (вероятности ошибок, seed, интервал тика);
+     *                   {@code simulationEnabled=false} — состояние не меняется
+     */
+    public FakePrintSrvServer(Faults faults, MockPrintSrvProperties simulation) {
+        this.faults = faults;
+        this.simulator = new MockStateSimulator(simulation);
+        this.tickIntervalMs = simulation.getTickIntervalMs();
+        this.ticker = simulation.isSimulationEnabled()
+                ? Thread.ofVirtual().name("fake-printsrv-tick").start(this::tickLoop)
+                : null;
+    }
+
+    /**
+     * Поднимает инстанс на {@code 127.0.0.1:port} с seed-состоянием.
+     *
+     * @param instanceId      идентификатор инстанса (для логов и {@link MockInstanceState})
+     * @param seedId          каталог {@code mock-snapshots/<seedId>/} в classpath
+     * @param snapshotBaseDir необязательный каталог seed-файлов на диске ({@code <baseDir>/<seedId>/})
+     * @param devices         устройства инстанса
+     * @param port            порт; 0 — любой свободный
+     * @return фактический порт
+     */
+    public int addInstance(String instanceId, String seedId, @Nullable String snapshotBaseDir,
+                           Set<String> devices, int port) throws IOException {
+        MockInstanceState state = new MockInstanceState(instanceId);
+        for (String device : devices) {
+            state.initDevice(device, loader.loadForDevice(device, snapshotBaseDir, seedId));
+        }
+        ServerSocket server = new ServerSocket(port, 128, InetAddress.getLoopbackAddress());
+        sockets.add(server);
+        Instance instance = new Instance(new MockPrintSrvClient(instanceId, state, false), state, server);
+        instances.put(instanceId, instance);
+        Thread.ofVirtual().name("fake-printsrv-accept-" + instanceId).start(() -> acceptLoop(instance));
+        return server.getLocalPort();
+    }
+
+    public long requestCount() {
+        return requests.sum();
+    }
+
+    public long injectedFaultCount() {
+        return injectedFaults.sum();
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        if (ticker != null) {
+            ticker.interrupt();
+        }
+        for (Closeable socket : sockets) {
+            try {
+                socket.close();
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+    /**
+     * Отдельный процесс: все seed-инстансы {@code mock-snapshots} (или {@code -Dfake.instances=a,b})
+     * на портах {@code fake.basePort + i}; сбои — {@code -Dfake.latencyMs=…} и т.д.
+     */
+    public static void main(String[] args) throws Exception {
+        Map<String, TreeSet<String>> seeds = LoadDataSeeder.discoverSeeds();
+        String only = System.getProperty("fake.instances");
+        List<String> ids = only == null || only.isBlank()
+                ? new ArrayList<>(seeds.keySet())
+                : List.of(only.split(","));
+        int basePort = Integer.getInteger("fake.basePort", 19100);
+
+        MockPrintSrvProperties simulation = new MockPrintSrvProperties();
+        simulation.setTickIntervalMs(Long.getLong("fake.tickIntervalMs", 1000L));
+        FakePrintSrvServer server = new FakePrintSrvServer(Faults.fromSystemProperties("fake."), simulation);
+        Runtime.getRuntime().addShutdownHook(new Thread(server::close));
+        for (int i = 0; i < ids.size(); i++) {
+            String id = ids.get(i).trim();
+            TreeSet<String> devices = seeds.get(id);
+            if (devices == null) {
+                throw new IllegalArgumentException("No mock-snapshots seed for " + id);
+            }
+            int port = server.addInstance(id, id, null, devices, basePort + i);
+            System.out.printf("fake PrintSrv '%s' listening on 127.0.0.1:%d (%d device(s))%n", id, port, devices.size());
+        }
+        System.out.println("faults: " + server.faults);
+        Thread.currentThread().join();
+    }
+
+    // ─── Private ─────────────────────────────────────────────────────────────
+
+    private void tickLoop() {
+        while (running) {
+            try {
+                Thread.sleep(tickIntervalMs);
+            } catch (InterruptedException e) {
+                return;
+            }
+            for (Instance instance : instances.values()) {
+                simulator.tickState(instance.state(), SCADA_DEVICE);
+            }
+        }
+    }
+
+    private void acceptLoop(Instance instance) {
+        while (running) {
+            try {
+                Socket socket = instance.server().accept();
+                sockets.add(socket);
+                Thread.ofVirtual().start(() -> serve(instance, socket));
+            } catch (IOException e) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Цикл запрос → ответ на одном соединении: клиент переиспользует сокет между опросами.
+     */
+    private void serve(Instance instance, Socket socket) {
+        try (socket) {
+            InputStream in = socket.getInputStream();
+            OutputStream out = socket.getOutputStream();
+            while (running) {
+                String request = readFrame(in);
+                requests.increment();
+                JsonNode node = mapper.readTree(request);
+                String device = node.path("DeviceName").asText();
+                byte[] body = encode(instance.client().queryAll(device));
+
+                delay(faults.latencyMs() + (faults.jitterMs() > 0
+                        ? ThreadLocalRandom.current().nextLong(faults.jitterMs() + 1) : 0));
+                if (roll(faults.oversizedProbability())) {
+                    injectedFaults.increment();
+                    out.write(header(OVERSIZED_LENGTH));
+                    out.flush();
+                    return;
+                }
+                if (roll(faults.disconnectProbability())) {
+                    injectedFaults.increment();
+                    out.write(header(body.length));
+                    out.write(body, 0, body.length / 2);
+                    out.flush();
+                    return;
+                }
+                writeResponse(out, body);
+            }
+        } catch (EOFException | SocketException e) {
+            // клиент закрыл соединение или сервер остановлен
+        } catch (Exception e) {
+            if (running) {
+                System.err.printf("fake PrintSrv '%s': %s%n", instance.client().getInstanceId(), e);
+            }
+        } finally {
+            sockets.remove(socket);
+        }
+    }
+
+    private void writeResponse(OutputStream out, byte[] body) throws IOException {
+        byte[] header = header(body.length);
+        if (faults.chunkBytes() <= 0) {
+            byte[] frame = new byte[header.length + body.length];
+            System.arraycopy(header, 0, frame, 0, header.length);
+            System.arraycopy(body, 0, frame, header.length, body.length);
+            out.write(frame);
+            out.flush();
+            return;
+        }
+        out.write(header);
+        out.flush();
+        for (int offset = 0; offset < body.length; offset += faults.chunkBytes()) {
+            delay(faults.chunkDelayMs());
+            out.write(body, offset, Math.min(faults.chunkBytes(), body.length - offset));
+            out.flush();
+        }
+    }
+
+    private static String readFrame(InputStream in) throws IOException {
+        byte[] magic = in.readNBytes(4);
+        if (magic.length < 4) {
+            throw new EOFException();
+        }
+        for (int i = 0; i < MAGIC.length; i++) {
+            if (magic[i] != MAGIC[i]) {
+                throw new IOException("Invalid magic header");
+            }
+        }
+        byte[] lengthBytes = in.readNBytes(4);
+        if (lengthBytes.length < 4) {
+            throw new EOFException();
+        }
+        int length = ByteBuffer.wrap(lengthBytes).getInt();
+        if (length < 0 || length > MAX_REQUEST_SIZE) {
+            throw new IOException("Invalid request length: " + length);
+        }
+        byte[] body = in.readNBytes(length);
+        if (body.length < length) {
+            throw new EOFException();
+        }
+        return new String(body, CHARSET);
+    }
+
+    private static byte[] header(int length) {
+        return ByteBuffer.allocate(8).put(MAGIC).putInt(length).array();
+    }
+
+    private byte[] encode(QueryAllResponseDTO dto) throws IOException {
+        return QueryAllJson.encode(mapper, dto).getBytes(CHARSET);
+    }
+
+    private static boolean roll(double probability) {
+        return probability > 0 && ThreadLocalRandom.current().nextDouble() < probability;
+    }
+
+    private static void delay(long millis) throws InterruptedException {
+        if (millis > 0) {
+            Thread.sleep(millis);
+        }
+    }
+
+    private record Instance(MockPrintSrvClient client, MockInstanceState state, ServerSocket server) {
+    }
+}
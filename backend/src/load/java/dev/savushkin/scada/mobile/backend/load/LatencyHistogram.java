@@ -0,0 +1,66 @@
+package dev.savushkin.scada.mobile.backend.load;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free гистограмма задержек с шагом 1 мс до {@link #MAX_MILLIS}; всё, что больше,
+ * попадает в последний бакет. Запись — один {@code incrementAndGet}, поэтому её можно
+ * вызывать из сотен потоков-получателей сообщений без искажения замера.
+ */
+final class LatencyHistogram {
+
+    static final int MAX_MILLIS = 60_000;
+
+    private static final double[] PERCENTILES = {0.5, 0.9, 0.95, 0.99, 0.999};
+    private static final String[] LABELS = {"p50", "p90", "p95", "p99", "p999"};
+
+    private final AtomicLongArray buckets = new AtomicLongArray(MAX_MILLIS + 1);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    void record(long millis) {
+        long value = Math.max(0L, millis);
+        buckets.incrementAndGet((int) Math.min(value, MAX_MILLIS));
+        count.incrementAndGet();
+        max.accumulateAndGet(value, Math::max);
+    }
+
+    long count() {
+        return count.get();
+    }
+
+    /**
+     * Значение перцентиля {@code p} (0..1) в миллисекундах; 0 — если замеров нет.
+     */
+    long percentile(double p) {
+        long total = count.get();
+        if (total == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(p * total);
+        long seen = 0;
+        for (int i = 0; i <= MAX_MILLIS; i++) {
+            seen += buckets.get(i);
+            if (seen >= rank) {
+                return i;
+            }
+        }
+        return MAX_MILLIS;
+    }
+
+    /**
+     * Сводка для отчёта: {@code count}, p50…p999, {@code max} (мс).
+     */
+    Map<String, Long> summary() {
+        Map<String, Long> summary = new LinkedHashMap<>();
+        summary.put("count", count());
+        for (int i = 0; i < PERCENTILES.length; i++) {
+            summary.put(LABELS[i], percentile(PERCENTILES[i]));
+        }
+        summary.put("max", max.get());
+        return summary;
+    }
+}
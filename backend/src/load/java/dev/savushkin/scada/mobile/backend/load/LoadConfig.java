@@ -0,0 +1,94 @@
+package dev.savushkin.scada.mobile.backend.load;
+
+import java.nio.file.Path;
+
+/**
+ * Параметры нагрузочного прогона. Читаются из system properties {@code load.*}
+ * (Gradle-задача {@code loadTest} пробрасывает в них {@code -Pload.*}).
+ *
+ * @param machines            число синтетических аппаратов (клоны {@code mock-snapshots} по кругу)
+ * @param workshops           число цехов, по которым распределяются аппараты
+ * @param liveClients         число клиентов {@code /ws/live}
+ * @param unitClients         число клиентов {@code /ws/unit/*}
+ * @param durationSeconds     длительность установившейся нагрузки
+ * @param pollDelayMs         {@code printsrv.polling.fixed-delay-ms} бэкенда
+ * @param stormIntervalSeconds период reconnect-штормов; 0 — без штормов
+ * @param stormFraction       доля клиентов, одновременно рвущих и восстанавливающих соединение
+ * @param toggleIntervalMs    период переключения производственных уведомлений; 0 — без переключений
+ * @param ackEnabled          отправлять {@code ACK} на {@code UNITS_STATUS} (метрика {@code ws.delivered.age})
+ * @param reportDir           каталог для {@code load-report.json}
+ * @param transport           {@code mock} — {@code MockPrintSrvClient} в профиле {@code dev};
+ *                            {@code tcp} — профиль {@code prod}, {@code TcpPrintSrvClient} против
+ *                            {@link FakePrintSrvServer} на localhost;
+ *                            {@code log} — профиль {@code dev} с {@code ingestion.source=log}, записи пишет
+ *                            {@link LogLoadProducer}
+ * @param faults              сбои fake PrintSrv ({@code load.fake.*}), только для {@code tcp}
+ * @param logPartitions       число партиций журнала приёма, только для {@code log}
+ * @param wsNodes             число отдельных JVM с {@code cluster.role=ws}; 0 — один бэкенд без кластера,
+ *                            иначе бэкенд стенда — лидер ({@code cluster.bus=postgres}), а клиенты
+ *                            распределяются по WS-узлам по кругу
+ */
+record LoadConfig(
+        int machines,
+        int workshops,
+        int liveClients,
+        int unitClients,
+        int durationSeconds,
+        long pollDelayMs,
+        int stormIntervalSeconds,
+        double stormFraction,
+        long toggleIntervalMs,
+        boolean ackEnabled,
+        Path reportDir,
+        String transport,
+        FakePrintSrvServer.Faults faults,
+        int logPartitions,
+        int wsNodes
+) {
+
+    static final String TRANSPORT_MOCK = "mock";
+    static final String TRANSPORT_TCP = "tcp";
+    static final String TRANSPORT_LOG = "log";
+
+    static LoadConfig fromSystemProperties() {
+        int machines = intProperty("load.machines", 40);
+        return new LoadConfig(
+                machines,
+                intProperty("load.workshops", Math.max(1, machines / 10)),
+                intProperty("load.liveClients", 300),
+                intProperty("load.unitClients", 100),
+                intProperty("load.durationSeconds", 120),
+                intProperty("load.pollDelayMs", 1000),
+                intProperty("load.stormIntervalSeconds", 30),
+                Double.parseDouble(System.getProperty("load.stormFraction", "0.5")),
+                intProperty("load.toggleIntervalMs", 500),
+                Boolean.parseBoolean(System.getProperty("load.ack", "true")),
+                Path.of(System.getProperty("load.reportDir", "build/reports/load")),
+                System.getProperty("load.transport", TRANSPORT_MOCK),
+                FakePrintSrvServer.Faults.fromSystemProperties("load.fake."),
+                intProperty("load.logPartitions", 8),
+                intProperty("load.wsNodes", 0)
+        );
+    }
+
+    boolean tcpTransport() {
+        return TRANSPORT_TCP.equals(transport);
+    }
+
+    boolean logTransport() {
+        return TRANSPORT_LOG.equals(transport);
+    }
+
+    boolean clustered() {
+        return wsNodes > 0;
+    }
+
+    int totalClients() {
+        return liveClients + unitClients;
+    }
+
+    private static int intProperty(String name, int defaultValue) {
+        String value = System.getProperty(name);
+        return value == null || value.isBlank() ? defaultValue : Integer.parseInt(value.trim());
+    }
+}
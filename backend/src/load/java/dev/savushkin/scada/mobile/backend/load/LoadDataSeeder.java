@@ -0,0 +1,342 @@
+package dev.savushkin.scada.mobile.backend.load;
+
+import org.flywaydb.core.Flyway;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Подготавливает БД и seed-каталог под нагрузочный прогон.
+ *
+ * <ul>
+ *   <li>Схема — теми же Flyway-миграциями, что и у приложения;</li>
+ *   <li>{@code N} аппаратов {@code load-0001…} клонируются по кругу из каталогов
+ *       {@code mock-snapshots/<instanceId>/} (кроме {@code default}) во временный
+ *       {@code snapshot-base-dir}: у каждого свой seed, поэтому мок-реестр считает их online;</li>
+ *   <li>состав устройств аппарата ({@code unit_devices}) повторяет XML-файлы его seed-а —
+ *       poller опрашивает ровно их;</li>
+ *   <li>по одному сотруднику на клиента ({@code LD000001…}, пароль {@link #PASSWORD}) с назначением
+ *       на «свой» аппарат — без назначения переключение уведомлений отклоняется;</li>
+ *   <li>администратор создаётся заранее, чтобы {@code AdminBootstrapConfig} ничего не делал.</li>
+ * </ul>
+ */
+final class LoadDataSeeder {
+
+    static final String PASSWORD = "load-password";
+    static final String USER_PREFIX = "LD";
+    static final String UNIT_PREFIX = "load-";
+
+    private static final String SNAPSHOT_PATTERN = "classpath*:mock-snapshots/*/*___Unit0.xml";
+    private static final String FILENAME_SUFFIX = "___Unit0.xml";
+    private static final List<String> SYSTEM_DEVICES = List.of("Line", "scada", "BatchQueue");
+
+    private final DataSource dataSource;
+    private final LoadConfig config;
+
+    LoadDataSeeder(DataSource dataSource, LoadConfig config) {
+        this.dataSource = dataSource;
+        this.config = config;
+    }
+
+    /**
+     * Итог подготовки: аппараты по цехам и учётки клиентов.
+     *
+     * @param instanceIds     PrintSrv instanceId синтетических аппаратов
+     * @param workshopIds     workshop_id цехов
+     * @param instanceWorkshop instanceId → workshop_id
+     * @param instanceSeed    instanceId → seed-каталог {@code mock-snapshots}, из которого он склонирован
+     * @param seedDevices     seed-каталог → имена устройств
+     * @param userCodes       коды сотрудников; i-й сотрудник назначен на аппарат {@code i % N}
+     */
+    record Seeded(
+            List<String> instanceIds,
+            List<Long> workshopIds,
+            Map<String, Long> instanceWorkshop,
+            Map<String, String> instanceSeed,
+            Map<String, TreeSet<String>> seedDevices,
+            List<String> userCodes
+    ) {
+        String instanceFor(int clientIndex) {
+            return instanceIds.get(clientIndex % instanceIds.size());
+        }
+    }
+
+    Seeded seed(Path snapshotBaseDir) throws SQLException {
+        Flyway.configure()
+                .dataSource(dataSource)
+                .locations("classpath:db/migration")
+                .load()
+                .migrate();
+
+        Map<String, TreeSet<String>> seeds = discoverSeeds();
+        List<String> seedIds = new ArrayList<>(seeds.keySet());
+
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+
+            List<Long> workshopIds = new ArrayList<>();
+            for (int w = 1; w <= config.workshops(); w++) {
+                workshopIds.add(insertReturningId(connection,
+                        "INSERT INTO workshops (name, is_active) VALUES (?, true)", "Load workshop " + w));
+            }
+
+            Map<String, Long> catalogIds = seedCatalog(connection, seeds);
+
+            List<String> instanceIds = new ArrayList<>();
+            Map<String, Long> instanceWorkshop = new LinkedHashMap<>();
+            Map<String, String> instanceSeed = new LinkedHashMap<>();
+            List<Long> unitIds = new ArrayList<>();
+            for (int i = 0; i < config.machines(); i++) {
+                String seedId = seedIds.get(i % seedIds.size());
+                String instanceId = UNIT_PREFIX + String.format("%04d", i + 1);
+                long workshopId = workshopIds.get(i % workshopIds.size());
+                long unitId = insertUnit(connection, workshopId, instanceId);
+                for (String device : seeds.get(seedId)) {
+                    Long catalogId = catalogIds.get(device);
+                    if (catalogId != null) {
+                        insertUnitDevice(connection, unitId, catalogId);
+                    }
+                }
+                copySeed(seedId, seeds.get(seedId), snapshotBaseDir.resolve(instanceId));
+                instanceIds.add(instanceId);
+                instanceWorkshop.put(instanceId, workshopId);
+                instanceSeed.put(instanceId, seedId);
+                unitIds.add(unitId);
+            }
+
+            List<String> userCodes = seedUsers(connection, unitIds);
+            connection.commit();
+            return new Seeded(List.copyOf(instanceIds), List.copyOf(workshopIds),
+                    Map.copyOf(instanceWorkshop), Map.copyOf(instanceSeed), Map.copyOf(seeds), List.copyOf(userCodes));
+        }
+    }
+
+    /**
+     * Направляет аппараты на реальные TCP-адреса (режим {@code tcp}: {@link FakePrintSrvServer}).
+     *
+     * @param ports instanceId → порт на {@code 127.0.0.1}
+     */
+    void assignEndpoints(Map<String, Integer> ports) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement ps = connection.prepareStatement(
+                     "UPDATE units SET printsrv_host = '127.0.0.1', printsrv_port = ? WHERE printsrv_instance_id = ?")) {
+            for (Map.Entry<String, Integer> entry : ports.entrySet()) {
+                ps.setInt(1, entry.getValue());
+                ps.setString(2, entry.getKey());
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+    }
+
+    /**
+     * seed-каталоги {@code mock-snapshots} (кроме {@code default}) → имена устройств по XML-файлам.
+     */
+    static Map<String, TreeSet<String>> discoverSeeds() {
+        Map<String, TreeSet<String>> result = new TreeMap<>();
+        for (Resource resource : snapshotResources()) {
+            String[] segments = url(resource).split("/");
+            String instanceId = segments[segments.length - 2];
+            String filename = segments[segments.length - 1];
+            if (!"default".equals(instanceId)) {
+                result.computeIfAbsent(instanceId, k -> new TreeSet<>())
+                        .add(filename.substring(0, filename.length() - FILENAME_SUFFIX.length()));
+            }
+        }
+        if (result.isEmpty()) {
+            throw new IllegalStateException("mock-snapshots not found on classpath");
+        }
+        return result;
+    }
+
+    // ─── Private ─────────────────────────────────────────────────────────────
+
+    /**
+     * Справочник устройств: {@code device_catalog.code} уникален, поэтому одна запись на имя
+     * устройства, общая для всех аппаратов. Системные устройства в каталог не попадают —
+     * topology-адаптер добавляет их сам.
+     */
+    private Map<String, Long> seedCatalog(Connection connection, Map<String, TreeSet<String>> seeds)
+            throws SQLException {
+        Map<String, Long> typeIds = new LinkedHashMap<>();
+        Map<String, Long> catalogIds = new LinkedHashMap<>();
+        TreeSet<String> devices = new TreeSet<>();
+        seeds.values().forEach(devices::addAll);
+        for (String device : devices) {
+            String typeCode = typeCode(device);
+            if (typeCode == null) {
+                continue;
+            }
+            Long typeId = typeIds.get(typeCode);
+            if (typeId == null) {
+                typeId = insertReturningId(connection,
+                        "INSERT INTO device_types (code, name) VALUES (?, ?)", typeCode, "Load " + typeCode);
+                typeIds.put(typeCode, typeId);
+            }
+            try (PreparedStatement ps = connection.prepareStatement(
+                    "INSERT INTO device_catalog (type_id, code, name, is_active) VALUES (?, ?, ?, true)",
+                    Statement.RETURN_GENERATED_KEYS)) {
+                ps.setLong(1, typeId);
+                ps.setString(2, device);
+                ps.setString(3, device);
+                ps.executeUpdate();
+                catalogIds.put(device, generatedId(ps));
+            }
+        }
+        return catalogIds;
+    }
+
+    private List<String> seedUsers(Connection connection, List<Long> unitIds) throws SQLException {
+        long adminRole = insertReturningId(connection, "INSERT INTO roles (name) VALUES (?)", "ADMIN");
+        long workerRole = insertReturningId(connection, "INSERT INTO roles (name) VALUES (?)", "WORKER");
+        // BCrypt намеренно медленный — один хэш на всех сотрудников
+        String hash = new BCryptPasswordEncoder().encode(PASSWORD);
+        insertUser(connection, adminRole, "LDADMIN", hash);
+
+        List<String> codes = new ArrayList<>();
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        try (PreparedStatement assign = connection.prepareStatement(
+                "INSERT INTO user_unit_assignments (user_id, unit_id, assigned_at, is_active) VALUES (?, ?, ?, true)")) {
+            for (int i = 0; i < config.totalClients(); i++) {
+                String code = USER_PREFIX + String.format("%06d", i + 1);
+                long userId = insertUser(connection, workerRole, code, hash);
+                assign.setLong(1, userId);
+                assign.setLong(2, unitIds.get(i % unitIds.size()));
+                assign.setTimestamp(3, now);
+                assign.addBatch();
+                codes.add(code);
+            }
+            assign.executeBatch();
+        }
+        return codes;
+    }
+
+    private static long insertUnit(Connection connection, long workshopId, String instanceId) throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement(
+                "INSERT INTO units (workshop_id, name, printsrv_instance_id, is_active, printsrv_host, printsrv_port) "
+                        + "VALUES (?, ?, ?, true, 'localhost', 0)",
+                Statement.RETURN_GENERATED_KEYS)) {
+            ps.setLong(1, workshopId);
+            ps.setString(2, instanceId);
+            ps.setString(3, instanceId);
+            ps.executeUpdate();
+            return generatedId(ps);
+        }
+    }
+
+    private static void insertUnitDevice(Connection connection, long unitId, long catalogId) throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement(
+                "INSERT INTO unit_devices (unit_id, catalog_id) VALUES (?, ?)")) {
+            ps.setLong(1, unitId);
+            ps.setLong(2, catalogId);
+            ps.executeUpdate();
+        }
+    }
+
+    private static long insertUser(Connection connection, long roleId, String code, String hash) throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement(
+                "INSERT INTO users (role_id, code, password, full_name, is_active) VALUES (?, ?, ?, ?, true)",
+                Statement.RETURN_GENERATED_KEYS)) {
+            ps.setLong(1, roleId);
+            ps.setString(2, code);
+            ps.setString(3, hash);
+            ps.setString(4, "Load " + code);
+            ps.executeUpdate();
+            return generatedId(ps);
+        }
+    }
+
+    private static long insertReturningId(Connection connection, String sql, String... args) throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            for (int i = 0; i < args.length; i++) {
+                ps.setString(i + 1, args[i]);
+            }
+            ps.executeUpdate();
+            return generatedId(ps);
+        }
+    }
+
+    private static long generatedId(PreparedStatement ps) throws SQLException {
+        try (ResultSet keys = ps.getGeneratedKeys()) {
+            if (!keys.next()) {
+                throw new SQLException("No generated key");
+            }
+            return keys.getLong(1);
+        }
+    }
+
+    /**
+     * Тип устройства по имени — те же префиксы, что в seed-каталогах {@code mock-snapshots}.
+     *
+     * @return код {@code device_types} или {@code null} для системных устройств
+     */
+    private static String typeCode(String device) {
+        if (SYSTEM_DEVICES.contains(device)) {
+            return null;
+        }
+        if (device.startsWith("Printer")) {
+            return "printer";
+        }
+        if (device.startsWith("CamAgregationBox")) {
+            return "aggregation_box_cam";
+        }
+        if (device.startsWith("CamAgregation")) {
+            return "aggregation_cam";
+        }
+        if (device.startsWith("CamChecker")) {
+            return "checker_cam";
+        }
+        return null;
+    }
+
+    private static void copySeed(String seedId, TreeSet<String> devices, Path targetDir) {
+        try {
+            Files.createDirectories(targetDir);
+            for (String device : devices) {
+                String location = "classpath:mock-snapshots/" + seedId + "/" + device + FILENAME_SUFFIX;
+                Resource resource = new PathMatchingResourcePatternResolver().getResource(location);
+                try (InputStream in = resource.getInputStream()) {
+                    Files.copy(in, targetDir.resolve(device + FILENAME_SUFFIX));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot copy seed " + seedId + " to " + targetDir, e);
+        }
+    }
+
+    private static Resource[] snapshotResources() {
+        try {
+            return new PathMatchingResourcePatternResolver().getResources(SNAPSHOT_PATTERN);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot list mock-snapshots", e);
+        }
+    }
+
+    private static String url(Resource resource) {
+        try {
+            return resource.getURL().toString();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
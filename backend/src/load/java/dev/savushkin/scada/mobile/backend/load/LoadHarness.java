@@ -0,0 +1,438 @@
+package dev.savushkin.scada.mobile.backend.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.savushkin.scada.mobile.backend.Application;
+import dev.savushkin.scada.mobile.backend.infrastructure.integration.printsrv.mock.MockPrintSrvProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Автономный нагрузочный стенд «пересменки»: бэкенд, N синтетических аппаратов и M телефонов
+ * в одной JVM, без внешней БД и PrintSrv.
+ *
+ * <h3>Сценарий</h3>
+ * <ol>
+ *   <li>embedded PostgreSQL (zonky) и {@link LoadDataSeeder}: схема, цеха, аппараты, сотрудники;</li>
+ *   <li>бэкенд в профиле {@code dev}: мок-реестр PrintSrv поднимает клиентов по topology из БД,
+ *       seed-данные — из временного {@code snapshot-base-dir}; при {@code -Pload.transport=tcp} —
+ *       в профиле {@code prod} с настоящим {@code TcpPrintSrvClient}, а аппараты обслуживает
+ *       {@link FakePrintSrvServer} на localhost (сбои — {@code -Pload.fake.*}); при
+ *       {@code -Pload.transport=log} — опрос заменён источником {@code log}: аппараты пишет
+ *       {@link LogLoadProducer} во временный журнал, бэкенд читает его consumer group;</li>
+ *   <li>логин всех сотрудников и подключение клиентов {@code /ws/live} и {@code /ws/unit/*}
+ *       (это и есть первый шторм подключений);</li>
+ *   <li>установившаяся нагрузка: фоновое переключение уведомлений и периодические
+ *       reconnect-штормы — доля клиентов рвёт соединение и подключается заново одновременно;</li>
+ *   <li>отчёт {@link LoadReport}: пропускная способность, перцентили задержек, heap и GC.</li>
+ * </ol>
+ * При {@code -Pload.wsNodes=N} бэкенд стенда работает лидером кластера ({@code cluster.bus=postgres}),
+ * а N WS-узлов запускаются отдельными JVM с тем же classpath и той же БД; клиенты подключаются к ним
+ * по кругу, логин и переключения идут в лидер. Секция {@code server} отчёта — метрики лидера,
+ * подключения по узлам — в секции {@code nodes}, логи WS-узлов — во временных файлах.
+ * Запуск: {@code ./gradlew loadTest -Pload.machines=40 -Pload.liveClients=300 -Pload.unitClients=100}.
+ */
+public final class LoadHarness {
+
+    private static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(30);
+    private static final String API = "/api/v1.0.0";
+
+    private final LoadConfig config;
+    private final LoadReport report = new LoadReport();
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final Map<WsLoadClient, String> clientNodes = new IdentityHashMap<>();
+    private final String accessSecret;
+    private final String refreshSecret;
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .connectTimeout(CONNECT_TIMEOUT)
+            .build();
+
+    private LoadHarness(LoadConfig config) {
+        this.config = config;
+        // Общие для лидера и WS-узлов: токен, выданный лидером, проверяется на любом узле.
+        SecureRandom random = new SecureRandom();
+        this.accessSecret = HexFormat.of().formatHex(random.generateSeed(32));
+        this.refreshSecret = HexFormat.of().formatHex(random.generateSeed(32));
+    }
+
+    public static void main(String[] args) throws Exception {
+        new LoadHarness(LoadConfig.fromSystemProperties()).run();
+        System.exit(0);
+    }
+
+    private void run() throws Exception {
+        Path snapshotDir = Files.createTempDirectory("scada-load-snapshots");
+        try (EmbeddedPostgres postgres = EmbeddedPostgres.builder().start()) {
+            LoadDataSeeder seeder = new LoadDataSeeder(postgres.getPostgresDatabase(), config);
+            LoadDataSeeder.Seeded seeded = seeder.seed(snapshotDir);
+            log("seeded %d machine(s) in %d workshop(s), %d user(s)",
+                    seeded.instanceIds().size(), seeded.workshopIds().size(), seeded.userCodes().size());
+
+            Path logDir = Files.createTempDirectory("scada-load-ingestion-log");
+            try (FakePrintSrvServer fakePrintSrv = config.tcpTransport() ? startFakePrintSrv(seeder, seeded) : null;
+                 LogLoadProducer logProducer = config.logTransport() ? startLogProducer(seeded, logDir) : null;
+                 ConfigurableApplicationContext context = startBackend(backendArgs(postgres, snapshotDir, logDir));
+                 WsNodes wsNodes = config.clustered()
+                         ? startWsNodes(backendArgs(postgres, snapshotDir, logDir)) : null) {
+                if (logProducer != null) {
+                    logProducer.start();
+                }
+                int port = Integer.parseInt(context.getEnvironment().getRequiredProperty("local.server.port"));
+                String httpBase = "http://localhost:" + port;
+                List<Integer> wsPorts = wsNodes != null ? wsNodes.ports() : List.of(port);
+
+                List<String> tokens = loginAll(httpBase, seeded.userCodes());
+                List<WsLoadClient> clients = createClients(wsPorts, seeded, tokens);
+
+                report.start();
+                int connected = connectAll(clients);
+                log("connected %d/%d client(s)", connected, clients.size());
+
+                Thread toggler = startToggler(httpBase, seeded, tokens);
+                runSteadyState(clients);
+                toggler.interrupt();
+                toggler.join();
+
+                clients.forEach(WsLoadClient::close);
+                if (fakePrintSrv != null) {
+                    log("fake PrintSrv: %d request(s), %d injected fault(s)",
+                            fakePrintSrv.requestCount(), fakePrintSrv.injectedFaultCount());
+                }
+                if (logProducer != null) {
+                    log("ingestion log: %d record(s) appended", logProducer.appendedCount());
+                }
+                report.finish(config, context.getBean(MeterRegistry.class));
+            }
+        }
+    }
+
+    /**
+     * Поднимает по TCP-порту на аппарат и направляет на них {@code units.printsrv_host/port}.
+     * Симуляция fake-сервера — с настройками {@link MockPrintSrvProperties} по умолчанию.
+     */
+    private FakePrintSrvServer startFakePrintSrv(LoadDataSeeder seeder, LoadDataSeeder.Seeded seeded)
+            throws Exception {
+        FakePrintSrvServer server = new FakePrintSrvServer(config.faults(), new MockPrintSrvProperties());
+        Map<String, Integer> ports = new LinkedHashMap<>();
+        for (String instanceId : seeded.instanceIds()) {
+            String seedId = seeded.instanceSeed().get(instanceId);
+            ports.put(instanceId, server.addInstance(instanceId, seedId, null, seeded.seedDevices().get(seedId), 0));
+        }
+        seeder.assignEndpoints(ports);
+        log("fake PrintSrv: %d instance(s) on 127.0.0.1, faults %s", ports.size(), config.faults());
+        return server;
+    }
+
+    /**
+     * Заполняет журнал первым раундом до старта бэкенда: начальная загрузка источника {@code log}
+     * читает его до конца, как после рестарта с накопленным отставанием.
+     */
+    private LogLoadProducer startLogProducer(LoadDataSeeder.Seeded seeded, Path logDir) throws Exception {
+        LogLoadProducer producer = new LogLoadProducer(logDir, config.logPartitions(), config.pollDelayMs());
+        for (String instanceId : seeded.instanceIds()) {
+            String seedId = seeded.instanceSeed().get(instanceId);
+            producer.addInstance(instanceId, seedId, seeded.seedDevices().get(seedId));
+        }
+        producer.appendRound();
+        log("ingestion log: %d instance(s), %d partition(s) in %s",
+                seeded.instanceIds().size(), config.logPartitions(), logDir);
+        return producer;
+    }
+
+    /**
+     * Общие аргументы бэкенда и WS-узлов. Параметры передаются как аргументы командной строки:
+     * они старше {@code application-*.yaml}, в отличие от default properties билдера.
+     */
+    private List<String> backendArgs(EmbeddedPostgres postgres, Path snapshotDir, Path logDir) {
+        return List.of(
+                "--spring.profiles.active=" + (config.tcpTransport() ? "prod" : "dev"),
+                "--ingestion.source=" + (config.logTransport() ? "log" : "polling"),
+                "--ingestion.log.directory=" + logDir,
+                "--ingestion.log.partitions=" + config.logPartitions(),
+                "--spring.datasource.url=" + postgres.getJdbcUrl("postgres", "postgres"),
+                "--spring.datasource.username=postgres",
+                "--spring.datasource.password=postgres",
+                "--jwt.access-secret=" + accessSecret,
+                "--jwt.refresh-secret=" + refreshSecret,
+                "--printsrv.mock.snapshot-base-dir=" + snapshotDir,
+                "--printsrv.polling.fixed-delay-ms=" + config.pollDelayMs(),
+                "--logging.level.root=WARN",
+                "--logging.level.dev.savushkin=WARN");
+    }
+
+    /**
+     * {@code run} возвращается после начальной загрузки источника данных, поэтому его
+     * длительность — время рестарта бэкенда до готовности.
+     */
+    private ConfigurableApplicationContext startBackend(List<String> backendArgs) {
+        List<String> args = new ArrayList<>(backendArgs);
+        args.add("--server.port=0");
+        if (config.clustered()) {
+            args.addAll(List.of("--cluster.role=leader", "--cluster.bus=postgres", "--cluster.node-id=leader"));
+        }
+        long start = System.nanoTime();
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(Application.class)
+                .run(args.toArray(String[]::new));
+        report.recordLatency("backendStart", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        return context;
+    }
+
+    /**
+     * Запускает WS-узлы отдельными JVM и ждёт их readiness — она открывается только после
+     * синхронизации реплики с лидером, поэтому длительность — время холодного старта WS-узла.
+     */
+    private WsNodes startWsNodes(List<String> backendArgs) throws Exception {
+        String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+        WsNodes nodes = new WsNodes(new ArrayList<>(), new ArrayList<>(), new ArrayList<>());
+        try {
+            long start = System.nanoTime();
+            for (int i = 1; i <= config.wsNodes(); i++) {
+                int port = freePort();
+                List<String> command = new ArrayList<>(List.of(java, "-Xmx512m", "-XX:+UseG1GC",
+                        "-cp", System.getProperty("java.class.path"), Application.class.getName()));
+                command.addAll(backendArgs);
+                command.addAll(List.of("--server.port=" + port,
+                        "--cluster.role=ws", "--cluster.bus=postgres", "--cluster.node-id=ws-" + i));
+                Path logFile = Files.createTempFile("scada-load-ws-" + i + "-", ".log");
+                nodes.processes().add(new ProcessBuilder(command)
+                        .redirectErrorStream(true)
+                        .redirectOutput(logFile.toFile())
+                        .start());
+                nodes.ports().add(port);
+                nodes.logFiles().add(logFile);
+            }
+            for (int i = 0; i < config.wsNodes(); i++) {
+                awaitReady(nodes.processes().get(i), nodes.ports().get(i), nodes.logFiles().get(i));
+            }
+            report.recordLatency("wsNodesStart", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            log("cluster: %d ws node(s) on ports %s, logs %s", config.wsNodes(), nodes.ports(), nodes.logFiles());
+            return nodes;
+        } catch (Exception e) {
+            nodes.close();
+            throw e;
+        }
+    }
+
+    private void awaitReady(Process process, int port, Path logFile) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + API + "/health/ready"))
+                .timeout(Duration.ofSeconds(5))
+                .GET()
+                .build();
+        long deadline = System.nanoTime() + TimeUnit.MINUTES.toNanos(3);
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("WS node on port " + port + " exited, see " + logFile);
+            }
+            try {
+                if (httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException e) {
+                // порт ещё не открыт
+            }
+            Thread.sleep(500);
+        }
+        throw new IllegalStateException("WS node on port " + port + " is not ready, see " + logFile);
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    /**
+     * Логинит сотрудников параллельно; токен живёт дольше прогона и переиспользуется при реконнекте.
+     */
+    private List<String> loginAll(String httpBase, List<String> userCodes) throws Exception {
+        List<String> tokens = new ArrayList<>(Collections.nCopies(userCodes.size(), (String) null));
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < userCodes.size(); i++) {
+                int index = i;
+                futures.add(executor.submit(() -> {
+                    tokens.set(index, login(httpBase, userCodes.get(index)));
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+        return tokens;
+    }
+
+    private String login(String httpBase, String code) throws Exception {
+        String body = mapper.writeValueAsString(Map.of("workerCode", code, "password", LoadDataSeeder.PASSWORD));
+        HttpRequest request = HttpRequest.newBuilder(URI.create(httpBase + API + "/auth/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        long start = System.nanoTime();
+        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        report.recordLatency("login", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Login failed for " + code + ": HTTP " + response.statusCode());
+        }
+        return mapper.readTree(response.body()).path("accessToken").asText();
+    }
+
+    /**
+     * Первые {@code liveClients} сотрудников — {@code /ws/live}, остальные — {@code /ws/unit/*}
+     * «своего» аппарата (того, на который они назначены). Клиенты распределяются по портам по кругу.
+     */
+    private List<WsLoadClient> createClients(List<Integer> wsPorts, LoadDataSeeder.Seeded seeded,
+                                             List<String> tokens) {
+        List<WsLoadClient> clients = new ArrayList<>(tokens.size());
+        for (int i = 0; i < tokens.size(); i++) {
+            String instanceId = seeded.instanceFor(i);
+            long workshopId = seeded.instanceWorkshop().get(instanceId);
+            int node = i % wsPorts.size();
+            WsLoadClient client = new WsLoadClient(httpClient, "ws://localhost:" + wsPorts.get(node), tokens.get(i),
+                    i < config.liveClients() ? null : instanceId, workshopId, config.ackEnabled(), report);
+            if (config.clustered()) {
+                clientNodes.put(client, "ws-" + (node + 1));
+            }
+            clients.add(client);
+        }
+        return clients;
+    }
+
+    private int connectAll(List<WsLoadClient> clients) throws Exception {
+        AtomicInteger connected = new AtomicInteger();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (WsLoadClient client : clients) {
+                futures.add(executor.submit(() -> {
+                    if (client.connect(CONNECT_TIMEOUT)) {
+                        connected.incrementAndGet();
+                        String node = clientNodes.get(client);
+                        if (node != null) {
+                            report.recordNodeConnection(node);
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+        return connected.get();
+    }
+
+    private void runSteadyState(List<WsLoadClient> clients) throws Exception {
+        long endAt = System.nanoTime() + TimeUnit.SECONDS.toNanos(config.durationSeconds());
+        long stormIntervalNanos = TimeUnit.SECONDS.toNanos(config.stormIntervalSeconds());
+        long nextStorm = stormIntervalNanos > 0 ? System.nanoTime() + stormIntervalNanos : Long.MAX_VALUE;
+        int storms = 0;
+        while (System.nanoTime() < endAt) {
+            if (System.nanoTime() >= nextStorm) {
+                storms++;
+                runStorm(clients, storms);
+                nextStorm = System.nanoTime() + stormIntervalNanos;
+            }
+            Thread.sleep(Math.max(1L, Math.min(1_000L, TimeUnit.NANOSECONDS.toMillis(endAt - System.nanoTime()))));
+        }
+    }
+
+    /**
+     * Одновременно рвёт {@code stormFraction} случайных клиентов и сразу подключает их заново.
+     */
+    private void runStorm(List<WsLoadClient> clients, int storm) throws Exception {
+        List<WsLoadClient> victims = new ArrayList<>(clients);
+        Collections.shuffle(victims, ThreadLocalRandom.current());
+        victims = victims.subList(0, (int) Math.round(victims.size() * config.stormFraction()));
+        victims.forEach(WsLoadClient::drop);
+        long start = System.nanoTime();
+        int reconnected = connectAll(victims);
+        log("storm #%d: %d/%d reconnected in %d ms", storm, reconnected, victims.size(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    /**
+     * Фоновое переключение производственных уведомлений от имени случайных сотрудников
+     * их собственных аппаратов: каждое переключение рассылается всем подписчикам цеха.
+     */
+    private Thread startToggler(String httpBase, LoadDataSeeder.Seeded seeded, List<String> tokens) {
+        return Thread.ofVirtual().name("load-toggler").start(() -> {
+            if (config.toggleIntervalMs() <= 0) {
+                return;
+            }
+            while (!Thread.currentThread().isInterrupted()) {
+                int index = ThreadLocalRandom.current().nextInt(tokens.size());
+                toggle(httpBase, seeded.instanceFor(index), tokens.get(index));
+                try {
+                    Thread.sleep(config.toggleIntervalMs());
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        });
+    }
+
+    private void toggle(String httpBase, String instanceId, String token) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(httpBase + API + "/line/" + instanceId + "/last-batch"))
+                .header("Authorization", "Bearer " + token)
+                .POST(HttpRequest.BodyPublishers.noBody())
+                .build();
+        long start = System.nanoTime();
+        try {
+            HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+            report.recordLatency("toggle", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            if (response.statusCode() != 200) {
+                report.recordError("toggle_http_" + response.statusCode());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            report.recordError("toggle_failed");
+        }
+    }
+
+    private static void log(String format, Object... args) {
+        System.out.println("[load] " + String.format(format, args));
+    }
+
+    /**
+     * Процессы WS-узлов; закрытие останавливает их вместе со стендом.
+     */
+    private record WsNodes(List<Process> processes, List<Integer> ports, List<Path> logFiles)
+            implements AutoCloseable {
+
+        @Override
+        public void close() throws InterruptedException {
+            processes.forEach(Process::destroy);
+            for (Process process : processes) {
+                if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                    process.destroyForcibly();
+                }
+            }
+        }
+    }
+}
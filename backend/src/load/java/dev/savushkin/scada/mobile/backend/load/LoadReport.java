@@ -0,0 +1,234 @@
+package dev.savushkin.scada.mobile.backend.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.MemoryUsage;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Счётчики и гистограммы прогона, общие для всех клиентов, и итоговый отчёт.
+ *
+ * <h3>Что попадает в отчёт</h3>
+ * <ul>
+ *   <li>{@code throughput} — принятые сообщения и байты по {@code type} (всего и в секунду);</li>
+ *   <li>{@code latencyMs} — клиентские гистограммы: {@code connect} (от начала handshake до
+ *       первого кадра), {@code dataAge} (от {@code dataTimestamp} кадра до приёма),
+ *       {@code toggle} (REST переключения уведомления), {@code login}, {@code backendStart}
+ *       (запуск контекста бэкенда до готовности, включая начальную загрузку данных);</li>
+ *   <li>{@code errors} — неудачные подключения, обрывы, ошибки REST;</li>
+ *   <li>{@code nodes} — успешные подключения (включая реконнекты) по WS-узлам при {@code load.wsNodes > 0};</li>
+ *   <li>{@code server} — таймеры {@code ws.*}, {@code printsrv.*} и {@code ingestion.*} из
+ *       {@link MeterRegistry} бэкенда;</li>
+ *   <li>{@code startup} — фазы старта бэкенда {@code app.startup.phase} (мс);</li>
+ *   <li>{@code jvm} — heap до/после и суммарные паузы GC за прогон.</li>
+ * </ul>
+ * Бэкенд и клиенты работают в одной JVM, поэтому heap/GC включают и нагрузку клиентов —
+ * это верхняя оценка, сравнивать имеет смысл прогоны между собой.
+ */
+final class LoadReport {
+
+    private final ConcurrentHashMap<String, LongAdder> messages = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, LongAdder> bytes = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, LongAdder> errors = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, LongAdder> nodeConnections = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, LatencyHistogram> latencies = new ConcurrentHashMap<>();
+
+    private long startedAtNanos;
+    private long heapUsedAtStart;
+    private Map<String, long[]> gcAtStart = Map.of();
+
+    /**
+     * Фиксирует начало измеряемого окна: heap и счётчики GC.
+     */
+    void start() {
+        System.gc();
+        startedAtNanos = System.nanoTime();
+        heapUsedAtStart = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+        gcAtStart = gcCounters();
+    }
+
+    void recordMessage(String type, int length) {
+        adder(messages, type).increment();
+        adder(bytes, type).add(length);
+    }
+
+    void recordLatency(String name, long millis) {
+        LatencyHistogram histogram = latencies.get(name);
+        if (histogram == null) {
+            histogram = latencies.computeIfAbsent(name, k -> new LatencyHistogram());
+        }
+        histogram.record(millis);
+    }
+
+    void recordError(String kind) {
+        adder(errors, kind).increment();
+    }
+
+    void recordNodeConnection(String node) {
+        adder(nodeConnections, node).increment();
+    }
+
+    /**
+     * Собирает отчёт, печатает его в stdout и сохраняет в {@code <reportDir>/load-report.json}.
+     *
+     * @param serverRegistry реестр метрик бэкенда; {@code null} — без серверной секции
+     */
+    Map<String, Object> finish(LoadConfig config, MeterRegistry serverRegistry) throws IOException {
+        double seconds = Math.max(1e-3, (System.nanoTime() - startedAtNanos) / 1e9);
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("config", config);
+        report.put("elapsedSeconds", round(seconds));
+        report.put("throughput", throughput(seconds));
+        Map<String, Object> latencyMs = new TreeMap<>();
+        latencies.forEach((name, histogram) -> latencyMs.put(name, histogram.summary()));
+        report.put("latencyMs", latencyMs);
+        report.put("errors", sum(errors));
+        if (!nodeConnections.isEmpty()) {
+            report.put("nodes", sum(nodeConnections));
+        }
+        if (serverRegistry != null) {
+            report.put("server", serverTimers(serverRegistry));
+            report.put("startup", startupPhases(serverRegistry));
+        }
+        report.put("jvm", jvm(seconds));
+
+        ObjectMapper mapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+        String json = mapper.writeValueAsString(report);
+        Files.createDirectories(config.reportDir());
+        Path file = config.reportDir().resolve("load-report.json");
+        Files.writeString(file, json);
+        System.out.println(json);
+        System.out.println("Load report written to " + file.toAbsolutePath());
+        return report;
+    }
+
+    // ─── Private ─────────────────────────────────────────────────────────────
+
+    private Map<String, Object> throughput(double seconds) {
+        Map<String, Object> result = new TreeMap<>();
+        long totalMessages = 0;
+        long totalBytes = 0;
+        for (Map.Entry<String, LongAdder> entry : messages.entrySet()) {
+            long count = entry.getValue().sum();
+            long size = adder(bytes, entry.getKey()).sum();
+            totalMessages += count;
+            totalBytes += size;
+            result.put(entry.getKey(), rate(count, size, seconds));
+        }
+        result.put("_total", rate(totalMessages, totalBytes, seconds));
+        return result;
+    }
+
+    private static Map<String, Object> rate(long count, long size, double seconds) {
+        Map<String, Object> rate = new LinkedHashMap<>();
+        rate.put("messages", count);
+        rate.put("messagesPerSecond", round(count / seconds));
+        rate.put("bytes", size);
+        rate.put("bytesPerSecond", round(size / seconds));
+        return rate;
+    }
+
+    private static Map<String, Object> startupPhases(MeterRegistry registry) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        for (TimeGauge gauge : registry.find("app.startup.phase").timeGauges()) {
+            result.put(gauge.getId().getTag("phase"), round(gauge.value(TimeUnit.MILLISECONDS)));
+        }
+        return result;
+    }
+
+    private static Map<String, Object> serverTimers(MeterRegistry registry) {
+        Map<String, Object> result = new TreeMap<>();
+        for (Timer timer : registry.find("").timers()) {
+            String name = timer.getId().getName();
+            if (!name.startsWith("ws.") && !name.startsWith("printsrv.") && !name.startsWith("ingestion.")) {
+                continue;
+            }
+            HistogramSnapshot snapshot = timer.takeSnapshot();
+            if (snapshot.count() == 0) {
+                continue;
+            }
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("count", snapshot.count());
+            summary.put("meanMs", round(snapshot.mean(TimeUnit.MILLISECONDS)));
+            for (ValueAtPercentile p : snapshot.percentileValues()) {
+                summary.put("p" + Math.round(p.percentile() * 100) + "Ms", round(p.value(TimeUnit.MILLISECONDS)));
+            }
+            summary.put("maxMs", round(snapshot.max(TimeUnit.MILLISECONDS)));
+            String key = name + timer.getId().getTags().stream()
+                    .map(tag -> tag.getKey() + "=" + tag.getValue())
+                    .reduce((a, b) -> a + "," + b)
+                    .map(tags -> "{" + tags + "}")
+                    .orElse("");
+            result.put(key, summary);
+        }
+        return result;
+    }
+
+    private Map<String, Object> jvm(double seconds) {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        MemoryUsage heap = memory.getHeapMemoryUsage();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("heapUsedStartMb", mb(heapUsedAtStart));
+        result.put("heapUsedEndMb", mb(heap.getUsed()));
+        result.put("heapCommittedMb", mb(heap.getCommitted()));
+        result.put("heapMaxMb", mb(heap.getMax()));
+        Map<String, Object> gc = new LinkedHashMap<>();
+        long totalPauseMs = 0;
+        for (Map.Entry<String, long[]> entry : gcCounters().entrySet()) {
+            long[] before = gcAtStart.getOrDefault(entry.getKey(), new long[2]);
+            long collections = entry.getValue()[0] - before[0];
+            long timeMs = entry.getValue()[1] - before[1];
+            totalPauseMs += timeMs;
+            gc.put(entry.getKey(), Map.of("collections", collections, "timeMs", timeMs));
+        }
+        result.put("gc", gc);
+        result.put("gcTimePercent", round(totalPauseMs / (seconds * 10)));
+        result.put("threads", ManagementFactory.getThreadMXBean().getThreadCount());
+        return result;
+    }
+
+    private static Map<String, long[]> gcCounters() {
+        Map<String, long[]> result = new LinkedHashMap<>();
+        for (GarbageCollectorMXBean bean : ManagementFactory.getGarbageCollectorMXBeans()) {
+            result.put(bean.getName(), new long[]{bean.getCollectionCount(), bean.getCollectionTime()});
+        }
+        return result;
+    }
+
+    private static Map<String, Long> sum(Map<String, LongAdder> adders) {
+        Map<String, Long> result = new TreeMap<>();
+        adders.forEach((key, adder) -> result.put(key, adder.sum()));
+        return result;
+    }
+
+    private static LongAdder adder(ConcurrentHashMap<String, LongAdder> map, String key) {
+        LongAdder adder = map.get(key);
+        return adder != null ? adder : map.computeIfAbsent(key, k -> new LongAdder());
+    }
+
+    private static double mb(long bytes) {
+        return round(bytes / (1024.0 * 1024.0));
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+}
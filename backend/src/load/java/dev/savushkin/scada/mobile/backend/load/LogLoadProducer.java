@@ -0,0 +1,112 @@
+package dev.savushkin.scada.mobile.backend.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.savushkin.scada.mobile.backend.infrastructure.ingestion.IngestionRecord;
+import dev.savushkin.scada.mobile.backend.infrastructure.ingestion.log.IngestionRecordCodec;
+import dev.savushkin.scada.mobile.backend.infrastructure.ingestion.log.PartitionedLog;
+import dev.savushkin.scada.mobile.backend.infrastructure.integration.printsrv.mock.MockInstanceState;
+import dev.savushkin.scada.mobile.backend.infrastructure.integration.printsrv.mock.MockPrintSrvClient;
+import dev.savushkin.scada.mobile.backend.infrastructure.integration.printsrv.mock.MockPrintSrvProperties;
+import dev.savushkin.scada.mobile.backend.infrastructure.integration.printsrv.mock.MockStateSimulator;
+import dev.savushkin.scada.mobile.backend.infrastructure.integration.printsrv.mock.XmlSnapshotLoader;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Писатель встроенного журнала приёма для {@code -Pload.transport=log}: вместо PrintSrv
+ * синтетические аппараты публикуют состояние устройств в {@link PartitionedLog}, а бэкенд
+ * читает его источником {@code log} — так же, как будет читать Kafka.
+ *
+ * <p>Состояние аппарата — {@link MockInstanceState} из seed-файлов, продвигаемое
+ * {@link MockStateSimulator}; каждый раунд пишет по записи на устройство (ответ
+ * {@link MockPrintSrvClient}, ключ — instanceId).
+ */
+final class LogLoadProducer implements Closeable {
+
+    private static final String SCADA_DEVICE = "scada";
+
+    private final PartitionedLog partitionedLog;
+    private final IngestionRecordCodec codec = new IngestionRecordCodec(new ObjectMapper());
+    private final XmlSnapshotLoader loader = new XmlSnapshotLoader();
+    private final MockStateSimulator simulator = new MockStateSimulator(new MockPrintSrvProperties());
+    private final Map<String, Instance> instances = new ConcurrentHashMap<>();
+    private final LongAdder appended = new LongAdder();
+    private final long intervalMs;
+
+    private volatile Thread writer;
+
+    LogLoadProducer(Path directory, int partitions, long intervalMs) throws IOException {
+        this.partitionedLog = PartitionedLog.open(directory, partitions);
+        this.intervalMs = intervalMs;
+    }
+
+    void addInstance(String instanceId, String seedId, Set<String> devices) {
+        MockInstanceState state = new MockInstanceState(instanceId);
+        for (String device : devices) {
+            state.initDevice(device, loader.loadForDevice(device, null, seedId));
+        }
+        instances.put(instanceId, new Instance(new MockPrintSrvClient(instanceId, state, false), state, devices));
+    }
+
+    /**
+     * Один раунд: по записи на каждое устройство каждого аппарата.
+     */
+    void appendRound() throws IOException {
+        for (Map.Entry<String, Instance> entry : instances.entrySet()) {
+            Instance instance = entry.getValue();
+            for (String device : instance.devices()) {
+                IngestionRecord record = IngestionRecord.deviceState(entry.getKey(), device, Instant.now(),
+                        instance.client().queryAll(device));
+                partitionedLog.append(entry.getKey(), codec.encode(record));
+                appended.increment();
+            }
+        }
+    }
+
+    /**
+     * Фоновая запись раундов с интервалом {@code intervalMs}; перед каждым раундом — тик симуляции.
+     */
+    void start() {
+        writer = Thread.ofVirtual().name("load-log-producer").start(() -> {
+            while (!Thread.currentThread().isInterrupted()) {
+                try {
+                    Thread.sleep(intervalMs);
+                    instances.values().forEach(instance -> simulator.tickState(instance.state(), SCADA_DEVICE));
+                    appendRound();
+                } catch (InterruptedException e) {
+                    return;
+                } catch (IOException e) {
+                    System.err.println("[load] log producer: " + e.getMessage());
+                }
+            }
+        });
+    }
+
+    long appendedCount() {
+        return appended.sum();
+    }
+
+    @Override
+    public void close() throws IOException {
+        Thread current = writer;
+        if (current != null) {
+            current.interrupt();
+            try {
+                current.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        partitionedLog.close();
+    }
+
+    private record Instance(MockPrintSrvClient client, MockInstanceState state, Set<String> devices) {
+    }
+}
@@ -0,0 +1,177 @@
+package dev.savushkin.scada.mobile.backend.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.WebSocket;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Один синтетический телефон: WebSocket-сессия {@code /ws/live} или {@code /ws/unit/{instanceId}}
+ * с тем же протоколом, что у мобильного клиента.
+ *
+ * <ul>
+ *   <li>{@code /ws/live}: после {@code ALERT_SNAPSHOT} отправляет {@code SUBSCRIBE_WORKSHOP}
+ *       своего цеха (так же клиент поступает и после реконнекта) и подтверждает
+ *       {@code UNITS_STATUS} через {@code ACK}, если это включено;</li>
+ *   <li>{@code /ws/unit/*}: только принимает кадры аппарата.</li>
+ * </ul>
+ * Каждый принятый кадр учитывается в {@link LoadReport}; возраст данных считается по полю
+ * {@code dataTimestamp} (UTC, ISO-8601 без зоны).
+ */
+final class WsLoadClient {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final HttpClient httpClient;
+    private final URI uri;
+    private final boolean live;
+    private final long workshopId;
+    private final boolean ack;
+    private final LoadReport report;
+
+    private volatile WebSocket webSocket;
+    private CompletableFuture<WebSocket> sendChain = CompletableFuture.completedFuture(null);
+
+    /**
+     * @param baseWsUri  {@code ws://host:port}
+     * @param token      access-токен сотрудника
+     * @param instanceId аппарат для {@code /ws/unit/*}; {@code null} — клиент {@code /ws/live}
+     * @param workshopId цех для {@code SUBSCRIBE_WORKSHOP}
+     */
+    WsLoadClient(HttpClient httpClient, String baseWsUri, String token, String instanceId, long workshopId,
+                 boolean ack, LoadReport report) {
+        this.httpClient = httpClient;
+        this.live = instanceId == null;
+        this.uri = URI.create(baseWsUri + (live ? "/ws/live" : "/ws/unit/" + instanceId) + "?token=" + token);
+        this.workshopId = workshopId;
+        this.ack = ack;
+        this.report = report;
+    }
+
+    /**
+     * Открывает сессию и ждёт первого кадра (для {@code /ws/live} — {@code ALERT_SNAPSHOT}).
+     *
+     * @return {@code true}, если первый кадр пришёл за {@code timeout}
+     */
+    boolean connect(Duration timeout) {
+        CountDownLatch firstFrame = new CountDownLatch(1);
+        long startNanos = System.nanoTime();
+        try {
+            webSocket = httpClient.newWebSocketBuilder()
+                    .connectTimeout(timeout)
+                    .buildAsync(uri, new Listener(firstFrame, startNanos))
+                    .get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+            if (firstFrame.await(timeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                return true;
+            }
+            report.recordError("connect_timeout");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            report.recordError("connect_failed");
+        }
+        return false;
+    }
+
+    /**
+     * Обрыв без close-handshake — так выглядит потеря сети у телефона при пересменке.
+     */
+    void drop() {
+        WebSocket current = webSocket;
+        if (current != null) {
+            current.abort();
+        }
+    }
+
+    void close() {
+        WebSocket current = webSocket;
+        if (current != null && !current.isOutputClosed()) {
+            current.sendClose(WebSocket.NORMAL_CLOSURE, "load finished");
+        }
+    }
+
+    // ─── Private ─────────────────────────────────────────────────────────────
+
+    /**
+     * {@link WebSocket} не допускает параллельных отправок — выстраиваем их в цепочку.
+     */
+    private synchronized void send(WebSocket ws, String text) {
+        sendChain = sendChain
+                .exceptionally(ex -> null)
+                .thenCompose(ignored -> ws.sendText(text, true));
+    }
+
+    private void onFrame(WebSocket ws, String text) {
+        JsonNode node;
+        try {
+            node = MAPPER.readTree(text);
+        } catch (Exception e) {
+            report.recordError("bad_frame");
+            return;
+        }
+        String type = node.path("type").asText("UNKNOWN");
+        report.recordMessage(type, text.length());
+
+        String dataTimestamp = node.path("dataTimestamp").asText(null);
+        if (dataTimestamp != null) {
+            long receivedAtMillis = LocalDateTime.parse(dataTimestamp).toInstant(ZoneOffset.UTC).toEpochMilli();
+            report.recordLatency("dataAge", System.currentTimeMillis() - receivedAtMillis);
+            if (live && ack && "UNITS_STATUS".equals(type)) {
+                send(ws, "{\"action\":\"ACK\",\"type\":\"UNITS_STATUS\",\"dataTimestamp\":\"" + dataTimestamp + "\"}");
+            }
+        }
+        if (live && "ALERT_SNAPSHOT".equals(type)) {
+            send(ws, "{\"action\":\"SUBSCRIBE_WORKSHOP\",\"workshopId\":" + workshopId + "}");
+        }
+    }
+
+    private final class Listener implements WebSocket.Listener {
+
+        private final CountDownLatch firstFrame;
+        private final long startNanos;
+        private final StringBuilder partial = new StringBuilder();
+
+        private Listener(CountDownLatch firstFrame, long startNanos) {
+            this.firstFrame = firstFrame;
+            this.startNanos = startNanos;
+        }
+
+        @Override
+        public CompletionStage<?> onText(WebSocket ws, CharSequence data, boolean last) {
+            partial.append(data);
+            if (last) {
+                String text = partial.toString();
+                partial.setLength(0);
+                if (firstFrame.getCount() > 0) {
+                    report.recordLatency("connect", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+                    firstFrame.countDown();
+                }
+                onFrame(ws, text);
+            }
+            ws.request(1);
+            return null;
+        }
+
+        @Override
+        public CompletionStage<?> onClose(WebSocket ws, int statusCode, String reason) {
+            if (statusCode != WebSocket.NORMAL_CLOSURE) {
+                report.recordError("server_close_" + statusCode);
+            }
+            return null;
+        }
+
+        @Override
+        public void onError(WebSocket ws, Throwable error) {
+            report.recordError("ws_error");
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package dev.savushkin.scada.mobile.backend.api.controller;
+
+import dev.savushkin.scada.mobile.backend.api.dto.AlertIncidentPageDTO;
+import dev.savushkin.scada.mobile.backend.api.dto.DowntimeDTO;
+import dev.savushkin.scada.mobile.backend.application.ports.AlertHistoryRepository.Cursor;
+import dev.savushkin.scada.mobile.backend.application.ports.AlertHistoryRepository.DowntimeTotal;
+import dev.savushkin.scada.mobile.backend.services.AlertHistoryService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * REST API журнала инцидентов (истории алёртов) и простоев.
+ * <p>
+ * Параметры {@code from}/{@code to} — ISO-8601 без зоны (UTC), диапазон {@code [from, to)}.
+ * По умолчанию — последние 7 суток.
+ * <p>
+ * Журнал инцидентов листается курсором: ответ содержит {@code nextCursor}, который передаётся
+ * в параметре {@code cursor} следующего запроса. Общее число записей не возвращается.
+ */
+@Tag(name = "Alert history", description = "История инцидентов и простоев аппаратов")
+@RestController
+@RequestMapping("${scada.api.base-path}/history")
+public class AlertHistoryController {
+
+    private static final Logger log = LoggerFactory.getLogger(AlertHistoryController.class);
+
+    private static final long DEFAULT_RANGE_DAYS = 7;
+    private static final int MAX_PAGE_SIZE = 500;
+
+    private final AlertHistoryService historyService;
+
+    public AlertHistoryController(AlertHistoryService historyService) {
+        this.historyService = historyService;
+    }
+
+    @Operation(summary = "История инцидентов аппарата", description = "Страница по курсору, от новых к старым")
+    @GetMapping("/units/{unitId}/alerts")
+    public ResponseEntity<AlertIncidentPageDTO> getUnitHistory(
+            @PathVariable @NonNull String unitId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) @Nullable LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) @Nullable LocalDateTime to,
+            @RequestParam(required = false) @Nullable String cursor,
+            @RequestParam(defaultValue = "50") int size
+    ) {
+        log.info("Request: GET /history/units/{}/alerts", unitId);
+        Range range = Range.of(from, to);
+        return ResponseEntity.ok(AlertIncidentPageDTO.from(historyService.getUnitHistory(
+                unitId, range.from(), range.to(), parseCursor(cursor), checkSize(size))));
+    }
+
+    @Operation(summary = "История инцидентов цеха", description = "Страница по курсору, от новых к старым")
+    @GetMapping("/workshops/{workshopId}/alerts")
+    public ResponseEntity<AlertIncidentPageDTO> getWorkshopHistory(
+            @PathVariable long workshopId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) @Nullable LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) @Nullable LocalDateTime to,
+            @RequestParam(required = false) @Nullable String cursor,
+            @RequestParam(defaultValue = "50") int size
+    ) {
+        log.info("Request: GET /history/workshops/{}/alerts", workshopId);
+        Range range = Range.of(from, to);
+        return ResponseEntity.ok(AlertIncidentPageDTO.from(historyService.getWorkshopHistory(
+                workshopId, range.from(), range.to(), parseCursor(cursor), checkSize(size))));
+    }
+
+    @Operation(summary = "Простой аппарата", description = "Число инцидентов и суммарный простой за диапазон")
+    @GetMapping("/units/{unitId}/downtime")
+    public ResponseEntity<DowntimeDTO> getUnitDowntime(
+            @PathVariable @NonNull String unitId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) @Nullable LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) @Nullable LocalDateTime to
+    ) {
+        log.info("Request: GET /history/units/{}/downtime", unitId);
+        Range range = Range.of(from, to);
+        DowntimeTotal total = historyService.getUnitDowntime(unitId, range.from(), range.to());
+        return ResponseEntity.ok(range.toDto(unitId, total));
+    }
+
+    @Operation(summary = "Простой аппаратов цеха", description = "Простой по каждому аппарату цеха с инцидентами за диапазон")
+    @GetMapping("/workshops/{workshopId}/downtime")
+    public ResponseEntity<List<DowntimeDTO>> getWorkshopDowntime(
+            @PathVariable long workshopId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) @Nullable LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) @Nullable LocalDateTime to
+    ) {
+        log.info("Request: GET /history/workshops/{}/downtime", workshopId);
+        Range range = Range.of(from, to);
+        Map<String, DowntimeTotal> totals = historyService.getWorkshopDowntime(workshopId, range.from(), range.to());
+        List<DowntimeDTO> body = totals.entrySet().stream()
+                .map(e -> range.toDto(e.getKey(), e.getValue()))
+                .toList();
+        return ResponseEntity.ok(body);
+    }
+
+    private static @Nullable Cursor parseCursor(@Nullable String cursor) {
+        return cursor == null || cursor.isBlank() ? null : AlertIncidentPageDTO.parseCursor(cursor);
+    }
+
+    private static int checkSize(int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("'size' must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        return size;
+    }
+
+    /**
+     * Нормализованный диапазон запроса: пустые границы заменяются значениями по умолчанию,
+     * перевёрнутый диапазон — отклоняется.
+     */
+    private record Range(LocalDateTime from, LocalDateTime to) {
+
+        static Range of(@Nullable LocalDateTime from, @Nullable LocalDateTime to) {
+            LocalDateTime effectiveTo = to != null ? to : LocalDateTime.now(ZoneOffset.UTC);
+            LocalDateTime effectiveFrom = from != null ? from : effectiveTo.minusDays(DEFAULT_RANGE_DAYS);
+            if (!effectiveFrom.isBefore(effectiveTo)) {
+                throw new IllegalArgumentException("'from' must be before 'to'");
+            }
+            return new Range(effectiveFrom, effectiveTo);
+        }
+
+        DowntimeDTO toDto(String unitId, DowntimeTotal total) {
+            return new DowntimeDTO(
+                    unitId,
+                    from.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME),
+                    to.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME),
+                    total.incidents(),
+                    total.downtimeSeconds());
+        }
+    }
+}
@@ -229,7 +229,7 @@ public class Controller {
 
     // ─── Вспомогательные методы ───────────────────────────────────────────────
 
-    @Operation(summary = "Readiness probe", description = "Проверка готовности: хотя бы один snapshot получен.")
+    @Operation(summary = "Readiness probe", description = "Проверка готовности: прогрев завершён, начальная загрузка данных аппаратов (первый опрос или чтение журнала) завершена и хотя бы один snapshot получен.")
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Готово",
                     content = @Content(mediaType = "application/json")),
@@ -244,6 +244,7 @@ public class Controller {
         return ResponseEntity.status(status).body(Map.of(
                 "status", ready ? "UP" : "DOWN",
                 "timestamp", Instant.now(clock).toString(),
-                "ready", ready));
+                "ready", ready,
+                "warmup", healthService.getWarmupFailure() == null ? "OK" : "FAILED"));
     }
 }
@@ -0,0 +1,63 @@
+package dev.savushkin.scada.mobile.backend.api.controller;
+
+import dev.savushkin.scada.mobile.backend.api.dto.CounterSeriesDTO;
+import dev.savushkin.scada.mobile.backend.domain.model.CounterMetric;
+import dev.savushkin.scada.mobile.backend.domain.model.RollupResolution;
+import dev.savushkin.scada.mobile.backend.services.CounterTimeSeriesService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * REST API временных рядов счётчиков устройств (выработка камер, прогресс принтеров).
+ * <p>
+ * Параметры {@code from}/{@code to} — ISO-8601 без зоны (UTC), диапазон {@code [from, to)}.
+ * По умолчанию — последние сутки.
+ */
+@Tag(name = "Counter history", description = "Тренды счётчиков камер и принтеров")
+@RestController
+@RequestMapping("${scada.api.base-path}/history")
+public class CounterHistoryController {
+
+    private static final Logger log = LoggerFactory.getLogger(CounterHistoryController.class);
+
+    private static final long DEFAULT_RANGE_HOURS = 24;
+
+    private final CounterTimeSeriesService counterService;
+
+    public CounterHistoryController(CounterTimeSeriesService counterService) {
+        this.counterService = counterService;
+    }
+
+    @Operation(
+            summary = "Тренд счётчика устройства",
+            description = "Агрегаты 1m / 15m / 1h; без resolution разрешение подбирается по длине диапазона")
+    @GetMapping("/units/{unitId}/counters")
+    public ResponseEntity<CounterSeriesDTO> getCounterSeries(
+            @PathVariable @NonNull String unitId,
+            @RequestParam @NonNull String device,
+            @RequestParam @NonNull CounterMetric metric,
+            @RequestParam(required = false) @Nullable String resolution,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) @Nullable LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) @Nullable LocalDateTime to
+    ) {
+        log.info("Request: GET /history/units/{}/counters?device={}&metric={}", unitId, device, metric);
+        LocalDateTime effectiveTo = to != null ? to : LocalDateTime.now(ZoneOffset.UTC);
+        LocalDateTime effectiveFrom = from != null ? from : effectiveTo.minusHours(DEFAULT_RANGE_HOURS);
+        if (!effectiveFrom.isBefore(effectiveTo)) {
+            throw new IllegalArgumentException("'from' must be before 'to'");
+        }
+        RollupResolution effectiveResolution = resolution != null ? RollupResolution.fromCode(resolution) : null;
+        return ResponseEntity.ok(counterService.getSeries(
+                unitId, device, metric, effectiveResolution, effectiveFrom, effectiveTo));
+    }
+}
@@ -1,10 +1,12 @@
 package dev.savushkin.scada.mobile.backend.api.controller.admin;
 
 import dev.savushkin.scada.mobile.backend.api.dto.ErrorResponseDTO;
+import dev.savushkin.scada.mobile.backend.application.ports.UnitConfigOutboxRepository;
 import dev.savushkin.scada.mobile.backend.api.dto.ReferenceDTO;
 import dev.savushkin.scada.mobile.backend.domain.model.ChangeAction;
 import dev.savushkin.scada.mobile.backend.domain.model.DeviceChangedEvent;
 import dev.savushkin.scada.mobile.backend.domain.model.UnitChangedEvent;
+import dev.savushkin.scada.mobile.backend.domain.model.UnitConfigChange;
 import dev.savushkin.scada.mobile.backend.domain.model.UserNotificationSettingsChangedEvent;
 import dev.savushkin.scada.mobile.backend.infrastructure.integration.database.adapter.PrintSrvTopologyJpaAdapter;
 import dev.savushkin.scada.mobile.backend.infrastructure.integration.database.entity.DeviceCatalogEntity;
@@ -32,12 +34,17 @@ import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
 /**
  * Ручной CRUD-контроллер для управления unit (аппаратами/линиями).
+ * <p>
+ * Каждое изменение автомата с PrintSrv ID пишет {@code UNIT_UPSERT} / {@code UNIT_DELETE}
+ * в outbox конфигурации в той же транзакции ({@link UnitConfigOutboxRepository}).
  */
 @RestController
 @RequestMapping("${scada.api.base-path}/admin/units")
@@ -51,6 +58,7 @@ public class AdminUnitController {
     private final UserAssignmentJpaRepository assignmentRepository;
     private final UserNotificationSettingsJpaRepository notificationSettingsRepository;
     private final PrintSrvTopologyJpaAdapter topologyJpaAdapter;
+    private final UnitConfigOutboxRepository configOutbox;
     private final ApplicationEventPublisher eventPublisher;
 
     public AdminUnitController(UnitJpaRepository unitRepository,
@@ -60,6 +68,7 @@ public class AdminUnitController {
                                UserAssignmentJpaRepository assignmentRepository,
                                UserNotificationSettingsJpaRepository notificationSettingsRepository,
                                PrintSrvTopologyJpaAdapter topologyJpaAdapter,
+                               UnitConfigOutboxRepository configOutbox,
                                ApplicationEventPublisher eventPublisher) {
         this.unitRepository = unitRepository;
         this.workshopRepository = workshopRepository;
@@ -68,6 +77,7 @@ public class AdminUnitController {
         this.assignmentRepository = assignmentRepository;
         this.notificationSettingsRepository = notificationSettingsRepository;
         this.topologyJpaAdapter = topologyJpaAdapter;
+        this.configOutbox = configOutbox;
         this.eventPublisher = eventPublisher;
     }
 
@@ -93,6 +103,7 @@ public class AdminUnitController {
         UnitEntity saved = unitRepository.save(unit);
         syncDevices(saved, request.catalogIds());
         topologyJpaAdapter.invalidateETag();
+        recordConfigChange(null, saved);
         eventPublisher.publishEvent(new UnitChangedEvent(saved.getId(), null, null, ChangeAction.CREATE));
         return ResponseEntity.status(HttpStatus.CREATED).body(saved);
     }
@@ -120,6 +131,7 @@ public class AdminUnitController {
                     });
         }
 
+        String previousInstanceId = unit.getPrintsrvInstanceId();
         unit.setName(request.name());
         unit.setWorkshop(workshop);
         unit.setPrintsrvInstanceId(request.printsrvInstanceId());
@@ -130,6 +142,7 @@ public class AdminUnitController {
         UnitEntity saved = unitRepository.save(unit);
         syncDevices(saved, request.catalogIds());
         topologyJpaAdapter.invalidateETag();
+        recordConfigChange(previousInstanceId, saved);
         eventPublisher.publishEvent(new UnitChangedEvent(saved.getId(), null, null, ChangeAction.UPDATE));
         return ResponseEntity.ok(saved);
     }
@@ -175,10 +188,34 @@ public class AdminUnitController {
         deviceRepository.deleteByUnit_Id(id);
         unitRepository.deleteById(id);
         topologyJpaAdapter.invalidateETag();
+        if (printsrvInstanceId != null) {
+            configOutbox.append(List.of(UnitConfigChange.delete(printsrvInstanceId, Instant.now())));
+        }
         eventPublisher.publishEvent(new UnitChangedEvent(id, printsrvInstanceId, workshopId, ChangeAction.DELETE));
         return ResponseEntity.noContent().build();
     }
 
+    /**
+     * Пишет изменение конфигурации автомата в outbox (в текущей транзакции).
+     * Смена PrintSrv ID — это удаление прежнего инстанса и появление нового.
+     *
+     * @param previousInstanceId PrintSrv ID до изменения ({@code null} — не было)
+     * @param unit               сохранённый автомат
+     */
+    private void recordConfigChange(String previousInstanceId, UnitEntity unit) {
+        Instant now = Instant.now();
+        String instanceId = unit.getPrintsrvInstanceId();
+        List<UnitConfigChange> changes = new ArrayList<>(2);
+        if (previousInstanceId != null && !previousInstanceId.equals(instanceId)) {
+            changes.add(UnitConfigChange.delete(previousInstanceId, now));
+        }
+        if (instanceId != null) {
+            changes.add(UnitConfigChange.upsert(instanceId, unit.getPrintsrvHost(), unit.getPrintsrvPort(),
+                    unit.getName(), unit.getWorkshopId(), unit.isActive(), now));
+        }
+        configOutbox.append(changes);
+    }
+
     /**
      * Синхронизирует связи автомата со справочником устройств.
      *
@@ -2,6 +2,7 @@ package dev.savushkin.scada.mobile.backend.api.controller.admin;
 
 import dev.savushkin.scada.mobile.backend.api.dto.admin.PasswordResetResponseDTO;
 import dev.savushkin.scada.mobile.backend.api.dto.admin.UserCreateResponseDTO;
+import dev.savushkin.scada.mobile.backend.application.ports.RefreshTokenRepository;
 import dev.savushkin.scada.mobile.backend.config.AdminBootstrapConfig;
 import dev.savushkin.scada.mobile.backend.config.jwt.JwtPrincipalUtil;
 import dev.savushkin.scada.mobile.backend.exception.UnitAssignmentConflictException;
@@ -9,7 +10,6 @@ import dev.savushkin.scada.mobile.backend.infrastructure.integration.database.en
 import dev.savushkin.scada.mobile.backend.infrastructure.integration.database.entity.UnitEntity;
 import dev.savushkin.scada.mobile.backend.infrastructure.integration.database.entity.UserAssignmentEntity;
 import dev.savushkin.scada.mobile.backend.infrastructure.integration.database.entity.UserEntity;
-import dev.savushkin.scada.mobile.backend.infrastructure.integration.database.repository.RefreshTokenJpaRepository;
 import dev.savushkin.scada.mobile.backend.infrastructure.integration.database.repository.RoleJpaRepository;
 import dev.savushkin.scada.mobile.backend.infrastructure.integration.database.repository.UnitJpaRepository;
 import dev.savushkin.scada.mobile.backend.infrastructure.integration.database.repository.UserAssignmentJpaRepository;
@@ -52,7 +52,7 @@ public class AdminUserController {
     private final RoleJpaRepository roleRepository;
     private final UnitJpaRepository unitRepository;
     private final UserAssignmentJpaRepository assignmentRepository;
-    private final RefreshTokenJpaRepository refreshTokenRepository;
+    private final RefreshTokenRepository refreshTokenRepository;
     private final UserNotificationSettingsJpaRepository notificationSettingsRepository;
     private final EmployeeAccessService employeeAccessService;
     private final ApplicationEventPublisher eventPublisher;
@@ -61,7 +61,7 @@ public class AdminUserController {
                                RoleJpaRepository roleRepository,
                                UnitJpaRepository unitRepository,
                                UserAssignmentJpaRepository assignmentRepository,
-                               RefreshTokenJpaRepository refreshTokenRepository,
+                               RefreshTokenRepository refreshTokenRepository,
                                UserNotificationSettingsJpaRepository notificationSettingsRepository,
                                EmployeeAccessService employeeAccessService,
                                ApplicationEventPublisher eventPublisher) {
@@ -155,7 +155,7 @@ public class AdminUserController {
         // ссылающиеся на пользователя, до удаления самой записи в users.
         assignmentRepository.deleteByUser_Id(id);
         notificationSettingsRepository.deleteByUser_Id(id);
-        refreshTokenRepository.deleteByUser_Id(id);
+        refreshTokenRepository.deleteAllByUserId(id);
         userRepository.deleteById(id);
         eventPublisher.publishEvent(new EmployeeChangedEvent(id, ChangeAction.DELETE));
         return ResponseEntity.noContent().build();
@@ -0,0 +1,46 @@
+package dev.savushkin.scada.mobile.backend.api.dto;
+
+import dev.savushkin.scada.mobile.backend.domain.model.AlertIncident;
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Запись журнала инцидентов аппарата (REST {@code /history/...}).
+ *
+ * @param id              идентификатор записи
+ * @param unitId          printsrv_instance_id аппарата
+ * @param workshopId      идентификатор цеха
+ * @param unitName        название аппарата на момент инцидента
+ * @param severity        уровень критичности
+ * @param errors          описание ошибок ({@code "DEVICE: message"}, по строке на ошибку)
+ * @param startedAt       ISO-8601 момент обнаружения (UTC)
+ * @param resolvedAt      ISO-8601 момент устранения (UTC)
+ * @param durationSeconds длительность инцидента в секундах
+ */
+public record AlertIncidentDTO(
+        @Nullable Long id,
+        String unitId,
+        long workshopId,
+        @Nullable String unitName,
+        String severity,
+        @Nullable String errors,
+        String startedAt,
+        String resolvedAt,
+        long durationSeconds
+) {
+    public static @NonNull AlertIncidentDTO from(@NonNull AlertIncident incident) {
+        return new AlertIncidentDTO(
+                incident.id(),
+                incident.instanceId(),
+                incident.workshopId(),
+                incident.unitName(),
+                incident.severity(),
+                incident.errors(),
+                incident.startedAt().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME),
+                incident.resolvedAt().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME),
+                incident.duration().toSeconds()
+        );
+    }
+}
@@ -0,0 +1,59 @@
+package dev.savushkin.scada.mobile.backend.api.dto;
+
+import dev.savushkin.scada.mobile.backend.application.ports.AlertHistoryRepository.Cursor;
+import dev.savushkin.scada.mobile.backend.application.ports.AlertHistoryRepository.IncidentPage;
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Страница журнала инцидентов (REST {@code /history/.../alerts}).
+ * <p>
+ * Курсор непрозрачен для клиента: его передают в параметре {@code cursor} следующего запроса
+ * без изменений, с теми же {@code from}/{@code to}.
+ *
+ * @param items      инциденты страницы, от новых к старым
+ * @param nextCursor курсор следующей страницы; {@code null} — страница последняя
+ */
+public record AlertIncidentPageDTO(
+        List<AlertIncidentDTO> items,
+        @Nullable String nextCursor
+) {
+    public static @NonNull AlertIncidentPageDTO from(@NonNull IncidentPage page) {
+        return new AlertIncidentPageDTO(
+                page.items().stream().map(AlertIncidentDTO::from).toList(),
+                page.next() != null ? encodeCursor(page.next()) : null
+        );
+    }
+
+    /**
+     * Разбирает курсор из запроса.
+     *
+     * @throws IllegalArgumentException курсор повреждён или выдан не этим API
+     */
+    public static @NonNull Cursor parseCursor(@NonNull String cursor) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = decoded.lastIndexOf('|');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Invalid history cursor");
+            }
+            return new Cursor(
+                    LocalDateTime.parse(decoded.substring(0, separator)),
+                    Long.parseLong(decoded.substring(separator + 1)));
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid history cursor", e);
+        }
+    }
+
+    private static String encodeCursor(Cursor cursor) {
+        String raw = cursor.startedAt().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME) + "|" + cursor.id();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,19 @@
+package dev.savushkin.scada.mobile.backend.api.dto;
+
+/**
+ * Точка графика счётчика — один бакет агрегата.
+ *
+ * @param timestamp ISO-8601 начало бакета (UTC)
+ * @param value     значение счётчика на конец бакета
+ * @param min       минимум в бакете
+ * @param max       максимум в бакете
+ * @param increase  прирост за бакет (со сбросом счётчика учитывается прирост от нуля)
+ */
+public record CounterPointDTO(
+        String timestamp,
+        double value,
+        double min,
+        double max,
+        double increase
+) {
+}
@@ -0,0 +1,25 @@
+package dev.savushkin.scada.mobile.backend.api.dto;
+
+import java.util.List;
+
+/**
+ * Временной ряд счётчика устройства, готовый для графика.
+ *
+ * @param unitId     printsrv_instance_id аппарата
+ * @param device     имя устройства PrintSrv
+ * @param metric     метрика ({@code CAMERA_TOTAL}, {@code CAMERA_FAILED}, {@code PRINTER_CUR_ITEM})
+ * @param resolution разрешение агрегатов ({@code 1m}, {@code 15m}, {@code 1h})
+ * @param from       ISO-8601 начало диапазона (UTC, включительно)
+ * @param to         ISO-8601 конец диапазона (UTC, исключительно)
+ * @param points     точки по возрастанию времени; бакеты без изменений счётчика отсутствуют
+ */
+public record CounterSeriesDTO(
+        String unitId,
+        String device,
+        String metric,
+        String resolution,
+        String from,
+        String to,
+        List<CounterPointDTO> points
+) {
+}
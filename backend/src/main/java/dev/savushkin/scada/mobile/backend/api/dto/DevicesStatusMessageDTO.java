@@ -18,6 +18,7 @@ import java.util.List;
  *   "type": "DEVICES_STATUS",
  *   "unitId": "trepko2",
  *   "timestamp": "2026-03-01T10:23:45",
+ *   "dataTimestamp": "2026-03-01T10:23:44.870",
  *   "payload": {
  *     "printers": [...],
  *     "aggregationCams": [...],
@@ -27,21 +28,25 @@ import java.util.List;
  * }
  * </pre>
  *
- * @param type      всегда {@code "DEVICES_STATUS"}
- * @param unitId    идентификатор аппарата
- * @param timestamp ISO-8601 UTC момент формирования
- * @param payload   сгруппированные статусы устройств
+ * @param type          всегда {@code "DEVICES_STATUS"}
+ * @param unitId        идентификатор аппарата
+ * @param timestamp     ISO-8601 UTC момент формирования
+ * @param dataTimestamp ISO-8601 UTC момент получения самых старых данных аппарата от PrintSrv,
+ *                      или {@code null}, если данных ещё нет
+ * @param payload       сгруппированные статусы устройств
  */
 public record DevicesStatusMessageDTO(
         String type,
         String unitId,
         String timestamp,
+        @Nullable String dataTimestamp,
         Payload payload
 ) {
 
-    @Contract("_, _, _ -> new")
-    public static @NonNull DevicesStatusMessageDTO of(String unitId, String timestamp, Payload payload) {
-        return new DevicesStatusMessageDTO("DEVICES_STATUS", unitId, timestamp, payload);
+    @Contract("_, _, _, _ -> new")
+    public static @NonNull DevicesStatusMessageDTO of(String unitId, String timestamp, @Nullable String dataTimestamp,
+                                                      Payload payload) {
+        return new DevicesStatusMessageDTO("DEVICES_STATUS", unitId, timestamp, dataTimestamp, payload);
     }
 
     /**
@@ -0,0 +1,19 @@
+package dev.savushkin.scada.mobile.backend.api.dto;
+
+/**
+ * Суммарный простой аппарата за диапазон времени.
+ *
+ * @param unitId          printsrv_instance_id аппарата
+ * @param from            ISO-8601 начало диапазона (UTC, включительно)
+ * @param to              ISO-8601 конец диапазона (UTC, исключительно)
+ * @param incidents       число инцидентов, пересекающих диапазон
+ * @param downtimeSeconds суммарная длительность простоя внутри диапазона, секунды
+ */
+public record DowntimeDTO(
+        String unitId,
+        String from,
+        String to,
+        long incidents,
+        long downtimeSeconds
+) {
+}
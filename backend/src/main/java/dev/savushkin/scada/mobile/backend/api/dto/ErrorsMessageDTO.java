@@ -2,6 +2,7 @@ package dev.savushkin.scada.mobile.backend.api.dto;
 
 import org.jetbrains.annotations.Contract;
 import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
 
 import java.util.List;
 
@@ -18,6 +19,7 @@ import java.util.List;
  *   "type": "ERRORS",
  *   "unitId": "trepko2",
  *   "timestamp": "2026-03-01T10:23:45",
+ *   "dataTimestamp": "2026-03-01T10:23:44.870",
  *   "payload": {
  *     "deviceErrors": [
  *       { "objectName": "Dev041", "propertyDesc": "Dev041Dublicate", "value": "0",
@@ -28,21 +30,25 @@ import java.util.List;
  * }
  * </pre>
  *
- * @param type      всегда {@code "ERRORS"}
- * @param unitId    идентификатор аппарата
- * @param timestamp ISO-8601 UTC момент формирования
- * @param payload   активные флаги ошибок
+ * @param type          всегда {@code "ERRORS"}
+ * @param unitId        идентификатор аппарата
+ * @param timestamp     ISO-8601 UTC момент формирования
+ * @param dataTimestamp ISO-8601 UTC момент получения самых старых данных аппарата от PrintSrv,
+ *                      или {@code null}, если данных ещё нет
+ * @param payload       активные флаги ошибок
  */
 public record ErrorsMessageDTO(
         String type,
         String unitId,
         String timestamp,
+        @Nullable String dataTimestamp,
         Payload payload
 ) {
 
-    @Contract("_, _, _ -> new")
-    public static @NonNull ErrorsMessageDTO of(String unitId, String timestamp, Payload payload) {
-        return new ErrorsMessageDTO("ERRORS", unitId, timestamp, payload);
+    @Contract("_, _, _, _ -> new")
+    public static @NonNull ErrorsMessageDTO of(String unitId, String timestamp, @Nullable String dataTimestamp,
+                                               Payload payload) {
+        return new ErrorsMessageDTO("ERRORS", unitId, timestamp, dataTimestamp, payload);
     }
 
     /**
@@ -0,0 +1,67 @@
+package dev.savushkin.scada.mobile.backend.api.dto;
+
+import org.jetbrains.annotations.Contract;
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * WebSocket-сообщение типа {@code ESCALATION} — персональное оповещение о том, что алёрт
+ * или производственное уведомление долго остаётся без подтверждения.
+ * <p>
+ * Отправляется сотрудникам ролей, указанных в шаге правила эскалации. Клиент подтверждает
+ * событие сообщением {@code { "action": "ACKNOWLEDGE", "source": "ALERT", "unitId": "hassia2" }};
+ * после подтверждения следующие шаги не выполняются.
+ *
+ * <pre>
+ * {
+ *   "type": "ESCALATION",
+ *   "source": "ALERT",
+ *   "workshopId": 1,
+ *   "unitId": "hassia2",
+ *   "unitName": "Линия розлива ПЭТ №2",
+ *   "level": 2,
+ *   "since": "2026-03-05T10:23:45",
+ *   "unacknowledgedSeconds": 600,
+ *   "timestamp": "2026-03-05T10:33:45"
+ * }
+ * </pre>
+ *
+ * @param type                  Всегда {@code "ESCALATION"}.
+ * @param source                {@code "ALERT"} или {@code "NOTIFICATION"}.
+ * @param workshopId            ID цеха; {@code null}, если аппарат не найден в топологии.
+ * @param unitId                ID аппарата.
+ * @param unitName              Читаемое название аппарата.
+ * @param level                 Номер шага правила, начиная с 1.
+ * @param since                 ISO-8601 время появления события (UTC).
+ * @param unacknowledgedSeconds Сколько событие остаётся неподтверждённым.
+ * @param timestamp             ISO-8601 время эскалации (UTC).
+ */
+public record EscalationMessageDTO(
+        String type,
+        String source,
+        @Nullable Long workshopId,
+        String unitId,
+        String unitName,
+        int level,
+        @Nullable String since,
+        long unacknowledgedSeconds,
+        String timestamp
+) {
+    /**
+     * Фабричный метод — тип всегда фиксирован.
+     */
+    @Contract("_, _, _, _, _, _, _, _ -> new")
+    public static @NonNull EscalationMessageDTO of(
+            String source,
+            @Nullable Long workshopId,
+            String unitId,
+            String unitName,
+            int level,
+            @Nullable String since,
+            long unacknowledgedSeconds,
+            String timestamp
+    ) {
+        return new EscalationMessageDTO("ESCALATION", source, workshopId, unitId, unitName, level, since,
+                unacknowledgedSeconds, timestamp);
+    }
+}
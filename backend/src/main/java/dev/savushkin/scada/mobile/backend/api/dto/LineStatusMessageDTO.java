@@ -16,27 +16,32 @@ import org.jspecify.annotations.Nullable;
  *   "type": "LINE_STATUS",
  *   "unitId": "trepko2",
  *   "timestamp": "2026-03-01T10:23:45",
+ *   "dataTimestamp": "2026-03-01T10:23:44.870",
  *   "payload": { ... }
  * }
  * </pre>
  *
  * <p>Источник полей: устройства {@code Line}, первый принтер, {@code BatchQueue}.
  *
- * @param type      всегда {@code "LINE_STATUS"}
- * @param unitId    идентификатор аппарата
- * @param timestamp ISO-8601 UTC момент формирования
- * @param payload   данные партии и состояния линии
+ * @param type          всегда {@code "LINE_STATUS"}
+ * @param unitId        идентификатор аппарата
+ * @param timestamp     ISO-8601 UTC момент формирования
+ * @param dataTimestamp ISO-8601 UTC момент получения самых старых данных аппарата от PrintSrv,
+ *                      или {@code null}, если данных ещё нет
+ * @param payload       данные партии и состояния линии
  */
 public record LineStatusMessageDTO(
         String type,
         String unitId,
         String timestamp,
+        @Nullable String dataTimestamp,
         Payload payload
 ) {
 
-    @Contract("_, _, _ -> new")
-    public static @NonNull LineStatusMessageDTO of(String unitId, String timestamp, Payload payload) {
-        return new LineStatusMessageDTO("LINE_STATUS", unitId, timestamp, payload);
+    @Contract("_, _, _, _ -> new")
+    public static @NonNull LineStatusMessageDTO of(String unitId, String timestamp, @Nullable String dataTimestamp,
+                                                   Payload payload) {
+        return new LineStatusMessageDTO("LINE_STATUS", unitId, timestamp, dataTimestamp, payload);
     }
 
     /**
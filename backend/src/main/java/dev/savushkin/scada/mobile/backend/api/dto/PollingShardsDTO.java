@@ -0,0 +1,33 @@
+package dev.savushkin.scada.mobile.backend.api.dto;
+
+import java.util.List;
+
+/**
+ * Владение опросом PrintSrv в кластере (actuator {@code /actuator/pollingshards}).
+ *
+ * @param nodeId    идентификатор этого узла
+ * @param role      {@code cluster.role}
+ * @param mode      {@code cluster.polling.mode}
+ * @param primary   узел — первичный (самый старый живой узел приёма)
+ * @param members   живые узлы приёма от старшего к младшему
+ * @param polled    инстансы, которые сейчас опрашивает этот узел
+ * @param leases    действующие аренды всех узлов; пусто без координации
+ */
+public record PollingShardsDTO(
+        String nodeId,
+        String role,
+        String mode,
+        boolean primary,
+        List<String> members,
+        List<String> polled,
+        List<Lease> leases
+) {
+
+    /**
+     * @param key         {@code instanceId} или {@code *} (режим {@code leader})
+     * @param owner       узел-владелец
+     * @param expiresInMs до истечения аренды
+     */
+    public record Lease(String key, String owner, long expiresInMs) {
+    }
+}
@@ -17,6 +17,7 @@ import java.util.List;
  *   "type": "QUEUE",
  *   "unitId": "trepko2",
  *   "timestamp": "2026-03-01T10:23:45",
+ *   "dataTimestamp": "2026-03-01T10:23:44.870",
  *   "payload": {
  *     "items": [
  *       { "position": 1, "shortCode": "198", "batch": "198", "dateProduced": "10.01.2026" }
@@ -25,21 +26,25 @@ import java.util.List;
  * }
  * </pre>
  *
- * @param type      всегда {@code "QUEUE"}
- * @param unitId    идентификатор аппарата
- * @param timestamp ISO-8601 UTC момент формирования
- * @param payload   содержимое очереди
+ * @param type          всегда {@code "QUEUE"}
+ * @param unitId        идентификатор аппарата
+ * @param timestamp     ISO-8601 UTC момент формирования
+ * @param dataTimestamp ISO-8601 UTC момент получения самых старых данных аппарата от PrintSrv,
+ *                      или {@code null}, если данных ещё нет
+ * @param payload       содержимое очереди
  */
 public record QueueMessageDTO(
         String type,
         String unitId,
         String timestamp,
+        @Nullable String dataTimestamp,
         Payload payload
 ) {
 
-    @Contract("_, _, _ -> new")
-    public static @NonNull QueueMessageDTO of(String unitId, String timestamp, Payload payload) {
-        return new QueueMessageDTO("QUEUE", unitId, timestamp, payload);
+    @Contract("_, _, _, _ -> new")
+    public static @NonNull QueueMessageDTO of(String unitId, String timestamp, @Nullable String dataTimestamp,
+                                              Payload payload) {
+        return new QueueMessageDTO("QUEUE", unitId, timestamp, dataTimestamp, payload);
     }
 
     /**
@@ -2,6 +2,7 @@ package dev.savushkin.scada.mobile.backend.api.dto;
 
 import org.jetbrains.annotations.Contract;
 import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
 
 import java.util.List;
 
@@ -14,15 +15,20 @@ import java.util.List;
  * {
  *   "type": "UNITS_STATUS",
  *   "workshopId": "dess",
+ *   "dataTimestamp": "2026-03-01T10:23:44.870",
  *   "payload": [
  *     {"unitId": "hassia2", "workshopId": 1, "event": "В работе", "timer": "00:00:00"}
  *   ]
  * }
  * </pre>
+ *
+ * <p>{@code dataTimestamp} — ISO-8601 UTC момент получения данных аппарата от PrintSrv
+ * (для live-обновления одного аппарата); в снапшоте цеха при подписке — {@code null}.
  */
 public record UnitsStatusMessageDTO(
         String type,
         long workshopId,
+        @Nullable String dataTimestamp,
         List<UnitStatusDTO> payload
 ) {
     /**
@@ -30,6 +36,15 @@ public record UnitsStatusMessageDTO(
      */
     @Contract("_, _ -> new")
     public static @NonNull UnitsStatusMessageDTO of(long workshopId, List<UnitStatusDTO> payload) {
-        return new UnitsStatusMessageDTO("UNITS_STATUS", workshopId, payload);
+        return of(workshopId, null, payload);
+    }
+
+    /**
+     * Фабричный метод с моментом получения данных от PrintSrv.
+     */
+    @Contract("_, _, _ -> new")
+    public static @NonNull UnitsStatusMessageDTO of(long workshopId, @Nullable String dataTimestamp,
+                                                    List<UnitStatusDTO> payload) {
+        return new UnitsStatusMessageDTO("UNITS_STATUS", workshopId, dataTimestamp, payload);
     }
 }
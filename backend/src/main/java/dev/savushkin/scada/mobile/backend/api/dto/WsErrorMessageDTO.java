@@ -0,0 +1,21 @@
+package dev.savushkin.scada.mobile.backend.api.dto;
+
+/**
+ * Сообщение WebSocket: действие клиента отклонено.
+ * <pre>
+ * { "type": "ERROR", "action": "ACKNOWLEDGE", "code": "FORBIDDEN", "message": "..." }
+ * </pre>
+ *
+ * @param action действие клиента, на которое отвечает сервер
+ * @param code   {@code BAD_REQUEST} — некорректные поля; {@code FORBIDDEN} — нет прав
+ */
+public record WsErrorMessageDTO(String type, String action, String code, String message) {
+
+    public static final String TYPE = "ERROR";
+    public static final String BAD_REQUEST = "BAD_REQUEST";
+    public static final String FORBIDDEN = "FORBIDDEN";
+
+    public static WsErrorMessageDTO of(String action, String code, String message) {
+        return new WsErrorMessageDTO(TYPE, action, code, message);
+    }
+}
@@ -0,0 +1,29 @@
+package dev.savushkin.scada.mobile.backend.api.dto;
+
+/**
+ * Диагностика одной WebSocket-сессии (actuator {@code /actuator/wssessions}).
+ *
+ * @param id             идентификатор сессии
+ * @param endpoint       канал: {@code live} или {@code unit}
+ * @param userId         ID пользователя из JWT (может быть {@code null})
+ * @param role           роль пользователя из JWT
+ * @param subscription   подписка: {@code workshop:{id}}, {@code unit:{unitId}} или {@code null}
+ * @param connectedAt    ISO-8601 момент подключения (UTC)
+ * @param backlog        число отправок, ожидающих эту сессию
+ * @param messagesSent   отправлено сообщений
+ * @param lastSendMillis длительность последней отправки, мс
+ * @param lastSentAt     ISO-8601 момент последней отправки (UTC) или {@code null}
+ */
+public record WsSessionDTO(
+        String id,
+        String endpoint,
+        Long userId,
+        String role,
+        String subscription,
+        String connectedAt,
+        int backlog,
+        long messagesSent,
+        double lastSendMillis,
+        String lastSentAt
+) {
+}
@@ -0,0 +1,109 @@
+package dev.savushkin.scada.mobile.backend.application.ports;
+
+import dev.savushkin.scada.mobile.backend.domain.model.AlertIncident;
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Порт журнала инцидентов (истории алёртов).
+ * <p>
+ * Журнал append-only: записи только добавляются пачками и никогда не изменяются.
+ * Все диапазоны — полуинтервалы {@code [from, to)} по UTC.
+ * <p>
+ * Списки инцидентов листаются по ключу, а не по смещению: страница начинается строго после
+ * {@link Cursor} последней записи предыдущей, поэтому глубокая страница стоит столько же,
+ * сколько первая, а общее число записей не считается.
+ */
+public interface AlertHistoryRepository {
+
+    /**
+     * Добавляет пачку завершённых инцидентов одним batch-запросом.
+     */
+    void appendAll(@NonNull List<AlertIncident> incidents);
+
+    /**
+     * Инциденты аппарата, начавшиеся в диапазоне, — от новых к старым.
+     *
+     * @param after курсор последней записи предыдущей страницы; {@code null} — первая страница
+     * @param limit размер страницы
+     */
+    @NonNull IncidentPage findByInstance(
+            @NonNull String instanceId,
+            @NonNull LocalDateTime from,
+            @NonNull LocalDateTime to,
+            @Nullable Cursor after,
+            int limit);
+
+    /**
+     * Инциденты всех аппаратов цеха, начавшиеся в диапазоне, — от новых к старым.
+     *
+     * @see #findByInstance
+     */
+    @NonNull IncidentPage findByWorkshop(
+            long workshopId,
+            @NonNull LocalDateTime from,
+            @NonNull LocalDateTime to,
+            @Nullable Cursor after,
+            int limit);
+
+    /**
+     * Суммарный простой аппаратов цеха в диапазоне: {@code instanceId → секунды}.
+     * Учитывается только пересечение инцидента с диапазоном.
+     *
+     * @param lookbackStart нижняя граница {@code started_at} для инцидентов, начавшихся до {@code from}
+     *                      (ограничивает число затрагиваемых партиций)
+     */
+    @NonNull Map<String, DowntimeTotal> sumDowntimeByWorkshop(
+            long workshopId,
+            @NonNull LocalDateTime lookbackStart,
+            @NonNull LocalDateTime from,
+            @NonNull LocalDateTime to);
+
+    /**
+     * Суммарный простой одного аппарата в диапазоне.
+     *
+     * @see #sumDowntimeByWorkshop
+     */
+    @NonNull DowntimeTotal sumDowntimeByInstance(
+            @NonNull String instanceId,
+            @NonNull LocalDateTime lookbackStart,
+            @NonNull LocalDateTime from,
+            @NonNull LocalDateTime to);
+
+    /**
+     * Создаёт месячную партицию журнала, если её ещё нет.
+     *
+     * @param monthStart любая дата внутри нужного месяца
+     */
+    void ensurePartition(@NonNull LocalDate monthStart);
+
+    /**
+     * Позиция в журнале — ключ сортировки списка {@code (started_at, alert_id)}.
+     */
+    record Cursor(@NonNull LocalDateTime startedAt, long id) {
+    }
+
+    /**
+     * Страница инцидентов.
+     *
+     * @param items инциденты страницы, от новых к старым
+     * @param next  курсор следующей страницы; {@code null} — страница последняя
+     */
+    record IncidentPage(@NonNull List<AlertIncident> items, @Nullable Cursor next) {
+    }
+
+    /**
+     * Агрегат простоя.
+     *
+     * @param incidents       число инцидентов, пересекающих диапазон
+     * @param downtimeSeconds суммарная длительность пересечения, секунды
+     */
+    record DowntimeTotal(long incidents, long downtimeSeconds) {
+        public static final DowntimeTotal EMPTY = new DowntimeTotal(0, 0);
+    }
+}
@@ -0,0 +1,49 @@
+package dev.savushkin.scada.mobile.backend.application.ports;
+
+import dev.savushkin.scada.mobile.backend.domain.model.CounterRollup;
+import dev.savushkin.scada.mobile.backend.domain.model.CounterSample;
+import dev.savushkin.scada.mobile.backend.domain.model.CounterSeries;
+import dev.savushkin.scada.mobile.backend.domain.model.RollupResolution;
+import org.jspecify.annotations.NonNull;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Порт хранилища временных рядов счётчиков устройств.
+ * <p>
+ * Сырые точки только добавляются; агрегаты сливаются с уже записанными по правилу
+ * {@link CounterRollup#merge}. Все диапазоны — полуинтервалы {@code [from, to)} по UTC.
+ */
+public interface CounterTimeSeriesRepository {
+
+    /**
+     * Атомарно записывает пачку сырых точек и сливает соответствующие им агрегаты.
+     * <p>
+     * Одна транзакция: при ошибке пачку можно повторить, не задвоив счётчики агрегатов.
+     */
+    void appendBatch(@NonNull List<CounterSample> samples, @NonNull List<CounterRollup> rollups);
+
+    /**
+     * Агрегаты ряда, бакеты которых начинаются в диапазоне, — по возрастанию времени.
+     */
+    @NonNull List<CounterRollup> findRollups(
+            @NonNull CounterSeries series,
+            @NonNull RollupResolution resolution,
+            @NonNull LocalDateTime from,
+            @NonNull LocalDateTime to);
+
+    /**
+     * Удаляет не более {@code limit} сырых точек старше {@code cutoff}.
+     *
+     * @return число удалённых строк
+     */
+    int deleteSamplesBefore(@NonNull LocalDateTime cutoff, int limit);
+
+    /**
+     * Удаляет не более {@code limit} агрегатов указанного разрешения старше {@code cutoff}.
+     *
+     * @return число удалённых строк
+     */
+    int deleteRollupsBefore(@NonNull RollupResolution resolution, @NonNull LocalDateTime cutoff, int limit);
+}
@@ -0,0 +1,20 @@
+package dev.savushkin.scada.mobile.backend.application.ports;
+
+import org.jspecify.annotations.NonNull;
+
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * Порт выбора адресатов эскалации.
+ */
+public interface EscalationRecipientRepository {
+
+    /**
+     * Активные сотрудники с одной из ролей.
+     *
+     * @param roles имена ролей (таблица {@code roles})
+     * @return идентификаторы пользователей; пустое множество, если ролей нет или в них никого
+     */
+    @NonNull Set<Long> findActiveUserIdsByRoles(@NonNull Collection<String> roles);
+}
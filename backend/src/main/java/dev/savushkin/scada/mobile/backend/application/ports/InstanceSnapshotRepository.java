@@ -2,6 +2,7 @@ package dev.savushkin.scada.mobile.backend.application.ports;
 
 import dev.savushkin.scada.mobile.backend.domain.model.DeviceSnapshot;
 
+import java.time.Instant;
 import java.util.Map;
 
 /**
@@ -42,6 +43,24 @@ public interface InstanceSnapshotRepository {
      */
     Map<String, DeviceSnapshot> getAllForInstance(String instanceId);
 
+    /**
+     * Возвращает самый ранний момент получения среди snapshot-ов инстанса —
+     * возраст самых старых данных, из которых собираются сообщения аппарата.
+     *
+     * @param instanceId идентификатор инстанса
+     * @return момент получения или {@code null}, если данных нет или момент неизвестен
+     */
+    default Instant oldestReceivedAt(String instanceId) {
+        Instant oldest = null;
+        for (DeviceSnapshot snapshot : getAllForInstance(instanceId).values()) {
+            Instant receivedAt = snapshot.receivedAt();
+            if (receivedAt != null && (oldest == null || receivedAt.isBefore(oldest))) {
+                oldest = receivedAt;
+            }
+        }
+        return oldest;
+    }
+
     /**
      * Полностью очищает все snapshot-ы указанного инстанса.
      *
@@ -10,12 +10,14 @@ import java.util.Optional;
  * Порт хранения производственных уведомлений.
  * <p>
  * Интерфейс определяет контракт для persistence-слоя без привязки к конкретной СУБД.
- * Текущая реализация — {@code InMemoryNotificationStore} (ConcurrentHashMap).
- * Будущая реализация — PostgreSQL / JPA.
+ * Реализация — {@code ProductionNotificationJdbcAdapter}: таблица {@code production_notifications}
+ * с полной историей вызовов и write-through кэш активных уведомлений в памяти, поэтому
+ * {@link #findActiveByUnitId} и {@link #findAllActive} не обращаются к БД.
  *
  * <h3>Инвариант</h3>
  * На один {@code unitId} существует не более одного активного уведомления ({@code active = true}).
- * Метод {@link #save} гарантирует замену предыдущего активного при сохранении нового.
+ * Его гарантирует хранилище — в том числе для нескольких узлов, пишущих одновременно;
+ * проигравшая сторона получает из {@link #save} уже существующее активное уведомление.
  */
 public interface NotificationRepository {
 
@@ -36,22 +38,48 @@ public interface NotificationRepository {
     @NonNull List<ProductionNotification> findAllActive();
 
     /**
-     * Сохраняет (создаёт или заменяет) уведомление для данного аппарата.
+     * Перечитывает активное уведомление аппарата из хранилища, минуя кэш, и приводит кэш к нему.
      * <p>
-     * При сохранении нового активного уведомления предыдущее активное для того же {@code unitId}
-     * заменяется. Деактивированные уведомления хранятся только в текущем in-memory сценарии
-     * и могут быть очищены реализацией.
+     * Для решений, которые нельзя принимать по кэшу: уведомление могли активировать или снять
+     * на другом узле, а его событие ещё не дошло по шине кластера. Также вызывается при
+     * получении такого события.
+     *
+     * @param unitId Идентификатор аппарата.
+     * @return Активное уведомление по данным хранилища, или {@code Optional.empty()}.
+     */
+    @NonNull Optional<ProductionNotification> reloadActiveByUnitId(@NonNull String unitId);
+
+    /**
+     * Сохраняет изменение состояния уведомления для данного аппарата.
+     * <p>
+     * Активное уведомление создаёт новую запись истории, если у аппарата нет активного.
+     * Деактивированное закрывает активную запись аппарата ({@code deactivatedAt}, {@code resolverId});
+     * если активной уже нет — операция является no-op.
      *
      * @param notification Уведомление для сохранения (не {@code null}).
+     * @return Результат сохранения: при активации — сохранённое или уже существовавшее
+     *         активное уведомление аппарата (например, созданное одновременно на другом узле);
+     *         при деактивации — переданное уведомление.
      */
-    void save(@NonNull ProductionNotification notification);
+    @NonNull SaveResult save(@NonNull ProductionNotification notification);
 
     /**
-     * Деактивирует активное уведомление для аппарата (если есть).
+     * Деактивирует активное уведомление для аппарата (если есть) от имени системы
+     * ({@code resolverId = null}).
      * <p>
      * Если активного уведомления нет — операция является no-op.
      *
      * @param unitId Идентификатор аппарата.
      */
     void deactivateByUnitId(@NonNull String unitId);
+
+    /**
+     * Результат {@link #save}.
+     *
+     * @param notification Активное уведомление аппарата после активации или переданное при деактивации.
+     * @param created      {@code true}, если вызов создал запись истории; {@code false} — активация
+     *                     уступила уже активному уведомлению, либо это деактивация.
+     */
+    record SaveResult(@NonNull ProductionNotification notification, boolean created) {
+    }
 }
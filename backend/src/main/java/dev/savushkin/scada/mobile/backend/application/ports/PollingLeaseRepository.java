@@ -0,0 +1,69 @@
+package dev.savushkin.scada.mobile.backend.application.ports;
+
+import org.jspecify.annotations.NonNull;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Порт аренды опроса PrintSrv между узлами приёма.
+ * <p>
+ * Членство — heartbeat узла ({@link #join}, {@link #heartbeat}); аренда — строка на ключ
+ * ({@code instanceId} или {@link #ALL}), которую продлевает только владелец, а занять другой
+ * узел может лишь после истечения. Сроки считаются по часам БД.
+ */
+public interface PollingLeaseRepository {
+
+    /**
+     * Ключ единственной аренды режима {@code leader}: владелец опрашивает все инстансы.
+     */
+    String ALL = "*";
+
+    /**
+     * Регистрирует узел заново: {@code joined_at} сбрасывается, узел становится младшим.
+     */
+    void join(@NonNull String nodeId);
+
+    /**
+     * Продлевает heartbeat узла (и регистрирует его, если строки нет).
+     */
+    void heartbeat(@NonNull String nodeId);
+
+    /**
+     * Живые узлы (heartbeat моложе {@code ttlMs}) от старшего к младшему.
+     */
+    @NonNull List<String> liveMembers(long ttlMs);
+
+    /**
+     * Удаляет узел из членства и освобождает все его аренды — корректный уход.
+     */
+    void leave(@NonNull String nodeId);
+
+    /**
+     * Захватывает свободные или истёкшие аренды {@code keys} и продлевает свои на {@code ttlMs}.
+     *
+     * @return ключи из {@code keys}, которыми узел владеет после вызова
+     */
+    @NonNull Set<String> acquire(@NonNull String nodeId, @NonNull Collection<String> keys, long ttlMs);
+
+    /**
+     * Освобождает аренды узла, не входящие в {@code keep}.
+     */
+    void releaseExcept(@NonNull String nodeId, @NonNull Collection<String> keep);
+
+    /**
+     * Все действующие аренды — для диагностики.
+     */
+    @NonNull List<Lease> findActive();
+
+    /**
+     * Действующая аренда.
+     *
+     * @param key         {@code instanceId} или {@link #ALL}
+     * @param owner       узел-владелец
+     * @param expiresInMs до истечения по часам БД
+     */
+    record Lease(@NonNull String key, @NonNull String owner, long expiresInMs) {
+    }
+}
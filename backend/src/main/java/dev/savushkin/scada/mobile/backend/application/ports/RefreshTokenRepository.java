@@ -15,7 +15,70 @@ public interface RefreshTokenRepository {
 
     @NonNull Optional<RefreshTokenEntity> findByTokenHash(@NonNull String tokenHash);
 
+    /**
+     * Состояние токена без загрузки сущностей — из кэша, при промахе из БД.
+     */
+    @NonNull Optional<TokenState> findStateByTokenHash(@NonNull String tokenHash);
+
+    /**
+     * Отзывает токен, если он ещё не отозван.
+     *
+     * @return {@code true}, если токен был отозван этим вызовом
+     */
+    boolean revoke(@NonNull String tokenHash);
+
+    /**
+     * Сохраняет новый refresh-токен пользователя без загрузки сущности пользователя.
+     */
+    void issue(long userId, @NonNull String tokenHash, @NonNull Instant createdAt, @NonNull Instant expiresAt);
+
+    /**
+     * Ротация одним запросом: отзывает действующий токен {@code oldHash} и выдаёт
+     * на того же пользователя токен {@code newHash}.
+     * <p>
+     * Ротация выполняется, только если старый токен не отозван, не истёк к моменту
+     * {@code now} и пользователь активен. Два параллельных запроса с одним токеном
+     * не могут оба пройти ротацию: второй увидит токен уже отозванным.
+     *
+     * @return данные пользователя для access-токена; пусто, если ротация не выполнена
+     */
+    @NonNull Optional<RotatedSession> rotate(
+            @NonNull String oldHash,
+            @NonNull String newHash,
+            @NonNull Instant now,
+            @NonNull Instant expiresAt);
+
     void revokeAllByUserId(long userId);
 
-    void deleteExpired(@NonNull Instant before);
+    /**
+     * Удаляет все токены пользователя (при удалении сотрудника).
+     */
+    void deleteAllByUserId(long userId);
+
+    /**
+     * Удаляет не более {@code limit} токенов, истёкших раньше {@code before}.
+     *
+     * @return число удалённых строк
+     */
+    int deleteExpired(@NonNull Instant before, int limit);
+
+    /**
+     * Пользователь, на которого выдан новый токен при ротации.
+     */
+    record RotatedSession(long userId, @NonNull String role, boolean passwordTemporary) {
+    }
+
+    /**
+     * Состояние refresh-токена, достаточное для принятия решения без загрузки пользователя.
+     */
+    record TokenState(long userId, @NonNull Instant expiresAt, boolean revoked) {
+
+        public @NonNull TokenState asRevoked() {
+            return new TokenState(userId, expiresAt, true);
+        }
+
+        public boolean isUsableAt(@NonNull Instant now) {
+            return !revoked && expiresAt.isAfter(now);
+        }
+    }
 }
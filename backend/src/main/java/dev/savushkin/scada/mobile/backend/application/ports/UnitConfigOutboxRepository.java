@@ -0,0 +1,58 @@
+package dev.savushkin.scada.mobile.backend.application.ports;
+
+import dev.savushkin.scada.mobile.backend.domain.model.UnitConfigChange;
+import org.jspecify.annotations.NonNull;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Порт transactional outbox изменений конфигурации автоматов.
+ * <p>
+ * {@link #append} вызывается внутри транзакции админ-изменения и участвует в ней:
+ * изменение попадает в outbox тогда и только тогда, когда закоммичен сам автомат.
+ * Остальные методы использует relay; вычитка и удаление пачки выполняются
+ * в одной транзакции под {@link #tryLockRelay()}.
+ */
+public interface UnitConfigOutboxRepository {
+
+    /**
+     * Добавляет изменения в outbox одним batch-запросом.
+     */
+    void append(@NonNull List<UnitConfigChange> changes);
+
+    /**
+     * Пытается захватить блокировку relay до конца текущей транзакции.
+     * Одновременно outbox вычитывает только один relay (в том числе на разных узлах),
+     * поэтому изменения одного автомата не публикуются вперемешку.
+     *
+     * @return {@code false}, если блокировку держит другая транзакция
+     */
+    boolean tryLockRelay();
+
+    /**
+     * Самые старые изменения outbox в порядке записи.
+     */
+    @NonNull List<Entry> fetchBatch(int limit);
+
+    /**
+     * Удаляет опубликованные изменения.
+     */
+    void delete(@NonNull Collection<Long> ids);
+
+    /**
+     * Текущая конфигурация всех активных автоматов одним запросом — как {@code UNIT_UPSERT}
+     * на момент {@code at}. Основа полного снимка для потребителей.
+     */
+    @NonNull List<UnitConfigChange> snapshotActiveUnits(@NonNull Instant at);
+
+    /**
+     * Строка outbox.
+     *
+     * @param id     идентификатор строки (порядок записи)
+     * @param change изменение
+     */
+    record Entry(long id, @NonNull UnitConfigChange change) {
+    }
+}
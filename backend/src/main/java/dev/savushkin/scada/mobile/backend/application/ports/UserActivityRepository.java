@@ -0,0 +1,20 @@
+package dev.savushkin.scada.mobile.backend.application.ports;
+
+import org.jspecify.annotations.NonNull;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Порт пакетной записи времени последней активности пользователей.
+ */
+public interface UserActivityRepository {
+
+    /**
+     * Обновляет {@code users.last_activity_at} для всех пользователей пачки одним запросом.
+     * Значение в БД только продвигается вперёд: более старая метка не перезаписывает новую.
+     *
+     * @param lastActivity {@code userId → момент последней активности}
+     */
+    void updateLastActivity(@NonNull Map<Long, LocalDateTime> lastActivity);
+}
@@ -13,8 +13,9 @@ import java.util.Set;
  *   <li>От каких аппаратов работник <b>получает</b> уведомления (подписки).</li>
  * </ul>
  * <p>
- * Интерфейс определяет доменный контракт. Текущая реализация — {@code InMemoryUserAssignmentStore}
- * с seed-данными из YAML. Будущая — PostgreSQL (таблица {@code user_unit_assignments}).
+ * Интерфейс определяет доменный контракт. Реализация — {@code UserAssignmentJpaAdapter}
+ * (таблица {@code user_unit_assignments}); методы вызываются на каждый toggle и WS-снимок,
+ * поэтому отвечают из индекса в памяти без запроса к БД.
  *
  * <h3>Инвариант</h3>
  * Если {@link #canSendNotification} возвращает {@code true}, то {@code unitId}
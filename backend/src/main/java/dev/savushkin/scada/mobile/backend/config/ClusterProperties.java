@@ -0,0 +1,118 @@
+package dev.savushkin.scada.mobile.backend.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Конфигурация кластерного режима WebSocket-слоя.
+ *
+ * <p>Роль узла задаётся {@code cluster.role}:
+ * <ul>
+ *   <li>{@code standalone} — один узел: приём данных, вычисление состояния и WS-клиенты
+ *       в одной JVM, шина не используется (по умолчанию);</li>
+ *   <li>{@code leader} — узел приёма данных: вычисляет состояние и публикует изменения
+ *       в шину, может обслуживать и своих WS-клиентов; узлов может быть несколько,
+ *       если опрос координируется ({@code cluster.polling.mode});</li>
+ *   <li>{@code ws} — узел WS-клиентов: приём данных выключен, хранилища
+ *       активных алёртов/уведомлений и статусы аппаратов — реплики из шины.</li>
+ * </ul>
+ *
+ * <p>Координация опроса PrintSrv между узлами {@code leader} — {@code cluster.polling.mode}:
+ * {@code none} (узел один и опрашивает всё), {@code leader} (опрашивает держатель единственной
+ * аренды, остальные ждут её истечения) или {@code sharded} (инстансы делятся между живыми
+ * узлами по consistent hashing).
+ *
+ * <p>Шина выбирается {@code cluster.bus}: {@code postgres} (LISTEN/NOTIFY, по умолчанию)
+ * или {@code in-jvm} (узлы в одной JVM — тесты и нагрузочный стенд).
+ *
+ * <p>Активируется через {@link PrintSrvInfrastructureConfig}.
+ */
+@Setter
+@Getter
+@ConfigurationProperties(prefix = "cluster")
+public class ClusterProperties {
+
+    public static final String ROLE_STANDALONE = "standalone";
+    public static final String ROLE_LEADER = "leader";
+    public static final String ROLE_WS = "ws";
+
+    public static final String BUS_POSTGRES = "postgres";
+    public static final String BUS_IN_JVM = "in-jvm";
+
+    public static final String POLLING_NONE = "none";
+    public static final String POLLING_LEADER = "leader";
+    public static final String POLLING_SHARDED = "sharded";
+
+    private String role = ROLE_STANDALONE;
+    private String bus = BUS_POSTGRES;
+    /**
+     * Идентификатор узла в шине; пустой — генерируется при старте.
+     */
+    private String nodeId = "";
+    /**
+     * Канал шины: имя канала LISTEN/NOTIFY или топика in-jvm.
+     */
+    private String channel = "scada_mobile_ws";
+    /**
+     * Период повторного запроса полного состояния, пока WS-узел его не получил.
+     */
+    private long syncRetryMs = 5000;
+    private PostgresProperties postgres = new PostgresProperties();
+    private PollingProperties polling = new PollingProperties();
+
+    // ─── Nested: postgres ────────────────────────────────────────────────────
+
+    @Setter
+    @Getter
+    public static class PostgresProperties {
+        /**
+         * Предел payload одного NOTIFY (у PostgreSQL — 8000 байт); крупнее — через таблицу
+         * {@code cluster_bus_spill}, в NOTIFY уходит только ссылка.
+         */
+        private int maxPayloadBytes = 7500;
+        /**
+         * Максимум событий, упаковываемых в один NOTIFY.
+         */
+        private int maxBatchEvents = 256;
+        /**
+         * Предел очереди отправки; при переполнении события отбрасываются, а получатели
+         * запрашивают полное состояние заново.
+         */
+        private int queueCapacity = 100000;
+        /**
+         * Таймаут ожидания уведомлений в цикле LISTEN.
+         */
+        private long listenTimeoutMs = 500;
+        /**
+         * Пауза перед переподключением после ошибки соединения.
+         */
+        private long reconnectDelayMs = 2000;
+        /**
+         * Срок хранения строк {@code cluster_bus_spill}.
+         */
+        private long spillRetentionMs = 60000;
+
+    }
+
+    // ─── Nested: polling ─────────────────────────────────────────────────────
+
+    @Setter
+    @Getter
+    public static class PollingProperties {
+        private String mode = POLLING_NONE;
+        /**
+         * Срок аренды и heartbeat узла: инстансы упавшего узла переходят к другим не позже
+         * чем через {@code leaseTtlMs + renewIntervalMs}.
+         */
+        private long leaseTtlMs = 3000;
+        /**
+         * Период продления аренд и heartbeat; должен быть в 2–3 раза меньше {@code leaseTtlMs}.
+         */
+        private long renewIntervalMs = 1000;
+        /**
+         * Виртуальных точек на узел в кольце consistent hashing (режим {@code sharded}).
+         */
+        private int virtualNodes = 64;
+    }
+}
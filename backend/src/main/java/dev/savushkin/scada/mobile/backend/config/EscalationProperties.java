@@ -0,0 +1,78 @@
+package dev.savushkin.scada.mobile.backend.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Эскалация неподтверждённых алёртов и производственных уведомлений.
+ *
+ * <p>Правило ({@code escalation.rules[]}) выбирается по источнику, цеху и аппарату:
+ * из подходящих берётся самое конкретное (аппарат, затем цех, затем общее), при равенстве —
+ * объявленное первым. Шаги правила отсчитываются от появления алёрта / активации уведомления:
+ * шаг срабатывает, если до его срока никто не подтвердил событие ({@code ACKNOWLEDGE}
+ * по {@code /ws/live}), и адресуется активным сотрудникам перечисленных ролей.
+ *
+ * <p>Активируется через {@link PrintSrvInfrastructureConfig}.
+ */
+@Setter
+@Getter
+@ConfigurationProperties(prefix = "escalation")
+public class EscalationProperties {
+
+    public static final String SOURCE_ALERT = "ALERT";
+    public static final String SOURCE_NOTIFICATION = "NOTIFICATION";
+
+    private boolean enabled = false;
+    /**
+     * Тик колеса таймеров — точность срабатывания шагов.
+     */
+    private long tickMs = 1000;
+    /**
+     * Число корзин колеса (округляется до степени двойки); сроки дальше одного оборота
+     * ({@code tick-ms × wheel-size}) отсчитываются оборотами.
+     */
+    private int wheelSize = 512;
+    private List<Rule> rules = new ArrayList<>();
+
+    // ─── Nested: rule ────────────────────────────────────────────────────────
+
+    @Setter
+    @Getter
+    public static class Rule {
+        /**
+         * {@code ALERT} | {@code NOTIFICATION}; пусто — оба источника.
+         */
+        private String source;
+        /**
+         * Цех; пусто — любой.
+         */
+        private Long workshopId;
+        /**
+         * Аппарат (instanceId PrintSrv); пусто — любой.
+         */
+        private String unitId;
+        private List<Step> steps = new ArrayList<>();
+
+    }
+
+    // ─── Nested: step ────────────────────────────────────────────────────────
+
+    @Setter
+    @Getter
+    public static class Step {
+        /**
+         * Срок от появления события.
+         */
+        private Duration after = Duration.ofMinutes(3);
+        /**
+         * Роли адресатов (имена из таблицы {@code roles}).
+         */
+        private List<String> roles = new ArrayList<>();
+
+    }
+}
@@ -0,0 +1,96 @@
+package dev.savushkin.scada.mobile.backend.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.List;
+
+/**
+ * Конфигурация приёма данных аппаратов: источник и общий downstream-конвейер.
+ *
+ * <p>Источник выбирается {@code ingestion.source}:
+ * <ul>
+ *   <li>{@code polling} — TCP-опрос PrintSrv (по умолчанию);</li>
+ *   <li>{@code log} — встроенный файловый партиционированный журнал (локальная замена Kafka).</li>
+ * </ul>
+ * Другое значение отклоняется при привязке свойств — приложение не стартует. Источник
+ * {@code kafka} появится вместе с клиентом Kafka в сборке (см. {@code ТЗ_миграция_на_Kafka.md}).
+ *
+ * <p>Активируется через {@link PrintSrvInfrastructureConfig}.
+ */
+@Setter
+@Getter
+@ConfigurationProperties(prefix = "ingestion")
+public class IngestionProperties {
+
+    public static final String SOURCE_POLLING = "polling";
+    public static final String SOURCE_LOG = "log";
+    public static final List<String> SOURCES = List.of(SOURCE_POLLING, SOURCE_LOG);
+
+    private String source = SOURCE_POLLING;
+    /**
+     * Сколько ждать первой порции данных источника при старте, прежде чем
+     * открыть HTTP-порт; 0 — не ждать.
+     */
+    private long initialLoadTimeoutMs = 15000;
+    private PipelineProperties pipeline = new PipelineProperties();
+    private LogProperties log = new LogProperties();
+
+    public void setSource(String source) {
+        if (!SOURCES.contains(source)) {
+            throw new IllegalArgumentException(
+                    "Unknown ingestion.source='%s'. Available: %s".formatted(source, SOURCES));
+        }
+        this.source = source;
+    }
+
+    // ─── Nested: pipeline ────────────────────────────────────────────────────
+
+    @Setter
+    @Getter
+    public static class PipelineProperties {
+        /**
+         * Число партиций конвейера: аппараты распределяются по ним по instanceId
+         * и обрабатываются параллельно, каждый — строго по порядку.
+         */
+        private int partitions = 8;
+        /**
+         * Предел записей в очередях конвейера (суммарно по партициям); источник блокируется, пока место не освободится.
+         */
+        private int queueCapacity = 10000;
+        /**
+         * Максимум записей, обрабатываемых одной пачкой партиции.
+         */
+        private int maxBatchRecords = 1000;
+
+    }
+
+    // ─── Nested: log ─────────────────────────────────────────────────────────
+
+    @Setter
+    @Getter
+    public static class LogProperties {
+        private String directory = "ingestion-log";
+        /**
+         * Число партиций; записи одного аппарата всегда попадают в одну партицию.
+         * Фиксируется при создании журнала.
+         */
+        private int partitions = 8;
+        private String groupId = "scada-mobile-backend";
+        /**
+         * Откуда читать, если у группы ещё нет зафиксированного смещения: {@code earliest} | {@code latest}.
+         */
+        private String autoOffsetReset = "earliest";
+        /**
+         * Сбросить смещения группы на начало при старте (воспроизведение всего журнала).
+         */
+        private boolean replayFromStart = false;
+        private int maxPollRecords = 500;
+        /**
+         * Пауза опроса партиции, когда новых записей нет.
+         */
+        private long pollIntervalMs = 50;
+
+    }
+}
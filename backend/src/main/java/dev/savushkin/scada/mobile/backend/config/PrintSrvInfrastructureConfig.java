@@ -4,13 +4,22 @@ import org.springframework.boot.context.properties.EnableConfigurationProperties
 import org.springframework.context.annotation.Configuration;
 
 /**
- * Активирует типизированный {@link PrintSrvProperties}-класс PrintSrv-инфраструктуры.
+ * Активирует типизированные {@link PrintSrvProperties}, {@link IngestionProperties},
+ * {@link UnitConfigProperties}, {@link ClusterProperties} и {@link EscalationProperties}
+ * инфраструктуры приёма данных PrintSrv, публикации конфигурации автоматов, кластерного
+ * режима WS-слоя и эскалации неподтверждённых событий.
  *
  * <p>Разделено от {@code Application.java}, чтобы можно было тестировать бины конфигурации
  * изолированно через {@code @SpringBootTest(classes = PrintSrvInfrastructureConfig.class)}.
  */
 @Configuration
-@EnableConfigurationProperties({PrintSrvProperties.class})
+@EnableConfigurationProperties({
+        PrintSrvProperties.class,
+        IngestionProperties.class,
+        UnitConfigProperties.class,
+        ClusterProperties.class,
+        EscalationProperties.class
+})
 public class PrintSrvInfrastructureConfig {
     // Этот класс — только декларация; логики здесь нет.
 }
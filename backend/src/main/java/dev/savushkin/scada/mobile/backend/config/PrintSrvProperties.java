@@ -20,6 +20,9 @@ public class PrintSrvProperties {
 
     private PollingProperties polling = new PollingProperties();
     private SocketProperties socket = new SocketProperties();
+    private CaptureProperties capture = new CaptureProperties();
+    private ReplayProperties replay = new ReplayProperties();
+    private WarmupProperties warmup = new WarmupProperties();
 
     // ─── getters / setters ────────────────────────────────────────────────────
 
@@ -44,4 +47,61 @@ public class PrintSrvProperties {
         private int readTimeoutMs = 5000;
 
     }
+
+    // ─── Nested: capture ─────────────────────────────────────────────────────
+
+    @Setter
+    @Getter
+    public static class CaptureProperties {
+        /**
+         * Запись сырых ответов PrintSrv в бинарный журнал (только TCP-клиент).
+         */
+        private boolean enabled = false;
+        private String directory = "printsrv-capture";
+        /**
+         * Размер одного memory-mapped сегмента журнала.
+         */
+        private int segmentSizeMb = 64;
+        /**
+         * Сколько сегментов хранить; старшие удаляются при ротации.
+         */
+        private int maxSegments = 32;
+
+    }
+
+    // ─── Nested: replay ──────────────────────────────────────────────────────
+
+    @Setter
+    @Getter
+    public static class ReplayProperties {
+        /**
+         * Каталог журнала для профиля {@code replay}.
+         */
+        private String directory = "printsrv-capture";
+        /**
+         * Скорость воспроизведения: 1.0 — реальное время, 10.0 — в десять раз быстрее.
+         */
+        private double speed = 1.0;
+        /**
+         * По окончании журнала начать сначала; иначе отдавать последние кадры.
+         */
+        private boolean loop = false;
+
+    }
+
+    // ─── Nested: warmup ──────────────────────────────────────────────────────
+
+    @Setter
+    @Getter
+    public static class WarmupProperties {
+        /**
+         * Прогон маппера и сериализаторов на {@code mock-snapshots} до первого опроса.
+         */
+        private boolean enabled = true;
+        /**
+         * Число проходов по всем seed-снимкам.
+         */
+        private int passes = 20;
+
+    }
 }
@@ -91,6 +91,10 @@ public class SecurityConfig {
                                  "/api/v1.0.0/auth/refresh").permitAll()
                 // Actuator health — для Kubernetes probes
                 .requestMatchers("/actuator/health").permitAll()
+                // Диагностика WebSocket-сессий — только для роли ADMIN
+                .requestMatchers("/actuator/wssessions").hasRole("ADMIN")
+                // Владение опросом PrintSrv в кластере — только для роли ADMIN
+                .requestMatchers("/actuator/pollingshards").hasRole("ADMIN")
                 // WebSocket handshake — auth через отдельный interceptor
                 .requestMatchers("/ws/**").permitAll()
                 // Админ-эндпоинты — только для роли ADMIN
@@ -0,0 +1,73 @@
+package dev.savushkin.scada.mobile.backend.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.List;
+
+/**
+ * Конфигурация публикации изменений автоматов ({@code UNIT_UPSERT} / {@code UNIT_DELETE})
+ * из transactional outbox.
+ *
+ * <p>Публикатор выбирается {@code unit-config.publisher}:
+ * <ul>
+ *   <li>{@code logging} — только запись в лог приложения (по умолчанию);</li>
+ *   <li>{@code log} — встроенный файловый журнал (локальная замена топика).</li>
+ * </ul>
+ * Другое значение отклоняется при привязке свойств — приложение не стартует. Публикатор
+ * {@code kafka} появится вместе с клиентом Kafka в сборке (см. {@code ТЗ_миграция_на_Kafka.md}).
+ *
+ * <p>Активируется через {@link PrintSrvInfrastructureConfig}.
+ */
+@Setter
+@Getter
+@ConfigurationProperties(prefix = "unit-config")
+public class UnitConfigProperties {
+
+    public static final String PUBLISHER_LOGGING = "logging";
+    public static final String PUBLISHER_LOG = "log";
+    public static final List<String> PUBLISHERS = List.of(PUBLISHER_LOGGING, PUBLISHER_LOG);
+
+    private String publisher = PUBLISHER_LOGGING;
+    /**
+     * Максимум строк outbox, вычитываемых одной пачкой (до схлопывания по instanceId).
+     */
+    private int batchSize = 500;
+    /**
+     * Период проверки outbox без сигнала о коммите (изменения с других узлов, повтор после ошибки).
+     */
+    private long pollIntervalMs = 5000;
+    /**
+     * Период полной сверки подключений PrintSrv с БД — страховка для изменений автоматов
+     * в обход outbox (Spring Data REST, миграции).
+     */
+    private long fullReconcileIntervalMs = 300_000;
+    /**
+     * Публиковать при старте {@code UNIT_UPSERT} для всех активных автоматов.
+     */
+    private boolean snapshotOnStartup = true;
+    private LogProperties log = new LogProperties();
+
+    public void setPublisher(String publisher) {
+        if (!PUBLISHERS.contains(publisher)) {
+            throw new IllegalArgumentException(
+                    "Unknown unit-config.publisher='%s'. Available: %s".formatted(publisher, PUBLISHERS));
+        }
+        this.publisher = publisher;
+    }
+
+    // ─── Nested: log ─────────────────────────────────────────────────────────
+
+    @Setter
+    @Getter
+    public static class LogProperties {
+        private String directory = "unit-config-log";
+        /**
+         * Число партиций; изменения одного автомата всегда попадают в одну партицию.
+         * Фиксируется при создании журнала.
+         */
+        private int partitions = 1;
+
+    }
+}
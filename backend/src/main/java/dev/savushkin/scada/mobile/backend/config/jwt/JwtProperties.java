@@ -17,6 +17,7 @@ public class JwtProperties {
     private String refreshSecret = "";
     private long accessExpirationMinutes = 15;
     private long refreshExpirationDays = 7;
+    private int verifiedCacheMaxEntries = 10000;
 
     public String getAccessSecret() { return accessSecret; }
     public void setAccessSecret(String accessSecret) { this.accessSecret = accessSecret; }
@@ -29,4 +30,7 @@ public class JwtProperties {
 
     public long getRefreshExpirationDays() { return refreshExpirationDays; }
     public void setRefreshExpirationDays(long refreshExpirationDays) { this.refreshExpirationDays = refreshExpirationDays; }
+
+    public int getVerifiedCacheMaxEntries() { return verifiedCacheMaxEntries; }
+    public void setVerifiedCacheMaxEntries(int verifiedCacheMaxEntries) { this.verifiedCacheMaxEntries = verifiedCacheMaxEntries; }
 }
@@ -3,6 +3,7 @@ package dev.savushkin.scada.mobile.backend.config.jwt;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
@@ -31,6 +32,14 @@ import java.util.UUID;
  * Этот класс отвечает за <strong>создание</strong> токенов, а также за
  * валидацию WebSocket handshake токенов (где Spring Security filter chain
  * не применяется).
+ * <p>
+ * HMAC-ключ и {@link JwtParser} строятся один раз в конструкторе и переиспользуются
+ * (оба потокобезопасны). Секрет читается только при старте, как и в
+ * {@link dev.savushkin.scada.mobile.backend.config.SecurityConfig#jwtDecoder}: смена секрета
+ * требует перезапуска, иначе подпись и проверка разошлись бы.
+ * <p>
+ * Повторные handshake с тем же токеном (переподключения) обслуживаются из
+ * {@link VerifiedTokenCache} без проверки подписи.
  */
 @Component
 public class JwtTokenProvider {
@@ -38,9 +47,22 @@ public class JwtTokenProvider {
     private static final Logger log = LoggerFactory.getLogger(JwtTokenProvider.class);
 
     private final JwtProperties jwtProperties;
+    private final SecretKey accessKey;
+    private final JwtParser accessParser;
+    private final VerifiedTokenCache verifiedTokens;
 
     public JwtTokenProvider(JwtProperties jwtProperties) {
         this.jwtProperties = jwtProperties;
+        String secret = jwtProperties.getAccessSecret();
+        if (secret == null || secret.isBlank()) {
+            throw new IllegalStateException(
+                    "JWT access secret is not configured. " +
+                    "Set JWT_ACCESS_SECRET environment variable."
+            );
+        }
+        this.accessKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        this.accessParser = Jwts.parser().verifyWith(accessKey).build();
+        this.verifiedTokens = new VerifiedTokenCache(jwtProperties.getVerifiedCacheMaxEntries());
     }
 
     // ── Access Token ──────────────────────────────────────────────────────
@@ -73,7 +95,7 @@ public class JwtTokenProvider {
             builder = builder.claim("temporary_password", true);
         }
 
-        return builder.signWith(getAccessKey(), SignatureAlgorithm.HS256).compact();
+        return builder.signWith(accessKey, SignatureAlgorithm.HS256).compact();
     }
 
     /**
@@ -103,12 +125,15 @@ public class JwtTokenProvider {
      * @return claims или null если токен невалиден/истёк
      */
     public @Nullable Claims validateAccessTokenClaims(@NonNull String token) {
+        Instant now = Instant.now();
+        Claims cached = verifiedTokens.get(token, now);
+        if (cached != null) {
+            return cached;
+        }
         try {
-            return Jwts.parser()
-                    .verifyWith(getAccessKey())
-                    .build()
-                    .parseSignedClaims(token)
-                    .getPayload();
+            Claims claims = accessParser.parseSignedClaims(token).getPayload();
+            verifiedTokens.put(token, claims, now);
+            return claims;
         } catch (ExpiredJwtException e) {
             log.debug("Access token expired");
             return null;
@@ -152,15 +177,4 @@ public class JwtTokenProvider {
             return null;
         }
     }
-
-    private SecretKey getAccessKey() {
-        String secret = jwtProperties.getAccessSecret();
-        if (secret == null || secret.isBlank()) {
-            throw new IllegalStateException(
-                    "JWT access secret is not configured. " +
-                    "Set JWT_ACCESS_SECRET environment variable."
-            );
-        }
-        return Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
-    }
 }
@@ -0,0 +1,93 @@
+package dev.savushkin.scada.mobile.backend.config.jwt;
+
+import io.jsonwebtoken.Claims;
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Ограниченный кэш уже проверенных access-токенов: повторное предъявление того же
+ * токена (переподключения WebSocket) не требует повторной проверки подписи и разбора JSON.
+ * <p>
+ * Ключ — токен целиком, а не только {@code jti}: {@code jti} читается из незащищённой
+ * части токена, и поиск по нему позволил бы подставить чужие claims с известным
+ * {@code jti}. Запись живёт до {@code exp} токена; истёкшая запись на чтении
+ * считается промахом и удаляется.
+ * <p>
+ * Кэш — LRU на {@link LinkedHashMap} в порядке доступа: при достижении {@code maxEntries}
+ * вытесняется самая давно использованная запись, за O(1) и без обхода кэша. Истёкшие
+ * записи, которые больше не предъявляют, уходят тем же вытеснением. Все операции — под
+ * {@link ReentrantLock} (не монитор: handshake обслуживают virtual threads).
+ */
+final class VerifiedTokenCache {
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<String, Entry> entries;
+    private final int maxEntries;
+
+    VerifiedTokenCache(int maxEntries) {
+        this.maxEntries = maxEntries;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Claims ранее проверенного токена, если он ещё не истёк; иначе {@code null}.
+     */
+    @Nullable Claims get(@NonNull String token, @NonNull Instant now) {
+        if (maxEntries <= 0) {
+            return null;
+        }
+        lock.lock();
+        try {
+            Entry entry = entries.get(token);
+            if (entry == null) {
+                return null;
+            }
+            if (!entry.expiresAt().isAfter(now)) {
+                entries.remove(token);
+                return null;
+            }
+            return entry.claims();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Запоминает проверенный токен. Токены без {@code exp} и уже истёкшие не кэшируются.
+     */
+    void put(@NonNull String token, @NonNull Claims claims, @NonNull Instant now) {
+        Date expiration = claims.getExpiration();
+        if (expiration == null || maxEntries <= 0 || !expiration.toInstant().isAfter(now)) {
+            return;
+        }
+        lock.lock();
+        try {
+            entries.put(token, new Entry(claims, expiration.toInstant()));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int size() {
+        lock.lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private record Entry(Claims claims, Instant expiresAt) {
+    }
+}
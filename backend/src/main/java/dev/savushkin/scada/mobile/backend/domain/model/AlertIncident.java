@@ -0,0 +1,40 @@
+package dev.savushkin.scada.mobile.backend.domain.model;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Завершённый инцидент аппарата — запись журнала алёртов.
+ *
+ * <p>Создаётся в момент устранения алёрта, когда известны и начало, и конец простоя.
+ * Все метки времени — UTC.
+ *
+ * @param id          идентификатор записи ({@code null} до сохранения)
+ * @param instanceId  printsrv_instance_id аппарата
+ * @param workshopId  идентификатор цеха
+ * @param unitName    отображаемое название аппарата на момент инцидента
+ * @param severity    уровень критичности ({@code Critical} / {@code Warning})
+ * @param errors      текстовое описание ошибок ({@code "DEVICE: message"}, по строке на ошибку)
+ * @param startedAt   момент первого обнаружения алёрта
+ * @param resolvedAt  момент устранения
+ */
+public record AlertIncident(
+        @Nullable Long id,
+        @NonNull String instanceId,
+        long workshopId,
+        @Nullable String unitName,
+        @NonNull String severity,
+        @Nullable String errors,
+        @NonNull LocalDateTime startedAt,
+        @NonNull LocalDateTime resolvedAt
+) {
+    /**
+     * Длительность инцидента.
+     */
+    public @NonNull Duration duration() {
+        return Duration.between(startedAt, resolvedAt);
+    }
+}
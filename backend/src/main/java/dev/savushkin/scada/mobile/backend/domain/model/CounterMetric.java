@@ -0,0 +1,45 @@
+package dev.savushkin.scada.mobile.backend.domain.model;
+
+import org.jspecify.annotations.NonNull;
+
+/**
+ * Счётчики устройств, для которых записываются временные ряды.
+ * <p>
+ * {@link #scadaKey()} — ключ свойства в снимке PrintSrv, {@link #devicePrefix()} —
+ * префикс имени устройства, на котором свойство имеет смысл счётчика
+ * (у {@code Line} и {@code BatchQueue} тоже есть {@code CurItem}, но это не прогресс печати).
+ */
+public enum CounterMetric {
+
+    /** Всего обработано кодов камерой. */
+    CAMERA_TOTAL("Total", "Cam"),
+
+    /** Отбраковано камерой. */
+    CAMERA_FAILED("Failed", "Cam"),
+
+    /** Текущий номер кода в задании принтера. */
+    PRINTER_CUR_ITEM("CurItem", "Printer");
+
+    private final String scadaKey;
+    private final String devicePrefix;
+
+    CounterMetric(String scadaKey, String devicePrefix) {
+        this.scadaKey = scadaKey;
+        this.devicePrefix = devicePrefix;
+    }
+
+    public @NonNull String scadaKey() {
+        return scadaKey;
+    }
+
+    public @NonNull String devicePrefix() {
+        return devicePrefix;
+    }
+
+    /**
+     * Применима ли метрика к устройству с указанным именем.
+     */
+    public boolean appliesTo(@NonNull String deviceName) {
+        return deviceName.startsWith(devicePrefix);
+    }
+}
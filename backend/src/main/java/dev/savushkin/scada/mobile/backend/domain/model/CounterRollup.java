@@ -0,0 +1,76 @@
+package dev.savushkin.scada.mobile.backend.domain.model;
+
+import org.jspecify.annotations.NonNull;
+
+import java.time.LocalDateTime;
+
+/**
+ * Агрегат временного ряда счётчика за один бакет.
+ * <p>
+ * Агрегат «сливаемый»: два частичных агрегата одного бакета объединяются через
+ * {@link #merge} без потери точности (first/last по времени, min/max, сумма числа точек).
+ * Тем же правилом пользуется upsert в БД, поэтому бакет может дописываться
+ * несколькими пачками.
+ *
+ * @param series      ряд
+ * @param resolution  разрешение
+ * @param bucketStart начало бакета (UTC)
+ * @param firstAt     момент первой точки в бакете
+ * @param firstValue  значение первой точки
+ * @param lastAt      момент последней точки в бакете
+ * @param lastValue   значение последней точки
+ * @param minValue    минимум
+ * @param maxValue    максимум
+ * @param samples     число сырых точек
+ */
+public record CounterRollup(
+        CounterSeries series,
+        RollupResolution resolution,
+        LocalDateTime bucketStart,
+        LocalDateTime firstAt,
+        double firstValue,
+        LocalDateTime lastAt,
+        double lastValue,
+        double minValue,
+        double maxValue,
+        int samples
+) {
+
+    /**
+     * Агрегат из одной сырой точки.
+     */
+    public static @NonNull CounterRollup of(@NonNull CounterSample sample, @NonNull RollupResolution resolution) {
+        return new CounterRollup(
+                sample.series(),
+                resolution,
+                resolution.bucketStart(sample.sampledAt()),
+                sample.sampledAt(),
+                sample.value(),
+                sample.sampledAt(),
+                sample.value(),
+                sample.value(),
+                sample.value(),
+                1
+        );
+    }
+
+    /**
+     * Объединяет два частичных агрегата одного бакета.
+     */
+    public @NonNull CounterRollup merge(@NonNull CounterRollup other) {
+        boolean otherFirst = other.firstAt.isBefore(firstAt);
+        boolean otherLast = !other.lastAt.isBefore(lastAt);
+        return new CounterRollup(
+                series,
+                resolution,
+                bucketStart,
+                otherFirst ? other.firstAt : firstAt,
+                otherFirst ? other.firstValue : firstValue,
+                otherLast ? other.lastAt : lastAt,
+                otherLast ? other.lastValue : lastValue,
+                Math.min(minValue, other.minValue),
+                Math.max(maxValue, other.maxValue),
+                samples + other.samples
+        );
+    }
+}
@@ -0,0 +1,13 @@
+package dev.savushkin.scada.mobile.backend.domain.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Сырая точка временного ряда счётчика — значение на момент изменения.
+ *
+ * @param series    ряд
+ * @param sampledAt момент наблюдения (UTC)
+ * @param value     значение счётчика
+ */
+public record CounterSample(CounterSeries series, LocalDateTime sampledAt, double value) {
+}
@@ -0,0 +1,11 @@
+package dev.savushkin.scada.mobile.backend.domain.model;
+
+/**
+ * Идентификатор временного ряда счётчика: аппарат + устройство + метрика.
+ *
+ * @param instanceId printsrv_instance_id аппарата
+ * @param device     имя устройства PrintSrv ({@code CamAgregation}, {@code Printer11}, …)
+ * @param metric     метрика
+ */
+public record CounterSeries(String instanceId, String device, CounterMetric metric) {
+}
@@ -21,6 +21,17 @@ package dev.savushkin.scada.mobile.backend.domain.model;
  *                     (例 {@code "Dev041Dublicate"}).
  * @param description  Человекочитаемое описание ошибки
  *                     (例 {@code "Одинаковые коды маркировки"}).
+ * @param deviceType   Код типа устройства-источника ({@code device_types.code}):
+ *                     {@code printer}, {@code aggregation_cam}, {@code aggregation_box_cam},
+ *                     {@code checker_cam}. Используется индексами {@code UnitErrorStore}.
+ * @param kind         Вид ошибки — суффикс ключа scada
+ *                     (例 {@code "Connection"}, {@code "Fail"}, {@code "Dublicate"}).
  */
-public record DeviceError(String objectName, String propertyDesc, String description) {
+public record DeviceError(
+        String objectName,
+        String propertyDesc,
+        String description,
+        String deviceType,
+        String kind
+) {
 }
@@ -1,5 +1,6 @@
 package dev.savushkin.scada.mobile.backend.domain.model;
 
+import java.time.Instant;
 import java.util.Map;
 
 /**
@@ -19,14 +20,18 @@ import java.util.Map;
  *   <li>Карта модулей не может быть null (но может быть пуста для устройств без модулей)</li>
  * </ul>
  * <p>
+ * {@code receivedAt} — момент получения ответа устройства поллером; от него
+ * считается возраст данных, отдаваемых клиентам. {@code null} — момент неизвестен.
+ * <p>
  * Этот класс неизменяем и потокобезопасен.
  */
-public record DeviceSnapshot(String deviceName, Map<String, UnitSnapshot> units) {
+public record DeviceSnapshot(String deviceName, Map<String, UnitSnapshot> units, Instant receivedAt) {
     /**
      * Создаёт новый снимок состояния устройства.
      *
      * @param deviceName имя устройства (не должно быть null или пусто)
      * @param units      карта снимков модулей по ключу модуля (например, "u1", "u2")
+     * @param receivedAt момент получения ответа устройства, или {@code null}
      * @throws IllegalArgumentException если нарушены инварианты
      */
     public DeviceSnapshot {
@@ -41,6 +46,24 @@ public record DeviceSnapshot(String deviceName, Map<String, UnitSnapshot> units)
         units = Map.copyOf(units);
     }
 
+    /**
+     * Создаёт снимок без момента получения.
+     */
+    public DeviceSnapshot(String deviceName, Map<String, UnitSnapshot> units) {
+        this(deviceName, units, null);
+    }
+
+    /**
+     * Возвращает копию снимка с указанным моментом получения ответа.
+     * Карта модулей не копируется повторно — она уже неизменяема.
+     *
+     * @param receivedAt момент получения ответа устройства
+     * @return снимок с проставленным {@code receivedAt}
+     */
+    public DeviceSnapshot withReceivedAt(Instant receivedAt) {
+        return new DeviceSnapshot(deviceName, units, receivedAt);
+    }
+
     /**
      * Возвращает количество модулей в этом снимке.
      *
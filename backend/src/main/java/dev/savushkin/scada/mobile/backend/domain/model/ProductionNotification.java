@@ -17,7 +17,7 @@ import java.time.Instant;
  *       с {@code active = true}, {@code deactivatedAt = null}.</li>
  *   <li><b>Активно:</b> уведомление рассылается всем подписанным через WebSocket.</li>
  *   <li><b>Деактивация:</b> создатель повторно нажимает FAB → {@code active = false},
- *       {@code deactivatedAt} заполняется. Уведомление исчезает у всех.</li>
+ *       {@code deactivatedAt} и {@code resolverId} заполняются. Уведомление исчезает у всех.</li>
  * </ol>
  *
  * <h3>Immutable</h3>
@@ -29,13 +29,16 @@ import java.time.Instant;
  * @param active          {@code true} — уведомление активно; {@code false} — деактивировано.
  * @param activatedAt     Время активации (ISO-8601 / {@link Instant}).
  * @param deactivatedAt   Время деактивации ({@code null} пока активно).
+ * @param resolverId      Идентификатор работника, снявшего уведомление ({@code null} пока активно
+ *                        или если уведомление снято системой).
  */
 public record ProductionNotification(
         String unitId,
         String creatorId,
         boolean active,
         Instant activatedAt,
-        Instant deactivatedAt
+        Instant deactivatedAt,
+        String resolverId
 ) {
     /**
      * Создаёт новое активное уведомление.
@@ -45,15 +48,25 @@ public record ProductionNotification(
      * @return Новое активное уведомление с текущим временем активации.
      */
     public static ProductionNotification activate(String unitId, String creatorId) {
-        return new ProductionNotification(unitId, creatorId, true, Instant.now(), null);
+        return new ProductionNotification(unitId, creatorId, true, Instant.now(), null, null);
     }
 
     /**
-     * Деактивирует текущее уведомление — создаёт копию с {@code active = false}.
+     * Деактивирует текущее уведомление от имени создателя.
      *
      * @return Деактивированная копия с заполненным {@code deactivatedAt}.
      */
     public ProductionNotification deactivate() {
-        return new ProductionNotification(unitId, creatorId, false, activatedAt, Instant.now());
+        return deactivate(creatorId);
+    }
+
+    /**
+     * Деактивирует текущее уведомление — создаёт копию с {@code active = false}.
+     *
+     * @param resolverId Идентификатор работника, снявшего уведомление ({@code null} — система).
+     * @return Деактивированная копия с заполненными {@code deactivatedAt} и {@code resolverId}.
+     */
+    public ProductionNotification deactivate(String resolverId) {
+        return new ProductionNotification(unitId, creatorId, false, activatedAt, Instant.now(), resolverId);
     }
 }
@@ -0,0 +1,67 @@
+package dev.savushkin.scada.mobile.backend.domain.model;
+
+import org.jspecify.annotations.NonNull;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Разрешения агрегатов (роллапов) временных рядов счётчиков.
+ * <p>
+ * Значения упорядочены от мелкого к крупному — на этом основан автоматический
+ * выбор разрешения в {@code CounterTimeSeriesService}.
+ */
+public enum RollupResolution {
+
+    MINUTE("1m", 60),
+    QUARTER_HOUR("15m", 900),
+    HOUR("1h", 3600);
+
+    private final String code;
+    private final int seconds;
+
+    RollupResolution(String code, int seconds) {
+        this.code = code;
+        this.seconds = seconds;
+    }
+
+    /**
+     * Короткий код для API: {@code 1m}, {@code 15m}, {@code 1h}.
+     */
+    public @NonNull String code() {
+        return code;
+    }
+
+    /**
+     * Длина бакета в секундах (хранится в {@code counter_rollups.resolution_seconds}).
+     */
+    public int seconds() {
+        return seconds;
+    }
+
+    public @NonNull Duration duration() {
+        return Duration.ofSeconds(seconds);
+    }
+
+    /**
+     * Начало бакета, в который попадает момент времени.
+     */
+    public @NonNull LocalDateTime bucketStart(@NonNull LocalDateTime at) {
+        LocalDateTime day = at.truncatedTo(ChronoUnit.DAYS);
+        long offset = Duration.between(day, at).getSeconds();
+        return day.plusSeconds(offset - offset % seconds);
+    }
+
+    /**
+     * @throws IllegalArgumentException если код неизвестен
+     */
+    public static @NonNull RollupResolution fromCode(@NonNull String code) {
+        for (RollupResolution resolution : values()) {
+            if (resolution.code.equals(code)) {
+                return resolution;
+            }
+        }
+        throw new IllegalArgumentException("Unknown resolution: '" + code + "' (expected 1m, 15m or 1h)");
+    }
+}
@@ -0,0 +1,55 @@
+package dev.savushkin.scada.mobile.backend.domain.model;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+import java.time.Instant;
+
+/**
+ * Изменение конфигурации автомата для внешних потребителей (Gateway):
+ * {@code UNIT_UPSERT} или {@code UNIT_DELETE} по {@code instanceId}.
+ *
+ * <p>Несёт полное состояние автомата на момент изменения, поэтому из нескольких
+ * изменений одного {@code instanceId} достаточно опубликовать последнее.
+ *
+ * @param type        вид изменения
+ * @param instanceId  printsrv_instance_id автомата — ключ изменения
+ * @param host        TCP-хост PrintSrv ({@code null} для DELETE)
+ * @param port        TCP-порт PrintSrv ({@code null} для DELETE)
+ * @param displayName отображаемое название (units.name; {@code null} для DELETE)
+ * @param workshopId  идентификатор цеха ({@code null} для DELETE)
+ * @param active      автомат активен и должен опрашиваться
+ * @param occurredAt  момент изменения (UTC)
+ */
+public record UnitConfigChange(
+        @NonNull Type type,
+        @NonNull String instanceId,
+        @Nullable String host,
+        @Nullable Integer port,
+        @Nullable String displayName,
+        @Nullable Long workshopId,
+        boolean active,
+        @NonNull Instant occurredAt
+) {
+
+    public enum Type {
+        UPSERT,
+        DELETE
+    }
+
+    public static @NonNull UnitConfigChange upsert(
+            @NonNull String instanceId,
+            @Nullable String host,
+            @Nullable Integer port,
+            @Nullable String displayName,
+            @Nullable Long workshopId,
+            boolean active,
+            @NonNull Instant occurredAt
+    ) {
+        return new UnitConfigChange(Type.UPSERT, instanceId, host, port, displayName, workshopId, active, occurredAt);
+    }
+
+    public static @NonNull UnitConfigChange delete(@NonNull String instanceId, @NonNull Instant occurredAt) {
+        return new UnitConfigChange(Type.DELETE, instanceId, null, null, null, null, false, occurredAt);
+    }
+}
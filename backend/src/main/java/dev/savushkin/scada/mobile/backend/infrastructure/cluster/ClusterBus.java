@@ -0,0 +1,53 @@
+package dev.savushkin.scada.mobile.backend.infrastructure.cluster;
+
+import dev.savushkin.scada.mobile.backend.infrastructure.ingestion.IngestionRuntime;
+import org.jspecify.annotations.NonNull;
+
+import java.util.List;
+
+/**
+ * Шина событий кластера WS-слоя.
+ * <p>
+ * Реализация выбирается {@code cluster.bus}; события одного отправителя доставляются
+ * в порядке публикации. Шина может доставлять события и самому отправителю — получатель
+ * отбрасывает свои события по {@link ClusterEvent#origin()}. Доставка at-most-once: потерю событий
+ * (переподключение) шина сообщает {@link Listener#onGap()}, после чего WS-узел
+ * заново запрашивает полное состояние.
+ */
+public interface ClusterBus {
+
+    /**
+     * Фаза lifecycle шины: раньше {@link IngestionRuntime}, чтобы лидер публиковал
+     * изменения уже во время начальной загрузки.
+     */
+    int PHASE = IngestionRuntime.PHASE - 1024;
+
+    /**
+     * Имя шины — значение {@code cluster.bus}.
+     */
+    @NonNull String name();
+
+    /**
+     * Публикует события без ожидания доставки.
+     */
+    void publish(@NonNull List<ClusterEvent> events);
+
+    /**
+     * Регистрирует получателя событий; вызывается до старта шины.
+     */
+    void subscribe(@NonNull Listener listener);
+
+    interface Listener {
+
+        /**
+         * События в порядке публикации; вызывается из потока шины.
+         */
+        void onEvents(@NonNull List<ClusterEvent> events);
+
+        /**
+         * Часть событий могла быть потеряна.
+         */
+        default void onGap() {
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package dev.savushkin.scada.mobile.backend.infrastructure.cluster;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Событие шины кластера.
+ * <p>
+ * Большинство событий несут готовый JSON WS-сообщения ({@code body}): узел-получатель
+ * не сериализует его повторно, а рассылает своим сессиям как есть и при необходимости
+ * применяет к реплике хранилища.
+ *
+ * <table>
+ *   <tr><th>kind</th><th>key</th><th>body</th></tr>
+ *   <tr><td>{@code UNITS_STATUS}</td><td>workshopId</td><td>{@code UNITS_STATUS} изменившихся аппаратов цеха</td></tr>
+ *   <tr><td>{@code UNIT_FRAME}</td><td>instanceId</td><td>{@code LINE_STATUS} / {@code DEVICES_STATUS} / {@code QUEUE} / {@code ERRORS}</td></tr>
+ *   <tr><td>{@code ALERT}</td><td>instanceId</td><td>{@code ALERT} (active / resolved)</td></tr>
+ *   <tr><td>{@code ALERT_SNAPSHOT}</td><td>—</td><td>все активные алёрты (полное состояние)</td></tr>
+ *   <tr><td>{@code NOTIFICATION}</td><td>instanceId</td><td>{@code NOTIFICATION} (active / inactive)</td></tr>
+ *   <tr><td>{@code NOTIFICATION_SNAPSHOT}</td><td>—</td><td>все активные уведомления (полное состояние)</td></tr>
+ *   <tr><td>{@code TO_ALL} / {@code TO_ADMINS}</td><td>—</td><td>сообщение всем / администраторам</td></tr>
+ *   <tr><td>{@code TO_USER}</td><td>userId</td><td>персональное сообщение</td></tr>
+ *   <tr><td>{@code ASSIGNMENTS_CHANGED}</td><td>userId или {@code null} — изменён аппарат</td><td>—; сбросить индекс закреплений</td></tr>
+ *   <tr><td>{@code TOPOLOGY_CHANGED}</td><td>—</td><td>—; опубликован outbox конфигурации аппаратов — сверить подключения PrintSrv</td></tr>
+ *   <tr><td>{@code ESCALATION_ACK}</td><td>{@code source:unitId}</td><td>—; клиент подтвердил алёрт / уведомление</td></tr>
+ *   <tr><td>{@code SYNC_REQUEST}</td><td>—</td><td>WS-узел запрашивает полное состояние</td></tr>
+ *   <tr><td>{@code SYNC_DONE}</td><td>nodeId или {@code null} — всем</td><td>полное состояние отправлено</td></tr>
+ * </table>
+ *
+ * @param origin      узел-отправитель; свои события узел игнорирует
+ * @param kind        вид события
+ * @param key         ключ события (см. таблицу) или {@code null}
+ * @param type        тип WS-сообщения в {@code body} — тег метрик рассылки, или {@code null}
+ * @param body        JSON WS-сообщения или {@code null}
+ * @param publishedAt момент публикации, epoch millis — для метрики задержки шины
+ */
+public record ClusterEvent(
+        String origin,
+        Kind kind,
+        @Nullable String key,
+        @Nullable String type,
+        @Nullable String body,
+        long publishedAt
+) {
+
+    public enum Kind {
+        UNITS_STATUS,
+        UNIT_FRAME,
+        ALERT,
+        ALERT_SNAPSHOT,
+        NOTIFICATION,
+        NOTIFICATION_SNAPSHOT,
+        TO_ALL,
+        TO_ADMINS,
+        TO_USER,
+        ASSIGNMENTS_CHANGED,
+        TOPOLOGY_CHANGED,
+        ESCALATION_ACK,
+        SYNC_REQUEST,
+        SYNC_DONE
+    }
+
+    public static @NonNull ClusterEvent of(String origin, Kind kind, @Nullable String key,
+                                           @Nullable String type, @Nullable String body) {
+        return new ClusterEvent(origin, kind, key, type, body, System.currentTimeMillis());
+    }
+}
@@ -0,0 +1,119 @@
+package dev.savushkin.scada.mobile.backend.infrastructure.cluster;
+
+import dev.savushkin.scada.mobile.backend.config.ClusterProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Роль и идентификатор текущего узла кластера ({@code cluster.role}, {@code cluster.node-id})
+ * и режим координации опроса ({@code cluster.polling.mode}).
+ * <p>
+ * Для узла, раздающего снимки из реплики, дополнительно хранит признак её синхронизации:
+ * {@code /health/ready} WS-узла не сообщает о готовности, пока тот не получил полное состояние.
+ *
+ * <p>Неизвестные значения {@code cluster.role} и {@code cluster.polling.mode}, а также
+ * координация опроса вне роли {@code leader} — ошибка старта приложения.
+ */
+@Component
+public class ClusterNode {
+
+    private static final Logger log = LoggerFactory.getLogger(ClusterNode.class);
+
+    private static final List<String> ROLES = List.of(
+            ClusterProperties.ROLE_STANDALONE, ClusterProperties.ROLE_LEADER, ClusterProperties.ROLE_WS);
+    private static final List<String> POLLING_MODES = List.of(
+            ClusterProperties.POLLING_NONE, ClusterProperties.POLLING_LEADER, ClusterProperties.POLLING_SHARDED);
+
+    private final String role;
+    private final String nodeId;
+    private final String pollingMode;
+
+    private volatile boolean replicaSynced;
+
+    public ClusterNode(ClusterProperties properties) {
+        if (!ROLES.contains(properties.getRole())) {
+            throw new IllegalStateException("Unknown cluster.role='%s'. Available: %s"
+                    .formatted(properties.getRole(), ROLES));
+        }
+        String mode = properties.getPolling().getMode();
+        if (!POLLING_MODES.contains(mode)) {
+            throw new IllegalStateException("Unknown cluster.polling.mode='%s'. Available: %s"
+                    .formatted(mode, POLLING_MODES));
+        }
+        if (!ClusterProperties.POLLING_NONE.equals(mode) && !ClusterProperties.ROLE_LEADER.equals(properties.getRole())) {
+            throw new IllegalStateException("cluster.polling.mode='%s' requires cluster.role=leader, got '%s'"
+                    .formatted(mode, properties.getRole()));
+        }
+        this.role = properties.getRole();
+        this.pollingMode = mode;
+        this.nodeId = properties.getNodeId() == null || properties.getNodeId().isBlank()
+                ? role + "-" + UUID.randomUUID().toString().substring(0, 8)
+                : properties.getNodeId();
+        if (isClustered()) {
+            log.info("Cluster node '{}': role='{}', bus='{}', polling='{}'",
+                    nodeId, role, properties.getBus(), pollingMode);
+        }
+    }
+
+    public String role() {
+        return role;
+    }
+
+    public String nodeId() {
+        return nodeId;
+    }
+
+    /**
+     * Узел участвует в кластере (роль {@code leader} или {@code ws}) и обменивается событиями через шину.
+     */
+    public boolean isClustered() {
+        return !ClusterProperties.ROLE_STANDALONE.equals(role);
+    }
+
+    public boolean isLeader() {
+        return ClusterProperties.ROLE_LEADER.equals(role);
+    }
+
+    /**
+     * WS-узел: приём данных выключен, состояние — реплика из шины.
+     */
+    public boolean isWs() {
+        return ClusterProperties.ROLE_WS.equals(role);
+    }
+
+    public String pollingMode() {
+        return pollingMode;
+    }
+
+    /**
+     * Опрос координируется арендами между несколькими узлами {@code leader}.
+     */
+    public boolean isPollingCoordinated() {
+        return !ClusterProperties.POLLING_NONE.equals(pollingMode);
+    }
+
+    /**
+     * Начальные сообщения новым подписчикам берутся из {@link ClusterReplica}, а не из
+     * локальных снимков: у WS-узла их нет, а узел {@code leader} при координации опроса
+     * держит снимки только своих инстансов.
+     */
+    public boolean servesFromReplica() {
+        return isWs() || isPollingCoordinated();
+    }
+
+    /**
+     * Получено ли полное состояние от лидера; если узел не раздаёт снимки из реплики —
+     * всегда {@code true}.
+     */
+    public boolean isReplicaSynced() {
+        return !servesFromReplica() || replicaSynced;
+    }
+
+    void setReplicaSynced(boolean synced) {
+        this.replicaSynced = synced;
+    }
+}
@@ -0,0 +1,74 @@
+package dev.savushkin.scada.mobile.backend.infrastructure.cluster;
+
+import dev.savushkin.scada.mobile.backend.config.ClusterProperties;
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Публикация событий в шину кластера, выбранную {@code cluster.bus}.
+ * <p>
+ * Вызывается слоем рассылки ({@code StatusBroadcaster}, {@code AdminDataChangeBroadcaster})
+ * рядом с локальной рассылкой своим сессиям; вне кластера ({@code cluster.role=standalone})
+ * — no-op, и рассылка не собирает сообщения, которые некому отправить.
+ *
+ * <p>Неизвестное значение {@code cluster.bus} у кластерного узла — ошибка старта приложения.
+ */
+@Component
+public class ClusterPublisher {
+
+    private final ClusterNode node;
+    private final ClusterBus bus;
+
+    public ClusterPublisher(ClusterNode node, List<ClusterBus> buses, ClusterProperties properties) {
+        this.node = node;
+        ClusterBus selected = buses.stream()
+                .filter(candidate -> candidate.name().equals(properties.getBus()))
+                .findFirst()
+                .orElse(null);
+        if (selected == null && node.isClustered()) {
+            throw new IllegalStateException("Unknown cluster.bus='%s'. Available: %s".formatted(properties.getBus(),
+                    buses.stream().map(ClusterBus::name).toList()));
+        }
+        this.bus = selected;
+    }
+
+    /**
+     * Узел публикует события: роль {@code leader} или {@code ws}.
+     */
+    public boolean isActive() {
+        return node.isClustered();
+    }
+
+    /**
+     * Публикует одно событие; вне кластера — no-op.
+     *
+     * @see ClusterEvent
+     */
+    public void publish(ClusterEvent.@NonNull Kind kind, @Nullable String key,
+                        @Nullable String type, @Nullable String body) {
+        if (!isActive()) {
+            return;
+        }
+        bus.publish(List.of(ClusterEvent.of(node.nodeId(), kind, key, type, body)));
+    }
+
+    /**
+     * Публикует пачку событий одним вызовом шины; вне кластера — no-op.
+     */
+    public void publish(@NonNull List<ClusterEvent> events) {
+        if (!isActive() || events.isEmpty()) {
+            return;
+        }
+        bus.publish(events);
+    }
+
+    /**
+     * Выбранная шина; {@code null} вне кластера.
+     */
+    @Nullable ClusterBus bus() {
+        return bus;
+    }
+}
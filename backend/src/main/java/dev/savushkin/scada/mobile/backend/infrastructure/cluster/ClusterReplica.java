@@ -0,0 +1,68 @@
+package dev.savushkin.scada.mobile.backend.infrastructure.cluster;
+
+import dev.savushkin.scada.mobile.backend.api.dto.UnitStatusDTO;
+import org.jspecify.annotations.NonNull;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Реплика live-состояния аппаратов на WS-узле кластера.
+ * <p>
+ * У WS-узла нет снимков PrintSrv: начальные сообщения новым подписчикам берутся отсюда —
+ * последние статусы аппаратов цеха ({@code UNITS_STATUS} при {@code SUBSCRIBE_WORKSHOP})
+ * и последние готовые JSON-сообщения канала {@code /ws/unit/*} по типам.
+ * Активные алёрты и уведомления реплицируются в свои хранилища
+ * ({@code ActiveAlertStore}, {@code ActiveNotificationStore}).
+ */
+@Component
+public class ClusterReplica {
+
+    /**
+     * workshopId → (unitId → последний статус)
+     */
+    private final Map<Long, Map<String, UnitStatusDTO>> statusesByWorkshop = new ConcurrentHashMap<>();
+
+    /**
+     * instanceId → (тип сообщения → последний JSON)
+     */
+    private final Map<String, Map<String, String>> framesByUnit = new ConcurrentHashMap<>();
+
+    /**
+     * Обновляет статусы аппаратов цеха из сообщения {@code UNITS_STATUS}.
+     */
+    public void putUnitStatuses(long workshopId, @NonNull Collection<UnitStatusDTO> statuses) {
+        Map<String, UnitStatusDTO> units = statusesByWorkshop.computeIfAbsent(workshopId,
+                id -> new ConcurrentHashMap<>());
+        for (UnitStatusDTO status : statuses) {
+            units.put(status.unitId(), status);
+        }
+    }
+
+    /**
+     * Последние известные статусы аппаратов цеха.
+     */
+    public @NonNull List<UnitStatusDTO> getUnitStatuses(long workshopId) {
+        Map<String, UnitStatusDTO> units = statusesByWorkshop.get(workshopId);
+        return units == null ? List.of() : List.copyOf(units.values());
+    }
+
+    /**
+     * Запоминает последнее сообщение канала {@code /ws/unit/{instanceId}} данного типа.
+     */
+    public void putFrame(@NonNull String instanceId, @NonNull String type, @NonNull String json) {
+        framesByUnit.computeIfAbsent(instanceId, id -> new ConcurrentHashMap<>()).put(type, json);
+    }
+
+    /**
+     * Последние сообщения аппарата: тип → JSON; пусто, если аппарат ещё не приходил из шины.
+     */
+    public @NonNull Map<String, String> getFrames(@NonNull String instanceId) {
+        Map<String, String> frames = framesByUnit.get(instanceId);
+        return frames == null ? Map.of() : new LinkedHashMap<>(frames);
+    }
+}
@@ -0,0 +1,445 @@
+package dev.savushkin.scada.mobile.backend.infrastructure.cluster;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.savushkin.scada.mobile.backend.api.dto.AlertMessageDTO;
+import dev.savushkin.scada.mobile.backend.api.dto.AlertSnapshotMessageDTO;
+import dev.savushkin.scada.mobile.backend.api.dto.NotificationMessageDTO;
+import dev.savushkin.scada.mobile.backend.api.dto.NotificationSnapshotMessageDTO;
+import dev.savushkin.scada.mobile.backend.api.dto.UnitsStatusMessageDTO;
+import dev.savushkin.scada.mobile.backend.application.ports.NotificationRepository;
+import dev.savushkin.scada.mobile.backend.application.ports.PrintSrvTopologyRepository;
+import dev.savushkin.scada.mobile.backend.config.ClusterProperties;
+import dev.savushkin.scada.mobile.backend.domain.model.PrintSrvInstance;
+import dev.savushkin.scada.mobile.backend.infrastructure.escalation.EscalationEngine;
+import dev.savushkin.scada.mobile.backend.infrastructure.ingestion.IngestionRuntime;
+import dev.savushkin.scada.mobile.backend.infrastructure.integration.database.adapter.PrintSrvTopologyJpaAdapter;
+import dev.savushkin.scada.mobile.backend.infrastructure.polling.PrintSrvConnectionSynchronizer;
+import dev.savushkin.scada.mobile.backend.infrastructure.store.ActiveAlertStore;
+import dev.savushkin.scada.mobile.backend.infrastructure.store.ActiveNotificationStore;
+import dev.savushkin.scada.mobile.backend.infrastructure.store.UserAssignmentIndex;
+import dev.savushkin.scada.mobile.backend.infrastructure.ws.LiveWsHandler;
+import dev.savushkin.scada.mobile.backend.infrastructure.ws.SnapshotJsonCache;
+import dev.savushkin.scada.mobile.backend.infrastructure.ws.UnitWsHandler;
+import dev.savushkin.scada.mobile.backend.services.WorkshopService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Применяет события шины кластера на узле: рассылает их своим WS-сессиям
+ * и поддерживает реплики состояния.
+ *
+ * <h3>Обработка событий</h3>
+ * <ul>
+ *   <li>{@code UNITS_STATUS} / {@code UNIT_FRAME} — в {@link ClusterReplica} и подписчикам
+ *       цеха / аппарата;</li>
+ *   <li>{@code ALERT} / {@code NOTIFICATION} — в {@link ActiveAlertStore} /
+ *       {@link ActiveNotificationStore}; клиентам — только при непустой дельте реплики,
+ *       дельта передаётся и в {@link EscalationEngine}. {@code NOTIFICATION} дополнительно
+ *       перечитывает уведомление аппарата в кэш {@link NotificationRepository} — по нему
+ *       {@code NotificationService} решает toggle;</li>
+ *   <li>{@code *_SNAPSHOT} — на WS-узле полная замена содержимого хранилища, на узле приёма —
+ *       слияние: алёрты своих инстансов узел вычисляет сам и из снимка их не берёт, чужие алёрты,
+ *       которых нет в снимке, снимает ({@link ActiveAlertStore#mergeForeign}); уведомления,
+ *       которых нет ни в снимке, ни в БД, тоже снимаются. Дельты слияния — в {@link EscalationEngine};</li>
+ *   <li>{@code TO_ALL} / {@code TO_ADMINS} / {@code TO_USER} — адресатам на этом узле;
+ *       {@code TO_ALL} (изменения топологии) дополнительно сбрасывает ETag топологии;</li>
+ *   <li>{@code ASSIGNMENTS_CHANGED} — сбрасывает {@link UserAssignmentIndex}: назначения
+ *       изменены на другом узле;</li>
+ *   <li>{@code TOPOLOGY_CHANGED} — узел приёма сверяет подключения и опрос с БД
+ *       ({@link PrintSrvConnectionSynchronizer#reconcile()}): outbox конфигурации опубликован
+ *       на другом узле. Потеря событий шиной вызывает ту же сверку;</li>
+ *   <li>{@code ESCALATION_ACK} — снимает эскалацию в {@link EscalationEngine}: событие
+ *       подтверждено клиентом другого узла;</li>
+ *   <li>{@code SYNC_REQUEST} — первичный узел приёма ({@link PollingCoordinator#isPrimary()})
+ *       публикует полное состояние и {@code SYNC_DONE} запросившему;</li>
+ *   <li>{@code SYNC_DONE} — узел, раздающий снимки из реплики, считает её синхронизированной
+ *       и повторно отправляет клиентам снапшоты алёртов и уведомлений.</li>
+ * </ul>
+ *
+ * <h3>Синхронизация реплик</h3>
+ * На узле, раздающем снимки из реплики ({@link ClusterNode#servesFromReplica()}: WS-узел или
+ * узел приёма при поделённом опросе), worker в virtual thread запрашивает полное состояние ({@code SYNC_REQUEST}) каждые
+ * {@code cluster.sync-retry-ms}, пока не получит {@code SYNC_DONE}; потеря событий шиной
+ * ({@link ClusterBus.Listener#onGap()}) сбрасывает признак синхронизации и запускает запрос заново.
+ * Первичный узел приёма после начальной загрузки сам рассылает полное состояние всем узлам —
+ * это покрывает его рестарт; при поделённом опросе полное состояние собирается из реплики,
+ * в которой есть и свои, и чужие инстансы. Стартует фазой после {@link IngestionRuntime}.
+ *
+ * <h3>Метрики</h3>
+ * <ul>
+ *   <li>{@code cluster.bus.received{kind}} — принятые события чужих узлов;</li>
+ *   <li>{@code cluster.bus.latency} — от публикации до обработки на этом узле;</li>
+ *   <li>{@code cluster.bus.gaps} — сообщения шины о потере событий;</li>
+ *   <li>{@code cluster.sync} — полные синхронизации (role = leader — отправлено, ws — получено).</li>
+ * </ul>
+ */
+@Component
+public class ClusterReplicator implements ClusterBus.Listener, SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(ClusterReplicator.class);
+
+    private final ClusterNode node;
+    private final ClusterPublisher publisher;
+    private final ClusterReplica replica;
+    private final ClusterProperties properties;
+    private final LiveWsHandler liveWsHandler;
+    private final UnitWsHandler unitWsHandler;
+    private final ActiveAlertStore alertStore;
+    private final ActiveNotificationStore notificationStore;
+    private final NotificationRepository notificationRepository;
+    private final WorkshopService workshopService;
+    private final PrintSrvTopologyRepository topologyRepo;
+    private final PrintSrvTopologyJpaAdapter topologyAdapter;
+    private final PollingCoordinator pollingCoordinator;
+    private final UserAssignmentIndex assignmentIndex;
+    private final SnapshotJsonCache snapshotCache;
+    private final EscalationEngine escalationEngine;
+    private final PrintSrvConnectionSynchronizer connectionSynchronizer;
+    private final ObjectMapper objectMapper;
+    private final Semaphore syncSignal = new Semaphore(0);
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    private final Map<ClusterEvent.Kind, Counter> received = new EnumMap<>(ClusterEvent.Kind.class);
+    private final Timer latency;
+    private final Counter gaps;
+    private final Counter syncs;
+
+    private volatile Thread worker;
+
+    public ClusterReplicator(
+            ClusterNode node,
+            ClusterPublisher publisher,
+            ClusterReplica replica,
+            ClusterProperties properties,
+            LiveWsHandler liveWsHandler,
+            UnitWsHandler unitWsHandler,
+            ActiveAlertStore alertStore,
+            ActiveNotificationStore notificationStore,
+            NotificationRepository notificationRepository,
+            WorkshopService workshopService,
+            PrintSrvTopologyRepository topologyRepo,
+            PrintSrvTopologyJpaAdapter topologyAdapter,
+            PollingCoordinator pollingCoordinator,
+            UserAssignmentIndex assignmentIndex,
+            SnapshotJsonCache snapshotCache,
+            EscalationEngine escalationEngine,
+            PrintSrvConnectionSynchronizer connectionSynchronizer,
+            ObjectMapper objectMapper,
+            MeterRegistry registry
+    ) {
+        this.node = node;
+        this.publisher = publisher;
+        this.replica = replica;
+        this.properties = properties;
+        this.liveWsHandler = liveWsHandler;
+        this.unitWsHandler = unitWsHandler;
+        this.alertStore = alertStore;
+        this.notificationStore = notificationStore;
+        this.notificationRepository = notificationRepository;
+        this.workshopService = workshopService;
+        this.topologyRepo = topologyRepo;
+        this.topologyAdapter = topologyAdapter;
+        this.pollingCoordinator = pollingCoordinator;
+        this.assignmentIndex = assignmentIndex;
+        this.snapshotCache = snapshotCache;
+        this.escalationEngine = escalationEngine;
+        this.connectionSynchronizer = connectionSynchronizer;
+        this.objectMapper = objectMapper;
+
+        for (ClusterEvent.Kind kind : ClusterEvent.Kind.values()) {
+            received.put(kind, Counter.builder("cluster.bus.received")
+                    .description("Cluster bus events received from other nodes")
+                    .tag("kind", kind.name())
+                    .register(registry));
+        }
+        this.latency = Timer.builder("cluster.bus.latency")
+                .description("Cluster bus event latency from publish to apply")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(registry);
+        this.gaps = Counter.builder("cluster.bus.gaps")
+                .description("Cluster bus reports of possibly lost events")
+                .register(registry);
+        this.syncs = Counter.builder("cluster.sync")
+                .description("Full state synchronizations")
+                .tag("role", node.role())
+                .register(registry);
+
+        ClusterBus bus = publisher.bus();
+        if (node.isClustered() && bus != null) {
+            bus.subscribe(this);
+        }
+    }
+
+    /**
+     * Слияние снимка уведомлений на узле приёма: уведомления из снимка добавляются; отсутствующие
+     * в нём снимаются, если их нет и в БД — уведомление, только что активированное на этом узле,
+     * могло не попасть в снимок.
+     */
+    private void mergeNotifications(List<NotificationMessageDTO> notifications) {
+        Set<String> incoming = new HashSet<>();
+        for (NotificationMessageDTO notification : notifications) {
+            incoming.add(notification.unitId());
+            escalationEngine.onNotificationDelta(notificationStore.updateAndDiff(notification.unitId(), notification));
+        }
+        for (NotificationMessageDTO current : notificationStore.getAll()) {
+            if (!incoming.contains(current.unitId())
+                    && notificationRepository.reloadActiveByUnitId(current.unitId()).isEmpty()) {
+                NotificationMessageDTO resolved = NotificationMessageDTO.deactivated(current.unitId(),
+                        current.unitName(), current.creatorId(), current.creatorName(), current.timestamp());
+                escalationEngine.onNotificationDelta(notificationStore.updateAndDiff(current.unitId(), resolved));
+            }
+        }
+    }
+
+    // ─── ClusterBus.Listener ─────────────────────────────────────────────────
+
+    @Override
+    public void onEvents(@NonNull List<ClusterEvent> events) {
+        long now = System.currentTimeMillis();
+        for (ClusterEvent event : events) {
+            if (node.nodeId().equals(event.origin())) {
+                continue;
+            }
+            received.get(event.kind()).increment();
+            latency.record(Math.max(0L, now - event.publishedAt()), TimeUnit.MILLISECONDS);
+            try {
+                apply(event);
+            } catch (JsonProcessingException | RuntimeException e) {
+                log.error("ClusterReplicator: failed to apply {} key='{}' from '{}'",
+                        event.kind(), event.key(), event.origin(), e);
+            }
+        }
+    }
+
+    @Override
+    public void onGap() {
+        gaps.increment();
+        if (node.servesFromReplica()) {
+            log.warn("ClusterReplicator: cluster bus reported lost events, resyncing replicas");
+            node.setReplicaSynced(false);
+            syncSignal.release();
+        }
+        if (!node.isWs()) {
+            // Среди потерянных мог быть TOPOLOGY_CHANGED
+            connectionSynchronizer.reconcile();
+        }
+    }
+
+    private void apply(ClusterEvent event) throws JsonProcessingException {
+        switch (event.kind()) {
+            case UNITS_STATUS -> {
+                UnitsStatusMessageDTO message = objectMapper.readValue(event.body(), UnitsStatusMessageDTO.class);
+                replica.putUnitStatuses(message.workshopId(), message.payload());
+                liveWsHandler.broadcastToWorkshop(message.workshopId(), event.body());
+            }
+            case UNIT_FRAME -> {
+                replica.putFrame(event.key(), event.type(), event.body());
+                unitWsHandler.deliverFrame(event.key(), event.type(), event.body());
+            }
+            case ALERT -> {
+                AlertMessageDTO alert = objectMapper.readValue(event.body(), AlertMessageDTO.class);
+                ActiveAlertStore.Delta delta = alertStore.updateAndDiff(alert.unitId(), alert.active() ? alert : null);
+                if (!delta.added().isEmpty() || !delta.removed().isEmpty()) {
+                    escalationEngine.onAlertDelta(delta);
+                    liveWsHandler.broadcastAlert(event.body());
+                }
+            }
+            case ALERT_SNAPSHOT -> {
+                List<AlertMessageDTO> alerts = objectMapper.readValue(event.body(), AlertSnapshotMessageDTO.class)
+                        .payload();
+                if (node.isWs()) {
+                    alertStore.replaceAll(alerts);
+                } else {
+                    escalationEngine.onAlertDelta(
+                            alertStore.mergeForeign(alerts, pollingCoordinator.getOwnedInstanceIds()));
+                }
+            }
+            case NOTIFICATION -> {
+                NotificationMessageDTO notification = objectMapper.readValue(event.body(), NotificationMessageDTO.class);
+                notificationRepository.reloadActiveByUnitId(notification.unitId());
+                ActiveNotificationStore.Delta delta = notificationStore.updateAndDiff(notification.unitId(), notification);
+                if (!delta.added().isEmpty() || !delta.removed().isEmpty()) {
+                    escalationEngine.onNotificationDelta(delta);
+                    liveWsHandler.broadcastNotification(notification, event.body());
+                }
+            }
+            case NOTIFICATION_SNAPSHOT -> {
+                List<NotificationMessageDTO> notifications = objectMapper.readValue(event.body(),
+                        NotificationSnapshotMessageDTO.class).payload();
+                if (node.isWs()) {
+                    notificationStore.replaceAll(notifications);
+                } else {
+                    mergeNotifications(notifications);
+                }
+            }
+            case TO_ALL -> {
+                topologyAdapter.invalidateETag();
+                liveWsHandler.broadcastToAll(event.type(), event.body());
+            }
+            case TO_ADMINS -> liveWsHandler.sendToAdmins(event.type(), event.body());
+            case TO_USER -> liveWsHandler.sendToUser(Long.parseLong(event.key()), event.type(), event.body());
+            case ASSIGNMENTS_CHANGED -> assignmentIndex.invalidate();
+            case TOPOLOGY_CHANGED -> {
+                if (!node.isWs()) {
+                    connectionSynchronizer.reconcile();
+                }
+            }
+            case ESCALATION_ACK -> escalationEngine.applyRemoteAcknowledgement(event.key());
+            case SYNC_REQUEST -> {
+                if (node.isLeader() && pollingCoordinator.isPrimary()) {
+                    publishFullState(event.origin());
+                }
+            }
+            case SYNC_DONE -> {
+                if (node.servesFromReplica() && (event.key() == null || node.nodeId().equals(event.key()))) {
+                    onSynced(event.origin());
+                }
+            }
+        }
+    }
+
+    // ─── Full state ──────────────────────────────────────────────────────────
+
+    /**
+     * Публикует полное состояние лидера и {@code SYNC_DONE}.
+     *
+     * @param requester узел, запросивший состояние, или {@code null} — всем
+     */
+    private void publishFullState(@Nullable String requester) {
+        String origin = node.nodeId();
+        List<ClusterEvent> events = new ArrayList<>();
+        try {
+            events.add(ClusterEvent.of(origin, ClusterEvent.Kind.ALERT_SNAPSHOT, null, "ALERT_SNAPSHOT",
+                    snapshotCache.alertSnapshot()));
+            events.add(ClusterEvent.of(origin, ClusterEvent.Kind.NOTIFICATION_SNAPSHOT, null, "NOTIFICATION_SNAPSHOT",
+                    snapshotCache.notificationSnapshot()));
+
+            Map<Long, List<String>> instancesByWorkshop = new TreeMap<>();
+            for (PrintSrvInstance instance : topologyRepo.findAllActiveInstances()) {
+                instancesByWorkshop.computeIfAbsent(instance.workshopId(), id -> new ArrayList<>())
+                        .add(instance.instanceId());
+            }
+            for (Map.Entry<Long, List<String>> workshop : instancesByWorkshop.entrySet()) {
+                UnitsStatusMessageDTO status = UnitsStatusMessageDTO.of(workshop.getKey(), node.servesFromReplica()
+                        ? replica.getUnitStatuses(workshop.getKey())
+                        : workshopService.getUnitsStatus(workshop.getKey()));
+                events.add(ClusterEvent.of(origin, ClusterEvent.Kind.UNITS_STATUS, workshop.getKey().toString(),
+                        status.type(), objectMapper.writeValueAsString(status)));
+                for (String instanceId : workshop.getValue()) {
+                    Map<String, String> frames = node.servesFromReplica()
+                            ? replica.getFrames(instanceId)
+                            : unitWsHandler.buildFrames(instanceId);
+                    frames.forEach((type, json) -> events.add(
+                            ClusterEvent.of(origin, ClusterEvent.Kind.UNIT_FRAME, instanceId, type, json)));
+                }
+            }
+        } catch (JsonProcessingException | RuntimeException e) {
+            log.error("ClusterReplicator: failed to build full state for '{}'", requester, e);
+            return;
+        }
+        events.add(ClusterEvent.of(origin, ClusterEvent.Kind.SYNC_DONE, requester, null, null));
+        publisher.publish(events);
+        syncs.increment();
+        log.info("ClusterReplicator: published full state ({} event(s)) to '{}'",
+                events.size(), requester == null ? "all" : requester);
+    }
+
+    private void onSynced(String leader) {
+        boolean wasSynced = node.isReplicaSynced();
+        node.setReplicaSynced(true);
+        syncs.increment();
+        if (liveWsHandler.getTotalSessionCount() > 0) {
+            liveWsHandler.resendSnapshots();
+        }
+        if (!wasSynced) {
+            log.info("ClusterReplicator: replicas synced from leader '{}', alerts={}, notifications={}",
+                    leader, alertStore.getAll().size(), notificationStore.getAll().size());
+        }
+    }
+
+    // ─── Lifecycle ───────────────────────────────────────────────────────────
+
+    @Override
+    public void start() {
+        if (!running.compareAndSet(false, true)) {
+            return;
+        }
+        if (node.isLeader() && pollingCoordinator.isPrimary()) {
+            publishFullState(null);
+        }
+        if (node.servesFromReplica()) {
+            worker = Thread.ofVirtual().name("cluster-sync").start(this::runSync);
+        }
+    }
+
+    @Override
+    public void stop() {
+        if (!running.compareAndSet(true, false)) {
+            return;
+        }
+        Thread current = worker;
+        if (current != null) {
+            current.interrupt();
+            worker = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running.get();
+    }
+
+    @Override
+    public boolean isAutoStartup() {
+        return node.isClustered();
+    }
+
+    @Override
+    public int getPhase() {
+        return IngestionRuntime.PHASE + 1;
+    }
+
+    /**
+     * Запрашивает полное состояние, пока реплики не синхронизированы; после синхронизации
+     * ждёт сигнала о потере событий.
+     */
+    private void runSync() {
+        while (running.get()) {
+            try {
+                if (!node.isReplicaSynced() && node.isLeader() && pollingCoordinator.isPrimary()) {
+                    // Первичный узел приёма сам источник полного состояния — запрашивать не у кого
+                    node.setReplicaSynced(true);
+                } else if (!node.isReplicaSynced()) {
+                    publisher.publish(ClusterEvent.Kind.SYNC_REQUEST, null, null, null);
+                    log.debug("ClusterReplicator: requested full state");
+                    syncSignal.tryAcquire(properties.getSyncRetryMs(), TimeUnit.MILLISECONDS);
+                } else {
+                    syncSignal.acquire();
+                }
+                syncSignal.drainPermits();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+}
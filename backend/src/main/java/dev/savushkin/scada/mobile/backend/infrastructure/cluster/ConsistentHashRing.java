@@ -0,0 +1,59 @@
+package dev.savushkin.scada.mobile.backend.infrastructure.cluster;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Кольцо consistent hashing: ключ принадлежит первому по часовой стрелке узлу.
+ * <p>
+ * Каждый узел занимает {@code virtualNodes} точек кольца — нагрузка распределяется
+ * равномерно, а при входе или уходе узла переезжает примерно {@code 1/N} ключей.
+ * Хеш — первые 8 байт MD5: одинаков во всех JVM, в отличие от {@link String#hashCode()}
+ * не зависит от похожести идентификаторов.
+ */
+final class ConsistentHashRing {
+
+    private final TreeMap<Long, String> ring = new TreeMap<>();
+    private final List<String> members;
+
+    ConsistentHashRing(@NonNull List<String> members, int virtualNodes) {
+        this.members = List.copyOf(members);
+        for (String member : members) {
+            for (int i = 0; i < virtualNodes; i++) {
+                ring.put(hash(member + "#" + i), member);
+            }
+        }
+    }
+
+    /**
+     * Узел-владелец ключа; {@code null}, если кольцо пусто.
+     */
+    @Nullable String ownerOf(@NonNull String key) {
+        if (ring.isEmpty()) {
+            return null;
+        }
+        Map.Entry<Long, String> entry = ring.ceilingEntry(hash(key));
+        return entry != null ? entry.getValue() : ring.firstEntry().getValue();
+    }
+
+    @NonNull List<String> members() {
+        return members;
+    }
+
+    private static long hash(String value) {
+        try {
+            byte[] digest = MessageDigest.getInstance("MD5").digest(value.getBytes(StandardCharsets.UTF_8));
+            return ByteBuffer.wrap(digest).getLong();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("MD5 is not available", e);
+        }
+    }
+}
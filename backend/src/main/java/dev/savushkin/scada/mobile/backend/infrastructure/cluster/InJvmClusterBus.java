@@ -0,0 +1,131 @@
+package dev.savushkin.scada.mobile.backend.infrastructure.cluster;
+
+import dev.savushkin.scada.mobile.backend.config.ClusterProperties;
+import org.jspecify.annotations.NonNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Шина {@code in-jvm}: узлы кластера — несколько Spring-контекстов в одной JVM
+ * (тесты, нагрузочный стенд), общий канал — статический реестр по {@code cluster.channel}.
+ * <p>
+ * Каждый узел получает события в собственном virtual thread: порядок событий сохраняется,
+ * а медленный получатель не задерживает отправителя.
+ */
+@Component
+public class InJvmClusterBus implements ClusterBus, SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(InJvmClusterBus.class);
+
+    /**
+     * Канал → подключённые узлы.
+     */
+    private static final Map<String, Set<InJvmClusterBus>> CHANNELS = new ConcurrentHashMap<>();
+
+    private final ClusterNode node;
+    private final ClusterProperties properties;
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+    private volatile ExecutorService delivery;
+
+    public InJvmClusterBus(ClusterNode node, ClusterProperties properties) {
+        this.node = node;
+        this.properties = properties;
+    }
+
+    @Override
+    public @NonNull String name() {
+        return ClusterProperties.BUS_IN_JVM;
+    }
+
+    @Override
+    public void publish(@NonNull List<ClusterEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        List<ClusterEvent> copy = List.copyOf(events);
+        for (InJvmClusterBus member : CHANNELS.getOrDefault(properties.getChannel(), Set.of())) {
+            member.deliver(copy);
+        }
+    }
+
+    @Override
+    public void subscribe(@NonNull Listener listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public synchronized void start() {
+        if (delivery != null) {
+            return;
+        }
+        delivery = Executors.newSingleThreadExecutor(
+                Thread.ofVirtual().name("cluster-bus-" + node.nodeId()).factory());
+        CHANNELS.computeIfAbsent(properties.getChannel(), channel -> new CopyOnWriteArraySet<>()).add(this);
+        log.info("InJvmClusterBus started: channel='{}', node='{}'", properties.getChannel(), node.nodeId());
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (delivery == null) {
+            return;
+        }
+        Set<InJvmClusterBus> members = CHANNELS.get(properties.getChannel());
+        if (members != null) {
+            members.remove(this);
+        }
+        delivery.shutdown();
+        delivery = null;
+        log.info("InJvmClusterBus stopped: node='{}'", node.nodeId());
+    }
+
+    @Override
+    public boolean isRunning() {
+        return delivery != null;
+    }
+
+    /**
+     * Стартует только выбранная шина кластерного узла.
+     */
+    @Override
+    public boolean isAutoStartup() {
+        return node.isClustered() && name().equals(properties.getBus());
+    }
+
+    @Override
+    public int getPhase() {
+        return ClusterBus.PHASE;
+    }
+
+    private void deliver(List<ClusterEvent> events) {
+        ExecutorService executor = delivery;
+        if (executor == null) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                for (Listener listener : listeners) {
+                    try {
+                        listener.onEvents(events);
+                    } catch (RuntimeException e) {
+                        log.error("InJvmClusterBus: listener failed on node '{}'", node.nodeId(), e);
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            log.debug("InJvmClusterBus: node '{}' is stopping, events dropped", node.nodeId());
+        }
+    }
+}
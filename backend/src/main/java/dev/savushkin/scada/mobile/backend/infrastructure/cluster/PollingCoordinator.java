@@ -0,0 +1,290 @@
+package dev.savushkin.scada.mobile.backend.infrastructure.cluster;
+
+import dev.savushkin.scada.mobile.backend.application.ports.PollingLeaseRepository;
+import dev.savushkin.scada.mobile.backend.config.ClusterProperties;
+import dev.savushkin.scada.mobile.backend.infrastructure.ingestion.IngestionRuntime;
+import dev.savushkin.scada.mobile.backend.infrastructure.integration.printsrv.client.PrintSrvClientRegistry;
+import dev.savushkin.scada.mobile.backend.infrastructure.polling.PrintSrvPollingRuntime;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.jspecify.annotations.NonNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+/**
+ * Координация опроса PrintSrv между несколькими узлами {@code leader} через аренды в БД
+ * ({@link PollingLeaseRepository}): каждый инстанс опрашивает ровно один узел.
+ *
+ * <h3>Режимы ({@code cluster.polling.mode})</h3>
+ * <ul>
+ *   <li>{@code leader} — все узлы пытаются занять единственную аренду {@code '*'};
+ *       держатель опрашивает все инстансы, остальные — горячий резерв;</li>
+ *   <li>{@code sharded} — живые узлы образуют кольцо {@link ConsistentHashRing}; узел
+ *       претендует на аренды инстансов своей доли. Вход или уход узла переносит примерно
+ *       {@code 1/N} инстансов.</li>
+ * </ul>
+ *
+ * <h3>Цикл</h3>
+ * Worker в virtual thread каждые {@code cluster.polling.renew-interval-ms}: продлевает heartbeat,
+ * читает живых участников, сначала останавливает опрос инстансов, ушедших из доли, затем
+ * захватывает/продлевает аренды доли, освобождает лишние и передаёт итог в
+ * {@link PrintSrvPollingRuntime#assign(Set)}. Чужая аренда переходит только после истечения
+ * или освобождения, поэтому при перебалансировке инстанс не опрашивается двумя узлами
+ * (с точностью до уже начатого прохода старого владельца).
+ *
+ * <h3>Отказы</h3>
+ * Упавший узел перестаёт продлевать аренды — через {@code lease-ttl-ms} их занимают остальные.
+ * Узел, потерявший связь с БД, сам прекращает опрос, когда истекает срок последнего
+ * успешного продления: к моменту, когда аренду займёт другой узел, он уже не опрашивает.
+ * При остановке приложения узел освобождает аренды сразу ({@link PollingLeaseRepository#leave}).
+ *
+ * <h3>Первичный узел</h3>
+ * Самый старый живой участник — {@link #isPrimary()}: он отвечает WS-узлам полным состоянием
+ * (см. {@link ClusterReplicator}). Узел, только что вошедший в кластер, первичным не становится,
+ * пока живы более старые — их реплики полнее.
+ *
+ * <p>Стартует фазой {@link #PHASE} — до {@link IngestionRuntime}, чтобы первый проход опроса
+ * шёл уже по своей доле. Только при {@code cluster.polling.mode != none}.
+ *
+ * <h3>Метрики</h3>
+ * <ul>
+ *   <li>{@code cluster.polling.owned} — инстансов в аренде узла;</li>
+ *   <li>{@code cluster.polling.members} — живых узлов приёма;</li>
+ *   <li>{@code cluster.polling.rebalances} — изменения набора опрашиваемых инстансов;</li>
+ *   <li>{@code cluster.polling.lease.failures} — неудачные продления (ошибки БД).</li>
+ * </ul>
+ */
+@Component
+public class PollingCoordinator implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(PollingCoordinator.class);
+
+    /**
+     * Фаза lifecycle: раньше {@link IngestionRuntime}, позже шины кластера.
+     */
+    public static final int PHASE = IngestionRuntime.PHASE - 512;
+
+    private final ClusterNode node;
+    private final PollingLeaseRepository repository;
+    private final PrintSrvPollingRuntime pollingRuntime;
+    private final PrintSrvClientRegistry clientRegistry;
+    private final boolean sharded;
+    private final long leaseTtlMs;
+    private final long renewIntervalMs;
+    private final int virtualNodes;
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    private final Counter rebalances;
+    private final Counter failures;
+
+    private volatile List<String> members = List.of();
+    private volatile Set<String> ownedKeys = Set.of();
+    private volatile ConsistentHashRing ring;
+    private volatile long validUntilNanos;
+    private volatile Thread worker;
+
+    public PollingCoordinator(
+            ClusterNode node,
+            ClusterProperties properties,
+            PollingLeaseRepository repository,
+            PrintSrvPollingRuntime pollingRuntime,
+            PrintSrvClientRegistry clientRegistry,
+            MeterRegistry registry
+    ) {
+        this.node = node;
+        this.repository = repository;
+        this.pollingRuntime = pollingRuntime;
+        this.clientRegistry = clientRegistry;
+        ClusterProperties.PollingProperties polling = properties.getPolling();
+        this.sharded = ClusterProperties.POLLING_SHARDED.equals(polling.getMode());
+        this.leaseTtlMs = polling.getLeaseTtlMs();
+        this.renewIntervalMs = polling.getRenewIntervalMs();
+        this.virtualNodes = polling.getVirtualNodes();
+        this.ring = new ConsistentHashRing(List.of(), virtualNodes);
+
+        Gauge.builder("cluster.polling.owned", this, coordinator -> coordinator.getOwnedInstanceIds().size())
+                .description("PrintSrv instances polled by this node under a lease")
+                .register(registry);
+        Gauge.builder("cluster.polling.members", this, coordinator -> coordinator.members.size())
+                .description("Live ingestion nodes sharing PrintSrv polling")
+                .register(registry);
+        this.rebalances = Counter.builder("cluster.polling.rebalances")
+                .description("Changes of the set of PrintSrv instances polled by this node")
+                .register(registry);
+        this.failures = Counter.builder("cluster.polling.lease.failures")
+                .description("Failed lease renewals")
+                .register(registry);
+    }
+
+    /**
+     * Первичный узел: самый старый живой участник; без координации — всегда {@code true}.
+     */
+    public boolean isPrimary() {
+        if (!node.isPollingCoordinated()) {
+            return true;
+        }
+        List<String> current = members;
+        return !current.isEmpty() && current.getFirst().equals(node.nodeId());
+    }
+
+    /**
+     * Живые узлы приёма от старшего к младшему (по времени входа).
+     */
+    public @NonNull List<String> getMembers() {
+        return members;
+    }
+
+    /**
+     * Инстансы, аренды которых держит узел; без координации — все инстансы реестра.
+     */
+    public @NonNull Set<String> getOwnedInstanceIds() {
+        if (!node.isPollingCoordinated()) {
+            return clientRegistry.getInstanceIds();
+        }
+        Set<String> keys = ownedKeys;
+        return keys.contains(PollingLeaseRepository.ALL) ? clientRegistry.getInstanceIds() : keys;
+    }
+
+    // ─── Lifecycle ───────────────────────────────────────────────────────────
+
+    @Override
+    public void start() {
+        if (!running.compareAndSet(false, true)) {
+            return;
+        }
+        // До первой аренды узел не опрашивает ничего
+        pollingRuntime.assign(Set.of());
+        try {
+            repository.join(node.nodeId());
+        } catch (RuntimeException e) {
+            log.warn("PollingCoordinator: failed to join, will retry on renewal: {}", e.getMessage());
+        }
+        // Первый тик синхронно: IngestionRuntime стартует уже с назначенной долей
+        tick();
+        worker = Thread.ofVirtual().name("polling-lease").start(this::runLoop);
+        log.info("PollingCoordinator started: node='{}', mode='{}', ttl={}ms, renew={}ms",
+                node.nodeId(), node.pollingMode(), leaseTtlMs, renewIntervalMs);
+    }
+
+    @Override
+    public void stop() {
+        if (!running.compareAndSet(true, false)) {
+            return;
+        }
+        Thread current = worker;
+        if (current != null) {
+            current.interrupt();
+            worker = null;
+        }
+        applyOwnership(Set.of());
+        try {
+            repository.leave(node.nodeId());
+        } catch (RuntimeException e) {
+            log.warn("PollingCoordinator: failed to release leases, they expire in {} ms: {}",
+                    leaseTtlMs, e.getMessage());
+        }
+        log.info("PollingCoordinator stopped");
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running.get();
+    }
+
+    @Override
+    public boolean isAutoStartup() {
+        return node.isPollingCoordinated();
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    // ─── Private ─────────────────────────────────────────────────────────────
+
+    private void runLoop() {
+        while (running.get()) {
+            try {
+                Thread.sleep(renewIntervalMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            tick();
+        }
+    }
+
+    private void tick() {
+        long startedAt = System.nanoTime();
+        try {
+            repository.heartbeat(node.nodeId());
+            List<String> live = repository.liveMembers(leaseTtlMs);
+            if (!live.equals(members)) {
+                log.info("PollingCoordinator: live members {} → {}", members, live);
+                members = List.copyOf(live);
+                ring = new ConsistentHashRing(live, virtualNodes);
+            }
+
+            Set<String> desired = desiredKeys();
+            // Сначала перестаём опрашивать ушедшее из доли, затем отдаём аренды
+            applyOwnership(ownedKeys.stream().filter(desired::contains).collect(Collectors.toSet()));
+            Set<String> acquired = repository.acquire(node.nodeId(), desired, leaseTtlMs);
+            validUntilNanos = startedAt + TimeUnit.MILLISECONDS.toNanos(leaseTtlMs);
+            repository.releaseExcept(node.nodeId(), acquired);
+            applyOwnership(acquired);
+        } catch (RuntimeException e) {
+            failures.increment();
+            log.warn("PollingCoordinator: lease renewal failed: {}", e.getMessage());
+            if (!ownedKeys.isEmpty() && System.nanoTime() - validUntilNanos > 0) {
+                log.error("PollingCoordinator: leases expired without renewal, stopping polling of {} instance(s)",
+                        getOwnedInstanceIds().size());
+                applyOwnership(Set.of());
+            }
+        }
+    }
+
+    /**
+     * Ключи аренд, на которые претендует узел: {@code '*'} в режиме {@code leader},
+     * инстансы своей доли кольца — в {@code sharded}.
+     */
+    private Set<String> desiredKeys() {
+        if (!sharded) {
+            return Set.of(PollingLeaseRepository.ALL);
+        }
+        ConsistentHashRing current = ring;
+        return clientRegistry.getInstanceIds().stream()
+                .filter(instanceId -> node.nodeId().equals(current.ownerOf(instanceId)))
+                .collect(Collectors.toSet());
+    }
+
+    private synchronized void applyOwnership(Set<String> keys) {
+        if (keys.equals(ownedKeys)) {
+            return;
+        }
+        Set<String> previous = ownedKeys;
+        ownedKeys = Set.copyOf(keys);
+        rebalances.increment();
+        if (!sharded) {
+            pollingRuntime.assign(keys.contains(PollingLeaseRepository.ALL) ? null : Set.of());
+            log.info("PollingCoordinator: polling lease {}", keys.isEmpty() ? "released" : "acquired");
+            return;
+        }
+        pollingRuntime.assign(keys);
+        Set<String> added = new TreeSet<>(keys);
+        added.removeAll(previous);
+        Set<String> removed = new TreeSet<>(previous);
+        removed.removeAll(keys);
+        log.info("PollingCoordinator: polling {} instance(s), +{} -{}", keys.size(), added, removed);
+    }
+}
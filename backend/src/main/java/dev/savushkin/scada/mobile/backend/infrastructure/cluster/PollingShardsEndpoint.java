@@ -0,0 +1,53 @@
+package dev.savushkin.scada.mobile.backend.infrastructure.cluster;
+
+import dev.savushkin.scada.mobile.backend.api.dto.PollingShardsDTO;
+import dev.savushkin.scada.mobile.backend.application.ports.PollingLeaseRepository;
+import dev.savushkin.scada.mobile.backend.infrastructure.polling.PrintSrvPollingRuntime;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Actuator-эндпоинт {@code /actuator/pollingshards}: кто какие инстансы PrintSrv опрашивает —
+ * живые узлы приёма, доля этого узла и все действующие аренды из БД.
+ *
+ * <p>Аренды читаются из БД на каждый запрос, поэтому ответ любого узла показывает
+ * распределение по всему кластеру. Доступ — только ADMIN (см. {@code SecurityConfig}).
+ */
+@Component
+@Endpoint(id = "pollingshards")
+public class PollingShardsEndpoint {
+
+    private final ClusterNode node;
+    private final PollingCoordinator coordinator;
+    private final PrintSrvPollingRuntime pollingRuntime;
+    private final PollingLeaseRepository leaseRepository;
+
+    public PollingShardsEndpoint(ClusterNode node, PollingCoordinator coordinator,
+                                 PrintSrvPollingRuntime pollingRuntime, PollingLeaseRepository leaseRepository) {
+        this.node = node;
+        this.coordinator = coordinator;
+        this.pollingRuntime = pollingRuntime;
+        this.leaseRepository = leaseRepository;
+    }
+
+    @ReadOperation
+    public PollingShardsDTO shards() {
+        List<PollingShardsDTO.Lease> leases = node.isPollingCoordinated()
+                ? leaseRepository.findActive().stream()
+                        .map(lease -> new PollingShardsDTO.Lease(lease.key(), lease.owner(), lease.expiresInMs()))
+                        .toList()
+                : List.of();
+        return new PollingShardsDTO(
+                node.nodeId(),
+                node.role(),
+                node.pollingMode(),
+                coordinator.isPrimary(),
+                node.isPollingCoordinated() ? coordinator.getMembers() : List.of(node.nodeId()),
+                pollingRuntime.getPolledInstanceIds().stream().sorted().toList(),
+                leases
+        );
+    }
+}
@@ -0,0 +1,420 @@
+package dev.savushkin.scada.mobile.backend.infrastructure.cluster;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.savushkin.scada.mobile.backend.config.ClusterProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * Шина {@code postgres}: PostgreSQL {@code LISTEN/NOTIFY} на канале {@code cluster.channel}.
+ * Не требует ничего, кроме уже используемой приложением БД, поэтому работает и локально.
+ *
+ * <h3>Отправка</h3>
+ * {@link #publish} только ставит события в очередь. Sender в virtual thread собирает
+ * до {@code cluster.postgres.max-batch-events} событий в один {@code NOTIFY}; пачка крупнее
+ * {@code max-payload-bytes} делится пополам, а единичное крупное событие (полное состояние)
+ * пишется в {@code cluster_bus_spill}, и в {@code NOTIFY} уходит только ссылка на строку.
+ *
+ * <h3>Приём и потери</h3>
+ * Listener держит отдельное соединение пула с {@code LISTEN}. Каждый {@code NOTIFY} несёт
+ * номер в последовательности отправителя: пропуск номера, переподключение listener-а
+ * или отсутствие spill-строки сообщаются получателям через {@link Listener#onGap()}.
+ * Переполнение очереди отправки (предел {@code cluster.postgres.queue-capacity}) сдвигает
+ * последовательность — получатели увидят пропуск. Свои {@code NOTIFY} узел не обрабатывает.
+ *
+ * <h3>Метрики</h3>
+ * {@code cluster.bus.notifies} — отправленные {@code NOTIFY}, {@code cluster.bus.spilled} —
+ * пачки через {@code cluster_bus_spill}, {@code cluster.bus.dropped} — события, отброшенные
+ * при переполнении очереди или ошибке отправки.
+ */
+@Component
+public class PostgresClusterBus implements ClusterBus, SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(PostgresClusterBus.class);
+
+    /**
+     * Имя канала подставляется в {@code LISTEN} как идентификатор — только безопасные символы.
+     */
+    private static final Pattern CHANNEL_NAME = Pattern.compile("[a-z_][a-z0-9_]{0,62}");
+
+    private static final TypeReference<List<ClusterEvent>> EVENTS_TYPE = new TypeReference<>() {
+    };
+
+    private static final ResultSetExtractor<Void> IGNORE_RESULT = rs -> null;
+
+    /**
+     * Запас под поля конверта ({@code origin}, {@code seq}) сверх JSON событий.
+     */
+    private static final int ENVELOPE_RESERVE_BYTES = 128;
+
+    private static final String NOTIFY_SQL = "SELECT pg_notify(:channel, :payload)";
+
+    private static final String SPILL_INSERT_SQL = """
+            INSERT INTO cluster_bus_spill (payload, created_at)
+            VALUES (:payload, :createdAt)
+            RETURNING spill_id
+            """;
+
+    private static final String SPILL_SELECT_SQL = "SELECT payload FROM cluster_bus_spill WHERE spill_id = :id";
+
+    private static final String SPILL_CLEANUP_SQL = "DELETE FROM cluster_bus_spill WHERE created_at < :cutoff";
+
+    private final ClusterNode node;
+    private final ClusterProperties properties;
+    private final ClusterProperties.PostgresProperties postgres;
+    private final DataSource dataSource;
+    private final NamedParameterJdbcTemplate jdbc;
+    private final ObjectMapper objectMapper;
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    private final BlockingQueue<ClusterEvent> outgoing;
+    private final AtomicLong sequence = new AtomicLong();
+    private final Map<String, Long> lastSequenceByOrigin = new ConcurrentHashMap<>();
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    private final Counter notifies;
+    private final Counter spilled;
+    private final Counter dropped;
+
+    private volatile Thread sender;
+    private volatile Thread receiver;
+    private String quotedOrigin;
+    private long nextSpillCleanupAt;
+
+    public PostgresClusterBus(
+            ClusterNode node,
+            ClusterProperties properties,
+            DataSource dataSource,
+            NamedParameterJdbcTemplate jdbc,
+            ObjectMapper objectMapper,
+            MeterRegistry registry
+    ) {
+        this.node = node;
+        this.properties = properties;
+        this.postgres = properties.getPostgres();
+        this.dataSource = dataSource;
+        this.jdbc = jdbc;
+        this.objectMapper = objectMapper;
+        this.outgoing = new LinkedBlockingQueue<>(postgres.getQueueCapacity());
+
+        this.notifies = Counter.builder("cluster.bus.notifies")
+                .description("NOTIFY messages sent to the cluster bus")
+                .register(registry);
+        this.spilled = Counter.builder("cluster.bus.spilled")
+                .description("Cluster bus batches sent through cluster_bus_spill")
+                .register(registry);
+        this.dropped = Counter.builder("cluster.bus.dropped")
+                .description("Cluster bus events dropped before NOTIFY")
+                .register(registry);
+    }
+
+    @Override
+    public @NonNull String name() {
+        return ClusterProperties.BUS_POSTGRES;
+    }
+
+    @Override
+    public void publish(@NonNull List<ClusterEvent> events) {
+        for (ClusterEvent event : events) {
+            if (!outgoing.offer(event)) {
+                // Пропуск номера — получатели запросят полное состояние
+                sequence.incrementAndGet();
+                dropped.increment();
+                log.warn("PostgresClusterBus: outgoing queue is full, {} event dropped", event.kind());
+            }
+        }
+    }
+
+    @Override
+    public void subscribe(@NonNull Listener listener) {
+        listeners.add(listener);
+    }
+
+    // ─── Lifecycle ───────────────────────────────────────────────────────────
+
+    @Override
+    public void start() {
+        if (!running.compareAndSet(false, true)) {
+            return;
+        }
+        if (!CHANNEL_NAME.matcher(properties.getChannel()).matches()) {
+            running.set(false);
+            throw new IllegalStateException("Invalid cluster.channel='%s' for cluster.bus=postgres: expected %s"
+                    .formatted(properties.getChannel(), CHANNEL_NAME.pattern()));
+        }
+        try {
+            quotedOrigin = objectMapper.writeValueAsString(node.nodeId());
+        } catch (JsonProcessingException e) {
+            running.set(false);
+            throw new IllegalStateException("Cannot encode cluster node id '%s'".formatted(node.nodeId()), e);
+        }
+        receiver = Thread.ofVirtual().name("cluster-bus-listen").start(this::runReceiver);
+        sender = Thread.ofVirtual().name("cluster-bus-notify").start(this::runSender);
+        log.info("PostgresClusterBus started: channel='{}', node='{}'", properties.getChannel(), node.nodeId());
+    }
+
+    @Override
+    public void stop() {
+        if (!running.compareAndSet(true, false)) {
+            return;
+        }
+        for (Thread thread : new Thread[]{sender, receiver}) {
+            if (thread != null) {
+                thread.interrupt();
+            }
+        }
+        sender = null;
+        receiver = null;
+        log.info("PostgresClusterBus stopped: node='{}'", node.nodeId());
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running.get();
+    }
+
+    /**
+     * Стартует только выбранная шина кластерного узла.
+     */
+    @Override
+    public boolean isAutoStartup() {
+        return node.isClustered() && name().equals(properties.getBus());
+    }
+
+    @Override
+    public int getPhase() {
+        return ClusterBus.PHASE;
+    }
+
+    // ─── Sender ──────────────────────────────────────────────────────────────
+
+    private void runSender() {
+        List<ClusterEvent> batch = new ArrayList<>(postgres.getMaxBatchEvents());
+        while (running.get()) {
+            try {
+                ClusterEvent first = outgoing.poll(postgres.getListenTimeoutMs(), TimeUnit.MILLISECONDS);
+                if (first != null) {
+                    batch.add(first);
+                    outgoing.drainTo(batch, postgres.getMaxBatchEvents() - 1);
+                    send(batch);
+                    batch.clear();
+                }
+                cleanupSpillIfDue();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (JsonProcessingException | DataAccessException e) {
+                sequence.incrementAndGet();
+                dropped.increment(batch.size());
+                log.warn("PostgresClusterBus: failed to send {} event(s): {}", batch.size(), e.getMessage());
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Отправляет пачку одним {@code NOTIFY}; не помещается — делит пополам,
+     * единичное событие — через {@code cluster_bus_spill}.
+     */
+    private void send(List<ClusterEvent> events) throws JsonProcessingException {
+        String eventsJson = objectMapper.writeValueAsString(events);
+        if (eventsJson.getBytes(StandardCharsets.UTF_8).length + ENVELOPE_RESERVE_BYTES <= postgres.getMaxPayloadBytes()) {
+            notify(envelope("events", eventsJson));
+            return;
+        }
+        if (events.size() > 1) {
+            int half = events.size() / 2;
+            send(events.subList(0, half));
+            send(events.subList(half, events.size()));
+            return;
+        }
+        Long spillId = jdbc.queryForObject(SPILL_INSERT_SQL, new MapSqlParameterSource()
+                .addValue("payload", eventsJson)
+                .addValue("createdAt", Timestamp.valueOf(LocalDateTime.now(ZoneOffset.UTC))), Long.class);
+        notify(envelope("spill", String.valueOf(spillId)));
+        spilled.increment();
+    }
+
+    /**
+     * JSON {@link Envelope} со следующим номером последовательности; {@code value} — готовый JSON поля.
+     */
+    private String envelope(String field, String value) {
+        return "{\"origin\":" + quotedOrigin + ",\"seq\":" + sequence.incrementAndGet()
+                + ",\"" + field + "\":" + value + "}";
+    }
+
+    private void notify(String payload) {
+        jdbc.query(NOTIFY_SQL, new MapSqlParameterSource()
+                .addValue("channel", properties.getChannel())
+                .addValue("payload", payload), IGNORE_RESULT);
+        notifies.increment();
+    }
+
+    private void cleanupSpillIfDue() {
+        long now = System.currentTimeMillis();
+        if (now < nextSpillCleanupAt) {
+            return;
+        }
+        nextSpillCleanupAt = now + postgres.getSpillRetentionMs();
+        LocalDateTime cutoff = LocalDateTime.now(ZoneOffset.UTC).minusNanos(
+                TimeUnit.MILLISECONDS.toNanos(postgres.getSpillRetentionMs()));
+        try {
+            int deleted = jdbc.update(SPILL_CLEANUP_SQL,
+                    new MapSqlParameterSource("cutoff", Timestamp.valueOf(cutoff)));
+            if (deleted > 0) {
+                log.debug("PostgresClusterBus: removed {} expired spill row(s)", deleted);
+            }
+        } catch (DataAccessException e) {
+            log.warn("PostgresClusterBus: spill cleanup failed: {}", e.getMessage());
+        }
+    }
+
+    // ─── Receiver ────────────────────────────────────────────────────────────
+
+    private void runReceiver() {
+        boolean reconnect = false;
+        while (running.get()) {
+            try (Connection connection = dataSource.getConnection()) {
+                connection.setAutoCommit(true);
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN \"" + properties.getChannel() + "\"");
+                }
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                if (reconnect) {
+                    log.info("PostgresClusterBus: listener reconnected, channel='{}'", properties.getChannel());
+                    fireGap();
+                }
+                while (running.get()) {
+                    PGNotification[] notifications = pgConnection.getNotifications((int) postgres.getListenTimeoutMs());
+                    if (notifications == null) {
+                        continue;
+                    }
+                    for (PGNotification notification : notifications) {
+                        receive(notification.getParameter());
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running.get()) {
+                    return;
+                }
+                reconnect = true;
+                log.warn("PostgresClusterBus: listener connection failed, retrying in {} ms: {}",
+                        postgres.getReconnectDelayMs(), e.getMessage());
+                try {
+                    Thread.sleep(postgres.getReconnectDelayMs());
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void receive(String payload) {
+        Envelope envelope;
+        try {
+            envelope = objectMapper.readValue(payload, Envelope.class);
+        } catch (JsonProcessingException e) {
+            log.warn("PostgresClusterBus: malformed NOTIFY payload ignored: {}", e.getMessage());
+            return;
+        }
+        if (node.nodeId().equals(envelope.origin())) {
+            return;
+        }
+
+        Long last = lastSequenceByOrigin.put(envelope.origin(), envelope.seq());
+        // seq = 1 — отправитель перезапущен с тем же cluster.node-id
+        if (last != null && envelope.seq() != last + 1 && envelope.seq() != 1) {
+            log.warn("PostgresClusterBus: lost {} NOTIFY from '{}'", envelope.seq() - last - 1, envelope.origin());
+            fireGap();
+        }
+
+        List<ClusterEvent> events = envelope.events();
+        if (envelope.spill() != null) {
+            events = loadSpill(envelope.spill());
+            if (events == null) {
+                fireGap();
+                return;
+            }
+        }
+        if (events == null || events.isEmpty()) {
+            return;
+        }
+        for (Listener listener : listeners) {
+            try {
+                listener.onEvents(events);
+            } catch (RuntimeException e) {
+                log.error("PostgresClusterBus: listener failed on node '{}'", node.nodeId(), e);
+            }
+        }
+    }
+
+    private @Nullable List<ClusterEvent> loadSpill(long spillId) {
+        try {
+            List<String> rows = jdbc.queryForList(SPILL_SELECT_SQL, new MapSqlParameterSource("id", spillId),
+                    String.class);
+            if (rows.isEmpty()) {
+                log.warn("PostgresClusterBus: spill row {} not found", spillId);
+                return null;
+            }
+            return objectMapper.readValue(rows.getFirst(), EVENTS_TYPE);
+        } catch (JsonProcessingException | DataAccessException e) {
+            log.warn("PostgresClusterBus: failed to load spill row {}: {}", spillId, e.getMessage());
+            return null;
+        }
+    }
+
+    private void fireGap() {
+        for (Listener listener : listeners) {
+            try {
+                listener.onGap();
+            } catch (RuntimeException e) {
+                log.error("PostgresClusterBus: gap handler failed on node '{}'", node.nodeId(), e);
+            }
+        }
+    }
+
+    /**
+     * Payload одного {@code NOTIFY}: события пачки либо ссылка на строку {@code cluster_bus_spill}.
+     *
+     * @param origin узел-отправитель
+     * @param seq    номер в последовательности отправителя
+     * @param events события пачки или {@code null}
+     * @param spill  {@code spill_id} или {@code null}
+     */
+    record Envelope(String origin, long seq, @Nullable List<ClusterEvent> events, @Nullable Long spill) {
+    }
+}
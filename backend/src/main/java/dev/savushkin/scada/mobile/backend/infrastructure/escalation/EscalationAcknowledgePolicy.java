@@ -0,0 +1,51 @@
+package dev.savushkin.scada.mobile.backend.infrastructure.escalation;
+
+import dev.savushkin.scada.mobile.backend.application.ports.PrintSrvTopologyRepository;
+import dev.savushkin.scada.mobile.backend.application.ports.UserAssignmentRepository;
+import dev.savushkin.scada.mobile.backend.domain.model.PrintSrvInstance;
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+import org.springframework.stereotype.Component;
+
+/**
+ * Право подтвердить ({@code ACKNOWLEDGE}) алёрт или уведомление аппарата.
+ * <p>
+ * Подтверждение снимает эскалацию на всех узлах кластера, поэтому его принимают только от:
+ * <ul>
+ *   <li>работника, закреплённого за аппаратом, — та же проверка, что и при отправке
+ *       уведомления ({@link UserAssignmentRepository#canSendNotification}, индекс в памяти);</li>
+ *   <li>сотрудника роли, которой адресован какой-либо шаг правила эскалации события
+ *       ({@link EscalationRules#isRecipientRole}).</li>
+ * </ul>
+ */
+@Component
+public class EscalationAcknowledgePolicy {
+
+    private final UserAssignmentRepository userAssignmentRepository;
+    private final EscalationRules rules;
+    private final PrintSrvTopologyRepository topologyRepo;
+
+    public EscalationAcknowledgePolicy(
+            UserAssignmentRepository userAssignmentRepository,
+            EscalationRules rules,
+            PrintSrvTopologyRepository topologyRepo
+    ) {
+        this.userAssignmentRepository = userAssignmentRepository;
+        this.rules = rules;
+        this.topologyRepo = topologyRepo;
+    }
+
+    /**
+     * @param role роль пользователя из JWT; {@code null} — неизвестна
+     */
+    public boolean canAcknowledge(long userId, @Nullable String role, @NonNull String source,
+                                  @NonNull String unitId) {
+        if (userAssignmentRepository.canSendNotification(userId, unitId)) {
+            return true;
+        }
+        Long workshopId = topologyRepo.findByInstanceId(unitId)
+                .map(PrintSrvInstance::workshopId)
+                .orElse(null);
+        return rules.isRecipientRole(role, source, workshopId, unitId);
+    }
+}
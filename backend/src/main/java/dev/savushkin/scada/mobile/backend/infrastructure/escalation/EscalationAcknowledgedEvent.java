@@ -0,0 +1,12 @@
+package dev.savushkin.scada.mobile.backend.infrastructure.escalation;
+
+/**
+ * Клиент {@code /ws/live} подтвердил алёрт или уведомление ({@code ACKNOWLEDGE}).
+ * Публикуется {@code LiveWsHandler}, обрабатывается {@link EscalationEngine}.
+ *
+ * @param source {@code ALERT} или {@code NOTIFICATION}
+ * @param unitId аппарат
+ * @param userId подтвердивший пользователь
+ */
+public record EscalationAcknowledgedEvent(String source, String unitId, long userId) {
+}
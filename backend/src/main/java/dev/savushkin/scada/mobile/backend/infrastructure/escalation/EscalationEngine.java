@@ -0,0 +1,414 @@
+package dev.savushkin.scada.mobile.backend.infrastructure.escalation;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.savushkin.scada.mobile.backend.api.dto.AlertMessageDTO;
+import dev.savushkin.scada.mobile.backend.api.dto.EscalationMessageDTO;
+import dev.savushkin.scada.mobile.backend.api.dto.NotificationMessageDTO;
+import dev.savushkin.scada.mobile.backend.application.ports.EscalationRecipientRepository;
+import dev.savushkin.scada.mobile.backend.application.ports.PrintSrvTopologyRepository;
+import dev.savushkin.scada.mobile.backend.config.EscalationProperties;
+import dev.savushkin.scada.mobile.backend.domain.model.PrintSrvInstance;
+import dev.savushkin.scada.mobile.backend.infrastructure.cluster.ClusterEvent;
+import dev.savushkin.scada.mobile.backend.infrastructure.cluster.ClusterNode;
+import dev.savushkin.scada.mobile.backend.infrastructure.cluster.ClusterPublisher;
+import dev.savushkin.scada.mobile.backend.infrastructure.cluster.PollingCoordinator;
+import dev.savushkin.scada.mobile.backend.infrastructure.store.ActiveAlertStore;
+import dev.savushkin.scada.mobile.backend.infrastructure.store.ActiveNotificationStore;
+import dev.savushkin.scada.mobile.backend.infrastructure.ws.LiveWsHandler;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Эскалация неподтверждённых алёртов и производственных уведомлений.
+ * <p>
+ * Алёрты и уведомления рассылаются один раз; если на них никто не отреагировал,
+ * движок по шагам правила ({@link EscalationProperties}) адресно оповещает сотрудников
+ * нужных ролей сообщением {@code ESCALATION}: например, через 3 минуты — мастера смены,
+ * через 10 — администраторов.
+ *
+ * <h3>Отслеживание</h3>
+ * Дельты {@link ActiveAlertStore} / {@link ActiveNotificationStore} передаются в
+ * {@link #onAlertDelta} / {@link #onNotificationDelta} там же, где они вычисляются
+ * ({@code StatusBroadcaster}, {@code ClusterReplicator}): появление ставит таймер первого
+ * шага, исчезновение (алёрт устранён, уведомление снято) или подтверждение
+ * ({@code ACKNOWLEDGE} по {@code /ws/live}) снимает его. Срок шага отсчитывается от времени
+ * события в сообщении: уведомление, пережившее рестарт, не начинает эскалацию заново.
+ * Просроченные к моменту появления шаги не повторяются — выполняется только последний из них.
+ *
+ * <h3>Колесо таймеров</h3>
+ * Все сроки лежат в одном {@link HashedTimerWheel}, который продвигает один worker в virtual
+ * thread каждые {@code escalation.tick-ms}: тысячи ожидающих эскалаций не создают задач
+ * планировщика, постановка и отмена — O(1).
+ *
+ * <h3>Адресаты</h3>
+ * Сотрудники ролей шага читаются из БД ({@link EscalationRecipientRepository}); сообщение
+ * уходит их сессиям через индекс сессий по пользователю {@link LiveWsHandler#sendToUser}
+ * и событием {@code TO_USER} в шину — сессиям на других узлах.
+ *
+ * <h3>Кластер</h3>
+ * Узлы {@code ws} эскалацию не ведут — они только публикуют подтверждения клиентов в шину
+ * ({@code ESCALATION_ACK}). Узлы приёма отслеживают все события (свои и из шины), но
+ * оповещения отправляет только первичный ({@link PollingCoordinator#isPrimary()}); при его
+ * уходе таймеры уже стоят на остальных узлах.
+ *
+ * <h3>Метрики</h3>
+ * <ul>
+ *   <li>{@code escalation.pending} — отслеживаемые события;</li>
+ *   <li>{@code escalation.fired{source}} — выполненные шаги;</li>
+ *   <li>{@code escalation.acknowledged{source}} — подтверждения до последнего шага;</li>
+ *   <li>{@code escalation.ack.delay{source}} — от события до подтверждения;</li>
+ *   <li>{@code escalation.failures} — шаги, не доставленные из-за ошибки.</li>
+ * </ul>
+ */
+@Component
+public class EscalationEngine implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(EscalationEngine.class);
+
+    private final ClusterPublisher clusterPublisher;
+    private final PollingCoordinator pollingCoordinator;
+    private final LiveWsHandler liveWsHandler;
+    private final EscalationRecipientRepository recipients;
+    private final PrintSrvTopologyRepository topologyRepo;
+    private final ObjectMapper objectMapper;
+    private final EscalationRules rules;
+    private final boolean enabled;
+    private final boolean active;
+    private final long tickMs;
+    private final HashedTimerWheel<Tracked> wheel;
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    /**
+     * {@code source:unitId} → отслеживаемое событие
+     */
+    private final Map<String, Tracked> pending = new ConcurrentHashMap<>();
+
+    private final Map<String, Counter> fired = new ConcurrentHashMap<>();
+    private final Map<String, Counter> acknowledged = new ConcurrentHashMap<>();
+    private final Map<String, Timer> ackDelay = new ConcurrentHashMap<>();
+    private final Counter failures;
+
+    private volatile Thread worker;
+
+    public EscalationEngine(
+            EscalationProperties properties,
+            EscalationRules rules,
+            ClusterNode node,
+            ClusterPublisher clusterPublisher,
+            PollingCoordinator pollingCoordinator,
+            LiveWsHandler liveWsHandler,
+            EscalationRecipientRepository recipients,
+            PrintSrvTopologyRepository topologyRepo,
+            ObjectMapper objectMapper,
+            MeterRegistry registry
+    ) {
+        this.clusterPublisher = clusterPublisher;
+        this.pollingCoordinator = pollingCoordinator;
+        this.liveWsHandler = liveWsHandler;
+        this.recipients = recipients;
+        this.topologyRepo = topologyRepo;
+        this.objectMapper = objectMapper;
+        this.rules = rules;
+        this.enabled = properties.isEnabled();
+        this.active = enabled && !node.isWs() && !rules.isEmpty();
+        this.tickMs = Math.max(1L, properties.getTickMs());
+        this.wheel = new HashedTimerWheel<>(TimeUnit.MILLISECONDS.toNanos(tickMs), properties.getWheelSize(),
+                System.nanoTime());
+
+        for (String source : List.of(EscalationProperties.SOURCE_ALERT, EscalationProperties.SOURCE_NOTIFICATION)) {
+            fired.put(source, Counter.builder("escalation.fired")
+                    .description("Escalation steps fired")
+                    .tag("source", source)
+                    .register(registry));
+            acknowledged.put(source, Counter.builder("escalation.acknowledged")
+                    .description("Events acknowledged before the last escalation step")
+                    .tag("source", source)
+                    .register(registry));
+            ackDelay.put(source, Timer.builder("escalation.ack.delay")
+                    .description("Time from event to acknowledgement")
+                    .tag("source", source)
+                    .publishPercentiles(0.5, 0.95, 0.99)
+                    .register(registry));
+        }
+        this.failures = Counter.builder("escalation.failures")
+                .description("Escalation steps not delivered because of an error")
+                .register(registry);
+        Gauge.builder("escalation.pending", pending, Map::size)
+                .description("Events tracked for escalation")
+                .register(registry);
+    }
+
+    // ─── Tracking ────────────────────────────────────────────────────────────
+
+    /**
+     * Ставит эскалацию появившихся алёртов и снимает устранённые.
+     */
+    public void onAlertDelta(ActiveAlertStore.@NonNull Delta delta) {
+        if (!active) {
+            return;
+        }
+        for (AlertMessageDTO added : delta.added()) {
+            track(EscalationProperties.SOURCE_ALERT, added.unitId(), added.workshopId(), added.unitName(),
+                    added.timestamp());
+        }
+        for (AlertMessageDTO removed : delta.removed()) {
+            untrack(key(EscalationProperties.SOURCE_ALERT, removed.unitId()));
+        }
+    }
+
+    /**
+     * Ставит эскалацию активированных уведомлений и снимает снятые.
+     */
+    public void onNotificationDelta(ActiveNotificationStore.@NonNull Delta delta) {
+        if (!active) {
+            return;
+        }
+        for (NotificationMessageDTO added : delta.added()) {
+            Long workshopId = topologyRepo.findByInstanceId(added.unitId())
+                    .map(PrintSrvInstance::workshopId)
+                    .orElse(null);
+            track(EscalationProperties.SOURCE_NOTIFICATION, added.unitId(), workshopId, added.unitName(),
+                    added.timestamp());
+        }
+        for (NotificationMessageDTO removed : delta.removed()) {
+            untrack(key(EscalationProperties.SOURCE_NOTIFICATION, removed.unitId()));
+        }
+    }
+
+    /**
+     * Подтверждение клиента этого узла: снимает эскалацию и сообщает остальным узлам.
+     */
+    @EventListener
+    public void onAcknowledged(EscalationAcknowledgedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        String key = key(event.source(), event.unitId());
+        clusterPublisher.publish(ClusterEvent.Kind.ESCALATION_ACK, key, null, null);
+        if (acknowledge(key)) {
+            log.info("Escalation acknowledged: {} unit='{}' by userId={}", event.source(), event.unitId(),
+                    event.userId());
+        }
+    }
+
+    /**
+     * Подтверждение, полученное другим узлом ({@code ESCALATION_ACK} из шины).
+     *
+     * @param key {@code source:unitId}
+     */
+    public void applyRemoteAcknowledgement(@Nullable String key) {
+        if (key != null) {
+            acknowledge(key);
+        }
+    }
+
+    // ─── Lifecycle ───────────────────────────────────────────────────────────
+
+    @Override
+    public void start() {
+        if (!running.compareAndSet(false, true)) {
+            return;
+        }
+        worker = Thread.ofVirtual().name("escalation-wheel").start(this::runLoop);
+        log.info("EscalationEngine started: rules={}, tick={}ms", rules.size(), tickMs);
+    }
+
+    @Override
+    public void stop() {
+        if (!running.compareAndSet(true, false)) {
+            return;
+        }
+        Thread current = worker;
+        if (current != null) {
+            current.interrupt();
+            worker = null;
+        }
+        log.info("EscalationEngine stopped, {} pending escalation(s) dropped", pending.size());
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running.get();
+    }
+
+    @Override
+    public boolean isAutoStartup() {
+        return active;
+    }
+
+    // ─── Private ─────────────────────────────────────────────────────────────
+
+    private void runLoop() {
+        while (running.get()) {
+            try {
+                Thread.sleep(tickMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            wheel.advance(System.nanoTime(), this::onExpired);
+        }
+    }
+
+    private void track(String source, String unitId, @Nullable Long workshopId, String unitName,
+                       @Nullable String since) {
+        EscalationRules.Rule rule = rules.match(source, workshopId, unitId);
+        if (rule == null) {
+            return;
+        }
+        long now = System.nanoTime();
+        long elapsed = elapsedSince(since);
+        Tracked tracked = new Tracked(key(source, unitId), source, unitId, workshopId, unitName, since,
+                now - elapsed, rule);
+        // Из уже просроченных шагов выполняется только последний
+        int overdue = 0;
+        while (overdue < rule.steps().size() && rule.steps().get(overdue).afterNanos() <= elapsed) {
+            overdue++;
+        }
+        Tracked previous = pending.put(tracked.key, tracked);
+        if (previous != null) {
+            wheel.cancel(previous.timeout);
+        }
+        schedule(tracked, Math.max(0, overdue - 1), now);
+    }
+
+    private void untrack(String key) {
+        Tracked tracked = pending.remove(key);
+        if (tracked != null) {
+            wheel.cancel(tracked.timeout);
+        }
+    }
+
+    private boolean acknowledge(String key) {
+        Tracked tracked = pending.remove(key);
+        if (tracked == null) {
+            return false;
+        }
+        wheel.cancel(tracked.timeout);
+        acknowledged.get(tracked.source).increment();
+        ackDelay.get(tracked.source).record(System.nanoTime() - tracked.activatedAtNanos, TimeUnit.NANOSECONDS);
+        return true;
+    }
+
+    private void schedule(Tracked tracked, int step, long now) {
+        tracked.step = step;
+        long delay = tracked.rule.steps().get(step).afterNanos() - (now - tracked.activatedAtNanos);
+        tracked.timeout = wheel.schedule(tracked, delay, now);
+    }
+
+    /**
+     * Срок шага: выполняет его и ставит следующий. Таймер снятого или заменённого события
+     * игнорируется — отмена могла не успеть до срабатывания.
+     */
+    private void onExpired(Tracked tracked) {
+        if (pending.get(tracked.key) != tracked) {
+            return;
+        }
+        int step = tracked.step;
+        if (pollingCoordinator.isPrimary()) {
+            escalate(tracked, step);
+        }
+        if (step + 1 < tracked.rule.steps().size()) {
+            schedule(tracked, step + 1, System.nanoTime());
+        } else {
+            pending.remove(tracked.key, tracked);
+        }
+    }
+
+    private void escalate(Tracked tracked, int step) {
+        EscalationRules.Step rule = tracked.rule.steps().get(step);
+        try {
+            long unacknowledged = TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - tracked.activatedAtNanos);
+            EscalationMessageDTO message = EscalationMessageDTO.of(tracked.source, tracked.workshopId,
+                    tracked.unitId, tracked.unitName, step + 1, tracked.since, unacknowledged,
+                    LocalDateTime.now(ZoneOffset.UTC).format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
+            String json = objectMapper.writeValueAsString(message);
+            Set<Long> userIds = recipients.findActiveUserIdsByRoles(rule.roles());
+            for (Long userId : userIds) {
+                clusterPublisher.publish(ClusterEvent.Kind.TO_USER, userId.toString(), message.type(), json);
+                liveWsHandler.sendToUser(userId, message.type(), json);
+            }
+            fired.get(tracked.source).increment();
+            log.info("Escalation: {} unit='{}' level={} unacknowledged {}s → roles={}, users={}",
+                    tracked.source, tracked.unitId, step + 1, unacknowledged, rule.roles(), userIds.size());
+        } catch (JsonProcessingException | RuntimeException e) {
+            failures.increment();
+            log.error("EscalationEngine: failed to escalate {} unit='{}' level={}",
+                    tracked.source, tracked.unitId, step + 1, e);
+        }
+    }
+
+    /**
+     * Сколько прошло от времени события (ISO-8601, UTC); без метки — ноль.
+     */
+    private static long elapsedSince(@Nullable String since) {
+        if (since == null) {
+            return 0L;
+        }
+        try {
+            Instant at = LocalDateTime.parse(since, DateTimeFormatter.ISO_LOCAL_DATE_TIME).toInstant(ZoneOffset.UTC);
+            return Math.max(0L, Duration.between(at, Instant.now()).toNanos());
+        } catch (DateTimeParseException | ArithmeticException e) {
+            return 0L;
+        }
+    }
+
+    private static String key(String source, String unitId) {
+        return source + ':' + unitId;
+    }
+
+    // ─── Model ───────────────────────────────────────────────────────────────
+
+    /**
+     * Отслеживаемое событие. {@code step} и {@code timeout} меняет поток, поставивший
+     * событие, и worker колеса.
+     */
+    private static final class Tracked {
+
+        final String key;
+        final String source;
+        final String unitId;
+        final @Nullable Long workshopId;
+        final String unitName;
+        final @Nullable String since;
+        final long activatedAtNanos;
+        final EscalationRules.Rule rule;
+        volatile int step;
+        volatile HashedTimerWheel.Timeout<Tracked> timeout;
+
+        Tracked(String key, String source, String unitId, @Nullable Long workshopId, String unitName,
+                @Nullable String since, long activatedAtNanos, EscalationRules.Rule rule) {
+            this.key = key;
+            this.source = source;
+            this.unitId = unitId;
+            this.workshopId = workshopId;
+            this.unitName = unitName;
+            this.since = since;
+            this.activatedAtNanos = activatedAtNanos;
+            this.rule = rule;
+        }
+    }
+}
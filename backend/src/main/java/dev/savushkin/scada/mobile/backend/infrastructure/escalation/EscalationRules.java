@@ -0,0 +1,98 @@
+package dev.savushkin.scada.mobile.backend.infrastructure.escalation;
+
+import dev.savushkin.scada.mobile.backend.config.EscalationProperties;
+import org.jspecify.annotations.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Правила эскалации из {@link EscalationProperties}, разобранные один раз при старте.
+ * <p>
+ * Общие для {@link EscalationEngine} (сроки и адресаты шагов) и
+ * {@link EscalationAcknowledgePolicy} (кто вправе подтвердить событие): правило события
+ * выбирается одинаково — самое конкретное из подходящих (аппарат, затем цех, затем общее),
+ * при равенстве — объявленное первым. Правила без шагов отбрасываются, шаги упорядочены по сроку.
+ */
+@Component
+public class EscalationRules {
+
+    private final List<Rule> rules;
+
+    public EscalationRules(EscalationProperties properties) {
+        this.rules = properties.getRules().stream()
+                .map(Rule::of)
+                .filter(rule -> !rule.steps().isEmpty())
+                .toList();
+    }
+
+    public boolean isEmpty() {
+        return rules.isEmpty();
+    }
+
+    public int size() {
+        return rules.size();
+    }
+
+    /**
+     * Правило события или {@code null}, если ни одно не подходит.
+     */
+    @Nullable Rule match(String source, @Nullable Long workshopId, String unitId) {
+        Rule best = null;
+        for (Rule rule : rules) {
+            if (rule.matches(source, workshopId, unitId)
+                    && (best == null || rule.specificity() > best.specificity())) {
+                best = rule;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Адресуется ли роль каким-либо шагом правила события.
+     */
+    public boolean isRecipientRole(@Nullable String role, String source, @Nullable Long workshopId,
+                                   String unitId) {
+        if (role == null) {
+            return false;
+        }
+        Rule rule = match(source, workshopId, unitId);
+        return rule != null && rule.steps().stream().anyMatch(step -> step.roles().contains(role));
+    }
+
+    // ─── Model ───────────────────────────────────────────────────────────────
+
+    /**
+     * Правило с шагами, упорядоченными по сроку.
+     */
+    record Rule(@Nullable String source, @Nullable Long workshopId, @Nullable String unitId,
+                List<Step> steps) {
+
+        static Rule of(EscalationProperties.Rule rule) {
+            List<Step> steps = rule.getSteps().stream()
+                    .filter(step -> step.getAfter() != null && !step.getRoles().isEmpty())
+                    .map(step -> new Step(step.getAfter().toNanos(), List.copyOf(step.getRoles())))
+                    .sorted(Comparator.comparingLong(Step::afterNanos))
+                    .toList();
+            return new Rule(blankToNull(rule.getSource()), rule.getWorkshopId(), blankToNull(rule.getUnitId()), steps);
+        }
+
+        boolean matches(String source, @Nullable Long workshopId, String unitId) {
+            return (this.source == null || this.source.equals(source))
+                    && (this.workshopId == null || this.workshopId.equals(workshopId))
+                    && (this.unitId == null || this.unitId.equals(unitId));
+        }
+
+        int specificity() {
+            return (unitId != null ? 2 : 0) + (workshopId != null ? 1 : 0);
+        }
+
+        private static @Nullable String blankToNull(@Nullable String value) {
+            return value == null || value.isBlank() ? null : value.trim();
+        }
+    }
+
+    record Step(long afterNanos, List<String> roles) {
+    }
+}
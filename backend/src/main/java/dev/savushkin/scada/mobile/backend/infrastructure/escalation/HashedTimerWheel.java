@@ -0,0 +1,193 @@
+package dev.savushkin.scada.mobile.backend.infrastructure.escalation;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Хешированное колесо таймеров: {@code wheelSize} корзин по {@code tickNanos}, в каждой —
+ * двусвязный список таймеров, срок которых попадает на эту корзину.
+ * <p>
+ * Постановка и отмена — O(1) независимо от числа ожидающих таймеров; один шаг колеса
+ * просматривает одну корзину. Таймер дальше одного оборота хранит число оставшихся
+ * оборотов ({@code rounds}) и срабатывает, когда оно дошло до нуля. Точность —
+ * один тик: таймер не срабатывает раньше срока и опаздывает не более чем на тик плюс
+ * задержку вызова {@link #advance}.
+ * <p>
+ * Колесо не владеет потоком: время продвигает вызывающий ({@link #advance}), поэтому оно
+ * проверяется без реальных задержек. Сработавшие задачи передаются обработчику вне
+ * блокировки — обработчик может ставить новые таймеры.
+ *
+ * @param <T> задача таймера
+ */
+public final class HashedTimerWheel<T> {
+
+    private final long tickNanos;
+    private final long startNanos;
+    private final int mask;
+    private final Timeout<T>[] buckets;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /**
+     * Следующий необработанный тик.
+     */
+    private long currentTick;
+    private int size;
+
+    /**
+     * @param tickNanos  длительность тика
+     * @param wheelSize  число корзин; округляется вверх до степени двойки
+     * @param startNanos момент нулевого тика ({@link System#nanoTime()})
+     */
+    @SuppressWarnings("unchecked")
+    public HashedTimerWheel(long tickNanos, int wheelSize, long startNanos) {
+        if (tickNanos <= 0 || wheelSize <= 0) {
+            throw new IllegalArgumentException("tickNanos and wheelSize must be positive");
+        }
+        int buckets = Integer.highestOneBit(Math.max(1, wheelSize - 1)) << 1;
+        this.tickNanos = tickNanos;
+        this.startNanos = startNanos;
+        this.mask = buckets - 1;
+        this.buckets = (Timeout<T>[]) new Timeout[buckets];
+    }
+
+    /**
+     * Ставит таймер.
+     *
+     * @param delayNanos задержка от {@code nowNanos}; неположительная — сработает на ближайшем шаге
+     * @return дескриптор для {@link #cancel}
+     */
+    public @NonNull Timeout<T> schedule(@NonNull T task, long delayNanos, long nowNanos) {
+        long deadlineTick = Math.ceilDiv(nowNanos + Math.max(0L, delayNanos) - startNanos, tickNanos);
+        Timeout<T> timeout = new Timeout<>(task);
+        lock.lock();
+        try {
+            long tick = Math.max(deadlineTick, currentTick);
+            timeout.rounds = (tick - currentTick) / buckets.length;
+            timeout.bucket = (int) (tick & mask);
+            link(timeout);
+            size++;
+        } finally {
+            lock.unlock();
+        }
+        return timeout;
+    }
+
+    /**
+     * Отменяет таймер, если он ещё не сработал.
+     *
+     * @return {@code true} — таймер снят до срабатывания
+     */
+    public boolean cancel(@Nullable Timeout<T> timeout) {
+        if (timeout == null) {
+            return false;
+        }
+        lock.lock();
+        try {
+            if (!timeout.pending) {
+                return false;
+            }
+            unlink(timeout);
+            size--;
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Обрабатывает все тики до {@code nowNanos} включительно и передаёт сработавшие задачи
+     * обработчику (в порядке тиков).
+     *
+     * @return число сработавших таймеров
+     */
+    public int advance(long nowNanos, @NonNull Consumer<? super T> expired) {
+        List<T> due = new ArrayList<>();
+        lock.lock();
+        try {
+            long targetTick = Math.floorDiv(nowNanos - startNanos, tickNanos);
+            while (currentTick <= targetTick) {
+                Timeout<T> timeout = buckets[(int) (currentTick & mask)];
+                while (timeout != null) {
+                    Timeout<T> next = timeout.next;
+                    if (timeout.rounds <= 0) {
+                        unlink(timeout);
+                        size--;
+                        due.add(timeout.task);
+                    } else {
+                        timeout.rounds--;
+                    }
+                    timeout = next;
+                }
+                currentTick++;
+            }
+        } finally {
+            lock.unlock();
+        }
+        due.forEach(expired);
+        return due.size();
+    }
+
+    /**
+     * Число ожидающих таймеров.
+     */
+    public int size() {
+        lock.lock();
+        try {
+            return size;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // ─── Private ─────────────────────────────────────────────────────────────
+
+    private void link(Timeout<T> timeout) {
+        Timeout<T> head = buckets[timeout.bucket];
+        timeout.next = head;
+        if (head != null) {
+            head.prev = timeout;
+        }
+        buckets[timeout.bucket] = timeout;
+        timeout.pending = true;
+    }
+
+    private void unlink(Timeout<T> timeout) {
+        if (timeout.prev != null) {
+            timeout.prev.next = timeout.next;
+        } else {
+            buckets[timeout.bucket] = timeout.next;
+        }
+        if (timeout.next != null) {
+            timeout.next.prev = timeout.prev;
+        }
+        timeout.prev = null;
+        timeout.next = null;
+        timeout.pending = false;
+    }
+
+    /**
+     * Поставленный таймер. Поля связей меняются только под блокировкой колеса.
+     */
+    public static final class Timeout<T> {
+
+        private final T task;
+        private long rounds;
+        private int bucket;
+        private Timeout<T> prev;
+        private Timeout<T> next;
+        private boolean pending;
+
+        private Timeout(T task) {
+            this.task = task;
+        }
+
+        public @NonNull T task() {
+            return task;
+        }
+    }
+}
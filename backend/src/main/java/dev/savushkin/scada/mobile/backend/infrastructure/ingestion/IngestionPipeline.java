@@ -0,0 +1,386 @@
+package dev.savushkin.scada.mobile.backend.infrastructure.ingestion;
+
+import dev.savushkin.scada.mobile.backend.application.ports.InstanceSnapshotRepository;
+import dev.savushkin.scada.mobile.backend.config.IngestionProperties;
+import dev.savushkin.scada.mobile.backend.domain.model.DeviceSnapshot;
+import dev.savushkin.scada.mobile.backend.infrastructure.integration.printsrv.PrintSrvMapper;
+import dev.savushkin.scada.mobile.backend.infrastructure.polling.PollingMetrics;
+import dev.savushkin.scada.mobile.backend.infrastructure.polling.PrintSrvInstancePolledEvent;
+import dev.savushkin.scada.mobile.backend.infrastructure.polling.PrintSrvInstancesPolledEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.jspecify.annotations.NonNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Общий downstream-конвейер приёма данных: партиции по {@code instanceId}, каждая со своей
+ * очередью и worker-ом в virtual thread, обрабатывающим записи пачками.
+ *
+ * <h3>Партиции</h3>
+ * Запись попадает в партицию {@code floorMod(instanceId.hashCode(), partitions)}: все записи
+ * аппарата обрабатываются одним worker-ом в порядке поступления, а разные аппараты —
+ * параллельно ({@code ingestion.pipeline.partitions}).
+ *
+ * <h3>Обработка пачки партиции</h3>
+ * <ol>
+ *   <li>{@code DEVICE_STATE}: {@link PrintSrvMapper} → {@link InstanceSnapshotRepository#save};</li>
+ *   <li>{@code INSTANCE_UNREACHABLE}: {@link InstanceSnapshotRepository#clearInstance};</li>
+ *   <li>одно {@link PrintSrvInstancesPolledEvent} на пачку: по одному обновлению на
+ *       затронутый аппарат, сколько бы его записей ни было в пачке, с самым ранним
+ *       {@code receivedAt} его данных. Рассылка в WS и обращения к БД слушателей
+ *       выполняются раз на аппарат за пачку, а не на каждое сообщение.</li>
+ * </ol>
+ *
+ * <h3>Back-pressure</h3>
+ * Общая ёмкость очередей — {@code ingestion.pipeline.queue-capacity} записей. {@link #accept}
+ * блокирует источник, пока место не освободится: TCP-опрос замедляется, журнал и Kafka
+ * перестают читать.
+ *
+ * <h3>Метрики</h3>
+ * <ul>
+ *   <li>{@code ingestion.records} — обработанные записи (kind);</li>
+ *   <li>{@code ingestion.partition.records} — обработанные записи по партициям (перекос нагрузки);</li>
+ *   <li>{@code ingestion.unit.updates} — обновления аппаратов после схлопывания записей пачки;</li>
+ *   <li>{@code ingestion.batch} / {@code ingestion.batch.records} — длительность и размер пачки;</li>
+ *   <li>{@code ingestion.queue.records} — записи в очереди и в обработке по партициям;</li>
+ *   <li>{@code ingestion.backpressure} — сколько раз источник ждал места в очереди;</li>
+ *   <li>{@code ingestion.lag} — от получения данных источником до сохранения снимка;</li>
+ *   <li>{@code ingestion.errors} — записи, не прошедшие обработку.</li>
+ * </ul>
+ */
+@Component
+public class IngestionPipeline implements IngestionSink {
+
+    private static final Logger log = LoggerFactory.getLogger(IngestionPipeline.class);
+
+    private static final double[] PERCENTILES = {0.5, 0.95, 0.99};
+
+    private final InstanceSnapshotRepository snapshotRepo;
+    private final PrintSrvMapper mapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PollingMetrics pollingMetrics;
+    private final int queueCapacity;
+    private final int maxBatchRecords;
+    private final Semaphore capacity;
+    private final AtomicLong inFlight = new AtomicLong();
+    private final Partition[] partitions;
+
+    private final Map<IngestionRecord.Kind, Counter> records = new EnumMap<>(IngestionRecord.Kind.class);
+    private final Counter unitUpdates;
+    private final Timer batchDuration;
+    private final DistributionSummary batchRecords;
+    private final Counter backpressure;
+    private final Timer lag;
+    private final Counter errors;
+
+    private volatile boolean running;
+
+    public IngestionPipeline(
+            InstanceSnapshotRepository snapshotRepo,
+            PrintSrvMapper mapper,
+            ApplicationEventPublisher eventPublisher,
+            PollingMetrics pollingMetrics,
+            IngestionProperties properties,
+            MeterRegistry registry
+    ) {
+        this.snapshotRepo = snapshotRepo;
+        this.mapper = mapper;
+        this.eventPublisher = eventPublisher;
+        this.pollingMetrics = pollingMetrics;
+        this.queueCapacity = Math.max(1, properties.getPipeline().getQueueCapacity());
+        this.maxBatchRecords = Math.max(1, properties.getPipeline().getMaxBatchRecords());
+        this.capacity = new Semaphore(queueCapacity);
+
+        this.partitions = new Partition[Math.max(1, properties.getPipeline().getPartitions())];
+        for (int i = 0; i < partitions.length; i++) {
+            partitions[i] = new Partition(i, registry);
+        }
+
+        for (IngestionRecord.Kind kind : IngestionRecord.Kind.values()) {
+            records.put(kind, Counter.builder("ingestion.records")
+                    .description("Ingested records")
+                    .tag("kind", kind.name())
+                    .register(registry));
+        }
+        this.unitUpdates = Counter.builder("ingestion.unit.updates")
+                .description("Unit updates published after coalescing a batch")
+                .register(registry);
+        this.batchDuration = Timer.builder("ingestion.batch")
+                .description("Processing of one ingestion batch")
+                .publishPercentiles(PERCENTILES)
+                .register(registry);
+        this.batchRecords = DistributionSummary.builder("ingestion.batch.records")
+                .description("Records per ingestion batch")
+                .register(registry);
+        this.backpressure = Counter.builder("ingestion.backpressure")
+                .description("Times a source waited for pipeline capacity")
+                .register(registry);
+        this.lag = Timer.builder("ingestion.lag")
+                .description("Time from source receipt to snapshot save")
+                .publishPercentiles(PERCENTILES)
+                .register(registry);
+        this.errors = Counter.builder("ingestion.errors")
+                .description("Records that failed processing")
+                .register(registry);
+    }
+
+    /**
+     * Раскладывает пачку по партициям с сохранением порядка внутри каждой.
+     *
+     * @return завершается, когда обработаны все части пачки
+     */
+    @Override
+    public @NonNull CompletableFuture<Void> accept(@NonNull List<IngestionRecord> batch) throws InterruptedException {
+        if (batch.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        int permits = Math.min(batch.size(), queueCapacity);
+        if (!capacity.tryAcquire(permits)) {
+            backpressure.increment();
+            capacity.acquire(permits);
+        }
+
+        Map<Partition, List<IngestionRecord>> byPartition = new LinkedHashMap<>();
+        for (IngestionRecord record : batch) {
+            byPartition.computeIfAbsent(partitionFor(record.instanceId()), p -> new ArrayList<>()).add(record);
+        }
+
+        // Разрешения распределяются по частям; пачка больше ёмкости держит ровно queueCapacity
+        int unassigned = permits;
+        List<CompletableFuture<Void>> futures = new ArrayList<>(byPartition.size());
+        for (Map.Entry<Partition, List<IngestionRecord>> entry : byPartition.entrySet()) {
+            List<IngestionRecord> part = entry.getValue();
+            int share = Math.min(part.size(), unassigned);
+            unassigned -= share;
+            Pending pending = new Pending(part, share, new CompletableFuture<>());
+            inFlight.addAndGet(part.size());
+            entry.getKey().enqueue(pending);
+            futures.add(pending.done());
+        }
+        return futures.size() == 1
+                ? futures.getFirst()
+                : CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new));
+    }
+
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        for (Partition partition : partitions) {
+            partition.start();
+        }
+        log.info("IngestionPipeline started: {} partition(s), capacity={} record(s), batch<={}",
+                partitions.length, queueCapacity, maxBatchRecords);
+    }
+
+    /**
+     * Останавливает worker-ы; необработанные пачки завершаются {@link CancellationException}.
+     */
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        for (Partition partition : partitions) {
+            partition.stop();
+        }
+        log.info("IngestionPipeline stopped");
+    }
+
+    /**
+     * Ждёт, пока очереди опустеют и текущие пачки будут обработаны.
+     *
+     * @return {@code true}, если дождались до таймаута
+     */
+    public boolean awaitDrained(long timeoutMs) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        while (inFlight.get() > 0) {
+            if (System.nanoTime() >= deadline) {
+                return false;
+            }
+            Thread.sleep(10);
+        }
+        return true;
+    }
+
+    // ─── Private ─────────────────────────────────────────────────────────────
+
+    private Partition partitionFor(String instanceId) {
+        return partitions[Math.floorMod(instanceId.hashCode(), partitions.length)];
+    }
+
+    private void process(Partition partition, List<Pending> batch) {
+        long startedAt = System.nanoTime();
+        // instanceId → самый ранний receivedAt новых данных; null — данных нет (аппарат недоступен)
+        Map<String, Instant> touched = new LinkedHashMap<>();
+        int size = 0;
+        for (Pending pending : batch) {
+            for (IngestionRecord record : pending.records()) {
+                try {
+                    apply(record, touched);
+                } catch (RuntimeException e) {
+                    errors.increment();
+                    log.warn("[{}] ingestion of {} '{}' failed: {}",
+                            record.instanceId(), record.kind(), record.device(), e.getMessage());
+                }
+            }
+            size += pending.records().size();
+        }
+
+        if (!touched.isEmpty()) {
+            List<PrintSrvInstancePolledEvent> updates = new ArrayList<>(touched.size());
+            long polledAtNanos = System.nanoTime();
+            touched.forEach((instanceId, receivedAt) ->
+                    updates.add(new PrintSrvInstancePolledEvent(instanceId, polledAtNanos, receivedAt)));
+            try {
+                eventPublisher.publishEvent(new PrintSrvInstancesPolledEvent(updates));
+            } catch (RuntimeException e) {
+                log.error("[partition {}] live update after ingestion failed: {}",
+                        partition.index(), e.getMessage(), e);
+            }
+            unitUpdates.increment(updates.size());
+        }
+
+        for (Pending pending : batch) {
+            release(partition, pending);
+            pending.done().complete(null);
+        }
+        partition.processed().increment(size);
+        batchDuration.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+        batchRecords.record(size);
+    }
+
+    private void apply(IngestionRecord record, Map<String, Instant> touched) {
+        String instanceId = record.instanceId();
+        records.get(record.kind()).increment();
+        switch (record.kind()) {
+            case DEVICE_STATE -> {
+                String device = record.device();
+                long mapStart = System.nanoTime();
+                DeviceSnapshot snapshot = mapper.toDomainDeviceSnapshot(record.response())
+                        .withReceivedAt(record.receivedAt());
+                pollingMetrics.forInstance(instanceId).device(device).recordMap(System.nanoTime() - mapStart);
+                snapshotRepo.save(instanceId, device, snapshot);
+                lag.record(Math.max(0L, System.currentTimeMillis() - record.receivedAt().toEpochMilli()),
+                        TimeUnit.MILLISECONDS);
+                Instant known = touched.get(instanceId);
+                if (known == null || record.receivedAt().isBefore(known)) {
+                    touched.put(instanceId, record.receivedAt());
+                }
+            }
+            case INSTANCE_UNREACHABLE -> {
+                snapshotRepo.clearInstance(instanceId);
+                touched.put(instanceId, null);
+            }
+        }
+    }
+
+    private void release(Partition partition, Pending pending) {
+        capacity.release(pending.permits());
+        inFlight.addAndGet(-pending.records().size());
+        partition.queued().addAndGet(-pending.records().size());
+    }
+
+    private record Pending(List<IngestionRecord> records, int permits, CompletableFuture<Void> done) {
+    }
+
+    /**
+     * Партиция конвейера: очередь и worker. Порядок записей аппарата сохраняется,
+     * потому что аппарат всегда попадает в одну партицию.
+     */
+    private final class Partition {
+
+        private final int index;
+        private final LinkedBlockingQueue<Pending> queue = new LinkedBlockingQueue<>();
+        private final AtomicLong queued = new AtomicLong();
+        private final Counter processed;
+        private volatile Thread worker;
+
+        private Partition(int index, MeterRegistry registry) {
+            this.index = index;
+            String tag = Integer.toString(index);
+            this.processed = Counter.builder("ingestion.partition.records")
+                    .description("Records processed by an ingestion pipeline partition")
+                    .tag("partition", tag)
+                    .register(registry);
+            Gauge.builder("ingestion.queue.records", queued, AtomicLong::get)
+                    .description("Records queued or being processed in an ingestion pipeline partition")
+                    .tag("partition", tag)
+                    .register(registry);
+        }
+
+        int index() {
+            return index;
+        }
+
+        AtomicLong queued() {
+            return queued;
+        }
+
+        Counter processed() {
+            return processed;
+        }
+
+        void enqueue(Pending pending) {
+            queued.addAndGet(pending.records().size());
+            queue.add(pending);
+        }
+
+        void start() {
+            worker = Thread.ofVirtual().name("ingestion-pipeline-" + index).start(this::runLoop);
+        }
+
+        void stop() {
+            Thread current = worker;
+            if (current != null) {
+                current.interrupt();
+                worker = null;
+            }
+            Pending pending;
+            while ((pending = queue.poll()) != null) {
+                release(this, pending);
+                pending.done().completeExceptionally(new CancellationException("Ingestion pipeline stopped"));
+            }
+        }
+
+        private void runLoop() {
+            while (running && !Thread.currentThread().isInterrupted()) {
+                List<Pending> batch = new ArrayList<>();
+                try {
+                    Pending first = queue.take();
+                    batch.add(first);
+                    int size = first.records().size();
+                    Pending next;
+                    while (size < maxBatchRecords && (next = queue.poll()) != null) {
+                        batch.add(next);
+                        size += next.records().size();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+                process(this, batch);
+            }
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package dev.savushkin.scada.mobile.backend.infrastructure.ingestion;
+
+import dev.savushkin.scada.mobile.backend.infrastructure.integration.printsrv.dto.QueryAllResponseDTO;
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+import java.time.Instant;
+
+/**
+ * Одна запись приёма данных: состояние устройства аппарата или потеря связи с аппаратом.
+ *
+ * <p>Формат общий для всех {@link IngestionSource}: TCP-опрос создаёт записи из ответов
+ * PrintSrv, журнал и Kafka — десериализуют их. Ключ партиционирования — {@link #instanceId()}:
+ * порядок записей одного аппарата сохраняется на всём пути.
+ *
+ * @param kind       вид записи
+ * @param instanceId идентификатор инстанса PrintSrv
+ * @param device     устройство; {@code null} для {@link Kind#INSTANCE_UNREACHABLE}
+ * @param receivedAt момент получения данных от источника
+ * @param response   ответ QueryAll; {@code null} для {@link Kind#INSTANCE_UNREACHABLE}
+ */
+public record IngestionRecord(
+        @NonNull Kind kind,
+        @NonNull String instanceId,
+        @Nullable String device,
+        @NonNull Instant receivedAt,
+        @Nullable QueryAllResponseDTO response
+) {
+
+    public enum Kind {
+        /**
+         * Полное состояние устройства (ответ QueryAll).
+         */
+        DEVICE_STATE,
+        /**
+         * Ни одно устройство аппарата не ответило: снимки аппарата очищаются.
+         */
+        INSTANCE_UNREACHABLE
+    }
+
+    public static @NonNull IngestionRecord deviceState(@NonNull String instanceId, @NonNull String device,
+                                                       @NonNull Instant receivedAt,
+                                                       @NonNull QueryAllResponseDTO response) {
+        return new IngestionRecord(Kind.DEVICE_STATE, instanceId, device, receivedAt, response);
+    }
+
+    public static @NonNull IngestionRecord unreachable(@NonNull String instanceId, @NonNull Instant at) {
+        return new IngestionRecord(Kind.INSTANCE_UNREACHABLE, instanceId, null, at, null);
+    }
+}
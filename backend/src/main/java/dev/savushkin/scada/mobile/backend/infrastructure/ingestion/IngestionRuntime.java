@@ -0,0 +1,132 @@
+package dev.savushkin.scada.mobile.backend.infrastructure.ingestion;
+
+import dev.savushkin.scada.mobile.backend.config.IngestionProperties;
+import dev.savushkin.scada.mobile.backend.infrastructure.cluster.ClusterNode;
+import dev.savushkin.scada.mobile.backend.infrastructure.startup.StartupMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Жизненный цикл приёма данных: запускает {@link IngestionPipeline} и активный
+ * {@link IngestionSource}, выбранный {@code ingestion.source}.
+ *
+ * <h3>Начальная загрузка при старте</h3>
+ * Runtime стартует фазой {@link #PHASE} — раньше встроенного веб-сервера Spring Boot.
+ * {@link #start()} ждёт первую полную порцию данных источника и её обработку конвейером,
+ * но не дольше {@code ingestion.initial-load-timeout-ms}: HTTP-порт открывается уже с
+ * заполненными снимками, а {@code /health/ready} не сообщает о готовности, пока начальная
+ * загрузка не завершена ({@link #isInitialLoadComplete()}). Время от старта JVM до этого
+ * момента пишется в {@link StartupMetrics}.
+ *
+ * <p>На WS-узле кластера ({@code cluster.role=ws}) приём данных не стартует: состояние
+ * приходит от лидера через шину кластера.
+ *
+ * <p>Неизвестное значение {@code ingestion.source} — ошибка старта приложения.
+ */
+@Component
+public class IngestionRuntime implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(IngestionRuntime.class);
+
+    /**
+     * Фаза lifecycle: раньше старта веб-сервера ({@code DEFAULT_PHASE - 2048}),
+     * чтобы порт открывался после начальной загрузки.
+     */
+    public static final int PHASE = SmartLifecycle.DEFAULT_PHASE - 4096;
+
+    private final IngestionPipeline pipeline;
+    private final IngestionSource source;
+    private final StartupMetrics startupMetrics;
+    private final ClusterNode clusterNode;
+    private final long initialLoadTimeoutMs;
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    public IngestionRuntime(
+            IngestionPipeline pipeline,
+            List<IngestionSource> sources,
+            IngestionProperties properties,
+            StartupMetrics startupMetrics,
+            ClusterNode clusterNode
+    ) {
+        this.pipeline = pipeline;
+        this.startupMetrics = startupMetrics;
+        this.clusterNode = clusterNode;
+        this.initialLoadTimeoutMs = properties.getInitialLoadTimeoutMs();
+        this.source = sources.stream()
+                .filter(candidate -> candidate.name().equals(properties.getSource()))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException(
+                        "Unknown ingestion.source='%s'. Available: %s".formatted(properties.getSource(),
+                                sources.stream().map(IngestionSource::name).toList())));
+    }
+
+    @Override
+    public void start() {
+        if (!running.compareAndSet(false, true)) {
+            return;
+        }
+        pipeline.start();
+        source.start(pipeline);
+        log.info("IngestionRuntime started: source='{}'", source.name());
+
+        long startedAt = System.nanoTime();
+        boolean complete = false;
+        try {
+            complete = initialLoadTimeoutMs <= 0
+                    || (source.awaitInitialLoad(initialLoadTimeoutMs)
+                    && pipeline.awaitDrained(remainingMs(startedAt)));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        startupMetrics.recordPhase("initial_load", System.nanoTime() - startedAt);
+        startupMetrics.markReady(source.name(), complete);
+    }
+
+    /**
+     * Завершена ли начальная загрузка активного источника.
+     */
+    public boolean isInitialLoadComplete() {
+        return source.isInitialLoadComplete();
+    }
+
+    /**
+     * Имя активного источника ({@code ingestion.source}).
+     */
+    public String getSourceName() {
+        return source.name();
+    }
+
+    @Override
+    public void stop() {
+        if (!running.compareAndSet(true, false)) {
+            return;
+        }
+        source.stop();
+        pipeline.stop();
+        log.info("IngestionRuntime stopped");
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running.get();
+    }
+
+    @Override
+    public boolean isAutoStartup() {
+        return !clusterNode.isWs();
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    private long remainingMs(long startedAt) {
+        return Math.max(0L, initialLoadTimeoutMs - (System.nanoTime() - startedAt) / 1_000_000);
+    }
+}
@@ -0,0 +1,25 @@
+package dev.savushkin.scada.mobile.backend.infrastructure.ingestion;
+
+import org.jspecify.annotations.NonNull;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Вход downstream-конвейера, в который {@link IngestionSource} отдаёт записи пачками.
+ */
+@FunctionalInterface
+public interface IngestionSink {
+
+    /**
+     * Ставит пачку в очередь обработки.
+     *
+     * <p>Блокирует вызывающий поток, пока в очереди нет места (back-pressure): источник
+     * читает не быстрее, чем конвейер обрабатывает.
+     *
+     * @param batch записи в порядке источника
+     * @return завершается после обработки всей пачки — момент, когда источник с
+     * подтверждением (журнал, Kafka) может фиксировать смещение
+     */
+    @NonNull CompletableFuture<Void> accept(@NonNull List<IngestionRecord> batch) throws InterruptedException;
+}
@@ -0,0 +1,42 @@
+package dev.savushkin.scada.mobile.backend.infrastructure.ingestion;
+
+import dev.savushkin.scada.mobile.backend.config.IngestionProperties;
+import org.jspecify.annotations.NonNull;
+
+/**
+ * Порт источника данных аппаратов.
+ *
+ * <p>Реализации:
+ * <ul>
+ *   <li>{@code polling} — TCP-опрос PrintSrv ({@code PrintSrvPollingRuntime});</li>
+ *   <li>{@code log} — встроенный партиционированный журнал на диске с consumer group
+ *       ({@code LogIngestionSource}).</li>
+ * </ul>
+ * Все источники пишут в один {@link IngestionSink} — {@link IngestionPipeline}; активный
+ * выбирается {@code ingestion.source} ({@link IngestionProperties}) и запускается
+ * {@link IngestionRuntime}. Бины остальных источников создаются, но не стартуют.
+ */
+public interface IngestionSource {
+
+    /**
+     * Значение {@code ingestion.source}, под которым источник выбирается.
+     */
+    @NonNull String name();
+
+    /**
+     * Начинает чтение и отдачу записей в {@code sink}. Не блокирует.
+     */
+    void start(@NonNull IngestionSink sink);
+
+    /**
+     * Ждёт, пока источник отдаст первую полную порцию данных: первый проход опроса
+     * всех аппаратов или чтение журнала до конца, зафиксированного при старте.
+     *
+     * @return {@code true}, если дождались до таймаута
+     */
+    boolean awaitInitialLoad(long timeoutMs) throws InterruptedException;
+
+    boolean isInitialLoadComplete();
+
+    void stop();
+}
@@ -0,0 +1,71 @@
+package dev.savushkin.scada.mobile.backend.infrastructure.ingestion.log;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.savushkin.scada.mobile.backend.infrastructure.ingestion.IngestionRecord;
+import dev.savushkin.scada.mobile.backend.infrastructure.integration.printsrv.QueryAllJson;
+import dev.savushkin.scada.mobile.backend.infrastructure.integration.printsrv.dto.QueryAllResponseDTO;
+import org.jspecify.annotations.NonNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+/**
+ * Бинарный формат {@link IngestionRecord} в {@link PartitionedLog}.
+ *
+ * <pre>
+ * long   receivedAt (epoch ms)
+ * byte   kind (ordinal)
+ * UTF    instanceId
+ * UTF    device ("" — нет)
+ * int    length + JSON ответа QueryAll (0 — нет)
+ * </pre>
+ * Ответ хранится тем же JSON, что присылает PrintSrv ({@link QueryAllJson}), поэтому чтение
+ * журнала проходит тот же путь десериализации, что и TCP-опрос.
+ */
+public final class IngestionRecordCodec {
+
+    private final ObjectMapper objectMapper;
+
+    public IngestionRecordCodec(@NonNull ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    public byte[] encode(@NonNull IngestionRecord record) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(1024);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeLong(record.receivedAt().toEpochMilli());
+            out.writeByte(record.kind().ordinal());
+            out.writeUTF(record.instanceId());
+            out.writeUTF(record.device() != null ? record.device() : "");
+            if (record.response() != null) {
+                byte[] json = QueryAllJson.encode(objectMapper, record.response()).getBytes(StandardCharsets.UTF_8);
+                out.writeInt(json.length);
+                out.write(json);
+            } else {
+                out.writeInt(0);
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    public @NonNull IngestionRecord decode(byte[] payload) throws IOException {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload))) {
+            Instant receivedAt = Instant.ofEpochMilli(in.readLong());
+            IngestionRecord.Kind kind = IngestionRecord.Kind.values()[in.readByte()];
+            String instanceId = in.readUTF();
+            String device = in.readUTF();
+            int length = in.readInt();
+            QueryAllResponseDTO response = null;
+            if (length > 0) {
+                byte[] json = in.readNBytes(length);
+                response = objectMapper.readValue(json, QueryAllResponseDTO.class);
+            }
+            return new IngestionRecord(kind, instanceId, device.isEmpty() ? null : device, receivedAt, response);
+        }
+    }
+}
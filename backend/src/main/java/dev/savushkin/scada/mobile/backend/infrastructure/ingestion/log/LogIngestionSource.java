@@ -0,0 +1,240 @@
+package dev.savushkin.scada.mobile.backend.infrastructure.ingestion.log;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.savushkin.scada.mobile.backend.config.IngestionProperties;
+import dev.savushkin.scada.mobile.backend.infrastructure.ingestion.IngestionRecord;
+import dev.savushkin.scada.mobile.backend.infrastructure.ingestion.IngestionSink;
+import dev.savushkin.scada.mobile.backend.infrastructure.ingestion.IngestionSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.jspecify.annotations.NonNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Источник {@code log}: читает {@link PartitionedLog} как consumer group
+ * ({@code ingestion.log.group-id}) — так же, как будет читать Kafka-адаптер.
+ *
+ * <h3>Чтение</h3>
+ * Один virtual thread на партицию: пачка до {@code max-poll-records} записей →
+ * {@link IngestionSink#accept} → ожидание обработки → фиксация смещения. Смещение
+ * фиксируется только после обработки пачки (at-least-once): после рестарта
+ * необработанная пачка прочитается повторно, а повтор снимка устройства безвреден.
+ *
+ * <p>Стартовое смещение партиции — зафиксированное группой; если его нет —
+ * по {@code auto-offset-reset} ({@code earliest} | {@code latest}).
+ * {@code replay-from-start=true} сбрасывает смещения группы и воспроизводит журнал целиком.
+ *
+ * <h3>Начальная загрузка</h3>
+ * Завершена, когда каждая партиция дочитана до конца, зафиксированного при старте.
+ *
+ * <h3>Метрики</h3>
+ * {@code ingestion.log.lag.bytes{partition}} — непрочитанный группой объём партиции.
+ */
+@Component
+public class LogIngestionSource implements IngestionSource {
+
+    private static final Logger log = LoggerFactory.getLogger(LogIngestionSource.class);
+
+    private final IngestionProperties.LogProperties properties;
+    private final IngestionRecordCodec codec;
+    private final MeterRegistry registry;
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    private volatile PartitionedLog partitionedLog;
+    private volatile ExecutorService executor;
+    private volatile AtomicLongArray positions = new AtomicLongArray(0);
+    private volatile CountDownLatch initialLoad = new CountDownLatch(1);
+
+    public LogIngestionSource(IngestionProperties properties, ObjectMapper objectMapper, MeterRegistry registry) {
+        this.properties = properties.getLog();
+        this.codec = new IngestionRecordCodec(objectMapper);
+        this.registry = registry;
+    }
+
+    @Override
+    public @NonNull String name() {
+        return IngestionProperties.SOURCE_LOG;
+    }
+
+    @Override
+    public void start(@NonNull IngestionSink sink) {
+        if (!running.compareAndSet(false, true)) {
+            return;
+        }
+        String group = properties.getGroupId();
+        try {
+            PartitionedLog opened = PartitionedLog.open(Path.of(properties.getDirectory()), properties.getPartitions());
+            if (properties.isReplayFromStart()) {
+                opened.resetGroup(group);
+            }
+            long[] committed = opened.committed(group);
+            boolean latest = "latest".equalsIgnoreCase(properties.getAutoOffsetReset());
+
+            int partitions = opened.partitions();
+            positions = new AtomicLongArray(partitions);
+            CountDownLatch caughtUp = new CountDownLatch(partitions);
+            initialLoad = caughtUp;
+            partitionedLog = opened;
+            executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("ingestion-log-", 0).factory());
+
+            for (int partition = 0; partition < partitions; partition++) {
+                long end = opened.endOffset(partition);
+                long from = committed[partition] >= 0 ? committed[partition] : (latest ? end : 0L);
+                positions.set(partition, from);
+                registerLagGauge(partition);
+                int p = partition;
+                executor.submit(() -> consume(opened, p, from, end, group, sink, caughtUp));
+            }
+            log.info("LogIngestionSource started: dir={}, partitions={}, group='{}'",
+                    opened.directory().toAbsolutePath(), partitions, group);
+        } catch (IOException e) {
+            running.set(false);
+            throw new UncheckedIOException("Cannot open ingestion log " + properties.getDirectory(), e);
+        }
+    }
+
+    @Override
+    public boolean awaitInitialLoad(long timeoutMs) throws InterruptedException {
+        CountDownLatch caughtUp = initialLoad;
+        if (caughtUp.await(timeoutMs, TimeUnit.MILLISECONDS)) {
+            return true;
+        }
+        log.warn("LogIngestionSource: {} partition(s) not caught up within {} ms; starting without them",
+                caughtUp.getCount(), timeoutMs);
+        return false;
+    }
+
+    @Override
+    public boolean isInitialLoadComplete() {
+        return initialLoad.getCount() == 0;
+    }
+
+    @Override
+    public void stop() {
+        if (!running.compareAndSet(true, false)) {
+            return;
+        }
+        ExecutorService currentExecutor = executor;
+        if (currentExecutor != null) {
+            currentExecutor.shutdownNow();
+            try {
+                currentExecutor.awaitTermination(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            executor = null;
+        }
+        PartitionedLog current = partitionedLog;
+        if (current != null) {
+            try {
+                current.close();
+            } catch (IOException e) {
+                log.warn("LogIngestionSource: close failed: {}", e.getMessage());
+            }
+            partitionedLog = null;
+        }
+        log.info("LogIngestionSource stopped");
+    }
+
+    // ─── Private ─────────────────────────────────────────────────────────────
+
+    private void consume(PartitionedLog source, int partition, long from, long end, String group,
+                         IngestionSink sink, CountDownLatch caughtUp) {
+        long position = from;
+        boolean initial = position < end;
+        if (!initial) {
+            caughtUp.countDown();
+        }
+        try {
+            while (running.get() && !Thread.currentThread().isInterrupted()) {
+                List<PartitionedLog.Entry> entries;
+                try {
+                    entries = source.read(partition, position, properties.getMaxPollRecords());
+                } catch (IOException e) {
+                    log.warn("[partition {}] log read failed at {}: {}", partition, position, e.getMessage());
+                    Thread.sleep(properties.getPollIntervalMs());
+                    continue;
+                }
+                if (entries.isEmpty()) {
+                    if (initial) {
+                        // конец партиции — недописанный хвост, дальше читать нечего
+                        initial = false;
+                        caughtUp.countDown();
+                    }
+                    Thread.sleep(properties.getPollIntervalMs());
+                    continue;
+                }
+
+                sink.accept(decode(partition, entries)).get();
+                position = entries.getLast().nextOffset();
+                source.commit(group, partition, position);
+                positions.set(partition, position);
+
+                if (initial && position >= end) {
+                    initial = false;
+                    caughtUp.countDown();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            log.warn("[partition {}] ingestion stopped at {}: {}", partition, position, e.getCause().getMessage());
+        } catch (IOException e) {
+            log.error("[partition {}] offset commit failed at {}: {}", partition, position, e.getMessage(), e);
+        } catch (RuntimeException e) {
+            log.error("[partition {}] log consumer failed at {}: {}", partition, position, e.getMessage(), e);
+        } finally {
+            if (initial) {
+                caughtUp.countDown();
+            }
+        }
+    }
+
+    private List<IngestionRecord> decode(int partition, List<PartitionedLog.Entry> entries) {
+        List<IngestionRecord> records = new ArrayList<>(entries.size());
+        for (PartitionedLog.Entry entry : entries) {
+            try {
+                records.add(codec.decode(entry.payload()));
+            } catch (IOException | RuntimeException e) {
+                log.warn("[partition {}] skipping undecodable record at {}: {}",
+                        partition, entry.offset(), e.getMessage());
+            }
+        }
+        return records;
+    }
+
+    private void registerLagGauge(int partition) {
+        Gauge.builder("ingestion.log.lag.bytes", this, source -> source.lagBytes(partition))
+                .description("Bytes of the ingestion log partition not yet consumed by the group")
+                .tag("partition", Integer.toString(partition))
+                .register(registry);
+    }
+
+    private double lagBytes(int partition) {
+        PartitionedLog current = partitionedLog;
+        AtomicLongArray consumed = positions;
+        if (current == null || partition >= consumed.length()) {
+            return Double.NaN;
+        }
+        try {
+            return Math.max(0L, current.endOffset(partition) - consumed.get(partition));
+        } catch (IOException e) {
+            return Double.NaN;
+        }
+    }
+}
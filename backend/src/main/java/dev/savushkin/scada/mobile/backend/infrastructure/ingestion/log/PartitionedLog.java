@@ -0,0 +1,308 @@
+package dev.savushkin.scada.mobile.backend.infrastructure.ingestion.log;
+
+import org.jspecify.annotations.NonNull;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Встроенный append-only журнал с партициями и смещениями consumer group — локальная
+ * замена Kafka-топиков для приёма данных, нагрузочных прогонов и воспроизведения без брокера.
+ *
+ * <h3>Формат на диске</h3>
+ * <pre>
+ * &lt;directory&gt;/meta.properties          — число партиций (фиксируется при создании)
+ * &lt;directory&gt;/partition-&lt;n&gt;.log          — записи [int length][payload]
+ * &lt;directory&gt;/groups/&lt;group&gt;.offsets     — зафиксированные смещения группы
+ * </pre>
+ * Смещение записи — её байтовая позиция в файле партиции; смещение группы — позиция
+ * следующей непрочитанной записи. Незаписанный до конца хвост (обрыв при записи)
+ * читателями не отдаётся, а при открытии журнала отрезается ({@link #truncateTornTail}):
+ * запись дописывается в конец файла, и без этого всё, что дописано после оборванной
+ * записи, было бы недостижимо для читателей.
+ *
+ * <h3>Конкурентность</h3>
+ * Запись в партицию — под её блокировкой; чтение позиционное и идёт параллельно записи.
+ * Писатель рассчитан один на журнал (один процесс), читателей — сколько угодно.
+ */
+public final class PartitionedLog implements Closeable {
+
+    private static final String META_FILE = "meta.properties";
+    private static final String GROUPS_DIR = "groups";
+    private static final int HEADER_BYTES = Integer.BYTES;
+
+    private final Path directory;
+    private final int partitions;
+    private final FileChannel[] channels;
+    private final ReentrantLock[] appendLocks;
+    private final Map<String, long[]> groupOffsets = new HashMap<>();
+
+    private PartitionedLog(Path directory, int partitions, FileChannel[] channels) {
+        this.directory = directory;
+        this.partitions = partitions;
+        this.channels = channels;
+        this.appendLocks = new ReentrantLock[partitions];
+        for (int i = 0; i < partitions; i++) {
+            appendLocks[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Открывает журнал, создавая его при отсутствии.
+     *
+     * @throws IllegalStateException если журнал уже создан с другим числом партиций
+     */
+    public static @NonNull PartitionedLog open(@NonNull Path directory, int partitions) throws IOException {
+        if (partitions < 1) {
+            throw new IllegalArgumentException("partitions must be >= 1: " + partitions);
+        }
+        Files.createDirectories(directory.resolve(GROUPS_DIR));
+        Path meta = directory.resolve(META_FILE);
+        Properties properties = new Properties();
+        if (Files.exists(meta)) {
+            try (InputStream in = Files.newInputStream(meta)) {
+                properties.load(in);
+            }
+            int existing = Integer.parseInt(properties.getProperty("partitions"));
+            if (existing != partitions) {
+                throw new IllegalStateException("Log %s has %d partition(s), requested %d"
+                        .formatted(directory, existing, partitions));
+            }
+        } else {
+            properties.setProperty("partitions", Integer.toString(partitions));
+            writeAtomically(meta, properties);
+        }
+
+        FileChannel[] channels = new FileChannel[partitions];
+        for (int i = 0; i < partitions; i++) {
+            channels[i] = FileChannel.open(directory.resolve("partition-" + i + ".log"),
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            truncateTornTail(channels[i]);
+        }
+        return new PartitionedLog(directory, partitions, channels);
+    }
+
+    public int partitions() {
+        return partitions;
+    }
+
+    public @NonNull Path directory() {
+        return directory;
+    }
+
+    /**
+     * Партиция ключа: записи с одним ключом всегда попадают в одну партицию и читаются по порядку.
+     */
+    public int partitionFor(@NonNull String key) {
+        return Math.floorMod(key.hashCode(), partitions);
+    }
+
+    /**
+     * Дописывает запись в партицию ключа.
+     *
+     * @return смещение записи
+     */
+    public long append(@NonNull String key, byte[] payload) throws IOException {
+        int partition = partitionFor(key);
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + payload.length)
+                .putInt(payload.length)
+                .put(payload)
+                .flip();
+        ReentrantLock lock = appendLocks[partition];
+        lock.lock();
+        try {
+            FileChannel channel = channels[partition];
+            long offset = channel.size();
+            long position = offset;
+            while (buffer.hasRemaining()) {
+                position += channel.write(buffer, position);
+            }
+            return offset;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Смещение, следующее за последней полностью записанной записью партиции.
+     */
+    public long endOffset(int partition) throws IOException {
+        return channels[partition].size();
+    }
+
+    /**
+     * Читает до {@code maxRecords} записей партиции начиная со смещения {@code from}.
+     */
+    public @NonNull List<Entry> read(int partition, long from, int maxRecords) throws IOException {
+        FileChannel channel = channels[partition];
+        long end = channel.size();
+        List<Entry> entries = new ArrayList<>();
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        long position = from;
+        while (entries.size() < maxRecords && position + HEADER_BYTES <= end) {
+            header.clear();
+            readFully(channel, header, position);
+            int length = header.flip().getInt();
+            long next = position + HEADER_BYTES + length;
+            if (length < 0 || next > end) {
+                break;
+            }
+            ByteBuffer payload = ByteBuffer.allocate(length);
+            readFully(channel, payload, position + HEADER_BYTES);
+            entries.add(new Entry(position, next, payload.array()));
+            position = next;
+        }
+        return entries;
+    }
+
+    /**
+     * Зафиксированные смещения группы по партициям; {@code -1} — группа партицию ещё не читала.
+     */
+    public synchronized long[] committed(@NonNull String group) throws IOException {
+        return groupOffsets(group).clone();
+    }
+
+    /**
+     * Фиксирует смещение группы: следующее чтение партиции после рестарта начнётся с него.
+     */
+    public synchronized void commit(@NonNull String group, int partition, long offset) throws IOException {
+        long[] offsets = groupOffsets(group);
+        offsets[partition] = offset;
+        writeGroup(group, offsets);
+    }
+
+    /**
+     * Забывает смещения группы: она снова прочитает журнал с начала (или конца — по политике читателя).
+     */
+    public synchronized void resetGroup(@NonNull String group) throws IOException {
+        long[] offsets = new long[partitions];
+        Arrays.fill(offsets, -1L);
+        groupOffsets.put(group, offsets);
+        Files.deleteIfExists(groupFile(group));
+    }
+
+    @Override
+    public void close() throws IOException {
+        IOException failure = null;
+        for (FileChannel channel : channels) {
+            if (!channel.isOpen()) {
+                // канал закрыт прерыванием читающего потока при остановке
+                continue;
+            }
+            try {
+                channel.force(false);
+                channel.close();
+            } catch (IOException e) {
+                failure = e;
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    // ─── Private ─────────────────────────────────────────────────────────────
+
+    private long[] groupOffsets(String group) throws IOException {
+        long[] cached = groupOffsets.get(group);
+        if (cached != null) {
+            return cached;
+        }
+        long[] offsets = new long[partitions];
+        Arrays.fill(offsets, -1L);
+        Path file = groupFile(group);
+        if (Files.exists(file)) {
+            Properties properties = new Properties();
+            try (InputStream in = Files.newInputStream(file)) {
+                properties.load(in);
+            }
+            for (int i = 0; i < partitions; i++) {
+                offsets[i] = Long.parseLong(properties.getProperty("partition." + i, "-1"));
+            }
+        }
+        groupOffsets.put(group, offsets);
+        return offsets;
+    }
+
+    private void writeGroup(String group, long[] offsets) throws IOException {
+        Properties properties = new Properties();
+        for (int i = 0; i < partitions; i++) {
+            properties.setProperty("partition." + i, Long.toString(offsets[i]));
+        }
+        writeAtomically(groupFile(group), properties);
+    }
+
+    private Path groupFile(String group) {
+        return directory.resolve(GROUPS_DIR).resolve(group + ".offsets");
+    }
+
+    private static void writeAtomically(Path target, Properties properties) throws IOException {
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        try (OutputStream out = Files.newOutputStream(temp)) {
+            properties.store(out, null);
+        }
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Обрезает партицию до конца последней полной записи — хвост, оборванный падением
+     * процесса посреди {@link #append}. Читаются только заголовки записей.
+     *
+     * @return число отрезанных байт
+     */
+    static long truncateTornTail(FileChannel channel) throws IOException {
+        long size = channel.size();
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        long position = 0;
+        while (position + HEADER_BYTES <= size) {
+            header.clear();
+            readFully(channel, header, position);
+            int length = header.flip().getInt();
+            long next = position + HEADER_BYTES + length;
+            if (length < 0 || next > size) {
+                break;
+            }
+            position = next;
+        }
+        if (position < size) {
+            channel.truncate(position);
+            channel.force(true);
+        }
+        return size - position;
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + buffer.position());
+            if (read < 0) {
+                throw new EOFException("Unexpected end of partition at " + position);
+            }
+        }
+    }
+
+    /**
+     * Запись журнала.
+     *
+     * @param offset     смещение записи
+     * @param nextOffset смещение следующей записи — его и фиксирует группа после обработки
+     * @param payload    тело записи
+     */
+    public record Entry(long offset, long nextOffset, byte[] payload) {
+    }
+}
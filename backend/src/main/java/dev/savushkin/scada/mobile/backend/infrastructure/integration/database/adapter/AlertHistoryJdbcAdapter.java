@@ -0,0 +1,206 @@
+package dev.savushkin.scada.mobile.backend.infrastructure.integration.database.adapter;
+
+import dev.savushkin.scada.mobile.backend.application.ports.AlertHistoryRepository;
+import dev.savushkin.scada.mobile.backend.domain.model.AlertIncident;
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JDBC-адаптер порта {@link AlertHistoryRepository}.
+ * <p>
+ * Таблица {@code alert_history} партиционирована по {@code started_at} (месяц),
+ * поэтому все запросы содержат диапазон по {@code started_at} — PostgreSQL
+ * отсекает лишние партиции ещё на этапе планирования.
+ * <p>
+ * Списки листаются по ключу {@code (started_at, alert_id)}: условие строго «после курсора»
+ * и {@code LIMIT} на одну строку больше страницы — лишняя строка только сообщает, что есть
+ * следующая страница. Ни {@code COUNT(*)}, ни {@code OFFSET} — глубина страницы не влияет
+ * на стоимость запроса, индексы по {@code (instance_id, started_at)} и
+ * {@code (workshop_id, started_at)} читаются с позиции курсора.
+ * <p>
+ * JPA здесь не используется намеренно: запись идёт пачками через
+ * {@link NamedParameterJdbcTemplate#batchUpdate}, а Hibernate не умеет
+ * батчить INSERT при генерации ключа на стороне БД.
+ */
+@Component
+public class AlertHistoryJdbcAdapter implements AlertHistoryRepository {
+
+    private static final String INSERT_SQL = """
+            INSERT INTO alert_history
+                (instance_id, workshop_id, unit_name, severity, errors, started_at, resolved_at)
+            VALUES
+                (:instanceId, :workshopId, :unitName, :severity, :errors, :startedAt, :resolvedAt)
+            """;
+
+    private static final String SELECT_COLUMNS = """
+            SELECT alert_id, instance_id, workshop_id, unit_name, severity, errors, started_at, resolved_at
+            FROM alert_history
+            """;
+
+    /**
+     * Длительность пересечения инцидента с диапазоном [from, to) в секундах.
+     */
+    private static final String OVERLAP_SECONDS =
+            "EXTRACT(EPOCH FROM (LEAST(resolved_at, :to) - GREATEST(started_at, :from)))";
+
+    private static final RowMapper<AlertIncident> ROW_MAPPER = (rs, rowNum) -> new AlertIncident(
+            rs.getLong("alert_id"),
+            rs.getString("instance_id"),
+            rs.getLong("workshop_id"),
+            rs.getString("unit_name"),
+            rs.getString("severity"),
+            rs.getString("errors"),
+            rs.getTimestamp("started_at").toLocalDateTime(),
+            rs.getTimestamp("resolved_at").toLocalDateTime()
+    );
+
+    private final NamedParameterJdbcTemplate jdbc;
+
+    public AlertHistoryJdbcAdapter(NamedParameterJdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    @Override
+    @Transactional
+    public void appendAll(@NonNull List<AlertIncident> incidents) {
+        if (incidents.isEmpty()) {
+            return;
+        }
+        SqlParameterSource[] batch = new SqlParameterSource[incidents.size()];
+        for (int i = 0; i < incidents.size(); i++) {
+            AlertIncident incident = incidents.get(i);
+            batch[i] = new MapSqlParameterSource()
+                    .addValue("instanceId", incident.instanceId())
+                    .addValue("workshopId", incident.workshopId())
+                    .addValue("unitName", incident.unitName())
+                    .addValue("severity", incident.severity())
+                    .addValue("errors", incident.errors())
+                    .addValue("startedAt", Timestamp.valueOf(incident.startedAt()))
+                    .addValue("resolvedAt", Timestamp.valueOf(incident.resolvedAt()));
+        }
+        jdbc.batchUpdate(INSERT_SQL, batch);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public @NonNull IncidentPage findByInstance(
+            @NonNull String instanceId,
+            @NonNull LocalDateTime from,
+            @NonNull LocalDateTime to,
+            @Nullable Cursor after,
+            int limit
+    ) {
+        MapSqlParameterSource params = rangeParams(from, to).addValue("instanceId", instanceId);
+        String where = " WHERE instance_id = :instanceId AND started_at >= :from AND started_at < :to";
+        return queryPage(where, params, after, limit);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public @NonNull IncidentPage findByWorkshop(
+            long workshopId,
+            @NonNull LocalDateTime from,
+            @NonNull LocalDateTime to,
+            @Nullable Cursor after,
+            int limit
+    ) {
+        MapSqlParameterSource params = rangeParams(from, to).addValue("workshopId", workshopId);
+        String where = " WHERE workshop_id = :workshopId AND started_at >= :from AND started_at < :to";
+        return queryPage(where, params, after, limit);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public @NonNull Map<String, DowntimeTotal> sumDowntimeByWorkshop(
+            long workshopId,
+            @NonNull LocalDateTime lookbackStart,
+            @NonNull LocalDateTime from,
+            @NonNull LocalDateTime to
+    ) {
+        MapSqlParameterSource params = rangeParams(from, to)
+                .addValue("workshopId", workshopId)
+                .addValue("lookbackStart", Timestamp.valueOf(lookbackStart));
+        String sql = "SELECT instance_id, COUNT(*) AS incidents, COALESCE(SUM(" + OVERLAP_SECONDS + "), 0) AS seconds"
+                + " FROM alert_history"
+                + " WHERE workshop_id = :workshopId"
+                + " AND started_at >= :lookbackStart AND started_at < :to AND resolved_at > :from"
+                + " GROUP BY instance_id ORDER BY instance_id";
+
+        Map<String, DowntimeTotal> result = new LinkedHashMap<>();
+        jdbc.query(sql, params, rs -> {
+            result.put(rs.getString("instance_id"),
+                    new DowntimeTotal(rs.getLong("incidents"), Math.round(rs.getDouble("seconds"))));
+        });
+        return result;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public @NonNull DowntimeTotal sumDowntimeByInstance(
+            @NonNull String instanceId,
+            @NonNull LocalDateTime lookbackStart,
+            @NonNull LocalDateTime from,
+            @NonNull LocalDateTime to
+    ) {
+        MapSqlParameterSource params = rangeParams(from, to)
+                .addValue("instanceId", instanceId)
+                .addValue("lookbackStart", Timestamp.valueOf(lookbackStart));
+        String sql = "SELECT COUNT(*) AS incidents, COALESCE(SUM(" + OVERLAP_SECONDS + "), 0) AS seconds"
+                + " FROM alert_history"
+                + " WHERE instance_id = :instanceId"
+                + " AND started_at >= :lookbackStart AND started_at < :to AND resolved_at > :from";
+
+        DowntimeTotal total = jdbc.queryForObject(sql, params, (rs, rowNum) ->
+                new DowntimeTotal(rs.getLong("incidents"), Math.round(rs.getDouble("seconds"))));
+        return total != null ? total : DowntimeTotal.EMPTY;
+    }
+
+    @Override
+    @Transactional
+    public void ensurePartition(@NonNull LocalDate monthStart) {
+        jdbc.query("SELECT ensure_alert_history_partition(:monthStart)",
+                new MapSqlParameterSource("monthStart", java.sql.Date.valueOf(monthStart)),
+                rs -> {
+                });
+    }
+
+    // ─── Private helpers ───────────────────────────────────────────────────
+
+    private IncidentPage queryPage(String where, MapSqlParameterSource params, @Nullable Cursor after, int limit) {
+        StringBuilder sql = new StringBuilder(SELECT_COLUMNS).append(where);
+        if (after != null) {
+            sql.append(" AND (started_at, alert_id) < (:afterStartedAt, :afterId)");
+            params.addValue("afterStartedAt", Timestamp.valueOf(after.startedAt()))
+                    .addValue("afterId", after.id());
+        }
+        sql.append(" ORDER BY started_at DESC, alert_id DESC LIMIT :limit");
+        params.addValue("limit", limit + 1);
+
+        List<AlertIncident> rows = jdbc.query(sql.toString(), params, ROW_MAPPER);
+        if (rows.size() <= limit) {
+            return new IncidentPage(rows, null);
+        }
+        List<AlertIncident> items = rows.subList(0, limit);
+        AlertIncident last = items.get(limit - 1);
+        return new IncidentPage(List.copyOf(items), new Cursor(last.startedAt(), last.id()));
+    }
+
+    private static MapSqlParameterSource rangeParams(LocalDateTime from, LocalDateTime to) {
+        return new MapSqlParameterSource()
+                .addValue("from", Timestamp.valueOf(from))
+                .addValue("to", Timestamp.valueOf(to));
+    }
+}
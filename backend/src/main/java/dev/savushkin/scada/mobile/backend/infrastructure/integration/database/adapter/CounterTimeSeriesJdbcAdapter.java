@@ -0,0 +1,235 @@
+package dev.savushkin.scada.mobile.backend.infrastructure.integration.database.adapter;
+
+import dev.savushkin.scada.mobile.backend.application.ports.CounterTimeSeriesRepository;
+import dev.savushkin.scada.mobile.backend.domain.model.CounterRollup;
+import dev.savushkin.scada.mobile.backend.domain.model.CounterSample;
+import dev.savushkin.scada.mobile.backend.domain.model.CounterSeries;
+import dev.savushkin.scada.mobile.backend.domain.model.RollupResolution;
+import org.jspecify.annotations.NonNull;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * JDBC-адаптер порта {@link CounterTimeSeriesRepository}.
+ * <p>
+ * Строки {@code counter_samples} / {@code counter_rollups} ссылаются на ряд по
+ * целочисленному {@code series_id}; соответствие {@link CounterSeries} → id
+ * кэшируется в памяти (рядов — единицы сотен, и они не удаляются), так что
+ * запись пачки — это только два batch-запроса.
+ * <p>
+ * Агрегаты сливаются upsert-ом с теми же правилами, что и {@link CounterRollup#merge}:
+ * в выражениях {@code DO UPDATE SET} ссылка на {@code counter_rollups} — это
+ * значения строки <b>до</b> обновления.
+ */
+@Component
+public class CounterTimeSeriesJdbcAdapter implements CounterTimeSeriesRepository {
+
+    private static final String INSERT_SERIES_SQL = """
+            INSERT INTO counter_series (instance_id, device, metric)
+            VALUES (:instanceId, :device, :metric)
+            ON CONFLICT (instance_id, device, metric) DO NOTHING
+            """;
+
+    private static final String SELECT_SERIES_SQL = """
+            SELECT series_id FROM counter_series
+            WHERE instance_id = :instanceId AND device = :device AND metric = :metric
+            """;
+
+    private static final String INSERT_SAMPLE_SQL = """
+            INSERT INTO counter_samples (series_id, sampled_at, value)
+            VALUES (:seriesId, :sampledAt, :value)
+            """;
+
+    private static final String UPSERT_ROLLUP_SQL = """
+            INSERT INTO counter_rollups
+                (series_id, resolution_seconds, bucket_start, first_at, first_value,
+                 last_at, last_value, min_value, max_value, samples)
+            VALUES
+                (:seriesId, :resolution, :bucketStart, :firstAt, :firstValue,
+                 :lastAt, :lastValue, :minValue, :maxValue, :samples)
+            ON CONFLICT (series_id, resolution_seconds, bucket_start) DO UPDATE SET
+                first_at    = LEAST(counter_rollups.first_at, EXCLUDED.first_at),
+                first_value = CASE WHEN EXCLUDED.first_at < counter_rollups.first_at
+                                   THEN EXCLUDED.first_value ELSE counter_rollups.first_value END,
+                last_at     = GREATEST(counter_rollups.last_at, EXCLUDED.last_at),
+                last_value  = CASE WHEN EXCLUDED.last_at >= counter_rollups.last_at
+                                   THEN EXCLUDED.last_value ELSE counter_rollups.last_value END,
+                min_value   = LEAST(counter_rollups.min_value, EXCLUDED.min_value),
+                max_value   = GREATEST(counter_rollups.max_value, EXCLUDED.max_value),
+                samples     = counter_rollups.samples + EXCLUDED.samples
+            """;
+
+    private static final String SELECT_ROLLUPS_SQL = """
+            SELECT r.bucket_start, r.first_at, r.first_value, r.last_at, r.last_value,
+                   r.min_value, r.max_value, r.samples
+            FROM counter_rollups r
+            JOIN counter_series s ON s.series_id = r.series_id
+            WHERE s.instance_id = :instanceId AND s.device = :device AND s.metric = :metric
+              AND r.resolution_seconds = :resolution
+              AND r.bucket_start >= :from AND r.bucket_start < :to
+            ORDER BY r.bucket_start
+            """;
+
+    /**
+     * Удаление ограниченной пачкой: длинный DELETE по всей истории держал бы блокировки
+     * и раздувал WAL одной транзакцией.
+     */
+    private static final String DELETE_SAMPLES_SQL = """
+            DELETE FROM counter_samples
+            WHERE ctid IN (SELECT ctid FROM counter_samples WHERE sampled_at < :cutoff LIMIT :limit)
+            """;
+
+    private static final String DELETE_ROLLUPS_SQL = """
+            DELETE FROM counter_rollups
+            WHERE ctid IN (SELECT ctid FROM counter_rollups
+                           WHERE resolution_seconds = :resolution AND bucket_start < :cutoff
+                           LIMIT :limit)
+            """;
+
+    private final NamedParameterJdbcTemplate jdbc;
+    private final ConcurrentHashMap<CounterSeries, Integer> seriesIds = new ConcurrentHashMap<>();
+
+    public CounterTimeSeriesJdbcAdapter(NamedParameterJdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    @Override
+    @Transactional
+    public void appendBatch(@NonNull List<CounterSample> samples, @NonNull List<CounterRollup> rollups) {
+        Map<CounterSeries, Integer> created = new HashMap<>();
+        if (!samples.isEmpty()) {
+            SqlParameterSource[] batch = new SqlParameterSource[samples.size()];
+            for (int i = 0; i < samples.size(); i++) {
+                CounterSample sample = samples.get(i);
+                batch[i] = new MapSqlParameterSource()
+                        .addValue("seriesId", seriesId(sample.series(), created))
+                        .addValue("sampledAt", Timestamp.valueOf(sample.sampledAt()))
+                        .addValue("value", sample.value());
+            }
+            jdbc.batchUpdate(INSERT_SAMPLE_SQL, batch);
+        }
+
+        if (!rollups.isEmpty()) {
+            SqlParameterSource[] batch = new SqlParameterSource[rollups.size()];
+            for (int i = 0; i < rollups.size(); i++) {
+                CounterRollup rollup = rollups.get(i);
+                batch[i] = new MapSqlParameterSource()
+                        .addValue("seriesId", seriesId(rollup.series(), created))
+                        .addValue("resolution", rollup.resolution().seconds())
+                        .addValue("bucketStart", Timestamp.valueOf(rollup.bucketStart()))
+                        .addValue("firstAt", Timestamp.valueOf(rollup.firstAt()))
+                        .addValue("firstValue", rollup.firstValue())
+                        .addValue("lastAt", Timestamp.valueOf(rollup.lastAt()))
+                        .addValue("lastValue", rollup.lastValue())
+                        .addValue("minValue", rollup.minValue())
+                        .addValue("maxValue", rollup.maxValue())
+                        .addValue("samples", rollup.samples());
+            }
+            jdbc.batchUpdate(UPSERT_ROLLUP_SQL, batch);
+        }
+        cacheAfterCommit(created);
+    }
+
+    @Override
+    public @NonNull List<CounterRollup> findRollups(
+            @NonNull CounterSeries series,
+            @NonNull RollupResolution resolution,
+            @NonNull LocalDateTime from,
+            @NonNull LocalDateTime to
+    ) {
+        MapSqlParameterSource params = seriesParams(series)
+                .addValue("resolution", resolution.seconds())
+                .addValue("from", Timestamp.valueOf(from))
+                .addValue("to", Timestamp.valueOf(to));
+        return jdbc.query(SELECT_ROLLUPS_SQL, params, (rs, rowNum) -> new CounterRollup(
+                series,
+                resolution,
+                rs.getTimestamp("bucket_start").toLocalDateTime(),
+                rs.getTimestamp("first_at").toLocalDateTime(),
+                rs.getDouble("first_value"),
+                rs.getTimestamp("last_at").toLocalDateTime(),
+                rs.getDouble("last_value"),
+                rs.getDouble("min_value"),
+                rs.getDouble("max_value"),
+                rs.getInt("samples")
+        ));
+    }
+
+    @Override
+    @Transactional
+    public int deleteSamplesBefore(@NonNull LocalDateTime cutoff, int limit) {
+        return jdbc.update(DELETE_SAMPLES_SQL, new MapSqlParameterSource()
+                .addValue("cutoff", Timestamp.valueOf(cutoff))
+                .addValue("limit", limit));
+    }
+
+    @Override
+    @Transactional
+    public int deleteRollupsBefore(@NonNull RollupResolution resolution, @NonNull LocalDateTime cutoff, int limit) {
+        return jdbc.update(DELETE_ROLLUPS_SQL, new MapSqlParameterSource()
+                .addValue("resolution", resolution.seconds())
+                .addValue("cutoff", Timestamp.valueOf(cutoff))
+                .addValue("limit", limit));
+    }
+
+    // ─── Private ─────────────────────────────────────────────────────────────
+
+    /**
+     * Возвращает id ряда, создавая ряд при первом обращении.
+     * <p>
+     * Новые id сначала складываются в {@code created} и попадают в общий кэш только
+     * после коммита: id ряда из откатившейся транзакции в кэше оказаться не должен.
+     */
+    private int seriesId(CounterSeries series, Map<CounterSeries, Integer> created) {
+        Integer cached = seriesIds.get(series);
+        if (cached == null) {
+            cached = created.get(series);
+        }
+        if (cached != null) {
+            return cached;
+        }
+        MapSqlParameterSource params = seriesParams(series);
+        jdbc.update(INSERT_SERIES_SQL, params);
+        Integer id = jdbc.queryForObject(SELECT_SERIES_SQL, params, Integer.class);
+        if (id == null) {
+            throw new IllegalStateException("Counter series not found after insert: " + series);
+        }
+        created.put(series, id);
+        return id;
+    }
+
+    private void cacheAfterCommit(Map<CounterSeries, Integer> created) {
+        if (created.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            seriesIds.putAll(created);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                seriesIds.putAll(created);
+            }
+        });
+    }
+
+    private static MapSqlParameterSource seriesParams(CounterSeries series) {
+        return new MapSqlParameterSource()
+                .addValue("instanceId", series.instanceId())
+                .addValue("device", series.device())
+                .addValue("metric", series.metric().name());
+    }
+}
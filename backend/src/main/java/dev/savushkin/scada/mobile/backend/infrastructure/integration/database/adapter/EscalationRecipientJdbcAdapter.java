@@ -0,0 +1,42 @@
+package dev.savushkin.scada.mobile.backend.infrastructure.integration.database.adapter;
+
+import dev.savushkin.scada.mobile.backend.application.ports.EscalationRecipientRepository;
+import org.jspecify.annotations.NonNull;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * JDBC-адаптер порта {@link EscalationRecipientRepository}: один запрос по именам ролей.
+ * Эскалации редкие, поэтому адресаты читаются из БД на каждый шаг — смена роли
+ * или увольнение сотрудника учитываются без сброса кэшей.
+ */
+@Component
+public class EscalationRecipientJdbcAdapter implements EscalationRecipientRepository {
+
+    private static final String SELECT_SQL = """
+            SELECT u.user_id
+            FROM users u
+            JOIN roles r ON r.role_id = u.role_id
+            WHERE u.is_active = TRUE
+              AND r.name IN (:roles)
+            """;
+
+    private final NamedParameterJdbcTemplate jdbc;
+
+    public EscalationRecipientJdbcAdapter(NamedParameterJdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    @Override
+    public @NonNull Set<Long> findActiveUserIdsByRoles(@NonNull Collection<String> roles) {
+        if (roles.isEmpty()) {
+            return Set.of();
+        }
+        return new HashSet<>(jdbc.queryForList(SELECT_SQL, new MapSqlParameterSource("roles", roles), Long.class));
+    }
+}
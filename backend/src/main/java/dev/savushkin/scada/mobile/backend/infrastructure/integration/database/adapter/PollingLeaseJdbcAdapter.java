@@ -0,0 +1,145 @@
+package dev.savushkin.scada.mobile.backend.infrastructure.integration.database.adapter;
+
+import dev.savushkin.scada.mobile.backend.application.ports.PollingLeaseRepository;
+import org.jspecify.annotations.NonNull;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * JDBC-адаптер порта {@link PollingLeaseRepository}.
+ * <p>
+ * Все сроки считаются выражением {@code now() AT TIME ZONE 'UTC'} на стороне PostgreSQL:
+ * колонки — {@code TIMESTAMP} в UTC, а часовой пояс сессии (его задаёт JVM узла) на
+ * сравнение не влияет. Захват аренды — upsert, который перезаписывает чужую строку только
+ * после её истечения, поэтому два узла не могут одновременно владеть одним ключом.
+ */
+@Component
+public class PollingLeaseJdbcAdapter implements PollingLeaseRepository {
+
+    private static final String NOW = "(now() AT TIME ZONE 'UTC')";
+
+    /**
+     * Узлы без heartbeat дольше суток удаляются при регистрации нового — иначе таблица
+     * копит сгенерированные при каждом рестарте идентификаторы.
+     */
+    private static final String PURGE_MEMBERS_SQL =
+            "DELETE FROM cluster_member WHERE heartbeat_at < " + NOW + " - INTERVAL '1 day'";
+
+    private static final String JOIN_SQL = """
+            INSERT INTO cluster_member (node_id, joined_at, heartbeat_at)
+            VALUES (:nodeId, %1$s, %1$s)
+            ON CONFLICT (node_id) DO UPDATE
+            SET joined_at = EXCLUDED.joined_at, heartbeat_at = EXCLUDED.heartbeat_at
+            """.formatted(NOW);
+
+    private static final String HEARTBEAT_SQL = """
+            INSERT INTO cluster_member (node_id, joined_at, heartbeat_at)
+            VALUES (:nodeId, %1$s, %1$s)
+            ON CONFLICT (node_id) DO UPDATE
+            SET heartbeat_at = EXCLUDED.heartbeat_at
+            """.formatted(NOW);
+
+    private static final String LIVE_MEMBERS_SQL = """
+            SELECT node_id
+            FROM cluster_member
+            WHERE heartbeat_at > %s - :ttlMs * INTERVAL '1 millisecond'
+            ORDER BY joined_at, node_id
+            """.formatted(NOW);
+
+    private static final String ACQUIRE_SQL = """
+            INSERT INTO polling_lease (lease_key, owner, expires_at)
+            VALUES (:key, :owner, %1$s + :ttlMs * INTERVAL '1 millisecond')
+            ON CONFLICT (lease_key) DO UPDATE
+            SET owner = EXCLUDED.owner, expires_at = EXCLUDED.expires_at
+            WHERE polling_lease.owner = EXCLUDED.owner OR polling_lease.expires_at < %1$s
+            """.formatted(NOW);
+
+    private static final String ACTIVE_SQL = """
+            SELECT lease_key, owner,
+                   CAST(EXTRACT(EPOCH FROM (expires_at - %1$s)) * 1000 AS BIGINT) AS expires_in_ms
+            FROM polling_lease
+            WHERE expires_at > %1$s
+            ORDER BY lease_key
+            """.formatted(NOW);
+
+    private final NamedParameterJdbcTemplate jdbc;
+
+    public PollingLeaseJdbcAdapter(NamedParameterJdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    @Override
+    @Transactional
+    public void join(@NonNull String nodeId) {
+        jdbc.update(PURGE_MEMBERS_SQL, new MapSqlParameterSource());
+        jdbc.update(JOIN_SQL, new MapSqlParameterSource("nodeId", nodeId));
+    }
+
+    @Override
+    @Transactional
+    public void heartbeat(@NonNull String nodeId) {
+        jdbc.update(HEARTBEAT_SQL, new MapSqlParameterSource("nodeId", nodeId));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public @NonNull List<String> liveMembers(long ttlMs) {
+        return jdbc.queryForList(LIVE_MEMBERS_SQL, new MapSqlParameterSource("ttlMs", ttlMs), String.class);
+    }
+
+    @Override
+    @Transactional
+    public void leave(@NonNull String nodeId) {
+        MapSqlParameterSource params = new MapSqlParameterSource("nodeId", nodeId);
+        jdbc.update("DELETE FROM polling_lease WHERE owner = :nodeId", params);
+        jdbc.update("DELETE FROM cluster_member WHERE node_id = :nodeId", params);
+    }
+
+    @Override
+    @Transactional
+    public @NonNull Set<String> acquire(@NonNull String nodeId, @NonNull Collection<String> keys, long ttlMs) {
+        if (keys.isEmpty()) {
+            return Set.of();
+        }
+        SqlParameterSource[] batch = keys.stream()
+                .map(key -> new MapSqlParameterSource()
+                        .addValue("key", key)
+                        .addValue("owner", nodeId)
+                        .addValue("ttlMs", ttlMs))
+                .toArray(SqlParameterSource[]::new);
+        jdbc.batchUpdate(ACQUIRE_SQL, batch);
+        return new HashSet<>(jdbc.queryForList(
+                "SELECT lease_key FROM polling_lease WHERE owner = :owner AND lease_key IN (:keys)",
+                new MapSqlParameterSource().addValue("owner", nodeId).addValue("keys", keys),
+                String.class));
+    }
+
+    @Override
+    @Transactional
+    public void releaseExcept(@NonNull String nodeId, @NonNull Collection<String> keep) {
+        MapSqlParameterSource params = new MapSqlParameterSource("owner", nodeId);
+        if (keep.isEmpty()) {
+            jdbc.update("DELETE FROM polling_lease WHERE owner = :owner", params);
+            return;
+        }
+        jdbc.update("DELETE FROM polling_lease WHERE owner = :owner AND lease_key NOT IN (:keep)",
+                params.addValue("keep", keep));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public @NonNull List<Lease> findActive() {
+        return jdbc.query(ACTIVE_SQL, (rs, rowNum) -> new Lease(
+                rs.getString("lease_key"),
+                rs.getString("owner"),
+                rs.getLong("expires_in_ms")));
+    }
+}
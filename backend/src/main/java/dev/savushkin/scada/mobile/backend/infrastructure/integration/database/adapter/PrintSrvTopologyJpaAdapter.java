@@ -55,10 +55,15 @@ public class PrintSrvTopologyJpaAdapter implements PrintSrvTopologyRepository {
     @Override
     public @NonNull List<PrintSrvInstance> findAllActiveInstances() {
         List<UnitEntity> units = unitRepository.findByActiveTrueAndPrintsrvInstanceIdIsNotNull();
+        // Устройства всех аппаратов — одним запросом, а не по запросу на аппарат (N+1)
+        Map<Long, List<DeviceEntity>> devicesByUnit = new HashMap<>();
+        for (DeviceEntity device : deviceRepository.findAllOfActivePrintsrvUnits()) {
+            devicesByUnit.computeIfAbsent(device.getUnitId(), k -> new ArrayList<>()).add(device);
+        }
         List<PrintSrvInstance> result = new ArrayList<>(units.size());
 
         for (UnitEntity unit : units) {
-            PrintSrvInstance inst = buildInstance(unit);
+            PrintSrvInstance inst = buildInstance(unit, devicesByUnit.getOrDefault(unit.getId(), List.of()));
             if (inst != null) {
                 result.add(inst);
             }
@@ -71,7 +76,7 @@ public class PrintSrvTopologyJpaAdapter implements PrintSrvTopologyRepository {
     public @NonNull Optional<PrintSrvInstance> findByInstanceId(@NonNull String instanceId) {
         return unitRepository.findByPrintsrvInstanceId(instanceId)
                 .filter(UnitEntity::isActive)
-                .map(this::buildInstance);
+                .map(unit -> buildInstance(unit, deviceRepository.findByUnit_PrintsrvInstanceId(instanceId)));
     }
 
     @Override
@@ -99,7 +104,7 @@ public class PrintSrvTopologyJpaAdapter implements PrintSrvTopologyRepository {
 
     // ─── Private helpers ───────────────────────────────────────────────────
 
-    private PrintSrvInstance buildInstance(UnitEntity unit) {
+    private PrintSrvInstance buildInstance(UnitEntity unit, List<DeviceEntity> devices) {
         String instanceId = unit.getPrintsrvInstanceId();
         if (instanceId == null || instanceId.isBlank()) {
             return null;
@@ -110,8 +115,6 @@ public class PrintSrvTopologyJpaAdapter implements PrintSrvTopologyRepository {
         String host = unit.getPrintsrvHost() != null ? unit.getPrintsrvHost() : "";
         int port = unit.getPrintsrvPort() != null ? unit.getPrintsrvPort() : 0;
 
-        List<DeviceEntity> devices = deviceRepository.findByUnit_PrintsrvInstanceId(instanceId);
-
         List<String> printers = new ArrayList<>();
         List<String> aggregationCams = new ArrayList<>();
         List<String> aggregationBoxCams = new ArrayList<>();
@@ -0,0 +1,191 @@
+package dev.savushkin.scada.mobile.backend.infrastructure.integration.database.adapter;
+
+import dev.savushkin.scada.mobile.backend.application.ports.NotificationRepository;
+import dev.savushkin.scada.mobile.backend.domain.model.ProductionNotification;
+import dev.savushkin.scada.mobile.backend.infrastructure.startup.StartupMetrics;
+import dev.savushkin.scada.mobile.backend.infrastructure.store.ProductionNotificationCache;
+import jakarta.annotation.PostConstruct;
+import org.jspecify.annotations.NonNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * JDBC-адаптер порта {@link NotificationRepository}.
+ * <p>
+ * Каждый вызов — строка таблицы {@code production_notifications}: активация вставляет её,
+ * снятие заполняет {@code deactivated_at} и {@code resolver_id}. Таблица хранит всю историю,
+ * а не одно последнее состояние аппарата.
+ * <p>
+ * Активные уведомления дублируются в {@link ProductionNotificationCache}; чтение идёт только
+ * из кэша. Кэш меняется после коммита транзакции, в которой изменилась БД, и заполняется
+ * одним запросом при создании бина — до того, как узел начинает принимать запросы.
+ * Изменения других узлов кэш получает через {@link #reloadActiveByUnitId}: его вызывает
+ * {@code ClusterReplicator} на событие {@code NOTIFICATION} и {@code NotificationService}
+ * перед ответом, принятым по кэшу.
+ * <p>
+ * Не более одного активного уведомления на аппарат гарантирует частичный уникальный индекс
+ * ({@code ON CONFLICT DO NOTHING}). Если активация проиграла гонку (второй узел или параллельный
+ * запрос), адаптер перечитывает активную строку, кладёт её в кэш после коммита и возвращает
+ * вызывающему с признаком {@code created = false}.
+ */
+@Component
+public class ProductionNotificationJdbcAdapter implements NotificationRepository {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductionNotificationJdbcAdapter.class);
+
+    private static final String INSERT_SQL = """
+            INSERT INTO production_notifications (unit_id, creator_id, activated_at)
+            VALUES (:unitId, :creatorId, :activatedAt)
+            ON CONFLICT (unit_id) WHERE deactivated_at IS NULL DO NOTHING
+            """;
+
+    private static final String DEACTIVATE_SQL = """
+            UPDATE production_notifications
+            SET deactivated_at = :deactivatedAt, resolver_id = :resolverId
+            WHERE unit_id = :unitId AND deactivated_at IS NULL
+            """;
+
+    private static final String SELECT_ACTIVE_SQL = """
+            SELECT unit_id, creator_id, activated_at
+            FROM production_notifications
+            WHERE deactivated_at IS NULL
+            """;
+
+    private static final RowMapper<ProductionNotification> ACTIVE_ROW_MAPPER = (rs, rowNum) ->
+            new ProductionNotification(
+                    rs.getString("unit_id"),
+                    rs.getString("creator_id"),
+                    true,
+                    instant(rs, "activated_at"),
+                    null,
+                    null);
+
+    private final NamedParameterJdbcTemplate jdbc;
+    private final ProductionNotificationCache cache;
+    private final StartupMetrics startupMetrics;
+
+    public ProductionNotificationJdbcAdapter(
+            NamedParameterJdbcTemplate jdbc,
+            ProductionNotificationCache cache,
+            StartupMetrics startupMetrics
+    ) {
+        this.jdbc = jdbc;
+        this.cache = cache;
+        this.startupMetrics = startupMetrics;
+    }
+
+    /**
+     * Заполняет кэш всеми активными уведомлениями одним запросом.
+     */
+    @PostConstruct
+    void warmUp() {
+        long startedAt = System.nanoTime();
+        List<ProductionNotification> active = jdbc.query(SELECT_ACTIVE_SQL, ACTIVE_ROW_MAPPER);
+        cache.replaceAll(active);
+        startupMetrics.recordPhase("notifications", System.nanoTime() - startedAt);
+        log.info("Production notifications: {} active restored in {} ms",
+                active.size(), (System.nanoTime() - startedAt) / 1_000_000);
+    }
+
+    @Override
+    public @NonNull Optional<ProductionNotification> findActiveByUnitId(@NonNull String unitId) {
+        return Optional.ofNullable(cache.get(unitId));
+    }
+
+    @Override
+    public @NonNull List<ProductionNotification> findAllActive() {
+        return cache.getAll();
+    }
+
+    @Override
+    public @NonNull Optional<ProductionNotification> reloadActiveByUnitId(@NonNull String unitId) {
+        Optional<ProductionNotification> active = loadActive(unitId);
+        active.ifPresentOrElse(cache::put, () -> cache.remove(unitId));
+        return active;
+    }
+
+    @Override
+    @Transactional
+    public @NonNull SaveResult save(@NonNull ProductionNotification notification) {
+        if (!notification.active()) {
+            close(notification.unitId(), notification.deactivatedAt(), notification.resolverId());
+            return new SaveResult(notification, false);
+        }
+        int inserted = jdbc.update(INSERT_SQL, new MapSqlParameterSource()
+                .addValue("unitId", notification.unitId())
+                .addValue("creatorId", notification.creatorId())
+                .addValue("activatedAt", utc(notification.activatedAt())));
+        if (inserted == 0) {
+            ProductionNotification existing = loadActive(notification.unitId()).orElseThrow(() ->
+                    new IllegalStateException("Active notification for unit '%s' vanished during activation"
+                            .formatted(notification.unitId())));
+            log.info("Production notification for unit '{}' already active by '{}'",
+                    notification.unitId(), existing.creatorId());
+            afterCommit(() -> cache.put(existing));
+            return new SaveResult(existing, false);
+        }
+        afterCommit(() -> cache.put(notification));
+        return new SaveResult(notification, true);
+    }
+
+    @Override
+    @Transactional
+    public void deactivateByUnitId(@NonNull String unitId) {
+        close(unitId, Instant.now(), null);
+    }
+
+    // ─── Private ─────────────────────────────────────────────────────────────
+
+    private void close(String unitId, Instant deactivatedAt, String resolverId) {
+        jdbc.update(DEACTIVATE_SQL, new MapSqlParameterSource()
+                .addValue("unitId", unitId)
+                .addValue("deactivatedAt", utc(deactivatedAt != null ? deactivatedAt : Instant.now()))
+                .addValue("resolverId", resolverId));
+        // Строки может уже не быть (снята на другом узле) — кэш всё равно приводится к БД
+        afterCommit(() -> cache.remove(unitId));
+    }
+
+    private Optional<ProductionNotification> loadActive(String unitId) {
+        return jdbc.query(SELECT_ACTIVE_SQL + " AND unit_id = :unitId",
+                new MapSqlParameterSource("unitId", unitId), ACTIVE_ROW_MAPPER).stream().findFirst();
+    }
+
+    private static LocalDateTime utc(Instant instant) {
+        return LocalDateTime.ofInstant(instant, ZoneOffset.UTC);
+    }
+
+    private static Instant instant(ResultSet rs, String column) throws SQLException {
+        return rs.getObject(column, LocalDateTime.class).toInstant(ZoneOffset.UTC);
+    }
+
+    /**
+     * Выполняет действие после коммита текущей транзакции; вне транзакции — сразу.
+     */
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -3,25 +3,104 @@ package dev.savushkin.scada.mobile.backend.infrastructure.integration.database.a
 import dev.savushkin.scada.mobile.backend.application.ports.RefreshTokenRepository;
 import dev.savushkin.scada.mobile.backend.infrastructure.integration.database.entity.RefreshTokenEntity;
 import dev.savushkin.scada.mobile.backend.infrastructure.integration.database.repository.RefreshTokenJpaRepository;
+import dev.savushkin.scada.mobile.backend.infrastructure.store.RefreshTokenCache;
 import org.jspecify.annotations.NonNull;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
 import java.util.Optional;
 
+/**
+ * Адаптер порта {@link RefreshTokenRepository}.
+ * <p>
+ * Чтение и массовые операции — через Spring Data JPA; выдача, ротация, отзыв
+ * и чтение состояния — нативным SQL, чтобы не загружать {@code UserEntity}.
+ * {@link Instant} передаётся как {@link OffsetDateTime} в UTC — так же, как его
+ * связывает Hibernate, поэтому значения из обоих путей сравнимы между собой.
+ * <p>
+ * Состояние токенов дублируется в {@link RefreshTokenCache}. Кэш меняется только
+ * после коммита транзакции, в которой изменилась БД, — откат не оставляет
+ * в кэше состояния, которого нет в таблице. Ротация предъявленного токена,
+ * который по кэшу уже отозван или истёк, отклоняется без запроса к БД.
+ */
 @Component
 public class RefreshTokenJpaAdapter implements RefreshTokenRepository {
 
+    private static final String INSERT_SQL = """
+            INSERT INTO refresh_tokens (user_id, token_hash, created_at, expires_at, revoked)
+            VALUES (:userId, :tokenHash, :createdAt, :expiresAt, false)
+            """;
+
+    private static final String ROTATE_SQL = """
+            WITH revoked AS (
+                UPDATE refresh_tokens t
+                SET revoked = true
+                WHERE t.token_hash = :oldHash
+                  AND t.revoked = false
+                  AND t.expires_at > :now
+                  AND EXISTS (SELECT 1 FROM users u WHERE u.user_id = t.user_id AND u.is_active)
+                RETURNING t.user_id
+            ), issued AS (
+                INSERT INTO refresh_tokens (user_id, token_hash, created_at, expires_at, revoked)
+                SELECT user_id, :newHash, :now, :expiresAt, false FROM revoked
+                RETURNING user_id
+            )
+            SELECT u.user_id, u.password_temporary, r.name AS role_name
+            FROM issued i
+            JOIN users u ON u.user_id = i.user_id
+            JOIN roles r ON r.role_id = u.role_id
+            """;
+
+    /**
+     * {@code expires_at} хранится без зоны; приведение к {@code TIMESTAMPTZ} по зоне сессии
+     * обратно тому, как значение было записано.
+     */
+    private static final String SELECT_STATE_SQL = """
+            SELECT user_id, CAST(expires_at AS TIMESTAMPTZ) AS expires_at, revoked
+            FROM refresh_tokens
+            WHERE token_hash = :tokenHash
+            """;
+
+    private static final String REVOKE_SQL = """
+            UPDATE refresh_tokens SET revoked = true WHERE token_hash = :tokenHash AND revoked = false
+            """;
+
+    /**
+     * Удаление ограниченной пачкой: очистка идёт часто и не держит длинных блокировок.
+     */
+    private static final String DELETE_EXPIRED_SQL = """
+            DELETE FROM refresh_tokens
+            WHERE id IN (SELECT id FROM refresh_tokens WHERE expires_at < :before LIMIT :limit)
+            """;
+
     private final RefreshTokenJpaRepository repository;
+    private final NamedParameterJdbcTemplate jdbc;
+    private final RefreshTokenCache cache;
 
-    public RefreshTokenJpaAdapter(RefreshTokenJpaRepository repository) {
+    public RefreshTokenJpaAdapter(
+            RefreshTokenJpaRepository repository,
+            NamedParameterJdbcTemplate jdbc,
+            RefreshTokenCache cache
+    ) {
         this.repository = repository;
+        this.jdbc = jdbc;
+        this.cache = cache;
     }
 
     @Override
     public @NonNull RefreshTokenEntity save(@NonNull RefreshTokenEntity entity) {
-        return repository.save(entity);
+        RefreshTokenEntity saved = repository.save(entity);
+        afterCommit(() -> cache.put(saved.getTokenHash(),
+                new TokenState(saved.getUser().getId(), saved.getExpiresAt(), saved.isRevoked())));
+        return saved;
     }
 
     @Override
@@ -29,15 +108,117 @@ public class RefreshTokenJpaAdapter implements RefreshTokenRepository {
         return repository.findByTokenHash(tokenHash);
     }
 
+    @Override
+    public @NonNull Optional<TokenState> findStateByTokenHash(@NonNull String tokenHash) {
+        TokenState cached = cache.get(tokenHash);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        List<TokenState> rows = jdbc.query(SELECT_STATE_SQL, new MapSqlParameterSource("tokenHash", tokenHash),
+                (rs, rowNum) -> new TokenState(
+                        rs.getLong("user_id"),
+                        rs.getObject("expires_at", OffsetDateTime.class).toInstant(),
+                        rs.getBoolean("revoked")));
+        rows.stream().findFirst().ifPresent(state -> cache.put(tokenHash, state));
+        return rows.stream().findFirst();
+    }
+
+    @Override
+    @Transactional
+    public void issue(long userId, @NonNull String tokenHash, @NonNull Instant createdAt, @NonNull Instant expiresAt) {
+        jdbc.update(INSERT_SQL, new MapSqlParameterSource()
+                .addValue("userId", userId)
+                .addValue("tokenHash", tokenHash)
+                .addValue("createdAt", utc(createdAt))
+                .addValue("expiresAt", utc(expiresAt)));
+        afterCommit(() -> cache.putIssued(tokenHash, userId, expiresAt));
+    }
+
+    @Override
+    @Transactional
+    public @NonNull Optional<RotatedSession> rotate(
+            @NonNull String oldHash,
+            @NonNull String newHash,
+            @NonNull Instant now,
+            @NonNull Instant expiresAt
+    ) {
+        TokenState cached = cache.get(oldHash);
+        if (cached != null && !cached.isUsableAt(now)) {
+            return Optional.empty();
+        }
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("oldHash", oldHash)
+                .addValue("newHash", newHash)
+                .addValue("now", utc(now))
+                .addValue("expiresAt", utc(expiresAt));
+        List<RotatedSession> rows = jdbc.query(ROTATE_SQL, params, (rs, rowNum) -> new RotatedSession(
+                rs.getLong("user_id"),
+                rs.getString("role_name"),
+                rs.getBoolean("password_temporary")
+        ));
+        Optional<RotatedSession> session = rows.stream().findFirst();
+        session.ifPresent(s -> afterCommit(() -> {
+            cache.markRevoked(oldHash);
+            cache.putIssued(newHash, s.userId(), expiresAt);
+        }));
+        return session;
+    }
+
+    @Override
+    @Transactional
+    public boolean revoke(@NonNull String tokenHash) {
+        boolean revoked = jdbc.update(REVOKE_SQL, new MapSqlParameterSource("tokenHash", tokenHash)) > 0;
+        if (revoked) {
+            afterCommit(() -> cache.markRevoked(tokenHash));
+        }
+        return revoked;
+    }
+
     @Override
     @Transactional
     public void revokeAllByUserId(long userId) {
         repository.revokeAllByUserId(userId);
+        afterCommit(() -> cache.markAllRevoked(userId));
+    }
+
+    @Override
+    @Transactional
+    public void deleteAllByUserId(long userId) {
+        repository.deleteByUser_Id(userId);
+        afterCommit(() -> cache.evictUser(userId));
     }
 
     @Override
     @Transactional
-    public void deleteExpired(@NonNull Instant before) {
-        repository.deleteByExpiresAtBefore(before);
+    public int deleteExpired(@NonNull Instant before, int limit) {
+        int deleted = jdbc.update(DELETE_EXPIRED_SQL, new MapSqlParameterSource()
+                .addValue("before", utc(before))
+                .addValue("limit", limit));
+        if (deleted > 0) {
+            afterCommit(() -> cache.evictExpired(before));
+        }
+        return deleted;
+    }
+
+    // ─── Private ─────────────────────────────────────────────────────────────
+
+    private static OffsetDateTime utc(Instant instant) {
+        return instant.atOffset(ZoneOffset.UTC);
+    }
+
+    /**
+     * Выполняет действие после коммита текущей транзакции; вне транзакции — сразу.
+     */
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
     }
 }
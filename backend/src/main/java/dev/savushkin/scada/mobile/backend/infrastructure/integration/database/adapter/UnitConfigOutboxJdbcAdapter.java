@@ -0,0 +1,137 @@
+package dev.savushkin.scada.mobile.backend.infrastructure.integration.database.adapter;
+
+import dev.savushkin.scada.mobile.backend.application.ports.UnitConfigOutboxRepository;
+import dev.savushkin.scada.mobile.backend.domain.model.UnitConfigChange;
+import org.jspecify.annotations.NonNull;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * JDBC-адаптер порта {@link UnitConfigOutboxRepository}.
+ * <p>
+ * {@code @Transactional} методов — {@code REQUIRED}: вызванный из админ-контроллера
+ * {@link #append} пишет в ту же транзакцию (JDBC и JPA делят соединение через
+ * общий transaction manager).
+ * <p>
+ * Блокировка relay — транзакционная advisory-блокировка PostgreSQL: снимается
+ * коммитом или откатом сама, даже если узел упал посреди публикации.
+ */
+@Component
+public class UnitConfigOutboxJdbcAdapter implements UnitConfigOutboxRepository {
+
+    /**
+     * Ключ advisory-блокировки relay; должен быть уникален среди advisory-блокировок приложения.
+     */
+    private static final long RELAY_LOCK_KEY = 0x5343_4D42_0001L;
+
+    private static final String INSERT_SQL = """
+            INSERT INTO unit_config_outbox
+                (event_type, instance_id, host, port, display_name, workshop_id, is_active, occurred_at)
+            VALUES
+                (:eventType, :instanceId, :host, :port, :displayName, :workshopId, :active, :occurredAt)
+            """;
+
+    private static final String SELECT_BATCH_SQL = """
+            SELECT outbox_id, event_type, instance_id, host, port, display_name, workshop_id, is_active, occurred_at
+            FROM unit_config_outbox
+            ORDER BY outbox_id
+            LIMIT :limit
+            """;
+
+    private static final String SNAPSHOT_SQL = """
+            SELECT printsrv_instance_id, printsrv_host, printsrv_port, name, workshop_id
+            FROM units
+            WHERE is_active = TRUE AND printsrv_instance_id IS NOT NULL
+            ORDER BY unit_id
+            """;
+
+    private static final RowMapper<Entry> ENTRY_MAPPER = (rs, rowNum) -> new Entry(
+            rs.getLong("outbox_id"),
+            new UnitConfigChange(
+                    UnitConfigChange.Type.valueOf(rs.getString("event_type")),
+                    rs.getString("instance_id"),
+                    rs.getString("host"),
+                    rs.getObject("port", Integer.class),
+                    rs.getString("display_name"),
+                    rs.getObject("workshop_id", Long.class),
+                    rs.getBoolean("is_active"),
+                    rs.getTimestamp("occurred_at").toLocalDateTime().toInstant(ZoneOffset.UTC)
+            )
+    );
+
+    private final NamedParameterJdbcTemplate jdbc;
+
+    public UnitConfigOutboxJdbcAdapter(NamedParameterJdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    @Override
+    @Transactional
+    public void append(@NonNull List<UnitConfigChange> changes) {
+        if (changes.isEmpty()) {
+            return;
+        }
+        SqlParameterSource[] batch = new SqlParameterSource[changes.size()];
+        for (int i = 0; i < changes.size(); i++) {
+            UnitConfigChange change = changes.get(i);
+            batch[i] = new MapSqlParameterSource()
+                    .addValue("eventType", change.type().name())
+                    .addValue("instanceId", change.instanceId())
+                    .addValue("host", change.host())
+                    .addValue("port", change.port())
+                    .addValue("displayName", change.displayName())
+                    .addValue("workshopId", change.workshopId())
+                    .addValue("active", change.active())
+                    .addValue("occurredAt", Timestamp.valueOf(LocalDateTime.ofInstant(change.occurredAt(), ZoneOffset.UTC)));
+        }
+        jdbc.batchUpdate(INSERT_SQL, batch);
+    }
+
+    @Override
+    @Transactional
+    public boolean tryLockRelay() {
+        Boolean locked = jdbc.queryForObject("SELECT pg_try_advisory_xact_lock(:key)",
+                new MapSqlParameterSource("key", RELAY_LOCK_KEY), Boolean.class);
+        return Boolean.TRUE.equals(locked);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public @NonNull List<Entry> fetchBatch(int limit) {
+        return jdbc.query(SELECT_BATCH_SQL, new MapSqlParameterSource("limit", limit), ENTRY_MAPPER);
+    }
+
+    @Override
+    @Transactional
+    public void delete(@NonNull Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        jdbc.update("DELETE FROM unit_config_outbox WHERE outbox_id IN (:ids)", new MapSqlParameterSource("ids", ids));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public @NonNull List<UnitConfigChange> snapshotActiveUnits(@NonNull Instant at) {
+        return jdbc.query(SNAPSHOT_SQL, (rs, rowNum) -> UnitConfigChange.upsert(
+                rs.getString("printsrv_instance_id"),
+                rs.getString("printsrv_host"),
+                rs.getObject("printsrv_port", Integer.class),
+                rs.getString("name"),
+                rs.getLong("workshop_id"),
+                true,
+                at
+        ));
+    }
+}
@@ -0,0 +1,65 @@
+package dev.savushkin.scada.mobile.backend.infrastructure.integration.database.adapter;
+
+import dev.savushkin.scada.mobile.backend.application.ports.UserActivityRepository;
+import org.jspecify.annotations.NonNull;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JDBC-адаптер порта {@link UserActivityRepository}.
+ * <p>
+ * Вся пачка записывается одним {@code UPDATE ... FROM (VALUES ...)}:
+ * {@link NamedParameterJdbcTemplate} разворачивает список массивов в кортежи
+ * {@code (?, ?), (?, ?), …}. Пачки длиннее {@link #MAX_ROWS_PER_STATEMENT}
+ * делятся, чтобы не упереться в лимит параметров драйвера.
+ * <p>
+ * Столбцы {@code VALUES} приходят от драйвера без типа ({@code text}), поэтому
+ * приводятся явно — и в условии, и в присваивании.
+ */
+@Component
+public class UserActivityJdbcAdapter implements UserActivityRepository {
+
+    private static final int MAX_ROWS_PER_STATEMENT = 1000;
+
+    private static final String UPDATE_SQL = """
+            UPDATE users u
+            SET last_activity_at = CAST(v.ts AS TIMESTAMP)
+            FROM (VALUES :rows) AS v(user_id, ts)
+            WHERE u.user_id = CAST(v.user_id AS BIGINT)
+              AND (u.last_activity_at IS NULL OR u.last_activity_at < CAST(v.ts AS TIMESTAMP))
+            """;
+
+    private final NamedParameterJdbcTemplate jdbc;
+
+    public UserActivityJdbcAdapter(NamedParameterJdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    @Override
+    @Transactional
+    public void updateLastActivity(@NonNull Map<Long, LocalDateTime> lastActivity) {
+        List<Object[]> rows = new ArrayList<>(Math.min(lastActivity.size(), MAX_ROWS_PER_STATEMENT));
+        for (Map.Entry<Long, LocalDateTime> entry : lastActivity.entrySet()) {
+            rows.add(new Object[]{entry.getKey(), Timestamp.valueOf(entry.getValue())});
+            if (rows.size() == MAX_ROWS_PER_STATEMENT) {
+                execute(rows);
+                rows = new ArrayList<>(MAX_ROWS_PER_STATEMENT);
+            }
+        }
+        if (!rows.isEmpty()) {
+            execute(rows);
+        }
+    }
+
+    private void execute(List<Object[]> rows) {
+        jdbc.update(UPDATE_SQL, new MapSqlParameterSource("rows", rows));
+    }
+}
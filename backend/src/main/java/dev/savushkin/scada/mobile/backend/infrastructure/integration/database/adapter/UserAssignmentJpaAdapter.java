@@ -1,11 +1,15 @@
 package dev.savushkin.scada.mobile.backend.infrastructure.integration.database.adapter;
 
 import dev.savushkin.scada.mobile.backend.application.ports.UserAssignmentRepository;
-import dev.savushkin.scada.mobile.backend.infrastructure.integration.database.repository.UnitJpaRepository;
 import dev.savushkin.scada.mobile.backend.infrastructure.integration.database.repository.UserAssignmentJpaRepository;
+import dev.savushkin.scada.mobile.backend.infrastructure.integration.database.repository.UserUnitAssignmentProjection;
+import dev.savushkin.scada.mobile.backend.infrastructure.store.UserAssignmentIndex;
 import org.springframework.context.annotation.Primary;
 import org.springframework.stereotype.Component;
 
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 
 /**
@@ -13,37 +17,46 @@ import java.util.Set;
  * <p>
  * Данные хранятся в таблице {@code user_unit_assignments}.
  * Бизнес-логика в {@code NotificationService} не зависит от конкретной реализации порта.
+ * <p>
+ * Ответы строятся по {@link UserAssignmentIndex}: все активные закрепления загружаются
+ * одним запросом и держатся в памяти до следующего изменения назначений или аппаратов,
+ * поэтому проверка права на вызов не обращается к БД.
  */
 @Component
 @Primary
 public class UserAssignmentJpaAdapter implements UserAssignmentRepository {
 
     private final UserAssignmentJpaRepository assignmentRepository;
-    private final UnitJpaRepository unitRepository;
+    private final UserAssignmentIndex index;
 
     public UserAssignmentJpaAdapter(UserAssignmentJpaRepository assignmentRepository,
-                                    UnitJpaRepository unitRepository) {
+                                    UserAssignmentIndex index) {
         this.assignmentRepository = assignmentRepository;
-        this.unitRepository = unitRepository;
+        this.index = index;
     }
 
     @Override
     public boolean canSendNotification(long userId, String unitId) {
-        return assignmentRepository.existsActiveAssignment(userId, unitId);
+        return index.isAssigned(userId, unitId, this::loadAll);
     }
 
     @Override
     public Set<String> getSubscribedUnitIds(long userId) {
-        return resolveAssignedPrintSrvIds(userId);
+        return index.unitsOf(userId, this::loadAll);
     }
 
     @Override
     public Set<String> getAssignedUnitIds(long userId) {
-        return resolveAssignedPrintSrvIds(userId);
+        return index.unitsOf(userId, this::loadAll);
     }
 
-    private Set<String> resolveAssignedPrintSrvIds(long userId) {
-        Set<String> result = assignmentRepository.findActiveAssignedPrintsrvIdsByUserId(userId);
-        return result == null ? Set.of() : Set.copyOf(result);
+    private Map<Long, Set<String>> loadAll() {
+        Map<Long, Set<String>> byUser = new HashMap<>();
+        for (UserUnitAssignmentProjection row : assignmentRepository.findAllActiveAssignedPrintsrvIds()) {
+            byUser.computeIfAbsent(row.getUserId(), userId -> new HashSet<>()).add(row.getPrintsrvInstanceId());
+        }
+        Map<Long, Set<String>> result = new HashMap<>(byUser.size());
+        byUser.forEach((userId, units) -> result.put(userId, Set.copyOf(units)));
+        return result;
     }
 }
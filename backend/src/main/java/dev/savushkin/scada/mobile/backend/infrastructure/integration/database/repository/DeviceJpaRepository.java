@@ -35,4 +35,19 @@ public interface DeviceJpaRepository extends JpaRepository<DeviceEntity, Long>,
             where d.unit.printsrvInstanceId = :printsrvInstanceId
             """)
     List<DeviceEntity> findByUnit_PrintsrvInstanceId(@Param("printsrvInstanceId") String printsrvInstanceId);
+
+    /**
+     * Устройства всех активных аппаратов с PrintSrv-инстансом одним запросом —
+     * для сборки полной топологии без запроса на каждый аппарат.
+     */
+    @RestResource(exported = false)
+    @Query("""
+            select d
+            from DeviceEntity d
+            join d.unit u
+            join fetch d.catalog c
+            join fetch c.type
+            where u.active = true and u.printsrvInstanceId is not null
+            """)
+    List<DeviceEntity> findAllOfActivePrintsrvUnits();
 }
@@ -6,7 +6,6 @@ import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
-import java.time.Instant;
 import java.util.Optional;
 
 public interface RefreshTokenJpaRepository extends JpaRepository<RefreshTokenEntity, Long> {
@@ -17,9 +16,5 @@ public interface RefreshTokenJpaRepository extends JpaRepository<RefreshTokenEnt
     @Query("UPDATE RefreshTokenEntity r SET r.revoked = true WHERE r.user.id = :userId")
     void revokeAllByUserId(@Param("userId") Long userId);
 
-    @Modifying
-    @Query("DELETE FROM RefreshTokenEntity r WHERE r.expiresAt < :before")
-    void deleteByExpiresAtBefore(@Param("before") Instant before);
-
     void deleteByUser_Id(Long userId);
 }
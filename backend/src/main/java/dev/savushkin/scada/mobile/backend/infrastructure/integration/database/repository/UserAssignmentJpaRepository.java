@@ -8,35 +8,20 @@ import org.springframework.data.rest.core.annotation.RestResource;
 
 import java.util.List;
 import java.util.Optional;
-import java.util.Set;
 
 
 public interface UserAssignmentJpaRepository extends JpaRepository<UserAssignmentEntity, Long> {
 
     @RestResource(exported = false)
     @Query("""
-            select (count(a) > 0)
+            select a.user.id as userId, u.printsrvInstanceId as printsrvInstanceId
             from UserAssignmentEntity a
             join a.unit u
-            where a.user.id = :userId
-              and a.active = true
-              and u.active = true
-              and u.printsrvInstanceId = :printsrvInstanceId
-            """)
-    boolean existsActiveAssignment(@Param("userId") Long userId,
-                                   @Param("printsrvInstanceId") String printsrvInstanceId);
-
-    @RestResource(exported = false)
-    @Query("""
-            select distinct u.printsrvInstanceId
-            from UserAssignmentEntity a
-            join a.unit u
-            where a.user.id = :userId
-              and a.active = true
+            where a.active = true
               and u.active = true
               and u.printsrvInstanceId is not null
             """)
-    Set<String> findActiveAssignedPrintsrvIdsByUserId(@Param("userId") Long userId);
+    List<UserUnitAssignmentProjection> findAllActiveAssignedPrintsrvIds();
 
     @RestResource(exported = false)
     @Query("""
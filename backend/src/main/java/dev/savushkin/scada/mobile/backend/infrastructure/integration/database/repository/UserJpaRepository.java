@@ -30,6 +30,18 @@ public interface UserJpaRepository extends JpaRepository<UserEntity, Long>, JpaS
             """)
     @NonNull Optional<UserEntity> findByIdWithRole(@Param("userId") Long userId);
 
+    /**
+     * Имя роли пользователя — без загрузки сущности пользователя.
+     */
+    @Query("""
+            select r.name
+            from UserEntity u
+            join u.role r
+            where u.id = :userId
+            """)
+    @RestResource(exported = false)
+    @NonNull Optional<String> findRoleNameById(@Param("userId") Long userId);
+
     /**
      * Активные сотрудники (кроме роли excludedRole), у которых последняя активность
      * была раньше cutoff. Пользователи без lastActivityAt (NULL) не выбираются.
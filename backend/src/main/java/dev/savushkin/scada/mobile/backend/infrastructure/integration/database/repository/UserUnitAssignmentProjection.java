@@ -0,0 +1,6 @@
+package dev.savushkin.scada.mobile.backend.infrastructure.integration.database.repository;
+
+public interface UserUnitAssignmentProjection {
+    Long getUserId();
+    String getPrintsrvInstanceId();
+}
@@ -0,0 +1,48 @@
+package dev.savushkin.scada.mobile.backend.infrastructure.integration.printsrv;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import dev.savushkin.scada.mobile.backend.infrastructure.integration.printsrv.dto.PropertiesDTO;
+import dev.savushkin.scada.mobile.backend.infrastructure.integration.printsrv.dto.QueryAllResponseDTO;
+import dev.savushkin.scada.mobile.backend.infrastructure.integration.printsrv.dto.UnitsDTO;
+import org.jspecify.annotations.NonNull;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Сериализация ответа QueryAll в JSON в том виде, в каком его присылает PrintSrv.
+ *
+ * <p>{@link PropertiesDTO} несимметричен: Jackson читает его через Builder, а свойства
+ * юнита на проводе — плоская карта строк ({@link PropertiesDTO#rawProperties()}).
+ * Поэтому дерево собирается вручную; результат читается обратно обычным
+ * {@code objectMapper.readValue(json, QueryAllResponseDTO.class)}, как в {@code TcpPrintSrvClient}.
+ */
+public final class QueryAllJson {
+
+    private QueryAllJson() {
+    }
+
+    public static @NonNull String encode(@NonNull ObjectMapper objectMapper, @NonNull QueryAllResponseDTO dto)
+            throws JsonProcessingException {
+        ObjectNode root = objectMapper.createObjectNode()
+                .put("DeviceName", dto.deviceName())
+                .put("Command", dto.command());
+        ObjectNode units = root.putObject("Units");
+        for (Map.Entry<String, UnitsDTO> entry : dto.units().entrySet()) {
+            UnitsDTO unit = entry.getValue();
+            ObjectNode node = units.putObject(entry.getKey())
+                    .put("State", unit.state())
+                    .put("Task", unit.task());
+            if (unit.counter() != null) {
+                node.put("Counter", unit.counter());
+            }
+            Map<String, String> properties = unit.properties() != null
+                    ? unit.properties().rawProperties()
+                    : Map.of();
+            node.set("Properties", objectMapper.valueToTree(new LinkedHashMap<>(properties)));
+        }
+        return objectMapper.writeValueAsString(root);
+    }
+}
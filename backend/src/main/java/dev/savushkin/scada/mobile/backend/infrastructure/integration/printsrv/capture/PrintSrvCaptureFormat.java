@@ -0,0 +1,99 @@
+package dev.savushkin.scada.mobile.backend.infrastructure.integration.printsrv.capture;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Формат журнала захвата PrintSrv.
+ *
+ * <p>Сегмент — файл {@code printsrv-<yyyyMMdd-HHmmss>-<seq>.cap}: заголовок {@link #MAGIC}
+ * и записи подряд. Имена сортируются в хронологическом порядке.
+ * <pre>
+ * int   length      — байт записи после этого поля; 0 — конец данных сегмента
+ * long  epochMillis — момент получения ответа
+ * byte  status      — {@link #STATUS_OK} | {@link #STATUS_FAILURE}
+ * short idLength,  byte[] instanceId (UTF-8)
+ * short devLength, byte[] device (UTF-8)
+ * int   payloadLength, byte[] payload — тело P001-ответа как есть (windows-1251)
+ * </pre>
+ */
+final class PrintSrvCaptureFormat {
+
+    static final byte[] MAGIC = {'P', 'S', 'C', 'A', 'P', '0', '0', '1'};
+    static final String SUFFIX = ".cap";
+    static final byte STATUS_OK = 0;
+    static final byte STATUS_FAILURE = 1;
+
+    private PrintSrvCaptureFormat() {
+    }
+
+    /**
+     * Одна запись журнала; {@code payload} — срез отображённого в память сегмента.
+     */
+    record Frame(long epochMillis, byte status, String instanceId, String device, ByteBuffer payload) {
+    }
+
+    interface FrameConsumer {
+        void accept(Frame frame);
+    }
+
+    static int recordLength(byte[] instanceId, byte[] device, int payloadLength) {
+        return 8 + 1 + 2 + instanceId.length + 2 + device.length + 4 + payloadLength;
+    }
+
+    /**
+     * Сегменты каталога в хронологическом порядке.
+     */
+    static List<Path> segments(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(f -> f.getFileName().toString().endsWith(SUFFIX)).sorted().toList();
+        }
+    }
+
+    /**
+     * Читает все записи сегмента. Сегмент отображается в память только на чтение,
+     * поэтому {@link Frame#payload()} остаётся валидным и после возврата.
+     */
+    static void read(Path segment, FrameConsumer consumer) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        for (byte b : MAGIC) {
+            if (buffer.remaining() == 0 || buffer.get() != b) {
+                throw new IOException("Not a PrintSrv capture segment: " + segment);
+            }
+        }
+        while (buffer.remaining() >= 4) {
+            int length = buffer.getInt();
+            if (length <= 0 || length > buffer.remaining()) {
+                break;
+            }
+            long epochMillis = buffer.getLong();
+            byte status = buffer.get();
+            String instanceId = string(buffer);
+            String device = string(buffer);
+            int payloadLength = buffer.getInt();
+            ByteBuffer payload = buffer.slice(buffer.position(), payloadLength);
+            buffer.position(buffer.position() + payloadLength);
+            consumer.accept(new Frame(epochMillis, status, instanceId, device, payload));
+        }
+    }
+
+    private static String string(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getShort()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
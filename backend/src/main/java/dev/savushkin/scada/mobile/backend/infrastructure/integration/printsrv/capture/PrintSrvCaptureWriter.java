@@ -0,0 +1,184 @@
+package dev.savushkin.scada.mobile.backend.infrastructure.integration.printsrv.capture;
+
+import dev.savushkin.scada.mobile.backend.config.PrintSrvProperties;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Append-only журнал сырых ответов PrintSrv для последующего воспроизведения
+ * ({@link ReplayPrintSrvClientRegistry}). Формат — {@link PrintSrvCaptureFormat}.
+ *
+ * <p>Запись идёт в memory-mapped сегмент фиксированного размера: на горячем пути poll-а
+ * это копирование байтов в page cache под коротким {@link ReentrantLock} (не монитор —
+ * poller-ы работают в virtual threads), без системных вызовов. Сброс на диск делает ОС;
+ * {@code force()} — только при ротации и остановке. Заполненный сегмент обрезается до
+ * фактического размера, старшие сверх {@code max-segments} удаляются.
+ *
+ * <p>Ошибка ввода-вывода выключает захват до перезапуска: журнал вспомогательный
+ * и не должен мешать опросу.
+ *
+ * <p>Включается {@code printsrv.capture.enabled=true}; пишет только {@code TcpPrintSrvClient}.
+ */
+@Component
+public class PrintSrvCaptureWriter {
+
+    private static final Logger log = LoggerFactory.getLogger(PrintSrvCaptureWriter.class);
+
+    private static final DateTimeFormatter SEGMENT_TIME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+    private static final byte[] NO_PAYLOAD = new byte[0];
+
+    private final Path directory;
+    private final int segmentBytes;
+    private final int maxSegments;
+    private final ReentrantLock lock = new ReentrantLock();
+    /**
+     * UTF-8 имён инстансов и устройств — не кодируем их на каждую запись.
+     */
+    private final ConcurrentHashMap<String, byte[]> names = new ConcurrentHashMap<>();
+
+    private volatile boolean enabled;
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+    private int sequence;
+    private long dropped;
+
+    public PrintSrvCaptureWriter(PrintSrvProperties properties) {
+        PrintSrvProperties.CaptureProperties capture = properties.getCapture();
+        this.directory = Path.of(capture.getDirectory());
+        this.segmentBytes = Math.max(1, capture.getSegmentSizeMb()) * 1024 * 1024;
+        this.maxSegments = Math.max(1, capture.getMaxSegments());
+        this.enabled = capture.isEnabled();
+        if (enabled) {
+            log.info("PrintSrv capture enabled: directory={}, segment={}MB, maxSegments={}",
+                    directory.toAbsolutePath(), capture.getSegmentSizeMb(), maxSegments);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Пишет тело успешного ответа {@code QueryAll} как есть (до декодирования).
+     */
+    public void record(String instanceId, String device, byte[] payload) {
+        if (enabled) {
+            append(instanceId, device, PrintSrvCaptureFormat.STATUS_OK, payload);
+        }
+    }
+
+    /**
+     * Отмечает неудачный опрос устройства — при воспроизведении он снова станет {@code IOException}.
+     */
+    public void recordFailure(String instanceId, String device) {
+        if (enabled) {
+            append(instanceId, device, PrintSrvCaptureFormat.STATUS_FAILURE, NO_PAYLOAD);
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        lock.lock();
+        try {
+            closeSegment();
+            if (dropped > 0) {
+                log.warn("PrintSrv capture: {} frame(s) larger than a segment were dropped", dropped);
+            }
+        } catch (IOException e) {
+            log.warn("PrintSrv capture: cannot close segment: {}", e.getMessage());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // ─── Private ─────────────────────────────────────────────────────────────
+
+    private void append(String instanceId, String device, byte status, byte[] payload) {
+        byte[] id = name(instanceId);
+        byte[] dev = name(device);
+        int length = PrintSrvCaptureFormat.recordLength(id, dev, payload.length);
+        if (4 + length > segmentBytes - PrintSrvCaptureFormat.MAGIC.length) {
+            lock.lock();
+            try {
+                dropped++;
+            } finally {
+                lock.unlock();
+            }
+            return;
+        }
+        lock.lock();
+        try {
+            if (buffer == null || buffer.remaining() < 4 + length) {
+                rotate();
+            }
+            buffer.putInt(length)
+                    .putLong(System.currentTimeMillis())
+                    .put(status)
+                    .putShort((short) id.length).put(id)
+                    .putShort((short) dev.length).put(dev)
+                    .putInt(payload.length).put(payload);
+        } catch (IOException e) {
+            enabled = false;
+            log.error("PrintSrv capture disabled after I/O error: {}", e.getMessage(), e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private byte[] name(String value) {
+        byte[] bytes = names.get(value);
+        return bytes != null ? bytes : names.computeIfAbsent(value, v -> v.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void rotate() throws IOException {
+        closeSegment();
+        Files.createDirectories(directory);
+        String timestamp = LocalDateTime.now(ZoneOffset.UTC).format(SEGMENT_TIME);
+        Path segment = directory.resolve("printsrv-%s-%04d%s".formatted(timestamp, sequence++, PrintSrvCaptureFormat.SUFFIX));
+        channel = FileChannel.open(segment, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes);
+        buffer.put(PrintSrvCaptureFormat.MAGIC);
+        log.debug("PrintSrv capture: new segment {}", segment);
+        deleteOldSegments();
+    }
+
+    /**
+     * Сбрасывает сегмент и обрезает незаполненный хвост, чтобы на диске не оставались
+     * {@code segment-size-mb} нулей.
+     */
+    private void closeSegment() throws IOException {
+        if (channel == null) {
+            return;
+        }
+        int written = buffer.position();
+        buffer.force();
+        channel.truncate(written);
+        channel.close();
+        channel = null;
+        buffer = null;
+    }
+
+    private void deleteOldSegments() throws IOException {
+        List<Path> segments = PrintSrvCaptureFormat.segments(directory);
+        for (int i = 0; i < segments.size() - maxSegments; i++) {
+            Files.deleteIfExists(segments.get(i));
+        }
+    }
+}
@@ -0,0 +1,277 @@
+package dev.savushkin.scada.mobile.backend.infrastructure.integration.printsrv.capture;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.savushkin.scada.mobile.backend.application.ports.PrintSrvTopologyRepository;
+import dev.savushkin.scada.mobile.backend.config.PrintSrvProperties;
+import dev.savushkin.scada.mobile.backend.domain.model.PrintSrvInstance;
+import dev.savushkin.scada.mobile.backend.infrastructure.integration.printsrv.client.PrintSrvClient;
+import dev.savushkin.scada.mobile.backend.infrastructure.integration.printsrv.client.PrintSrvClientRegistry;
+import dev.savushkin.scada.mobile.backend.infrastructure.integration.printsrv.client.PrintSrvClientSyncReport;
+import dev.savushkin.scada.mobile.backend.infrastructure.integration.printsrv.dto.QueryAllResponseDTO;
+import dev.savushkin.scada.mobile.backend.infrastructure.polling.PollingMetrics;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Реестр PrintSrv-клиентов профиля {@code replay}: вместо сети отдаёт ответы из журнала
+ * {@link PrintSrvCaptureWriter}, записанного на реальном производстве.
+ *
+ * <p>Журнал индексируется при старте: по каждой паре (инстанс, устройство) — отсортированные
+ * моменты получения и срезы отображённых в память сегментов. Часы воспроизведения стартуют
+ * с первого кадра журнала и идут со скоростью {@code printsrv.replay.speed}; {@code queryAll}
+ * возвращает последний кадр устройства не позже текущего момента воспроизведения, а
+ * записанная неудача опроса снова превращается в {@link IOException}. Так через весь
+ * конвейер (poller → снапшоты → алерты → WebSocket) проходит та же смена, и разные сборки
+ * можно сравнивать по CPU, задержкам и выданным алертам.
+ *
+ * <p>Клиенты создаются по топологии из БД, как у TCP-реестра: идентификаторы инстансов
+ * журнала должны совпадать с {@code printsrv_instance_id}. Инстанс без кадров ведёт себя
+ * как недоступный.
+ *
+ * <p>Активация: {@code spring.profiles.active=prod,replay} (или {@code dev,replay}).
+ */
+@Component
+@Profile("replay")
+public class ReplayPrintSrvClientRegistry implements PrintSrvClientRegistry {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplayPrintSrvClientRegistry.class);
+
+    private static final Charset CHARSET = Charset.forName("windows-1251");
+
+    private final PrintSrvTopologyRepository topologyRepo;
+    private final ObjectMapper objectMapper;
+    private final PollingMetrics pollingMetrics;
+    private final Path directory;
+    private final double speed;
+    private final boolean loop;
+    private final AtomicBoolean endLogged = new AtomicBoolean();
+
+    /**
+     * instanceId → устройство → кадры; заполняется один раз в {@link #init()}.
+     */
+    private Map<String, Map<String, Frames>> index = Map.of();
+    private long firstMillis;
+    private long lastMillis;
+    private long startedAtNanos;
+
+    private volatile Map<String, ReplayClient> clients = Map.of();
+
+    public ReplayPrintSrvClientRegistry(
+            PrintSrvTopologyRepository topologyRepo,
+            PrintSrvProperties props,
+            ObjectMapper objectMapper,
+            PollingMetrics pollingMetrics
+    ) {
+        this.topologyRepo = topologyRepo;
+        this.objectMapper = objectMapper;
+        this.pollingMetrics = pollingMetrics;
+        this.directory = Path.of(props.getReplay().getDirectory());
+        this.speed = props.getReplay().getSpeed() > 0 ? props.getReplay().getSpeed() : 1.0;
+        this.loop = props.getReplay().isLoop();
+    }
+
+    @PostConstruct
+    public void init() {
+        loadIndex();
+        startedAtNanos = System.nanoTime();
+        synchronize();
+        log.info("ReplayPrintSrvClientRegistry initialized: {} instance(s) in topology, {} in capture, "
+                        + "{} s of traffic at {}x", clients.size(), index.size(),
+                (lastMillis - firstMillis) / 1000, speed);
+    }
+
+    @Override
+    public synchronized PrintSrvClientSyncReport synchronize() {
+        Map<String, ReplayClient> current = clients;
+        Map<String, ReplayClient> next = new LinkedHashMap<>();
+        Set<String> added = new LinkedHashSet<>();
+        for (PrintSrvInstance inst : topologyRepo.findAllActiveInstances()) {
+            String id = inst.instanceId();
+            ReplayClient existing = current.get(id);
+            if (existing != null) {
+                next.put(id, existing);
+            } else {
+                next.put(id, new ReplayClient(id, index.getOrDefault(id, Map.of()), pollingMetrics.forInstance(id)));
+                added.add(id);
+            }
+        }
+        Set<String> removed = new LinkedHashSet<>(current.keySet());
+        removed.removeAll(next.keySet());
+        clients = Collections.unmodifiableMap(next);
+        return new PrintSrvClientSyncReport(added, removed, Set.of());
+    }
+
+    @Override
+    public PrintSrvClient get(String instanceId) {
+        PrintSrvClient client = clients.get(instanceId);
+        if (client == null) {
+            throw new NoSuchElementException("Unknown instance: " + instanceId);
+        }
+        return client;
+    }
+
+    @Override
+    public Collection<PrintSrvClient> getAll() {
+        return Collections.unmodifiableCollection(clients.values());
+    }
+
+    @Override
+    public Set<String> getInstanceIds() {
+        return clients.keySet();
+    }
+
+    // ─── Private ─────────────────────────────────────────────────────────────
+
+    private void loadIndex() {
+        Map<String, Map<String, List<PrintSrvCaptureFormat.Frame>>> frames = new HashMap<>();
+        long[] bounds = {Long.MAX_VALUE, Long.MIN_VALUE};
+        try {
+            for (Path segment : PrintSrvCaptureFormat.segments(directory)) {
+                PrintSrvCaptureFormat.read(segment, frame -> {
+                    frames.computeIfAbsent(frame.instanceId(), k -> new HashMap<>())
+                            .computeIfAbsent(frame.device(), k -> new ArrayList<>())
+                            .add(frame);
+                    bounds[0] = Math.min(bounds[0], frame.epochMillis());
+                    bounds[1] = Math.max(bounds[1], frame.epochMillis());
+                });
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read PrintSrv capture from " + directory.toAbsolutePath(), e);
+        }
+        if (frames.isEmpty()) {
+            log.warn("PrintSrv capture in {} is empty: every instance will be unreachable", directory.toAbsolutePath());
+            firstMillis = lastMillis = 0L;
+            return;
+        }
+        Map<String, Map<String, Frames>> built = new HashMap<>();
+        frames.forEach((instanceId, byDevice) -> {
+            Map<String, Frames> devices = new HashMap<>();
+            byDevice.forEach((device, list) -> devices.put(device, Frames.of(list)));
+            built.put(instanceId, Map.copyOf(devices));
+        });
+        index = Map.copyOf(built);
+        firstMillis = bounds[0];
+        lastMillis = bounds[1];
+    }
+
+    /**
+     * Текущий момент журнала: {@code first + elapsed × speed}, по окончании — конец журнала
+     * или, при {@code loop}, снова начало.
+     */
+    private long replayMillis() {
+        long elapsed = (long) ((System.nanoTime() - startedAtNanos) / 1_000_000.0 * speed);
+        long span = lastMillis - firstMillis;
+        if (elapsed <= span) {
+            return firstMillis + elapsed;
+        }
+        if (loop && span > 0) {
+            return firstMillis + elapsed % (span + 1);
+        }
+        if (endLogged.compareAndSet(false, true)) {
+            log.info("PrintSrv replay reached the end of the capture; serving the last frames");
+        }
+        return lastMillis;
+    }
+
+    /**
+     * Кадры одного устройства, отсортированные по времени.
+     */
+    private record Frames(long[] epochMillis, byte[] status, ByteBuffer[] payloads) {
+
+        static Frames of(List<PrintSrvCaptureFormat.Frame> frames) {
+            List<PrintSrvCaptureFormat.Frame> sorted = new ArrayList<>(frames);
+            sorted.sort((a, b) -> Long.compare(a.epochMillis(), b.epochMillis()));
+            long[] times = new long[sorted.size()];
+            byte[] status = new byte[sorted.size()];
+            ByteBuffer[] payloads = new ByteBuffer[sorted.size()];
+            for (int i = 0; i < sorted.size(); i++) {
+                times[i] = sorted.get(i).epochMillis();
+                status[i] = sorted.get(i).status();
+                payloads[i] = sorted.get(i).payload();
+            }
+            return new Frames(times, status, payloads);
+        }
+
+        /**
+         * Индекс последнего кадра не позже {@code millis}; -1 — кадров ещё не было.
+         */
+        int at(long millis) {
+            int i = Arrays.binarySearch(epochMillis, millis);
+            if (i >= 0) {
+                while (i + 1 < epochMillis.length && epochMillis[i + 1] == millis) {
+                    i++;
+                }
+                return i;
+            }
+            return -i - 2;
+        }
+    }
+
+    private final class ReplayClient implements PrintSrvClient {
+
+        private final String instanceId;
+        private final Map<String, Frames> devices;
+        private final PollingMetrics.InstanceMetrics metrics;
+
+        private ReplayClient(String instanceId, Map<String, Frames> devices, PollingMetrics.InstanceMetrics metrics) {
+            this.instanceId = instanceId;
+            this.devices = devices;
+            this.metrics = metrics;
+        }
+
+        @Override
+        public String getInstanceId() {
+            return instanceId;
+        }
+
+        @Override
+        public QueryAllResponseDTO queryAll(String deviceName) throws IOException {
+            Frames frames = devices.get(deviceName);
+            if (frames == null) {
+                throw new IOException("No captured frames for " + instanceId + "/" + deviceName);
+            }
+            int i = frames.at(replayMillis());
+            if (i < 0) {
+                throw new IOException("Replay of " + instanceId + "/" + deviceName + " has not started yet");
+            }
+            if (frames.status()[i] == PrintSrvCaptureFormat.STATUS_FAILURE) {
+                throw new IOException("Captured poll failure of " + instanceId + "/" + deviceName);
+            }
+            PollingMetrics.InstanceMetrics.DeviceMetrics deviceMetrics = metrics.device(deviceName);
+            ByteBuffer payload = frames.payloads()[i].duplicate();
+            long start = System.nanoTime();
+            String json = CHARSET.decode(payload).toString();
+            deviceMetrics.recordRequest(System.nanoTime() - start, payload.capacity());
+            long parseStart = System.nanoTime();
+            QueryAllResponseDTO dto = objectMapper.readValue(json, QueryAllResponseDTO.class);
+            deviceMetrics.recordParse(System.nanoTime() - parseStart);
+            return dto;
+        }
+
+        @Override
+        public boolean isAlive() {
+            return !devices.isEmpty();
+        }
+    }
+}
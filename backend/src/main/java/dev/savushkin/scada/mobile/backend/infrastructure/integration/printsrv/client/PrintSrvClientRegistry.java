@@ -16,6 +16,8 @@ import java.util.Set;
  *   <li>{@code MockPrintSrvClientRegistry} — {@code @Profile("dev")}, 14 изолированных
  *       in-memory состояний.</li>
  *   <li>Реальная TCP-реализация — планируется для {@code @Profile("prod")}.</li>
+ *   <li>{@code ReplayPrintSrvClientRegistry} — {@code @Profile("replay")}, ответы из журнала
+ *       захвата вместо сети; mock- и TCP-реестры в этом профиле не создаются.</li>
  * </ul>
  */
 public interface PrintSrvClientRegistry {
@@ -45,7 +47,7 @@ public interface PrintSrvClientRegistry {
      * создаёт клиентов для новых инстансов, закрывает клиентов исчезнувших
      * и пересоздаёт клиентов с изменившимися параметрами подключения (host/port).
      *
-     * <p>Вызывается после коммита админ-изменений автоматов (см.
+     * <p>Вызывается на каждую опубликованную пачку outbox конфигурации автоматов (см.
      * {@code PrintSrvConnectionSynchronizer}), чтобы слой подключений
      * соответствовал БД без перезапуска приложения. Потокобезопасно:
      * polling-worker-ы продолжают работать со своим экземпляром клиента,
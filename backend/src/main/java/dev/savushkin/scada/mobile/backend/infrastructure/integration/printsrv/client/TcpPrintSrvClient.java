@@ -1,9 +1,11 @@
 package dev.savushkin.scada.mobile.backend.infrastructure.integration.printsrv.client;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.savushkin.scada.mobile.backend.infrastructure.integration.printsrv.capture.PrintSrvCaptureWriter;
 import dev.savushkin.scada.mobile.backend.infrastructure.integration.printsrv.dto.QueryAllRequestDTO;
 import dev.savushkin.scada.mobile.backend.infrastructure.integration.printsrv.dto.QueryAllResponseDTO;
 import dev.savushkin.scada.mobile.backend.infrastructure.polling.PollingLogger;
+import dev.savushkin.scada.mobile.backend.infrastructure.polling.PollingMetrics;
 import org.jetbrains.annotations.Contract;
 import org.jspecify.annotations.NonNull;
 import org.slf4j.Logger;
@@ -29,6 +31,12 @@ import java.nio.charset.Charset;
  *   <li>Переподключение: при ошибке socket инвалидируется, следующий вызов создаст новый</li>
  *   <li>Thread-safe: все операции с socket синхронизированы</li>
  * </ul>
+ * <p>
+ * Время подключения, сетевого обмена и разбора ответа, а также размер ответа
+ * пишутся в {@link PollingMetrics} по заранее созданным метрам инстанса/устройства.
+ * <p>
+ * Если включён {@link PrintSrvCaptureWriter}, сырое тело каждого ответа и каждая
+ * неудача обмена пишутся в журнал для последующего воспроизведения.
  */
 public class TcpPrintSrvClient implements PrintSrvClient {
 
@@ -44,6 +52,8 @@ public class TcpPrintSrvClient implements PrintSrvClient {
     private final int connectTimeoutMs;
     private final int readTimeoutMs;
     private final ObjectMapper objectMapper;
+    private final PollingMetrics.InstanceMetrics metrics;
+    private final PrintSrvCaptureWriter capture;
 
     private volatile Socket socket;
 
@@ -53,7 +63,9 @@ public class TcpPrintSrvClient implements PrintSrvClient {
             int port,
             int connectTimeoutMs,
             int readTimeoutMs,
-            ObjectMapper objectMapper
+            ObjectMapper objectMapper,
+            PollingMetrics.InstanceMetrics metrics,
+            PrintSrvCaptureWriter capture
     ) {
         this.instanceId = instanceId;
         this.host = host;
@@ -61,6 +73,8 @@ public class TcpPrintSrvClient implements PrintSrvClient {
         this.connectTimeoutMs = connectTimeoutMs;
         this.readTimeoutMs = readTimeoutMs;
         this.objectMapper = objectMapper;
+        this.metrics = metrics;
+        this.capture = capture;
         log.debug("TcpPrintSrvClient created: instance='{}', address={}:{}", instanceId, host, port);
     }
 
@@ -89,10 +103,13 @@ public class TcpPrintSrvClient implements PrintSrvClient {
         QueryAllRequestDTO request = new QueryAllRequestDTO(deviceName, "QueryAll");
         String json = objectMapper.writeValueAsString(request);
         PollingLogger.logRequestSent(instanceId, deviceName, json);
-        String response = sendAndReceive(json, deviceName);
+        PollingMetrics.InstanceMetrics.DeviceMetrics deviceMetrics = metrics.device(deviceName);
+        String response = sendAndReceive(json, deviceName, deviceMetrics);
         PollingLogger.logResponseBody(instanceId, deviceName, response);
         try {
+            long parseStart = System.nanoTime();
             QueryAllResponseDTO dto = objectMapper.readValue(response, QueryAllResponseDTO.class);
+            deviceMetrics.recordParse(System.nanoTime() - parseStart);
             int unitCount = dto.units() != null ? dto.units().size() : 0;
             PollingLogger.logParseSuccess(instanceId, deviceName, dto.deviceName(), unitCount);
             return dto;
@@ -123,9 +140,14 @@ public class TcpPrintSrvClient implements PrintSrvClient {
         }
     }
 
-    @Contract("_, _ -> new")
-    private synchronized @NonNull String sendAndReceive(@NonNull String json, String deviceName) throws IOException {
+    @Contract("_, _, _ -> new")
+    private synchronized @NonNull String sendAndReceive(
+            @NonNull String json,
+            String deviceName,
+            PollingMetrics.InstanceMetrics.DeviceMetrics deviceMetrics
+    ) throws IOException {
         Socket s = getOrCreateSocket();
+        long requestStart = System.nanoTime();
         try {
             // Send: MAGIC + length(BE) + body(windows-1251)
             byte[] body = json.getBytes(CHARSET);
@@ -153,9 +175,13 @@ public class TcpPrintSrvClient implements PrintSrvClient {
             }
 
             PollingLogger.logResponseHeader(instanceId, deviceName, length);
-            return new String(in.readNBytes(length), CHARSET);
+            byte[] payload = in.readNBytes(length);
+            deviceMetrics.recordRequest(System.nanoTime() - requestStart, payload.length);
+            capture.record(instanceId, deviceName, payload);
+            return new String(payload, CHARSET);
         } catch (IOException e) {
             PollingLogger.logSocketError(instanceId, e.getMessage());
+            capture.recordFailure(instanceId, deviceName);
             invalidate();
             throw e;
         }
@@ -169,7 +195,9 @@ public class TcpPrintSrvClient implements PrintSrvClient {
         log.debug("Connecting to PrintSrv '{}' at {}:{}", instanceId, host, port);
         PollingLogger.logSocketCreate(instanceId, host, port);
         Socket s = new Socket();
+        long connectStart = System.nanoTime();
         s.connect(new InetSocketAddress(host, port), connectTimeoutMs);
+        metrics.recordConnect(System.nanoTime() - connectStart);
         s.setSoTimeout(readTimeoutMs);
         socket = s;
         log.debug("Connected to PrintSrv '{}' at {}:{}", instanceId, host, port);
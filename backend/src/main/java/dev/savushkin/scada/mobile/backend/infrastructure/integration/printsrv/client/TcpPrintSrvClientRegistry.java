@@ -4,6 +4,8 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import dev.savushkin.scada.mobile.backend.application.ports.PrintSrvTopologyRepository;
 import dev.savushkin.scada.mobile.backend.config.PrintSrvProperties;
 import dev.savushkin.scada.mobile.backend.domain.model.PrintSrvInstance;
+import dev.savushkin.scada.mobile.backend.infrastructure.integration.printsrv.capture.PrintSrvCaptureWriter;
+import dev.savushkin.scada.mobile.backend.infrastructure.polling.PollingMetrics;
 import jakarta.annotation.PostConstruct;
 import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
@@ -22,9 +24,12 @@ import java.util.*;
  * автоматов реестр приводится к состоянию БД вызовом {@link #synchronize()}
  * (без перезапуска приложения).
  * При shutdown приложения закрывает все TCP-соединения.
+ * <p>
+ * В профиле {@code replay} вместо него работает
+ * {@link dev.savushkin.scada.mobile.backend.infrastructure.integration.printsrv.capture.ReplayPrintSrvClientRegistry}.
  */
 @Component
-@Profile("prod")
+@Profile("prod & !replay")
 public class TcpPrintSrvClientRegistry implements PrintSrvClientRegistry {
 
     private static final Logger log = LoggerFactory.getLogger(TcpPrintSrvClientRegistry.class);
@@ -32,6 +37,8 @@ public class TcpPrintSrvClientRegistry implements PrintSrvClientRegistry {
     private final PrintSrvTopologyRepository topologyRepo;
     private final PrintSrvProperties props;
     private final ObjectMapper objectMapper;
+    private final PollingMetrics pollingMetrics;
+    private final PrintSrvCaptureWriter captureWriter;
     /**
      * Атомарно заменяемая карта клиентов: читатели (poller-ы) никогда не наблюдают
      * промежуточное состояние сверки.
@@ -41,11 +48,15 @@ public class TcpPrintSrvClientRegistry implements PrintSrvClientRegistry {
     public TcpPrintSrvClientRegistry(
             PrintSrvTopologyRepository topologyRepo,
             PrintSrvProperties props,
-            ObjectMapper objectMapper
+            ObjectMapper objectMapper,
+            PollingMetrics pollingMetrics,
+            PrintSrvCaptureWriter captureWriter
     ) {
         this.topologyRepo = topologyRepo;
         this.props = props;
         this.objectMapper = objectMapper;
+        this.pollingMetrics = pollingMetrics;
+        this.captureWriter = captureWriter;
     }
 
     @PostConstruct
@@ -78,7 +89,7 @@ public class TcpPrintSrvClientRegistry implements PrintSrvClientRegistry {
                 added.add(id);
             }
             next.put(id, new TcpPrintSrvClient(id, inst.host(), inst.port(),
-                    connectTimeout, readTimeout, objectMapper));
+                    connectTimeout, readTimeout, objectMapper, pollingMetrics.forInstance(id), captureWriter));
         }
 
         Set<String> removed = new LinkedHashSet<>();
@@ -56,7 +56,7 @@ import java.util.*;
  * пустым и логирует предупреждение.
  */
 @Component
-@Profile("dev")
+@Profile("dev & !replay")
 public class MockPrintSrvClientRegistry implements PrintSrvClientRegistry {
 
     private static final Logger log = LoggerFactory.getLogger(MockPrintSrvClientRegistry.class);
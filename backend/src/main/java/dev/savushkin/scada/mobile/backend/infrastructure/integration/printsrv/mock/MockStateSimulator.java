@@ -8,6 +8,7 @@ import dev.savushkin.scada.mobile.backend.infrastructure.integration.printsrv.Pr
 import dev.savushkin.scada.mobile.backend.infrastructure.integration.printsrv.dto.QueryAllResponseDTO;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Profile;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
@@ -49,9 +50,15 @@ import java.util.*;
  * {@code @Scheduled} выполняется в одном потоке Spring Scheduler.
  * Все записи идут через {@link MockInstanceState}, у которого write-lock.
  * Метод {@link #tickAll()} является единственной точкой мутации.
+ *
+ * <h3>Вне Spring-контекста</h3>
+ * Конструктор {@link #MockStateSimulator(MockPrintSrvProperties)} создаёт симулятор без реестра
+ * и хранилища снапшотов: состояние, которым владеет вызывающий код (например, fake PrintSrv
+ * TCP-сервер нагрузочного стенда), продвигается через {@link #tickState(MockInstanceState, String)}
+ * по тем же правилам.
  */
 @Component
-@Profile("dev")
+@Profile("dev & !replay")
 public class MockStateSimulator {
 
     private static final Logger log = LoggerFactory.getLogger(MockStateSimulator.class);
@@ -65,6 +72,7 @@ public class MockStateSimulator {
     private final PrintSrvMapper mapper;
     private final Random random;
 
+    @Autowired
     public MockStateSimulator(
             MockPrintSrvClientRegistry registry,
             MockPrintSrvProperties mockProperties,
@@ -80,6 +88,13 @@ public class MockStateSimulator {
         this.random = new Random(mockProperties.getRandomSeed());
     }
 
+    /**
+     * Симулятор без реестра и хранилища снапшотов — только {@link #tickState}.
+     */
+    public MockStateSimulator(MockPrintSrvProperties mockProperties) {
+        this(null, mockProperties, null, null, null);
+    }
+
     // ─── Плановый тик ──────────────────────────────────────────────────────
 
     /**
@@ -104,6 +119,9 @@ public class MockStateSimulator {
      * поэтому последовательность при фиксированном seed детерминирована.
      */
     public void tickAll() {
+        if (registry == null) {
+            return;
+        }
         for (MockPrintSrvClient client : registry.getAllMock()) {
             if (client.isOffline()) {
                 continue;
@@ -129,6 +147,18 @@ public class MockStateSimulator {
             return;
         }
 
+        tickState(state, inst.scadaDeviceName());
+    }
+
+    /**
+     * Один тик симуляции для одного состояния: счётчики линии, принтеров и камер,
+     * флаги ошибок на {@code scadaDevice}. Снапшоты не обновляются.
+     *
+     * @param state       состояние инстанса
+     * @param scadaDevice имя устройства scada (см. {@link PrintSrvInstance#scadaDeviceName()})
+     */
+    public void tickState(MockInstanceState state, String scadaDevice) {
+        String id = state.getInstanceId();
         for (String device : state.getDeviceNames()) {
             if ("Line".equals(device)) {
                 tickLine(state, device, id);
@@ -140,8 +170,8 @@ public class MockStateSimulator {
                 tickCamChecker(state, device, id);
             } else if (device.startsWith("Printer")) {
                 tickPrinter(state, device, id);
-            } else if ("scada".equals(device)) {
-                tickScada(state, inst, id);
+            } else if (scadaDevice.equals(device)) {
+                tickScada(state, scadaDevice, id);
             }
             // BatchQueue и прочие системные устройства не тикаются
         }
@@ -328,10 +358,9 @@ public class MockStateSimulator {
      */
     private void tickScada(
             MockInstanceState state,
-            PrintSrvInstance inst,
+            String scadaDevice,
             String instanceId
     ) {
-        String scadaDevice = inst.scadaDeviceName();
         Map<String, String> scadaProps = state.getPropertiesCopy(scadaDevice);
         if (scadaProps.isEmpty()) {
             return;
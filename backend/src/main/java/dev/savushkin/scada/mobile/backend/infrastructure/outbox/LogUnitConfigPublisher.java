@@ -0,0 +1,67 @@
+package dev.savushkin.scada.mobile.backend.infrastructure.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.savushkin.scada.mobile.backend.config.UnitConfigProperties;
+import dev.savushkin.scada.mobile.backend.domain.model.UnitConfigChange;
+import dev.savushkin.scada.mobile.backend.infrastructure.ingestion.log.PartitionedLog;
+import jakarta.annotation.PreDestroy;
+import org.jspecify.annotations.NonNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Публикатор {@code log}: JSON-сообщения в {@link PartitionedLog} с ключом {@code instanceId} —
+ * локальная замена топика {@code scada.mobile.config.unit-changes}.
+ * <p>
+ * Журнал открывается при первой публикации, чтобы при других публикаторах
+ * каталог не создавался.
+ */
+@Component
+public class LogUnitConfigPublisher implements UnitConfigPublisher {
+
+    private static final Logger log = LoggerFactory.getLogger(LogUnitConfigPublisher.class);
+
+    private final UnitConfigProperties.LogProperties properties;
+    private final ObjectMapper objectMapper;
+
+    private PartitionedLog partitionedLog;
+
+    public LogUnitConfigPublisher(UnitConfigProperties properties, ObjectMapper objectMapper) {
+        this.properties = properties.getLog();
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public @NonNull String name() {
+        return UnitConfigProperties.PUBLISHER_LOG;
+    }
+
+    @Override
+    public synchronized void publish(@NonNull List<UnitConfigChange> changes) throws IOException {
+        if (partitionedLog == null) {
+            partitionedLog = PartitionedLog.open(Path.of(properties.getDirectory()), properties.getPartitions());
+            log.info("LogUnitConfigPublisher: writing to {}", partitionedLog.directory().toAbsolutePath());
+        }
+        for (UnitConfigChange change : changes) {
+            partitionedLog.append(change.instanceId(), objectMapper.writeValueAsBytes(UnitConfigMessage.of(change)));
+        }
+    }
+
+    @PreDestroy
+    public synchronized void close() {
+        if (partitionedLog == null) {
+            return;
+        }
+        try {
+            partitionedLog.close();
+        } catch (IOException e) {
+            log.warn("LogUnitConfigPublisher: close failed: {}", e.getMessage());
+        }
+        partitionedLog = null;
+    }
+}
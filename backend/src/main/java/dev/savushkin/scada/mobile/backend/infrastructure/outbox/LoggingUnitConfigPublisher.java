@@ -0,0 +1,40 @@
+package dev.savushkin.scada.mobile.backend.infrastructure.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.savushkin.scada.mobile.backend.config.UnitConfigProperties;
+import dev.savushkin.scada.mobile.backend.domain.model.UnitConfigChange;
+import org.jspecify.annotations.NonNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Публикатор {@code logging}: пишет сообщения в лог приложения. Вариант по умолчанию,
+ * пока внешнего потребителя конфигурации нет.
+ */
+@Component
+public class LoggingUnitConfigPublisher implements UnitConfigPublisher {
+
+    private static final Logger log = LoggerFactory.getLogger(LoggingUnitConfigPublisher.class);
+
+    private final ObjectMapper objectMapper;
+
+    public LoggingUnitConfigPublisher(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public @NonNull String name() {
+        return UnitConfigProperties.PUBLISHER_LOGGING;
+    }
+
+    @Override
+    public void publish(@NonNull List<UnitConfigChange> changes) throws IOException {
+        for (UnitConfigChange change : changes) {
+            log.info("Unit config change: {}", objectMapper.writeValueAsString(UnitConfigMessage.of(change)));
+        }
+    }
+}
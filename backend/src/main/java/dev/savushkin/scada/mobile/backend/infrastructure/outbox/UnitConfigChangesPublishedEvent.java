@@ -0,0 +1,22 @@
+package dev.savushkin.scada.mobile.backend.infrastructure.outbox;
+
+import dev.savushkin.scada.mobile.backend.domain.model.UnitConfigChange;
+
+import java.util.List;
+
+/**
+ * Пачка outbox опубликована: изменения конфигурации автоматов после схлопывания
+ * по {@code instanceId} — по одному на автомат.
+ * <p>
+ * Публикуется {@link UnitConfigOutboxRelay} после коммита удаления пачки, чтобы
+ * внутренние потребители (слой подключений PrintSrv) сверялись один раз на пачку,
+ * а не на каждое админ-изменение.
+ *
+ * @param changes изменения в порядке публикации
+ */
+public record UnitConfigChangesPublishedEvent(List<UnitConfigChange> changes) {
+
+    public UnitConfigChangesPublishedEvent {
+        changes = List.copyOf(changes);
+    }
+}
@@ -0,0 +1,38 @@
+package dev.savushkin.scada.mobile.backend.infrastructure.outbox;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import dev.savushkin.scada.mobile.backend.domain.model.UnitConfigChange;
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Сообщение топика {@code scada.mobile.config.unit-changes} (ТЗ Gateway, раздел 2.2).
+ * <p>
+ * Для {@code UNIT_DELETE} передаются только {@code eventType}, {@code instanceId}
+ * и {@code timestamp}.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record UnitConfigMessage(
+        @NonNull String eventType,
+        @NonNull String instanceId,
+        @Nullable String host,
+        @Nullable Integer port,
+        @Nullable String displayName,
+        @Nullable Long workshopId,
+        @JsonProperty("isActive") @Nullable Boolean active,
+        @NonNull String timestamp
+) {
+
+    public static final String UNIT_UPSERT = "UNIT_UPSERT";
+    public static final String UNIT_DELETE = "UNIT_DELETE";
+
+    public static @NonNull UnitConfigMessage of(@NonNull UnitConfigChange change) {
+        String timestamp = change.occurredAt().toString();
+        if (change.type() == UnitConfigChange.Type.DELETE) {
+            return new UnitConfigMessage(UNIT_DELETE, change.instanceId(), null, null, null, null, null, timestamp);
+        }
+        return new UnitConfigMessage(UNIT_UPSERT, change.instanceId(), change.host(), change.port(),
+                change.displayName(), change.workshopId(), change.active(), timestamp);
+    }
+}
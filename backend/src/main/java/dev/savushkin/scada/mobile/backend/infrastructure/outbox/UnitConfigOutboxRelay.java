@@ -0,0 +1,294 @@
+package dev.savushkin.scada.mobile.backend.infrastructure.outbox;
+
+import dev.savushkin.scada.mobile.backend.application.ports.UnitConfigOutboxRepository;
+import dev.savushkin.scada.mobile.backend.config.UnitConfigProperties;
+import dev.savushkin.scada.mobile.backend.domain.model.UnitChangedEvent;
+import dev.savushkin.scada.mobile.backend.domain.model.UnitConfigChange;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Relay transactional outbox изменений конфигурации автоматов: вычитывает
+ * {@code unit_config_outbox} пачками и публикует их через {@link UnitConfigPublisher},
+ * выбранный {@code unit-config.publisher}.
+ *
+ * <h3>Пачка</h3>
+ * В одной транзакции под блокировкой relay ({@link UnitConfigOutboxRepository#tryLockRelay()}):
+ * до {@code unit-config.batch-size} строк → схлопывание по {@code instanceId} (остаётся
+ * последнее изменение автомата) → публикация → удаление строк. Ошибка публикации
+ * откатывает транзакцию: строки остаются и будут опубликованы повторно (at-least-once).
+ * После коммита публикуется {@link UnitConfigChangesPublishedEvent} — так массовая правка
+ * десятков автоматов даёт одну сверку подключений вместо десятков.
+ *
+ * <h3>Когда работает</h3>
+ * Worker в virtual thread будится коммитом админ-изменения ({@link UnitChangedEvent})
+ * и дополнительно проверяет outbox раз в {@code unit-config.poll-interval-ms}.
+ *
+ * <h3>Снимок при старте</h3>
+ * При {@code unit-config.snapshot-on-startup=true} worker сначала дочитывает outbox,
+ * затем публикует {@code UNIT_UPSERT} для всех активных автоматов (одним запросом к БД).
+ * Снимок читается после публикации хвоста outbox, поэтому не бывает старее уже
+ * опубликованного состояния автомата.
+ *
+ * <h3>Метрики</h3>
+ * <ul>
+ *   <li>{@code unit.config.outbox.rows} — вычитанные строки outbox;</li>
+ *   <li>{@code unit.config.published{source}} — опубликованные сообщения ({@code outbox} | {@code snapshot});</li>
+ *   <li>{@code unit.config.relay} — длительность пачки;</li>
+ *   <li>{@code unit.config.errors} — неудачные пачки и снимки.</li>
+ * </ul>
+ */
+@Component
+public class UnitConfigOutboxRelay implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(UnitConfigOutboxRelay.class);
+
+    private final UnitConfigOutboxRepository outbox;
+    private final UnitConfigPublisher publisher;
+    private final UnitConfigProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Semaphore signal = new Semaphore(0);
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    private final Counter outboxRows;
+    private final Counter publishedFromOutbox;
+    private final Counter publishedFromSnapshot;
+    private final Timer relayDuration;
+    private final Counter errors;
+
+    private volatile Thread worker;
+
+    public UnitConfigOutboxRelay(
+            UnitConfigOutboxRepository outbox,
+            List<UnitConfigPublisher> publishers,
+            UnitConfigProperties properties,
+            PlatformTransactionManager transactionManager,
+            ApplicationEventPublisher eventPublisher,
+            MeterRegistry registry
+    ) {
+        this.outbox = outbox;
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.publisher = publishers.stream()
+                .filter(candidate -> candidate.name().equals(properties.getPublisher()))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException(
+                        "Unknown unit-config.publisher='%s'. Available: %s".formatted(properties.getPublisher(),
+                                publishers.stream().map(UnitConfigPublisher::name).toList())));
+
+        this.outboxRows = Counter.builder("unit.config.outbox.rows")
+                .description("Unit config outbox rows relayed")
+                .register(registry);
+        this.publishedFromOutbox = Counter.builder("unit.config.published")
+                .description("Unit config messages published")
+                .tag("source", "outbox")
+                .register(registry);
+        this.publishedFromSnapshot = Counter.builder("unit.config.published")
+                .description("Unit config messages published")
+                .tag("source", "snapshot")
+                .register(registry);
+        this.relayDuration = Timer.builder("unit.config.relay")
+                .description("Relay of one unit config outbox batch")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(registry);
+        this.errors = Counter.builder("unit.config.errors")
+                .description("Failed unit config outbox batches and snapshots")
+                .register(registry);
+    }
+
+    /**
+     * Будит worker после коммита админ-изменения автомата.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onUnitChanged(UnitChangedEvent event) {
+        signal.release();
+    }
+
+    @Override
+    public void start() {
+        if (!running.compareAndSet(false, true)) {
+            return;
+        }
+        worker = Thread.ofVirtual().name("unit-config-relay").start(this::runLoop);
+        log.info("UnitConfigOutboxRelay started: publisher='{}'", publisher.name());
+    }
+
+    @Override
+    public void stop() {
+        if (!running.compareAndSet(true, false)) {
+            return;
+        }
+        Thread current = worker;
+        if (current != null) {
+            current.interrupt();
+            try {
+                current.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            worker = null;
+        }
+        log.info("UnitConfigOutboxRelay stopped");
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running.get();
+    }
+
+    // ─── Private ─────────────────────────────────────────────────────────────
+
+    private void runLoop() {
+        boolean snapshotPending = properties.isSnapshotOnStartup();
+        while (running.get() && !Thread.currentThread().isInterrupted()) {
+            boolean drained = drain();
+            if (drained && snapshotPending) {
+                snapshotPending = !exportSnapshot();
+            }
+            try {
+                signal.tryAcquire(properties.getPollIntervalMs(), TimeUnit.MILLISECONDS);
+                signal.drainPermits();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Публикует пачки, пока outbox не опустеет.
+     *
+     * @return {@code true}, если outbox дочитан; {@code false} — ошибка или блокировку держит другой узел
+     */
+    private boolean drain() {
+        int batchSize = Math.max(1, properties.getBatchSize());
+        while (running.get()) {
+            RelayedBatch batch;
+            long startedAt = System.nanoTime();
+            try {
+                batch = transactionTemplate.execute(status -> relayBatch(batchSize));
+            } catch (RuntimeException e) {
+                errors.increment();
+                log.warn("UnitConfigOutboxRelay: batch failed, will retry: {}", e.getMessage());
+                return false;
+            }
+            if (batch == null) {
+                return false;
+            }
+            if (batch.rows() == 0) {
+                return true;
+            }
+            relayDuration.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+            outboxRows.increment(batch.rows());
+            publishedFromOutbox.increment(batch.changes().size());
+            log.debug("UnitConfigOutboxRelay: {} row(s) → {} change(s)", batch.rows(), batch.changes().size());
+            try {
+                eventPublisher.publishEvent(new UnitConfigChangesPublishedEvent(batch.changes()));
+            } catch (RuntimeException e) {
+                log.error("UnitConfigOutboxRelay: listener of published changes failed: {}", e.getMessage(), e);
+            }
+            if (batch.rows() < batchSize) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Одна пачка в текущей транзакции; {@code null} — блокировку relay держит другая транзакция.
+     */
+    private RelayedBatch relayBatch(int batchSize) {
+        if (!outbox.tryLockRelay()) {
+            return null;
+        }
+        List<UnitConfigOutboxRepository.Entry> entries = outbox.fetchBatch(batchSize);
+        if (entries.isEmpty()) {
+            return new RelayedBatch(0, List.of());
+        }
+        List<UnitConfigChange> changes = compact(entries);
+        try {
+            publisher.publish(changes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        List<Long> ids = new ArrayList<>(entries.size());
+        for (UnitConfigOutboxRepository.Entry entry : entries) {
+            ids.add(entry.id());
+        }
+        outbox.delete(ids);
+        return new RelayedBatch(entries.size(), changes);
+    }
+
+    /**
+     * Последнее изменение каждого автомата; порядок — по последнему изменению.
+     */
+    private static List<UnitConfigChange> compact(List<UnitConfigOutboxRepository.Entry> entries) {
+        Map<String, UnitConfigChange> latest = new LinkedHashMap<>();
+        for (UnitConfigOutboxRepository.Entry entry : entries) {
+            UnitConfigChange change = entry.change();
+            latest.remove(change.instanceId());
+            latest.put(change.instanceId(), change);
+        }
+        return List.copyOf(latest.values());
+    }
+
+    /**
+     * Публикует снимок всех активных автоматов.
+     *
+     * @return {@code true}, если снимок опубликован или публиковать нечего
+     */
+    private boolean exportSnapshot() {
+        int batchSize = Math.max(1, properties.getBatchSize());
+        try {
+            Integer published = transactionTemplate.execute(status -> {
+                if (!outbox.tryLockRelay()) {
+                    return null;
+                }
+                List<UnitConfigChange> snapshot = outbox.snapshotActiveUnits(Instant.now());
+                try {
+                    for (int from = 0; from < snapshot.size(); from += batchSize) {
+                        publisher.publish(snapshot.subList(from, Math.min(snapshot.size(), from + batchSize)));
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return snapshot.size();
+            });
+            if (published == null) {
+                return false;
+            }
+            publishedFromSnapshot.increment(published);
+            log.info("UnitConfigOutboxRelay: snapshot of {} active unit(s) published", published);
+            return true;
+        } catch (RuntimeException e) {
+            errors.increment();
+            log.warn("UnitConfigOutboxRelay: snapshot failed, will retry: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    private record RelayedBatch(int rows, List<UnitConfigChange> changes) {
+    }
+}
@@ -0,0 +1,30 @@
+package dev.savushkin.scada.mobile.backend.infrastructure.outbox;
+
+import dev.savushkin.scada.mobile.backend.domain.model.UnitConfigChange;
+import org.jspecify.annotations.NonNull;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Канал публикации изменений конфигурации автоматов для внешних потребителей.
+ * <p>
+ * Реализации выбираются {@code unit-config.publisher}; {@link UnitConfigOutboxRelay}
+ * вызывает ровно одну из них.
+ */
+public interface UnitConfigPublisher {
+
+    /**
+     * Имя для {@code unit-config.publisher}.
+     */
+    @NonNull String name();
+
+    /**
+     * Публикует пачку изменений в порядке списка; ключ сообщения — {@code instanceId}.
+     * <p>
+     * Возврат без исключения означает, что пачка принята каналом: relay удалит
+     * её строки из outbox. При исключении пачка будет опубликована повторно,
+     * поэтому потребители должны переносить повтор (at-least-once).
+     */
+    void publish(@NonNull List<UnitConfigChange> changes) throws IOException;
+}
@@ -5,8 +5,7 @@ import org.jspecify.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
-
-import java.util.Map;
+import org.slf4j.event.Level;
 
 /**
  * Dedicated логгер для детального диагностического логирования polling-процесса.
@@ -28,6 +27,19 @@ import java.util.Map;
  *   <li>{@code WARN} — ошибки отдельных устройств (не прерывают цикл)</li>
  *   <li>{@code ERROR} — критические ошибки (невозможно продолжить polling)</li>
  * </ul>
+ *
+ * <h3>Стоимость выключенного логгера</h3>
+ * В prod логгер работает на уровне {@code WARN}, а большинство вызовов — {@code DEBUG}/{@code TRACE}
+ * (около десятка на устройство за каждый poll). Поэтому каждый метод начинается с проверки
+ * уровня: при выключенном уровне вызов стоит одного {@code isXxxEnabled()} — без копирования MDC,
+ * без лямбд, без boxing аргументов и без varargs-массивов.
+ *
+ * <h3>MDC</h3>
+ * {@code instanceId} и {@code component} ставятся один раз на итерацию worker-а
+ * ({@link #beginIteration} / {@link #endIteration} в {@code PrintSrvPollingRuntime}); отдельный вызов
+ * только обновляет {@code step} и {@code device}. Вызовы вне итерации (инициализация, фабрика,
+ * синхронизация топологии) сами ставят свои MDC-поля и возвращают прежние значения этих
+ * полей потока — без копии всей карты.
  */
 public final class PollingLogger {
 
@@ -38,35 +50,90 @@ public final class PollingLogger {
     private static final String MDC_STEP = "step";
     private static final String MDC_COMPONENT = "component";
 
+    private static final String COMPONENT = "POLLING";
+    private static final String[] STEPS = {"0", "1", "2", "3", "4", "5", "6", "7", "8"};
+
     private PollingLogger() {
         // utility class
     }
 
     // ─── MDC helpers ──────────────────────────────────────────────────────────
 
-    private static void withMdc(@Nullable String instanceId, @Nullable String device, int step, Runnable action) {
-        Map<String, String> previous = MDC.getCopyOfContextMap();
-        try {
+    /**
+     * Начало итерации worker-а: MDC-поля инстанса ставятся один раз на весь poll-цикл.
+     */
+    public static void beginIteration(@NonNull String instanceId) {
+        MDC.put(MDC_COMPONENT, COMPONENT);
+        MDC.put(MDC_INSTANCE, instanceId);
+    }
+
+    /**
+     * Конец итерации worker-а: снимает с потока все MDC-поля polling-а.
+     */
+    public static void endIteration() {
+        MDC.remove(MDC_COMPONENT);
+        MDC.remove(MDC_INSTANCE);
+        MDC.remove(MDC_DEVICE);
+        MDC.remove(MDC_STEP);
+    }
+
+    /**
+     * Ставит MDC-поля одной записи. Вызывается только после проверки уровня.
+     *
+     * @return {@code null} внутри итерации worker-а; вне итерации — прежние значения полей
+     *         (component, instanceId, device, step), которые {@link #exit} вернёт на место
+     */
+    private static String @Nullable [] enter(@Nullable String instanceId, @Nullable String device, int step) {
+        String[] previous = null;
+        if (!COMPONENT.equals(MDC.get(MDC_COMPONENT))) {
+            previous = new String[]{MDC.get(MDC_COMPONENT), MDC.get(MDC_INSTANCE), MDC.get(MDC_DEVICE), MDC.get(MDC_STEP)};
+            MDC.put(MDC_COMPONENT, COMPONENT);
             if (instanceId != null) {
                 MDC.put(MDC_INSTANCE, instanceId);
             }
-            if (device != null) {
-                MDC.put(MDC_DEVICE, device);
-            }
-            MDC.put(MDC_STEP, String.valueOf(step));
-            MDC.put(MDC_COMPONENT, "POLLING");
-            action.run();
-        } finally {
-            if (previous != null) {
-                MDC.setContextMap(previous);
-            } else {
-                MDC.clear();
-            }
         }
+        MDC.put(MDC_STEP, STEPS[step]);
+        if (device != null) {
+            MDC.put(MDC_DEVICE, device);
+        } else {
+            MDC.remove(MDC_DEVICE);
+        }
+        return previous;
+    }
+
+    private static void exit(String @Nullable [] previous) {
+        if (previous == null) {
+            MDC.remove(MDC_DEVICE);
+            return;
+        }
+        restore(MDC_COMPONENT, previous[0]);
+        restore(MDC_INSTANCE, previous[1]);
+        restore(MDC_DEVICE, previous[2]);
+        restore(MDC_STEP, previous[3]);
     }
 
-    private static void withMdc(@Nullable String instanceId, int step, Runnable action) {
-        withMdc(instanceId, null, step, action);
+    private static void restore(String key, @Nullable String value) {
+        if (value != null) {
+            MDC.put(key, value);
+        } else {
+            MDC.remove(key);
+        }
+    }
+
+    private static void emit(Level level, @Nullable String instanceId, @Nullable String device, int step,
+                             String format, Object... args) {
+        String[] previous = enter(instanceId, device, step);
+        try {
+            switch (level) {
+                case TRACE -> log.trace(format, args);
+                case DEBUG -> log.debug(format, args);
+                case INFO -> log.info(format, args);
+                case WARN -> log.warn(format, args);
+                case ERROR -> log.error(format, args);
+            }
+        } finally {
+            exit(previous);
+        }
     }
 
     // ─── Runtime lifecycle ────────────────────────────────────────────────────
@@ -75,55 +142,58 @@ public final class PollingLogger {
      * STEP 0 — Инициализация polling runtime.
      */
     public static void logRuntimeInitialized(int workerCount, int totalDevices, long delayMs) {
-        withMdc(null, 0, () ->
-                log.debug("[INIT] PrintSrvPollingRuntime initialized: workers={}, devices={}, delay={}ms",
-                        workerCount, totalDevices, delayMs)
-        );
+        if (log.isDebugEnabled()) {
+            emit(Level.DEBUG, null, null, 0,
+                    "[INIT] PrintSrvPollingRuntime initialized: workers={}, devices={}, delay={}ms",
+                    workerCount, totalDevices, delayMs);
+        }
     }
 
     /**
      * STEP 0 — Запуск polling runtime.
      */
     public static void logRuntimeStarted(int workerCount) {
-        withMdc(null, 0, () ->
-                log.debug("[INIT] PrintSrvPollingRuntime started with {} virtual worker(s)", workerCount)
-        );
+        if (log.isDebugEnabled()) {
+            emit(Level.DEBUG, null, null, 0, "[INIT] PrintSrvPollingRuntime started with {} virtual worker(s)",
+                    workerCount);
+        }
     }
 
     /**
      * STEP 0 — Остановка polling runtime.
      */
     public static void logRuntimeStopped() {
-        withMdc(null, 0, () ->
-                log.debug("[INIT] PrintSrvPollingRuntime stopped")
-        );
+        if (log.isDebugEnabled()) {
+            emit(Level.DEBUG, null, null, 0, "[INIT] PrintSrvPollingRuntime stopped");
+        }
     }
 
     /**
      * STEP 0 — Worker запущен.
      */
     public static void logWorkerStarted(@NonNull String instanceId) {
-        withMdc(instanceId, 0, () ->
-                log.debug("[INIT] polling worker started for instance '{}'", instanceId)
-        );
+        if (log.isDebugEnabled()) {
+            emit(Level.DEBUG, instanceId, null, 0, "[INIT] polling worker started for instance '{}'", instanceId);
+        }
     }
 
     /**
      * STEP 0 — Worker остановлен.
      */
     public static void logWorkerStopped(@NonNull String instanceId) {
-        withMdc(instanceId, 0, () ->
-                log.debug("[INIT] polling worker stopped for instance '{}'", instanceId)
-        );
+        if (log.isDebugEnabled()) {
+            emit(Level.DEBUG, instanceId, null, 0, "[INIT] polling worker stopped for instance '{}'", instanceId);
+        }
     }
 
     /**
      * STEP 0 — Неожиданная ошибка в worker.
      */
     public static void logWorkerFailure(@NonNull String instanceId, @NonNull Throwable ex) {
-        withMdc(instanceId, 0, () ->
-                log.error("[INIT] unexpected polling worker failure for instance '{}': {}", instanceId, ex.getMessage(), ex)
-        );
+        if (log.isErrorEnabled()) {
+            emit(Level.ERROR, instanceId, null, 0, "[INIT] unexpected polling worker failure for instance '{}': {}",
+                    instanceId, ex.getMessage(), ex);
+        }
     }
 
     // ─── Poll cycle (per instance) ────────────────────────────────────────────
@@ -132,19 +202,20 @@ public final class PollingLogger {
      * STEP 1 — Начало poll-цикла для инстанса.
      */
     public static void logPollCycleStart(@NonNull String instanceId, int deviceCount) {
-        withMdc(instanceId, 1, () ->
-                log.debug("[CYCLE_START] instance='{}', devicesToPoll={}", instanceId, deviceCount)
-        );
+        if (log.isDebugEnabled()) {
+            emit(Level.DEBUG, instanceId, null, 1, "[CYCLE_START] instance='{}', devicesToPoll={}",
+                    instanceId, deviceCount);
+        }
     }
 
     /**
      * STEP 8 — Завершение poll-цикла для инстанса.
      */
     public static void logPollCycleEnd(@NonNull String instanceId, int successCount, int failCount, boolean reachable) {
-        withMdc(instanceId, 8, () ->
-                log.debug("[CYCLE_END] instance='{}', success={}, fail={}, reachable={}",
-                        instanceId, successCount, failCount, reachable)
-        );
+        if (log.isDebugEnabled()) {
+            emit(Level.DEBUG, instanceId, null, 8, "[CYCLE_END] instance='{}', success={}, fail={}, reachable={}",
+                    instanceId, successCount, failCount, reachable);
+        }
     }
 
     // ─── Factory ──────────────────────────────────────────────────────────────
@@ -153,18 +224,18 @@ public final class PollingLogger {
      * STEP 0 — Фабрика создала поллеры.
      */
     public static void logFactoryCreatedPollers(int count) {
-        withMdc(null, 0, () ->
-                log.debug("[FACTORY] created {} instance poller(s)", count)
-        );
+        if (log.isDebugEnabled()) {
+            emit(Level.DEBUG, null, null, 0, "[FACTORY] created {} instance poller(s)", count);
+        }
     }
 
     /**
      * STEP 0 — Фабрика создаёт поллер для конкретного инстанса.
      */
     public static void logFactoryCreatingPoller(@NonNull String instanceId) {
-        withMdc(instanceId, 0, () ->
-                log.debug("[FACTORY] creating poller for instance '{}'", instanceId)
-        );
+        if (log.isDebugEnabled()) {
+            emit(Level.DEBUG, instanceId, null, 0, "[FACTORY] creating poller for instance '{}'", instanceId);
+        }
     }
 
     // ─── TCP Connection ───────────────────────────────────────────────────────
@@ -173,46 +244,47 @@ public final class PollingLogger {
      * STEP 2 — Попытка создания/переиспользования сокета.
      */
     public static void logSocketCreate(@NonNull String instanceId, @NonNull String host, int port) {
-        withMdc(instanceId, 2, () ->
-                log.debug("[CONNECT] creating/reusing socket to {}:{}", host, port)
-        );
+        if (log.isDebugEnabled()) {
+            emit(Level.DEBUG, instanceId, null, 2, "[CONNECT] creating/reusing socket to {}:{}", host, port);
+        }
     }
 
     /**
      * STEP 2 — Сокет успешно подключён.
      */
     public static void logSocketConnected(@NonNull String instanceId, @NonNull String host, int port, int connectTimeoutMs, int readTimeoutMs) {
-        withMdc(instanceId, 2, () ->
-                log.debug("[CONNECT] socket connected to {}:{}, connectTimeout={}ms, readTimeout={}ms",
-                        host, port, connectTimeoutMs, readTimeoutMs)
-        );
+        if (log.isDebugEnabled()) {
+            emit(Level.DEBUG, instanceId, null, 2,
+                    "[CONNECT] socket connected to {}:{}, connectTimeout={}ms, readTimeout={}ms",
+                    host, port, connectTimeoutMs, readTimeoutMs);
+        }
     }
 
     /**
      * STEP 2 — Переиспользование существующего сокета.
      */
     public static void logSocketReused(@NonNull String instanceId, @NonNull String host, int port) {
-        withMdc(instanceId, 2, () ->
-                log.debug("[CONNECT] reusing existing socket to {}:{}", host, port)
-        );
+        if (log.isDebugEnabled()) {
+            emit(Level.DEBUG, instanceId, null, 2, "[CONNECT] reusing existing socket to {}:{}", host, port);
+        }
     }
 
     /**
      * STEP 2 — Ошибка сокета.
      */
     public static void logSocketError(@NonNull String instanceId, @NonNull String error) {
-        withMdc(instanceId, 2, () ->
-                log.warn("[CONNECT] socket error: {}", error)
-        );
+        if (log.isWarnEnabled()) {
+            emit(Level.WARN, instanceId, null, 2, "[CONNECT] socket error: {}", error);
+        }
     }
 
     /**
      * STEP 2 — Сокет закрыт/инвалидирован.
      */
     public static void logSocketClosed(@NonNull String instanceId) {
-        withMdc(instanceId, 2, () ->
-                log.debug("[CONNECT] socket invalidated/closed for instance '{}'", instanceId)
-        );
+        if (log.isDebugEnabled()) {
+            emit(Level.DEBUG, instanceId, null, 2, "[CONNECT] socket invalidated/closed for instance '{}'", instanceId);
+        }
     }
 
     // ─── Request / Response ───────────────────────────────────────────────────
@@ -221,55 +293,58 @@ public final class PollingLogger {
      * STEP 3 — Формирование и отправка запроса QueryAll.
      */
     public static void logRequestSent(@NonNull String instanceId, @Nullable String device, @NonNull String requestJson) {
-        withMdc(instanceId, device, 3, () ->
-                log.debug("[REQUEST] device='{}', requestJson={}", device, requestJson)
-        );
+        if (log.isDebugEnabled()) {
+            emit(Level.DEBUG, instanceId, device, 3, "[REQUEST] device='{}', requestJson={}", device, requestJson);
+        }
     }
 
     /**
      * STEP 3 — Отправка raw bytes (TRACE).
      */
     public static void logRequestBytes(@NonNull String instanceId, int magicLength, int bodyLength) {
-        withMdc(instanceId, 3, () ->
-                log.trace("[REQUEST] sent magic={} bytes, body={} bytes", magicLength, bodyLength)
-        );
+        if (log.isTraceEnabled()) {
+            emit(Level.TRACE, instanceId, null, 3, "[REQUEST] sent magic={} bytes, body={} bytes",
+                    magicLength, bodyLength);
+        }
     }
 
     /**
      * STEP 4 — Получение ответа: magic + length.
      */
     public static void logResponseHeader(@NonNull String instanceId, @Nullable String device, int responseLength) {
-        withMdc(instanceId, device, 4, () ->
-                log.debug("[RESPONSE] device='{}', responseLength={} bytes", device, responseLength)
-        );
+        if (log.isDebugEnabled()) {
+            emit(Level.DEBUG, instanceId, device, 4, "[RESPONSE] device='{}', responseLength={} bytes",
+                    device, responseLength);
+        }
     }
 
     /**
      * STEP 4 — Получен некорректный magic header.
      */
     public static void logResponseInvalidMagic(@NonNull String instanceId, @Nullable String device, byte[] magic) {
-        withMdc(instanceId, device, 4, () ->
-                log.warn("[RESPONSE] device='{}', invalid magic header: bytes={}", device,
-                        magic == null ? "null" : java.util.Arrays.toString(magic))
-        );
+        if (log.isWarnEnabled()) {
+            emit(Level.WARN, instanceId, device, 4, "[RESPONSE] device='{}', invalid magic header: bytes={}",
+                    device, magic == null ? "null" : java.util.Arrays.toString(magic));
+        }
     }
 
     /**
      * STEP 4 — Получена некорректная длина ответа.
      */
     public static void logResponseInvalidLength(@NonNull String instanceId, @Nullable String device, int length) {
-        withMdc(instanceId, device, 4, () ->
-                log.warn("[RESPONSE] device='{}', invalid response length: {}", device, length)
-        );
+        if (log.isWarnEnabled()) {
+            emit(Level.WARN, instanceId, device, 4, "[RESPONSE] device='{}', invalid response length: {}",
+                    device, length);
+        }
     }
 
     /**
      * STEP 4 — Полный текст ответа (TRACE).
      */
     public static void logResponseBody(@NonNull String instanceId, @Nullable String device, @NonNull String response) {
-        withMdc(instanceId, device, 4, () ->
-                log.trace("[RESPONSE] device='{}', body={}", device, response)
-        );
+        if (log.isTraceEnabled()) {
+            emit(Level.TRACE, instanceId, device, 4, "[RESPONSE] device='{}', body={}", device, response);
+        }
     }
 
     // ─── Parse / Map ──────────────────────────────────────────────────────────
@@ -278,39 +353,41 @@ public final class PollingLogger {
      * STEP 5 — Успешная десериализация JSON → DTO.
      */
     public static void logParseSuccess(@NonNull String instanceId, @Nullable String device, @NonNull String deviceName, int unitCount) {
-        withMdc(instanceId, device, 5, () ->
-                log.debug("[PARSE] device='{}', parsed deviceName='{}', units={}", device, deviceName, unitCount)
-        );
+        if (log.isDebugEnabled()) {
+            emit(Level.DEBUG, instanceId, device, 5, "[PARSE] device='{}', parsed deviceName='{}', units={}",
+                    device, deviceName, unitCount);
+        }
     }
 
     /**
      * STEP 5 — Ошибка десериализации JSON.
      */
     public static void logParseError(@NonNull String instanceId, @Nullable String device, @NonNull String error, @Nullable String rawResponse) {
-        withMdc(instanceId, device, 5, () -> {
-            if (rawResponse != null && log.isTraceEnabled()) {
-                log.trace("[PARSE] device='{}', rawResponse={}", device, rawResponse);
-            }
-            log.warn("[PARSE] device='{}', parse error: {}", device, error);
-        });
+        if (rawResponse != null && log.isTraceEnabled()) {
+            emit(Level.TRACE, instanceId, device, 5, "[PARSE] device='{}', rawResponse={}", device, rawResponse);
+        }
+        if (log.isWarnEnabled()) {
+            emit(Level.WARN, instanceId, device, 5, "[PARSE] device='{}', parse error: {}", device, error);
+        }
     }
 
     /**
      * STEP 6 — Успешный маппинг DTO → DeviceSnapshot.
      */
     public static void logMapSuccess(@NonNull String instanceId, @Nullable String device, int unitCount) {
-        withMdc(instanceId, device, 6, () ->
-                log.debug("[MAP] device='{}', mapped to DeviceSnapshot with {} unit(s)", device, unitCount)
-        );
+        if (log.isDebugEnabled()) {
+            emit(Level.DEBUG, instanceId, device, 6, "[MAP] device='{}', mapped to DeviceSnapshot with {} unit(s)",
+                    device, unitCount);
+        }
     }
 
     /**
      * STEP 6 — Ошибка маппинга.
      */
     public static void logMapError(@NonNull String instanceId, @Nullable String device, @NonNull String error) {
-        withMdc(instanceId, device, 6, () ->
-                log.warn("[MAP] device='{}', mapping error: {}", device, error)
-        );
+        if (log.isWarnEnabled()) {
+            emit(Level.WARN, instanceId, device, 6, "[MAP] device='{}', mapping error: {}", device, error);
+        }
     }
 
     // ─── Snapshot store ───────────────────────────────────────────────────────
@@ -319,18 +396,20 @@ public final class PollingLogger {
      * STEP 7 — Snapshot сохранён в хранилище.
      */
     public static void logSnapshotSaved(@NonNull String instanceId, @NonNull String device, int unitCount) {
-        withMdc(instanceId, device, 7, () ->
-                log.debug("[SAVE] snapshot saved: instance='{}', device='{}', units={}", instanceId, device, unitCount)
-        );
+        if (log.isDebugEnabled()) {
+            emit(Level.DEBUG, instanceId, device, 7, "[SAVE] snapshot saved: instance='{}', device='{}', units={}",
+                    instanceId, device, unitCount);
+        }
     }
 
     /**
      * STEP 7 — Хранилище очищено для инстанса (все устройства недоступны).
      */
     public static void logSnapshotStoreCleared(@NonNull String instanceId, int removedDeviceCount) {
-        withMdc(instanceId, 7, () ->
-                log.debug("[SAVE] snapshot store cleared for instance='{}', removedDevices={}", instanceId, removedDeviceCount)
-        );
+        if (log.isDebugEnabled()) {
+            emit(Level.DEBUG, instanceId, null, 7, "[SAVE] snapshot store cleared for instance='{}', removedDevices={}",
+                    instanceId, removedDeviceCount);
+        }
     }
 
     // ─── Availability ─────────────────────────────────────────────────────────
@@ -339,35 +418,37 @@ public final class PollingLogger {
      * Инстанс восстановлен (хотя бы одно устройство ответило после недоступности).
      */
     public static void logInstanceRestored(@NonNull String instanceId) {
-        withMdc(instanceId, 8, () ->
-                log.debug("[AVAILABILITY] instance '{}' connection restored", instanceId)
-        );
+        if (log.isDebugEnabled()) {
+            emit(Level.DEBUG, instanceId, null, 8, "[AVAILABILITY] instance '{}' connection restored", instanceId);
+        }
     }
 
     /**
      * Инстанс стал недоступен (все устройства не ответили).
      */
     public static void logInstanceUnreachable(@NonNull String instanceId, int deviceCount) {
-        withMdc(instanceId, 8, () ->
-                log.debug("[AVAILABILITY] instance '{}' unreachable for all {} configured device(s)", instanceId, deviceCount)
-        );
+        if (log.isDebugEnabled()) {
+            emit(Level.DEBUG, instanceId, null, 8,
+                    "[AVAILABILITY] instance '{}' unreachable for all {} configured device(s)",
+                    instanceId, deviceCount);
+        }
     }
 
     /**
      * Отдельное устройство недоступно (IOException).
      */
     public static void logDeviceUnreachable(@NonNull String instanceId, @NonNull String device, @NonNull String error) {
-        withMdc(instanceId, device, 8, () ->
-                log.debug("[AVAILABILITY] device='{}' unreachable: {}", device, error)
-        );
+        if (log.isDebugEnabled()) {
+            emit(Level.DEBUG, instanceId, device, 8, "[AVAILABILITY] device='{}' unreachable: {}", device, error);
+        }
     }
 
     /**
      * Инстанс всё ещё недоступен (повторный цикл).
      */
     public static void logInstanceStillUnreachable(@NonNull String instanceId) {
-        withMdc(instanceId, 8, () ->
-                log.trace("[AVAILABILITY] instance '{}' still unreachable", instanceId)
-        );
+        if (log.isTraceEnabled()) {
+            emit(Level.TRACE, instanceId, null, 8, "[AVAILABILITY] instance '{}' still unreachable", instanceId);
+        }
     }
 }
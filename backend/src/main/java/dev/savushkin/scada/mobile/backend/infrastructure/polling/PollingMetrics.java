@@ -0,0 +1,177 @@
+package dev.savushkin.scada.mobile.backend.infrastructure.polling;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.jspecify.annotations.NonNull;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Числовые метрики polling-конвейера (Micrometer), дополняющие текстовый {@link PollingLogger}.
+ *
+ * <h3>Метрики</h3>
+ * <ul>
+ *   <li>{@code printsrv.client.connect} — установка TCP-соединения (instance);</li>
+ *   <li>{@code printsrv.client.request} — запрос/ответ QueryAll по сети (instance, device);</li>
+ *   <li>{@code printsrv.client.response.size} — размер тела ответа, байты (instance, device);</li>
+ *   <li>{@code printsrv.client.parse} — разбор JSON-ответа (instance, device);</li>
+ *   <li>{@code printsrv.mapper.map} — {@code PrintSrvMapper.toDomainDeviceSnapshot} (instance, device);</li>
+ *   <li>{@code printsrv.poll.scan} — полный проход по устройствам инстанса (instance);</li>
+ *   <li>{@code printsrv.poll.device.failures} — устройства, не ответившие в проходе (instance);</li>
+ *   <li>{@code printsrv.poll.unreachable} — проходы, в которых не ответило ни одно устройство (instance);</li>
+ *   <li>{@code printsrv.poll.loop.lag} — запаздывание старта итерации worker-а относительно
+ *       запланированного ({@code конец прошлого прохода + fixed-delay}) (instance).</li>
+ * </ul>
+ * Таймеры и распределения публикуют перцентили 0.5 / 0.95 / 0.99 и доступны через
+ * {@code /actuator/metrics}.
+ *
+ * <h3>Горячий путь</h3>
+ * Метры создаются один раз на инстанс ({@link #forInstance}) и на устройство
+ * (при первом обращении) и кэшируются; запись — {@code record(long, TimeUnit)} /
+ * {@code increment()} по готовой ссылке, без построения тегов и без аллокаций.
+ */
+@Component
+public class PollingMetrics {
+
+    private static final double[] PERCENTILES = {0.5, 0.95, 0.99};
+
+    private final MeterRegistry registry;
+    private final ConcurrentHashMap<String, InstanceMetrics> instances = new ConcurrentHashMap<>();
+
+    public PollingMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * Метрики инстанса; создаются при первом обращении.
+     */
+    public @NonNull InstanceMetrics forInstance(@NonNull String instanceId) {
+        InstanceMetrics metrics = instances.get(instanceId);
+        return metrics != null ? metrics : instances.computeIfAbsent(instanceId, InstanceMetrics::new);
+    }
+
+    /**
+     * Удаляет из реестра все метры инстанса (инстанс удалён из топологии).
+     */
+    public void removeInstance(@NonNull String instanceId) {
+        InstanceMetrics metrics = instances.remove(instanceId);
+        if (metrics != null) {
+            metrics.meters.forEach(registry::remove);
+        }
+    }
+
+    private Timer timer(String name, String description, String instanceId, String device) {
+        Timer.Builder builder = Timer.builder(name)
+                .description(description)
+                .tag("instance", instanceId)
+                .publishPercentiles(PERCENTILES);
+        if (device != null) {
+            builder.tag("device", device);
+        }
+        return builder.register(registry);
+    }
+
+    /**
+     * Метры одного инстанса PrintSrv.
+     */
+    public final class InstanceMetrics {
+
+        private final String instanceId;
+        private final List<Meter> meters = new CopyOnWriteArrayList<>();
+        private final ConcurrentHashMap<String, DeviceMetrics> devices = new ConcurrentHashMap<>();
+
+        private final Timer connect;
+        private final Timer scan;
+        private final Timer loopLag;
+        private final Counter deviceFailures;
+        private final Counter unreachableScans;
+
+        private InstanceMetrics(String instanceId) {
+            this.instanceId = instanceId;
+            this.connect = track(timer("printsrv.client.connect", "TCP connect to PrintSrv", instanceId, null));
+            this.scan = track(timer("printsrv.poll.scan", "Full poll pass over instance devices", instanceId, null));
+            this.loopLag = track(timer("printsrv.poll.loop.lag",
+                    "Delay of worker iteration start beyond the intended fixed delay", instanceId, null));
+            this.deviceFailures = track(Counter.builder("printsrv.poll.device.failures")
+                    .description("Devices that failed to respond during a poll pass")
+                    .tag("instance", instanceId)
+                    .register(registry));
+            this.unreachableScans = track(Counter.builder("printsrv.poll.unreachable")
+                    .description("Poll passes where no device responded")
+                    .tag("instance", instanceId)
+                    .register(registry));
+        }
+
+        public @NonNull DeviceMetrics device(@NonNull String device) {
+            DeviceMetrics metrics = devices.get(device);
+            return metrics != null ? metrics : devices.computeIfAbsent(device, DeviceMetrics::new);
+        }
+
+        public void recordConnect(long nanos) {
+            connect.record(nanos, TimeUnit.NANOSECONDS);
+        }
+
+        public void recordScan(long nanos, int failedDevices, boolean reachable) {
+            scan.record(nanos, TimeUnit.NANOSECONDS);
+            if (failedDevices > 0) {
+                deviceFailures.increment(failedDevices);
+            }
+            if (!reachable) {
+                unreachableScans.increment();
+            }
+        }
+
+        public void recordLoopLag(long nanos) {
+            loopLag.record(Math.max(0, nanos), TimeUnit.NANOSECONDS);
+        }
+
+        private <M extends Meter> M track(M meter) {
+            meters.add(meter);
+            return meter;
+        }
+
+        /**
+         * Метры одного устройства инстанса.
+         */
+        public final class DeviceMetrics {
+
+            private final Timer request;
+            private final Timer parse;
+            private final Timer map;
+            private final DistributionSummary responseSize;
+
+            private DeviceMetrics(String device) {
+                this.request = track(timer("printsrv.client.request", "QueryAll round trip", instanceId, device));
+                this.parse = track(timer("printsrv.client.parse", "QueryAll JSON parsing", instanceId, device));
+                this.map = track(timer("printsrv.mapper.map", "DTO to domain snapshot mapping", instanceId, device));
+                this.responseSize = track(DistributionSummary.builder("printsrv.client.response.size")
+                        .description("QueryAll response body size")
+                        .baseUnit("bytes")
+                        .tag("instance", instanceId)
+                        .tag("device", device)
+                        .publishPercentiles(PERCENTILES)
+                        .register(registry));
+            }
+
+            public void recordRequest(long nanos, int responseBytes) {
+                request.record(nanos, TimeUnit.NANOSECONDS);
+                responseSize.record(responseBytes);
+            }
+
+            public void recordParse(long nanos) {
+                parse.record(nanos, TimeUnit.NANOSECONDS);
+            }
+
+            public void recordMap(long nanos) {
+                map.record(nanos, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+}
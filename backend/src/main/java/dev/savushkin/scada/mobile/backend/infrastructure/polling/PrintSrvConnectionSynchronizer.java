@@ -1,21 +1,28 @@
 package dev.savushkin.scada.mobile.backend.infrastructure.polling;
 
 import dev.savushkin.scada.mobile.backend.application.ports.InstanceSnapshotRepository;
-import dev.savushkin.scada.mobile.backend.domain.model.UnitChangedEvent;
+import dev.savushkin.scada.mobile.backend.infrastructure.cluster.ClusterEvent;
+import dev.savushkin.scada.mobile.backend.infrastructure.cluster.ClusterNode;
+import dev.savushkin.scada.mobile.backend.infrastructure.cluster.ClusterPublisher;
 import dev.savushkin.scada.mobile.backend.infrastructure.integration.printsrv.client.PrintSrvClientRegistry;
 import dev.savushkin.scada.mobile.backend.infrastructure.integration.printsrv.client.PrintSrvClientSyncReport;
+import dev.savushkin.scada.mobile.backend.infrastructure.outbox.UnitConfigChangesPublishedEvent;
+import dev.savushkin.scada.mobile.backend.infrastructure.outbox.UnitConfigOutboxRelay;
+import dev.savushkin.scada.mobile.backend.infrastructure.store.UnitErrorStore;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.event.TransactionPhase;
-import org.springframework.transaction.event.TransactionalEventListener;
 
 /**
  * Приводит слой подключений к PrintSrv в соответствие с БД при админ-изменениях
  * автоматов — без перезапуска приложения.
  *
- * <p>Порядок обработки {@link UnitChangedEvent} (после коммита транзакции):
+ * <p>Изменения приходят из outbox конфигурации: {@link UnitConfigOutboxRelay} публикует
+ * {@link UnitConfigChangesPublishedEvent} на каждую опубликованную пачку, поэтому массовая
+ * правка автоматов даёт одну сверку, а не по сверке на автомат. Порядок обработки пачки:
  * <ol>
  *   <li>{@link PrintSrvClientRegistry#synchronize()} — создать клиентов новых
  *       инстансов, закрыть исчезнувшие, пересоздать клиентов с изменившимися
@@ -24,6 +31,9 @@ import org.springframework.transaction.event.TransactionalEventListener;
  *       polling-worker-ы под изменившийся набор клиентов;</li>
  *   <li>очистить устаревшие snapshot-ы удалённых и переподключённых инстансов,
  *       чтобы API/WS перестали отдавать данные прежнего подключения;</li>
+ *   <li>снять ошибки удалённых инстансов из {@link UnitErrorStore} вместе с их вкладом
+ *       в индексы цехов, типов и видов ошибок — иначе удалённый аппарат навсегда остался бы
+ *       в бейджах и аналитике;</li>
  *   <li>опубликовать {@link PrintSrvInstancePolledEvent} для всех затронутых
  *       инстансов — {@code StatusBroadcaster} немедленно разошлёт актуальный
  *       статус («Нет данных»), разрешит зависшие алёрты и обновит детали
@@ -33,6 +43,19 @@ import org.springframework.transaction.event.TransactionalEventListener;
  * <p>В результате смена PrintSrv ID / host / port в админке мгновенно переводит
  * карточку аппарата в состояние «Нет данных», а возврат корректных значений
  * восстанавливает опрос без рестарта backend.
+ *
+ * <h3>Страховочная сверка</h3>
+ * Outbox пишет только админ-API; изменения в обход него (Spring Data REST, миграции,
+ * правка БД вручную) события не дают. Поэтому раз в {@code unit-config.full-reconcile-interval-ms}
+ * выполняется полная сверка тем же {@link #reconcile()} — она дешёвая, если расхождений нет,
+ * и ограничивает время, в течение которого такое изменение не подхвачено.
+ *
+ * <h3>Кластер</h3>
+ * Outbox публикует только узел, чей relay держит advisory-lock, поэтому после сверки он
+ * рассылает {@code TOPOLOGY_CHANGED} в шину: {@code ClusterReplicator} остальных узлов приёма
+ * вызывает {@link #reconcile()}. Без этого узел в режиме {@code sharded} не начал бы опрос нового
+ * инстанса своей доли, а удалённый продолжал бы опрашивать: доля кольца
+ * ({@code PollingCoordinator}) считается по реестру клиентов узла.
  */
 @Component
 public class PrintSrvConnectionSynchronizer {
@@ -43,33 +66,74 @@ public class PrintSrvConnectionSynchronizer {
     private final PrintSrvPollingRuntime pollingRuntime;
     private final InstanceSnapshotRepository snapshotRepo;
     private final ApplicationEventPublisher eventPublisher;
+    private final ClusterPublisher clusterPublisher;
+    private final UnitErrorStore unitErrorStore;
+    private final ClusterNode clusterNode;
 
     public PrintSrvConnectionSynchronizer(
             PrintSrvClientRegistry clientRegistry,
             PrintSrvPollingRuntime pollingRuntime,
             InstanceSnapshotRepository snapshotRepo,
-            ApplicationEventPublisher eventPublisher
+            ApplicationEventPublisher eventPublisher,
+            ClusterPublisher clusterPublisher,
+            UnitErrorStore unitErrorStore,
+            ClusterNode clusterNode
     ) {
         this.clientRegistry = clientRegistry;
         this.pollingRuntime = pollingRuntime;
         this.snapshotRepo = snapshotRepo;
         this.eventPublisher = eventPublisher;
+        this.clusterPublisher = clusterPublisher;
+        this.unitErrorStore = unitErrorStore;
+        this.clusterNode = clusterNode;
+    }
+
+    @EventListener
+    public void onUnitConfigChanged(UnitConfigChangesPublishedEvent event) {
+        reconcile(event.changes().size() + " unit config change(s)");
+        clusterPublisher.publish(ClusterEvent.Kind.TOPOLOGY_CHANGED, null, null, null);
+    }
+
+    /**
+     * Сверка по сигналу другого узла: {@code TOPOLOGY_CHANGED} из шины или потеря событий шиной.
+     */
+    public void reconcile() {
+        reconcile("cluster bus");
     }
 
-    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
-    public void onUnitChanged(UnitChangedEvent event) {
+    /**
+     * Периодическая полная сверка на случай изменений автоматов в обход outbox.
+     * WS-узел PrintSrv не опрашивает — сверять ему нечего.
+     */
+    @Scheduled(fixedDelayString = "${unit-config.full-reconcile-interval-ms:300000}",
+            initialDelayString = "${unit-config.full-reconcile-interval-ms:300000}")
+    public void periodicReconcile() {
+        if (clusterNode.isWs()) {
+            return;
+        }
+        try {
+            reconcile("periodic");
+        } catch (RuntimeException e) {
+            log.error("Periodic PrintSrv connection reconcile failed: {}", e.getMessage(), e);
+        }
+    }
+
+    private void reconcile(String reason) {
         PrintSrvClientSyncReport report = clientRegistry.synchronize();
         pollingRuntime.synchronize();
         if (report.isEmpty()) {
             return;
         }
 
-        log.info("PrintSrv connections reconciled (unit {} {}): added={}, removed={}, restarted={}",
-                event.unitId(), event.action(), report.added(), report.removed(), report.restarted());
+        log.info("PrintSrv connections reconciled ({}): added={}, removed={}, restarted={}",
+                reason, report.added(), report.removed(), report.restarted());
 
         for (String instanceId : report.staleSnapshotIds()) {
             snapshotRepo.clearInstance(instanceId);
         }
+        for (String instanceId : report.removed()) {
+            unitErrorStore.remove(instanceId);
+        }
         for (String instanceId : report.affectedIds()) {
             eventPublisher.publishEvent(new PrintSrvInstancePolledEvent(instanceId));
         }
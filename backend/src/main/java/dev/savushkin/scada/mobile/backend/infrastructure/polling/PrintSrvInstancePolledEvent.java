@@ -1,10 +1,30 @@
 package dev.savushkin.scada.mobile.backend.infrastructure.polling;
 
+import org.jspecify.annotations.Nullable;
+
+import java.time.Instant;
+
 /**
  * Событие завершения одного polling-прохода по конкретному инстансу PrintSrv.
  *
- * <p>Публикуется сразу после успешного опроса инстанса и используется для
- * немедленной live-рассылки без ожидания остальных машин.
+ * <p>Используется для немедленной live-рассылки без ожидания остальных машин.
+ * Конвейер приёма публикует такие события пачкой ({@link PrintSrvInstancesPolledEvent});
+ * одиночным событием — смена топологии ({@link PrintSrvConnectionSynchronizer}).
+ *
+ * @param instanceId    идентификатор инстанса
+ * @param polledAtNanos момент завершения прохода ({@link System#nanoTime()}) — точка отсчёта
+ *                      метрики свежести {@code ws.freshness}
+ * @param dataReceivedAt момент получения самого старого ответа устройства в проходе — возраст
+ *                       данных в исходящих сообщениях ({@code dataTimestamp}, {@code ws.data.age});
+ *                       {@code null}, если новых данных нет (инстанс недоступен, смена топологии)
  */
-public record PrintSrvInstancePolledEvent(String instanceId) {
-}
\ No newline at end of file
+public record PrintSrvInstancePolledEvent(String instanceId, long polledAtNanos, @Nullable Instant dataReceivedAt) {
+
+    public PrintSrvInstancePolledEvent(String instanceId, @Nullable Instant dataReceivedAt) {
+        this(instanceId, System.nanoTime(), dataReceivedAt);
+    }
+
+    public PrintSrvInstancePolledEvent(String instanceId) {
+        this(instanceId, null);
+    }
+}
@@ -2,7 +2,8 @@ package dev.savushkin.scada.mobile.backend.infrastructure.polling;
 
 import dev.savushkin.scada.mobile.backend.application.ports.InstanceSnapshotRepository;
 import dev.savushkin.scada.mobile.backend.domain.model.DeviceSnapshot;
-import dev.savushkin.scada.mobile.backend.infrastructure.integration.printsrv.PrintSrvMapper;
+import dev.savushkin.scada.mobile.backend.infrastructure.ingestion.IngestionPipeline;
+import dev.savushkin.scada.mobile.backend.infrastructure.ingestion.IngestionRecord;
 import dev.savushkin.scada.mobile.backend.infrastructure.integration.printsrv.client.PrintSrvClient;
 import dev.savushkin.scada.mobile.backend.infrastructure.integration.printsrv.dto.QueryAllResponseDTO;
 import org.jspecify.annotations.NonNull;
@@ -10,6 +11,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -34,6 +37,19 @@ import java.util.List;
  *   <li>Штатный poll → {@code TRACE} (только при явной отладке)</li>
  * </ul>
  *
+ * <h3>Результат прохода</h3>
+ * Поллер не сохраняет снимки сам: ответы устройств возвращаются как
+ * {@link IngestionRecord} в {@link PollResult#records()}, а маппинг, сохранение и
+ * live-обновление выполняет {@link IngestionPipeline} — так же, как для журнала и Kafka.
+ *
+ * <h3>Метрики</h3>
+ * Длительность полного прохода и число неответивших устройств пишутся в {@link PollingMetrics}.
+ *
+ * <h3>Свежесть данных</h3>
+ * Каждая запись штампуется моментом получения ответа устройства — он становится
+ * {@link DeviceSnapshot#receivedAt()}; самый ранний момент прохода возвращается
+ * в {@link PollResult#dataReceivedAt()}.
+ *
  * <h3>Graceful degradation</h3>
  * {@link InstanceSnapshotRepository} не очищается при сбоях — клиенты получают
  * последний валидный snapshot.
@@ -43,9 +59,8 @@ public final class PrintSrvInstancePoller {
     private static final Logger log = LoggerFactory.getLogger(PrintSrvInstancePoller.class);
 
     private final PrintSrvClient client;
-    private final PrintSrvMapper mapper;
-    private final InstanceSnapshotRepository snapshotRepo;
     private final List<String> devices;
+    private final PollingMetrics.InstanceMetrics metrics;
     /**
      * Последнее известное состояние доступности инстанса.
      * Нужен для детекции перехода reachable -> unreachable.
@@ -57,14 +72,12 @@ public final class PrintSrvInstancePoller {
      */
     PrintSrvInstancePoller(
             @NonNull PrintSrvClient client,
-            PrintSrvMapper mapper,
-            InstanceSnapshotRepository snapshotRepo,
-            @NonNull List<String> devices
+            @NonNull List<String> devices,
+            PollingMetrics.InstanceMetrics metrics
     ) {
         this.client = client;
-        this.mapper = mapper;
-        this.snapshotRepo = snapshotRepo;
         this.devices = List.copyOf(devices);
+        this.metrics = metrics;
     }
 
     // ─── Public API ───────────────────────────────────────────────────────────
@@ -88,22 +101,28 @@ public final class PrintSrvInstancePoller {
     /**
      * Выполняет один poll-цикл для данного инстанса.
      *
-     * <p>Опрашивает все устройства, сконфигурированные для данного инстанса. Результаты успешных запросов
-     * сохраняются в репозиторий. Ошибки отдельных устройств логируются на уровне
+     * <p>Опрашивает все устройства, сконфигурированные для данного инстанса. Ответы успешных запросов
+     * возвращаются записями {@link IngestionRecord.Kind#DEVICE_STATE}. Ошибки отдельных устройств логируются на уровне
      * {@code TRACE} и не прерывают опрос остальных.
      */
     public PollResult poll() {
         String instanceId = client.getInstanceId();
         int successCount = 0;
         int failCount = 0;
+        long scanStart = System.nanoTime();
+        Instant oldestReceivedAt = null;
+        List<IngestionRecord> records = new ArrayList<>(devices.size());
 
         PollingLogger.logPollCycleStart(instanceId, devices.size());
 
         for (String device : devices) {
             try {
                 QueryAllResponseDTO dto = client.queryAll(device);
-                DeviceSnapshot snapshot = mapper.toDomainDeviceSnapshot(dto);
-                snapshotRepo.save(instanceId, device, snapshot);
+                Instant receivedAt = Instant.now();
+                records.add(IngestionRecord.deviceState(instanceId, device, receivedAt, dto));
+                if (oldestReceivedAt == null) {
+                    oldestReceivedAt = receivedAt;
+                }
                 successCount++;
             } catch (IOException e) {
                 log.trace("[{}] device='{}' unreachable: {}", instanceId, device, e.getMessage());
@@ -113,6 +132,7 @@ public final class PrintSrvInstancePoller {
         }
 
         boolean anySuccess = successCount > 0;
+        metrics.recordScan(System.nanoTime() - scanStart, failCount, anySuccess);
         boolean availabilityChanged = anySuccess != wasReachable;
 
         if (anySuccess) {
@@ -123,24 +143,24 @@ public final class PrintSrvInstancePoller {
             wasReachable = true;
             log.trace("[{}] poll ok", instanceId);
             PollingLogger.logPollCycleEnd(instanceId, successCount, failCount, true);
-            return new PollResult(true, availabilityChanged);
+            return new PollResult(true, availabilityChanged, oldestReceivedAt, records);
         }
 
-        // Недоступно: при первом переходе в unreachable очищаем stale-снапшоты,
-        // чтобы API/WS сразу начали отдавать "Нет данных".
+        // Недоступно: при первом переходе в unreachable снапшоты очищаются (запись
+        // INSTANCE_UNREACHABLE), чтобы API/WS сразу начали отдавать "Нет данных".
         if (availabilityChanged) {
-            snapshotRepo.clearInstance(instanceId);
             wasReachable = false;
             log.warn("[{}] PrintSrv unreachable for all configured devices", instanceId);
             PollingLogger.logInstanceUnreachable(instanceId, devices.size());
             PollingLogger.logPollCycleEnd(instanceId, successCount, failCount, false);
-            return new PollResult(false, true);
+            return new PollResult(false, true, null,
+                    List.of(IngestionRecord.unreachable(instanceId, Instant.now())));
         }
 
         log.trace("[{}] still unreachable", instanceId);
         PollingLogger.logInstanceStillUnreachable(instanceId);
         PollingLogger.logPollCycleEnd(instanceId, successCount, failCount, false);
-        return new PollResult(false, false);
+        return new PollResult(false, false, null, List.of());
     }
 
     public int getConfiguredDeviceCount() {
@@ -152,15 +172,13 @@ public final class PrintSrvInstancePoller {
      *
      * @param reachable            true, если хотя бы одно устройство ответило
      * @param availabilityChanged  true, если доступность изменилась относительно предыдущего цикла
+     * @param dataReceivedAt       момент получения первого (самого раннего) ответа прохода,
+     *                             или {@code null}, если не ответило ни одно устройство
+     * @param records              записи для {@link IngestionPipeline}: ответы устройств при
+     *                             reachable=true, {@code INSTANCE_UNREACHABLE} при переходе в
+     *                             недоступность (чтобы мгновенно деградировать UI), иначе пусто
      */
-    public record PollResult(boolean reachable, boolean availabilityChanged) {
-        /**
-         * Когда нужно публиковать live-обновление в WS:
-         * - всегда при reachable=true (новые данные);
-         * - при смене доступности (reachable -> unreachable), чтобы мгновенно деградировать UI.
-         */
-        public boolean shouldPublishLiveUpdate() {
-            return reachable || availabilityChanged;
-        }
+    public record PollResult(boolean reachable, boolean availabilityChanged, Instant dataReceivedAt,
+                             List<IngestionRecord> records) {
     }
 }
@@ -0,0 +1,20 @@
+package dev.savushkin.scada.mobile.backend.infrastructure.polling;
+
+import java.util.List;
+
+/**
+ * Пачка обновлений аппаратов: по одному {@link PrintSrvInstancePolledEvent} на каждый аппарат,
+ * данные которого изменились в одной пачке конвейера приёма.
+ *
+ * <p>Сколько бы сообщений аппарата ни пришло в пачке, аппарат встречается в ней один раз —
+ * слушатели делают рассылку и обращения к БД один раз на аппарат (или на всю пачку),
+ * а не на каждое сообщение.
+ *
+ * @param instances обновления аппаратов в порядке их первого появления в пачке
+ */
+public record PrintSrvInstancesPolledEvent(List<PrintSrvInstancePolledEvent> instances) {
+
+    public PrintSrvInstancesPolledEvent {
+        instances = List.copyOf(instances);
+    }
+}
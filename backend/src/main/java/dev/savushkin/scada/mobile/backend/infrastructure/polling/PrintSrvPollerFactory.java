@@ -1,16 +1,16 @@
 package dev.savushkin.scada.mobile.backend.infrastructure.polling;
 
-import dev.savushkin.scada.mobile.backend.application.ports.InstanceSnapshotRepository;
 import dev.savushkin.scada.mobile.backend.application.ports.PrintSrvTopologyRepository;
 import dev.savushkin.scada.mobile.backend.domain.model.PrintSrvInstance;
-import dev.savushkin.scada.mobile.backend.infrastructure.integration.printsrv.PrintSrvMapper;
 import dev.savushkin.scada.mobile.backend.infrastructure.integration.printsrv.client.PrintSrvClient;
 import dev.savushkin.scada.mobile.backend.infrastructure.integration.printsrv.client.PrintSrvClientRegistry;
 import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
+import java.util.Collection;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -35,33 +35,36 @@ public class PrintSrvPollerFactory {
     private static final Logger log = LoggerFactory.getLogger(PrintSrvPollerFactory.class);
 
     private final PrintSrvClientRegistry registry;
-    private final PrintSrvMapper mapper;
-    private final InstanceSnapshotRepository snapshotRepo;
     private final PrintSrvTopologyRepository topologyRepo;
+    private final PollingMetrics pollingMetrics;
 
     public PrintSrvPollerFactory(
             PrintSrvClientRegistry registry,
-            PrintSrvMapper mapper,
-            InstanceSnapshotRepository snapshotRepo,
-            PrintSrvTopologyRepository topologyRepo
+            PrintSrvTopologyRepository topologyRepo,
+            PollingMetrics pollingMetrics
     ) {
         this.registry = registry;
-        this.mapper = mapper;
-        this.snapshotRepo = snapshotRepo;
         this.topologyRepo = topologyRepo;
+        this.pollingMetrics = pollingMetrics;
     }
 
     /**
      * Создаёт список поллеров для всех зарегистрированных инстансов.
      *
      * <p>Порядок следует порядку, возвращяемому {@link PrintSrvClientRegistry#getAll()}.
+     * Топология всех инстансов читается одним вызовом
+     * {@link PrintSrvTopologyRepository#findAllActiveInstances()}, а не запросом на инстанс.
      *
      * @return неизменяемый список поллеров (по одному на инстанс)
      */
     public List<PrintSrvInstancePoller> createAll() {
+        Map<String, PrintSrvInstance> topology = new LinkedHashMap<>();
+        for (PrintSrvInstance inst : topologyRepo.findAllActiveInstances()) {
+            topology.put(inst.instanceId(), inst);
+        }
         List<PrintSrvInstancePoller> pollers = registry.getAll()
                 .stream()
-                .map(this::createFor)
+                .map(client -> create(client, topology.get(client.getInstanceId()), topology.keySet()))
                 .toList();
 
         log.info("PrintSrvPollerFactory: created {} instance poller(s)", pollers.size());
@@ -71,24 +74,33 @@ public class PrintSrvPollerFactory {
 
     /**
      * Создаёт поллер для конкретного клиента.
-     * Используется как в {@link #createAll()}, так и в тестах напрямую.
+     * Используется при синхронизации реестра ({@link PrintSrvPollingRuntime#synchronize()})
+     * и в тестах напрямую.
      *
      * @param client уже сконфигурированный клиент PrintSrv
      * @return новый поллер {@link PrintSrvInstancePoller}
      */
     public PrintSrvInstancePoller createFor(@NonNull PrintSrvClient client) {
+        PrintSrvInstance inst = topologyRepo.findByInstanceId(client.getInstanceId()).orElse(null);
+        if (inst == null) {
+            return create(client, null, topologyRepo.findAllActiveInstances().stream()
+                    .map(PrintSrvInstance::instanceId)
+                    .toList());
+        }
+        return create(client, inst, List.of());
+    }
+
+    private PrintSrvInstancePoller create(@NonNull PrintSrvClient client, @Nullable PrintSrvInstance inst,
+                                          Collection<String> knownIds) {
         String instanceId = client.getInstanceId();
         log.debug("PrintSrvPollerFactory: creating poller for instance '{}'", instanceId);
         PollingLogger.logFactoryCreatingPoller(instanceId);
-        PrintSrvInstance inst = topologyRepo.findByInstanceId(instanceId).orElse(null);
         if (inst == null) {
             throw new IllegalStateException(
                     "PrintSrvPollerFactory: PrintSrvInstance not found for instanceId='%s'. Known ids: %s"
-                            .formatted(instanceId,
-                                    topologyRepo.findAllActiveInstances().stream()
-                                            .map(PrintSrvInstance::instanceId)
-                                            .toList()));
+                            .formatted(instanceId, knownIds));
         }
-        return new PrintSrvInstancePoller(client, mapper, snapshotRepo, inst.deviceNames());
+        return new PrintSrvInstancePoller(client, inst.deviceNames(),
+                pollingMetrics.forInstance(instanceId));
     }
 }
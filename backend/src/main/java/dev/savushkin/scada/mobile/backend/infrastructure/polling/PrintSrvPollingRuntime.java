@@ -1,38 +1,64 @@
 package dev.savushkin.scada.mobile.backend.infrastructure.polling;
 
+import dev.savushkin.scada.mobile.backend.config.IngestionProperties;
 import dev.savushkin.scada.mobile.backend.config.PrintSrvProperties;
+import dev.savushkin.scada.mobile.backend.infrastructure.ingestion.IngestionPipeline;
+import dev.savushkin.scada.mobile.backend.infrastructure.ingestion.IngestionRecord;
+import dev.savushkin.scada.mobile.backend.infrastructure.ingestion.IngestionRuntime;
+import dev.savushkin.scada.mobile.backend.infrastructure.ingestion.IngestionSink;
+import dev.savushkin.scada.mobile.backend.infrastructure.ingestion.IngestionSource;
 import dev.savushkin.scada.mobile.backend.infrastructure.integration.printsrv.client.PrintSrvClient;
 import dev.savushkin.scada.mobile.backend.infrastructure.integration.printsrv.client.PrintSrvClientRegistry;
+import dev.savushkin.scada.mobile.backend.infrastructure.startup.StartupMetrics;
 import jakarta.annotation.PreDestroy;
 import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.context.ApplicationEventPublisher;
-import org.springframework.context.SmartLifecycle;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
 
 /**
  * Runtime polling-оркестратор: один независимый worker-loop на каждый инстанс PrintSrv.
  *
- * <p>Каждый worker запускается в отдельном virtual thread, последовательно
- * опрашивает устройства своего инстанса и сразу после успешного прохода
- * публикует {@link PrintSrvInstancePolledEvent}. Это позволяет доставлять live-
- * обновления по мере готовности конкретной машины, а не после общего цикла.
+ * <p>Источник {@code polling} ({@link IngestionSource}): запускается {@link IngestionRuntime},
+ * если {@code ingestion.source=polling}. Каждый worker запускается в отдельном virtual thread,
+ * последовательно опрашивает устройства своего инстанса и сразу после прохода отдаёт его
+ * записи в {@link IngestionPipeline} — live-обновления доставляются по мере готовности
+ * конкретной машины, а не после общего цикла. Если конвейер переполнен, worker ждёт
+ * (back-pressure), и следующий опрос инстанса откладывается.
  *
  * <p>Набор worker-ов не зафиксирован на старте: {@link #synchronize()}
  * приводит его к содержимому {@link PrintSrvClientRegistry} после
  * админ-изменений автоматов — новые инстансы начинают опрашиваться,
  * а исчезнувшие останавливаются без перезапуска приложения.
+ *
+ * <p>При координации опроса между узлами ({@code cluster.polling.mode}) набор ограничен
+ * инстансами, аренды которых держит узел: {@link #assign(Set)} вызывает {@code PollingCoordinator}
+ * при каждом изменении владения.
+ *
+ * <p>Worker измеряет запаздывание старта каждой итерации относительно
+ * запланированного момента ({@code конец прошлого прохода + fixedDelay})
+ * и пишет его в {@link PollingMetrics} как {@code printsrv.poll.loop.lag}:
+ * рост лага означает голодание carrier-потоков или долгие паузы GC.
+ *
+ * <h3>Первый проход при старте</h3>
+ * {@link #start(IngestionSink)} запускает worker-ы (первый опрос всех инстансов идёт параллельно);
+ * начальная загрузка ({@link #awaitInitialLoad}) завершается, когда каждый worker закончил
+ * первую итерацию — успешно или с ошибкой соединения.
  */
 @Service
-public class PrintSrvPollingRuntime implements SmartLifecycle {
+public class PrintSrvPollingRuntime implements IngestionSource {
 
     private static final Logger log = LoggerFactory.getLogger(PrintSrvPollingRuntime.class);
 
@@ -43,24 +69,33 @@ public class PrintSrvPollingRuntime implements SmartLifecycle {
     private final ConcurrentHashMap<String, PrintSrvInstancePoller> pollers = new ConcurrentHashMap<>();
     private final PrintSrvPollerFactory pollerFactory;
     private final PrintSrvClientRegistry clientRegistry;
-    private final ApplicationEventPublisher eventPublisher;
+    private final PollingMetrics pollingMetrics;
     private final long fixedDelayMs;
     private final AtomicBoolean running = new AtomicBoolean(false);
 
     private volatile ExecutorService executor;
+    private volatile IngestionSink sink;
+    private volatile CountDownLatch initialPoll = new CountDownLatch(1);
+    /**
+     * Инстансы, назначенные узлу координатором; {@code null} — все инстансы реестра.
+     */
+    private volatile @Nullable Set<String> assigned;
 
     public PrintSrvPollingRuntime(
             PrintSrvPollerFactory pollerFactory,
             PrintSrvClientRegistry clientRegistry,
-            ApplicationEventPublisher eventPublisher,
-            PrintSrvProperties properties
+            PrintSrvProperties properties,
+            PollingMetrics pollingMetrics,
+            StartupMetrics startupMetrics
     ) {
         this.pollerFactory = pollerFactory;
         this.clientRegistry = clientRegistry;
-        this.eventPublisher = eventPublisher;
+        this.pollingMetrics = pollingMetrics;
         this.fixedDelayMs = properties.getPolling().getFixedDelayMs();
 
+        long topologyStartedAt = System.nanoTime();
         pollerFactory.createAll().forEach(poller -> pollers.put(poller.getInstanceId(), poller));
+        startupMetrics.recordPhase("topology", System.nanoTime() - topologyStartedAt);
 
         int totalDevices = pollers.values().stream()
                 .mapToInt(PrintSrvInstancePoller::getConfiguredDeviceCount)
@@ -71,10 +106,16 @@ public class PrintSrvPollingRuntime implements SmartLifecycle {
     }
 
     @Override
-    public void start() {
+    public @NonNull String name() {
+        return IngestionProperties.SOURCE_POLLING;
+    }
+
+    @Override
+    public void start(@NonNull IngestionSink sink) {
         if (!running.compareAndSet(false, true)) {
             return;
         }
+        this.sink = sink;
 
         ThreadFactory threadFactory = Thread.ofVirtual()
                 .name("printsrv-poller-", 0)
@@ -82,14 +123,54 @@ public class PrintSrvPollingRuntime implements SmartLifecycle {
         executor = Executors.newThreadPerTaskExecutor(threadFactory);
 
         ExecutorService currentExecutor = executor;
-        pollers.values().forEach(poller -> currentExecutor.submit(() -> runPollLoop(poller)));
+        CountDownLatch firstPoll = new CountDownLatch(pollers.size());
+        initialPoll = firstPoll;
+        pollers.values().forEach(poller -> currentExecutor.submit(() -> runPollLoop(poller, firstPoll)));
 
         log.info("PrintSrvPollingRuntime started with {} virtual worker(s)", pollers.size());
         PollingLogger.logRuntimeStarted(pollers.size());
     }
 
+    @Override
+    public boolean awaitInitialLoad(long timeoutMs) throws InterruptedException {
+        CountDownLatch firstPoll = initialPoll;
+        if (firstPoll.await(timeoutMs, TimeUnit.MILLISECONDS)) {
+            return true;
+        }
+        log.warn("PrintSrvPollingRuntime: {} of {} instance(s) did not finish the first poll within {} ms; "
+                + "starting without them", firstPoll.getCount(), pollers.size(), timeoutMs);
+        return false;
+    }
+
+    /**
+     * Завершили ли все worker-ы, запущенные в {@link #start(IngestionSink)}, свою первую итерацию
+     * (успешно или с ошибкой соединения).
+     */
+    @Override
+    public boolean isInitialLoadComplete() {
+        return initialPoll.getCount() == 0;
+    }
+
+    /**
+     * Ограничивает опрос инстансами {@code instanceIds} и сразу приводит к ним набор worker-ов.
+     *
+     * @param instanceIds инстансы, аренды которых держит узел; {@code null} — все инстансы реестра
+     */
+    public synchronized void assign(@Nullable Set<String> instanceIds) {
+        assigned = instanceIds == null ? null : Set.copyOf(instanceIds);
+        synchronize();
+    }
+
+    /**
+     * Инстансы, которые сейчас опрашивает узел.
+     */
+    public Set<String> getPolledInstanceIds() {
+        return Set.copyOf(pollers.keySet());
+    }
+
     /**
-     * Приводит набор worker-ов к текущему содержимому {@link PrintSrvClientRegistry}.
+     * Приводит набор worker-ов к текущему содержимому {@link PrintSrvClientRegistry}
+     * (с учётом назначения {@link #assign(Set)}).
      *
      * <p>Вызывается {@link PrintSrvConnectionSynchronizer} после сверки реестра
      * клиентов с БД. Поллер создаётся заново, только если клиент инстанса
@@ -101,13 +182,25 @@ public class PrintSrvPollingRuntime implements SmartLifecycle {
      * закрыт реестром, поэтому poll завершится IOException.
      */
     public synchronized void synchronize() {
-        Set<String> activeIds = clientRegistry.getInstanceIds();
+        Set<String> registered = clientRegistry.getInstanceIds();
+        Set<String> scope = assigned;
+        Set<String> activeIds = scope == null ? registered
+                : registered.stream().filter(scope::contains).collect(Collectors.toSet());
 
-        pollers.keySet().removeIf(id -> !activeIds.contains(id));
+        pollers.keySet().removeIf(id -> {
+            if (activeIds.contains(id)) {
+                return false;
+            }
+            pollingMetrics.removeInstance(id);
+            return true;
+        });
 
         ExecutorService currentExecutor = executor;
         for (PrintSrvClient client : clientRegistry.getAll()) {
             String id = client.getInstanceId();
+            if (!activeIds.contains(id)) {
+                continue;
+            }
             PrintSrvInstancePoller current = pollers.get(id);
             if (current != null && current.getClient() == client) {
                 continue;
@@ -115,28 +208,54 @@ public class PrintSrvPollingRuntime implements SmartLifecycle {
             PrintSrvInstancePoller created = pollerFactory.createFor(client);
             pollers.put(id, created);
             if (running.get() && currentExecutor != null) {
-                currentExecutor.submit(() -> runPollLoop(created));
+                currentExecutor.submit(() -> runPollLoop(created, null));
             }
-            log.info("[{}] poller {} after topology change", id, current == null ? "started" : "restarted");
+            log.info("[{}] poller {} after topology or ownership change", id, current == null ? "started" : "restarted");
         }
     }
 
-    private void runPollLoop(@NonNull PrintSrvInstancePoller poller) {
+    /**
+     * @param firstPoll защёлка первого прохода при старте; {@code null} для worker-ов,
+     *                  добавленных {@link #synchronize()}
+     */
+    private void runPollLoop(@NonNull PrintSrvInstancePoller poller, @Nullable CountDownLatch firstPoll) {
         String instanceId = poller.getInstanceId();
         log.debug("[{}] polling worker started", instanceId);
         PollingLogger.logWorkerStarted(instanceId);
+        PollingMetrics.InstanceMetrics metrics = pollingMetrics.forInstance(instanceId);
+        long fixedDelayNanos = TimeUnit.MILLISECONDS.toNanos(fixedDelayMs);
+        long scheduledAt = 0L;
 
         while (running.get() && pollers.get(instanceId) == poller && !Thread.currentThread().isInterrupted()) {
+            if (scheduledAt != 0L) {
+                metrics.recordLoopLag(System.nanoTime() - scheduledAt);
+            }
             try {
-                PrintSrvInstancePoller.PollResult pollResult = poller.poll();
-                if (pollResult.shouldPublishLiveUpdate()) {
-                    eventPublisher.publishEvent(new PrintSrvInstancePolledEvent(instanceId));
+                PrintSrvInstancePoller.PollResult pollResult;
+                // MDC диагностического логгера — один раз на итерацию, а не на каждую запись
+                PollingLogger.beginIteration(instanceId);
+                try {
+                    pollResult = poller.poll();
+                } finally {
+                    PollingLogger.endIteration();
+                }
+                List<IngestionRecord> records = pollResult.records();
+                if (!records.isEmpty()) {
+                    sink.accept(records);
                 }
+            } catch (InterruptedException interruptedException) {
+                Thread.currentThread().interrupt();
+                break;
             } catch (Exception ex) {
                 log.error("[{}] unexpected polling worker failure: {}", instanceId, ex.getMessage(), ex);
                 PollingLogger.logWorkerFailure(instanceId, ex);
             }
+            if (firstPoll != null) {
+                firstPoll.countDown();
+                firstPoll = null;
+            }
 
+            scheduledAt = System.nanoTime() + fixedDelayNanos;
             try {
                 Thread.sleep(fixedDelayMs);
             } catch (InterruptedException interruptedException) {
@@ -145,6 +264,9 @@ public class PrintSrvPollingRuntime implements SmartLifecycle {
             }
         }
 
+        if (firstPoll != null) {
+            firstPoll.countDown();
+        }
         log.debug("[{}] polling worker stopped", instanceId);
         PollingLogger.logWorkerStopped(instanceId);
     }
@@ -165,27 +287,6 @@ public class PrintSrvPollingRuntime implements SmartLifecycle {
         PollingLogger.logRuntimeStopped();
     }
 
-    @Override
-    public void stop(Runnable callback) {
-        stop();
-        callback.run();
-    }
-
-    @Override
-    public boolean isRunning() {
-        return running.get();
-    }
-
-    @Override
-    public boolean isAutoStartup() {
-        return true;
-    }
-
-    @Override
-    public int getPhase() {
-        return Integer.MAX_VALUE;
-    }
-
     @PreDestroy
     public void shutdown() {
         stop();
@@ -0,0 +1,55 @@
+package dev.savushkin.scada.mobile.backend.infrastructure.scheduler;
+
+import dev.savushkin.scada.mobile.backend.application.ports.AlertHistoryRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+
+/**
+ * Заблаговременное создание месячных партиций журнала алёртов {@code alert_history}.
+ * <p>
+ * Запускается при старте приложения и ежедневно в 03:10; гарантирует наличие
+ * партиций на текущий месяц и {@link #MONTHS_AHEAD} следующих. Операция идемпотентна
+ * ({@code CREATE TABLE IF NOT EXISTS}). Без неё записи попадали бы в default-партицию,
+ * и запросы по диапазону теряли бы отсечение партиций.
+ */
+@Component
+public class AlertHistoryPartitionJob {
+
+    private static final Logger log = LoggerFactory.getLogger(AlertHistoryPartitionJob.class);
+
+    private static final int MONTHS_AHEAD = 2;
+
+    private final AlertHistoryRepository historyRepository;
+
+    public AlertHistoryPartitionJob(AlertHistoryRepository historyRepository) {
+        this.historyRepository = historyRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        ensurePartitions();
+    }
+
+    /**
+     * Расписание: каждый день в 03:10 (UTC-месяц определяется по текущей дате).
+     */
+    @Scheduled(cron = "0 10 3 * * ?")
+    public void ensurePartitions() {
+        LocalDate month = LocalDate.now(ZoneOffset.UTC).withDayOfMonth(1);
+        try {
+            for (int i = 0; i <= MONTHS_AHEAD; i++) {
+                historyRepository.ensurePartition(month.plusMonths(i));
+            }
+            log.debug("Alert history partitions ensured from {} (+{} months)", month, MONTHS_AHEAD);
+        } catch (RuntimeException e) {
+            log.error("Failed to ensure alert history partitions from {}: {}", month, e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package dev.savushkin.scada.mobile.backend.infrastructure.scheduler;
+
+import dev.savushkin.scada.mobile.backend.services.CounterTimeSeriesService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Периодическая очистка временных рядов счётчиков по срокам хранения
+ * ({@code counters.retention.*}).
+ * <p>
+ * Запускается ежечасно в :20; удаление идёт ограниченными пачками, поэтому
+ * не блокирует запись новых точек.
+ */
+@Component
+public class CounterRetentionJob {
+
+    private static final Logger log = LoggerFactory.getLogger(CounterRetentionJob.class);
+
+    private final CounterTimeSeriesService counterService;
+
+    public CounterRetentionJob(CounterTimeSeriesService counterService) {
+        this.counterService = counterService;
+    }
+
+    /**
+     * Расписание: каждый час в hh:20.
+     */
+    @Scheduled(cron = "0 20 * * * ?")
+    public void purgeExpired() {
+        try {
+            long deleted = counterService.purgeExpired();
+            log.debug("Counter retention completed, deleted {} row(s)", deleted);
+        } catch (RuntimeException e) {
+            log.error("Counter retention failed: {}", e.getMessage(), e);
+        }
+    }
+}
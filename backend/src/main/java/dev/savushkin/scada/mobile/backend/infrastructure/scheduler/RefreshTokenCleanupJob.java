@@ -3,17 +3,23 @@ package dev.savushkin.scada.mobile.backend.infrastructure.scheduler;
 import dev.savushkin.scada.mobile.backend.application.ports.RefreshTokenRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
 import java.time.Instant;
 
 /**
  * Периодическая очистка истёкших refresh-токенов из БД.
  * <p>
- * Запускается раз в день (02:00 ночи) и удаляет токены, срок действия
- * которых истёк более 7 дней назад. Это предотвращает бесконечный рост
- * таблицы refresh_tokens.
+ * Вместо одного большого ночного DELETE очистка идёт скользящим окном: каждые
+ * {@code refresh-tokens.cleanup.interval-ms} удаляется не более
+ * {@code refresh-tokens.cleanup.max-batches-per-run} пачек по
+ * {@code refresh-tokens.cleanup.batch-size} токенов, истёкших более
+ * {@code refresh-tokens.cleanup.grace-days} дней назад. Таблица
+ * {@code refresh_tokens} не разрастается между запусками, а каждая пачка —
+ * короткая отдельная транзакция.
  */
 @Component
 public class RefreshTokenCleanupJob {
@@ -21,21 +27,47 @@ public class RefreshTokenCleanupJob {
     private static final Logger log = LoggerFactory.getLogger(RefreshTokenCleanupJob.class);
 
     private final RefreshTokenRepository refreshTokenRepository;
+    private final Duration grace;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
 
-    public RefreshTokenCleanupJob(RefreshTokenRepository refreshTokenRepository) {
+    public RefreshTokenCleanupJob(
+            RefreshTokenRepository refreshTokenRepository,
+            @Value("${refresh-tokens.cleanup.grace-days:7}") long graceDays,
+            @Value("${refresh-tokens.cleanup.batch-size:1000}") int batchSize,
+            @Value("${refresh-tokens.cleanup.max-batches-per-run:20}") int maxBatchesPerRun
+    ) {
         this.refreshTokenRepository = refreshTokenRepository;
+        this.grace = Duration.ofDays(graceDays);
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
     }
 
     /**
-     * Удаляет истёкшие refresh-токены старше 7 дней.
-     * <p>
-     * Расписание: каждый день в 02:00.
+     * Удаляет очередную порцию истёкших refresh-токенов.
+     * Остаток, не уместившийся в лимит пачек, будет удалён на следующем запуске.
      */
-    @Scheduled(cron = "0 0 2 * * ?")
+    @Scheduled(fixedDelayString = "${refresh-tokens.cleanup.interval-ms:600000}",
+            initialDelayString = "${refresh-tokens.cleanup.interval-ms:600000}")
     public void cleanupExpiredTokens() {
-        Instant cutoff = Instant.now().minusSeconds(7 * 24 * 60 * 60); // 7 days ago
-        log.debug("Starting refresh token cleanup, cutoff={}", cutoff);
-        refreshTokenRepository.deleteExpired(cutoff);
-        log.info("Refresh token cleanup completed, cutoff={}", cutoff);
+        Instant cutoff = Instant.now().minus(grace);
+        long total = 0;
+        try {
+            for (int i = 0; i < maxBatchesPerRun; i++) {
+                int deleted = refreshTokenRepository.deleteExpired(cutoff, batchSize);
+                total += deleted;
+                if (deleted < batchSize) {
+                    break;
+                }
+            }
+        } catch (RuntimeException e) {
+            log.error("Refresh token cleanup failed after {} deleted, cutoff={}: {}", total, cutoff, e.getMessage(), e);
+            return;
+        }
+        if (total > 0) {
+            log.info("Refresh token cleanup completed, cutoff={}, deleted={}", cutoff, total);
+        } else {
+            log.debug("Refresh token cleanup: nothing to delete, cutoff={}", cutoff);
+        }
     }
 }
@@ -0,0 +1,102 @@
+package dev.savushkin.scada.mobile.backend.infrastructure.startup;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import org.jspecify.annotations.NonNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Замер времени от старта JVM до готовности (рестарт → ready) по фазам.
+ *
+ * <h3>Метрики</h3>
+ * <ul>
+ *   <li>{@code app.startup.phase} — длительность фазы старта (phase = topology | notifications | warmup | initial_load);</li>
+ *   <li>{@code app.startup.failures} — фазы, завершившиеся ошибкой (phase); старт они не останавливают;</li>
+ *   <li>{@code app.startup.ready} — от старта JVM до начальной загрузки источника данных
+ *       (первый проход опроса всех инстансов или чтение журнала), после которой открывается HTTP-порт.</li>
+ * </ul>
+ * В отличие от {@code application.ready.time} Spring Boot, {@code app.startup.ready} включает
+ * начальную загрузку данных: именно с этого момента клиенты получают непустые снимки.
+ *
+ * <p>Итог пишется одной строкой в лог при {@link #markReady}.
+ */
+@Component
+public class StartupMetrics {
+
+    private static final Logger log = LoggerFactory.getLogger(StartupMetrics.class);
+
+    private final MeterRegistry registry;
+    private final Map<String, Long> phases = Collections.synchronizedMap(new LinkedHashMap<>());
+    private final Map<String, String> failures = Collections.synchronizedMap(new LinkedHashMap<>());
+
+    private volatile long readyAfterMillis = -1;
+
+    public StartupMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * Фиксирует длительность фазы старта.
+     */
+    public synchronized void recordPhase(@NonNull String phase, long nanos) {
+        long millis = TimeUnit.NANOSECONDS.toMillis(nanos);
+        if (phases.put(phase, millis) == null) {
+            TimeGauge.builder("app.startup.phase", () -> phases.getOrDefault(phase, 0L), TimeUnit.MILLISECONDS)
+                    .description("Duration of a startup phase")
+                    .tag("phase", phase)
+                    .register(registry);
+        }
+    }
+
+    /**
+     * Фиксирует ошибку фазы старта, не помешавшую запуску: счётчик и итоговая строка лога.
+     */
+    public void recordFailure(@NonNull String phase, @NonNull String reason) {
+        failures.put(phase, reason);
+        Counter.builder("app.startup.failures")
+                .description("Startup phases that failed without stopping the application")
+                .tag("phase", phase)
+                .register(registry)
+                .increment();
+    }
+
+    /**
+     * Фиксирует момент готовности: время считается от старта JVM.
+     * Повторные вызовы (например, после перезапуска runtime) игнорируются.
+     *
+     * @param source   активный источник данных ({@code ingestion.source})
+     * @param complete  завершилась ли начальная загрузка до таймаута
+     */
+    public synchronized void markReady(@NonNull String source, boolean complete) {
+        if (readyAfterMillis >= 0) {
+            return;
+        }
+        readyAfterMillis = ManagementFactory.getRuntimeMXBean().getUptime();
+        TimeGauge.builder("app.startup.ready", () -> readyAfterMillis, TimeUnit.MILLISECONDS)
+                .description("Time from JVM start to the initial load of the ingestion source")
+                .register(registry);
+        if (failures.isEmpty()) {
+            log.info("Startup: ready in {} ms (JVM start → initial load from '{}'{}); phases: {}",
+                    readyAfterMillis, source, complete ? "" : ", timed out", phases);
+        } else {
+            log.warn("Startup: ready in {} ms (JVM start → initial load from '{}'{}); phases: {}; failed: {}",
+                    readyAfterMillis, source, complete ? "" : ", timed out", phases, failures);
+        }
+    }
+
+    /**
+     * Время от старта JVM до готовности в мс; {@code -1}, пока готовность не наступила.
+     */
+    public long getReadyAfterMillis() {
+        return readyAfterMillis;
+    }
+}
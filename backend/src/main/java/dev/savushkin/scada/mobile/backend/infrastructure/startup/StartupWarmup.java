@@ -0,0 +1,299 @@
+package dev.savushkin.scada.mobile.backend.infrastructure.startup;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.savushkin.scada.mobile.backend.api.dto.UnitsStatusMessageDTO;
+import dev.savushkin.scada.mobile.backend.api.dto.WorkshopsStatusMessageDTO;
+import dev.savushkin.scada.mobile.backend.application.ports.PrintSrvTopologyRepository;
+import dev.savushkin.scada.mobile.backend.config.PrintSrvProperties;
+import dev.savushkin.scada.mobile.backend.domain.model.PrintSrvInstance;
+import dev.savushkin.scada.mobile.backend.domain.model.Workshop;
+import dev.savushkin.scada.mobile.backend.infrastructure.ingestion.IngestionRuntime;
+import dev.savushkin.scada.mobile.backend.infrastructure.integration.printsrv.PrintSrvMapper;
+import dev.savushkin.scada.mobile.backend.infrastructure.integration.printsrv.QueryAllJson;
+import dev.savushkin.scada.mobile.backend.infrastructure.integration.printsrv.dto.QueryAllResponseDTO;
+import dev.savushkin.scada.mobile.backend.infrastructure.integration.printsrv.mock.MockInstanceState;
+import dev.savushkin.scada.mobile.backend.infrastructure.integration.printsrv.mock.MockPrintSrvClient;
+import dev.savushkin.scada.mobile.backend.infrastructure.integration.printsrv.mock.XmlSnapshotLoader;
+import dev.savushkin.scada.mobile.backend.infrastructure.store.InMemoryInstanceSnapshotStore;
+import dev.savushkin.scada.mobile.backend.infrastructure.store.UnitErrorStore;
+import dev.savushkin.scada.mobile.backend.services.DeviceCompositionService;
+import dev.savushkin.scada.mobile.backend.services.UnitDetailService;
+import dev.savushkin.scada.mobile.backend.services.WorkshopService;
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Прогрев горячего пути до первого опроса PrintSrv.
+ *
+ * <p>После деплоя первые минуты медленные: классы Jackson-сериализаторов, {@link PrintSrvMapper}
+ * и сервисов сборки WS-сообщений загружаются и интерпретируются на первом реальном трафике.
+ * Компонент прогоняет тот же путь на встроенных {@code mock-snapshots} (они есть в jar
+ * любого профиля): JSON ответа QueryAll → {@link ObjectMapper#readValue} → маппер → in-memory
+ * снимки → {@link UnitDetailService} / {@link WorkshopService} → {@code writeValueAsString}
+ * сообщений {@code /ws/live} и {@code /ws/unit/*}.
+ *
+ * <p>Всё состояние прогрева приватное (своё хранилище снимков, ошибок и топология в памяти),
+ * поэтому рабочие бины не затрагиваются. Стартует фазой раньше {@link IngestionRuntime},
+ * то есть до приёма первых данных и до открытия HTTP-порта. Пока прогрев не закончился,
+ * readiness остаётся {@code DOWN} ({@link #isComplete()}). Ошибка прогрева не мешает старту:
+ * она уходит в {@code app.startup.failures{phase=warmup}} и доступна через {@link #getFailure()}.
+ */
+@Component
+public class StartupWarmup implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(StartupWarmup.class);
+
+    private static final String SNAPSHOT_PATTERN = "classpath*:mock-snapshots/*/*___Unit0.xml";
+    private static final String FILENAME_SUFFIX = "___Unit0.xml";
+    private static final long WORKSHOP_ID = 0L;
+    private static final String SUBSCRIBE_SAMPLE = "{\"type\":\"SUBSCRIBE_WORKSHOP\",\"workshopId\":0}";
+
+    private final PrintSrvMapper mapper;
+    private final ObjectMapper objectMapper;
+    private final StartupMetrics startupMetrics;
+    private final boolean enabled;
+    private final int passes;
+
+    private volatile boolean running;
+    private volatile boolean complete;
+    private volatile @Nullable String failure;
+
+    public StartupWarmup(
+            PrintSrvMapper mapper,
+            ObjectMapper objectMapper,
+            StartupMetrics startupMetrics,
+            PrintSrvProperties properties
+    ) {
+        this.mapper = mapper;
+        this.objectMapper = objectMapper;
+        this.startupMetrics = startupMetrics;
+        this.enabled = properties.getWarmup().isEnabled();
+        this.passes = Math.max(1, properties.getWarmup().getPasses());
+    }
+
+    @Override
+    public void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        if (!enabled) {
+            log.info("Startup warm-up disabled");
+            complete = true;
+            return;
+        }
+        long startedAt = System.nanoTime();
+        try {
+            int frames = warmUp();
+            log.info("Startup warm-up: {} pass(es) over {} seed response(s) in {} ms",
+                    passes, frames, (System.nanoTime() - startedAt) / 1_000_000);
+        } catch (Exception e) {
+            failure = e.getClass().getSimpleName() + ": " + e.getMessage();
+            startupMetrics.recordFailure("warmup", failure);
+            log.warn("Startup warm-up failed, continuing without it: {}", failure, e);
+        } finally {
+            startupMetrics.recordPhase("warmup", System.nanoTime() - startedAt);
+            complete = true;
+        }
+    }
+
+    /**
+     * Прогрев закончился — успешно, с ошибкой или выключен.
+     */
+    public boolean isComplete() {
+        return complete;
+    }
+
+    /**
+     * Причина ошибки прогрева; {@code null}, если прогрев прошёл, выключен или ещё идёт.
+     */
+    public @Nullable String getFailure() {
+        return failure;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return IngestionRuntime.PHASE - 1;
+    }
+
+    // ─── Private ─────────────────────────────────────────────────────────────
+
+    /**
+     * @return число seed-ответов, прогнанных за один проход
+     */
+    private int warmUp() throws IOException {
+        Map<String, TreeSet<String>> seeds = discoverSeeds();
+        Map<String, Map<String, String>> responses = loadResponses(seeds);
+
+        List<PrintSrvInstance> instances = new ArrayList<>();
+        seeds.forEach((instanceId, devices) -> instances.add(toInstance(instanceId, List.copyOf(devices))));
+
+        int frames = 0;
+        for (int pass = 0; pass < passes; pass++) {
+            frames = runPass(instances, responses);
+        }
+        return frames;
+    }
+
+    private int runPass(List<PrintSrvInstance> instances,
+                        Map<String, Map<String, String>> responses) throws IOException {
+        InMemoryInstanceSnapshotStore snapshots = new InMemoryInstanceSnapshotStore();
+        UnitErrorStore errors = new UnitErrorStore();
+        PrintSrvTopologyRepository topology = new WarmupTopology(instances);
+        DeviceCompositionService composition = new DeviceCompositionService(snapshots, topology);
+        UnitDetailService units = new UnitDetailService(topology, snapshots, errors, composition);
+        WorkshopService workshops = new WorkshopService(topology, snapshots, composition, errors);
+
+        int frames = 0;
+        Instant now = Instant.now();
+        for (Map.Entry<String, Map<String, String>> instance : responses.entrySet()) {
+            for (Map.Entry<String, String> device : instance.getValue().entrySet()) {
+                QueryAllResponseDTO dto = objectMapper.readValue(device.getValue(), QueryAllResponseDTO.class);
+                snapshots.save(instance.getKey(), device.getKey(), mapper.toDomainDeviceSnapshot(dto).withReceivedAt(now));
+                frames++;
+            }
+        }
+
+        for (PrintSrvInstance instance : instances) {
+            String instanceId = instance.instanceId();
+            errors.update(instanceId, WORKSHOP_ID, units.extractActiveErrors(instanceId));
+            serialize(units.buildLineStatus(instanceId));
+            serialize(units.buildDevicesStatus(instanceId));
+            serialize(units.buildQueueStatus(instanceId));
+            serialize(units.buildErrorsStatus(instanceId));
+        }
+        serialize(UnitsStatusMessageDTO.of(WORKSHOP_ID, now.toString(), workshops.getUnitsStatus(WORKSHOP_ID)));
+        serialize(WorkshopsStatusMessageDTO.of(workshops.getWorkshopsStatus()));
+        objectMapper.readTree(SUBSCRIBE_SAMPLE);
+        return frames;
+    }
+
+    private void serialize(Object message) throws JsonProcessingException {
+        if (message != null) {
+            objectMapper.writeValueAsString(message);
+        }
+    }
+
+    /**
+     * instanceId → устройство → JSON ответа QueryAll в том виде, в каком его присылает PrintSrv.
+     */
+    private Map<String, Map<String, String>> loadResponses(Map<String, TreeSet<String>> seeds) throws IOException {
+        XmlSnapshotLoader loader = new XmlSnapshotLoader();
+        Map<String, Map<String, String>> result = new LinkedHashMap<>();
+        for (Map.Entry<String, TreeSet<String>> seed : seeds.entrySet()) {
+            String instanceId = seed.getKey();
+            MockInstanceState state = new MockInstanceState(instanceId);
+            for (String device : seed.getValue()) {
+                state.initDevice(device, loader.loadForDevice(device, null, instanceId));
+            }
+            MockPrintSrvClient client = new MockPrintSrvClient(instanceId, state, false);
+            Map<String, String> byDevice = new LinkedHashMap<>();
+            for (String device : seed.getValue()) {
+                byDevice.put(device, QueryAllJson.encode(objectMapper, client.queryAll(device)));
+            }
+            result.put(instanceId, byDevice);
+        }
+        return result;
+    }
+
+    /**
+     * instanceId → имена устройств по XML-файлам classpath (работает и из jar).
+     */
+    private static Map<String, TreeSet<String>> discoverSeeds() throws IOException {
+        Map<String, TreeSet<String>> result = new TreeMap<>();
+        for (Resource resource : new PathMatchingResourcePatternResolver().getResources(SNAPSHOT_PATTERN)) {
+            String[] segments = resource.getURL().toString().split("/");
+            String instanceId = segments[segments.length - 2];
+            String filename = segments[segments.length - 1];
+            if (!"default".equals(instanceId)) {
+                result.computeIfAbsent(instanceId, k -> new TreeSet<>())
+                        .add(filename.substring(0, filename.length() - FILENAME_SUFFIX.length()));
+            }
+        }
+        if (result.isEmpty()) {
+            throw new IllegalStateException("mock-snapshots not found on classpath");
+        }
+        return result;
+    }
+
+    private static PrintSrvInstance toInstance(String instanceId, List<String> devices) {
+        List<String> printers = new ArrayList<>();
+        List<String> aggregationCams = new ArrayList<>();
+        List<String> aggregationBoxCams = new ArrayList<>();
+        List<String> checkerCams = new ArrayList<>();
+        for (String device : devices) {
+            if (device.startsWith("Printer")) {
+                printers.add(device);
+            } else if (device.startsWith("CamAgregationBox")) {
+                aggregationBoxCams.add(device);
+            } else if (device.startsWith("CamAgregation")) {
+                aggregationCams.add(device);
+            } else if (device.startsWith("CamChecker")) {
+                checkerCams.add(device);
+            }
+        }
+        return new PrintSrvInstance(instanceId, instanceId, WORKSHOP_ID, "localhost", 0, devices,
+                printers, aggregationCams, aggregationBoxCams, checkerCams, Map.of(), Map.of());
+    }
+
+    /**
+     * Топология seed-аппаратов в памяти: прогрев не обращается к БД.
+     */
+    private static final class WarmupTopology implements PrintSrvTopologyRepository {
+
+        private final List<PrintSrvInstance> instances;
+        private final Map<String, PrintSrvInstance> byId = new LinkedHashMap<>();
+
+        private WarmupTopology(List<PrintSrvInstance> instances) {
+            this.instances = List.copyOf(instances);
+            instances.forEach(instance -> byId.put(instance.instanceId(), instance));
+        }
+
+        @Override
+        public @NonNull List<PrintSrvInstance> findAllActiveInstances() {
+            return instances;
+        }
+
+        @Override
+        public @NonNull Optional<PrintSrvInstance> findByInstanceId(@NonNull String instanceId) {
+            return Optional.ofNullable(byId.get(instanceId));
+        }
+
+        @Override
+        public @NonNull List<Workshop> findAllActiveWorkshops() {
+            return List.of(new Workshop(WORKSHOP_ID, "Warm-up"));
+        }
+
+        @Override
+        public @NonNull String getConfigETag() {
+            return "\"warmup\"";
+        }
+    }
+}
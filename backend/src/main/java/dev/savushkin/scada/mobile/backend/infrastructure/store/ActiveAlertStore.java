@@ -4,8 +4,15 @@ import dev.savushkin.scada.mobile.backend.api.dto.AlertMessageDTO;
 import org.jspecify.annotations.NonNull;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Потокобезопасное in-memory хранилище активных алёртов.
@@ -18,25 +25,64 @@ import java.util.concurrent.ConcurrentHashMap;
  *   <li><b>Дельта-детектор</b> — {@link #updateAndDiff(String, AlertMessageDTO)} атомарно
  *       обновляет состояние одного аппарата и возвращает дельту для live-рассылки.</li>
  * </ol>
- * <p>
- * Данные хранятся в {@link ConcurrentHashMap} (ключ — {@code unitId}).
- * Метод {@link #updateAndDiff(String, AlertMessageDTO)} синхронизирован для атомарной пары
- * «сравни + обнови» на уровне конкретного аппарата.
+ *
+ * <h3>Конкурентность</h3>
+ * Глобальной блокировки нет: пара «сравни + обнови» выполняется {@link ConcurrentHashMap#compute}
+ * по ключу {@code unitId}, поэтому поллеры разных инстансов (virtual threads) не ждут друг друга
+ * и не пиннят carrier-потоки на мониторе. Вызов без изменений (алёрт аппарата тот же) сводится
+ * к одному {@code get} и не аллоцирует.
+ *
+ * <h3>Снимок</h3>
+ * Каждое изменение увеличивает {@link #version()}. {@link #snapshot()} возвращает неизменяемый
+ * список, собранный для текущей версии: пока алёрты не меняются, это чтение volatile-ссылки
+ * и сравнение версий без копирования. После изменения список пересобирается один раз —
+ * первым читателем.
  */
 @Component
 public class ActiveAlertStore {
 
+    private static final Delta NO_CHANGE = new Delta(List.of(), List.of());
+
     /**
      * unitId → активный алёрт
      */
     private final ConcurrentHashMap<String, AlertMessageDTO> store = new ConcurrentHashMap<>();
 
+    private final AtomicLong version = new AtomicLong();
+
+    private volatile Snapshot snapshot = new Snapshot(0L, List.of());
+
     /**
-     * Возвращает снимок всех текущих активных алёртов.
-     * Потокобезопасен — возвращает неизменяемую копию.
+     * Возвращает снимок всех текущих активных алёртов (неизменяемый список).
      */
     public List<AlertMessageDTO> getAll() {
-        return List.copyOf(store.values());
+        return snapshot().alerts();
+    }
+
+    /**
+     * Неизменяемый снимок активных алёртов с версией хранилища, для которой он собран.
+     * Снимок содержит все изменения до {@link Snapshot#version()} включительно.
+     */
+    public @NonNull Snapshot snapshot() {
+        Snapshot current = snapshot;
+        long observed = version.get();
+        if (current.version() == observed) {
+            return current;
+        }
+        Snapshot rebuilt = new Snapshot(observed, List.copyOf(store.values()));
+        // Гонка двух читателей может оставить более старый снимок — следующий читатель
+        // увидит расхождение версий и соберёт его заново
+        if (snapshot.version() < observed) {
+            snapshot = rebuilt;
+        }
+        return rebuilt;
+    }
+
+    /**
+     * Версия хранилища: увеличивается при каждом изменении набора активных алёртов.
+     */
+    public long version() {
+        return version.get();
     }
 
     /**
@@ -49,24 +95,85 @@ public class ActiveAlertStore {
      * @param currentAlert  текущий активный алёрт или {@code null}, если алёрта нет
      * @return локальная дельта по одному аппарату
      */
-    public synchronized Delta updateAndDiff(@NonNull String unitId, AlertMessageDTO currentAlert) {
-        AlertMessageDTO existing = store.get(unitId);
-
-        if (currentAlert == null) {
+    public Delta updateAndDiff(@NonNull String unitId, AlertMessageDTO currentAlert) {
+        // Быстрый путь: состояние аппарата не меняется — без блокировки бина и аллокаций
+        if ((store.get(unitId) == null) == (currentAlert == null)) {
+            return NO_CHANGE;
+        }
+        Delta[] delta = {NO_CHANGE};
+        store.compute(unitId, (key, existing) -> {
+            if (currentAlert == null) {
+                if (existing != null) {
+                    delta[0] = new Delta(List.of(), List.of(existing));
+                }
+                return null;
+            }
             if (existing == null) {
-                return new Delta(List.of(), List.of());
+                delta[0] = new Delta(List.of(currentAlert), List.of());
+                return currentAlert;
             }
+            return existing;
+        });
+        if (delta[0] != NO_CHANGE) {
+            version.incrementAndGet();
+        }
+        return delta[0];
+    }
 
-            store.remove(unitId);
-            return new Delta(List.of(), List.of(existing));
+    /**
+     * Заменяет всё содержимое хранилища полным состоянием — реплика WS-узла кластера
+     * при синхронизации с лидером. Конкурентный читатель может увидеть промежуточное
+     * состояние; версия увеличивается после завершения замены.
+     *
+     * @param snapshot все активные алёртов на момент снимка
+     */
+    public void replaceAll(@NonNull Collection<AlertMessageDTO> snapshot) {
+        Set<String> keep = new HashSet<>();
+        for (AlertMessageDTO item : snapshot) {
+            keep.add(item.unitId());
+            store.put(item.unitId(), item);
         }
+        store.keySet().retainAll(keep);
+        version.incrementAndGet();
+    }
 
-        if (existing == null) {
-            store.put(unitId, currentAlert);
-            return new Delta(List.of(currentAlert), List.of());
+    /**
+     * Сливает полное состояние из шины кластера с хранилищем узла приёма. Аппараты, которые
+     * узел опрашивает сам ({@code owned}), не затрагиваются — их алёрты он вычисляет сам.
+     * Для остальных истина — снимок: алёрты из него добавляются, а отсутствующие в нём снимаются
+     * (устранены, пока узел не получал событий шины).
+     *
+     * @param snapshot все активные алёрты на момент снимка
+     * @param owned    аппараты, опрашиваемые этим узлом
+     * @return суммарная дельта по чужим аппаратам
+     */
+    public @NonNull Delta mergeForeign(@NonNull Collection<AlertMessageDTO> snapshot, @NonNull Set<String> owned) {
+        Map<String, AlertMessageDTO> foreign = new HashMap<>();
+        for (AlertMessageDTO alert : snapshot) {
+            if (!owned.contains(alert.unitId())) {
+                foreign.put(alert.unitId(), alert);
+            }
+        }
+        List<AlertMessageDTO> added = new ArrayList<>();
+        List<AlertMessageDTO> removed = new ArrayList<>();
+        for (String unitId : store.keySet()) {
+            if (!owned.contains(unitId) && !foreign.containsKey(unitId)) {
+                removed.addAll(updateAndDiff(unitId, null).removed());
+            }
+        }
+        for (Map.Entry<String, AlertMessageDTO> entry : foreign.entrySet()) {
+            added.addAll(updateAndDiff(entry.getKey(), entry.getValue()).added());
         }
+        return added.isEmpty() && removed.isEmpty() ? NO_CHANGE : new Delta(List.copyOf(added), List.copyOf(removed));
+    }
 
-        return new Delta(List.of(), List.of());
+    /**
+     * Неизменяемый снимок активных алёртов.
+     *
+     * @param version версия хранилища, для которой собран снимок
+     * @param alerts  активные алёрты
+     */
+    public record Snapshot(long version, List<AlertMessageDTO> alerts) {
     }
 
     /**
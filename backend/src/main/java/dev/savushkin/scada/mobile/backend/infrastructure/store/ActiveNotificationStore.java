@@ -4,8 +4,12 @@ import dev.savushkin.scada.mobile.backend.api.dto.NotificationMessageDTO;
 import org.jspecify.annotations.NonNull;
 import org.springframework.stereotype.Component;
 
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Потокобезопасное in-memory хранилище активных уведомлений для WebSocket.
@@ -19,28 +23,56 @@ import java.util.concurrent.ConcurrentHashMap;
  *       обновляет состояние одного аппарата и возвращает дельту для live-рассылки.</li>
  * </ol>
  * <p>
- * <b>Важно:</b> Это отдельный WS-projection store от {@code InMemoryNotificationStore}
- * (реализация {@code NotificationRepository}). {@code ActiveNotificationStore} — WS-оптимизированная
+ * <b>Важно:</b> Это отдельный WS-projection store от {@link ProductionNotificationCache}
+ * (кэш реализации {@code NotificationRepository}). {@code ActiveNotificationStore} — WS-оптимизированная
  * проекция, {@code NotificationRepository} — порт для бизнес-логики.
  * <p>
- * Данные хранятся в {@link ConcurrentHashMap} (ключ — {@code unitId}).
- * Метод {@link #updateAndDiff(String, NotificationMessageDTO)} синхронизирован для атомарной пары
- * «сравни + обнови» на уровне конкретного аппарата.
+ * Конкурентность и снимок устроены так же, как в {@link ActiveAlertStore}: дельта считается
+ * {@link ConcurrentHashMap#compute} по ключу {@code unitId} без глобальной блокировки, а
+ * {@link #snapshot()} отдаёт неизменяемый список, пересобираемый только после изменения.
  */
 @Component
 public class ActiveNotificationStore {
 
+    private static final Delta NO_CHANGE = new Delta(List.of(), List.of());
+
     /**
      * unitId → активное уведомление (WS-projection)
      */
     private final ConcurrentHashMap<String, NotificationMessageDTO> store = new ConcurrentHashMap<>();
 
+    private final AtomicLong version = new AtomicLong();
+
+    private volatile Snapshot snapshot = new Snapshot(0L, List.of());
+
     /**
-     * Возвращает снимок всех текущих активных уведомлений.
-     * Потокобезопасен — возвращает неизменяемую копию.
+     * Возвращает снимок всех текущих активных уведомлений (неизменяемый список).
      */
     public List<NotificationMessageDTO> getAll() {
-        return List.copyOf(store.values());
+        return snapshot().notifications();
+    }
+
+    /**
+     * Неизменяемый снимок активных уведомлений с версией хранилища, для которой он собран.
+     */
+    public @NonNull Snapshot snapshot() {
+        Snapshot current = snapshot;
+        long observed = version.get();
+        if (current.version() == observed) {
+            return current;
+        }
+        Snapshot rebuilt = new Snapshot(observed, List.copyOf(store.values()));
+        if (snapshot.version() < observed) {
+            snapshot = rebuilt;
+        }
+        return rebuilt;
+    }
+
+    /**
+     * Версия хранилища: увеличивается при каждом изменении набора активных уведомлений.
+     */
+    public long version() {
+        return version.get();
     }
 
     /**
@@ -54,32 +86,62 @@ public class ActiveNotificationStore {
      * </ul>
      *
      * @param unitId   идентификатор аппарата
-     * @param incoming текущее состояние уведомления или {@code null}, если уведомления нет
+     * @param incoming текущее состояние уведомления
      * @return локальная дельта по одному аппарату
      */
-    public synchronized Delta updateAndDiff(
+    public Delta updateAndDiff(
             @NonNull String unitId,
-            NotificationMessageDTO incoming
+            @NonNull NotificationMessageDTO incoming
     ) {
-        NotificationMessageDTO existing = store.get(unitId);
-
-        // Входящее — inactive (уведомление снято)
-        if (!incoming.active()) {
-            if (existing != null) {
-                store.remove(unitId);
-                return new Delta(List.of(), List.of(incoming));
+        if ((store.get(unitId) != null) == incoming.active()) {
+            return NO_CHANGE;
+        }
+        Delta[] delta = {NO_CHANGE};
+        store.compute(unitId, (key, existing) -> {
+            // Входящее — inactive (уведомление снято)
+            if (!incoming.active()) {
+                if (existing != null) {
+                    delta[0] = new Delta(List.of(), List.of(incoming));
+                }
+                return null;
             }
-            return new Delta(List.of(), List.of());
+            // Входящее — active (уведомление создано)
+            if (existing == null) {
+                delta[0] = new Delta(List.of(incoming), List.of());
+                return incoming;
+            }
+            // Уже активно — без изменений
+            return existing;
+        });
+        if (delta[0] != NO_CHANGE) {
+            version.incrementAndGet();
         }
+        return delta[0];
+    }
 
-        // Входящее — active (уведомление создано)
-        if (existing == null) {
-            store.put(unitId, incoming);
-            return new Delta(List.of(incoming), List.of());
+    /**
+     * Заменяет всё содержимое хранилища полным состоянием — реплика WS-узла кластера
+     * при синхронизации с лидером.
+     *
+     * @param snapshot все активные уведомлений на момент снимка
+     */
+    public void replaceAll(@NonNull Collection<NotificationMessageDTO> snapshot) {
+        Set<String> keep = new HashSet<>();
+        for (NotificationMessageDTO item : snapshot) {
+            keep.add(item.unitId());
+            store.put(item.unitId(), item);
         }
+        store.keySet().retainAll(keep);
+        version.incrementAndGet();
+    }
 
-        // Уже активно — без изменений
-        return new Delta(List.of(), List.of());
+    /**
+     * Неизменяемый снимок активных уведомлений.
+     *
+     * @param version       версия хранилища, для которой собран снимок
+     * @param notifications активные уведомления
+     */
+    public record Snapshot(long version, List<NotificationMessageDTO> notifications) {
     }
 
     /**
@@ -0,0 +1,74 @@
+package dev.savushkin.scada.mobile.backend.infrastructure.store;
+
+import dev.savushkin.scada.mobile.backend.domain.model.ProductionNotification;
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory кэш активных производственных уведомлений: {@code unitId → уведомление}.
+ * <p>
+ * Кэш обновляется <b>write-through</b> из {@code ProductionNotificationJdbcAdapter} после коммита
+ * транзакции: активация кладёт запись, деактивация удаляет. При старте заполняется одним
+ * запросом всех активных уведомлений ({@link #replaceAll}). Изменения, сделанные другими узлами
+ * кластера, адаптер вносит перечитыванием строки аппарата из БД ({@code reloadActiveByUnitId}).
+ * Деактивированные уведомления в кэше не хранятся — их история остаётся в таблице {@code production_notifications}.
+ * <p>
+ * Объём ограничен естественным образом: не более одной записи на аппарат.
+ *
+ * <h3>Потокобезопасность</h3>
+ * {@link ConcurrentHashMap} гарантирует видимость между потоками; отдельные операции атомарны
+ * по ключу {@code unitId}. Последовательность «проверить → изменить» обеспечивает не кэш,
+ * а уникальный индекс активных уведомлений в БД.
+ */
+@Component
+public class ProductionNotificationCache {
+
+    private final ConcurrentHashMap<String, ProductionNotification> active = new ConcurrentHashMap<>();
+
+    /**
+     * Активное уведомление аппарата или {@code null}.
+     */
+    public @Nullable ProductionNotification get(@NonNull String unitId) {
+        return active.get(unitId);
+    }
+
+    /**
+     * Все активные уведомления — неизменяемая копия.
+     */
+    public @NonNull List<ProductionNotification> getAll() {
+        return List.copyOf(active.values());
+    }
+
+    /**
+     * Запоминает активное уведомление аппарата.
+     */
+    public void put(@NonNull ProductionNotification notification) {
+        active.put(notification.unitId(), notification);
+    }
+
+    /**
+     * Забывает активное уведомление аппарата (снято).
+     */
+    public void remove(@NonNull String unitId) {
+        active.remove(unitId);
+    }
+
+    /**
+     * Заменяет содержимое кэша состоянием, прочитанным из БД.
+     */
+    public synchronized void replaceAll(@NonNull Collection<ProductionNotification> notifications) {
+        active.clear();
+        for (ProductionNotification notification : notifications) {
+            active.put(notification.unitId(), notification);
+        }
+    }
+
+    public int size() {
+        return active.size();
+    }
+}
@@ -0,0 +1,96 @@
+package dev.savushkin.scada.mobile.backend.infrastructure.store;
+
+import dev.savushkin.scada.mobile.backend.application.ports.RefreshTokenRepository.TokenState;
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Ограниченный in-memory кэш состояния refresh-токенов: {@code tokenHash → (userId, expiresAt, revoked)}.
+ * <p>
+ * Кэш обновляется <b>write-through</b> из {@code RefreshTokenJpaAdapter} после коммита
+ * транзакции: при выдаче токена, при его отзыве (ротация, logout) и при массовом
+ * отзыве всех токенов пользователя. Поэтому отозванный токен виден как отозванный
+ * сразу, без обращения к БД; повторное предъявление отозванного или истёкшего токена
+ * отклоняется из памяти.
+ * <p>
+ * Кэшированное «действителен» не является разрешением само по себе: ротация всё равно
+ * выполняется атомарным SQL-запросом, который заново проверяет состояние в БД.
+ * <p>
+ * Размер ограничен {@code refresh-tokens.cache.max-entries}; при переполнении
+ * вытесняются давно не использованные записи (LRU). Все операции синхронизированы:
+ * они короткие, а обращения к кэшу происходят только на входе, logout и refresh.
+ */
+@Component
+public class RefreshTokenCache {
+
+    private final Map<String, TokenState> entries;
+
+    public RefreshTokenCache(@Value("${refresh-tokens.cache.max-entries:10000}") int maxEntries) {
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, TokenState> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Состояние токена или {@code null}, если токен в кэше отсутствует.
+     */
+    public synchronized @Nullable TokenState get(@NonNull String tokenHash) {
+        return entries.get(tokenHash);
+    }
+
+    /**
+     * Запоминает только что выданный действующий токен.
+     */
+    public synchronized void putIssued(@NonNull String tokenHash, long userId, @NonNull Instant expiresAt) {
+        entries.put(tokenHash, new TokenState(userId, expiresAt, false));
+    }
+
+    /**
+     * Запоминает состояние, прочитанное из БД.
+     */
+    public synchronized void put(@NonNull String tokenHash, @NonNull TokenState state) {
+        entries.put(tokenHash, state);
+    }
+
+    /**
+     * Отмечает токен отозванным, если он есть в кэше.
+     */
+    public synchronized void markRevoked(@NonNull String tokenHash) {
+        entries.computeIfPresent(tokenHash, (hash, state) -> state.revoked() ? state : state.asRevoked());
+    }
+
+    /**
+     * Отмечает отозванными все кэшированные токены пользователя.
+     * Линейный проход по ограниченному кэшу; операция редкая (смена пароля, блокировка).
+     */
+    public synchronized void markAllRevoked(long userId) {
+        entries.replaceAll((hash, state) -> state.userId() == userId && !state.revoked() ? state.asRevoked() : state);
+    }
+
+    /**
+     * Удаляет из кэша все токены пользователя (пользователь удалён).
+     */
+    public synchronized void evictUser(long userId) {
+        entries.values().removeIf(state -> state.userId() == userId);
+    }
+
+    /**
+     * Удаляет из кэша токены, истёкшие раньше {@code before} (вслед за удалением из БД).
+     */
+    public synchronized void evictExpired(@NonNull Instant before) {
+        entries.values().removeIf(state -> state.expiresAt().isBefore(before));
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+}
@@ -2,10 +2,13 @@ package dev.savushkin.scada.mobile.backend.infrastructure.store;
 
 import dev.savushkin.scada.mobile.backend.domain.model.DeviceError;
 import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
 import org.springframework.stereotype.Component;
 
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
 /**
@@ -23,31 +26,79 @@ import java.util.concurrent.ConcurrentHashMap;
  *
  * <p>Запись — {@link DeviceError} — представляет одну <b>активную</b> ошибку.
  * Неактивные ошибки ({@code value = "0"}) в store не попадают.
+ *
+ * <h3>Материализованные индексы</h3>
+ * Помимо списка ошибок по аппарату store поддерживает три счётчика, которые
+ * пересчитываются <b>инкрементально</b> в {@link #update} (по разнице старого и нового
+ * списка ошибок), а не сканированием топологии:
+ * <ul>
+ *   <li>{@code workshopId → число аппаратов с ошибками} — бейджи обзора цехов;</li>
+ *   <li>{@code deviceType → число активных ошибок} — аналитика по типам устройств;</li>
+ *   <li>{@code kind → число активных ошибок} — аналитика по видам ошибок
+ *       ({@code Connection}, {@code Fail}, {@code Dublicate}, …).</li>
+ * </ul>
+ * Чтение любого счётчика — один lookup в {@link ConcurrentHashMap}.
+ *
+ * <h3>Потокобезопасность</h3>
+ * Запись по одному аппарату выполняется внутри {@link ConcurrentHashMap#compute},
+ * поэтому параллельные обновления одного {@code unitId} не могут дважды применить
+ * одну и ту же разницу к индексам. Счётчики обновляются через {@code compute},
+ * нулевые значения удаляются из карты.
  */
 @Component
 public class UnitErrorStore {
 
     /**
-     * unitId → список активных ошибок устройств этого аппарата.
+     * unitId → цех аппарата и список его активных ошибок.
      * Отсутствие ключа семантически эквивалентно пустому списку.
      */
-    private final ConcurrentHashMap<String, List<DeviceError>> store = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, UnitErrors> store = new ConcurrentHashMap<>();
 
     /**
-     * Обновляет список активных ошибок для аппарата.
+     * workshopId → число аппаратов цеха, у которых есть хотя бы одна активная ошибка.
+     */
+    private final ConcurrentHashMap<Long, Integer> problemUnitsByWorkshop = new ConcurrentHashMap<>();
+
+    /**
+     * Код типа устройства → число активных ошибок по всем аппаратам.
+     */
+    private final ConcurrentHashMap<String, Integer> errorsByDeviceType = new ConcurrentHashMap<>();
+
+    /**
+     * Вид ошибки (суффикс scada-ключа) → число активных ошибок по всем аппаратам.
+     */
+    private final ConcurrentHashMap<String, Integer> errorsByKind = new ConcurrentHashMap<>();
+
+    /**
+     * Обновляет список активных ошибок для аппарата и инкрементально пересчитывает индексы.
      *
      * <p>Если {@code errors} пустой — запись удаляется из store
      * (освобождение памяти и явная семантика «нет ошибок»).
+     * Если аппарат был перенесён в другой цех, счётчик старого цеха уменьшается.
+     *
+     * @param unitId     идентификатор аппарата
+     * @param workshopId идентификатор цеха, к которому относится аппарат
+     * @param errors     актуальный список активных ошибок (может быть пустым)
+     */
+    public void update(@NonNull String unitId, long workshopId, @NonNull List<DeviceError> errors) {
+        UnitErrors next = errors.isEmpty() ? null : new UnitErrors(workshopId, List.copyOf(errors));
+        store.compute(unitId, (key, previous) -> {
+            applyDiff(previous, next);
+            return next;
+        });
+    }
+
+    /**
+     * Удаляет аппарат из store (например, если аппарат удалён из топологии)
+     * и снимает его вклад из всех индексов.
      *
      * @param unitId идентификатор аппарата
-     * @param errors актуальный список активных ошибок (может быть пустым)
      */
-    public void update(@NonNull String unitId, @NonNull List<DeviceError> errors) {
-        if (errors.isEmpty()) {
-            store.remove(unitId);
-        } else {
-            store.put(unitId, List.copyOf(errors));
-        }
+    public void remove(@NonNull String unitId) {
+        store.computeIfPresent(unitId, (key, previous) -> {
+            applyDiff(previous, null);
+            return null;
+        });
     }
 
     /**
@@ -57,7 +108,8 @@ public class UnitErrorStore {
      * @return неизменяемый список ошибок, или пустой список если ошибок нет / аппарат неизвестен
      */
     public @NonNull List<DeviceError> getErrors(@NonNull String unitId) {
-        return store.getOrDefault(unitId, Collections.emptyList());
+        UnitErrors entry = store.get(unitId);
+        return entry != null ? entry.errors() : Collections.emptyList();
     }
 
     /**
@@ -66,7 +118,119 @@ public class UnitErrorStore {
      * @param unitId идентификатор аппарата
      */
     public boolean hasErrors(@NonNull String unitId) {
-        List<DeviceError> errors = store.get(unitId);
-        return errors != null && !errors.isEmpty();
+        return store.containsKey(unitId);
+    }
+
+    // ─── Индексы ─────────────────────────────────────────────────────────────
+
+    /**
+     * Число аппаратов цеха с хотя бы одной активной ошибкой — O(1).
+     *
+     * @param workshopId идентификатор цеха
+     */
+    public int countProblemUnits(long workshopId) {
+        return problemUnitsByWorkshop.getOrDefault(workshopId, 0);
+    }
+
+    /**
+     * Число активных ошибок по всем аппаратам для указанного типа устройства — O(1).
+     *
+     * @param deviceType код типа ({@code printer}, {@code aggregation_cam}, …)
+     */
+    public int countErrorsByDeviceType(@NonNull String deviceType) {
+        return errorsByDeviceType.getOrDefault(deviceType, 0);
+    }
+
+    /**
+     * Число активных ошибок по всем аппаратам для указанного вида ошибки — O(1).
+     *
+     * @param kind вид ошибки ({@code Connection}, {@code Fail}, {@code Dublicate}, …)
+     */
+    public int countErrorsByKind(@NonNull String kind) {
+        return errorsByKind.getOrDefault(kind, 0);
+    }
+
+    /**
+     * Снимок индекса {@code workshopId → число проблемных аппаратов}.
+     * Цеха без проблемных аппаратов в карте отсутствуют.
+     */
+    public @NonNull Map<Long, Integer> getProblemUnitsByWorkshop() {
+        return Map.copyOf(problemUnitsByWorkshop);
+    }
+
+    /**
+     * Снимок индекса {@code deviceType → число активных ошибок}.
+     */
+    public @NonNull Map<String, Integer> getErrorCountsByDeviceType() {
+        return Map.copyOf(errorsByDeviceType);
+    }
+
+    /**
+     * Снимок индекса {@code kind → число активных ошибок}.
+     */
+    public @NonNull Map<String, Integer> getErrorCountsByKind() {
+        return Map.copyOf(errorsByKind);
+    }
+
+    // ─── Private ─────────────────────────────────────────────────────────────
+
+    /**
+     * Применяет к индексам разницу между предыдущим и новым состоянием аппарата.
+     * Вызывается только из {@code compute}-блока по ключу аппарата.
+     */
+    private void applyDiff(@Nullable UnitErrors previous, @Nullable UnitErrors next) {
+        long prevWorkshop = previous != null ? previous.workshopId() : -1L;
+        long nextWorkshop = next != null ? next.workshopId() : -1L;
+        if (prevWorkshop != nextWorkshop) {
+            if (previous != null) {
+                adjust(problemUnitsByWorkshop, prevWorkshop, -1);
+            }
+            if (next != null) {
+                adjust(problemUnitsByWorkshop, nextWorkshop, 1);
+            }
+        }
+
+        Map<String, Integer> typeDelta = new HashMap<>();
+        Map<String, Integer> kindDelta = new HashMap<>();
+        collect(previous, -1, typeDelta, kindDelta);
+        collect(next, 1, typeDelta, kindDelta);
+        typeDelta.forEach((type, delta) -> adjust(errorsByDeviceType, type, delta));
+        kindDelta.forEach((kind, delta) -> adjust(errorsByKind, kind, delta));
+    }
+
+    private static void collect(
+            @Nullable UnitErrors entry,
+            int sign,
+            Map<String, Integer> typeDelta,
+            Map<String, Integer> kindDelta
+    ) {
+        if (entry == null) {
+            return;
+        }
+        for (DeviceError error : entry.errors()) {
+            if (error.deviceType() != null) {
+                typeDelta.merge(error.deviceType(), sign, Integer::sum);
+            }
+            if (error.kind() != null) {
+                kindDelta.merge(error.kind(), sign, Integer::sum);
+            }
+        }
+    }
+
+    private static <K> void adjust(ConcurrentHashMap<K, Integer> index, K key, int delta) {
+        if (delta == 0) {
+            return;
+        }
+        index.compute(key, (k, current) -> {
+            int updated = (current != null ? current : 0) + delta;
+            return updated <= 0 ? null : updated;
+        });
+    }
+
+    /**
+     * Запись store: цех аппарата фиксируется вместе с ошибками, чтобы при
+     * снятии ошибок уменьшить счётчик именно того цеха, в который был сделан вклад.
+     */
+    private record UnitErrors(long workshopId, List<DeviceError> errors) {
     }
 }
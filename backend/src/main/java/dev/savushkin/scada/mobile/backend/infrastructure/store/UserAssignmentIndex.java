@@ -0,0 +1,119 @@
+package dev.savushkin.scada.mobile.backend.infrastructure.store;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.jspecify.annotations.NonNull;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * In-memory индекс закреплений: {@code userId → множество instanceId} аппаратов, за которыми
+ * закреплён работник (активное назначение на активный аппарат).
+ * <p>
+ * Индекс загружается целиком одним запросом при первом обращении и сбрасывается
+ * {@link #invalidate()} после коммита любого изменения назначений или аппаратов
+ * ({@code AdminDataChangeBroadcaster}, на других узлах кластера — {@code ClusterReplicator}).
+ * Следующее обращение загружает его заново. Изменения редкие (действия администратора),
+ * а проверка права на вызов — частая: при остановке линии её одновременно нажимают многие.
+ * Проверка из загруженного индекса — одно чтение volatile-ссылки и {@link Set#contains}.
+ *
+ * <h3>Без устаревших разрешений</h3>
+ * Загрузка, начатая до {@link #invalidate()}, могла прочитать назначения до отзыва. Поэтому
+ * сброс увеличивает поколение, и результат такой загрузки не публикуется — его видит только
+ * запрос, шедший одновременно с отзывом. Любая проверка, начатая после возврата из
+ * {@link #invalidate()}, видит назначения, прочитанные уже после коммита.
+ * <p>
+ * Загрузки после сброса выполняются по одной (остальные ждут и берут её результат), поэтому
+ * волна нажатий после изменения назначений даёт один запрос к БД, а не по запросу на нажатие.
+ *
+ * <h3>Метрики</h3>
+ * <ul>
+ *   <li>{@code user.assignments.index.loads} — загрузки индекса из БД;</li>
+ *   <li>{@code user.assignments.index.invalidations} — сбросы индекса.</li>
+ * </ul>
+ */
+@Component
+public class UserAssignmentIndex {
+
+    private final AtomicLong generation = new AtomicLong();
+    private final ReentrantLock loadLock = new ReentrantLock();
+    private final Counter loads;
+    private final Counter invalidations;
+
+    /**
+     * Загруженный индекс или {@code null}, если он сброшен.
+     */
+    private volatile Map<Long, Set<String>> byUser;
+
+    public UserAssignmentIndex(MeterRegistry registry) {
+        this.loads = Counter.builder("user.assignments.index.loads")
+                .description("Bulk loads of the user assignment index")
+                .register(registry);
+        this.invalidations = Counter.builder("user.assignments.index.invalidations")
+                .description("Invalidations of the user assignment index")
+                .register(registry);
+    }
+
+    /**
+     * Аппараты, за которыми закреплён работник.
+     *
+     * @param loader загрузка всех активных закреплений из БД: {@code userId → instanceId}
+     * @return неизменяемое множество; пустое, если закреплений нет
+     */
+    public @NonNull Set<String> unitsOf(long userId, @NonNull Supplier<Map<Long, Set<String>>> loader) {
+        Map<Long, Set<String>> current = byUser;
+        if (current == null) {
+            current = load(loader);
+        }
+        return current.getOrDefault(userId, Set.of());
+    }
+
+    /**
+     * Закреплён ли работник за аппаратом.
+     *
+     * @param loader см. {@link #unitsOf}
+     */
+    public boolean isAssigned(long userId, @NonNull String unitId,
+                              @NonNull Supplier<Map<Long, Set<String>>> loader) {
+        return unitsOf(userId, loader).contains(unitId);
+    }
+
+    /**
+     * Сбрасывает индекс. Вызывается после коммита изменения назначений или аппаратов.
+     */
+    public void invalidate() {
+        generation.incrementAndGet();
+        byUser = null;
+        invalidations.increment();
+    }
+
+    // ─── Private ─────────────────────────────────────────────────────────────
+
+    private Map<Long, Set<String>> load(Supplier<Map<Long, Set<String>>> loader) {
+        loadLock.lock();
+        try {
+            Map<Long, Set<String>> current = byUser;
+            if (current != null) {
+                return current;
+            }
+            long observed = generation.get();
+            Map<Long, Set<String>> loaded = Map.copyOf(loader.get());
+            loads.increment();
+            if (generation.get() == observed) {
+                byUser = loaded;
+                // Сброс мог случиться между проверкой и записью — тогда загрузку нельзя оставлять
+                if (generation.get() != observed) {
+                    byUser = null;
+                }
+            }
+            return loaded;
+        } finally {
+            loadLock.unlock();
+        }
+    }
+}
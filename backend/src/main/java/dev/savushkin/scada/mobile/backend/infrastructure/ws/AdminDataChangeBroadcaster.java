@@ -6,6 +6,9 @@ import dev.savushkin.scada.mobile.backend.domain.model.*;
 import dev.savushkin.scada.mobile.backend.infrastructure.integration.database.adapter.PrintSrvTopologyJpaAdapter;
 import dev.savushkin.scada.mobile.backend.infrastructure.integration.database.entity.*;
 import dev.savushkin.scada.mobile.backend.infrastructure.integration.database.repository.*;
+import dev.savushkin.scada.mobile.backend.infrastructure.cluster.ClusterEvent;
+import dev.savushkin.scada.mobile.backend.infrastructure.cluster.ClusterPublisher;
+import dev.savushkin.scada.mobile.backend.infrastructure.store.UserAssignmentIndex;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
@@ -19,6 +22,12 @@ import org.springframework.transaction.event.TransactionalEventListener;
  * БД остаётся единым источником правды: события обрабатываются
  * в фазе {@code AFTER_COMMIT}, после чего затронутая сущность
  * загружается заново и только потом сериализуется в JSON.
+ * <p>
+ * Изменение могло прийти на любой узел кластера: каждое сообщение дополнительно
+ * публикуется в шину ({@link ClusterPublisher}) и доходит до клиентов остальных узлов.
+ * <p>
+ * Изменения назначений, аппаратов и удаление сотрудника сбрасывают {@link UserAssignmentIndex}
+ * на этом узле и — событием {@code ASSIGNMENTS_CHANGED} — на остальных.
  */
 @Component
 public class AdminDataChangeBroadcaster {
@@ -36,6 +45,8 @@ public class AdminDataChangeBroadcaster {
     private final DeviceCatalogJpaRepository catalogRepository;
     private final DeviceTypeJpaRepository deviceTypeRepository;
     private final UserNotificationSettingsJpaRepository settingsRepository;
+    private final ClusterPublisher clusterPublisher;
+    private final UserAssignmentIndex assignmentIndex;
 
     public AdminDataChangeBroadcaster(
             LiveWsHandler liveWsHandler,
@@ -47,7 +58,9 @@ public class AdminDataChangeBroadcaster {
             DeviceJpaRepository deviceRepository,
             DeviceCatalogJpaRepository catalogRepository,
             DeviceTypeJpaRepository deviceTypeRepository,
-            UserNotificationSettingsJpaRepository settingsRepository
+            UserNotificationSettingsJpaRepository settingsRepository,
+            ClusterPublisher clusterPublisher,
+            UserAssignmentIndex assignmentIndex
     ) {
         this.liveWsHandler = liveWsHandler;
         this.topologyAdapter = topologyAdapter;
@@ -59,6 +72,8 @@ public class AdminDataChangeBroadcaster {
         this.catalogRepository = catalogRepository;
         this.deviceTypeRepository = deviceTypeRepository;
         this.settingsRepository = settingsRepository;
+        this.clusterPublisher = clusterPublisher;
+        this.assignmentIndex = assignmentIndex;
     }
 
     // ─── Employees ───────────────────────────────────────────────────────────
@@ -66,7 +81,8 @@ public class AdminDataChangeBroadcaster {
     @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
     public void onEmployeeChanged(EmployeeChangedEvent event) {
         if (event.action() == ChangeAction.DELETE) {
-            sendToAdminsAndUser(event.employeeId(), EmployeeChangedMessageDTO.of(
+            invalidateAssignments(event.employeeId());
+            sendToAdminsAndUser(event.employeeId(), EmployeeChangedMessageDTO.TYPE, EmployeeChangedMessageDTO.of(
                     new EmployeeChangedMessageDTO.EmployeePayload(event.employeeId(), null, null, null, null, false),
                     event.action().name()
             ));
@@ -89,7 +105,7 @@ public class AdminDataChangeBroadcaster {
                             roleName,
                             user.isActive()
                     );
-                    sendToAdminsAndUser(user.getId(), EmployeeChangedMessageDTO.of(payload, event.action().name()));
+                    sendToAdminsAndUser(user.getId(), EmployeeChangedMessageDTO.TYPE, EmployeeChangedMessageDTO.of(payload, event.action().name()));
 
                     if (!user.isActive()) {
                         // Refresh-токены уже отозваны в транзакции контроллера;
@@ -118,7 +134,7 @@ public class AdminDataChangeBroadcaster {
         topologyAdapter.invalidateETag();
 
         if (event.action() == ChangeAction.DELETE) {
-            broadcast(WorkshopChangedMessageDTO.of(
+            broadcast(WorkshopChangedMessageDTO.TYPE, WorkshopChangedMessageDTO.of(
                     new WorkshopChangedMessageDTO.WorkshopPayload(event.workshopId(), null, false, 0),
                     event.action().name()
             ));
@@ -134,7 +150,7 @@ public class AdminDataChangeBroadcaster {
                             workshop.isActive(),
                             totalUnits
                     );
-                    broadcast(WorkshopChangedMessageDTO.of(payload, event.action().name()));
+                    broadcast(WorkshopChangedMessageDTO.TYPE, WorkshopChangedMessageDTO.of(payload, event.action().name()));
                 },
                 () -> log.warn("AdminDataChangeBroadcaster: workshop {} not found after commit", event.workshopId())
         );
@@ -145,7 +161,7 @@ public class AdminDataChangeBroadcaster {
     @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
     public void onRoleChanged(RoleChangedEvent event) {
         if (event.action() == ChangeAction.DELETE) {
-            sendToAdmins(RoleChangedMessageDTO.of(
+            sendToAdmins(RoleChangedMessageDTO.TYPE, RoleChangedMessageDTO.of(
                     new RoleChangedMessageDTO.RolePayload(event.roleId(), null),
                     event.action().name()
             ));
@@ -155,20 +171,32 @@ public class AdminDataChangeBroadcaster {
         roleRepository.findById(event.roleId()).ifPresentOrElse(
                 role -> {
                     var payload = new RoleChangedMessageDTO.RolePayload(role.getId(), role.getName());
-                    sendToAdmins(RoleChangedMessageDTO.of(payload, event.action().name()));
+                    sendToAdmins(RoleChangedMessageDTO.TYPE, RoleChangedMessageDTO.of(payload, event.action().name()));
                 },
                 () -> log.warn("AdminDataChangeBroadcaster: role {} not found after commit", event.roleId())
         );
     }
 
+    // ─── Assignments ─────────────────────────────────────────────────────────
+
+    /**
+     * Сообщение {@code USER_ASSIGNMENTS} самому сотруднику рассылает {@code StatusBroadcaster};
+     * здесь — только сброс индекса закреплений.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onUserAssignmentsChanged(UserAssignmentsChangedEvent event) {
+        invalidateAssignments(event.userId());
+    }
+
     // ─── Units ─────────────────────────────────────────────────────────────────
 
     @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
     public void onUnitChanged(UnitChangedEvent event) {
         topologyAdapter.invalidateETag();
+        invalidateAssignments(null);
 
         if (event.action() == ChangeAction.DELETE) {
-            broadcast(UnitChangedMessageDTO.of(
+            broadcast(UnitChangedMessageDTO.TYPE, UnitChangedMessageDTO.of(
                     new UnitChangedMessageDTO.UnitPayload(
                             event.unitId(),
                             event.printsrvInstanceId(),
@@ -190,7 +218,7 @@ public class AdminDataChangeBroadcaster {
                             unit.getName(),
                             unit.isActive()
                     );
-                    broadcast(UnitChangedMessageDTO.of(payload, event.action().name()));
+                    broadcast(UnitChangedMessageDTO.TYPE, UnitChangedMessageDTO.of(payload, event.action().name()));
                 },
                 () -> log.warn("AdminDataChangeBroadcaster: unit {} not found after commit", event.unitId())
         );
@@ -203,7 +231,7 @@ public class AdminDataChangeBroadcaster {
         topologyAdapter.invalidateETag();
 
         if (event.action() == ChangeAction.DELETE) {
-            broadcast(DeviceChangedMessageDTO.of(
+            broadcast(DeviceChangedMessageDTO.TYPE, DeviceChangedMessageDTO.of(
                     new DeviceChangedMessageDTO.DevicePayload(
                             event.deviceId(),
                             event.unitId(),
@@ -224,7 +252,7 @@ public class AdminDataChangeBroadcaster {
                             unit != null ? unit.getPrintsrvInstanceId() : null,
                             device.getCatalogId()
                     );
-                    broadcast(DeviceChangedMessageDTO.of(payload, event.action().name()));
+                    broadcast(DeviceChangedMessageDTO.TYPE, DeviceChangedMessageDTO.of(payload, event.action().name()));
                 },
                 () -> log.warn("AdminDataChangeBroadcaster: device {} not found after commit", event.deviceId())
         );
@@ -237,7 +265,7 @@ public class AdminDataChangeBroadcaster {
         topologyAdapter.invalidateETag();
 
         if (event.action() == ChangeAction.DELETE) {
-            broadcast(DeviceCatalogChangedMessageDTO.of(
+            broadcast(DeviceCatalogChangedMessageDTO.TYPE, DeviceCatalogChangedMessageDTO.of(
                     new DeviceCatalogChangedMessageDTO.DeviceCatalogPayload(
                             event.catalogId(), null, null, null, false
                     ),
@@ -255,7 +283,7 @@ public class AdminDataChangeBroadcaster {
                             catalog.getTypeId(),
                             catalog.isActive()
                     );
-                    broadcast(DeviceCatalogChangedMessageDTO.of(payload, event.action().name()));
+                    broadcast(DeviceCatalogChangedMessageDTO.TYPE, DeviceCatalogChangedMessageDTO.of(payload, event.action().name()));
                 },
                 () -> log.warn("AdminDataChangeBroadcaster: device catalog {} not found after commit", event.catalogId())
         );
@@ -268,7 +296,7 @@ public class AdminDataChangeBroadcaster {
         topologyAdapter.invalidateETag();
 
         if (event.action() == ChangeAction.DELETE) {
-            broadcast(DeviceTypeChangedMessageDTO.of(
+            broadcast(DeviceTypeChangedMessageDTO.TYPE, DeviceTypeChangedMessageDTO.of(
                     new DeviceTypeChangedMessageDTO.DeviceTypePayload(event.typeId(), null, null),
                     event.action().name()
             ));
@@ -282,7 +310,7 @@ public class AdminDataChangeBroadcaster {
                             type.getCode(),
                             type.getName()
                     );
-                    broadcast(DeviceTypeChangedMessageDTO.of(payload, event.action().name()));
+                    broadcast(DeviceTypeChangedMessageDTO.TYPE, DeviceTypeChangedMessageDTO.of(payload, event.action().name()));
                 },
                 () -> log.warn("AdminDataChangeBroadcaster: device type {} not found after commit", event.typeId())
         );
@@ -293,7 +321,7 @@ public class AdminDataChangeBroadcaster {
     @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
     public void onUserNotificationSettingsChanged(UserNotificationSettingsChangedEvent event) {
         if (event.action() == ChangeAction.DELETE) {
-            sendToAdminsAndUser(event.userId(), UserNotificationSettingsChangedMessageDTO.of(
+            sendToAdminsAndUser(event.userId(), UserNotificationSettingsChangedMessageDTO.TYPE, UserNotificationSettingsChangedMessageDTO.of(
                     new UserNotificationSettingsChangedMessageDTO.UserNotificationSettingsPayload(
                             event.settingId(), event.userId(), null, false, false, false
                     ),
@@ -312,7 +340,7 @@ public class AdminDataChangeBroadcaster {
                             settings.isAndroidCallNotificationsEnabled(),
                             settings.isActive()
                     );
-                    sendToAdminsAndUser(settings.getUserId(), UserNotificationSettingsChangedMessageDTO.of(payload, event.action().name()));
+                    sendToAdminsAndUser(settings.getUserId(), UserNotificationSettingsChangedMessageDTO.TYPE, UserNotificationSettingsChangedMessageDTO.of(payload, event.action().name()));
                 },
                 () -> log.warn("AdminDataChangeBroadcaster: notification settings {} not found after commit", event.settingId())
         );
@@ -320,30 +348,47 @@ public class AdminDataChangeBroadcaster {
 
     // ─── Helpers ─────────────────────────────────────────────────────────────
 
-    private void sendToAdminsAndUser(long userId, Object message) {
-        sendToAdmins(message);
-        sendToUser(userId, message);
+    /**
+     * Сбрасывает индекс закреплений на всех узлах.
+     *
+     * @param userId затронутый сотрудник или {@code null} — изменение аппарата
+     */
+    private void invalidateAssignments(Long userId) {
+        assignmentIndex.invalidate();
+        clusterPublisher.publish(ClusterEvent.Kind.ASSIGNMENTS_CHANGED,
+                userId != null ? userId.toString() : null, null, null);
+    }
+
+    private void sendToAdminsAndUser(long userId, String type, Object message) {
+        sendToAdmins(type, message);
+        sendToUser(userId, type, message);
     }
 
-    private void sendToAdmins(Object message) {
+    private void sendToAdmins(String type, Object message) {
         try {
-            liveWsHandler.sendToAdmins(liveWsHandler.toJson(message));
+            String json = liveWsHandler.toJson(message);
+            clusterPublisher.publish(ClusterEvent.Kind.TO_ADMINS, null, type, json);
+            liveWsHandler.sendToAdmins(type, json);
         } catch (JsonProcessingException e) {
             log.error("AdminDataChangeBroadcaster: failed to serialize message for admins", e);
         }
     }
 
-    private void sendToUser(long userId, Object message) {
+    private void sendToUser(long userId, String type, Object message) {
         try {
-            liveWsHandler.sendToUser(userId, liveWsHandler.toJson(message));
+            String json = liveWsHandler.toJson(message);
+            clusterPublisher.publish(ClusterEvent.Kind.TO_USER, Long.toString(userId), type, json);
+            liveWsHandler.sendToUser(userId, type, json);
         } catch (JsonProcessingException e) {
             log.error("AdminDataChangeBroadcaster: failed to serialize message for user {}", userId, e);
         }
     }
 
-    private void broadcast(Object message) {
+    private void broadcast(String type, Object message) {
         try {
-            liveWsHandler.broadcastToAll(liveWsHandler.toJson(message));
+            String json = liveWsHandler.toJson(message);
+            clusterPublisher.publish(ClusterEvent.Kind.TO_ALL, null, type, json);
+            liveWsHandler.broadcastToAll(type, json);
         } catch (JsonProcessingException e) {
             log.error("AdminDataChangeBroadcaster: failed to serialize broadcast message", e);
         }
@@ -351,7 +396,9 @@ public class AdminDataChangeBroadcaster {
 
     private void sendForceLogout(long userId, String reason) {
         try {
-            liveWsHandler.sendToUser(userId, liveWsHandler.toJson(ForceLogoutMessageDTO.of(reason)));
+            String json = liveWsHandler.toJson(ForceLogoutMessageDTO.of(reason));
+            clusterPublisher.publish(ClusterEvent.Kind.TO_USER, Long.toString(userId), ForceLogoutMessageDTO.TYPE, json);
+            liveWsHandler.sendToUser(userId, ForceLogoutMessageDTO.TYPE, json);
             log.info("AdminDataChangeBroadcaster: sent FORCE_LOGOUT to userId={}", userId);
         } catch (JsonProcessingException e) {
             log.error("AdminDataChangeBroadcaster: failed to serialize FORCE_LOGOUT for user {}", userId, e);
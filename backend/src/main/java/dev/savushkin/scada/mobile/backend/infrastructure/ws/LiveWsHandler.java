@@ -3,18 +3,21 @@ package dev.savushkin.scada.mobile.backend.infrastructure.ws;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import dev.savushkin.scada.mobile.backend.api.dto.AlertSnapshotMessageDTO;
 import dev.savushkin.scada.mobile.backend.api.dto.NotificationMessageDTO;
-import dev.savushkin.scada.mobile.backend.api.dto.NotificationSnapshotMessageDTO;
 import dev.savushkin.scada.mobile.backend.config.jwt.WebSocketJwtInterceptor;
+import dev.savushkin.scada.mobile.backend.api.dto.UnitStatusDTO;
 import dev.savushkin.scada.mobile.backend.api.dto.UnitsStatusMessageDTO;
-import dev.savushkin.scada.mobile.backend.infrastructure.store.ActiveAlertStore;
-import dev.savushkin.scada.mobile.backend.infrastructure.store.ActiveNotificationStore;
+import dev.savushkin.scada.mobile.backend.api.dto.WsErrorMessageDTO;
+import dev.savushkin.scada.mobile.backend.infrastructure.cluster.ClusterNode;
+import dev.savushkin.scada.mobile.backend.infrastructure.cluster.ClusterReplica;
+import dev.savushkin.scada.mobile.backend.infrastructure.escalation.EscalationAcknowledgePolicy;
+import dev.savushkin.scada.mobile.backend.infrastructure.escalation.EscalationAcknowledgedEvent;
 import dev.savushkin.scada.mobile.backend.services.NotificationSettingsService;
 import dev.savushkin.scada.mobile.backend.services.WorkshopService;
 import org.jspecify.annotations.NonNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Component;
 import org.springframework.web.socket.CloseStatus;
 import org.springframework.web.socket.TextMessage;
@@ -22,12 +25,18 @@ import org.springframework.web.socket.WebSocketSession;
 import org.springframework.web.socket.handler.TextWebSocketHandler;
 
 import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.OptionalLong;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.function.Predicate;
 
 /**
  * Единственный WebSocket-хендлер приложения — канал {@code /ws/live}.
@@ -40,7 +49,17 @@ import java.util.concurrent.CopyOnWriteArraySet;
  * <pre>
  * { "action": "SUBSCRIBE_WORKSHOP",   "workshopId": 1 }
  * { "action": "UNSUBSCRIBE_WORKSHOP", "workshopId": 1 }
+ * { "action": "ACK", "type": "UNITS_STATUS", "dataTimestamp": "2026-03-01T10:23:44.870" }
+ * { "action": "ACKNOWLEDGE", "source": "ALERT", "unitId": "hassia2" }
  * </pre>
+ * {@code ACK} необязателен: клиент может вернуть {@code dataTimestamp} полученного
+ * {@code UNITS_STATUS}, и сервер запишет возраст данных на момент подтверждения
+ * ({@code ws.delivered.age}) — это доставленная задержка с учётом обратного пути.
+ * {@code ACKNOWLEDGE} — пользователь взял алёрт или уведомление ({@code source} =
+ * {@code ALERT} | {@code NOTIFICATION}) в работу: эскалация по нему прекращается
+ * ({@link EscalationAcknowledgedEvent}). Подтвердить может только закреплённый за аппаратом
+ * работник или сотрудник роли из правила эскалации ({@link EscalationAcknowledgePolicy});
+ * иначе сервер отвечает {@code ERROR} ({@link WsErrorMessageDTO}).
  *
  * <h3>Протокол сервер → клиент</h3>
  * <ul>
@@ -50,6 +69,8 @@ import java.util.concurrent.CopyOnWriteArraySet;
  *       готовности отдельных аппаратов.</li>
  *   <li>{@code ALERT} — рассылается <b>всем</b> подключённым клиентам при изменении
  *       набора активных ошибок (дельта: появилась / исчезла).</li>
+ *   <li>{@code ESCALATION} — персонально сотрудникам ролей шага эскалации.</li>
+ *   <li>{@code ERROR} — отказ в действии клиента ({@code ACKNOWLEDGE} без прав на аппарат).</li>
  * </ul>
  *
  * <h3>Жизненный цикл подписки</h3>
@@ -62,9 +83,21 @@ import java.util.concurrent.CopyOnWriteArraySet;
  * <ul>
  *   <li>{@code allSessions} — {@link CopyOnWriteArraySet}: безопасная итерация при рассылке
  *       параллельно с добавлением/удалением при подключении/отключении.</li>
- *   <li>{@code sessionsByWorkshop} — {@link ConcurrentHashMap} of {@link CopyOnWriteArraySet}:
- *       аналогично для групп по цехам.</li>
+ *   <li>{@code sessionsByWorkshop} / {@code sessionsByUser} — {@link ConcurrentHashMap} of
+ *       {@link CopyOnWriteArraySet}: аналогично для групп по цехам и по пользователям.</li>
  * </ul>
+ *
+ * <h3>Кластер</h3>
+ * Хендлер рассылает только своим сессиям. На WS-узле кластера ({@code cluster.role=ws})
+ * хранилища алёртов и уведомлений — реплики из шины, а начальный {@code UNITS_STATUS}
+ * при подписке берётся из {@link ClusterReplica} (так же и на узле приёма, если опрос поделён
+ * между узлами — {@code cluster.polling.mode}); после повторной синхронизации реплик
+ * клиенты получают свежие снапшоты через {@link #resendSnapshots()}.
+ *
+ * <h3>Метрики</h3>
+ * Каждая рассылка фиксируется в {@link WsMetrics} с типом сообщения; отправка в сессию
+ * идёт через {@link WsSessionStats}, который ведёт backlog и время последней отправки
+ * для {@link WsSessionsEndpoint}.
  */
 @Component
 public class LiveWsHandler extends TextWebSocketHandler {
@@ -72,11 +105,25 @@ public class LiveWsHandler extends TextWebSocketHandler {
     private static final Logger log = LoggerFactory.getLogger(LiveWsHandler.class);
     private static final String ATTR_SUBSCRIBED_WORKSHOP = "subscribedWorkshop";
 
-    private final ActiveAlertStore alertStore;
-    private final ActiveNotificationStore notificationStore;
+    /**
+     * Типы сообщений, для которых принимается {@code ACK}: только они несут {@code dataTimestamp}.
+     */
+    private static final Set<String> ACK_TYPES = Set.of("UNITS_STATUS");
+
+    /**
+     * Источники, которые клиент может подтвердить {@code ACKNOWLEDGE}.
+     */
+    private static final Set<String> ACKNOWLEDGE_SOURCES = Set.of("ALERT", "NOTIFICATION");
+
+    private final SnapshotJsonCache snapshotCache;
     private final WorkshopService workshopService;
     private final NotificationSettingsService notificationSettingsService;
     private final ObjectMapper objectMapper;
+    private final WsMetrics metrics;
+    private final ClusterNode clusterNode;
+    private final ClusterReplica clusterReplica;
+    private final ApplicationEventPublisher eventPublisher;
+    private final EscalationAcknowledgePolicy acknowledgePolicy;
 
     /**
      * Все активные сессии — для рассылки ALERT и ALERT_SNAPSHOT
@@ -88,25 +135,43 @@ public class LiveWsHandler extends TextWebSocketHandler {
      */
     private final Map<Long, Set<WebSocketSession>> sessionsByWorkshop = new ConcurrentHashMap<>();
 
+    /**
+     * userId → активные сессии пользователя — для персональных сообщений
+     */
+    private final Map<Long, Set<WebSocketSession>> sessionsByUser = new ConcurrentHashMap<>();
+
     public LiveWsHandler(
-            ActiveAlertStore alertStore,
-            ActiveNotificationStore notificationStore,
+            SnapshotJsonCache snapshotCache,
             WorkshopService workshopService,
             NotificationSettingsService notificationSettingsService,
-            ObjectMapper objectMapper
+            ObjectMapper objectMapper,
+            WsMetrics metrics,
+            ClusterNode clusterNode,
+            ClusterReplica clusterReplica,
+            ApplicationEventPublisher eventPublisher,
+            EscalationAcknowledgePolicy acknowledgePolicy
     ) {
-        this.alertStore = alertStore;
-        this.notificationStore = notificationStore;
+        this.snapshotCache = snapshotCache;
         this.workshopService = workshopService;
         this.notificationSettingsService = notificationSettingsService;
         this.objectMapper = objectMapper;
+        this.metrics = metrics;
+        this.clusterNode = clusterNode;
+        this.clusterReplica = clusterReplica;
+        this.eventPublisher = eventPublisher;
+        this.acknowledgePolicy = acknowledgePolicy;
+        metrics.bindSessionCount(WsMetrics.LIVE, allSessions::size);
     }
 
     // ─── Lifecycle ────────────────────────────────────────────────────────────
 
     @Override
     public void afterConnectionEstablished(@NonNull WebSocketSession session) {
+        WsSessionStats.of(session);
         allSessions.add(session);
+        resolveUserId(session).ifPresent(userId -> sessionsByUser
+                .computeIfAbsent(userId, k -> new CopyOnWriteArraySet<>())
+                .add(session));
         sendAlertSnapshot(session);
         sendNotificationSnapshot(session);
         log.debug("WS /live: connected, id={}, total={}", session.getId(), allSessions.size());
@@ -140,6 +205,8 @@ public class LiveWsHandler extends TextWebSocketHandler {
             switch (action) {
                 case "SUBSCRIBE_WORKSHOP" -> handleSubscribeWorkshop(session, node);
                 case "UNSUBSCRIBE_WORKSHOP" -> handleUnsubscribeWorkshop(session);
+                case "ACK" -> handleAck(session, node);
+                case "ACKNOWLEDGE" -> handleAcknowledge(session, node);
                 default -> log.warn("WS /live: unknown action='{}', id={}", action, session.getId());
             }
         } catch (IOException e) {
@@ -161,6 +228,10 @@ public class LiveWsHandler extends TextWebSocketHandler {
                 .computeIfAbsent(workshopId, k -> new CopyOnWriteArraySet<>())
                 .add(session);
         session.getAttributes().put(ATTR_SUBSCRIBED_WORKSHOP, workshopId);
+        metrics.bindWorkshopSubscribers(workshopId, () -> {
+            Set<WebSocketSession> subscribers = sessionsByWorkshop.get(workshopId);
+            return subscribers == null ? 0 : subscribers.size();
+        });
 
         // Отправляем текущий snapshot сразу после подписки, чтобы клиент не ждал
         // следующего polling-обновления и не показывал временно «Нет данных».
@@ -181,6 +252,60 @@ public class LiveWsHandler extends TextWebSocketHandler {
         log.debug("WS /live: unsubscribed workshop={}, id={}", prev, session.getId());
     }
 
+    /**
+     * Записывает возраст подтверждённых клиентом данных. Принимаются только типы из
+     * {@link #ACK_TYPES} — тег метрики не должен зависеть от произвольного ввода клиента.
+     */
+    private void handleAck(@NonNull WebSocketSession session, @NonNull JsonNode node) {
+        String type = node.path("type").asText("");
+        String dataTimestamp = node.path("dataTimestamp").asText(null);
+        if (!ACK_TYPES.contains(type) || dataTimestamp == null) {
+            log.debug("WS /live: ignored ACK type='{}', id={}", type, session.getId());
+            return;
+        }
+        try {
+            long receivedAt = LocalDateTime.parse(dataTimestamp, DateTimeFormatter.ISO_LOCAL_DATE_TIME)
+                    .toInstant(ZoneOffset.UTC)
+                    .toEpochMilli();
+            metrics.recordDeliveredAge(type, System.currentTimeMillis() - receivedAt);
+        } catch (DateTimeParseException e) {
+            log.debug("WS /live: malformed ACK dataTimestamp='{}', id={}", dataTimestamp, session.getId());
+        }
+    }
+
+    /**
+     * Подтверждение алёрта или уведомления пользователем — прекращает эскалацию на всех узлах.
+     * Некорректный запрос и подтверждение без прав на аппарат отклоняются сообщением {@code ERROR}.
+     */
+    private void handleAcknowledge(@NonNull WebSocketSession session, @NonNull JsonNode node) {
+        String source = node.path("source").asText("");
+        String unitId = node.path("unitId").asText("");
+        if (!ACKNOWLEDGE_SOURCES.contains(source) || unitId.isBlank()) {
+            sendError(session, WsErrorMessageDTO.of("ACKNOWLEDGE", WsErrorMessageDTO.BAD_REQUEST,
+                    "Ожидаются source (ALERT | NOTIFICATION) и unitId"));
+            return;
+        }
+        OptionalLong userId = resolveUserId(session);
+        Object role = session.getAttributes().get(WebSocketJwtInterceptor.ATTR_ROLE);
+        if (userId.isEmpty() || !acknowledgePolicy.canAcknowledge(userId.getAsLong(),
+                role instanceof String name ? name : null, source, unitId)) {
+            log.warn("WS /live: ACKNOWLEDGE denied: {} unit='{}', userId={}, id={}",
+                    source, unitId, userId.isPresent() ? userId.getAsLong() : null, session.getId());
+            sendError(session, WsErrorMessageDTO.of("ACKNOWLEDGE", WsErrorMessageDTO.FORBIDDEN,
+                    "Нет прав на аппарат '%s'".formatted(unitId)));
+            return;
+        }
+        eventPublisher.publishEvent(new EscalationAcknowledgedEvent(source, unitId, userId.getAsLong()));
+    }
+
+    private void sendError(WebSocketSession session, WsErrorMessageDTO error) {
+        try {
+            sendMessageSafely(session, objectMapper.writeValueAsString(error));
+        } catch (IOException | IllegalStateException e) {
+            log.debug("WS /live: failed to send ERROR, id={}: {}", session.getId(), e.getMessage());
+        }
+    }
+
     // ─── Outgoing broadcasts (server → client) ───────────────────────────────
 
     /**
@@ -188,21 +313,23 @@ public class LiveWsHandler extends TextWebSocketHandler {
      *
      * @param workshopId ID цеха
      * @param json       сериализованный {@link dev.savushkin.scada.mobile.backend.api.dto.UnitsStatusMessageDTO}
+     * @return число сессий, получивших сообщение
      */
-    public void broadcastToWorkshop(long workshopId, String json) {
+    public int broadcastToWorkshop(long workshopId, String json) {
         Set<WebSocketSession> sessions = sessionsByWorkshop.get(workshopId);
-        if (sessions == null || sessions.isEmpty()) return;
-        sendToSessions(sessions, json);
+        if (sessions == null || sessions.isEmpty()) return 0;
+        return sendToSessions(sessions, "UNITS_STATUS", json, null);
     }
 
     /**
      * Рассылает {@code ALERT} всем подключённым клиентам.
      *
      * @param json сериализованный {@link dev.savushkin.scada.mobile.backend.api.dto.AlertMessageDTO}
+     * @return число сессий, получивших сообщение
      */
-    public void broadcastAlert(String json) {
-        if (allSessions.isEmpty()) return;
-        sendToSessions(allSessions, json);
+    public int broadcastAlert(String json) {
+        if (allSessions.isEmpty()) return 0;
+        return sendToSessions(allSessions, "ALERT", json, null);
     }
 
     /**
@@ -220,28 +347,24 @@ public class LiveWsHandler extends TextWebSocketHandler {
     public void broadcastNotification(@NonNull NotificationMessageDTO notification) {
         if (allSessions.isEmpty()) return;
 
-        String json = null;
-        for (WebSocketSession session : allSessions) {
-            if (!session.isOpen()) {
-                allSessions.remove(session);
-                continue;
-            }
-            if (!isCreator(session, notification) && !isNotificationAllowed(session, notification.unitId())) {
-                continue;
-            }
-            try {
-                if (json == null) {
-                    json = toJson(notification);
-                }
-                sendMessageSafely(session, json);
-            } catch (JsonProcessingException e) {
-                log.error("WS /live: failed to serialize NOTIFICATION for unit '{}'", notification.unitId(), e);
-                return;
-            } catch (IOException | IllegalStateException e) {
-                log.warn("WS /live: send NOTIFICATION failed, id={}: {}", session.getId(), e.getMessage());
-                allSessions.remove(session);
-            }
+        String json;
+        try {
+            json = toJson(notification);
+        } catch (JsonProcessingException e) {
+            log.error("WS /live: failed to serialize NOTIFICATION for unit '{}'", notification.unitId(), e);
+            return;
         }
+        broadcastNotification(notification, json);
+    }
+
+    /**
+     * То же, что {@link #broadcastNotification(NotificationMessageDTO)}, для уже сериализованного
+     * сообщения — JSON из шины кластера или общий с публикацией в шину.
+     */
+    public void broadcastNotification(@NonNull NotificationMessageDTO notification, String json) {
+        if (allSessions.isEmpty()) return;
+        sendToSessions(allSessions, notification.type(), json,
+                session -> isCreator(session, notification) || isNotificationAllowed(session, notification.unitId()));
     }
 
     // ─── Diagnostics ─────────────────────────────────────────────────────────
@@ -261,62 +384,66 @@ public class LiveWsHandler extends TextWebSocketHandler {
         return allSessions.size();
     }
 
+    /**
+     * Неизменяемое представление всех подключённых сессий — для {@link WsSessionsEndpoint}.
+     */
+    Set<WebSocketSession> getSessions() {
+        return Collections.unmodifiableSet(allSessions);
+    }
+
+    /**
+     * Цех, на который подписана сессия, или {@code null}.
+     */
+    static Long getSubscribedWorkshop(WebSocketSession session) {
+        return (Long) session.getAttributes().get(ATTR_SUBSCRIBED_WORKSHOP);
+    }
+
     /**
      * Рассылает JSON-сообщение всем подключённым клиентам.
      *
+     * @param type тип сообщения (поле {@code type}) — тег метрик рассылки
      * @param json сериализованное сообщение
      */
-    public void broadcastToAll(String json) {
+    public void broadcastToAll(String type, String json) {
         if (allSessions.isEmpty()) return;
-        sendToSessions(allSessions, json);
+        sendToSessions(allSessions, type, json, null);
     }
 
     /**
      * Рассылает JSON-сообщение всем клиентам с ролью ADMIN.
      *
+     * @param type тип сообщения (поле {@code type}) — тег метрик рассылки
      * @param json сериализованное сообщение
      */
-    public void sendToAdmins(String json) {
+    public void sendToAdmins(String type, String json) {
         if (allSessions.isEmpty()) return;
-
-        for (WebSocketSession session : allSessions) {
-            if (!session.isOpen()) {
-                allSessions.remove(session);
-                continue;
-            }
-            if (!isAdmin(session)) {
-                continue;
-            }
-            try {
-                sendMessageSafely(session, json);
-            } catch (IOException | IllegalStateException e) {
-                log.warn("WS /live: send to admins failed, id={}: {}", session.getId(), e.getMessage());
-                allSessions.remove(session);
-            }
-        }
+        sendToSessions(allSessions, type, json, this::isAdmin);
     }
 
     /**
-     * Отправляет сообщение конкретному пользователю по всем его активным сессиям.
+     * Отправляет сообщение конкретному пользователю по всем его активным сессиям
+     * (индекс {@code sessionsByUser} — без перебора всех подключений).
      *
      * @param userId ID пользователя
+     * @param type   тип сообщения (поле {@code type}) — тег метрик рассылки
      * @param json   сериализованное сообщение
      */
-    public void sendToUser(long userId, String json) {
+    public void sendToUser(long userId, String type, String json) {
+        Set<WebSocketSession> sessions = sessionsByUser.get(userId);
+        if (sessions == null || sessions.isEmpty()) return;
+        sendToSessions(sessions, type, json, null);
+    }
+
+    /**
+     * Повторно отправляет {@code ALERT_SNAPSHOT} и {@code NOTIFICATION_SNAPSHOT} всем сессиям.
+     * Вызывается на WS-узле кластера после синхронизации реплик: дельты, потерянные
+     * до синхронизации, клиенты получают в составе снапшотов.
+     */
+    public void resendSnapshots() {
         for (WebSocketSession session : allSessions) {
-            if (!session.isOpen()) {
-                allSessions.remove(session);
-                continue;
-            }
-            OptionalLong sessionUserId = resolveUserId(session);
-            if (sessionUserId.isEmpty() || sessionUserId.getAsLong() != userId) {
-                continue;
-            }
-            try {
-                sendMessageSafely(session, json);
-            } catch (IOException | IllegalStateException e) {
-                log.warn("WS /live: send to user failed, id={}: {}", session.getId(), e.getMessage());
-                allSessions.remove(session);
+            if (session.isOpen()) {
+                sendAlertSnapshot(session);
+                sendNotificationSnapshot(session);
             }
         }
     }
@@ -324,15 +451,15 @@ public class LiveWsHandler extends TextWebSocketHandler {
     // ─── Private helpers ─────────────────────────────────────────────────────
 
     /**
-     * Отправляет текущий снапшот активных алёртов новому клиенту.
+     * Отправляет текущий снапшот активных алёртов новому клиенту. JSON берётся из
+     * {@link SnapshotJsonCache} — общий для всех соединений одной версии хранилища.
      * Ошибки сериализации/отправки логируются — соединение при этом не закрывается.
      */
     private void sendAlertSnapshot(WebSocketSession session) {
         try {
-            var snapshotMsg = AlertSnapshotMessageDTO.of(alertStore.getAll());
-            sendMessageSafely(session, objectMapper.writeValueAsString(snapshotMsg));
-            log.debug("WS /live: sent ALERT_SNAPSHOT, alerts={}, id={}",
-                    snapshotMsg.payload().size(), session.getId());
+            String json = snapshotCache.alertSnapshot();
+            sendMessageSafely(session, json);
+            log.debug("WS /live: sent ALERT_SNAPSHOT, chars={}, id={}", json.length(), session.getId());
         } catch (Exception e) {
             log.warn("WS /live: failed to send ALERT_SNAPSHOT, id={}: {}", session.getId(), e.getMessage());
         }
@@ -347,7 +474,9 @@ public class LiveWsHandler extends TextWebSocketHandler {
      */
     private void sendUnitsStatusSnapshot(WebSocketSession session, long workshopId) {
         try {
-            var status = workshopService.getUnitsStatus(workshopId);
+            List<UnitStatusDTO> status = clusterNode.servesFromReplica()
+                    ? clusterReplica.getUnitStatuses(workshopId)
+                    : workshopService.getUnitsStatus(workshopId);
             var message = UnitsStatusMessageDTO.of(workshopId, status);
             if (session.isOpen()) {
                 sendMessageSafely(session, objectMapper.writeValueAsString(message));
@@ -364,17 +493,15 @@ public class LiveWsHandler extends TextWebSocketHandler {
      * Отправляет снимок активных производственных уведомлений, видимых новому клиенту:
      * по подпискам аппаратов (настройки Android-звонка) плюс созданные им самим.
      * Вызывается сразу после {@code ALERT_SNAPSHOT} при установке соединения.
+     * Снапшот склеивается из JSON-фрагментов уведомлений {@link SnapshotJsonCache}.
      */
     private void sendNotificationSnapshot(WebSocketSession session) {
         try {
             Set<String> allowedUnitIds = resolveAllowedNotificationUnits(session);
-            List<NotificationMessageDTO> filtered = notificationStore.getAll().stream()
-                    .filter(n -> allowedUnitIds.contains(n.unitId()) || isCreator(session, n))
-                    .toList();
-            var snapshotMsg = NotificationSnapshotMessageDTO.of(filtered);
-            sendMessageSafely(session, objectMapper.writeValueAsString(snapshotMsg));
-            log.debug("WS /live: sent NOTIFICATION_SNAPSHOT, notifications={}, id={}",
-                    snapshotMsg.payload().size(), session.getId());
+            String json = snapshotCache.notificationSnapshot(
+                    n -> allowedUnitIds.contains(n.unitId()) || isCreator(session, n));
+            sendMessageSafely(session, json);
+            log.debug("WS /live: sent NOTIFICATION_SNAPSHOT, chars={}, id={}", json.length(), session.getId());
         } catch (Exception e) {
             log.warn("WS /live: failed to send NOTIFICATION_SNAPSHOT, id={}: {}",
                     session.getId(), e.getMessage());
@@ -416,7 +543,7 @@ public class LiveWsHandler extends TextWebSocketHandler {
         return userId.isPresent() && creatorId.equals(Long.toString(userId.getAsLong()));
     }
 
-    private OptionalLong resolveUserId(WebSocketSession session) {
+    static OptionalLong resolveUserId(WebSocketSession session) {
         Object raw = session.getAttributes().get(WebSocketJwtInterceptor.ATTR_USER_ID);
         if (raw instanceof Number number) {
             return OptionalLong.of(number.longValue());
@@ -425,7 +552,7 @@ public class LiveWsHandler extends TextWebSocketHandler {
             try {
                 return OptionalLong.of(Long.parseLong(text.trim()));
             } catch (NumberFormatException ex) {
-                log.debug("WS /live: invalid userId '{}', id={}", text, session.getId());
+                log.debug("WS: invalid userId '{}', id={}", text, session.getId());
             }
         }
         return OptionalLong.empty();
@@ -437,31 +564,40 @@ public class LiveWsHandler extends TextWebSocketHandler {
     }
 
     /**
-     * Отправляет JSON-сообщение набору сессий.
+     * Отправляет JSON-сообщение набору сессий и фиксирует рассылку в {@link WsMetrics}.
      * Закрытые/недоступные сессии удаляются из набора.
+     *
+     * @param filter адресаты рассылки; {@code null} — все сессии набора
+     * @return число сессий, получивших сообщение
      */
-    private void sendToSessions(Set<WebSocketSession> sessions, String json) {
+    private int sendToSessions(Set<WebSocketSession> sessions, String type, String json,
+                               Predicate<WebSocketSession> filter) {
+        long start = System.nanoTime();
+        int delivered = 0;
         for (WebSocketSession session : sessions) {
             if (!session.isOpen()) {
                 sessions.remove(session);
+                metrics.recordClosedEviction(WsMetrics.LIVE);
+                continue;
+            }
+            if (filter != null && !filter.test(session)) {
                 continue;
             }
             try {
                 sendMessageSafely(session, json);
+                delivered++;
             } catch (IOException | IllegalStateException e) {
-                log.warn("WS /live: send failed, id={}: {}", session.getId(), e.getMessage());
+                log.warn("WS /live: {} send failed, id={}: {}", type, session.getId(), e.getMessage());
                 sessions.remove(session);
+                metrics.recordSendFailure(WsMetrics.LIVE);
             }
         }
+        metrics.recordBroadcast(WsMetrics.LIVE, type, System.nanoTime() - start, delivered, json);
+        return delivered;
     }
 
     private void sendMessageSafely(WebSocketSession session, String json) throws IOException {
-        synchronized (session) {
-            if (!session.isOpen()) {
-                throw new IOException("WebSocket session is closed");
-            }
-            session.sendMessage(new TextMessage(json));
-        }
+        WsSessionStats.send(session, json);
     }
 
     /**
@@ -469,6 +605,10 @@ public class LiveWsHandler extends TextWebSocketHandler {
      */
     private void removeSession(WebSocketSession session) {
         allSessions.remove(session);
+        resolveUserId(session).ifPresent(userId -> sessionsByUser.computeIfPresent(userId, (k, sessions) -> {
+            sessions.remove(session);
+            return sessions.isEmpty() ? null : sessions;
+        }));
         handleUnsubscribeWorkshop(session);
     }
 
@@ -0,0 +1,179 @@
+package dev.savushkin.scada.mobile.backend.infrastructure.ws;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.savushkin.scada.mobile.backend.api.dto.AlertSnapshotMessageDTO;
+import dev.savushkin.scada.mobile.backend.api.dto.NotificationMessageDTO;
+import dev.savushkin.scada.mobile.backend.api.dto.NotificationSnapshotMessageDTO;
+import dev.savushkin.scada.mobile.backend.infrastructure.store.ActiveAlertStore;
+import dev.savushkin.scada.mobile.backend.infrastructure.store.ActiveNotificationStore;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.jspecify.annotations.NonNull;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Кэш сериализованных снапшотов {@code ALERT_SNAPSHOT} и {@code NOTIFICATION_SNAPSHOT}
+ * для {@code /ws/live}, ключ — версия хранилища ({@link ActiveAlertStore#version()},
+ * {@link ActiveNotificationStore#version()}).
+ * <p>
+ * Снапшоты отправляются каждому новому соединению. При волне переподключений (рестарт узла,
+ * сбой Wi-Fi в цехе) сотни рукопожатий приходятся на одну версию хранилищ, поэтому JSON
+ * строится один раз на версию, а не на каждое соединение.
+ *
+ * <h3>ALERT_SNAPSHOT</h3>
+ * Одинаков для всех клиентов — кэшируется целиком.
+ *
+ * <h3>NOTIFICATION_SNAPSHOT</h3>
+ * Свой у каждого пользователя (фильтр по настройкам оповещений и создателю), поэтому
+ * кэшируются фрагменты — JSON каждого уведомления. Снапшот пользователя склеивается из
+ * отобранных фрагментов без Jackson. При смене версии сериализуются только новые
+ * уведомления: фрагменты неизменившихся (равных сообщений) переходят в новую версию.
+ *
+ * <p>Конкурентность: кэш — volatile-ссылка на неизменяемую запись. Параллельные промахи
+ * по одной версии могут собрать JSON несколько раз; сохраняется запись с большей версией.
+ *
+ * <h3>Метрики</h3>
+ * {@code ws.snapshot.serializations} — сериализации Jackson при сборке снапшотов
+ * (type = ALERT_SNAPSHOT | NOTIFICATION): сравнивается с числом подключений.
+ */
+@Component
+public class SnapshotJsonCache {
+
+    private final ActiveAlertStore alertStore;
+    private final ActiveNotificationStore notificationStore;
+    private final ObjectMapper objectMapper;
+    private final Counter alertSerializations;
+    private final Counter notificationSerializations;
+
+    /**
+     * Оболочка {@code NOTIFICATION_SNAPSHOT} до и после массива {@code payload}.
+     */
+    private final String notificationPrefix;
+    private final String notificationSuffix;
+
+    private volatile AlertJson alertJson = new AlertJson(-1L, "");
+    private volatile NotificationFragments notificationFragments = new NotificationFragments(-1L, List.of());
+
+    public SnapshotJsonCache(
+            ActiveAlertStore alertStore,
+            ActiveNotificationStore notificationStore,
+            ObjectMapper objectMapper,
+            MeterRegistry registry
+    ) throws JsonProcessingException {
+        this.alertStore = alertStore;
+        this.notificationStore = notificationStore;
+        this.objectMapper = objectMapper;
+        this.alertSerializations = Counter.builder("ws.snapshot.serializations")
+                .description("Jackson serializations while building /ws/live snapshots")
+                .tag("type", "ALERT_SNAPSHOT")
+                .register(registry);
+        this.notificationSerializations = Counter.builder("ws.snapshot.serializations")
+                .description("Jackson serializations while building /ws/live snapshots")
+                .tag("type", "NOTIFICATION")
+                .register(registry);
+
+        String empty = objectMapper.writeValueAsString(NotificationSnapshotMessageDTO.of(List.of()));
+        int payloadAt = empty.lastIndexOf("[]");
+        this.notificationPrefix = empty.substring(0, payloadAt + 1);
+        this.notificationSuffix = empty.substring(payloadAt + 1);
+    }
+
+    /**
+     * JSON {@code ALERT_SNAPSHOT} для текущей версии хранилища алёртов.
+     *
+     * @throws JsonProcessingException если сериализация не удалась
+     */
+    public @NonNull String alertSnapshot() throws JsonProcessingException {
+        AlertJson cached = alertJson;
+        if (cached.version() == alertStore.version()) {
+            return cached.json();
+        }
+        ActiveAlertStore.Snapshot snapshot = alertStore.snapshot();
+        String json = objectMapper.writeValueAsString(AlertSnapshotMessageDTO.of(snapshot.alerts()));
+        alertSerializations.increment();
+        if (alertJson.version() < snapshot.version()) {
+            alertJson = new AlertJson(snapshot.version(), json);
+        }
+        return json;
+    }
+
+    /**
+     * JSON {@code NOTIFICATION_SNAPSHOT} из уведомлений, прошедших фильтр.
+     *
+     * @param visible уведомления, которые видит получатель
+     * @throws JsonProcessingException если сериализация не удалась
+     */
+    public @NonNull String notificationSnapshot(@NonNull Predicate<NotificationMessageDTO> visible)
+            throws JsonProcessingException {
+        StringBuilder json = new StringBuilder(notificationPrefix);
+        boolean first = true;
+        for (Fragment fragment : notificationFragments().fragments()) {
+            if (!visible.test(fragment.notification())) {
+                continue;
+            }
+            if (!first) {
+                json.append(',');
+            }
+            json.append(fragment.json());
+            first = false;
+        }
+        return json.append(notificationSuffix).toString();
+    }
+
+    /**
+     * JSON {@code NOTIFICATION_SNAPSHOT} со всеми активными уведомлениями — полное состояние
+     * для шины кластера.
+     *
+     * @throws JsonProcessingException если сериализация не удалась
+     */
+    public @NonNull String notificationSnapshot() throws JsonProcessingException {
+        return notificationSnapshot(notification -> true);
+    }
+
+    // ─── Private ─────────────────────────────────────────────────────────────
+
+    private NotificationFragments notificationFragments() throws JsonProcessingException {
+        NotificationFragments cached = notificationFragments;
+        if (cached.version() == notificationStore.version()) {
+            return cached;
+        }
+        ActiveNotificationStore.Snapshot snapshot = notificationStore.snapshot();
+        Map<NotificationMessageDTO, String> previous = new HashMap<>();
+        for (Fragment fragment : cached.fragments()) {
+            previous.put(fragment.notification(), fragment.json());
+        }
+        List<Fragment> fragments = new ArrayList<>(snapshot.notifications().size());
+        for (NotificationMessageDTO notification : snapshot.notifications()) {
+            String json = previous.get(notification);
+            if (json == null) {
+                json = objectMapper.writeValueAsString(notification);
+                notificationSerializations.increment();
+            }
+            fragments.add(new Fragment(notification, json));
+        }
+        NotificationFragments rebuilt = new NotificationFragments(snapshot.version(), List.copyOf(fragments));
+        if (notificationFragments.version() < rebuilt.version()) {
+            notificationFragments = rebuilt;
+        }
+        return rebuilt;
+    }
+
+    private record AlertJson(long version, String json) {
+    }
+
+    private record NotificationFragments(long version, List<Fragment> fragments) {
+    }
+
+    /**
+     * Уведомление и его JSON внутри {@code payload}.
+     */
+    private record Fragment(NotificationMessageDTO notification, String json) {
+    }
+}
@@ -10,28 +10,44 @@ import dev.savushkin.scada.mobile.backend.domain.model.UserAssignmentsChangedEve
 import dev.savushkin.scada.mobile.backend.api.dto.UnitsStatusMessageDTO;
 import dev.savushkin.scada.mobile.backend.application.ports.PrintSrvTopologyRepository;
 import dev.savushkin.scada.mobile.backend.domain.model.PrintSrvInstance;
+import dev.savushkin.scada.mobile.backend.domain.model.ProductionNotification;
+import dev.savushkin.scada.mobile.backend.infrastructure.cluster.ClusterEvent;
+import dev.savushkin.scada.mobile.backend.infrastructure.cluster.ClusterNode;
+import dev.savushkin.scada.mobile.backend.infrastructure.cluster.ClusterPublisher;
+import dev.savushkin.scada.mobile.backend.infrastructure.cluster.ClusterReplica;
+import dev.savushkin.scada.mobile.backend.infrastructure.escalation.EscalationEngine;
 import dev.savushkin.scada.mobile.backend.infrastructure.polling.PrintSrvInstancePolledEvent;
+import dev.savushkin.scada.mobile.backend.infrastructure.polling.PrintSrvInstancesPolledEvent;
 import dev.savushkin.scada.mobile.backend.infrastructure.store.ActiveAlertStore;
 import dev.savushkin.scada.mobile.backend.infrastructure.store.ActiveNotificationStore;
 import dev.savushkin.scada.mobile.backend.infrastructure.store.UnitErrorStore;
+import dev.savushkin.scada.mobile.backend.services.AlertHistoryService;
 import dev.savushkin.scada.mobile.backend.services.AlertService;
 import dev.savushkin.scada.mobile.backend.services.AdminNotificationService;
 import dev.savushkin.scada.mobile.backend.services.DeviceAutoDiscoveryService;
+import dev.savushkin.scada.mobile.backend.services.NotificationService;
 import dev.savushkin.scada.mobile.backend.services.NotificationStateChangedEvent;
 import dev.savushkin.scada.mobile.backend.services.UnitDetailService;
 import dev.savushkin.scada.mobile.backend.services.UserProfileService;
 import dev.savushkin.scada.mobile.backend.services.WorkshopService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.event.TransactionPhase;
 import org.springframework.transaction.event.TransactionalEventListener;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Рассылает live-данные через единственный WebSocket-канал {@code /ws/live}
@@ -39,15 +55,29 @@ import java.util.List;
  * <p>
  * Поток данных:
  * <ol>
- *   <li>Worker инстанса опрашивает PrintSrv и сохраняет snapshots</li>
- *   <li>Публикует {@link PrintSrvInstancePolledEvent}</li>
- *   <li>Этот компонент обрабатывает событие:
+ *   <li>Конвейер приёма сохраняет snapshots пачкой записей партиции</li>
+ *   <li>Публикует {@link PrintSrvInstancesPolledEvent} — по одному обновлению на аппарат пачки</li>
+ *   <li>Этот компонент обрабатывает пачку:
  *     <ul>
- *       <li>Рассылает обновление статуса конкретного аппарата</li>
+ *       <li>Сверяет состав устройств всех аппаратов пачки одним чтением топологии</li>
+ *       <li>Рассылает статусы обновлённых аппаратов одним {@code UNITS_STATUS} на цех</li>
  *       <li>Вычисляет дельту алёрта этого аппарата и при необходимости рассылает {@code ALERT}</li>
+ *       <li>Ставит устранённые алёрты в очередь журнала инцидентов ({@link AlertHistoryService})</li>
+ *       <li>Передаёт дельту алёртов в {@link EscalationEngine} (так же и дельту уведомлений)</li>
  *     </ul>
  *   </li>
  * </ol>
+ * Время от завершения poll-прохода до отправки фиксируется в {@link WsMetrics} ({@code ws.freshness}),
+ * возраст данных от получения ответа PrintSrv ({@link PrintSrvInstancePolledEvent#dataReceivedAt()}) —
+ * как {@code ws.data.age}; тот же момент уходит клиенту в {@code UNITS_STATUS.dataTimestamp}.
+ *
+ * <h3>Кластер</h3>
+ * На узле кластера каждое сообщение, разосланное своим сессиям, публикуется тем же JSON
+ * в шину через {@link ClusterPublisher}; остальные узлы рассылают его своим клиентам.
+ * Поэтому сообщения собираются и без локальных подписчиков: их могут ждать клиенты других узлов.
+ * Если начальные снимки узла берутся из реплики ({@link ClusterNode#servesFromReplica()} —
+ * опрос поделён между узлами), свои {@code UNITS_STATUS} и сообщения {@code /ws/unit/*}
+ * кладутся и в {@link ClusterReplica}: там же лежат данные инстансов других узлов.
  */
 @Component
 public class StatusBroadcaster {
@@ -66,6 +96,13 @@ public class StatusBroadcaster {
     private final UserProfileService userProfileService;
     private final DeviceAutoDiscoveryService deviceAutoDiscoveryService;
     private final AdminNotificationService adminNotificationService;
+    private final AlertHistoryService alertHistoryService;
+    private final NotificationService notificationService;
+    private final WsMetrics wsMetrics;
+    private final ClusterPublisher clusterPublisher;
+    private final ClusterNode clusterNode;
+    private final ClusterReplica clusterReplica;
+    private final EscalationEngine escalationEngine;
 
     public StatusBroadcaster(
             WorkshopService workshopService,
@@ -79,7 +116,14 @@ public class StatusBroadcaster {
             PrintSrvTopologyRepository topologyRepo,
             UserProfileService userProfileService,
             DeviceAutoDiscoveryService deviceAutoDiscoveryService,
-            AdminNotificationService adminNotificationService
+            AdminNotificationService adminNotificationService,
+            AlertHistoryService alertHistoryService,
+            NotificationService notificationService,
+            WsMetrics wsMetrics,
+            ClusterPublisher clusterPublisher,
+            ClusterNode clusterNode,
+            ClusterReplica clusterReplica,
+            EscalationEngine escalationEngine
     ) {
         this.workshopService = workshopService;
         this.alertService = alertService;
@@ -93,78 +137,183 @@ public class StatusBroadcaster {
         this.userProfileService = userProfileService;
         this.deviceAutoDiscoveryService = deviceAutoDiscoveryService;
         this.adminNotificationService = adminNotificationService;
+        this.alertHistoryService = alertHistoryService;
+        this.notificationService = notificationService;
+        this.wsMetrics = wsMetrics;
+        this.clusterPublisher = clusterPublisher;
+        this.clusterNode = clusterNode;
+        this.clusterReplica = clusterReplica;
+        this.escalationEngine = escalationEngine;
     }
 
+    /**
+     * Одиночное обновление аппарата (смена топологии) — пачка из одного аппарата.
+     */
     @EventListener
     public void onInstancePolled(PrintSrvInstancePolledEvent event) {
-        // Обновляем единый источник правды перед расчётом дельты алёртов,
-        // чтобы AlertService и buildErrorsStatus читали актуальные данные.
-        List<dev.savushkin.scada.mobile.backend.domain.model.DeviceError> activeErrors = unitDetailService.extractActiveErrors(event.instanceId());
-        unitErrorStore.update(event.instanceId(), activeErrors);
+        onInstancesPolled(new PrintSrvInstancesPolledEvent(List.of(event)));
+    }
+
+    /**
+     * Обновления аппаратов одной пачки конвейера приёма.
+     * <p>
+     * Каждый аппарат встречается в пачке один раз; сбой обработки одного аппарата
+     * не мешает остальным.
+     */
+    @EventListener
+    public void onInstancesPolled(PrintSrvInstancesPolledEvent batch) {
+        List<PrintSrvInstancePolledEvent> events = batch.instances();
+        // instanceId → цех; null — аппарат не найден в топологии
+        Map<String, Long> workshops = new HashMap<>();
+
+        for (PrintSrvInstancePolledEvent event : events) {
+            String instanceId = event.instanceId();
+            Long workshopId = workshopService.getWorkshopIdForInstance(instanceId).orElse(null);
+            workshops.put(instanceId, workshopId);
+
+            // Обновляем единый источник правды перед расчётом дельты алёртов,
+            // чтобы AlertService и buildErrorsStatus читали актуальные данные.
+            // Цех передаётся в store для инкрементального индекса проблемных аппаратов.
+            if (workshopId == null) {
+                unitErrorStore.remove(instanceId);
+            } else {
+                List<dev.savushkin.scada.mobile.backend.domain.model.DeviceError> activeErrors = unitDetailService.extractActiveErrors(instanceId);
+                unitErrorStore.update(instanceId, workshopId, activeErrors);
+            }
+        }
 
-        // Авто-обнаружение новых устройств из runtime
-        deviceAutoDiscoveryService.syncRuntimeDevices(event.instanceId());
+        // Авто-обнаружение новых устройств из runtime: одно чтение топологии на пачку,
+        // транзакция — только для аппаратов с расхождениями
+        for (String instanceId : deviceAutoDiscoveryService.findDivergedInstances(workshops.keySet())) {
+            try {
+                deviceAutoDiscoveryService.syncRuntimeDevices(instanceId);
+            } catch (RuntimeException e) {
+                log.error("StatusBroadcaster: device auto-discovery failed for instance '{}'", instanceId, e);
+            }
+        }
 
-        broadcastUnitStatus(event.instanceId());
-        broadcastAlertDelta(event.instanceId());
-        broadcastUnitDetails(event.instanceId());
+        broadcastUnitsStatus(events, workshops);
+        for (PrintSrvInstancePolledEvent event : events) {
+            try {
+                broadcastAlertDelta(event);
+                broadcastUnitDetails(event);
+            } catch (RuntimeException e) {
+                log.error("StatusBroadcaster: live update failed for instance '{}'", event.instanceId(), e);
+            }
+        }
     }
 
     // ─── Private ─────────────────────────────────────────────────────────────
 
-    private void broadcastUnitStatus(String instanceId) {
-        if (liveWsHandler.getSubscribedWorkshopIds().isEmpty()) {
+    /**
+     * Одно сообщение {@code UNITS_STATUS} на цех со статусами всех его аппаратов из пачки.
+     * {@code dataTimestamp} — самые старые данные сообщения.
+     */
+    private void broadcastUnitsStatus(List<PrintSrvInstancePolledEvent> events, Map<String, Long> workshops) {
+        boolean clustered = clusterPublisher.isActive();
+        Set<Long> subscribed = liveWsHandler.getSubscribedWorkshopIds();
+        if (subscribed.isEmpty() && !clustered) {
             return;
         }
 
-        Long workshopId = workshopService.getWorkshopIdForInstance(instanceId).orElse(null);
-        if (workshopId == null || !liveWsHandler.getSubscribedWorkshopIds().contains(workshopId)) {
-            return;
+        Map<Long, List<PrintSrvInstancePolledEvent>> byWorkshop = new LinkedHashMap<>();
+        for (PrintSrvInstancePolledEvent event : events) {
+            Long workshopId = workshops.get(event.instanceId());
+            if (workshopId != null && (clustered || subscribed.contains(workshopId))) {
+                byWorkshop.computeIfAbsent(workshopId, id -> new ArrayList<>()).add(event);
+            }
         }
+        byWorkshop.forEach(this::broadcastWorkshopUnits);
+    }
 
-        UnitStatusDTO status = workshopService.getUnitStatus(instanceId).orElse(null);
-        if (status == null) {
+    private void broadcastWorkshopUnits(Long workshopId, List<PrintSrvInstancePolledEvent> events) {
+        List<UnitStatusDTO> statuses = new ArrayList<>(events.size());
+        List<PrintSrvInstancePolledEvent> sent = new ArrayList<>(events.size());
+        Instant oldestReceivedAt = null;
+        long polledAtNanos = Long.MAX_VALUE;
+        for (PrintSrvInstancePolledEvent event : events) {
+            UnitStatusDTO status = workshopService.getUnitStatus(event.instanceId()).orElse(null);
+            if (status == null) {
+                continue;
+            }
+            statuses.add(status);
+            sent.add(event);
+            Instant receivedAt = event.dataReceivedAt();
+            if (receivedAt != null && (oldestReceivedAt == null || receivedAt.isBefore(oldestReceivedAt))) {
+                oldestReceivedAt = receivedAt;
+            }
+            polledAtNanos = Math.min(polledAtNanos, event.polledAtNanos());
+        }
+        if (statuses.isEmpty()) {
             return;
         }
 
         try {
-            UnitsStatusMessageDTO message = UnitsStatusMessageDTO.of(workshopId, List.of(status));
-            liveWsHandler.broadcastToWorkshop(workshopId, liveWsHandler.toJson(message));
+            String dataTimestamp = oldestReceivedAt == null ? null
+                    : oldestReceivedAt.atOffset(ZoneOffset.UTC).format(DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+            UnitsStatusMessageDTO message = UnitsStatusMessageDTO.of(workshopId, dataTimestamp, statuses);
+            String json = liveWsHandler.toJson(message);
+            clusterPublisher.publish(ClusterEvent.Kind.UNITS_STATUS, workshopId.toString(), message.type(), json);
+            if (clusterNode.servesFromReplica()) {
+                clusterReplica.putUnitStatuses(workshopId, statuses);
+            }
+            if (liveWsHandler.broadcastToWorkshop(workshopId, json) > 0) {
+                wsMetrics.recordFreshness(WsMetrics.LIVE, message.type(), polledAtNanos);
+                for (PrintSrvInstancePolledEvent event : sent) {
+                    wsMetrics.recordDataAge(event.instanceId(), message.type(), event.dataReceivedAt());
+                }
+            }
         } catch (JsonProcessingException e) {
-            log.error("StatusBroadcaster: failed to serialize UNITS_STATUS for instance '{}'", instanceId, e);
+            log.error("StatusBroadcaster: failed to serialize UNITS_STATUS for workshop {}", workshopId, e);
         }
     }
 
-    private void broadcastAlertDelta(String instanceId) {
-        if (liveWsHandler.getTotalSessionCount() == 0) {
-            return;
-        }
-
+    /**
+     * Обновляет {@link ActiveAlertStore} и рассылает дельту {@code ALERT}.
+     * <p>
+     * Store обновляется и при отсутствии подключённых клиентов: устранённые алёрты
+     * пишутся в журнал инцидентов, а {@code ALERT_SNAPSHOT} новым клиентам
+     * должен отражать актуальное состояние.
+     */
+    private void broadcastAlertDelta(PrintSrvInstancePolledEvent event) {
+        String instanceId = event.instanceId();
         AlertMessageDTO currentAlert = alertService.computeAlertForInstance(instanceId).orElse(null);
         ActiveAlertStore.Delta delta = alertStore.updateAndDiff(instanceId, currentAlert);
 
         if (delta.added().isEmpty() && delta.removed().isEmpty()) {
             return;
         }
+        escalationEngine.onAlertDelta(delta);
 
         String resolvedAt = LocalDateTime.now(ZoneOffset.UTC).format(DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+        boolean hasSessions = liveWsHandler.getTotalSessionCount() > 0 || clusterPublisher.isActive();
 
         for (AlertMessageDTO added : delta.added()) {
-            sendAlert(added);
+            if (hasSessions) {
+                sendAlert(added, event);
+            }
             log.info("Alert ACTIVE: unit='{}', workshop='{}', severity='{}', msg='{}'",
                     added.unitId(), added.workshopId(), added.severity(),
                     added.errors().isEmpty() ? "" : added.errors().getFirst().message());
         }
 
         for (AlertMessageDTO removed : delta.removed()) {
-            sendAlert(removed.resolved(resolvedAt));
+            alertHistoryService.recordResolved(removed, resolvedAt);
+            if (hasSessions) {
+                sendAlert(removed.resolved(resolvedAt), event);
+            }
             log.info("Alert RESOLVED: unit='{}', workshop='{}'", removed.unitId(), removed.workshopId());
         }
     }
 
-    private void sendAlert(AlertMessageDTO alert) {
+    private void sendAlert(AlertMessageDTO alert, PrintSrvInstancePolledEvent event) {
         try {
-            liveWsHandler.broadcastAlert(liveWsHandler.toJson(alert));
+            String json = liveWsHandler.toJson(alert);
+            clusterPublisher.publish(ClusterEvent.Kind.ALERT, alert.unitId(), alert.type(), json);
+            if (liveWsHandler.broadcastAlert(json) > 0) {
+                wsMetrics.recordFreshness(WsMetrics.LIVE, alert.type(), event.polledAtNanos());
+                wsMetrics.recordDataAge(event.instanceId(), alert.type(), event.dataReceivedAt());
+            }
         } catch (JsonProcessingException e) {
             log.error("StatusBroadcaster: failed to serialize ALERT for unit '{}'", alert.unitId(), e);
         }
@@ -174,13 +323,25 @@ public class StatusBroadcaster {
      * Рассылает обновления по всем четырём типам сообщений
      * подписчикам канала {@code /ws/unit/{instanceId}}.
      * <p>
-     * Вызов является no-op если нет активных подписчиков на данный аппарат.
+     * Вызов является no-op если нет активных подписчиков на данный аппарат и узел не в кластере.
      */
-    private void broadcastUnitDetails(String instanceId) {
+    private void broadcastUnitDetails(PrintSrvInstancePolledEvent event) {
+        String instanceId = event.instanceId();
+        if (clusterPublisher.isActive()) {
+            boolean toReplica = clusterNode.servesFromReplica();
+            unitWsHandler.broadcastToUnit(instanceId, event.polledAtNanos(), event.dataReceivedAt(),
+                    (type, json) -> {
+                        clusterPublisher.publish(ClusterEvent.Kind.UNIT_FRAME, instanceId, type, json);
+                        if (toReplica) {
+                            clusterReplica.putFrame(instanceId, type, json);
+                        }
+                    });
+            return;
+        }
         if (unitWsHandler.getSubscriberCount(instanceId) == 0) {
             return;
         }
-        unitWsHandler.broadcastToUnit(instanceId);
+        unitWsHandler.broadcastToUnit(instanceId, event.polledAtNanos(), event.dataReceivedAt());
     }
 
     // ─── Notification events ─────────────────────────────────────────────────
@@ -191,39 +352,71 @@ public class StatusBroadcaster {
      * Вызывается {@link dev.savushkin.scada.mobile.backend.services.NotificationService}
      * при toggle (activate / deactivate). Мгновенно рассылает {@code NOTIFICATION}
      * всем подключённым клиентам через канал {@code /ws/live}.
+     * <p>
+     * WS-проекция {@link ActiveNotificationStore} обновляется и без подключённых клиентов:
+     * из неё строится {@code NOTIFICATION_SNAPSHOT} для следующих подключений.
      *
      * @param event Событие изменения состояния.
      */
     @EventListener
     public void onNotificationChanged(NotificationStateChangedEvent event) {
-        if (liveWsHandler.getTotalSessionCount() == 0) {
+        String timestamp = java.time.Instant.now()
+                .atOffset(ZoneOffset.UTC)
+                .format(DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+        applyNotification(event.unitId(), event.notification(), event.type(), timestamp);
+    }
+
+    /**
+     * Восстанавливает WS-проекцию активных уведомлений, переживших рестарт (они хранятся в БД).
+     * <p>
+     * Узлы {@code ws} получают проекцию от лидера вместе с полным состоянием, поэтому
+     * восстанавливают её только узлы приёма.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void restoreNotifications() {
+        if (clusterNode.isWs()) {
             return;
         }
+        List<ProductionNotification> active = notificationService.getActiveNotifications();
+        for (ProductionNotification notification : active) {
+            String timestamp = notification.activatedAt()
+                    .atOffset(ZoneOffset.UTC)
+                    .format(DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+            applyNotification(notification.unitId(), notification,
+                    NotificationStateChangedEvent.EventType.ACTIVATED, timestamp);
+        }
+        if (!active.isEmpty()) {
+            log.info("StatusBroadcaster: restored {} active notification(s)", active.size());
+        }
+    }
 
-        String unitName = topologyRepo.findByInstanceId(event.unitId())
+    private void applyNotification(
+            String unitId,
+            ProductionNotification notification,
+            NotificationStateChangedEvent.EventType type,
+            String timestamp
+    ) {
+        String unitName = topologyRepo.findByInstanceId(unitId)
                 .map(PrintSrvInstance::displayName)
-                .orElse(event.unitId());
-
-        String timestamp = java.time.Instant.now()
-                .atOffset(ZoneOffset.UTC)
-                .format(DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+                .orElse(unitId);
 
-        String creatorName = userProfileService.resolveFullName(event.notification().creatorId());
+        String creatorName = userProfileService.resolveFullName(notification.creatorId());
 
         NotificationMessageDTO dto;
-        if (event.type() == NotificationStateChangedEvent.EventType.ACTIVATED) {
+        if (type == NotificationStateChangedEvent.EventType.ACTIVATED) {
             dto = NotificationMessageDTO.activated(
-                    event.unitId(), unitName, event.notification().creatorId(), creatorName, timestamp);
+                    unitId, unitName, notification.creatorId(), creatorName, timestamp);
         } else {
             dto = NotificationMessageDTO.deactivated(
-                    event.unitId(), unitName, event.notification().creatorId(), creatorName, timestamp);
+                    unitId, unitName, notification.creatorId(), creatorName, timestamp);
         }
 
-        ActiveNotificationStore.Delta delta = notificationStore.updateAndDiff(event.unitId(), dto);
+        ActiveNotificationStore.Delta delta = notificationStore.updateAndDiff(unitId, dto);
 
         if (delta.added().isEmpty() && delta.removed().isEmpty()) {
             return;
         }
+        escalationEngine.onNotificationDelta(delta);
 
         for (NotificationMessageDTO added : delta.added()) {
             sendNotification(added);
@@ -239,21 +432,33 @@ public class StatusBroadcaster {
     }
 
     private void sendNotification(NotificationMessageDTO notification) {
-        liveWsHandler.broadcastNotification(notification);
+        if (!clusterPublisher.isActive()) {
+            liveWsHandler.broadcastNotification(notification);
+            return;
+        }
+        try {
+            String json = liveWsHandler.toJson(notification);
+            clusterPublisher.publish(ClusterEvent.Kind.NOTIFICATION, notification.unitId(), notification.type(), json);
+            liveWsHandler.broadcastNotification(notification, json);
+        } catch (JsonProcessingException e) {
+            log.error("StatusBroadcaster: failed to serialize NOTIFICATION for unit '{}'", notification.unitId(), e);
+        }
     }
 
     // ─── Admin notification events ───────────────────────────────────────────
 
     @EventListener
     public void onAdminNotification(dev.savushkin.scada.mobile.backend.domain.model.AdminNotificationEvent event) {
-        if (liveWsHandler.getTotalSessionCount() == 0) {
+        if (liveWsHandler.getTotalSessionCount() == 0 && !clusterPublisher.isActive()) {
             return;
         }
         AdminNotificationMessageDTO dto = AdminNotificationMessageDTO.from(event.notification());
         try {
             // Админские уведомления (discovery устройств, смена пароля, бездействие)
             // адресованы только администраторам — рядовым сотрудникам они не нужны.
-            liveWsHandler.sendToAdmins(liveWsHandler.toJson(dto));
+            String json = liveWsHandler.toJson(dto);
+            clusterPublisher.publish(ClusterEvent.Kind.TO_ADMINS, null, dto.type(), json);
+            liveWsHandler.sendToAdmins(dto.type(), json);
         } catch (JsonProcessingException e) {
             log.error("StatusBroadcaster: failed to serialize ADMIN_NOTIFICATION", e);
         }
@@ -267,7 +472,7 @@ public class StatusBroadcaster {
      */
     @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
     public void onUserAssignmentsChanged(UserAssignmentsChangedEvent event) {
-        if (liveWsHandler.getTotalSessionCount() == 0) {
+        if (liveWsHandler.getTotalSessionCount() == 0 && !clusterPublisher.isActive()) {
             return;
         }
 
@@ -286,7 +491,9 @@ public class StatusBroadcaster {
 
         UserAssignmentsMessageDTO dto = UserAssignmentsMessageDTO.of(payload);
         try {
-            liveWsHandler.sendToUser(event.userId(), liveWsHandler.toJson(dto));
+            String json = liveWsHandler.toJson(dto);
+            clusterPublisher.publish(ClusterEvent.Kind.TO_USER, Long.toString(event.userId()), dto.type(), json);
+            liveWsHandler.sendToUser(event.userId(), dto.type(), json);
             log.debug("StatusBroadcaster: sent USER_ASSIGNMENTS to userId={}, units={}", event.userId(), payload.size());
         } catch (JsonProcessingException e) {
             log.error("StatusBroadcaster: failed to serialize USER_ASSIGNMENTS for userId={}", event.userId(), e);
@@ -6,8 +6,11 @@ import dev.savushkin.scada.mobile.backend.api.dto.DevicesStatusMessageDTO;
 import dev.savushkin.scada.mobile.backend.api.dto.ErrorsMessageDTO;
 import dev.savushkin.scada.mobile.backend.api.dto.LineStatusMessageDTO;
 import dev.savushkin.scada.mobile.backend.api.dto.QueueMessageDTO;
+import dev.savushkin.scada.mobile.backend.infrastructure.cluster.ClusterNode;
+import dev.savushkin.scada.mobile.backend.infrastructure.cluster.ClusterReplica;
 import dev.savushkin.scada.mobile.backend.services.UnitDetailService;
 import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
@@ -18,11 +21,14 @@ import org.springframework.web.socket.handler.TextWebSocketHandler;
 
 import java.io.IOException;
 import java.net.URI;
+import java.time.Instant;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.function.BiConsumer;
 
 /**
  * WebSocket-хендлер канала {@code /ws/unit/{unitId}}.
@@ -36,16 +42,26 @@ import java.util.concurrent.CopyOnWriteArraySet;
  *   <li>Посылаются все четыре начальных снапшота:
  *       {@code LINE_STATUS}, {@code DEVICES_STATUS}, {@code QUEUE}, {@code ERRORS}.</li>
  *   <li>При каждом polling-событии {@link StatusBroadcaster} вызывает
- *       {@link #broadcastToUnit(String)} — все подписчики данного аппарата
+ *       {@link #broadcastToUnit(String, long, Instant)} — все подписчики данного аппарата
  *       получают обновлённые данные.</li>
  *   <li>При разрыве соединения или ошибке сессия удаляется из реестра.</li>
  * </ol>
  *
  * <h3>Потокобезопасность</h3>
  * {@code sessionsByUnit} — {@link ConcurrentHashMap} значений {@link CopyOnWriteArraySet}:
- * публикация {@link #broadcastToUnit(String)} безопасна из polling-потока параллельно
+ * публикация {@link #broadcastToUnit(String, long, Instant)} безопасна из polling-потока параллельно
  * с добавлением/удалением сессий при connect/disconnect.
  *
+ * <h3>Метрики</h3>
+ * Рассылки, ошибки отправки, свежесть и возраст данных ({@code ws.data.age}) фиксируются в {@link WsMetrics};
+ * статистика отправок по сессии — в {@link WsSessionStats}.
+ *
+ * <h3>Кластер</h3>
+ * На WS-узле кластера ({@code cluster.role=ws}) снимков PrintSrv нет, а узел приёма при
+ * поделённом опросе ({@code cluster.polling.mode}) держит снимки только своих инстансов:
+ * в обоих случаях начальные сообщения берутся из {@link ClusterReplica}, обновления чужих
+ * инстансов приходят готовым JSON через {@link #deliverFrame(String, String, String)}.
+ *
  * <h3>Входящие сообщения</h3>
  * Данный канал — только push; клиент не отправляет никаких сообщений. Любое
  * входящее сообщение логируется как предупреждение и игнорируется.
@@ -65,17 +81,33 @@ public class UnitWsHandler extends TextWebSocketHandler {
      */
     private static final String PATH_PREFIX = "/ws/unit/";
 
+    private static final List<String> FRAME_TYPES = List.of("LINE_STATUS", "DEVICES_STATUS", "QUEUE", "ERRORS");
+
     private final UnitDetailService unitDetailService;
     private final ObjectMapper objectMapper;
+    private final WsMetrics metrics;
+    private final ClusterNode clusterNode;
+    private final ClusterReplica clusterReplica;
 
     /**
      * unitId → активные сессии
      */
     private final Map<String, Set<WebSocketSession>> sessionsByUnit = new ConcurrentHashMap<>();
 
-    public UnitWsHandler(UnitDetailService unitDetailService, ObjectMapper objectMapper) {
+    public UnitWsHandler(
+            UnitDetailService unitDetailService,
+            ObjectMapper objectMapper,
+            WsMetrics metrics,
+            ClusterNode clusterNode,
+            ClusterReplica clusterReplica
+    ) {
         this.unitDetailService = unitDetailService;
         this.objectMapper = objectMapper;
+        this.metrics = metrics;
+        this.clusterNode = clusterNode;
+        this.clusterReplica = clusterReplica;
+        metrics.bindSessionCount(WsMetrics.UNIT,
+                () -> sessionsByUnit.values().stream().mapToInt(Set::size).sum());
     }
 
     // ─── Lifecycle ────────────────────────────────────────────────────────────
@@ -97,7 +129,9 @@ public class UnitWsHandler extends TextWebSocketHandler {
         }
 
         session.getAttributes().put(ATTR_UNIT_ID, unitId);
+        WsSessionStats.of(session);
         sessionsByUnit.computeIfAbsent(unitId, k -> new CopyOnWriteArraySet<>()).add(session);
+        metrics.bindUnitSubscribers(unitId, () -> getSubscriberCount(unitId));
 
         sendInitialSnapshot(session, unitId);
 
@@ -133,18 +167,62 @@ public class UnitWsHandler extends TextWebSocketHandler {
      * <p>Вызывается {@link StatusBroadcaster} после каждого polling-события.
      * Если нет активных подписчиков — операция является no-op.
      *
-     * @param instanceId идентификатор аппарата
+     * @param instanceId     идентификатор аппарата
+     * @param polledAtNanos  момент завершения poll-прохода ({@link System#nanoTime()}) — для метрики свежести
+     * @param dataReceivedAt момент получения данных от PrintSrv — для метрики возраста данных, или {@code null}
      */
-    public void broadcastToUnit(String instanceId) {
+    public void broadcastToUnit(String instanceId, long polledAtNanos, @Nullable Instant dataReceivedAt) {
+        broadcastToUnit(instanceId, polledAtNanos, dataReceivedAt, null);
+    }
+
+    /**
+     * То же, что {@link #broadcastToUnit(String, long, Instant)}, но каждое собранное сообщение
+     * дополнительно передаётся в {@code frameSink} (тип, JSON) — для публикации в шину кластера.
+     * С {@code frameSink} сообщения собираются и без локальных подписчиков.
+     */
+    public void broadcastToUnit(String instanceId, long polledAtNanos, @Nullable Instant dataReceivedAt,
+                                @Nullable BiConsumer<String, String> frameSink) {
+        Set<WebSocketSession> sessions = sessionsByUnit.getOrDefault(instanceId, Set.of());
+        if (sessions.isEmpty() && frameSink == null) {
+            return;
+        }
+
+        trySend(instanceId, this::buildLineStatusJson, "LINE_STATUS", sessions, polledAtNanos, dataReceivedAt, frameSink);
+        trySend(instanceId, this::buildDevicesStatusJson, "DEVICES_STATUS", sessions, polledAtNanos, dataReceivedAt, frameSink);
+        trySend(instanceId, this::buildQueueJson, "QUEUE", sessions, polledAtNanos, dataReceivedAt, frameSink);
+        trySend(instanceId, this::buildErrorsJson, "ERRORS", sessions, polledAtNanos, dataReceivedAt, frameSink);
+    }
+
+    /**
+     * Рассылает готовое сообщение из шины кластера подписчикам аппарата.
+     *
+     * @return число сессий, получивших сообщение
+     */
+    public int deliverFrame(String instanceId, String type, String json) {
         Set<WebSocketSession> sessions = sessionsByUnit.get(instanceId);
         if (sessions == null || sessions.isEmpty()) {
-            return;
+            return 0;
         }
+        return sendToSessions(sessions, json, type);
+    }
 
-        trySend(instanceId, this::buildLineStatusJson, "LINE_STATUS", sessions);
-        trySend(instanceId, this::buildDevicesStatusJson, "DEVICES_STATUS", sessions);
-        trySend(instanceId, this::buildQueueJson, "QUEUE", sessions);
-        trySend(instanceId, this::buildErrorsJson, "ERRORS", sessions);
+    /**
+     * Собирает текущие сообщения аппарата без рассылки: тип → JSON.
+     * Используется лидером кластера для передачи полного состояния WS-узлам.
+     */
+    public Map<String, String> buildFrames(String instanceId) {
+        Map<String, String> frames = new LinkedHashMap<>();
+        for (String type : FRAME_TYPES) {
+            try {
+                String json = buildJson(type, instanceId);
+                if (json != null) {
+                    frames.put(type, json);
+                }
+            } catch (JsonProcessingException e) {
+                log.error("WS /unit: failed to serialize {} for unitId='{}': {}", type, instanceId, e.getMessage());
+            }
+        }
+        return frames;
     }
 
     /**
@@ -163,6 +241,22 @@ public class UnitWsHandler extends TextWebSocketHandler {
         return sessionsByUnit.size();
     }
 
+    /**
+     * Все подключённые сессии — для {@link WsSessionsEndpoint}.
+     */
+    List<WebSocketSession> getSessions() {
+        return sessionsByUnit.values().stream()
+                .flatMap(Set::stream)
+                .toList();
+    }
+
+    /**
+     * Аппарат, к которому подключена сессия, или {@code null}.
+     */
+    static String getUnitId(WebSocketSession session) {
+        return (String) session.getAttributes().get(ATTR_UNIT_ID);
+    }
+
     // ─── Private helpers ─────────────────────────────────────────────────────
 
     /**
@@ -170,16 +264,16 @@ public class UnitWsHandler extends TextWebSocketHandler {
      * Ошибки сериализации/отправки не фатальны — клиент получит данные на следующем push.
      */
     private void sendInitialSnapshot(WebSocketSession session, String unitId) {
-        for (String type : List.of("LINE_STATUS", "DEVICES_STATUS", "QUEUE", "ERRORS")) {
+        if (clusterNode.servesFromReplica()) {
+            Map<String, String> frames = clusterReplica.getFrames(unitId);
+            for (String type : FRAME_TYPES) {
+                sendSafely(session, frames.get(type), type);
+            }
+            return;
+        }
+        for (String type : FRAME_TYPES) {
             try {
-                String json = switch (type) {
-                    case "LINE_STATUS"     -> buildLineStatusJson(unitId);
-                    case "DEVICES_STATUS" -> buildDevicesStatusJson(unitId);
-                    case "QUEUE"          -> buildQueueJson(unitId);
-                    case "ERRORS"         -> buildErrorsJson(unitId);
-                    default -> null;
-                };
-                sendSafely(session, json, type);
+                sendSafely(session, buildJson(type, unitId), type);
             } catch (JsonProcessingException e) {
                 log.warn("WS /unit: failed to build initial {}, unitId='{}': {}", type, unitId, e.getMessage());
             }
@@ -192,30 +286,44 @@ public class UnitWsHandler extends TextWebSocketHandler {
     }
 
     private void trySend(String instanceId, JsonBuilder builder, String type,
-                         Set<WebSocketSession> sessions) {
+                         Set<WebSocketSession> sessions, long polledAtNanos, @Nullable Instant dataReceivedAt,
+                         @Nullable BiConsumer<String, String> frameSink) {
         try {
             String json = builder.build(instanceId);
             if (json == null) return;
-            sendToSessions(sessions, json, type);
+            if (frameSink != null) {
+                frameSink.accept(type, json);
+            }
+            if (!sessions.isEmpty() && sendToSessions(sessions, json, type) > 0) {
+                metrics.recordFreshness(WsMetrics.UNIT, type, polledAtNanos);
+                metrics.recordDataAge(instanceId, type, dataReceivedAt);
+            }
         } catch (JsonProcessingException e) {
             log.error("WS /unit: failed to serialize {} for unitId='{}': {}",
                     type, instanceId, e.getMessage());
         }
     }
 
-    private void sendToSessions(Set<WebSocketSession> sessions, String json, String type) {
+    private int sendToSessions(Set<WebSocketSession> sessions, String json, String type) {
+        long start = System.nanoTime();
+        int delivered = 0;
         for (WebSocketSession session : sessions) {
             if (!session.isOpen()) {
                 sessions.remove(session);
+                metrics.recordClosedEviction(WsMetrics.UNIT);
                 continue;
             }
             try {
                 sendMessageSafely(session, json);
+                delivered++;
             } catch (IOException | IllegalStateException e) {
                 log.warn("WS /unit: {} send failed, id={}: {}", type, session.getId(), e.getMessage());
                 sessions.remove(session);
+                metrics.recordSendFailure(WsMetrics.UNIT);
             }
         }
+        metrics.recordBroadcast(WsMetrics.UNIT, type, System.nanoTime() - start, delivered, json);
+        return delivered;
     }
 
     private void sendSafely(WebSocketSession session, String json, String type) {
@@ -228,12 +336,17 @@ public class UnitWsHandler extends TextWebSocketHandler {
     }
 
     private void sendMessageSafely(WebSocketSession session, String json) throws IOException {
-        synchronized (session) {
-            if (!session.isOpen()) {
-                throw new IOException("WebSocket session is closed");
-            }
-            session.sendMessage(new TextMessage(json));
-        }
+        WsSessionStats.send(session, json);
+    }
+
+    private String buildJson(String type, String instanceId) throws JsonProcessingException {
+        return switch (type) {
+            case "LINE_STATUS"     -> buildLineStatusJson(instanceId);
+            case "DEVICES_STATUS" -> buildDevicesStatusJson(instanceId);
+            case "QUEUE"          -> buildQueueJson(instanceId);
+            case "ERRORS"         -> buildErrorsJson(instanceId);
+            default -> null;
+        };
     }
 
     private String buildLineStatusJson(String instanceId) throws JsonProcessingException {
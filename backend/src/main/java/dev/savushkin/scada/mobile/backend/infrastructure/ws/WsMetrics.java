@@ -0,0 +1,267 @@
+package dev.savushkin.scada.mobile.backend.infrastructure.ws;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Метрики WebSocket fan-out (Micrometer) для каналов {@code /ws/live} и {@code /ws/unit/*}.
+ *
+ * <h3>Метрики</h3>
+ * <ul>
+ *   <li>{@code ws.sessions} — число сессий канала (endpoint);</li>
+ *   <li>{@code ws.sessions.workshop} / {@code ws.sessions.unit} — подписчики цеха / аппарата;</li>
+ *   <li>{@code ws.broadcast} — длительность рассылки одного сообщения всем адресатам (endpoint, type);</li>
+ *   <li>{@code ws.broadcast.recipients} — число доставленных копий сообщения (endpoint, type);</li>
+ *   <li>{@code ws.sent.bytes} — отправленные байты UTF-8 (endpoint, type);</li>
+ *   <li>{@code ws.send.failures} — ошибки отправки (endpoint);</li>
+ *   <li>{@code ws.sessions.evicted} — сессии, удалённые при рассылке (endpoint, reason = closed | send_error);</li>
+ *   <li>{@code ws.freshness} — от завершения poll-прохода инстанса до отправки в WS (endpoint, type);</li>
+ *   <li>{@code ws.data.age} — возраст данных в момент отправки: от получения ответа PrintSrv
+ *       до отправки в WS (instance, type) — основа SLO свежести;</li>
+ *   <li>{@code ws.delivered.age} — возраст данных в момент подтверждения клиентом
+ *       ({@code ACK} на {@code /ws/live}), включая доставку и обратный путь (type).</li>
+ * </ul>
+ * Таймеры публикуют перцентили 0.5 / 0.95 / 0.99.
+ *
+ * <p>Метры по {@code (endpoint, type)} создаются при первой рассылке и кэшируются —
+ * на горячем пути только lookup в двух картах без построения тегов.
+ */
+@Component
+public class WsMetrics {
+
+    public static final String LIVE = "live";
+    public static final String UNIT = "unit";
+
+    private static final double[] PERCENTILES = {0.5, 0.95, 0.99};
+
+    private final MeterRegistry registry;
+    private final ConcurrentHashMap<String, ConcurrentHashMap<String, BroadcastMeters>> broadcastMeters =
+            new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, EndpointMeters> endpointMeters = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, ConcurrentHashMap<String, Timer>> dataAge = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Timer> deliveredAge = new ConcurrentHashMap<>();
+    private final Set<Long> boundWorkshops = ConcurrentHashMap.newKeySet();
+    private final Set<String> boundUnits = ConcurrentHashMap.newKeySet();
+
+    public WsMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    // ─── Gauges ──────────────────────────────────────────────────────────────
+
+    /**
+     * Регистрирует gauge числа сессий канала. Вызывается хендлером один раз при создании.
+     */
+    public void bindSessionCount(@NonNull String endpoint, @NonNull Supplier<Number> count) {
+        Gauge.builder("ws.sessions", count)
+                .description("Open WebSocket sessions")
+                .tag("endpoint", endpoint)
+                .register(registry);
+    }
+
+    /**
+     * Регистрирует gauge подписчиков цеха (однократно на цех).
+     */
+    public void bindWorkshopSubscribers(long workshopId, @NonNull Supplier<Number> count) {
+        if (boundWorkshops.add(workshopId)) {
+            Gauge.builder("ws.sessions.workshop", count)
+                    .description("/ws/live sessions subscribed to a workshop")
+                    .tag("workshop", Long.toString(workshopId))
+                    .register(registry);
+        }
+    }
+
+    /**
+     * Регистрирует gauge подписчиков аппарата (однократно на аппарат).
+     */
+    public void bindUnitSubscribers(@NonNull String unitId, @NonNull Supplier<Number> count) {
+        if (boundUnits.add(unitId)) {
+            Gauge.builder("ws.sessions.unit", count)
+                    .description("/ws/unit sessions of a unit")
+                    .tag("unit", unitId)
+                    .register(registry);
+        }
+    }
+
+    // ─── Recording ───────────────────────────────────────────────────────────
+
+    /**
+     * Фиксирует одну рассылку сообщения.
+     *
+     * @param nanos     длительность рассылки по всем адресатам
+     * @param delivered число сессий, которым сообщение отправлено
+     * @param json      отправленное сообщение (для подсчёта байтов)
+     */
+    public void recordBroadcast(@NonNull String endpoint, @NonNull String type, long nanos, int delivered,
+                                @NonNull String json) {
+        BroadcastMeters meters = broadcast(endpoint, type);
+        meters.duration.record(nanos, TimeUnit.NANOSECONDS);
+        meters.recipients.record(delivered);
+        if (delivered > 0) {
+            meters.bytes.increment((double) utf8Length(json) * delivered);
+        }
+    }
+
+    /**
+     * Фиксирует задержку от завершения poll-прохода ({@code System.nanoTime()}) до отправки.
+     */
+    public void recordFreshness(@NonNull String endpoint, @NonNull String type, long polledAtNanos) {
+        broadcast(endpoint, type).freshness.record(System.nanoTime() - polledAtNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Фиксирует возраст отправленных данных инстанса: от получения ответа PrintSrv до текущего момента.
+     * No-op, если момент получения неизвестен.
+     */
+    public void recordDataAge(@NonNull String instanceId, @NonNull String type, @Nullable Instant receivedAt) {
+        if (receivedAt == null) {
+            return;
+        }
+        ConcurrentHashMap<String, Timer> byType = dataAge.get(instanceId);
+        if (byType == null) {
+            byType = dataAge.computeIfAbsent(instanceId, k -> new ConcurrentHashMap<>());
+        }
+        Timer timer = byType.get(type);
+        if (timer == null) {
+            timer = byType.computeIfAbsent(type, t -> Timer.builder("ws.data.age")
+                    .description("Age of PrintSrv data at WebSocket send time")
+                    .tags("instance", instanceId, "type", t)
+                    .publishPercentiles(PERCENTILES)
+                    .register(registry));
+        }
+        timer.record(System.currentTimeMillis() - receivedAt.toEpochMilli(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Фиксирует возраст данных на момент получения {@code ACK} от клиента.
+     *
+     * @param ageMillis от получения ответа PrintSrv до прихода подтверждения
+     */
+    public void recordDeliveredAge(@NonNull String type, long ageMillis) {
+        Timer timer = deliveredAge.get(type);
+        if (timer == null) {
+            timer = deliveredAge.computeIfAbsent(type, t -> Timer.builder("ws.delivered.age")
+                    .description("Age of PrintSrv data when the client acknowledged the frame")
+                    .tag("type", t)
+                    .publishPercentiles(PERCENTILES)
+                    .register(registry));
+        }
+        timer.record(ageMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Ошибка отправки: сессия при этом удаляется из рассылки.
+     */
+    public void recordSendFailure(@NonNull String endpoint) {
+        EndpointMeters meters = endpoint(endpoint);
+        meters.failures.increment();
+        meters.evictedOnError.increment();
+    }
+
+    /**
+     * Сессия удалена из рассылки, так как уже закрыта.
+     */
+    public void recordClosedEviction(@NonNull String endpoint) {
+        endpoint(endpoint).evictedClosed.increment();
+    }
+
+    /**
+     * Длина строки в байтах UTF-8 без кодирования в массив.
+     */
+    static int utf8Length(String s) {
+        int length = s.length();
+        int bytes = length;
+        for (int i = 0; i < length; i++) {
+            char c = s.charAt(i);
+            if (c >= 0x80) {
+                if (c < 0x800) {
+                    bytes += 1;
+                } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(s.charAt(i + 1))) {
+                    bytes += 2;
+                    i++;
+                } else {
+                    bytes += 2;
+                }
+            }
+        }
+        return bytes;
+    }
+
+    // ─── Private ─────────────────────────────────────────────────────────────
+
+    private BroadcastMeters broadcast(String endpoint, String type) {
+        ConcurrentHashMap<String, BroadcastMeters> byType = broadcastMeters.get(endpoint);
+        if (byType == null) {
+            byType = broadcastMeters.computeIfAbsent(endpoint, k -> new ConcurrentHashMap<>());
+        }
+        BroadcastMeters meters = byType.get(type);
+        return meters != null ? meters : byType.computeIfAbsent(type, t -> new BroadcastMeters(endpoint, t));
+    }
+
+    private EndpointMeters endpoint(String endpoint) {
+        EndpointMeters meters = endpointMeters.get(endpoint);
+        return meters != null ? meters : endpointMeters.computeIfAbsent(endpoint, EndpointMeters::new);
+    }
+
+    private final class BroadcastMeters {
+        private final Timer duration;
+        private final Timer freshness;
+        private final DistributionSummary recipients;
+        private final Counter bytes;
+
+        private BroadcastMeters(String endpoint, String type) {
+            this.duration = Timer.builder("ws.broadcast")
+                    .description("Fan-out of one message to all recipients")
+                    .tags("endpoint", endpoint, "type", type)
+                    .publishPercentiles(PERCENTILES)
+                    .register(registry);
+            this.freshness = Timer.builder("ws.freshness")
+                    .description("Time from instance poll completion to WebSocket send")
+                    .tags("endpoint", endpoint, "type", type)
+                    .publishPercentiles(PERCENTILES)
+                    .register(registry);
+            this.recipients = DistributionSummary.builder("ws.broadcast.recipients")
+                    .description("Sessions that received one broadcast message")
+                    .tags("endpoint", endpoint, "type", type)
+                    .register(registry);
+            this.bytes = Counter.builder("ws.sent.bytes")
+                    .description("UTF-8 payload bytes sent")
+                    .baseUnit("bytes")
+                    .tags("endpoint", endpoint, "type", type)
+                    .register(registry);
+        }
+    }
+
+    private final class EndpointMeters {
+        private final Counter failures;
+        private final Counter evictedOnError;
+        private final Counter evictedClosed;
+
+        private EndpointMeters(String endpoint) {
+            this.failures = Counter.builder("ws.send.failures")
+                    .description("WebSocket send failures")
+                    .tag("endpoint", endpoint)
+                    .register(registry);
+            this.evictedOnError = Counter.builder("ws.sessions.evicted")
+                    .description("Sessions evicted during fan-out")
+                    .tags("endpoint", endpoint, "reason", "send_error")
+                    .register(registry);
+            this.evictedClosed = Counter.builder("ws.sessions.evicted")
+                    .description("Sessions evicted during fan-out")
+                    .tags("endpoint", endpoint, "reason", "closed")
+                    .register(registry);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package dev.savushkin.scada.mobile.backend.infrastructure.ws;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Диагностика одной WebSocket-сессии: хранится в её атрибутах и читается
+ * {@link WsSessionsEndpoint} для поиска медленных клиентов.
+ *
+ * <p>{@code backlog} — число отправок, ожидающих монитора сессии: отправка
+ * синхронная, поэтому медленный клиент виден как растущая очередь потоков-рассыльщиков
+ * и большое время последней отправки.
+ */
+final class WsSessionStats {
+
+    private static final String ATTR = "wsStats";
+
+    private final Instant connectedAt = Instant.now();
+    private final AtomicInteger backlog = new AtomicInteger();
+    private final AtomicLong messagesSent = new AtomicLong();
+    private volatile long lastSendNanos;
+    private volatile long lastSentAtMillis;
+
+    static @NonNull WsSessionStats of(@NonNull WebSocketSession session) {
+        Object stats = session.getAttributes().get(ATTR);
+        if (stats instanceof WsSessionStats existing) {
+            return existing;
+        }
+        return (WsSessionStats) session.getAttributes().computeIfAbsent(ATTR, k -> new WsSessionStats());
+    }
+
+    /**
+     * Отправляет сообщение под монитором сессии (контейнер не допускает параллельных
+     * отправок в одну сессию) и обновляет статистику.
+     *
+     * @throws IOException если сессия закрыта или отправка не удалась
+     */
+    static void send(@NonNull WebSocketSession session, @NonNull String json) throws IOException {
+        WsSessionStats stats = of(session);
+        stats.backlog.incrementAndGet();
+        try {
+            synchronized (session) {
+                if (!session.isOpen()) {
+                    throw new IOException("WebSocket session is closed");
+                }
+                long start = System.nanoTime();
+                session.sendMessage(new TextMessage(json));
+                stats.lastSendNanos = System.nanoTime() - start;
+                stats.lastSentAtMillis = System.currentTimeMillis();
+                stats.messagesSent.incrementAndGet();
+            }
+        } finally {
+            stats.backlog.decrementAndGet();
+        }
+    }
+
+    Instant connectedAt() {
+        return connectedAt;
+    }
+
+    int backlog() {
+        return backlog.get();
+    }
+
+    long messagesSent() {
+        return messagesSent.get();
+    }
+
+    long lastSendNanos() {
+        return lastSendNanos;
+    }
+
+    @Nullable Instant lastSentAt() {
+        long millis = lastSentAtMillis;
+        return millis == 0L ? null : Instant.ofEpochMilli(millis);
+    }
+}
@@ -0,0 +1,70 @@
+package dev.savushkin.scada.mobile.backend.infrastructure.ws;
+
+import dev.savushkin.scada.mobile.backend.api.dto.WsSessionDTO;
+import dev.savushkin.scada.mobile.backend.config.jwt.WebSocketJwtInterceptor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.OptionalLong;
+
+/**
+ * Actuator-эндпоинт {@code /actuator/wssessions}: список WebSocket-сессий обоих каналов
+ * с пользователем, подпиской, backlog и временем последней отправки.
+ *
+ * <p>Сессии отсортированы так, чтобы медленные клиенты были сверху:
+ * по убыванию backlog, затем по убыванию длительности последней отправки.
+ * Доступ — только ADMIN (см. {@code SecurityConfig}).
+ */
+@Component
+@Endpoint(id = "wssessions")
+public class WsSessionsEndpoint {
+
+    private final LiveWsHandler liveWsHandler;
+    private final UnitWsHandler unitWsHandler;
+
+    public WsSessionsEndpoint(LiveWsHandler liveWsHandler, UnitWsHandler unitWsHandler) {
+        this.liveWsHandler = liveWsHandler;
+        this.unitWsHandler = unitWsHandler;
+    }
+
+    @ReadOperation
+    public List<WsSessionDTO> sessions() {
+        List<WsSessionDTO> result = new ArrayList<>();
+        for (WebSocketSession session : liveWsHandler.getSessions()) {
+            Long workshopId = LiveWsHandler.getSubscribedWorkshop(session);
+            result.add(toDto(session, WsMetrics.LIVE, workshopId == null ? null : "workshop:" + workshopId));
+        }
+        for (WebSocketSession session : unitWsHandler.getSessions()) {
+            result.add(toDto(session, WsMetrics.UNIT, "unit:" + UnitWsHandler.getUnitId(session)));
+        }
+        result.sort(Comparator.comparingInt(WsSessionDTO::backlog)
+                .thenComparingDouble(WsSessionDTO::lastSendMillis)
+                .reversed());
+        return result;
+    }
+
+    private static WsSessionDTO toDto(WebSocketSession session, String endpoint, String subscription) {
+        WsSessionStats stats = WsSessionStats.of(session);
+        OptionalLong userId = LiveWsHandler.resolveUserId(session);
+        Object role = session.getAttributes().get(WebSocketJwtInterceptor.ATTR_ROLE);
+        Instant lastSentAt = stats.lastSentAt();
+        return new WsSessionDTO(
+                session.getId(),
+                endpoint,
+                userId.isPresent() ? userId.getAsLong() : null,
+                role != null ? role.toString() : null,
+                subscription,
+                stats.connectedAt().toString(),
+                stats.backlog(),
+                stats.messagesSent(),
+                stats.lastSendNanos() / 1_000_000.0,
+                lastSentAt != null ? lastSentAt.toString() : null
+        );
+    }
+}
@@ -0,0 +1,189 @@
+package dev.savushkin.scada.mobile.backend.services;
+
+import dev.savushkin.scada.mobile.backend.api.dto.AlertErrorDTO;
+import dev.savushkin.scada.mobile.backend.api.dto.AlertMessageDTO;
+import dev.savushkin.scada.mobile.backend.application.ports.AlertHistoryRepository;
+import dev.savushkin.scada.mobile.backend.application.ports.AlertHistoryRepository.Cursor;
+import dev.savushkin.scada.mobile.backend.application.ports.AlertHistoryRepository.DowntimeTotal;
+import dev.savushkin.scada.mobile.backend.application.ports.AlertHistoryRepository.IncidentPage;
+import dev.savushkin.scada.mobile.backend.domain.model.AlertIncident;
+import jakarta.annotation.PreDestroy;
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Журнал инцидентов аппаратов: асинхронная пакетная запись и запросы по диапазону.
+ *
+ * <h3>Запись</h3>
+ * {@link #recordResolved(AlertMessageDTO, String)} вызывается из polling-потока
+ * ({@code StatusBroadcaster}) в момент устранения алёрта и только кладёт запись
+ * в ограниченную очередь — обращения к БД на poll-пути нет. {@link #flush()}
+ * по расписанию выгружает очередь пачками по {@code alert-history.batch-size}
+ * одним batch-INSERT. При переполнении очереди (БД недоступна долго) новые
+ * инциденты отбрасываются с WARN — опрос PrintSrv важнее истории.
+ *
+ * <h3>Чтение</h3>
+ * Простой считается как пересечение инцидента с запрошенным диапазоном.
+ * Инциденты, начавшиеся раньше {@code from}, учитываются, если начались не раньше
+ * чем за {@code alert-history.max-incident-days} до него: это ограничивает число
+ * партиций, которые читает запрос.
+ */
+@Service
+public class AlertHistoryService {
+
+    private static final Logger log = LoggerFactory.getLogger(AlertHistoryService.class);
+
+    private final AlertHistoryRepository historyRepository;
+    private final LinkedBlockingDeque<AlertIncident> pending;
+    private final int batchSize;
+    private final long maxIncidentDays;
+    private final AtomicLong dropped = new AtomicLong();
+
+    public AlertHistoryService(
+            AlertHistoryRepository historyRepository,
+            @Value("${alert-history.queue-capacity:10000}") int queueCapacity,
+            @Value("${alert-history.batch-size:500}") int batchSize,
+            @Value("${alert-history.max-incident-days:7}") long maxIncidentDays
+    ) {
+        this.historyRepository = historyRepository;
+        this.pending = new LinkedBlockingDeque<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.maxIncidentDays = maxIncidentDays;
+    }
+
+    // ─── Запись ──────────────────────────────────────────────────────────────
+
+    /**
+     * Ставит в очередь завершённый инцидент. Не блокирует вызывающий поток.
+     *
+     * @param alert      активный алёрт, который был устранён (timestamp — момент обнаружения)
+     * @param resolvedAt ISO-8601 метка устранения (UTC)
+     */
+    public void recordResolved(@NonNull AlertMessageDTO alert, @NonNull String resolvedAt) {
+        AlertIncident incident;
+        try {
+            incident = new AlertIncident(
+                    null,
+                    alert.unitId(),
+                    alert.workshopId(),
+                    alert.unitName(),
+                    alert.severity(),
+                    formatErrors(alert.errors()),
+                    LocalDateTime.parse(alert.timestamp()),
+                    LocalDateTime.parse(resolvedAt)
+            );
+        } catch (DateTimeParseException e) {
+            log.warn("Alert history: invalid timestamp for unit '{}': {}", alert.unitId(), e.getMessage());
+            return;
+        }
+
+        if (!pending.offerLast(incident)) {
+            long total = dropped.incrementAndGet();
+            log.warn("Alert history: queue full, incident dropped: unit='{}', droppedTotal={}",
+                    alert.unitId(), total);
+        }
+    }
+
+    /**
+     * Выгружает накопленные инциденты в БД пачками.
+     * <p>
+     * При ошибке БД пачка возвращается в начало очереди (в исходном порядке)
+     * и будет повторена на следующем тике.
+     */
+    @Scheduled(fixedDelayString = "${alert-history.flush-interval-ms:2000}")
+    public void flush() {
+        List<AlertIncident> batch = new ArrayList<>(batchSize);
+        while (pending.drainTo(batch, batchSize) > 0) {
+            try {
+                historyRepository.appendAll(batch);
+                log.debug("Alert history: flushed {} incident(s)", batch.size());
+            } catch (RuntimeException e) {
+                log.error("Alert history: failed to flush {} incident(s), will retry: {}",
+                        batch.size(), e.getMessage());
+                for (int i = batch.size() - 1; i >= 0; i--) {
+                    if (!pending.offerFirst(batch.get(i))) {
+                        dropped.incrementAndGet();
+                    }
+                }
+                return;
+            }
+            batch.clear();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    /**
+     * Число инцидентов, ожидающих записи.
+     */
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * Число инцидентов, отброшенных из-за переполнения очереди с момента старта.
+     */
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    // ─── Чтение ──────────────────────────────────────────────────────────────
+
+    public @NonNull IncidentPage getUnitHistory(
+            @NonNull String instanceId, @NonNull LocalDateTime from, @NonNull LocalDateTime to,
+            @Nullable Cursor after, int limit) {
+        return historyRepository.findByInstance(instanceId, from, to, after, limit);
+    }
+
+    public @NonNull IncidentPage getWorkshopHistory(
+            long workshopId, @NonNull LocalDateTime from, @NonNull LocalDateTime to,
+            @Nullable Cursor after, int limit) {
+        return historyRepository.findByWorkshop(workshopId, from, to, after, limit);
+    }
+
+    public @NonNull DowntimeTotal getUnitDowntime(
+            @NonNull String instanceId, @NonNull LocalDateTime from, @NonNull LocalDateTime to) {
+        return historyRepository.sumDowntimeByInstance(instanceId, lookbackStart(from), from, to);
+    }
+
+    public @NonNull Map<String, DowntimeTotal> getWorkshopDowntime(
+            long workshopId, @NonNull LocalDateTime from, @NonNull LocalDateTime to) {
+        return historyRepository.sumDowntimeByWorkshop(workshopId, lookbackStart(from), from, to);
+    }
+
+    // ─── Private ─────────────────────────────────────────────────────────────
+
+    private LocalDateTime lookbackStart(LocalDateTime from) {
+        return from.minusDays(maxIncidentDays);
+    }
+
+    private static String formatErrors(List<AlertErrorDTO> errors) {
+        if (errors == null || errors.isEmpty()) {
+            return null;
+        }
+        StringBuilder sb = new StringBuilder();
+        for (AlertErrorDTO error : errors) {
+            if (!sb.isEmpty()) {
+                sb.append('\n');
+            }
+            sb.append(error.device()).append(": ").append(error.message() == null ? "" : error.message());
+        }
+        return sb.toString();
+    }
+}
@@ -1,13 +1,14 @@
 package dev.savushkin.scada.mobile.backend.services;
 
 import dev.savushkin.scada.mobile.backend.application.ports.RefreshTokenRepository;
+import dev.savushkin.scada.mobile.backend.application.ports.RefreshTokenRepository.RotatedSession;
+import dev.savushkin.scada.mobile.backend.application.ports.RefreshTokenRepository.TokenState;
 import dev.savushkin.scada.mobile.backend.application.ports.UserAuthRepository;
 import dev.savushkin.scada.mobile.backend.application.ports.UserAuthRepository.AuthUserWithPassword;
 import dev.savushkin.scada.mobile.backend.config.jwt.JwtProperties;
 import dev.savushkin.scada.mobile.backend.config.jwt.JwtTokenProvider;
 import dev.savushkin.scada.mobile.backend.domain.auth.PasswordPolicy;
 import dev.savushkin.scada.mobile.backend.domain.model.AuthUser;
-import dev.savushkin.scada.mobile.backend.infrastructure.integration.database.entity.RefreshTokenEntity;
 import dev.savushkin.scada.mobile.backend.infrastructure.integration.database.entity.UserEntity;
 import dev.savushkin.scada.mobile.backend.infrastructure.integration.database.repository.UserJpaRepository;
 import org.jspecify.annotations.NonNull;
@@ -29,6 +30,7 @@ public class AuthService {
     private final JwtProperties jwtProperties;
     private final PasswordEncoder passwordEncoder;
     private final AdminNotificationService adminNotificationService;
+    private final UserActivityTracker userActivityTracker;
 
     public AuthService(UserAuthRepository userAuthRepository,
                        UserJpaRepository userJpaRepository,
@@ -36,7 +38,8 @@ public class AuthService {
                        JwtTokenProvider jwtTokenProvider,
                        JwtProperties jwtProperties,
                        PasswordEncoder passwordEncoder,
-                       AdminNotificationService adminNotificationService) {
+                       AdminNotificationService adminNotificationService,
+                       UserActivityTracker userActivityTracker) {
         this.userAuthRepository = userAuthRepository;
         this.userJpaRepository = userJpaRepository;
         this.refreshTokenRepository = refreshTokenRepository;
@@ -44,6 +47,7 @@ public class AuthService {
         this.jwtProperties = jwtProperties;
         this.passwordEncoder = passwordEncoder;
         this.adminNotificationService = adminNotificationService;
+        this.userActivityTracker = userActivityTracker;
     }
 
     public @NonNull AuthUser authenticate(@NonNull String workerCode, @NonNull String password) {
@@ -75,89 +79,63 @@ public class AuthService {
 
     /**
      * Создаёт новую пару access + refresh токенов для пользователя.
+     * <p>
+     * Пользователь не загружается целиком: читается только имя роли, refresh-токен
+     * вставляется по id, а активность фиксируется через {@link UserActivityTracker}.
      */
     @Transactional
     public @NonNull TokenPair createTokenPair(@NonNull AuthUser user) {
-        UserEntity userEntity = userJpaRepository.findByIdWithRole(user.id())
+        String role = userJpaRepository.findRoleNameById(user.id())
                 .orElseThrow(() -> new InvalidCredentialsException(user.code()));
 
-        userEntity.setLastActivityAt(LocalDateTime.now());
-        userJpaRepository.save(userEntity);
-
-        String role = userEntity.getRole().getName();
         String accessToken = jwtTokenProvider.generateAccessToken(user.id(), role, user.passwordTemporary());
 
         String rawRefresh = jwtTokenProvider.generateRefreshToken();
-        String refreshHash = jwtTokenProvider.hashRefreshToken(rawRefresh);
-
-        RefreshTokenEntity entity = new RefreshTokenEntity();
-        entity.setUser(userEntity);
-        entity.setTokenHash(refreshHash);
-        entity.setCreatedAt(Instant.now());
-        entity.setExpiresAt(Instant.now().plus(jwtProperties.getRefreshExpirationDays(), ChronoUnit.DAYS));
-        entity.setRevoked(false);
-        refreshTokenRepository.save(entity);
+        Instant now = Instant.now();
+        refreshTokenRepository.issue(user.id(), jwtTokenProvider.hashRefreshToken(rawRefresh), now, refreshExpiry(now));
 
+        userActivityTracker.touch(user.id());
         return new TokenPair(accessToken, rawRefresh);
     }
 
     /**
      * Обновляет пару токенов по refresh-токену (ротация).
-     * Старый refresh-токен отзывается, создаётся новый.
+     * <p>
+     * Отзыв старого и выдача нового токена — один SQL-запрос
+     * ({@link RefreshTokenRepository#rotate}). Причина отказа выясняется
+     * отдельным чтением только на неуспешном пути.
      */
     @Transactional
     public @NonNull TokenPair rotateTokens(@NonNull String rawRefreshToken) {
         String hash = jwtTokenProvider.hashRefreshToken(rawRefreshToken);
-        RefreshTokenEntity existing = refreshTokenRepository.findByTokenHash(hash)
-                .orElseThrow(() -> new InvalidRefreshTokenException("Refresh token not found"));
-
-        if (existing.isRevoked()) {
-            throw new InvalidRefreshTokenException("Refresh token revoked");
-        }
-        if (existing.getExpiresAt().isBefore(Instant.now())) {
-            throw new InvalidRefreshTokenException("Refresh token expired");
-        }
-
-        UserEntity user = existing.getUser();
-        // Деактивированный пользователь не должен продлевать сессию,
-        // даже если отзыв его токенов ещё не добрался до репозитория.
-        if (!user.isActive()) {
-            throw new InvalidRefreshTokenException("User is deactivated");
-        }
-        existing.setRevoked(true);
-        refreshTokenRepository.save(existing);
-
-        user.setLastActivityAt(LocalDateTime.now());
-        userJpaRepository.save(user);
-
-        String role = user.getRole().getName();
-        String accessToken = jwtTokenProvider.generateAccessToken(user.getId(), role, user.isPasswordTemporary());
-
         String newRawRefresh = jwtTokenProvider.generateRefreshToken();
         String newRefreshHash = jwtTokenProvider.hashRefreshToken(newRawRefresh);
+        Instant now = Instant.now();
+
+        RotatedSession session = refreshTokenRepository.rotate(hash, newRefreshHash, now, refreshExpiry(now))
+                .orElseThrow(() -> rejectionReason(hash, now));
 
-        RefreshTokenEntity newEntity = new RefreshTokenEntity();
-        newEntity.setUser(user);
-        newEntity.setTokenHash(newRefreshHash);
-        newEntity.setCreatedAt(Instant.now());
-        newEntity.setExpiresAt(Instant.now().plus(jwtProperties.getRefreshExpirationDays(), ChronoUnit.DAYS));
-        newEntity.setRevoked(false);
-        refreshTokenRepository.save(newEntity);
+        String accessToken = jwtTokenProvider.generateAccessToken(
+                session.userId(), session.role(), session.passwordTemporary());
 
+        userActivityTracker.touch(session.userId());
         return new TokenPair(accessToken, newRawRefresh);
     }
 
     /**
      * Отзывает конкретный refresh-токен (logout).
+     * <p>
+     * Уже отозванный или неизвестный токен определяется по кэшу состояния
+     * без UPDATE в БД (повторный logout, logout после ротации).
      */
     @Transactional
     public void revokeRefreshToken(@NonNull String rawRefreshToken) {
         String hash = jwtTokenProvider.hashRefreshToken(rawRefreshToken);
-        RefreshTokenEntity entity = refreshTokenRepository.findByTokenHash(hash)
-                .orElse(null);
-        if (entity != null && !entity.isRevoked()) {
-            entity.setRevoked(true);
-            refreshTokenRepository.save(entity);
+        boolean revocable = refreshTokenRepository.findStateByTokenHash(hash)
+                .map(state -> !state.revoked())
+                .orElse(false);
+        if (revocable) {
+            refreshTokenRepository.revoke(hash);
         }
     }
 
@@ -203,19 +181,35 @@ public class AuthService {
         String accessToken = jwtTokenProvider.generateAccessToken(user.getId(), role, false);
 
         String newRawRefresh = jwtTokenProvider.generateRefreshToken();
-        String newRefreshHash = jwtTokenProvider.hashRefreshToken(newRawRefresh);
-
-        RefreshTokenEntity newEntity = new RefreshTokenEntity();
-        newEntity.setUser(user);
-        newEntity.setTokenHash(newRefreshHash);
-        newEntity.setCreatedAt(Instant.now());
-        newEntity.setExpiresAt(Instant.now().plus(jwtProperties.getRefreshExpirationDays(), ChronoUnit.DAYS));
-        newEntity.setRevoked(false);
-        refreshTokenRepository.save(newEntity);
+        Instant now = Instant.now();
+        refreshTokenRepository.issue(user.getId(), jwtTokenProvider.hashRefreshToken(newRawRefresh), now, refreshExpiry(now));
 
         return new TokenPair(accessToken, newRawRefresh);
     }
 
+    private Instant refreshExpiry(Instant issuedAt) {
+        return issuedAt.plus(jwtProperties.getRefreshExpirationDays(), ChronoUnit.DAYS);
+    }
+
+    /**
+     * Определяет, почему ротация не выполнена, — для журнала и сообщения об ошибке.
+     */
+    private InvalidRefreshTokenException rejectionReason(String hash, Instant now) {
+        TokenState state = refreshTokenRepository.findStateByTokenHash(hash).orElse(null);
+        if (state == null) {
+            return new InvalidRefreshTokenException("Refresh token not found");
+        }
+        if (state.revoked()) {
+            return new InvalidRefreshTokenException("Refresh token revoked");
+        }
+        if (!state.expiresAt().isAfter(now)) {
+            return new InvalidRefreshTokenException("Refresh token expired");
+        }
+        // Деактивированный пользователь не должен продлевать сессию,
+        // даже если отзыв его токенов ещё не добрался до репозитория.
+        return new InvalidRefreshTokenException("User is deactivated");
+    }
+
     private String normalize(String value) {
         return value == null ? "" : value.trim();
     }
@@ -0,0 +1,360 @@
+package dev.savushkin.scada.mobile.backend.services;
+
+import dev.savushkin.scada.mobile.backend.api.dto.CounterPointDTO;
+import dev.savushkin.scada.mobile.backend.api.dto.CounterSeriesDTO;
+import dev.savushkin.scada.mobile.backend.application.ports.CounterTimeSeriesRepository;
+import dev.savushkin.scada.mobile.backend.application.ports.InstanceSnapshotRepository;
+import dev.savushkin.scada.mobile.backend.domain.model.*;
+import dev.savushkin.scada.mobile.backend.infrastructure.polling.PrintSrvInstancePolledEvent;
+import dev.savushkin.scada.mobile.backend.infrastructure.polling.PrintSrvInstancesPolledEvent;
+import jakarta.annotation.PreDestroy;
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Временные ряды счётчиков устройств: камеры ({@code Total}, {@code Failed})
+ * и прогресс принтеров ({@code CurItem}).
+ *
+ * <h3>Запись</h3>
+ * После каждого scan cycle ({@link PrintSrvInstancePolledEvent}, от конвейера приёма —
+ * пачкой {@link PrintSrvInstancesPolledEvent}) значения счётчиков берутся из in-memory снимка аппарата. Точка ставится в очередь, только если значение
+ * изменилось с прошлого опроса, — простаивающая линия не порождает записей.
+ * {@link #flush()} по расписанию выгружает очередь пачками: сырые точки пишутся
+ * batch-INSERT-ом, а из той же пачки в памяти строятся частичные агрегаты
+ * 1 мин / 15 мин / 1 ч, которые сливаются с уже записанными upsert-ом
+ * в той же транзакции.
+ *
+ * <h3>Чтение</h3>
+ * Графики читают только агрегаты. Если разрешение не задано, выбирается самое мелкое,
+ * которое даёт не больше {@code counters.max-points} точек и ещё хранится
+ * на всём запрошенном диапазоне.
+ *
+ * <h3>Хранение</h3>
+ * {@link #purgeExpired()} удаляет сырые точки и агрегаты старше их срока хранения
+ * ограниченными пачками.
+ */
+@Service
+public class CounterTimeSeriesService {
+
+    private static final Logger log = LoggerFactory.getLogger(CounterTimeSeriesService.class);
+
+    private final InstanceSnapshotRepository snapshotRepository;
+    private final CounterTimeSeriesRepository timeSeriesRepository;
+    private final LinkedBlockingDeque<CounterSample> pending;
+    private final int batchSize;
+    private final int maxPoints;
+    private final int deleteBatchSize;
+    private final Duration rawRetention;
+    private final Map<RollupResolution, Duration> rollupRetention;
+
+    /**
+     * Последнее поставленное в очередь значение по ряду — для отсечения неизменившихся точек.
+     * Отброшенная при переполнении точка сюда не попадает: то же значение на следующем
+     * опросе будет поставлено снова.
+     */
+    private final ConcurrentHashMap<CounterSeries, Double> lastValues = new ConcurrentHashMap<>();
+    private final AtomicLong dropped = new AtomicLong();
+
+    public CounterTimeSeriesService(
+            InstanceSnapshotRepository snapshotRepository,
+            CounterTimeSeriesRepository timeSeriesRepository,
+            @Value("${counters.queue-capacity:50000}") int queueCapacity,
+            @Value("${counters.batch-size:1000}") int batchSize,
+            @Value("${counters.max-points:500}") int maxPoints,
+            @Value("${counters.retention.delete-batch-size:10000}") int deleteBatchSize,
+            @Value("${counters.retention.raw-days:2}") long rawDays,
+            @Value("${counters.retention.minute-days:7}") long minuteDays,
+            @Value("${counters.retention.quarter-hour-days:90}") long quarterHourDays,
+            @Value("${counters.retention.hour-days:730}") long hourDays
+    ) {
+        this.snapshotRepository = snapshotRepository;
+        this.timeSeriesRepository = timeSeriesRepository;
+        this.pending = new LinkedBlockingDeque<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.maxPoints = maxPoints;
+        this.deleteBatchSize = deleteBatchSize;
+        this.rawRetention = Duration.ofDays(rawDays);
+        this.rollupRetention = new EnumMap<>(Map.of(
+                RollupResolution.MINUTE, Duration.ofDays(minuteDays),
+                RollupResolution.QUARTER_HOUR, Duration.ofDays(quarterHourDays),
+                RollupResolution.HOUR, Duration.ofDays(hourDays)));
+    }
+
+    // ─── Запись ──────────────────────────────────────────────────────────────
+
+    /**
+     * Снимает значения счётчиков аппарата после scan cycle. Не обращается к БД.
+     */
+    @EventListener
+    public void onInstancePolled(PrintSrvInstancePolledEvent event) {
+        sampleInstance(event.instanceId(), LocalDateTime.now(ZoneOffset.UTC));
+    }
+
+    /**
+     * То же для пачки конвейера приёма: по одному снятию на аппарат пачки.
+     */
+    @EventListener
+    public void onInstancesPolled(PrintSrvInstancesPolledEvent batch) {
+        LocalDateTime now = LocalDateTime.now(ZoneOffset.UTC);
+        for (PrintSrvInstancePolledEvent event : batch.instances()) {
+            sampleInstance(event.instanceId(), now);
+        }
+    }
+
+    private void sampleInstance(String instanceId, LocalDateTime now) {
+        Map<String, DeviceSnapshot> devices = snapshotRepository.getAllForInstance(instanceId);
+        if (devices.isEmpty()) {
+            return;
+        }
+        for (DeviceSnapshot device : devices.values()) {
+            UnitProperties properties = firstUnitProperties(device);
+            if (properties == null) {
+                continue;
+            }
+            for (CounterMetric metric : CounterMetric.values()) {
+                if (!metric.appliesTo(device.deviceName())) {
+                    continue;
+                }
+                Double value = readValue(metric, properties);
+                if (value != null) {
+                    record(new CounterSeries(instanceId, device.deviceName(), metric), now, value);
+                }
+            }
+        }
+    }
+
+    /**
+     * Выгружает накопленные точки в БД пачками.
+     * <p>
+     * При ошибке БД пачка возвращается в начало очереди (в исходном порядке) и будет
+     * повторена на следующем тике первой — точки ряда остаются упорядочены по времени.
+     * Точки, не поместившиеся обратно, отбрасываются.
+     */
+    @Scheduled(fixedDelayString = "${counters.flush-interval-ms:5000}")
+    public void flush() {
+        List<CounterSample> batch = new ArrayList<>(batchSize);
+        while (pending.drainTo(batch, batchSize) > 0) {
+            try {
+                timeSeriesRepository.appendBatch(batch, aggregate(batch));
+                log.debug("Counters: flushed {} sample(s)", batch.size());
+            } catch (RuntimeException e) {
+                log.error("Counters: failed to flush {} sample(s), will retry: {}", batch.size(), e.getMessage());
+                for (int i = batch.size() - 1; i >= 0; i--) {
+                    if (!pending.offerFirst(batch.get(i))) {
+                        dropped.incrementAndGet();
+                    }
+                }
+                return;
+            }
+            batch.clear();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    /**
+     * Число точек, ожидающих записи.
+     */
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * Число точек, отброшенных из-за переполнения очереди с момента старта.
+     */
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    // ─── Хранение ────────────────────────────────────────────────────────────
+
+    /**
+     * Удаляет сырые точки и агрегаты старше их срока хранения.
+     *
+     * @return общее число удалённых строк
+     */
+    public long purgeExpired() {
+        LocalDateTime now = LocalDateTime.now(ZoneOffset.UTC);
+        long deleted = drain(limit -> timeSeriesRepository.deleteSamplesBefore(now.minus(rawRetention), limit));
+        for (Map.Entry<RollupResolution, Duration> entry : rollupRetention.entrySet()) {
+            LocalDateTime cutoff = now.minus(entry.getValue());
+            deleted += drain(limit -> timeSeriesRepository.deleteRollupsBefore(entry.getKey(), cutoff, limit));
+        }
+        return deleted;
+    }
+
+    // ─── Чтение ──────────────────────────────────────────────────────────────
+
+    /**
+     * Возвращает ряд счётчика, готовый для графика.
+     *
+     * @param resolution разрешение; {@code null} — выбрать автоматически
+     * @throws IllegalArgumentException если устройство не подходит для метрики
+     */
+    public @NonNull CounterSeriesDTO getSeries(
+            @NonNull String instanceId,
+            @NonNull String device,
+            @NonNull CounterMetric metric,
+            @Nullable RollupResolution resolution,
+            @NonNull LocalDateTime from,
+            @NonNull LocalDateTime to
+    ) {
+        if (!metric.appliesTo(device)) {
+            throw new IllegalArgumentException(
+                    "Metric " + metric + " is not recorded for device '" + device + "'");
+        }
+        RollupResolution effective = resolution != null ? resolution : chooseResolution(from, to);
+        CounterSeries series = new CounterSeries(instanceId, device, metric);
+        List<CounterRollup> rollups = timeSeriesRepository.findRollups(
+                series, effective, effective.bucketStart(from), to);
+
+        List<CounterPointDTO> points = new ArrayList<>(rollups.size());
+        CounterRollup previous = null;
+        for (CounterRollup rollup : rollups) {
+            points.add(new CounterPointDTO(
+                    rollup.bucketStart().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME),
+                    rollup.lastValue(),
+                    rollup.minValue(),
+                    rollup.maxValue(),
+                    increase(previous, rollup)));
+            previous = rollup;
+        }
+        return new CounterSeriesDTO(
+                instanceId,
+                device,
+                metric.name(),
+                effective.code(),
+                from.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME),
+                to.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME),
+                points);
+    }
+
+    // ─── Private ─────────────────────────────────────────────────────────────
+
+    private void record(CounterSeries series, LocalDateTime at, double value) {
+        Double last = lastValues.get(series);
+        if (last != null && last == value) {
+            return;
+        }
+        if (!pending.offerLast(new CounterSample(series, at, value))) {
+            long total = dropped.incrementAndGet();
+            if (total % 1000 == 1) {
+                log.warn("Counters: queue full, samples dropped: droppedTotal={}", total);
+            }
+            return;
+        }
+        lastValues.put(series, value);
+    }
+
+    /**
+     * Строит частичные агрегаты всех разрешений из пачки сырых точек.
+     */
+    private static List<CounterRollup> aggregate(List<CounterSample> samples) {
+        Map<RollupKey, CounterRollup> rollups = new LinkedHashMap<>();
+        for (CounterSample sample : samples) {
+            for (RollupResolution resolution : RollupResolution.values()) {
+                CounterRollup rollup = CounterRollup.of(sample, resolution);
+                rollups.merge(new RollupKey(sample.series(), resolution, rollup.bucketStart()),
+                        rollup, CounterRollup::merge);
+            }
+        }
+        return new ArrayList<>(rollups.values());
+    }
+
+    /**
+     * Самое мелкое разрешение, дающее не больше {@code maxPoints} точек
+     * и ещё хранящееся на начале диапазона; иначе — самое крупное.
+     */
+    private RollupResolution chooseResolution(LocalDateTime from, LocalDateTime to) {
+        long rangeSeconds = Duration.between(from, to).getSeconds();
+        LocalDateTime now = LocalDateTime.now(ZoneOffset.UTC);
+        for (RollupResolution resolution : RollupResolution.values()) {
+            boolean fits = rangeSeconds / resolution.seconds() <= maxPoints;
+            boolean retained = !from.isBefore(now.minus(rollupRetention.get(resolution)));
+            if (fits && retained) {
+                return resolution;
+            }
+        }
+        return RollupResolution.HOUR;
+    }
+
+    /**
+     * Прирост счётчика за бакет: от последнего значения предыдущего бакета
+     * (или первого значения текущего) до последнего значения текущего.
+     * Уменьшение значения трактуется как сброс счётчика (новая партия / перезапуск
+     * устройства) — прирост считается от нуля.
+     */
+    private static double increase(@Nullable CounterRollup previous, CounterRollup current) {
+        double base = previous != null ? previous.lastValue() : current.firstValue();
+        double delta = current.lastValue() - base;
+        return delta >= 0 ? delta : current.lastValue();
+    }
+
+    /**
+     * Повторяет удаление пачками по {@code deleteBatchSize}, пока пачка не окажется неполной.
+     */
+    private long drain(IntUnaryOperator deleteBatch) {
+        long total = 0;
+        int deleted;
+        do {
+            deleted = deleteBatch.applyAsInt(deleteBatchSize);
+            total += deleted;
+        } while (deleted >= deleteBatchSize);
+        return total;
+    }
+
+    private static @Nullable UnitProperties firstUnitProperties(DeviceSnapshot device) {
+        for (UnitSnapshot unit : device.units().values()) {
+            if (unit.properties() != null) {
+                return unit.properties();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Значение счётчика из свойств устройства; {@code null}, если свойства нет
+     * или оно не число. {@code CurItem} имеет вид {@code "0 | 245 | 17.01.2026"} —
+     * берётся первое поле.
+     */
+    private static @Nullable Double readValue(CounterMetric metric, UnitProperties properties) {
+        String raw = metric == CounterMetric.PRINTER_CUR_ITEM
+                ? properties.getCurItem().orElse(null)
+                : properties.getRawProperties().get(metric.scadaKey());
+        if (raw == null) {
+            return null;
+        }
+        int separator = raw.indexOf('|');
+        String number = (separator >= 0 ? raw.substring(0, separator) : raw).trim();
+        if (number.isEmpty()) {
+            return null;
+        }
+        try {
+            return Double.parseDouble(number);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private record RollupKey(CounterSeries series, RollupResolution resolution, LocalDateTime bucketStart) {
+    }
+}
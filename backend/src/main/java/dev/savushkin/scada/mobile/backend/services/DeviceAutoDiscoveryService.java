@@ -5,6 +5,7 @@ import dev.savushkin.scada.mobile.backend.domain.model.ChangeAction;
 import dev.savushkin.scada.mobile.backend.domain.model.CompositionDiff;
 import dev.savushkin.scada.mobile.backend.domain.model.DeviceCatalogChangedEvent;
 import dev.savushkin.scada.mobile.backend.domain.model.DeviceChangedEvent;
+import dev.savushkin.scada.mobile.backend.domain.model.PrintSrvInstance;
 import dev.savushkin.scada.mobile.backend.infrastructure.integration.database.entity.DeviceCatalogEntity;
 import dev.savushkin.scada.mobile.backend.infrastructure.integration.database.entity.DeviceEntity;
 import dev.savushkin.scada.mobile.backend.infrastructure.integration.database.entity.UnitEntity;
@@ -20,6 +21,11 @@ import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 /**
@@ -37,6 +43,10 @@ import java.util.Set;
  *   <li>Для пропавших устройств (есть в БД, нет в runtime) — уведомляет админа Warning один раз
  *       до восстановления устройства.</li>
  * </ol>
+ * <p>
+ * Конвейер приёма вызывает сервис пачкой: {@link #findDivergedInstances} сверяет все аппараты
+ * пачки по одному чтению топологии, и транзакция {@link #syncRuntimeDevices} открывается только
+ * для аппаратов с расхождениями.
  */
 @Service
 public class DeviceAutoDiscoveryService {
@@ -70,6 +80,32 @@ public class DeviceAutoDiscoveryService {
         this.eventPublisher = eventPublisher;
     }
 
+    /**
+     * Аппараты, у которых состав устройств в runtime расходится с БД.
+     * <p>
+     * Топология читается одним запросом на всю пачку, сравнение — в памяти; транзакция не открывается.
+     *
+     * @param instanceIds аппараты пачки
+     * @return аппараты, для которых нужен {@link #syncRuntimeDevices(String)}
+     */
+    public @NonNull List<String> findDivergedInstances(@NonNull Collection<String> instanceIds) {
+        if (instanceIds.isEmpty()) {
+            return List.of();
+        }
+        Map<String, PrintSrvInstance> topology = new HashMap<>();
+        for (PrintSrvInstance inst : topologyAdapter.findAllActiveInstances()) {
+            topology.put(inst.instanceId(), inst);
+        }
+        List<String> diverged = new ArrayList<>();
+        for (String instanceId : instanceIds) {
+            PrintSrvInstance inst = topology.get(instanceId);
+            if (inst != null && !compositionService.compareWithRuntime(inst).isEmpty()) {
+                diverged.add(instanceId);
+            }
+        }
+        return diverged;
+    }
+
     /**
      * Синхронизирует устройства из runtime с БД и создаёт уведомления администратору.
      *
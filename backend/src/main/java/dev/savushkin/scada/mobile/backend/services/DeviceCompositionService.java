@@ -154,9 +154,16 @@ public class DeviceCompositionService {
         if (inst == null) {
             return CompositionDiff.empty();
         }
+        return compareWithRuntime(inst);
+    }
 
+    /**
+     * То же, что {@link #compareWithRuntime(String)}, по уже загруженной топологии аппарата —
+     * без обращения к БД.
+     */
+    public @NonNull CompositionDiff compareWithRuntime(@NonNull PrintSrvInstance inst) {
         DeviceComposition db = fromDb(inst);
-        DeviceComposition runtime = fromLineSnapshot(instanceId, inst);
+        DeviceComposition runtime = fromLineSnapshot(inst.instanceId(), inst);
         if (runtime == null) {
             return CompositionDiff.empty();
         }
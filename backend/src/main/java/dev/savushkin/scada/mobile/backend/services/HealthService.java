@@ -1,6 +1,10 @@
 package dev.savushkin.scada.mobile.backend.services;
 
 import dev.savushkin.scada.mobile.backend.application.ScadaApplicationService;
+import dev.savushkin.scada.mobile.backend.infrastructure.cluster.ClusterNode;
+import dev.savushkin.scada.mobile.backend.infrastructure.ingestion.IngestionRuntime;
+import dev.savushkin.scada.mobile.backend.infrastructure.startup.StartupWarmup;
+import org.jspecify.annotations.Nullable;
 import org.springframework.stereotype.Service;
 
 
@@ -14,9 +18,20 @@ import org.springframework.stereotype.Service;
 public class HealthService {
 
     private final ScadaApplicationService applicationService;
+    private final IngestionRuntime ingestionRuntime;
+    private final ClusterNode clusterNode;
+    private final StartupWarmup startupWarmup;
 
-    public HealthService(ScadaApplicationService applicationService) {
+    public HealthService(
+            ScadaApplicationService applicationService,
+            IngestionRuntime ingestionRuntime,
+            ClusterNode clusterNode,
+            StartupWarmup startupWarmup
+    ) {
         this.applicationService = applicationService;
+        this.ingestionRuntime = ingestionRuntime;
+        this.clusterNode = clusterNode;
+        this.startupWarmup = startupWarmup;
     }
 
     /**
@@ -31,11 +46,27 @@ public class HealthService {
     /**
      * Readiness: сервис "готов" отдавать данные.
      * <p>
-     * Для текущей архитектуры это означает: первый snapshot уже получен из PrintSrv.
+     * Для текущей архитектуры это означает: прогрев ({@link StartupWarmup}) закончился,
+     * начальная загрузка источника данных завершена (для TCP-опроса — первый проход всех
+     * инстансов) и хотя бы один snapshot получен. WS-узел кластера приёма данных не ведёт
+     * и готов, когда получил полное состояние от лидера.
      *
-     * @return true, если snapshot уже загружен.
+     * @return true, если прогрев и начальная загрузка завершены и snapshot уже загружен.
      */
     public boolean isReady() {
-        return applicationService.isReady();
+        if (!startupWarmup.isComplete()) {
+            return false;
+        }
+        if (clusterNode.isWs()) {
+            return clusterNode.isReplicaSynced();
+        }
+        return ingestionRuntime.isInitialLoadComplete() && applicationService.isReady();
+    }
+
+    /**
+     * Причина ошибки прогрева при старте; {@code null}, если прогрев прошёл или выключен.
+     */
+    public @Nullable String getWarmupFailure() {
+        return startupWarmup.getFailure();
     }
 }
@@ -26,6 +26,15 @@ import java.util.Set;
  *   <li>Event listener ({@code StatusBroadcaster}) обновляет WS-projection store и рассылает.</li>
  * </ol>
  *
+ * <p>Активные уведомления переживают рестарт: они хранятся в БД вместе с историей,
+ * а {@link #getActiveNotifications()} отдаёт их из кэша в памяти.
+ *
+ * <h3>Несколько узлов</h3>
+ * Кэш узла узнаёт об изменениях других узлов с задержкой шины кластера. Поэтому отказ
+ * ({@link ToggleResult.AlreadyActiveByOther}) сверяется с БД
+ * ({@link NotificationRepository#reloadActiveByUnitId}), а собственное уведомление, которое
+ * кэш ещё не видел (активация упёрлась в уникальный индекс), снимается — как и при попадании в кэш.
+ *
  * <h3>Инварианты</h3>
  * <ul>
  *   <li>Нельзя отправить уведомление от аппарата, к которому работник не закреплён → {@link NotificationAccessDeniedException}.</li>
@@ -81,17 +90,15 @@ public class NotificationService {
         // 2. Проверка текущего состояния
         ProductionNotification existing = notificationRepository.findActiveByUnitId(unitId)
                 .orElse(null);
+        if (existing != null && !existing.creatorId().equals(userIdValue)) {
+            // Кэш мог не узнать о снятии на другом узле — отказ принимаем только по БД
+            existing = notificationRepository.reloadActiveByUnitId(unitId).orElse(null);
+        }
 
         if (existing != null) {
             if (existing.creatorId().equals(userIdValue)) {
                 // Тот же создатель → deactivate
-                ProductionNotification deactivated = existing.deactivate();
-                notificationRepository.save(deactivated);
-                eventPublisher.publishEvent(
-                        new NotificationStateChangedEvent(unitId, deactivated,
-                                NotificationStateChangedEvent.EventType.DEACTIVATED));
-                log.info("Notification deactivated: unitId='{}' by userId='{}'", unitId, userIdValue);
-                return new ToggleResult.Deactivated(unitId);
+                return deactivate(existing, userIdValue);
             } else {
                 // Другой создатель → нельзя деактивировать
                 log.warn("Notification already active by other: unitId='{}', creator='{}', requester='{}'",
@@ -102,7 +109,19 @@ public class NotificationService {
 
         // 3. Активация
         ProductionNotification activated = ProductionNotification.activate(unitId, userIdValue);
-        notificationRepository.save(activated);
+        NotificationRepository.SaveResult saved = notificationRepository.save(activated);
+        if (!saved.created()) {
+            ProductionNotification stored = saved.notification();
+            // Уведомление уже активно: активировано на другом узле (кэш ещё не получил событие)
+            // или параллельным запросом. Его событие уже разослано, повторно не публикуем
+            if (!stored.creatorId().equals(userIdValue)) {
+                log.warn("Notification already active by other: unitId='{}', creator='{}', requester='{}'",
+                        unitId, stored.creatorId(), userIdValue);
+                return new ToggleResult.AlreadyActiveByOther(unitId, stored.creatorId());
+            }
+            // Своё активное уведомление → toggle снимает его
+            return deactivate(stored, userIdValue);
+        }
         eventPublisher.publishEvent(
                 new NotificationStateChangedEvent(unitId, activated,
                         NotificationStateChangedEvent.EventType.ACTIVATED));
@@ -110,6 +129,17 @@ public class NotificationService {
         return new ToggleResult.Activated(unitId, userIdValue);
     }
 
+    private ToggleResult deactivate(ProductionNotification existing, String userIdValue) {
+        String unitId = existing.unitId();
+        ProductionNotification deactivated = existing.deactivate(userIdValue);
+        notificationRepository.save(deactivated);
+        eventPublisher.publishEvent(
+                new NotificationStateChangedEvent(unitId, deactivated,
+                        NotificationStateChangedEvent.EventType.DEACTIVATED));
+        log.info("Notification deactivated: unitId='{}' by userId='{}'", unitId, userIdValue);
+        return new ToggleResult.Deactivated(unitId);
+    }
+
     /**
      * Возвращает все активные уведомления.
      * Используется для построения {@code NOTIFICATION_SNAPSHOT} при WS-коннекте.
@@ -18,6 +18,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
@@ -79,6 +80,14 @@ public class UnitDetailService {
             "Error",      "Общая ошибка устройства"
     );
 
+    /**
+     * Коды типов устройств ({@code device_types.code}) — проставляются в {@link DeviceError#deviceType()}.
+     */
+    private static final String TYPE_PRINTER = "printer";
+    private static final String TYPE_AGGREGATION_CAM = "aggregation_cam";
+    private static final String TYPE_AGGREGATION_BOX_CAM = "aggregation_box_cam";
+    private static final String TYPE_CHECKER_CAM = "checker_cam";
+
     private final PrintSrvTopologyRepository topologyRepo;
     private final InstanceSnapshotRepository snapshotRepo;
     private final UnitErrorStore unitErrorStore;
@@ -169,7 +178,8 @@ public class UnitDetailService {
             items.add(parseQueueItem(i, raw));
         }
 
-        return QueueMessageDTO.of(instanceId, nowUtc(), new QueueMessageDTO.Payload(items));
+        return QueueMessageDTO.of(instanceId, nowUtc(), dataTimestamp(instanceId),
+                new QueueMessageDTO.Payload(items));
     }
 
     /**
@@ -236,7 +246,7 @@ public class UnitDetailService {
                 cameraUnread
         );
 
-        return LineStatusMessageDTO.of(instanceId, nowUtc(), payload);
+        return LineStatusMessageDTO.of(instanceId, nowUtc(), dataTimestamp(instanceId), payload);
     }
 
     /**
@@ -264,6 +274,7 @@ public class UnitDetailService {
         return ErrorsMessageDTO.of(
                 instanceId,
                 nowUtc(),
+                dataTimestamp(instanceId),
                 new ErrorsMessageDTO.Payload(deviceErrors, Collections.emptyList())
         );
     }
@@ -309,7 +320,7 @@ public class UnitDetailService {
         DevicesStatusMessageDTO.Payload payload = new DevicesStatusMessageDTO.Payload(
                 printers, aggregationCams, aggregationBoxCams, checkerCams);
 
-        return DevicesStatusMessageDTO.of(instanceId, nowUtc(), payload);
+        return DevicesStatusMessageDTO.of(instanceId, nowUtc(), dataTimestamp(instanceId), payload);
     }
 
     /**
@@ -330,13 +341,13 @@ public class UnitDetailService {
         if (inst == null) return List.of();
 
         DeviceComposition composition = deviceCompositionService.getComposition(instanceId);
-        List<String> allowedPrefixes = buildErrorDevicePrefixes(composition);
-        if (allowedPrefixes.isEmpty()) {
+        Map<String, String> deviceTypeByPrefix = buildErrorDevicePrefixes(composition);
+        if (deviceTypeByPrefix.isEmpty()) {
             return List.of();
         }
 
         Map<String, List<DeviceError>> errorsByDevice = new LinkedHashMap<>();
-        for (String prefix : allowedPrefixes) {
+        for (String prefix : deviceTypeByPrefix.keySet()) {
             errorsByDevice.put(prefix, new ArrayList<>());
         }
 
@@ -354,7 +365,13 @@ public class UnitDetailService {
             if (bucket == null) {
                 continue; // ignore errors for devices outside composition
             }
-            bucket.add(new DeviceError(objectName, key, descriptionForKey(key)));
+            String kind = key.substring(objectName.length());
+            bucket.add(new DeviceError(
+                    objectName,
+                    key,
+                    descriptionForKey(key),
+                    deviceTypeByPrefix.get(objectName),
+                    kind));
         }
 
         List<DeviceError> errors = new ArrayList<>();
@@ -551,40 +568,42 @@ public class UnitDetailService {
         return value != null && !value.isBlank() && !"0".equals(value);
     }
 
-    private static @NonNull List<String> buildErrorDevicePrefixes(DeviceComposition composition) {
-        LinkedHashSet<String> prefixes = new LinkedHashSet<>();
+    /**
+     * Строит упорядоченную карту scada-префиксов устройств аппарата → код типа устройства.
+     * Порядок ключей задаёт порядок ошибок в {@link #extractActiveErrors(String)}.
+     */
+    private static @NonNull Map<String, String> buildErrorDevicePrefixes(DeviceComposition composition) {
+        LinkedHashMap<String, String> prefixes = new LinkedHashMap<>();
 
         for (String printer : composition.printers()) {
             List<String> printerPrefixes = ScadaKeyMapper.printerScadaPrefixes(printer);
             if (printerPrefixes.isEmpty()) {
-                prefixes.add(printer);
+                prefixes.putIfAbsent(printer, TYPE_PRINTER);
             } else {
-                prefixes.addAll(printerPrefixes);
+                for (String prefix : printerPrefixes) {
+                    prefixes.putIfAbsent(prefix, TYPE_PRINTER);
+                }
             }
         }
 
         for (int i = 0; i < composition.aggregationCams().size(); i++) {
-            prefixes.add(ScadaKeyMapper.aggregationCamScadaPrefix(i));
+            prefixes.putIfAbsent(ScadaKeyMapper.aggregationCamScadaPrefix(i), TYPE_AGGREGATION_CAM);
         }
 
         for (int i = 0; i < composition.aggregationBoxCams().size(); i++) {
-            prefixes.add(ScadaKeyMapper.aggregationBoxCamScadaPrefix(i));
+            prefixes.putIfAbsent(ScadaKeyMapper.aggregationBoxCamScadaPrefix(i), TYPE_AGGREGATION_BOX_CAM);
         }
 
         for (String camName : composition.checkerCams()) {
             if (ScadaKeyMapper.isEanChecker(camName)) {
                 String devKey = ScadaKeyMapper.eanCheckerScadaPrefix(camName);
-                if (devKey != null) {
-                    prefixes.add(devKey);
-                } else {
-                    prefixes.add(camName);
-                }
+                prefixes.putIfAbsent(devKey != null ? devKey : camName, TYPE_CHECKER_CAM);
             } else {
-                prefixes.add(camName);
+                prefixes.putIfAbsent(camName, TYPE_CHECKER_CAM);
             }
         }
 
-        return List.copyOf(prefixes);
+        return Collections.unmodifiableMap(prefixes);
     }
 
     /**
@@ -637,6 +656,16 @@ public class UnitDetailService {
         return LocalDateTime.now(ZoneOffset.UTC).format(DateTimeFormatter.ISO_LOCAL_DATE_TIME);
     }
 
+    /**
+     * Момент получения самых старых данных аппарата в формате {@link #nowUtc()},
+     * или {@code null}, если snapshot-ов нет.
+     */
+    private @Nullable String dataTimestamp(String instanceId) {
+        Instant receivedAt = snapshotRepo.oldestReceivedAt(instanceId);
+        return receivedAt == null ? null
+                : receivedAt.atOffset(ZoneOffset.UTC).format(DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+    }
+
     // ─── Camera counters aggregation (shared logic with WorkshopService) ──────
 
     /**
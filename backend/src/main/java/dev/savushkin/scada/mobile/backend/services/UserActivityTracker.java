@@ -0,0 +1,91 @@
+package dev.savushkin.scada.mobile.backend.services;
+
+import dev.savushkin.scada.mobile.backend.application.ports.UserActivityRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Отложенная (write-behind) запись времени последней активности пользователей.
+ * <p>
+ * {@link #touch(long)} вызывается на каждом входе и обновлении токенов и только
+ * фиксирует метку в памяти: повторные обращения одного пользователя между сбросами
+ * схлопываются в одну запись. {@link #flush()} по расписанию записывает все
+ * накопленные метки одним запросом.
+ * <p>
+ * Задержка в несколько секунд безопасна: {@code last_activity_at} читает только
+ * {@code UserInactivityWatchdogJob}, порог которого измеряется часами.
+ */
+@Service
+public class UserActivityTracker {
+
+    private static final Logger log = LoggerFactory.getLogger(UserActivityTracker.class);
+
+    private final UserActivityRepository activityRepository;
+    private final ConcurrentHashMap<Long, LocalDateTime> pending = new ConcurrentHashMap<>();
+
+    public UserActivityTracker(UserActivityRepository activityRepository) {
+        this.activityRepository = activityRepository;
+    }
+
+    /**
+     * Отмечает активность пользователя в текущий момент. Не обращается к БД.
+     */
+    public void touch(long userId) {
+        pending.merge(userId, LocalDateTime.now(), UserActivityTracker::latest);
+    }
+
+    /**
+     * Записывает накопленные метки активности.
+     * <p>
+     * Каждая метка забирается из карты атомарно ({@code remove}); при ошибке БД метки
+     * возвращаются обратно с сохранением более поздней из двух — новая активность,
+     * пришедшая во время записи, не теряется.
+     */
+    @Scheduled(fixedDelayString = "${user-activity.flush-interval-ms:5000}")
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        Map<Long, LocalDateTime> batch = new HashMap<>();
+        for (Long userId : pending.keySet()) {
+            LocalDateTime at = pending.remove(userId);
+            if (at != null) {
+                batch.put(userId, at);
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            activityRepository.updateLastActivity(batch);
+            log.debug("User activity: flushed {} user(s)", batch.size());
+        } catch (RuntimeException e) {
+            log.error("User activity: failed to flush {} user(s), will retry: {}", batch.size(), e.getMessage());
+            batch.forEach((userId, at) -> pending.merge(userId, at, UserActivityTracker::latest));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    /**
+     * Число пользователей с незаписанной активностью.
+     */
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    private static LocalDateTime latest(LocalDateTime a, LocalDateTime b) {
+        return a.isAfter(b) ? a : b;
+    }
+}
@@ -177,6 +177,18 @@ public class WorkshopService {
         ));
     }
 
+    /**
+     * Возвращает live-статус всех активных цехов (число аппаратов с активными ошибками).
+     * <p>
+     * Счётчики читаются из материализованного индекса {@link UnitErrorStore} —
+     * без обхода аппаратов цеха и без запросов их ошибок по одному.
+     */
+    public List<WorkshopStatusDTO> getWorkshopsStatus() {
+        return topologyRepo.findAllActiveWorkshops().stream()
+                .map(ws -> new WorkshopStatusDTO(ws.id(), unitErrorStore.countProblemUnits(ws.id())))
+                .toList();
+    }
+
     /**
      * Проверяет, существует ли цех с заданным id.
      */
@@ -192,24 +204,6 @@ public class WorkshopService {
 
     // ─── Внутренние методы формирования live-данных ─────────────────────────
 
-    /**
-     * Определяет, есть ли активная ошибка на инстансе.
-     * Проверяет наличие ошибок в {@link UnitErrorStore}.
-     */
-    private boolean hasActiveError(String instanceId) {
-        return unitErrorStore.hasErrors(instanceId);
-    }
-
-    private int countProblemUnits(@NonNull List<PrintSrvInstance> instances) {
-        int count = 0;
-        for (PrintSrvInstance inst : instances) {
-            if (hasActiveError(inst.instanceId())) {
-                count++;
-            }
-        }
-        return count;
-    }
-
     /**
      * Формирует текстовое описание текущего события для аппарата.
      * При наличии ошибок возвращает список "DEVICE: message".
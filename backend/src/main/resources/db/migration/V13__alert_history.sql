@@ -0,0 +1,51 @@
+-- V13__alert_history.sql
+-- Журнал инцидентов (алёртов) по аппаратам: append-only, партиционирован по месяцам.
+--
+--   * Строка пишется один раз — при устранении алёрта (started_at/resolved_at известны),
+--     поэтому UPDATE по таблице не выполняется.
+--   * Партиции по started_at (RANGE, месяц) — запросы по диапазону времени затрагивают
+--     только нужные месяцы; удаление старой истории — DROP PARTITION вместо DELETE.
+--   * Партиции создаются заранее функцией ensure_alert_history_partition
+--     (вызывается здесь и ежемесячно из AlertHistoryPartitionJob); default-партиция
+--     страхует запись, если планировщик не успел создать партицию.
+--   * Identity-колонки на партиционированных таблицах до PostgreSQL 17 не поддерживаются,
+--     поэтому ключ берётся из отдельной последовательности.
+
+CREATE SEQUENCE alert_history_seq;
+
+CREATE TABLE alert_history
+(
+    alert_id    BIGINT       NOT NULL DEFAULT nextval('alert_history_seq'),
+    instance_id VARCHAR(255) NOT NULL,
+    workshop_id BIGINT       NOT NULL,
+    unit_name   VARCHAR(255),
+    severity    VARCHAR(20)  NOT NULL,
+    errors      TEXT,
+    started_at  TIMESTAMP    NOT NULL,
+    resolved_at TIMESTAMP    NOT NULL,
+    CONSTRAINT pk_alert_history PRIMARY KEY (alert_id, started_at)
+) PARTITION BY RANGE (started_at);
+
+ALTER SEQUENCE alert_history_seq OWNED BY alert_history.alert_id;
+
+CREATE INDEX idx_alert_history_unit ON alert_history (instance_id, started_at);
+CREATE INDEX idx_alert_history_workshop ON alert_history (workshop_id, started_at);
+
+CREATE TABLE alert_history_default PARTITION OF alert_history DEFAULT;
+
+CREATE OR REPLACE FUNCTION ensure_alert_history_partition(month_start DATE) RETURNS VOID AS
+$$
+DECLARE
+    from_date DATE := date_trunc('month', month_start)::DATE;
+    to_date   DATE := (date_trunc('month', month_start) + INTERVAL '1 month')::DATE;
+    part_name TEXT := format('alert_history_%s', to_char(from_date, 'YYYY_MM'));
+BEGIN
+    EXECUTE format(
+            'CREATE TABLE IF NOT EXISTS %I PARTITION OF alert_history FOR VALUES FROM (%L) TO (%L)',
+            part_name, from_date, to_date);
+END;
+$$ LANGUAGE plpgsql;
+
+-- Текущий месяц и два следующих
+SELECT ensure_alert_history_partition((date_trunc('month', CURRENT_DATE) + make_interval(months => m))::DATE)
+FROM generate_series(0, 2) AS m;
@@ -0,0 +1,49 @@
+-- V14__counter_timeseries.sql
+-- Временные ряды счётчиков устройств: камеры (Total / Failed) и прогресс принтеров (CurItem).
+--
+--   * counter_series — справочник рядов (аппарат + устройство + метрика). Строки сэмплов
+--     и роллапов ссылаются на него целочисленным series_id, а не повторяют строки:
+--     это держит таблицы рядов узкими.
+--   * counter_samples — сырые точки, пишутся только при изменении значения. Append-only,
+--     поэтому для диапазонов по времени достаточно компактного BRIN-индекса;
+--     хранятся недолго (retention в CounterRetentionJob).
+--   * counter_rollups — агрегаты 1 мин / 15 мин / 1 ч (resolution_seconds = 60 / 900 / 3600).
+--     Сливаются upsert-ом из каждой записанной пачки сэмплов, поэтому графики читают
+--     только роллапы и никогда не сканируют сырые точки.
+
+CREATE TABLE counter_series
+(
+    series_id   INTEGER GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    instance_id VARCHAR(255) NOT NULL,
+    device      VARCHAR(255) NOT NULL,
+    metric      VARCHAR(32)  NOT NULL,
+    CONSTRAINT pk_counter_series PRIMARY KEY (series_id),
+    CONSTRAINT uq_counter_series UNIQUE (instance_id, device, metric)
+);
+
+CREATE TABLE counter_samples
+(
+    series_id  INTEGER          NOT NULL REFERENCES counter_series (series_id) ON DELETE CASCADE,
+    sampled_at TIMESTAMP        NOT NULL,
+    value      DOUBLE PRECISION NOT NULL
+);
+
+CREATE INDEX idx_counter_samples_series ON counter_samples (series_id, sampled_at);
+CREATE INDEX idx_counter_samples_time ON counter_samples USING BRIN (sampled_at);
+
+CREATE TABLE counter_rollups
+(
+    series_id          INTEGER          NOT NULL REFERENCES counter_series (series_id) ON DELETE CASCADE,
+    resolution_seconds INTEGER          NOT NULL,
+    bucket_start       TIMESTAMP        NOT NULL,
+    first_at           TIMESTAMP        NOT NULL,
+    first_value        DOUBLE PRECISION NOT NULL,
+    last_at            TIMESTAMP        NOT NULL,
+    last_value         DOUBLE PRECISION NOT NULL,
+    min_value          DOUBLE PRECISION NOT NULL,
+    max_value          DOUBLE PRECISION NOT NULL,
+    samples            INTEGER          NOT NULL,
+    CONSTRAINT pk_counter_rollups PRIMARY KEY (series_id, resolution_seconds, bucket_start)
+);
+
+CREATE INDEX idx_counter_rollups_retention ON counter_rollups (resolution_seconds, bucket_start);
@@ -0,0 +1,7 @@
+-- V15__refresh_tokens_expiry_index.sql
+-- Индексы для частой пакетной очистки истёкших refresh-токенов
+-- (RefreshTokenCleanupJob: DELETE ... WHERE id IN (SELECT id ... WHERE expires_at < ? LIMIT ?))
+-- и для массового отзыва токенов пользователя (revokeAllByUserId / deleteAllByUserId).
+
+CREATE INDEX IF NOT EXISTS idx_refresh_tokens_expires_at ON refresh_tokens (expires_at);
+CREATE INDEX IF NOT EXISTS idx_refresh_tokens_user_id ON refresh_tokens (user_id);
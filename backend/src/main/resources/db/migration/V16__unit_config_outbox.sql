@@ -0,0 +1,24 @@
+-- V16__unit_config_outbox.sql
+-- Transactional outbox изменений конфигурации автоматов (UNIT_UPSERT / UNIT_DELETE для Gateway).
+--
+--   * Строка пишется в той же транзакции, что и админ-изменение автомата: изменение
+--     конфигурации не может потеряться или уйти наружу до коммита.
+--   * Строка хранит состояние автомата на момент изменения, а не ссылку на units:
+--     после удаления автомата UNIT_DELETE всё ещё есть что публиковать.
+--   * UnitConfigOutboxRelay вычитывает строки пачками по outbox_id, схлопывает их
+--     по instance_id (остаётся последнее изменение), публикует и удаляет —
+--     таблица остаётся короткой, отдельный retention не нужен.
+
+CREATE TABLE unit_config_outbox
+(
+    outbox_id    BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    event_type   VARCHAR(16)  NOT NULL,
+    instance_id  VARCHAR(255) NOT NULL,
+    host         VARCHAR(255),
+    port         INTEGER,
+    display_name VARCHAR(255),
+    workshop_id  BIGINT,
+    is_active    BOOLEAN      NOT NULL,
+    occurred_at  TIMESTAMP    NOT NULL,
+    CONSTRAINT pk_unit_config_outbox PRIMARY KEY (outbox_id)
+);
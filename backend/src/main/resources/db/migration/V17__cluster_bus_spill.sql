@@ -0,0 +1,17 @@
+-- V17__cluster_bus_spill.sql
+-- Крупные пачки шины кластера WS-слоя (cluster.bus=postgres).
+--
+--   * Payload NOTIFY в PostgreSQL ограничен 8000 байт; пачка событий крупнее
+--     cluster.postgres.max-payload-bytes пишется сюда, а в NOTIFY уходит только spill_id.
+--   * Строка нужна лишь на время доставки: узлы-получатели читают её сразу по NOTIFY,
+--     строки старше cluster.postgres.spill-retention-ms удаляет PostgresClusterBus.
+
+CREATE TABLE cluster_bus_spill
+(
+    spill_id   BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    payload    TEXT      NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    CONSTRAINT pk_cluster_bus_spill PRIMARY KEY (spill_id)
+);
+
+CREATE INDEX idx_cluster_bus_spill_created_at ON cluster_bus_spill (created_at);
@@ -0,0 +1,28 @@
+-- V18__polling_leases.sql
+-- Координация опроса PrintSrv между несколькими узлами приёма (cluster.polling.mode).
+--
+--   * cluster_member — живые узлы приёма: heartbeat продлевается каждые
+--     cluster.polling.renew-interval-ms; узел без heartbeat дольше lease-ttl-ms считается
+--     ушедшим. joined_at определяет старшинство: самый старый живой узел — первичный.
+--   * polling_lease — аренда опроса: lease_key = instanceId (режим sharded) или '*'
+--     (режим leader — один узел опрашивает всё). Строку продлевает только владелец;
+--     занять её другой узел может лишь после expires_at. Время — часы PostgreSQL,
+--     расхождение часов узлов на аренду не влияет.
+
+CREATE TABLE cluster_member
+(
+    node_id      VARCHAR(255) NOT NULL,
+    joined_at    TIMESTAMP    NOT NULL,
+    heartbeat_at TIMESTAMP    NOT NULL,
+    CONSTRAINT pk_cluster_member PRIMARY KEY (node_id)
+);
+
+CREATE TABLE polling_lease
+(
+    lease_key  VARCHAR(255) NOT NULL,
+    owner      VARCHAR(255) NOT NULL,
+    expires_at TIMESTAMP    NOT NULL,
+    CONSTRAINT pk_polling_lease PRIMARY KEY (lease_key)
+);
+
+CREATE INDEX idx_polling_lease_owner ON polling_lease (owner);
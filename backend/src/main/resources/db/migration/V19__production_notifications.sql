@@ -0,0 +1,25 @@
+-- V19__production_notifications.sql
+-- Производственные уведомления («вызов» с аппарата) и их история.
+--
+--   * Строка — один вызов: activated_at/creator_id пишутся при активации,
+--     deactivated_at/resolver_id — при снятии. Пока deactivated_at IS NULL, уведомление активно.
+--   * Частичный уникальный индекс гарантирует не более одного активного уведомления на аппарат,
+--     в том числе при одновременном нажатии на разных узлах.
+--   * Время — UTC (TIMESTAMP без часового пояса), как в polling_lease.
+--   * unit_id — instanceId PrintSrv, без внешнего ключа: история переживает удаление аппарата.
+
+CREATE TABLE production_notifications
+(
+    notification_id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    unit_id         VARCHAR(255)                            NOT NULL,
+    creator_id      VARCHAR(255)                            NOT NULL,
+    activated_at    TIMESTAMP                               NOT NULL,
+    deactivated_at  TIMESTAMP,
+    resolver_id     VARCHAR(255),
+    CONSTRAINT pk_production_notifications PRIMARY KEY (notification_id)
+);
+
+CREATE UNIQUE INDEX uq_production_notifications_active
+    ON production_notifications (unit_id) WHERE deactivated_at IS NULL;
+
+CREATE INDEX idx_production_notifications_unit ON production_notifications (unit_id, activated_at);
@@ -0,0 +1,35 @@
+-- V20__alert_history_partition_from_default.sql
+-- Создание месячной партиции alert_history, когда строки этого месяца уже лежат в default.
+--
+--   * CREATE TABLE ... PARTITION OF падает ("updated partition constraint for default
+--     partition would be violated"), если в default-партиции есть строки нового диапазона:
+--     такое бывает, когда запись опередила AlertHistoryPartitionJob.
+--   * Поэтому партиция создаётся отдельной таблицей, строки месяца переносятся в неё из
+--     default, и только затем она присоединяется (ATTACH PARTITION). Индексы и первичный
+--     ключ создаются на ней при присоединении.
+--   * На время переноса default-партиция блокируется от записи (EXCLUSIVE, чтение не
+--     блокируется): новая строка того же месяца не может попасть в default между переносом
+--     и присоединением. Всё выполняется в одной транзакции вызова функции.
+
+CREATE OR REPLACE FUNCTION ensure_alert_history_partition(month_start DATE) RETURNS VOID AS
+$$
+DECLARE
+    from_date DATE := date_trunc('month', month_start)::DATE;
+    to_date   DATE := (date_trunc('month', month_start) + INTERVAL '1 month')::DATE;
+    part_name TEXT := format('alert_history_%s', to_char(from_date, 'YYYY_MM'));
+BEGIN
+    IF to_regclass(part_name) IS NOT NULL THEN
+        RETURN;
+    END IF;
+
+    LOCK TABLE alert_history_default IN EXCLUSIVE MODE;
+
+    EXECUTE format('CREATE TABLE %I (LIKE alert_history INCLUDING DEFAULTS INCLUDING CONSTRAINTS)', part_name);
+    EXECUTE format(
+            'WITH moved AS (DELETE FROM alert_history_default WHERE started_at >= %L AND started_at < %L RETURNING *) '
+                || 'INSERT INTO %I SELECT * FROM moved',
+            from_date, to_date, part_name);
+    EXECUTE format('ALTER TABLE alert_history ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)',
+                   part_name, from_date, to_date);
+END;
+$$ LANGUAGE plpgsql;
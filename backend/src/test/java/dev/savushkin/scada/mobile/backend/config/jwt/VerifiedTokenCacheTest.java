@@ -0,0 +1,68 @@
+package dev.savushkin.scada.mobile.backend.config.jwt;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VerifiedTokenCacheTest {
+
+    private static final Instant NOW = Instant.parse("2026-01-01T00:00:00Z");
+
+    @Test
+    void returnsCachedClaimsUntilExpiry() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(10);
+        Claims claims = claims(NOW.plus(Duration.ofMinutes(5)));
+
+        cache.put("a", claims, NOW);
+
+        assertThat(cache.get("a", NOW.plusSeconds(60))).isSameAs(claims);
+        assertThat(cache.get("a", NOW.plus(Duration.ofMinutes(5)))).isNull();
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedWhenFull() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(2);
+        Instant expiry = NOW.plus(Duration.ofHours(1));
+        cache.put("a", claims(expiry), NOW);
+        cache.put("b", claims(expiry), NOW);
+        cache.get("a", NOW);
+
+        cache.put("c", claims(expiry), NOW);
+
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.get("a", NOW)).isNotNull();
+        assertThat(cache.get("b", NOW)).isNull();
+        assertThat(cache.get("c", NOW)).isNotNull();
+    }
+
+    @Test
+    void skipsExpiredTokensAndTokensWithoutExpiry() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(10);
+
+        cache.put("expired", claims(NOW.minusSeconds(1)), NOW);
+        cache.put("no-exp", Jwts.claims().subject("1").build(), NOW);
+
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void disabledCacheStoresNothing() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(0);
+
+        cache.put("a", claims(NOW.plus(Duration.ofHours(1))), NOW);
+
+        assertThat(cache.get("a", NOW)).isNull();
+        assertThat(cache.size()).isZero();
+    }
+
+    private static Claims claims(Instant expiresAt) {
+        return Jwts.claims().subject("1").expiration(Date.from(expiresAt)).build();
+    }
+}
@@ -0,0 +1,91 @@
+package dev.savushkin.scada.mobile.backend.infrastructure.cluster;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.savushkin.scada.mobile.backend.application.ports.NotificationRepository;
+import dev.savushkin.scada.mobile.backend.application.ports.PrintSrvTopologyRepository;
+import dev.savushkin.scada.mobile.backend.config.ClusterProperties;
+import dev.savushkin.scada.mobile.backend.infrastructure.escalation.EscalationEngine;
+import dev.savushkin.scada.mobile.backend.infrastructure.integration.database.adapter.PrintSrvTopologyJpaAdapter;
+import dev.savushkin.scada.mobile.backend.infrastructure.polling.PrintSrvConnectionSynchronizer;
+import dev.savushkin.scada.mobile.backend.infrastructure.store.ActiveAlertStore;
+import dev.savushkin.scada.mobile.backend.infrastructure.store.ActiveNotificationStore;
+import dev.savushkin.scada.mobile.backend.infrastructure.store.UserAssignmentIndex;
+import dev.savushkin.scada.mobile.backend.infrastructure.ws.LiveWsHandler;
+import dev.savushkin.scada.mobile.backend.infrastructure.ws.SnapshotJsonCache;
+import dev.savushkin.scada.mobile.backend.infrastructure.ws.UnitWsHandler;
+import dev.savushkin.scada.mobile.backend.services.WorkshopService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Реакция на разрыв последовательности шины ({@link ClusterBus.Listener#onGap()}): узел,
+ * раздающий снимки из реплики, сбрасывает признак синхронизации, а узел приёма данных
+ * дополнительно сверяет подключения к PrintSrv.
+ */
+class ClusterReplicatorTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final PrintSrvConnectionSynchronizer connectionSynchronizer = mock(PrintSrvConnectionSynchronizer.class);
+
+    @Test
+    void gapOnWsNodeDropsReplicaSyncWithoutReconcile() {
+        ClusterNode node = node(ClusterProperties.ROLE_WS, ClusterProperties.POLLING_NONE);
+        node.setReplicaSynced(true);
+        ClusterReplicator replicator = replicator(node);
+
+        replicator.onGap();
+
+        assertThat(node.isReplicaSynced()).isFalse();
+        assertThat(registry.get("cluster.bus.gaps").counter().count()).isEqualTo(1.0);
+        verify(connectionSynchronizer, never()).reconcile();
+    }
+
+    @Test
+    void gapOnLeaderReconcilesConnections() {
+        ClusterNode node = node(ClusterProperties.ROLE_LEADER, ClusterProperties.POLLING_NONE);
+        ClusterReplicator replicator = replicator(node);
+
+        replicator.onGap();
+
+        // Лидер без координации опроса раздаёт локальные снимки — реплика ему не нужна
+        assertThat(node.isReplicaSynced()).isTrue();
+        assertThat(registry.get("cluster.bus.gaps").counter().count()).isEqualTo(1.0);
+        verify(connectionSynchronizer).reconcile();
+    }
+
+    private static ClusterNode node(String role, String pollingMode) {
+        ClusterProperties properties = new ClusterProperties();
+        properties.setRole(role);
+        properties.setNodeId(role + "-1");
+        properties.getPolling().setMode(pollingMode);
+        return new ClusterNode(properties);
+    }
+
+    private ClusterReplicator replicator(ClusterNode node) {
+        return new ClusterReplicator(
+                node,
+                mock(ClusterPublisher.class),
+                mock(ClusterReplica.class),
+                new ClusterProperties(),
+                mock(LiveWsHandler.class),
+                mock(UnitWsHandler.class),
+                mock(ActiveAlertStore.class),
+                mock(ActiveNotificationStore.class),
+                mock(NotificationRepository.class),
+                mock(WorkshopService.class),
+                mock(PrintSrvTopologyRepository.class),
+                mock(PrintSrvTopologyJpaAdapter.class),
+                mock(PollingCoordinator.class),
+                mock(UserAssignmentIndex.class),
+                mock(SnapshotJsonCache.class),
+                mock(EscalationEngine.class),
+                connectionSynchronizer,
+                new ObjectMapper(),
+                registry);
+    }
+}
@@ -0,0 +1,74 @@
+package dev.savushkin.scada.mobile.backend.infrastructure.cluster;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConsistentHashRingTest {
+
+    private static final int VIRTUAL_NODES = 64;
+    private static final List<String> KEYS = IntStream.range(0, 3000).mapToObj(i -> "instance-" + i).toList();
+
+    @Test
+    void emptyRingHasNoOwner() {
+        assertThat(new ConsistentHashRing(List.of(), VIRTUAL_NODES).ownerOf("instance-1")).isNull();
+    }
+
+    @Test
+    void ownerDoesNotDependOnMemberOrder() {
+        ConsistentHashRing ring = new ConsistentHashRing(List.of("a", "b", "c"), VIRTUAL_NODES);
+        ConsistentHashRing reordered = new ConsistentHashRing(List.of("c", "a", "b"), VIRTUAL_NODES);
+
+        for (String key : KEYS) {
+            assertThat(reordered.ownerOf(key)).isEqualTo(ring.ownerOf(key));
+        }
+    }
+
+    @Test
+    void keysAreSpreadRoughlyEvenly() {
+        ConsistentHashRing ring = new ConsistentHashRing(List.of("a", "b", "c"), VIRTUAL_NODES);
+
+        Map<String, Integer> counts = new HashMap<>();
+        for (String key : KEYS) {
+            counts.merge(ring.ownerOf(key), 1, Integer::sum);
+        }
+
+        assertThat(counts).containsOnlyKeys("a", "b", "c");
+        assertThat(counts.values()).allSatisfy(count -> assertThat(count).isBetween(600, 1400));
+    }
+
+    @Test
+    void joiningMemberTakesOnlyItsShare() {
+        ConsistentHashRing before = new ConsistentHashRing(List.of("a", "b", "c"), VIRTUAL_NODES);
+        ConsistentHashRing after = new ConsistentHashRing(List.of("a", "b", "c", "d"), VIRTUAL_NODES);
+
+        int moved = 0;
+        for (String key : KEYS) {
+            String owner = after.ownerOf(key);
+            if (!owner.equals(before.ownerOf(key))) {
+                assertThat(owner).as("key %s moved between old members", key).isEqualTo("d");
+                moved++;
+            }
+        }
+
+        assertThat(moved).isBetween(KEYS.size() / 8, KEYS.size() * 3 / 8);
+    }
+
+    @Test
+    void leavingMemberHandsOverOnlyItsKeys() {
+        ConsistentHashRing before = new ConsistentHashRing(List.of("a", "b", "c"), VIRTUAL_NODES);
+        ConsistentHashRing after = new ConsistentHashRing(List.of("a", "c"), VIRTUAL_NODES);
+
+        for (String key : KEYS) {
+            String owner = before.ownerOf(key);
+            if (!"b".equals(owner)) {
+                assertThat(after.ownerOf(key)).isEqualTo(owner);
+            }
+        }
+    }
+}
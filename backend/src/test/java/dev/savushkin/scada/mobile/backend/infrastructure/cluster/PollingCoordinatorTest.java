@@ -0,0 +1,241 @@
+package dev.savushkin.scada.mobile.backend.infrastructure.cluster;
+
+import dev.savushkin.scada.mobile.backend.application.ports.PollingLeaseRepository;
+import dev.savushkin.scada.mobile.backend.config.ClusterProperties;
+import dev.savushkin.scada.mobile.backend.infrastructure.integration.printsrv.client.PrintSrvClientRegistry;
+import dev.savushkin.scada.mobile.backend.infrastructure.polling.PrintSrvPollingRuntime;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.jspecify.annotations.NonNull;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class PollingCoordinatorTest {
+
+    private static final Set<String> INSTANCES = IntStream.range(0, 16)
+            .mapToObj(i -> "instance-" + i)
+            .collect(Collectors.toSet());
+
+    private final InMemoryLeases leases = new InMemoryLeases();
+    private final PrintSrvClientRegistry clientRegistry = mock(PrintSrvClientRegistry.class);
+    private final List<PollingCoordinator> started = new ArrayList<>();
+    /**
+     * Что сейчас опрашивает каждый узел — по вызовам {@link PrintSrvPollingRuntime#assign}.
+     */
+    private final Map<String, Set<String>> polling = new ConcurrentHashMap<>();
+    private final Set<String> polledTwice = ConcurrentHashMap.newKeySet();
+
+    @AfterEach
+    void tearDown() {
+        started.forEach(PollingCoordinator::stop);
+    }
+
+    @Test
+    void shardedNodesSplitInstancesWithoutOverlap() throws InterruptedException {
+        PollingCoordinator a = start("a", ClusterProperties.POLLING_SHARDED);
+        assertThat(a.getOwnedInstanceIds()).isEqualTo(INSTANCES);
+
+        PollingCoordinator b = start("b", ClusterProperties.POLLING_SHARDED);
+        await(() -> union(a, b).equals(INSTANCES));
+
+        assertThat(a.getOwnedInstanceIds()).isNotEmpty().doesNotContainAnyElementsOf(b.getOwnedInstanceIds());
+        assertThat(b.getOwnedInstanceIds()).isNotEmpty();
+        assertThat(a.getMembers()).containsExactly("a", "b");
+        assertThat(a.isPrimary()).isTrue();
+        assertThat(b.isPrimary()).isFalse();
+        assertThat(polledTwice).isEmpty();
+    }
+
+    @Test
+    void leavingNodeHandsItsShareOver() throws InterruptedException {
+        PollingCoordinator a = start("a", ClusterProperties.POLLING_SHARDED);
+        PollingCoordinator b = start("b", ClusterProperties.POLLING_SHARDED);
+        await(() -> union(a, b).equals(INSTANCES));
+
+        b.stop();
+
+        assertThat(b.getOwnedInstanceIds()).isEmpty();
+        await(() -> a.getOwnedInstanceIds().equals(INSTANCES));
+        assertThat(a.getMembers()).containsExactly("a");
+        assertThat(polledTwice).isEmpty();
+    }
+
+    @Test
+    void crashedNodeLeasesAreTakenAfterExpiry() throws InterruptedException {
+        PollingCoordinator a = start("a", ClusterProperties.POLLING_SHARDED);
+        PollingCoordinator b = start("b", ClusterProperties.POLLING_SHARDED);
+        await(() -> union(a, b).equals(INSTANCES));
+
+        // Узел b не продлевает аренды, по истечении TTL его доля свободна
+        leases.expire("b");
+        leases.failing.add("b");
+
+        await(() -> a.getOwnedInstanceIds().equals(INSTANCES));
+        await(() -> b.getOwnedInstanceIds().isEmpty());
+        assertThat(polling.get("b")).isEmpty();
+    }
+
+    @Test
+    void leaderModeHasSingleHolderAndHotStandby() throws InterruptedException {
+        PollingCoordinator a = start("a", ClusterProperties.POLLING_LEADER);
+        PollingCoordinator b = start("b", ClusterProperties.POLLING_LEADER);
+
+        assertThat(a.getOwnedInstanceIds()).isEqualTo(INSTANCES);
+        assertThat(b.getOwnedInstanceIds()).isEmpty();
+
+        a.stop();
+
+        await(() -> b.getOwnedInstanceIds().equals(INSTANCES));
+        assertThat(leases.owners()).isEqualTo(Map.of(PollingLeaseRepository.ALL, "b"));
+        assertThat(polledTwice).isEmpty();
+    }
+
+    @Test
+    void nodeStopsPollingWhenLeaseCannotBeRenewed() throws InterruptedException {
+        PollingCoordinator a = start("a", ClusterProperties.POLLING_SHARDED);
+        assertThat(a.getOwnedInstanceIds()).isEqualTo(INSTANCES);
+
+        leases.failing.add("a");
+
+        await(() -> a.getOwnedInstanceIds().isEmpty());
+        assertThat(polling.get("a")).isEmpty();
+    }
+
+    private PollingCoordinator start(String nodeId, String mode) {
+        ClusterProperties properties = new ClusterProperties();
+        properties.setRole(ClusterProperties.ROLE_LEADER);
+        properties.setNodeId(nodeId);
+        properties.getPolling().setMode(mode);
+        properties.getPolling().setLeaseTtlMs(200);
+        properties.getPolling().setRenewIntervalMs(10);
+        when(clientRegistry.getInstanceIds()).thenReturn(INSTANCES);
+
+        PrintSrvPollingRuntime runtime = mock(PrintSrvPollingRuntime.class);
+        doAnswer(invocation -> {
+            assigned(nodeId, invocation.getArgument(0));
+            return null;
+        }).when(runtime).assign(any());
+
+        PollingCoordinator coordinator = new PollingCoordinator(new ClusterNode(properties), properties, leases,
+                runtime, clientRegistry, new SimpleMeterRegistry());
+        coordinator.start();
+        started.add(coordinator);
+        return coordinator;
+    }
+
+    private synchronized void assigned(String nodeId, Set<String> instanceIds) {
+        Set<String> now = instanceIds == null ? INSTANCES : Set.copyOf(instanceIds);
+        polling.forEach((other, theirs) -> {
+            if (!other.equals(nodeId)) {
+                now.stream().filter(theirs::contains).forEach(polledTwice::add);
+            }
+        });
+        polling.put(nodeId, now);
+    }
+
+    private static Set<String> union(PollingCoordinator... coordinators) {
+        Set<String> all = new HashSet<>();
+        for (PollingCoordinator coordinator : coordinators) {
+            all.addAll(coordinator.getOwnedInstanceIds());
+        }
+        return all;
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("condition not met in time").isLessThan(deadline);
+            Thread.sleep(5);
+        }
+    }
+
+    /**
+     * Аренды в памяти: ключ занимается, только если свободен или уже принадлежит узлу.
+     * Истечение по времени не моделируется — его заменяет явный {@link #expire}.
+     */
+    private static final class InMemoryLeases implements PollingLeaseRepository {
+
+        final Set<String> failing = ConcurrentHashMap.newKeySet();
+        private final Set<String> members = new LinkedHashSet<>();
+        private final Map<String, String> owners = new HashMap<>();
+
+        synchronized Map<String, String> owners() {
+            return Map.copyOf(owners);
+        }
+
+        synchronized void expire(String nodeId) {
+            members.remove(nodeId);
+            owners.values().removeIf(nodeId::equals);
+        }
+
+        @Override
+        public synchronized void join(@NonNull String nodeId) {
+            members.remove(nodeId);
+            members.add(nodeId);
+        }
+
+        @Override
+        public synchronized void heartbeat(@NonNull String nodeId) {
+            check(nodeId);
+            members.add(nodeId);
+        }
+
+        @Override
+        public synchronized @NonNull List<String> liveMembers(long ttlMs) {
+            return List.copyOf(members);
+        }
+
+        @Override
+        public synchronized void leave(@NonNull String nodeId) {
+            expire(nodeId);
+        }
+
+        @Override
+        public synchronized @NonNull Set<String> acquire(@NonNull String nodeId, @NonNull Collection<String> keys,
+                                                         long ttlMs) {
+            check(nodeId);
+            Set<String> acquired = new HashSet<>();
+            for (String key : keys) {
+                if (owners.putIfAbsent(key, nodeId) == null || nodeId.equals(owners.get(key))) {
+                    acquired.add(key);
+                }
+            }
+            return acquired;
+        }
+
+        @Override
+        public synchronized void releaseExcept(@NonNull String nodeId, @NonNull Collection<String> keep) {
+            check(nodeId);
+            owners.entrySet().removeIf(entry -> entry.getValue().equals(nodeId) && !keep.contains(entry.getKey()));
+        }
+
+        @Override
+        public synchronized @NonNull List<Lease> findActive() {
+            return owners.entrySet().stream().map(entry -> new Lease(entry.getKey(), entry.getValue(), 0)).toList();
+        }
+
+        private void check(String nodeId) {
+            if (failing.contains(nodeId)) {
+                throw new IllegalStateException("database unavailable");
+            }
+        }
+    }
+}
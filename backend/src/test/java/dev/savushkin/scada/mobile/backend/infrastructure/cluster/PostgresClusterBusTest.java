@@ -0,0 +1,285 @@
+package dev.savushkin.scada.mobile.backend.infrastructure.cluster;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.savushkin.scada.mobile.backend.config.ClusterProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.flywaydb.core.Flyway;
+import org.jspecify.annotations.NonNull;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Несколько узлов — несколько шин над одной БД, как у узлов в разных JVM: общего у них
+ * только канал {@code LISTEN/NOTIFY} и таблица {@code cluster_bus_spill}.
+ */
+class PostgresClusterBusTest {
+
+    private static final int MAX_PAYLOAD_BYTES = 1000;
+    private static final AtomicInteger CHANNELS = new AtomicInteger();
+
+    private static EmbeddedPostgres postgres;
+    private static NamedParameterJdbcTemplate jdbc;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final List<PostgresClusterBus> started = new ArrayList<>();
+
+    private String channel;
+
+    @BeforeAll
+    static void startDatabase() throws IOException {
+        postgres = EmbeddedPostgres.builder().start();
+        Flyway.configure()
+                .dataSource(postgres.getPostgresDatabase())
+                .locations("classpath:db/migration")
+                .load()
+                .migrate();
+        jdbc = new NamedParameterJdbcTemplate(postgres.getPostgresDatabase());
+    }
+
+    @AfterAll
+    static void stopDatabase() throws IOException {
+        postgres.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        // Свой канал на тест: запоздалые NOTIFY предыдущего теста не мешают
+        channel = "cluster_bus_test_" + CHANNELS.incrementAndGet();
+    }
+
+    @AfterEach
+    void tearDown() {
+        started.forEach(PostgresClusterBus::stop);
+    }
+
+    @Test
+    void batchesEventsIntoNotifiesUnderPayloadLimit() throws Exception {
+        Node receiver = node("ws-1");
+        RawListener raw = new RawListener();
+        Node sender = node("leader-1");
+        awaitListeners(2);
+
+        List<ClusterEvent> events = IntStream.range(0, 40)
+                .mapToObj(i -> event("leader-1", Integer.toString(i), "x".repeat(60)))
+                .toList();
+        sender.bus.publish(events);
+        start(sender);
+
+        await(() -> receiver.events.size() == 40);
+        assertThat(receiver.events).extracting(ClusterEvent::key)
+                .containsExactlyElementsOf(events.stream().map(ClusterEvent::key).toList());
+        assertThat(receiver.gaps).hasValue(0);
+
+        double notifies = sender.registry.get("cluster.bus.notifies").counter().count();
+        assertThat(notifies).isGreaterThan(1).isLessThan(40);
+        await(() -> raw.payloads.size() == (int) notifies);
+        assertThat(raw.payloads).allSatisfy(payload ->
+                assertThat(payload.getBytes(StandardCharsets.UTF_8).length).isLessThanOrEqualTo(MAX_PAYLOAD_BYTES));
+        raw.close();
+    }
+
+    @Test
+    void oversizedEventTravelsThroughSpillTable() throws Exception {
+        Node receiver = node("ws-1");
+        Node sender = node("leader-1");
+        start(sender);
+        awaitListeners(2);
+
+        String body = "{\"payload\":\"" + "я".repeat(5000) + "\"}";
+        sender.bus.publish(List.of(event("leader-1", null, body)));
+
+        await(() -> receiver.events.size() == 1);
+        assertThat(receiver.events.getFirst().body()).isEqualTo(body);
+        assertThat(sender.registry.get("cluster.bus.spilled").counter().count()).isEqualTo(1);
+        assertThat(receiver.gaps).hasValue(0);
+    }
+
+    @Test
+    void sequenceGapFromOriginIsReported() throws Exception {
+        Node receiver = node("ws-1");
+        awaitListeners(1);
+
+        rawNotify("{\"origin\":\"leader-1\",\"seq\":1,\"events\":[]}");
+        rawNotify("{\"origin\":\"leader-1\",\"seq\":2,\"events\":[]}");
+        rawNotify("{\"origin\":\"leader-2\",\"seq\":7,\"events\":[]}");
+        assertThat(receiver.gaps).hasValue(0);
+
+        rawNotify("{\"origin\":\"leader-1\",\"seq\":5,\"events\":[]}");
+        await(() -> receiver.gaps.get() == 1);
+
+        // Рестарт отправителя с тем же node-id начинает последовательность заново — не пропуск
+        rawNotify("{\"origin\":\"leader-1\",\"seq\":1,\"events\":[]}");
+        rawNotify("{\"origin\":\"leader-1\",\"seq\":2,\"spill\":999999}");
+        await(() -> receiver.gaps.get() == 2);
+        assertThat(receiver.events).isEmpty();
+    }
+
+    @Test
+    void ownNotifiesAreIgnored() throws Exception {
+        Node node = node("leader-1");
+        start(node);
+        awaitListeners(1);
+
+        rawNotify("{\"origin\":\"leader-1\",\"seq\":9,\"events\":["
+                + objectMapper.writeValueAsString(event("leader-1", "k", null)) + "]}");
+        rawNotify("{\"origin\":\"leader-2\",\"seq\":1,\"events\":["
+                + objectMapper.writeValueAsString(event("leader-2", "k", null)) + "]}");
+
+        await(() -> node.events.size() == 1);
+        assertThat(node.events.getFirst().origin()).isEqualTo("leader-2");
+    }
+
+    @Test
+    void eachNodeAddsOneListenerConnectionAndReceivesFanOut() throws Exception {
+        List<Node> nodes = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            nodes.add(node("ws-" + i));
+            awaitListeners(i + 1);
+        }
+        Node leader = node("leader-1");
+        start(leader);
+        awaitListeners(5);
+
+        leader.bus.publish(List.of(event("leader-1", "1", "{}")));
+
+        for (Node node : nodes) {
+            await(() -> node.events.size() == 1);
+        }
+        assertThat(leader.events).isEmpty();
+        assertThat(listenConnections()).isEqualTo(5);
+    }
+
+    // ─── Helpers ─────────────────────────────────────────────────────────────
+
+    /**
+     * Узел с подписчиком; шина стартует сразу, кроме отправителя, которому нужна очередь до старта.
+     */
+    private Node node(String nodeId) {
+        ClusterProperties properties = new ClusterProperties();
+        properties.setRole(nodeId.startsWith("ws") ? ClusterProperties.ROLE_WS : ClusterProperties.ROLE_LEADER);
+        properties.setNodeId(nodeId);
+        properties.setChannel(channel);
+        properties.getPostgres().setMaxPayloadBytes(MAX_PAYLOAD_BYTES);
+        properties.getPostgres().setListenTimeoutMs(20);
+        properties.getPostgres().setReconnectDelayMs(50);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        PostgresClusterBus bus = new PostgresClusterBus(new ClusterNode(properties), properties,
+                postgres.getPostgresDatabase(), jdbc, objectMapper, registry);
+        Node node = new Node(bus, registry, new CopyOnWriteArrayList<>(), new AtomicInteger());
+        bus.subscribe(new ClusterBus.Listener() {
+            @Override
+            public void onEvents(@NonNull List<ClusterEvent> events) {
+                node.events.addAll(events);
+            }
+
+            @Override
+            public void onGap() {
+                node.gaps.incrementAndGet();
+            }
+        });
+        if (nodeId.startsWith("ws")) {
+            start(node);
+        }
+        return node;
+    }
+
+    private void start(Node node) {
+        node.bus.start();
+        started.add(node.bus);
+    }
+
+    private void rawNotify(String payload) {
+        jdbc.query("SELECT pg_notify(:channel, :payload)",
+                new MapSqlParameterSource().addValue("channel", channel).addValue("payload", payload),
+                rs -> null);
+    }
+
+    private int listenConnections() {
+        Integer count = jdbc.queryForObject(
+                "SELECT count(*) FROM pg_stat_activity WHERE query = :listen",
+                new MapSqlParameterSource("listen", "LISTEN \"" + channel + "\""), Integer.class);
+        return count == null ? 0 : count;
+    }
+
+    private void awaitListeners(int count) throws InterruptedException {
+        await(() -> listenConnections() >= count);
+    }
+
+    private static ClusterEvent event(String origin, String key, String body) {
+        return ClusterEvent.of(origin, ClusterEvent.Kind.TO_ALL, key, body != null ? "TEST" : null, body);
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("condition not met in time").isLessThan(deadline);
+            Thread.sleep(5);
+        }
+    }
+
+    private record Node(PostgresClusterBus bus, SimpleMeterRegistry registry, List<ClusterEvent> events,
+                        AtomicInteger gaps) {
+    }
+
+    /**
+     * Сторонний слушатель канала: видит payload каждого {@code NOTIFY} как есть.
+     */
+    private final class RawListener implements AutoCloseable {
+
+        final List<String> payloads = new CopyOnWriteArrayList<>();
+        private final Connection connection;
+        private final Thread reader;
+        private volatile boolean open = true;
+
+        RawListener() throws SQLException {
+            connection = postgres.getPostgresDatabase().getConnection();
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("LISTEN \"" + channel + "\"");
+            }
+            PGConnection pgConnection = connection.unwrap(PGConnection.class);
+            reader = Thread.ofVirtual().start(() -> {
+                while (open) {
+                    try {
+                        PGNotification[] notifications = pgConnection.getNotifications(20);
+                        if (notifications != null) {
+                            for (PGNotification notification : notifications) {
+                                payloads.add(notification.getParameter());
+                            }
+                        }
+                    } catch (SQLException e) {
+                        return;
+                    }
+                }
+            });
+        }
+
+        @Override
+        public void close() throws Exception {
+            open = false;
+            reader.join();
+            connection.close();
+        }
+    }
+}
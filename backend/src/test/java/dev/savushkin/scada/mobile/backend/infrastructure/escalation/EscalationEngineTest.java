@@ -0,0 +1,196 @@
+package dev.savushkin.scada.mobile.backend.infrastructure.escalation;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.savushkin.scada.mobile.backend.api.dto.AlertMessageDTO;
+import dev.savushkin.scada.mobile.backend.application.ports.EscalationRecipientRepository;
+import dev.savushkin.scada.mobile.backend.application.ports.PrintSrvTopologyRepository;
+import dev.savushkin.scada.mobile.backend.config.ClusterProperties;
+import dev.savushkin.scada.mobile.backend.config.EscalationProperties;
+import dev.savushkin.scada.mobile.backend.infrastructure.cluster.ClusterEvent;
+import dev.savushkin.scada.mobile.backend.infrastructure.cluster.ClusterNode;
+import dev.savushkin.scada.mobile.backend.infrastructure.cluster.ClusterPublisher;
+import dev.savushkin.scada.mobile.backend.infrastructure.cluster.PollingCoordinator;
+import dev.savushkin.scada.mobile.backend.infrastructure.store.ActiveAlertStore;
+import dev.savushkin.scada.mobile.backend.infrastructure.ws.LiveWsHandler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class EscalationEngineTest {
+
+    private static final String UNIT = "hassia1";
+    private static final long MASTER = 1L;
+    private static final long ADMIN = 2L;
+    private static final Duration FIRST = Duration.ofMillis(200);
+    private static final Duration SECOND = Duration.ofMillis(400);
+
+    private final ClusterPublisher clusterPublisher = mock(ClusterPublisher.class);
+    private final PollingCoordinator pollingCoordinator = mock(PollingCoordinator.class);
+    private final LiveWsHandler liveWsHandler = mock(LiveWsHandler.class);
+    private final EscalationRecipientRepository recipients = mock(EscalationRecipientRepository.class);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final List<Long> notified = new CopyOnWriteArrayList<>();
+
+    private EscalationEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        when(pollingCoordinator.isPrimary()).thenReturn(true);
+        when(recipients.findActiveUserIdsByRoles(List.of("Master"))).thenReturn(Set.of(MASTER));
+        when(recipients.findActiveUserIdsByRoles(List.of("Admin"))).thenReturn(Set.of(ADMIN));
+        doAnswer(invocation -> {
+            notified.add(invocation.getArgument(0));
+            return null;
+        }).when(liveWsHandler).sendToUser(anyLong(), anyString(), anyString());
+
+        EscalationProperties properties = new EscalationProperties();
+        properties.setEnabled(true);
+        properties.setTickMs(5);
+        properties.setWheelSize(64);
+        properties.setRules(List.of(rule(step(FIRST, "Master"), step(SECOND, "Admin"))));
+
+        engine = new EscalationEngine(properties, new EscalationRules(properties),
+                new ClusterNode(new ClusterProperties()), clusterPublisher, pollingCoordinator, liveWsHandler,
+                recipients, mock(PrintSrvTopologyRepository.class), new ObjectMapper(), registry);
+        engine.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        engine.stop();
+    }
+
+    @Test
+    void stepsFireInOrderAfterTheirDeadlines() throws InterruptedException {
+        engine.onAlertDelta(raised(ago(Duration.ZERO)));
+
+        assertThat(notified).isEmpty();
+        await(() -> notified.size() == 2);
+
+        assertThat(notified).containsExactly(MASTER, ADMIN);
+        assertThat(fired()).isEqualTo(2);
+        assertThat(pending()).isZero();
+    }
+
+    @Test
+    void overdueEventRunsOnlyLastOverdueStep() throws InterruptedException {
+        engine.onAlertDelta(raised(ago(Duration.ofMinutes(10))));
+
+        await(() -> !notified.isEmpty());
+        Thread.sleep(SECOND.toMillis());
+
+        assertThat(notified).containsExactly(ADMIN);
+        assertThat(pending()).isZero();
+    }
+
+    @Test
+    void acknowledgementCancelsEscalation() throws InterruptedException {
+        engine.onAlertDelta(raised(ago(Duration.ZERO)));
+
+        engine.onAcknowledged(new EscalationAcknowledgedEvent(EscalationProperties.SOURCE_ALERT, UNIT, MASTER));
+        Thread.sleep(SECOND.toMillis() + 100);
+
+        assertThat(notified).isEmpty();
+        assertThat(pending()).isZero();
+        assertThat(registry.get("escalation.acknowledged").tag("source", EscalationProperties.SOURCE_ALERT)
+                .counter().count()).isEqualTo(1);
+        verify(clusterPublisher).publish(eq(ClusterEvent.Kind.ESCALATION_ACK), eq("ALERT:" + UNIT), isNull(),
+                isNull());
+    }
+
+    @Test
+    void acknowledgementAfterFirstStepStopsTheRest() throws InterruptedException {
+        engine.onAlertDelta(raised(ago(Duration.ZERO)));
+        await(() -> !notified.isEmpty());
+
+        engine.applyRemoteAcknowledgement("ALERT:" + UNIT);
+        Thread.sleep(SECOND.toMillis());
+
+        assertThat(notified).containsExactly(MASTER);
+        assertThat(pending()).isZero();
+    }
+
+    @Test
+    void resolvedAlertCancelsEscalation() throws InterruptedException {
+        AlertMessageDTO alert = alert(ago(Duration.ZERO));
+        engine.onAlertDelta(new ActiveAlertStore.Delta(List.of(alert), List.of()));
+
+        engine.onAlertDelta(new ActiveAlertStore.Delta(List.of(), List.of(alert)));
+        Thread.sleep(SECOND.toMillis() + 100);
+
+        assertThat(notified).isEmpty();
+        assertThat(pending()).isZero();
+    }
+
+    @Test
+    void secondaryNodeTracksButDoesNotNotify() throws InterruptedException {
+        when(pollingCoordinator.isPrimary()).thenReturn(false);
+        engine.onAlertDelta(raised(ago(Duration.ZERO)));
+
+        await(() -> pending() == 0);
+
+        assertThat(notified).isEmpty();
+        assertThat(fired()).isZero();
+    }
+
+    private double fired() {
+        return registry.get("escalation.fired").tag("source", EscalationProperties.SOURCE_ALERT).counter().count();
+    }
+
+    private double pending() {
+        return registry.get("escalation.pending").gauge().value();
+    }
+
+    private static ActiveAlertStore.Delta raised(String timestamp) {
+        return new ActiveAlertStore.Delta(List.of(alert(timestamp)), List.of());
+    }
+
+    private static AlertMessageDTO alert(String timestamp) {
+        return AlertMessageDTO.active(1L, UNIT, UNIT, "Critical", List.of(), timestamp);
+    }
+
+    private static String ago(Duration duration) {
+        return LocalDateTime.now(ZoneOffset.UTC).minus(duration).format(DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+    }
+
+    private static EscalationProperties.Rule rule(EscalationProperties.Step... steps) {
+        EscalationProperties.Rule rule = new EscalationProperties.Rule();
+        rule.setSteps(List.of(steps));
+        return rule;
+    }
+
+    private static EscalationProperties.Step step(Duration after, String role) {
+        EscalationProperties.Step step = new EscalationProperties.Step();
+        step.setAfter(after);
+        step.setRoles(List.of(role));
+        return step;
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("condition not met in time").isLessThan(deadline);
+            Thread.sleep(5);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package dev.savushkin.scada.mobile.backend.infrastructure.escalation;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HashedTimerWheelTest {
+
+    private static final long TICK = 10L;
+
+    private final HashedTimerWheel<String> wheel = new HashedTimerWheel<>(TICK, 8, 0L);
+    private final List<String> fired = new ArrayList<>();
+
+    @Test
+    void firesNotBeforeDeadlineAndWithinOneTick() {
+        wheel.schedule("a", 35, 0);
+
+        assertThat(wheel.advance(39, fired::add)).isZero();
+        assertThat(wheel.advance(40, fired::add)).isEqualTo(1);
+        assertThat(fired).containsExactly("a");
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void timerBeyondOneRevolutionWaitsForItsRound() {
+        // 8 корзин × 10 = 80 за оборот: корзина 2 проходится на 20, 100 и 180
+        wheel.schedule("far", 180, 0);
+
+        assertThat(wheel.advance(179, fired::add)).isZero();
+        assertThat(wheel.advance(180, fired::add)).isEqualTo(1);
+        assertThat(fired).containsExactly("far");
+    }
+
+    @Test
+    void cancelledTimerNeverFires() {
+        HashedTimerWheel.Timeout<String> a = wheel.schedule("a", 20, 0);
+        wheel.schedule("b", 20, 0);
+
+        assertThat(wheel.cancel(a)).isTrue();
+        assertThat(wheel.cancel(a)).isFalse();
+        wheel.advance(100, fired::add);
+
+        assertThat(fired).containsExactly("b");
+        assertThat(wheel.cancel(null)).isFalse();
+    }
+
+    @Test
+    void overdueTimerFiresOnNextTick() {
+        wheel.advance(50, fired::add);
+        wheel.schedule("late", -5, 50);
+
+        assertThat(wheel.advance(60, fired::add)).isEqualTo(1);
+        assertThat(fired).containsExactly("late");
+    }
+
+    @Test
+    void handlerMaySchedulePerTimerFollowUp() {
+        wheel.schedule("step1", 10, 0);
+
+        wheel.advance(10, task -> {
+            fired.add(task);
+            wheel.schedule("step2", 30, 10);
+        });
+        assertThat(wheel.advance(39, fired::add)).isZero();
+        wheel.advance(40, fired::add);
+
+        assertThat(fired).containsExactly("step1", "step2");
+    }
+}
@@ -0,0 +1,234 @@
+package dev.savushkin.scada.mobile.backend.infrastructure.ingestion;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.savushkin.scada.mobile.backend.application.ports.InstanceSnapshotRepository;
+import dev.savushkin.scada.mobile.backend.config.IngestionProperties;
+import dev.savushkin.scada.mobile.backend.domain.model.DeviceSnapshot;
+import dev.savushkin.scada.mobile.backend.infrastructure.ingestion.log.IngestionRecordCodec;
+import dev.savushkin.scada.mobile.backend.infrastructure.ingestion.log.LogIngestionSource;
+import dev.savushkin.scada.mobile.backend.infrastructure.ingestion.log.PartitionedLog;
+import dev.savushkin.scada.mobile.backend.infrastructure.integration.printsrv.PrintSrvMapper;
+import dev.savushkin.scada.mobile.backend.infrastructure.polling.PollingMetrics;
+import dev.savushkin.scada.mobile.backend.infrastructure.polling.PrintSrvInstancePolledEvent;
+import dev.savushkin.scada.mobile.backend.infrastructure.polling.PrintSrvInstancesPolledEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class IngestionPipelineTest {
+
+    private static final Instant AT = Instant.parse("2026-01-01T00:00:00Z");
+    private static final String DEVICE = "Printer11";
+
+    private final InstanceSnapshotRepository snapshots = mock(InstanceSnapshotRepository.class);
+    private final PrintSrvMapper mapper = mock(PrintSrvMapper.class);
+    private final List<PrintSrvInstancesPolledEvent> events = new CopyOnWriteArrayList<>();
+    /**
+     * instanceId → receivedAt сохранённых снимков в порядке сохранения
+     */
+    private final Map<String, List<Instant>> saved = new ConcurrentHashMap<>();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final IngestionRecordCodec codec = new IngestionRecordCodec(objectMapper);
+    private final List<AutoCloseable> running = new ArrayList<>();
+
+    @TempDir
+    Path directory;
+
+    private SimpleMeterRegistry registry;
+    private SimpleMeterRegistry sourceRegistry;
+
+    @BeforeEach
+    void setUp() {
+        when(mapper.toDomainDeviceSnapshot(any())).thenReturn(new DeviceSnapshot(DEVICE, Map.of(), null));
+        doAnswer(invocation -> {
+            DeviceSnapshot snapshot = invocation.getArgument(2);
+            saved.computeIfAbsent(invocation.getArgument(0), id -> new CopyOnWriteArrayList<>())
+                    .add(snapshot.receivedAt());
+            return null;
+        }).when(snapshots).save(anyString(), anyString(), any());
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        for (AutoCloseable closeable : running.reversed()) {
+            closeable.close();
+        }
+    }
+
+    @Test
+    void keepsPerUnitOrderAcrossParallelPartitionsFedFromLog() throws Exception {
+        List<String> units = List.of("hassia1", "hassia2", "hassia3", "bosch1", "bosch2", "trepko1");
+        try (PartitionedLog log = PartitionedLog.open(directory, 3)) {
+            for (int seq = 0; seq < 50; seq++) {
+                for (String unit : units) {
+                    log.append(unit, codec.encode(state(unit, seq)));
+                }
+            }
+        }
+
+        IngestionPipeline pipeline = pipeline(4, 10_000, 64);
+        startLogSource(pipeline);
+        await(() -> units.stream().allMatch(unit -> saved.getOrDefault(unit, List.of()).size() == 50));
+
+        for (String unit : units) {
+            assertThat(saved.get(unit)).as(unit).isSorted().doesNotHaveDuplicates();
+        }
+    }
+
+    @Test
+    void coalescesBatchToOneUpdatePerUnitAndOneEvent() throws Exception {
+        IngestionPipeline pipeline = pipeline(1, 10_000, 1_000);
+        // Пачки накапливаются до старта и обрабатываются worker-ом одной пачкой
+        CompletableFuture<Void> first = pipeline.accept(List.of(state("hassia1", 2), state("hassia2", 5)));
+        CompletableFuture<Void> second = pipeline.accept(List.of(state("hassia1", 1), state("hassia1", 3)));
+        start(pipeline);
+
+        CompletableFuture.allOf(first, second).get(5, TimeUnit.SECONDS);
+
+        assertThat(saved.get("hassia1")).hasSize(3);
+        assertThat(events).hasSize(1);
+        assertThat(events.getFirst().instances())
+                .extracting(PrintSrvInstancePolledEvent::instanceId, PrintSrvInstancePolledEvent::dataReceivedAt)
+                .containsExactly(
+                        tuple("hassia1", AT.plusSeconds(1)),
+                        tuple("hassia2", AT.plusSeconds(5)));
+        assertThat(registry.get("ingestion.unit.updates").counter().count()).isEqualTo(2);
+        assertThat(registry.get("ingestion.records").tag("kind", "DEVICE_STATE").counter().count()).isEqualTo(4);
+    }
+
+    @Test
+    void unreachableInstanceIsClearedAndReportedWithoutReceiveTime() throws Exception {
+        IngestionPipeline pipeline = pipeline(1, 10_000, 1_000);
+        start(pipeline);
+
+        pipeline.accept(List.of(IngestionRecord.unreachable("hassia1", AT))).get(5, TimeUnit.SECONDS);
+
+        verify(snapshots).clearInstance("hassia1");
+        assertThat(events).singleElement().satisfies(event -> assertThat(event.instances())
+                .extracting(PrintSrvInstancePolledEvent::dataReceivedAt).containsExactly((Instant) null));
+    }
+
+    @Test
+    void sourceBlocksWhileQueuesAreFull() throws Exception {
+        IngestionPipeline pipeline = pipeline(1, 2, 1_000);
+        pipeline.accept(List.of(state("hassia1", 1), state("hassia1", 2)));
+
+        List<CompletableFuture<Void>> blocked = new CopyOnWriteArrayList<>();
+        Thread source = Thread.ofVirtual().start(() -> {
+            try {
+                blocked.add(pipeline.accept(List.of(state("hassia1", 3))));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        source.join(200);
+
+        assertThat(source.isAlive()).isTrue();
+        assertThat(registry.get("ingestion.backpressure").counter().count()).isEqualTo(1);
+
+        start(pipeline);
+        source.join(5_000);
+
+        assertThat(source.isAlive()).isFalse();
+        blocked.getFirst().get(5, TimeUnit.SECONDS);
+        assertThat(saved.get("hassia1")).containsExactly(AT.plusSeconds(1), AT.plusSeconds(2), AT.plusSeconds(3));
+    }
+
+    @Test
+    void restartedConsumerResumesFromCommittedOffset() throws Exception {
+        writeLog(0, 3);
+        IngestionPipeline pipeline = pipeline(2, 10_000, 64);
+        LogIngestionSource source = startLogSource(pipeline);
+        // Смещение фиксируется после обработки пачки — ждём фиксации, а не сохранения
+        await(() -> saved.getOrDefault("hassia1", List.of()).size() == 3 && unconsumedBytes() == 0);
+        source.stop();
+        pipeline.stop();
+
+        writeLog(3, 5);
+        startLogSource(pipeline(2, 10_000, 64));
+        await(() -> saved.get("hassia1").size() == 5);
+        Thread.sleep(100);
+
+        assertThat(saved.get("hassia1")).containsExactly(
+                AT, AT.plusSeconds(1), AT.plusSeconds(2), AT.plusSeconds(3), AT.plusSeconds(4));
+    }
+
+    private IngestionPipeline pipeline(int partitions, int queueCapacity, int maxBatchRecords) {
+        IngestionProperties properties = new IngestionProperties();
+        properties.getPipeline().setPartitions(partitions);
+        properties.getPipeline().setQueueCapacity(queueCapacity);
+        properties.getPipeline().setMaxBatchRecords(maxBatchRecords);
+        registry = new SimpleMeterRegistry();
+        ApplicationEventPublisher eventPublisher = event -> events.add((PrintSrvInstancesPolledEvent) event);
+        return new IngestionPipeline(snapshots, mapper, eventPublisher, new PollingMetrics(registry), properties,
+                registry);
+    }
+
+    private void start(IngestionPipeline pipeline) {
+        pipeline.start();
+        running.add(pipeline::stop);
+    }
+
+    private LogIngestionSource startLogSource(IngestionPipeline pipeline) {
+        start(pipeline);
+        IngestionProperties properties = new IngestionProperties();
+        properties.getLog().setDirectory(directory.toString());
+        properties.getLog().setPartitions(3);
+        properties.getLog().setPollIntervalMs(5);
+        properties.getLog().setMaxPollRecords(7);
+        sourceRegistry = new SimpleMeterRegistry();
+        LogIngestionSource source = new LogIngestionSource(properties, objectMapper, sourceRegistry);
+        source.start(pipeline);
+        running.add(source::stop);
+        return source;
+    }
+
+    private double unconsumedBytes() {
+        return sourceRegistry.get("ingestion.log.lag.bytes").gauges().stream().mapToDouble(gauge -> gauge.value()).sum();
+    }
+
+    private void writeLog(int from, int to) throws IOException {
+        try (PartitionedLog log = PartitionedLog.open(directory, 3)) {
+            for (int seq = from; seq < to; seq++) {
+                log.append("hassia1", codec.encode(state("hassia1", seq)));
+            }
+        }
+    }
+
+    private static IngestionRecord state(String instanceId, int seq) {
+        // Тело ответа конвейеру не нужно — маппер подменён
+        return new IngestionRecord(IngestionRecord.Kind.DEVICE_STATE, instanceId, DEVICE, AT.plusSeconds(seq), null);
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("condition not met in time").isLessThan(deadline);
+            Thread.sleep(5);
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package dev.savushkin.scada.mobile.backend.infrastructure.ingestion.log;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.savushkin.scada.mobile.backend.config.IngestionProperties;
+import dev.savushkin.scada.mobile.backend.infrastructure.ingestion.IngestionRecord;
+import dev.savushkin.scada.mobile.backend.infrastructure.ingestion.IngestionSink;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LogIngestionSourceTest {
+
+    private static final Instant AT = Instant.parse("2026-01-01T00:00:00Z");
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final IngestionRecordCodec codec = new IngestionRecordCodec(objectMapper);
+    private final List<String> received = new CopyOnWriteArrayList<>();
+
+    @TempDir
+    Path directory;
+
+    private LogIngestionSource source;
+
+    @AfterEach
+    void tearDown() {
+        if (source != null) {
+            source.stop();
+        }
+    }
+
+    @Test
+    void deliversExistingRecordsInOrderAndCompletesInitialLoad() throws Exception {
+        write("hassia1", "hassia2", "hassia1");
+
+        source = start(recording());
+
+        assertThat(source.awaitInitialLoad(5_000)).isTrue();
+        assertThat(received).containsExactly("hassia1", "hassia2", "hassia1");
+    }
+
+    @Test
+    void restartResumesAfterCommittedOffset() throws Exception {
+        write("hassia1", "hassia2");
+        source = start(recording());
+        await(() -> received.size() == 2);
+        source.stop();
+
+        write("hassia3");
+        received.clear();
+        source = start(recording());
+        await(() -> received.size() == 1);
+
+        assertThat(received).containsExactly("hassia3");
+    }
+
+    @Test
+    void unprocessedBatchIsDeliveredAgainAfterRestart() throws Exception {
+        write("hassia1");
+        CompletableFuture<Void> neverDone = new CompletableFuture<>();
+        source = start(batch -> {
+            batch.forEach(record -> received.add(record.instanceId()));
+            return neverDone;
+        });
+        await(() -> received.size() == 1);
+        source.stop();
+
+        received.clear();
+        source = start(recording());
+        await(() -> received.size() == 1);
+
+        assertThat(received).containsExactly("hassia1");
+    }
+
+    private IngestionSink recording() {
+        return batch -> {
+            batch.forEach(record -> received.add(record.instanceId()));
+            return CompletableFuture.completedFuture(null);
+        };
+    }
+
+    private LogIngestionSource start(IngestionSink sink) {
+        IngestionProperties properties = new IngestionProperties();
+        properties.getLog().setDirectory(directory.toString());
+        properties.getLog().setPartitions(1);
+        properties.getLog().setPollIntervalMs(5);
+        LogIngestionSource started = new LogIngestionSource(properties, objectMapper, new SimpleMeterRegistry());
+        started.start(sink);
+        return started;
+    }
+
+    private void write(String... instanceIds) throws IOException {
+        try (PartitionedLog log = PartitionedLog.open(directory, 1)) {
+            for (String instanceId : instanceIds) {
+                log.append(instanceId, codec.encode(IngestionRecord.unreachable(instanceId, AT)));
+            }
+        }
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("condition not met in time").isLessThan(deadline);
+            Thread.sleep(5);
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package dev.savushkin.scada.mobile.backend.infrastructure.integration.database.adapter;
+
+import dev.savushkin.scada.mobile.backend.application.ports.AlertHistoryRepository.Cursor;
+import dev.savushkin.scada.mobile.backend.application.ports.AlertHistoryRepository.IncidentPage;
+import dev.savushkin.scada.mobile.backend.domain.model.AlertIncident;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AlertHistoryJdbcAdapterTest {
+
+    private static final String UNIT = "hassia1";
+    private static final long WORKSHOP = 1L;
+    private static final LocalDateTime FROM = LocalDateTime.of(2026, 1, 1, 0, 0);
+    private static final LocalDateTime TO = FROM.plusDays(1);
+
+    private static EmbeddedPostgres postgres;
+    private static NamedParameterJdbcTemplate jdbc;
+
+    private AlertHistoryJdbcAdapter adapter;
+
+    @BeforeAll
+    static void startDatabase() throws IOException {
+        postgres = EmbeddedPostgres.builder().start();
+        Flyway.configure()
+                .dataSource(postgres.getPostgresDatabase())
+                .locations("classpath:db/migration")
+                .load()
+                .migrate();
+        jdbc = new NamedParameterJdbcTemplate(postgres.getPostgresDatabase());
+    }
+
+    @AfterAll
+    static void stopDatabase() throws IOException {
+        postgres.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        jdbc.getJdbcTemplate().execute("TRUNCATE alert_history");
+        adapter = new AlertHistoryJdbcAdapter(jdbc);
+    }
+
+    @Test
+    void walksAllIncidentsNewestFirstWithoutGapsOrRepeats() {
+        List<AlertIncident> incidents = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            // пары с одинаковым started_at — порядок внутри пары задаёт alert_id
+            incidents.add(incident(UNIT, FROM.plusHours(i / 2)));
+        }
+        adapter.appendAll(incidents);
+
+        List<AlertIncident> seen = new ArrayList<>();
+        Cursor cursor = null;
+        int pages = 0;
+        do {
+            IncidentPage page = adapter.findByInstance(UNIT, FROM, TO, cursor, 3);
+            seen.addAll(page.items());
+            cursor = page.next();
+            pages++;
+        } while (cursor != null);
+
+        assertThat(pages).isEqualTo(3);
+        assertThat(seen).hasSize(7);
+        assertThat(seen).extracting(AlertIncident::id).doesNotHaveDuplicates();
+        for (int i = 1; i < seen.size(); i++) {
+            AlertIncident newer = seen.get(i - 1);
+            AlertIncident older = seen.get(i);
+            assertThat(newer.startedAt()).isAfterOrEqualTo(older.startedAt());
+            if (newer.startedAt().equals(older.startedAt())) {
+                assertThat(newer.id()).isGreaterThan(older.id());
+            }
+        }
+    }
+
+    @Test
+    void exactlyFullLastPageHasNoNextCursor() {
+        adapter.appendAll(List.of(incident(UNIT, FROM), incident(UNIT, FROM.plusHours(1))));
+
+        IncidentPage page = adapter.findByInstance(UNIT, FROM, TO, null, 2);
+
+        assertThat(page.items()).hasSize(2);
+        assertThat(page.next()).isNull();
+    }
+
+    @Test
+    void filtersByWorkshopAndRange() {
+        adapter.appendAll(List.of(
+                incident(UNIT, FROM.plusHours(1)),
+                incident("bosch1", FROM.plusHours(2)),
+                incident(UNIT, TO.plusHours(1))));
+
+        IncidentPage page = adapter.findByWorkshop(WORKSHOP, FROM, TO, null, 10);
+
+        assertThat(page.items()).extracting(AlertIncident::instanceId).containsExactly("bosch1", UNIT);
+        assertThat(page.next()).isNull();
+    }
+
+    @Test
+    void partitionIsCreatedForMonthAlreadyInDefaultPartition() {
+        LocalDateTime early = LocalDateTime.of(2020, 3, 10, 12, 0);
+        adapter.appendAll(List.of(incident(UNIT, early), incident(UNIT, early.plusMonths(1))));
+        assertThat(count("alert_history_default")).isEqualTo(2);
+
+        adapter.ensurePartition(early.toLocalDate());
+        adapter.ensurePartition(early.toLocalDate());
+
+        assertThat(count("alert_history_2020_03")).isEqualTo(1);
+        assertThat(count("alert_history_default")).isEqualTo(1);
+        assertThat(adapter.findByInstance(UNIT, early.minusDays(1), early.plusDays(1), null, 10).items())
+                .extracting(AlertIncident::startedAt).containsExactly(early);
+
+        // Новая строка месяца попадает уже в созданную партицию
+        adapter.appendAll(List.of(incident(UNIT, early.plusDays(1))));
+        assertThat(count("alert_history_2020_03")).isEqualTo(2);
+    }
+
+    private static int count(String table) {
+        Integer count = jdbc.getJdbcTemplate().queryForObject("SELECT count(*) FROM " + table, Integer.class);
+        return count == null ? 0 : count;
+    }
+
+    private static AlertIncident incident(String unitId, LocalDateTime startedAt) {
+        return new AlertIncident(null, unitId, WORKSHOP, unitId, "Critical", null, startedAt, startedAt.plusMinutes(5));
+    }
+}
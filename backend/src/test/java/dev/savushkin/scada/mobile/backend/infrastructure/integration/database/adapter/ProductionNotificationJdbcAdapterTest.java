@@ -0,0 +1,175 @@
+package dev.savushkin.scada.mobile.backend.infrastructure.integration.database.adapter;
+
+import dev.savushkin.scada.mobile.backend.application.ports.NotificationRepository.SaveResult;
+import dev.savushkin.scada.mobile.backend.application.ports.UserAssignmentRepository;
+import dev.savushkin.scada.mobile.backend.domain.model.ProductionNotification;
+import dev.savushkin.scada.mobile.backend.infrastructure.startup.StartupMetrics;
+import dev.savushkin.scada.mobile.backend.infrastructure.store.ProductionNotificationCache;
+import dev.savushkin.scada.mobile.backend.services.NotificationService;
+import dev.savushkin.scada.mobile.backend.services.NotificationService.ToggleResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Два узла — два адаптера со своими кэшами над одной БД, без шины кластера между ними:
+ * toggle должен давать верный ответ, даже если кэш узла не знает об изменениях другого.
+ */
+class ProductionNotificationJdbcAdapterTest {
+
+    private static final String UNIT = "hassia1";
+    private static final long CREATOR = 1L;
+    private static final long OTHER = 2L;
+
+    private static EmbeddedPostgres postgres;
+    private static NamedParameterJdbcTemplate jdbc;
+
+    private Node nodeA;
+    private Node nodeB;
+
+    @BeforeAll
+    static void startDatabase() throws IOException {
+        postgres = EmbeddedPostgres.builder().start();
+        Flyway.configure()
+                .dataSource(postgres.getPostgresDatabase())
+                .locations("classpath:db/migration")
+                .load()
+                .migrate();
+        jdbc = new NamedParameterJdbcTemplate(postgres.getPostgresDatabase());
+    }
+
+    @AfterAll
+    static void stopDatabase() throws IOException {
+        postgres.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        jdbc.getJdbcTemplate().execute("TRUNCATE production_notifications");
+        nodeA = new Node();
+        nodeB = new Node();
+    }
+
+    @Test
+    void toggleWritesThroughToOwnCache() {
+        nodeA.service.toggleNotification(UNIT, CREATOR);
+        jdbc.getJdbcTemplate().execute("TRUNCATE production_notifications");
+
+        // Строк в БД больше нет — ответ может дать только кэш, обновлённый при записи
+        assertThat(nodeA.adapter.findActiveByUnitId(UNIT)).isPresent();
+        assertThat(nodeA.adapter.findAllActive()).hasSize(1);
+
+        nodeA.service.toggleNotification(UNIT, CREATOR);
+        assertThat(nodeA.adapter.findActiveByUnitId(UNIT)).isEmpty();
+    }
+
+    @Test
+    void creatorDeactivatesOnAnotherNode() {
+        assertThat(nodeA.service.toggleNotification(UNIT, CREATOR)).isInstanceOf(ToggleResult.Activated.class);
+
+        assertThat(nodeB.service.toggleNotification(UNIT, CREATOR)).isInstanceOf(ToggleResult.Deactivated.class);
+
+        assertThat(activeRows()).isZero();
+        assertThat(nodeB.adapter.findActiveByUnitId(UNIT)).isEmpty();
+    }
+
+    @Test
+    void staleEntryDoesNotBlockOtherUsers() {
+        nodeA.service.toggleNotification(UNIT, CREATOR);
+        nodeB.adapter.warmUp();
+        assertThat(nodeB.adapter.findActiveByUnitId(UNIT)).isPresent();
+
+        nodeA.service.toggleNotification(UNIT, CREATOR);
+
+        ToggleResult result = nodeB.service.toggleNotification(UNIT, OTHER);
+        assertThat(result).isEqualTo(new ToggleResult.Activated(UNIT, Long.toString(OTHER)));
+        assertThat(activeRows()).isEqualTo(1);
+    }
+
+    @Test
+    void activeByOtherOnAnotherNodeIsReportedAsConflict() {
+        nodeA.service.toggleNotification(UNIT, CREATOR);
+
+        ToggleResult result = nodeB.service.toggleNotification(UNIT, OTHER);
+
+        assertThat(result).isEqualTo(new ToggleResult.AlreadyActiveByOther(UNIT, Long.toString(CREATOR)));
+        assertThat(nodeB.adapter.findActiveByUnitId(UNIT)).isPresent();
+        assertThat(activeRows()).isEqualTo(1);
+    }
+
+    @Test
+    void reloadAppliesRemoteChangesToCache() {
+        nodeA.service.toggleNotification(UNIT, CREATOR);
+        assertThat(nodeB.adapter.reloadActiveByUnitId(UNIT)).isPresent();
+        assertThat(nodeB.adapter.findAllActive()).hasSize(1);
+
+        nodeA.service.toggleNotification(UNIT, CREATOR);
+        assertThat(nodeB.adapter.reloadActiveByUnitId(UNIT)).isEmpty();
+        assertThat(nodeB.adapter.findAllActive()).isEmpty();
+    }
+
+    @Test
+    void saveReportsWhetherActivationCreatedRow() {
+        SaveResult created = nodeA.adapter.save(ProductionNotification.activate(UNIT, Long.toString(CREATOR)));
+        SaveResult lost = nodeB.adapter.save(ProductionNotification.activate(UNIT, Long.toString(OTHER)));
+
+        assertThat(created.created()).isTrue();
+        assertThat(lost.created()).isFalse();
+        assertThat(lost.notification().creatorId()).isEqualTo(Long.toString(CREATOR));
+        assertThat(activeRows()).isEqualTo(1);
+    }
+
+    @Test
+    void lostActivationReachesCacheOnlyAfterCommit() {
+        nodeA.adapter.save(ProductionNotification.activate(UNIT, Long.toString(CREATOR)));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            SaveResult lost = nodeB.adapter.save(ProductionNotification.activate(UNIT, Long.toString(OTHER)));
+            assertThat(lost.created()).isFalse();
+            // Транзакция ещё не зафиксирована — кэш узла не меняется
+            assertThat(nodeB.adapter.findActiveByUnitId(UNIT)).isEmpty();
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertThat(nodeB.adapter.findActiveByUnitId(UNIT))
+                .hasValueSatisfying(active -> assertThat(active.creatorId()).isEqualTo(Long.toString(CREATOR)));
+    }
+
+    private static int activeRows() {
+        Integer count = jdbc.getJdbcTemplate().queryForObject(
+                "SELECT COUNT(*) FROM production_notifications WHERE deactivated_at IS NULL", Integer.class);
+        return count == null ? 0 : count;
+    }
+
+    private static final class Node {
+
+        final ProductionNotificationJdbcAdapter adapter = new ProductionNotificationJdbcAdapter(
+                jdbc, new ProductionNotificationCache(), new StartupMetrics(new SimpleMeterRegistry()));
+        final NotificationService service;
+
+        Node() {
+            UserAssignmentRepository assignments = mock(UserAssignmentRepository.class);
+            when(assignments.canSendNotification(anyLong(), anyString())).thenReturn(true);
+            service = new NotificationService(adapter, assignments, event -> { });
+            adapter.warmUp();
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package dev.savushkin.scada.mobile.backend.infrastructure.integration.database.adapter;
+
+import dev.savushkin.scada.mobile.backend.application.ports.RefreshTokenRepository.RotatedSession;
+import dev.savushkin.scada.mobile.backend.application.ports.RefreshTokenRepository.TokenState;
+import dev.savushkin.scada.mobile.backend.infrastructure.integration.database.repository.RefreshTokenJpaRepository;
+import dev.savushkin.scada.mobile.backend.infrastructure.store.RefreshTokenCache;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class RefreshTokenJpaAdapterTest {
+
+    private static final Instant NOW = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+    private static final Instant EXPIRES_AT = NOW.plus(Duration.ofDays(7));
+
+    private static EmbeddedPostgres postgres;
+    private static NamedParameterJdbcTemplate jdbc;
+
+    private final RefreshTokenJpaRepository jpaRepository = mock(RefreshTokenJpaRepository.class);
+
+    private long userId;
+    private RefreshTokenJpaAdapter adapter;
+
+    @BeforeAll
+    static void startDatabase() throws IOException {
+        postgres = EmbeddedPostgres.builder().start();
+        Flyway.configure()
+                .dataSource(postgres.getPostgresDatabase())
+                .locations("classpath:db/migration")
+                .load()
+                .migrate();
+        jdbc = new NamedParameterJdbcTemplate(postgres.getPostgresDatabase());
+    }
+
+    @AfterAll
+    static void stopDatabase() throws IOException {
+        postgres.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        jdbc.getJdbcTemplate().execute("TRUNCATE refresh_tokens, users, roles RESTART IDENTITY CASCADE");
+        jdbc.getJdbcTemplate().update("INSERT INTO roles (name) VALUES ('Operator')");
+        jdbc.getJdbcTemplate().update("""
+                INSERT INTO users (role_id, code, password, full_name, is_active, password_temporary)
+                VALUES (1, '1001', 'hash', 'Иванов', true, true)
+                """);
+        userId = 1L;
+        adapter = adapter();
+    }
+
+    @Test
+    void rotationRevokesOldTokenAndIssuesNewOne() {
+        adapter.issue(userId, "old", NOW, EXPIRES_AT);
+
+        Optional<RotatedSession> session = adapter.rotate("old", "new", NOW, EXPIRES_AT);
+
+        assertThat(session).contains(new RotatedSession(userId, "Operator", true));
+        assertThat(revoked("old")).isTrue();
+        assertThat(revoked("new")).isFalse();
+    }
+
+    @Test
+    void replayedTokenIsRejectedEvenByNodeWithColdCache() {
+        adapter.issue(userId, "old", NOW, EXPIRES_AT);
+        assertThat(adapter.rotate("old", "new", NOW, EXPIRES_AT)).isPresent();
+
+        // Другой узел не видел ротации — отказ должен дать сам SQL-запрос
+        assertThat(adapter().rotate("old", "stolen", NOW, EXPIRES_AT)).isEmpty();
+        assertThat(count("stolen")).isZero();
+    }
+
+    @Test
+    void expiredTokenIsNotRotated() {
+        // Выдан другим узлом: отказ даёт условие на expires_at, а не кэш
+        adapter().issue(userId, "old", NOW.minus(Duration.ofDays(8)), NOW.minusSeconds(1));
+
+        assertThat(adapter.rotate("old", "new", NOW, EXPIRES_AT)).isEmpty();
+        assertThat(count("new")).isZero();
+    }
+
+    @Test
+    void tokenOfDeactivatedUserIsNotRotated() {
+        adapter.issue(userId, "old", NOW, EXPIRES_AT);
+        jdbc.getJdbcTemplate().update("UPDATE users SET is_active = false");
+
+        assertThat(adapter.rotate("old", "new", NOW, EXPIRES_AT)).isEmpty();
+        assertThat(revoked("old")).isFalse();
+        assertThat(count("new")).isZero();
+    }
+
+    @Test
+    void concurrentRotationsOfOneTokenSucceedOnce() throws InterruptedException {
+        adapter.issue(userId, "old", NOW, EXPIRES_AT);
+
+        List<RotatedSession> sessions = new CopyOnWriteArrayList<>();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            String newHash = "new" + i;
+            // У каждого потока свой адаптер с холодным кэшем — как у разных узлов
+            RefreshTokenJpaAdapter node = adapter();
+            threads.add(Thread.ofVirtual().start(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                node.rotate("old", newHash, NOW, EXPIRES_AT).ifPresent(sessions::add);
+            }));
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertThat(sessions).hasSize(1);
+        assertThat(jdbc.getJdbcTemplate().queryForObject(
+                "SELECT count(*) FROM refresh_tokens WHERE revoked = false", Integer.class)).isEqualTo(1);
+    }
+
+    @Test
+    void revokedTokenIsRejectedFromCache() {
+        adapter.issue(userId, "old", NOW, EXPIRES_AT);
+        assertThat(adapter.revoke("old")).isTrue();
+        assertThat(adapter.revoke("old")).isFalse();
+
+        // В БД токен снова действителен — отказ может дать только кэш
+        jdbc.getJdbcTemplate().update("UPDATE refresh_tokens SET revoked = false");
+
+        assertThat(adapter.rotate("old", "new", NOW, EXPIRES_AT)).isEmpty();
+        assertThat(count("new")).isZero();
+    }
+
+    @Test
+    void revokeAllByUserIdMarksCachedTokensRevoked() {
+        adapter.issue(userId, "a", NOW, EXPIRES_AT);
+        adapter.issue(userId, "b", NOW, EXPIRES_AT);
+
+        adapter.revokeAllByUserId(userId);
+
+        assertThat(adapter.findStateByTokenHash("a")).map(TokenState::revoked).contains(true);
+        assertThat(adapter.findStateByTokenHash("b")).map(TokenState::revoked).contains(true);
+        assertThat(adapter.rotate("a", "new", NOW, EXPIRES_AT)).isEmpty();
+    }
+
+    @Test
+    void stateMissIsReadFromDatabaseOnceAndCached() {
+        adapter().issue(userId, "old", NOW, EXPIRES_AT);
+
+        assertThat(adapter.findStateByTokenHash("old")).contains(new TokenState(userId, EXPIRES_AT, false));
+
+        jdbc.getJdbcTemplate().execute("DELETE FROM refresh_tokens");
+        assertThat(adapter.findStateByTokenHash("old")).contains(new TokenState(userId, EXPIRES_AT, false));
+        assertThat(adapter.findStateByTokenHash("missing")).isEmpty();
+    }
+
+    @Test
+    void deleteExpiredRemovesBoundedBatchesAndEvictsCache() {
+        for (int i = 0; i < 5; i++) {
+            adapter.issue(userId, "expired" + i, NOW.minus(Duration.ofDays(30)), NOW.minus(Duration.ofDays(20)));
+        }
+        adapter.issue(userId, "valid", NOW, EXPIRES_AT);
+
+        assertThat(adapter.deleteExpired(NOW, 2)).isEqualTo(2);
+        assertThat(adapter.deleteExpired(NOW, 2)).isEqualTo(2);
+        assertThat(adapter.deleteExpired(NOW, 2)).isEqualTo(1);
+        assertThat(adapter.deleteExpired(NOW, 2)).isZero();
+
+        assertThat(count("valid")).isEqualTo(1);
+        assertThat(adapter.findStateByTokenHash("expired0")).isEmpty();
+        assertThat(adapter.findStateByTokenHash("valid")).isPresent();
+    }
+
+    private RefreshTokenJpaAdapter adapter() {
+        return new RefreshTokenJpaAdapter(jpaRepository, jdbc, new RefreshTokenCache(100));
+    }
+
+    private static boolean revoked(String tokenHash) {
+        return Boolean.TRUE.equals(jdbc.queryForObject("SELECT revoked FROM refresh_tokens WHERE token_hash = :hash",
+                new MapSqlParameterSource("hash", tokenHash), Boolean.class));
+    }
+
+    private static int count(String tokenHash) {
+        Integer count = jdbc.queryForObject("SELECT count(*) FROM refresh_tokens WHERE token_hash = :hash",
+                new MapSqlParameterSource("hash", tokenHash), Integer.class);
+        return count == null ? 0 : count;
+    }
+}
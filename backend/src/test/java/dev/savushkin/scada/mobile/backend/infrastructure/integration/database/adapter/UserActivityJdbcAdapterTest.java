@@ -0,0 +1,101 @@
+package dev.savushkin.scada.mobile.backend.infrastructure.integration.database.adapter;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UserActivityJdbcAdapterTest {
+
+    private static final LocalDateTime AT = LocalDateTime.of(2026, 1, 1, 8, 0, 0);
+
+    private static EmbeddedPostgres postgres;
+    private static NamedParameterJdbcTemplate jdbc;
+
+    private UserActivityJdbcAdapter adapter;
+
+    @BeforeAll
+    static void startDatabase() throws IOException {
+        postgres = EmbeddedPostgres.builder().start();
+        Flyway.configure()
+                .dataSource(postgres.getPostgresDatabase())
+                .locations("classpath:db/migration")
+                .load()
+                .migrate();
+        jdbc = new NamedParameterJdbcTemplate(postgres.getPostgresDatabase());
+    }
+
+    @AfterAll
+    static void stopDatabase() throws IOException {
+        postgres.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        jdbc.getJdbcTemplate().execute("TRUNCATE refresh_tokens, users, roles RESTART IDENTITY CASCADE");
+        jdbc.getJdbcTemplate().update("INSERT INTO roles (name) VALUES ('Operator')");
+        for (int i = 1; i <= 3; i++) {
+            jdbc.getJdbcTemplate().update("""
+                    INSERT INTO users (role_id, code, password, full_name, is_active)
+                    VALUES (1, ?, 'hash', 'Иванов', true)
+                    """, "100" + i);
+        }
+        adapter = new UserActivityJdbcAdapter(jdbc);
+    }
+
+    @Test
+    void writesWholeBatch() {
+        adapter.updateLastActivity(Map.of(1L, AT, 2L, AT.plusMinutes(1)));
+
+        assertThat(lastActivity(1L)).isEqualTo(AT);
+        assertThat(lastActivity(2L)).isEqualTo(AT.plusMinutes(1));
+        assertThat(lastActivity(3L)).isNull();
+    }
+
+    @Test
+    void neverMovesActivityBackwards() {
+        adapter.updateLastActivity(Map.of(1L, AT));
+
+        adapter.updateLastActivity(Map.of(1L, AT.minusHours(1)));
+        assertThat(lastActivity(1L)).isEqualTo(AT);
+
+        adapter.updateLastActivity(Map.of(1L, AT.plusHours(1)));
+        assertThat(lastActivity(1L)).isEqualTo(AT.plusHours(1));
+    }
+
+    @Test
+    void ignoresUnknownUser() {
+        adapter.updateLastActivity(Map.of(1L, AT, 999L, AT));
+
+        assertThat(lastActivity(1L)).isEqualTo(AT);
+        assertThat(jdbc.getJdbcTemplate().queryForObject("SELECT count(*) FROM users", Integer.class)).isEqualTo(3);
+    }
+
+    @Test
+    void splitsBatchLargerThanOneStatement() {
+        Map<Long, LocalDateTime> batch = new HashMap<>();
+        for (long userId = 1; userId <= 2500; userId++) {
+            batch.put(userId, AT);
+        }
+
+        adapter.updateLastActivity(batch);
+
+        assertThat(lastActivity(3L)).isEqualTo(AT);
+    }
+
+    private static LocalDateTime lastActivity(long userId) {
+        return jdbc.queryForObject("SELECT last_activity_at FROM users WHERE user_id = :userId",
+                new MapSqlParameterSource("userId", userId), LocalDateTime.class);
+    }
+}
@@ -0,0 +1,116 @@
+package dev.savushkin.scada.mobile.backend.infrastructure.integration.printsrv.capture;
+
+import dev.savushkin.scada.mobile.backend.config.PrintSrvProperties;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Круговой проход журнала захвата: записанное {@link PrintSrvCaptureWriter} читается
+ * {@link PrintSrvCaptureFormat#read} без потерь, а оборванная последняя запись отбрасывается.
+ */
+class PrintSrvCaptureFormatTest {
+
+    private static final Charset CP1251 = Charset.forName("windows-1251");
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void writtenFramesAreReadBackUnchanged() throws IOException {
+        PrintSrvCaptureWriter writer = writer();
+        long before = System.currentTimeMillis();
+        writer.record("hassia1", "Line", payload("{\"Состояние\":1}"));
+        writer.recordFailure("hassia1", "Printer11");
+        writer.record("линия-2", "Scada", payload("{}"));
+        writer.close();
+        long after = System.currentTimeMillis();
+
+        List<PrintSrvCaptureFormat.Frame> frames = readAll();
+
+        assertThat(frames)
+                .extracting(PrintSrvCaptureFormat.Frame::instanceId, PrintSrvCaptureFormat.Frame::device,
+                        PrintSrvCaptureFormat.Frame::status, PrintSrvCaptureFormat.Frame::payload)
+                .containsExactly(
+                        tuple("hassia1", "Line", PrintSrvCaptureFormat.STATUS_OK, ByteBuffer.wrap(payload("{\"Состояние\":1}"))),
+                        tuple("hassia1", "Printer11", PrintSrvCaptureFormat.STATUS_FAILURE, ByteBuffer.allocate(0)),
+                        tuple("линия-2", "Scada", PrintSrvCaptureFormat.STATUS_OK, ByteBuffer.wrap(payload("{}"))));
+        assertThat(frames).allSatisfy(frame -> assertThat(frame.epochMillis()).isBetween(before, after));
+    }
+
+    @Test
+    void truncatedLastFrameIsSkipped() throws IOException {
+        PrintSrvCaptureWriter writer = writer();
+        writer.record("hassia1", "Line", payload("{\"a\":1}"));
+        writer.record("hassia1", "Line", payload("{\"a\":2}"));
+        writer.close();
+        Path segment = singleSegment();
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 3);
+        }
+
+        assertThat(readAll())
+                .extracting(PrintSrvCaptureFormat.Frame::payload)
+                .containsExactly(ByteBuffer.wrap(payload("{\"a\":1}")));
+    }
+
+    @Test
+    void unclosedSegmentStopsAtZeroTail() throws IOException {
+        PrintSrvCaptureWriter writer = writer();
+        writer.record("hassia1", "Line", payload("{\"a\":1}"));
+
+        // Сегмент не закрыт — на диске полный размер, хвост забит нулями
+        assertThat(Files.size(singleSegment())).isEqualTo(1024 * 1024);
+        assertThat(readAll()).hasSize(1);
+
+        writer.close();
+    }
+
+    @Test
+    void foreignFileIsRejected() throws IOException {
+        Path segment = Files.write(directory.resolve("printsrv-foreign" + PrintSrvCaptureFormat.SUFFIX),
+                new byte[]{1, 2, 3});
+
+        assertThatThrownBy(() -> PrintSrvCaptureFormat.read(segment, frame -> { }))
+                .isInstanceOf(IOException.class);
+    }
+
+    private PrintSrvCaptureWriter writer() {
+        PrintSrvProperties properties = new PrintSrvProperties();
+        properties.getCapture().setEnabled(true);
+        properties.getCapture().setDirectory(directory.toString());
+        properties.getCapture().setSegmentSizeMb(1);
+        return new PrintSrvCaptureWriter(properties);
+    }
+
+    private List<PrintSrvCaptureFormat.Frame> readAll() throws IOException {
+        List<PrintSrvCaptureFormat.Frame> frames = new ArrayList<>();
+        for (Path segment : PrintSrvCaptureFormat.segments(directory)) {
+            PrintSrvCaptureFormat.read(segment, frames::add);
+        }
+        return frames;
+    }
+
+    private Path singleSegment() throws IOException {
+        List<Path> segments = PrintSrvCaptureFormat.segments(directory);
+        assertThat(segments).hasSize(1);
+        return segments.get(0);
+    }
+
+    private static byte[] payload(String json) {
+        return json.getBytes(CP1251);
+    }
+}
@@ -0,0 +1,186 @@
+package dev.savushkin.scada.mobile.backend.infrastructure.outbox;
+
+import dev.savushkin.scada.mobile.backend.application.ports.UnitConfigOutboxRepository;
+import dev.savushkin.scada.mobile.backend.config.UnitConfigProperties;
+import dev.savushkin.scada.mobile.backend.domain.model.UnitConfigChange;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.jspecify.annotations.NonNull;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class UnitConfigOutboxRelayTest {
+
+    private static final Instant AT = Instant.parse("2026-01-01T00:00:00Z");
+
+    private final FakeOutbox outbox = new FakeOutbox();
+    private final RecordingPublisher publisher = new RecordingPublisher();
+    private final List<Object> events = new CopyOnWriteArrayList<>();
+    private final UnitConfigProperties properties = new UnitConfigProperties();
+
+    private UnitConfigOutboxRelay relay;
+
+    @AfterEach
+    void tearDown() {
+        if (relay != null) {
+            relay.stop();
+        }
+    }
+
+    @Test
+    void compactsBatchToLatestChangePerUnit() throws InterruptedException {
+        UnitConfigChange firstA = UnitConfigChange.upsert("a", "10.0.0.1", 9000, "A", 1L, true, AT);
+        UnitConfigChange b = UnitConfigChange.upsert("b", "10.0.0.2", 9000, "B", 1L, true, AT);
+        UnitConfigChange deleteA = UnitConfigChange.delete("a", AT.plusSeconds(1));
+        outbox.add(firstA, b, deleteA);
+
+        start();
+        await(() -> outbox.isEmpty() && !events.isEmpty());
+
+        assertThat(publisher.batches).containsExactly(List.of(b, deleteA));
+        assertThat(events).containsExactly(new UnitConfigChangesPublishedEvent(List.of(b, deleteA)));
+    }
+
+    @Test
+    void failedPublishKeepsRowsAndRetries() throws InterruptedException {
+        UnitConfigChange a = UnitConfigChange.upsert("a", "10.0.0.1", 9000, "A", 1L, true, AT);
+        outbox.add(a);
+        publisher.failures.set(1);
+
+        start();
+        await(outbox::isEmpty);
+
+        assertThat(publisher.attempts).hasValue(2);
+        assertThat(publisher.batches).containsExactly(List.of(a));
+        assertThat(events).containsExactly(new UnitConfigChangesPublishedEvent(List.of(a)));
+    }
+
+    @Test
+    void doesNothingWhileAnotherRelayHoldsTheLock() throws InterruptedException {
+        outbox.add(UnitConfigChange.upsert("a", "10.0.0.1", 9000, "A", 1L, true, AT));
+        outbox.locked.set(true);
+
+        start();
+        Thread.sleep(100);
+
+        assertThat(publisher.attempts).hasValue(0);
+        assertThat(outbox.isEmpty()).isFalse();
+
+        outbox.locked.set(false);
+        await(outbox::isEmpty);
+        assertThat(publisher.batches).hasSize(1);
+    }
+
+    @Test
+    void publishesStartupSnapshotAfterDrainingOutbox() throws InterruptedException {
+        UnitConfigChange pending = UnitConfigChange.upsert("a", "10.0.0.1", 9000, "A", 1L, true, AT);
+        UnitConfigChange active = UnitConfigChange.upsert("a", "10.0.0.9", 9000, "A", 1L, true, AT.plusSeconds(5));
+        outbox.add(pending);
+        outbox.snapshot = List.of(active);
+        properties.setSnapshotOnStartup(true);
+
+        start();
+        await(() -> publisher.batches.size() == 2);
+
+        assertThat(publisher.batches).containsExactly(List.of(pending), List.of(active));
+        assertThat(events).hasSize(1);
+    }
+
+    private void start() {
+        properties.setPublisher(UnitConfigProperties.PUBLISHER_LOG);
+        properties.setPollIntervalMs(10);
+        ApplicationEventPublisher eventPublisher = events::add;
+        relay = new UnitConfigOutboxRelay(outbox, List.of(publisher), properties,
+                mock(PlatformTransactionManager.class), eventPublisher, new SimpleMeterRegistry());
+        relay.start();
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("condition not met in time").isLessThan(deadline);
+            Thread.sleep(5);
+        }
+    }
+
+    /**
+     * Outbox в памяти: строки удаляются только явным {@link #delete}.
+     */
+    private static final class FakeOutbox implements UnitConfigOutboxRepository {
+
+        final AtomicBoolean locked = new AtomicBoolean();
+        volatile List<UnitConfigChange> snapshot = List.of();
+        private final List<Entry> rows = new ArrayList<>();
+        private long nextId = 1;
+
+        synchronized void add(UnitConfigChange... changes) {
+            for (UnitConfigChange change : changes) {
+                rows.add(new Entry(nextId++, change));
+            }
+        }
+
+        synchronized boolean isEmpty() {
+            return rows.isEmpty();
+        }
+
+        @Override
+        public void append(@NonNull List<UnitConfigChange> changes) {
+            add(changes.toArray(UnitConfigChange[]::new));
+        }
+
+        @Override
+        public boolean tryLockRelay() {
+            return !locked.get();
+        }
+
+        @Override
+        public synchronized @NonNull List<Entry> fetchBatch(int limit) {
+            return List.copyOf(rows.subList(0, Math.min(limit, rows.size())));
+        }
+
+        @Override
+        public synchronized void delete(@NonNull Collection<Long> ids) {
+            rows.removeIf(entry -> ids.contains(entry.id()));
+        }
+
+        @Override
+        public @NonNull List<UnitConfigChange> snapshotActiveUnits(@NonNull Instant at) {
+            return snapshot;
+        }
+    }
+
+    private static final class RecordingPublisher implements UnitConfigPublisher {
+
+        final List<List<UnitConfigChange>> batches = new CopyOnWriteArrayList<>();
+        final AtomicInteger attempts = new AtomicInteger();
+        final AtomicInteger failures = new AtomicInteger();
+
+        @Override
+        public @NonNull String name() {
+            return UnitConfigProperties.PUBLISHER_LOG;
+        }
+
+        @Override
+        public void publish(@NonNull List<UnitConfigChange> changes) throws IOException {
+            attempts.incrementAndGet();
+            if (failures.getAndUpdate(left -> Math.max(0, left - 1)) > 0) {
+                throw new IOException("broker unavailable");
+            }
+            batches.add(List.copyOf(changes));
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package dev.savushkin.scada.mobile.backend.infrastructure.polling;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * MDC-поля {@link PollingLogger}: внутри итерации worker-а ставятся один раз, вне итерации —
+ * на время записи, после которой у потока остаются прежние значения.
+ */
+class PollingLoggerTest {
+
+    private final Logger logger = (Logger) LoggerFactory.getLogger("scada.polling.diagnostic");
+    /**
+     * Logback читает MDC события лениво — фиксируем его в момент записи, пока поля ещё стоят.
+     */
+    private final ListAppender<ILoggingEvent> appender = new ListAppender<>() {
+        @Override
+        protected void append(ILoggingEvent event) {
+            event.prepareForDeferredProcessing();
+            super.append(event);
+        }
+    };
+    private Level previousLevel;
+
+    @BeforeEach
+    void attachAppender() {
+        previousLevel = logger.getLevel();
+        logger.setLevel(Level.DEBUG);
+        appender.start();
+        logger.addAppender(appender);
+        MDC.clear();
+    }
+
+    @AfterEach
+    void detachAppender() {
+        logger.detachAppender(appender);
+        logger.setLevel(previousLevel);
+        MDC.clear();
+    }
+
+    @Test
+    void callOutsideIterationLeavesNoPollingFields() {
+        PollingLogger.logSocketCreate("hassia1", "10.0.0.1", 9000);
+
+        assertThat(mdcOfLastEvent())
+                .containsEntry("component", "POLLING")
+                .containsEntry("instanceId", "hassia1")
+                .containsEntry("step", "2")
+                .doesNotContainKey("device");
+        assertThat(MDC.getCopyOfContextMap()).isNullOrEmpty();
+    }
+
+    @Test
+    void callOutsideIterationRestoresCallerValues() {
+        MDC.put("instanceId", "outer");
+        MDC.put("device", "Printer11");
+        MDC.put("requestId", "r-1");
+
+        PollingLogger.logResponseHeader("hassia1", "Line", 512);
+
+        assertThat(mdcOfLastEvent())
+                .containsEntry("instanceId", "hassia1")
+                .containsEntry("device", "Line")
+                .containsEntry("step", "4")
+                .containsEntry("requestId", "r-1");
+        assertThat(MDC.getCopyOfContextMap()).containsExactlyInAnyOrderEntriesOf(Map.of(
+                "instanceId", "outer",
+                "device", "Printer11",
+                "requestId", "r-1"));
+    }
+
+    @Test
+    void iterationFieldsStayUntilEndIteration() {
+        PollingLogger.beginIteration("hassia1");
+
+        PollingLogger.logRequestSent("hassia1", "Line", "{}");
+        assertThat(mdcOfLastEvent()).containsEntry("device", "Line").containsEntry("step", "3");
+        // Поле устройства снимается сразу после записи, поля инстанса — нет
+        assertThat(MDC.get("device")).isNull();
+        assertThat(MDC.get("instanceId")).isEqualTo("hassia1");
+
+        PollingLogger.logPollCycleEnd("hassia1", 3, 0, true);
+        assertThat(mdcOfLastEvent())
+                .containsEntry("instanceId", "hassia1")
+                .containsEntry("step", "8")
+                .doesNotContainKey("device");
+
+        PollingLogger.endIteration();
+        assertThat(MDC.getCopyOfContextMap()).isNullOrEmpty();
+    }
+
+    @Test
+    void disabledLevelTouchesNeitherMdcNorAppender() {
+        logger.setLevel(Level.WARN);
+        MDC.put("instanceId", "outer");
+
+        PollingLogger.logSocketCreate("hassia1", "10.0.0.1", 9000);
+
+        assertThat(appender.list).isEmpty();
+        assertThat(MDC.getCopyOfContextMap()).containsExactly(Map.entry("instanceId", "outer"));
+    }
+
+    private Map<String, String> mdcOfLastEvent() {
+        assertThat(appender.list).isNotEmpty();
+        return appender.list.get(appender.list.size() - 1).getMDCPropertyMap();
+    }
+}
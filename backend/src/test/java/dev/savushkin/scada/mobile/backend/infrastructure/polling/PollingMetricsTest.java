@@ -0,0 +1,68 @@
+package dev.savushkin.scada.mobile.backend.infrastructure.polling;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PollingMetricsTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final PollingMetrics metrics = new PollingMetrics(registry);
+
+    @Test
+    void instanceAndDeviceMetersCarryTheirTags() {
+        PollingMetrics.InstanceMetrics instance = metrics.forInstance("hassia1");
+        instance.recordConnect(TimeUnit.MILLISECONDS.toNanos(3));
+        instance.recordScan(TimeUnit.MILLISECONDS.toNanos(40), 2, true);
+        instance.recordScan(TimeUnit.MILLISECONDS.toNanos(50), 5, false);
+        instance.recordLoopLag(-1);
+        instance.device("Line").recordRequest(TimeUnit.MILLISECONDS.toNanos(7), 1200);
+        instance.device("Line").recordParse(1_000);
+        instance.device("Line").recordMap(2_000);
+
+        assertThat(registry.get("printsrv.client.connect").tag("instance", "hassia1").timer().count()).isEqualTo(1);
+        assertThat(registry.get("printsrv.poll.scan").tag("instance", "hassia1").timer().count()).isEqualTo(2);
+        assertThat(registry.get("printsrv.poll.device.failures").tag("instance", "hassia1").counter().count())
+                .isEqualTo(7.0);
+        assertThat(registry.get("printsrv.poll.unreachable").tag("instance", "hassia1").counter().count())
+                .isEqualTo(1.0);
+        // Отрицательное запаздывание (итерация началась раньше срока) записывается как ноль
+        assertThat(registry.get("printsrv.poll.loop.lag").timer().totalTime(TimeUnit.NANOSECONDS)).isZero();
+
+        assertThat(registry.get("printsrv.client.request").tags("instance", "hassia1", "device", "Line")
+                .timer().totalTime(TimeUnit.MILLISECONDS)).isEqualTo(7.0);
+        assertThat(registry.get("printsrv.client.response.size").tags("instance", "hassia1", "device", "Line")
+                .summary().totalAmount()).isEqualTo(1200.0);
+        assertThat(registry.get("printsrv.client.parse").tags("instance", "hassia1", "device", "Line")
+                .timer().count()).isEqualTo(1);
+        assertThat(registry.get("printsrv.mapper.map").tags("instance", "hassia1", "device", "Line")
+                .timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void metersAreCachedPerInstanceAndDevice() {
+        PollingMetrics.InstanceMetrics instance = metrics.forInstance("hassia1");
+
+        assertThat(metrics.forInstance("hassia1")).isSameAs(instance);
+        assertThat(instance.device("Line")).isSameAs(instance.device("Line"));
+        assertThat(registry.find("printsrv.client.request").timers()).hasSize(1);
+    }
+
+    @Test
+    void removedInstanceLeavesNoMetersBehind() {
+        metrics.forInstance("hassia1").device("Line").recordParse(1_000);
+        metrics.forInstance("hassia2").recordConnect(1_000);
+
+        metrics.removeInstance("hassia1");
+
+        assertThat(registry.find("printsrv.client.connect").tag("instance", "hassia1").timer()).isNull();
+        assertThat(registry.find("printsrv.client.parse").tag("instance", "hassia1").timer()).isNull();
+        assertThat(registry.find("printsrv.client.connect").tag("instance", "hassia2").timer()).isNotNull();
+        // Повторное обращение после удаления регистрирует метры заново
+        assertThat(metrics.forInstance("hassia1")).isNotNull();
+        assertThat(registry.find("printsrv.poll.scan").tag("instance", "hassia1").timer()).isNotNull();
+    }
+}
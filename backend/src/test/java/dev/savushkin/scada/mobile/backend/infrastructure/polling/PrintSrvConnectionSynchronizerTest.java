@@ -0,0 +1,70 @@
+package dev.savushkin.scada.mobile.backend.infrastructure.polling;
+
+import dev.savushkin.scada.mobile.backend.application.ports.InstanceSnapshotRepository;
+import dev.savushkin.scada.mobile.backend.config.ClusterProperties;
+import dev.savushkin.scada.mobile.backend.infrastructure.cluster.ClusterNode;
+import dev.savushkin.scada.mobile.backend.infrastructure.cluster.ClusterPublisher;
+import dev.savushkin.scada.mobile.backend.infrastructure.integration.printsrv.client.PrintSrvClientRegistry;
+import dev.savushkin.scada.mobile.backend.infrastructure.integration.printsrv.client.PrintSrvClientSyncReport;
+import dev.savushkin.scada.mobile.backend.infrastructure.store.UnitErrorStore;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Страховочная сверка подключений: подхватывает изменения автоматов, прошедшие мимо outbox.
+ */
+class PrintSrvConnectionSynchronizerTest {
+
+    private final PrintSrvClientRegistry clientRegistry = mock(PrintSrvClientRegistry.class);
+    private final PrintSrvPollingRuntime pollingRuntime = mock(PrintSrvPollingRuntime.class);
+    private final InstanceSnapshotRepository snapshotRepo = mock(InstanceSnapshotRepository.class);
+    private final UnitErrorStore unitErrorStore = mock(UnitErrorStore.class);
+    private final List<Object> published = new ArrayList<>();
+
+    @Test
+    void periodicReconcilePicksUpChangesMadeAroundOutbox() {
+        when(clientRegistry.synchronize()).thenReturn(
+                new PrintSrvClientSyncReport(Set.of("added"), Set.of("removed"), Set.of()));
+
+        synchronizer(ClusterProperties.ROLE_STANDALONE).periodicReconcile();
+
+        verify(pollingRuntime).synchronize();
+        verify(snapshotRepo).clearInstance("removed");
+        verify(unitErrorStore).remove("removed");
+        assertThat(published)
+                .extracting(event -> ((PrintSrvInstancePolledEvent) event).instanceId())
+                .containsExactlyInAnyOrder("added", "removed");
+    }
+
+    @Test
+    void periodicReconcileSurvivesRegistryFailure() {
+        when(clientRegistry.synchronize()).thenThrow(new IllegalStateException("db down"));
+
+        synchronizer(ClusterProperties.ROLE_STANDALONE).periodicReconcile();
+
+        assertThat(published).isEmpty();
+    }
+
+    @Test
+    void wsNodeSkipsPeriodicReconcile() {
+        synchronizer(ClusterProperties.ROLE_WS).periodicReconcile();
+
+        verifyNoInteractions(clientRegistry, pollingRuntime);
+    }
+
+    private PrintSrvConnectionSynchronizer synchronizer(String role) {
+        ClusterProperties properties = new ClusterProperties();
+        properties.setRole(role);
+        return new PrintSrvConnectionSynchronizer(clientRegistry, pollingRuntime, snapshotRepo,
+                published::add, mock(ClusterPublisher.class), unitErrorStore, new ClusterNode(properties));
+    }
+}
@@ -0,0 +1,160 @@
+package dev.savushkin.scada.mobile.backend.infrastructure.store;
+
+import dev.savushkin.scada.mobile.backend.api.dto.AlertMessageDTO;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ActiveAlertStoreTest {
+
+    private static final String OWNED = "hassia1";
+    private static final String FOREIGN = "hassia2";
+    private static final String OTHER_FOREIGN = "bosch1";
+
+    private final ActiveAlertStore store = new ActiveAlertStore();
+
+    @Test
+    void reportsEachTransitionOnceAndBumpsVersionOnlyOnChange() {
+        assertThat(store.updateAndDiff(FOREIGN, alert(FOREIGN)).added()).hasSize(1);
+        long version = store.version();
+
+        assertThat(store.updateAndDiff(FOREIGN, alert(FOREIGN)).added()).isEmpty();
+        assertThat(store.updateAndDiff(OWNED, null).removed()).isEmpty();
+        assertThat(store.version()).isEqualTo(version);
+
+        assertThat(store.updateAndDiff(FOREIGN, null).removed()).hasSize(1);
+        assertThat(store.version()).isEqualTo(version + 1);
+        assertThat(store.getAll()).isEmpty();
+    }
+
+    @Test
+    void keepsFirstDetectionTimestampOfActiveAlert() {
+        store.updateAndDiff(FOREIGN, alert(FOREIGN));
+
+        store.updateAndDiff(FOREIGN, AlertMessageDTO.active(1L, FOREIGN, FOREIGN, "Critical", List.of(),
+                "2026-01-01T00:05:00Z"));
+
+        assertThat(store.getAll()).extracting(AlertMessageDTO::timestamp).containsExactly("2026-01-01T00:00:00Z");
+    }
+
+    @Test
+    void snapshotIsReusedUntilVersionChanges() {
+        store.updateAndDiff(FOREIGN, alert(FOREIGN));
+        ActiveAlertStore.Snapshot first = store.snapshot();
+
+        assertThat(store.snapshot()).isSameAs(first);
+        assertThat(first.version()).isEqualTo(store.version());
+
+        store.updateAndDiff(OTHER_FOREIGN, alert(OTHER_FOREIGN));
+        ActiveAlertStore.Snapshot second = store.snapshot();
+
+        assertThat(second).isNotSameAs(first);
+        assertThat(second.version()).isGreaterThan(first.version());
+        assertThat(first.alerts()).hasSize(1);
+        assertThat(second.alerts()).hasSize(2);
+    }
+
+    @Test
+    void replaceAllKeepsOnlySnapshotContent() {
+        store.updateAndDiff(FOREIGN, alert(FOREIGN));
+        long version = store.version();
+
+        store.replaceAll(List.of(alert(OTHER_FOREIGN)));
+
+        assertThat(store.version()).isGreaterThan(version);
+        assertThat(store.getAll()).extracting(AlertMessageDTO::unitId).containsExactly(OTHER_FOREIGN);
+    }
+
+    @Test
+    void concurrentRaiseOfOneUnitIsReportedOnce() throws InterruptedException {
+        AtomicInteger added = new AtomicInteger();
+        runConcurrently(32, i -> added.addAndGet(store.updateAndDiff(FOREIGN, alert(FOREIGN)).added().size()));
+
+        assertThat(added).hasValue(1);
+        assertThat(store.version()).isEqualTo(1);
+    }
+
+    @Test
+    void concurrentUpdatesOfDistinctUnitsAreAllInSnapshot() throws InterruptedException {
+        runConcurrently(64, i -> store.updateAndDiff("unit" + i, alert("unit" + i)));
+
+        assertThat(store.version()).isEqualTo(64);
+        assertThat(store.snapshot().alerts()).hasSize(64);
+    }
+
+    @Test
+    void mergeForeignRemovesForeignAlertsMissingFromSnapshot() {
+        store.updateAndDiff(FOREIGN, alert(FOREIGN));
+        store.updateAndDiff(OTHER_FOREIGN, alert(OTHER_FOREIGN));
+
+        ActiveAlertStore.Delta delta = store.mergeForeign(List.of(alert(OTHER_FOREIGN)), Set.of(OWNED));
+
+        assertThat(delta.added()).isEmpty();
+        assertThat(delta.removed()).extracting(AlertMessageDTO::unitId).containsExactly(FOREIGN);
+        assertThat(store.getAll()).extracting(AlertMessageDTO::unitId).containsExactly(OTHER_FOREIGN);
+    }
+
+    @Test
+    void mergeForeignLeavesOwnedUnitsAlone() {
+        store.updateAndDiff(OWNED, alert(OWNED));
+
+        ActiveAlertStore.Delta delta = store.mergeForeign(List.of(), Set.of(OWNED));
+
+        assertThat(delta.added()).isEmpty();
+        assertThat(delta.removed()).isEmpty();
+        assertThat(store.getAll()).extracting(AlertMessageDTO::unitId).containsExactly(OWNED);
+    }
+
+    @Test
+    void mergeForeignIgnoresSnapshotAlertsOfOwnedUnits() {
+        ActiveAlertStore.Delta delta = store.mergeForeign(List.of(alert(OWNED), alert(FOREIGN)), Set.of(OWNED));
+
+        assertThat(delta.added()).extracting(AlertMessageDTO::unitId).containsExactly(FOREIGN);
+        assertThat(delta.removed()).isEmpty();
+        assertThat(store.getAll()).extracting(AlertMessageDTO::unitId).containsExactly(FOREIGN);
+    }
+
+    @Test
+    void mergeForeignWithUnchangedStateBumpsNoVersion() {
+        store.updateAndDiff(FOREIGN, alert(FOREIGN));
+        long version = store.version();
+
+        ActiveAlertStore.Delta delta = store.mergeForeign(List.of(alert(FOREIGN)), Set.of(OWNED));
+
+        assertThat(delta.added()).isEmpty();
+        assertThat(delta.removed()).isEmpty();
+        assertThat(store.version()).isEqualTo(version);
+    }
+
+    private static void runConcurrently(int threads, IntConsumer task) throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> started = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            int index = i;
+            started.add(Thread.ofVirtual().start(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                task.accept(index);
+            }));
+        }
+        start.countDown();
+        for (Thread thread : started) {
+            thread.join();
+        }
+    }
+
+    private static AlertMessageDTO alert(String unitId) {
+        return AlertMessageDTO.active(1L, unitId, unitId, "Critical", List.of(), "2026-01-01T00:00:00Z");
+    }
+}
@@ -0,0 +1,81 @@
+package dev.savushkin.scada.mobile.backend.infrastructure.store;
+
+import dev.savushkin.scada.mobile.backend.api.dto.NotificationMessageDTO;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ActiveNotificationStoreTest {
+
+    private static final String UNIT = "hassia1";
+
+    private final ActiveNotificationStore store = new ActiveNotificationStore();
+
+    @Test
+    void reportsActivationAndDeactivationOnce() {
+        assertThat(store.updateAndDiff(UNIT, activated(UNIT)).added()).hasSize(1);
+        assertThat(store.updateAndDiff(UNIT, activated(UNIT)).added()).isEmpty();
+        long version = store.version();
+
+        ActiveNotificationStore.Delta delta = store.updateAndDiff(UNIT, deactivated(UNIT));
+
+        assertThat(delta.removed()).extracting(NotificationMessageDTO::active).containsExactly(false);
+        assertThat(store.updateAndDiff(UNIT, deactivated(UNIT)).removed()).isEmpty();
+        assertThat(store.version()).isEqualTo(version + 1);
+        assertThat(store.getAll()).isEmpty();
+    }
+
+    @Test
+    void snapshotIsReusedUntilVersionChanges() {
+        store.updateAndDiff(UNIT, activated(UNIT));
+        ActiveNotificationStore.Snapshot first = store.snapshot();
+
+        assertThat(store.snapshot()).isSameAs(first);
+
+        store.updateAndDiff("hassia2", activated("hassia2"));
+        ActiveNotificationStore.Snapshot second = store.snapshot();
+
+        assertThat(second.version()).isGreaterThan(first.version());
+        assertThat(first.notifications()).hasSize(1);
+        assertThat(second.notifications()).hasSize(2);
+    }
+
+    @Test
+    void concurrentActivationOfOneUnitIsReportedOnce() throws InterruptedException {
+        AtomicInteger added = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 32; i++) {
+            threads.add(Thread.ofVirtual().start(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                added.addAndGet(store.updateAndDiff(UNIT, activated(UNIT)).added().size());
+            }));
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertThat(added).hasValue(1);
+        assertThat(store.version()).isEqualTo(1);
+        assertThat(store.snapshot().notifications()).hasSize(1);
+    }
+
+    private static NotificationMessageDTO activated(String unitId) {
+        return NotificationMessageDTO.activated(unitId, unitId, "1", "Иванов", "2026-01-01T00:00:00Z");
+    }
+
+    private static NotificationMessageDTO deactivated(String unitId) {
+        return NotificationMessageDTO.deactivated(unitId, unitId, "1", "Иванов", "2026-01-01T00:01:00Z");
+    }
+}
@@ -0,0 +1,62 @@
+package dev.savushkin.scada.mobile.backend.infrastructure.store;
+
+import dev.savushkin.scada.mobile.backend.domain.model.DeviceSnapshot;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Свежесть данных аппарата: {@code dataTimestamp} сообщений берётся из самого старого снимка.
+ */
+class InMemoryInstanceSnapshotStoreTest {
+
+    private static final String UNIT = "hassia1";
+    private static final Instant AT = Instant.parse("2026-03-01T10:23:44.870Z");
+
+    private final InMemoryInstanceSnapshotStore store = new InMemoryInstanceSnapshotStore();
+
+    @Test
+    void oldestReceiveTimeAcrossDevicesIsReported() {
+        store.save(UNIT, "Line", snapshot("Line", AT.plusSeconds(5)));
+        store.save(UNIT, "Printer11", snapshot("Printer11", AT));
+        store.save(UNIT, "BatchQueue", snapshot("BatchQueue", AT.plusSeconds(3)));
+        store.save("other", "Line", snapshot("Line", AT.minusSeconds(60)));
+
+        assertThat(store.oldestReceivedAt(UNIT)).isEqualTo(AT);
+    }
+
+    @Test
+    void freshResponseOfStaleDeviceMovesTheAgeForward() {
+        store.save(UNIT, "Line", snapshot("Line", AT.plusSeconds(5)));
+        store.save(UNIT, "Printer11", snapshot("Printer11", AT));
+
+        store.save(UNIT, "Printer11", snapshot("Printer11", AT.plusSeconds(10)));
+
+        assertThat(store.oldestReceivedAt(UNIT)).isEqualTo(AT.plusSeconds(5));
+    }
+
+    @Test
+    void snapshotsWithoutReceiveTimeAreIgnored() {
+        store.save(UNIT, "Line", new DeviceSnapshot("Line", Map.of()));
+        assertThat(store.oldestReceivedAt(UNIT)).isNull();
+
+        store.save(UNIT, "Printer11", snapshot("Printer11", AT));
+        assertThat(store.oldestReceivedAt(UNIT)).isEqualTo(AT);
+    }
+
+    @Test
+    void clearedOrUnknownInstanceHasNoReceiveTime() {
+        store.save(UNIT, "Line", snapshot("Line", AT));
+        store.clearInstance(UNIT);
+
+        assertThat(store.oldestReceivedAt(UNIT)).isNull();
+        assertThat(store.oldestReceivedAt("missing")).isNull();
+    }
+
+    private static DeviceSnapshot snapshot(String device, Instant receivedAt) {
+        return new DeviceSnapshot(device, Map.of()).withReceivedAt(receivedAt);
+    }
+}
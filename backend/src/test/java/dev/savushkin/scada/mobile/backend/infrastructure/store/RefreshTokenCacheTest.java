@@ -0,0 +1,66 @@
+package dev.savushkin.scada.mobile.backend.infrastructure.store;
+
+import dev.savushkin.scada.mobile.backend.application.ports.RefreshTokenRepository.TokenState;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RefreshTokenCacheTest {
+
+    private static final Instant EXPIRES_AT = Instant.parse("2026-01-08T00:00:00Z");
+
+    @Test
+    void evictsLeastRecentlyUsedTokenWhenFull() {
+        RefreshTokenCache cache = new RefreshTokenCache(2);
+        cache.putIssued("a", 1L, EXPIRES_AT);
+        cache.putIssued("b", 1L, EXPIRES_AT);
+        cache.get("a");
+
+        cache.putIssued("c", 1L, EXPIRES_AT);
+
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.get("a")).isNotNull();
+        assertThat(cache.get("b")).isNull();
+        assertThat(cache.get("c")).isNotNull();
+    }
+
+    @Test
+    void markAllRevokedTouchesOnlyTokensOfThatUser() {
+        RefreshTokenCache cache = new RefreshTokenCache(10);
+        cache.putIssued("a", 1L, EXPIRES_AT);
+        cache.putIssued("b", 2L, EXPIRES_AT);
+
+        cache.markAllRevoked(1L);
+
+        assertThat(cache.get("a")).isEqualTo(new TokenState(1L, EXPIRES_AT, true));
+        assertThat(cache.get("b")).isEqualTo(new TokenState(2L, EXPIRES_AT, false));
+    }
+
+    @Test
+    void markRevokedIgnoresUnknownToken() {
+        RefreshTokenCache cache = new RefreshTokenCache(10);
+
+        cache.markRevoked("a");
+
+        assertThat(cache.get("a")).isNull();
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void evictsUserAndExpiredTokens() {
+        RefreshTokenCache cache = new RefreshTokenCache(10);
+        cache.putIssued("expired", 1L, EXPIRES_AT.minusSeconds(60));
+        cache.putIssued("valid", 1L, EXPIRES_AT);
+        cache.putIssued("other", 2L, EXPIRES_AT);
+
+        cache.evictExpired(EXPIRES_AT);
+        assertThat(cache.get("expired")).isNull();
+        assertThat(cache.get("valid")).isNotNull();
+
+        cache.evictUser(1L);
+        assertThat(cache.get("valid")).isNull();
+        assertThat(cache.get("other")).isNotNull();
+    }
+}
@@ -0,0 +1,74 @@
+package dev.savushkin.scada.mobile.backend.infrastructure.store;
+
+import dev.savushkin.scada.mobile.backend.domain.model.DeviceError;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UnitErrorStoreTest {
+
+    private static final String UNIT = "hassia1";
+    private static final long WORKSHOP = 1L;
+    private static final long OTHER_WORKSHOP = 2L;
+
+    private static final DeviceError PRINTER_CONNECTION = new DeviceError(
+            "Dev041", "Dev041Connection", "Нет связи", "printer", "Connection");
+    private static final DeviceError CAMERA_DUBLICATE = new DeviceError(
+            "Dev042", "Dev042Dublicate", "Одинаковые коды маркировки", "aggregation_cam", "Dublicate");
+
+    private final UnitErrorStore store = new UnitErrorStore();
+
+    @Test
+    void sameErrorsTwiceCountOnce() {
+        store.update(UNIT, WORKSHOP, List.of(PRINTER_CONNECTION, CAMERA_DUBLICATE));
+        store.update(UNIT, WORKSHOP, List.of(PRINTER_CONNECTION, CAMERA_DUBLICATE));
+
+        assertThat(store.getProblemUnitsByWorkshop()).isEqualTo(Map.of(WORKSHOP, 1));
+        assertThat(store.getErrorCountsByDeviceType()).isEqualTo(Map.of("printer", 1, "aggregation_cam", 1));
+        assertThat(store.getErrorCountsByKind()).isEqualTo(Map.of("Connection", 1, "Dublicate", 1));
+    }
+
+    @Test
+    void clearedErrorLeavesIndexes() {
+        store.update(UNIT, WORKSHOP, List.of(PRINTER_CONNECTION, CAMERA_DUBLICATE));
+
+        store.update(UNIT, WORKSHOP, List.of(PRINTER_CONNECTION));
+        assertThat(store.getErrorCountsByDeviceType()).isEqualTo(Map.of("printer", 1));
+        assertThat(store.getErrorCountsByKind()).isEqualTo(Map.of("Connection", 1));
+        assertThat(store.countProblemUnits(WORKSHOP)).isEqualTo(1);
+
+        store.update(UNIT, WORKSHOP, List.of());
+        assertThat(store.hasErrors(UNIT)).isFalse();
+        assertThat(store.getProblemUnitsByWorkshop()).isEmpty();
+        assertThat(store.getErrorCountsByDeviceType()).isEmpty();
+        assertThat(store.getErrorCountsByKind()).isEmpty();
+    }
+
+    @Test
+    void unitMovedToAnotherWorkshopMovesItsCount() {
+        store.update(UNIT, WORKSHOP, List.of(PRINTER_CONNECTION));
+        store.update("hassia2", WORKSHOP, List.of(PRINTER_CONNECTION));
+
+        store.update(UNIT, OTHER_WORKSHOP, List.of(PRINTER_CONNECTION));
+
+        assertThat(store.getProblemUnitsByWorkshop()).isEqualTo(Map.of(WORKSHOP, 1, OTHER_WORKSHOP, 1));
+        assertThat(store.countErrorsByDeviceType("printer")).isEqualTo(2);
+        assertThat(store.countErrorsByKind("Connection")).isEqualTo(2);
+    }
+
+    @Test
+    void removedUnitLeavesAllIndexes() {
+        store.update(UNIT, WORKSHOP, List.of(PRINTER_CONNECTION, CAMERA_DUBLICATE));
+
+        store.remove(UNIT);
+        store.remove(UNIT);
+
+        assertThat(store.getErrors(UNIT)).isEmpty();
+        assertThat(store.getProblemUnitsByWorkshop()).isEmpty();
+        assertThat(store.getErrorCountsByDeviceType()).isEmpty();
+        assertThat(store.getErrorCountsByKind()).isEmpty();
+    }
+}
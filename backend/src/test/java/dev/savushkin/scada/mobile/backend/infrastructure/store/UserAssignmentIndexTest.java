@@ -0,0 +1,137 @@
+package dev.savushkin.scada.mobile.backend.infrastructure.store;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UserAssignmentIndexTest {
+
+    private static final long USER = 7L;
+    private static final String UNIT = "hassia1";
+
+    private final UserAssignmentIndex index = new UserAssignmentIndex(new SimpleMeterRegistry());
+
+    @Test
+    void loadsOnceAndAnswersFromMemory() {
+        AtomicInteger loads = new AtomicInteger();
+        Supplier<Map<Long, Set<String>>> loader = () -> {
+            loads.incrementAndGet();
+            return Map.of(USER, Set.of(UNIT));
+        };
+
+        for (int i = 0; i < 100; i++) {
+            assertThat(index.isAssigned(USER, UNIT, loader)).isTrue();
+            assertThat(index.isAssigned(USER, "bosch1", loader)).isFalse();
+            assertThat(index.unitsOf(8L, loader)).isEmpty();
+        }
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void concurrentMissesShareOneLoad() throws InterruptedException {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        Supplier<Map<Long, Set<String>>> loader = () -> {
+            loads.incrementAndGet();
+            sleep(20);
+            return Map.of(USER, Set.of(UNIT));
+        };
+
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            threads.add(Thread.ofVirtual().start(() -> {
+                await(start);
+                index.isAssigned(USER, UNIT, loader);
+            }));
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertThat(loads).hasValue(1);
+    }
+
+    /**
+     * Проверки, начатые после {@link UserAssignmentIndex#invalidate()}, не видят отозванное
+     * закрепление — даже если медленная загрузка, начатая до отзыва, завершается позже.
+     */
+    @RepeatedTest(20)
+    void noStaleGrantAfterRevocation() throws InterruptedException {
+        AtomicReference<Map<Long, Set<String>>> database = new AtomicReference<>(Map.of(USER, Set.of(UNIT)));
+        Supplier<Map<Long, Set<String>>> loader = () -> {
+            Map<Long, Set<String>> snapshot = database.get();
+            sleep(1);
+            return snapshot;
+        };
+        AtomicBoolean revoked = new AtomicBoolean(false);
+        AtomicBoolean stop = new AtomicBoolean(false);
+        AtomicInteger staleGrants = new AtomicInteger();
+        AtomicInteger checksAfterRevocation = new AtomicInteger();
+
+        List<Thread> readers = new ArrayList<>();
+        for (int i = 0; i < 32; i++) {
+            readers.add(Thread.ofVirtual().start(() -> {
+                while (!stop.get()) {
+                    boolean afterRevocation = revoked.get();
+                    boolean granted = index.isAssigned(USER, UNIT, loader);
+                    if (afterRevocation) {
+                        checksAfterRevocation.incrementAndGet();
+                        if (granted) {
+                            staleGrants.incrementAndGet();
+                        }
+                    }
+                }
+            }));
+        }
+        Thread writer = Thread.ofVirtual().start(() -> {
+            for (int i = 0; i < 10; i++) {
+                sleep(1);
+                index.invalidate();
+            }
+            // Отзыв: сначала коммит в БД, затем сброс индекса — как AFTER_COMMIT-слушатель
+            database.set(Map.of());
+            index.invalidate();
+            revoked.set(true);
+        });
+
+        writer.join();
+        sleep(20);
+        stop.set(true);
+        for (Thread reader : readers) {
+            reader.join();
+        }
+
+        assertThat(checksAfterRevocation.get()).isPositive();
+        assertThat(staleGrants).hasValue(0);
+        assertThat(index.isAssigned(USER, UNIT, loader)).isFalse();
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package dev.savushkin.scada.mobile.backend.infrastructure.ws;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.savushkin.scada.mobile.backend.application.ports.PrintSrvTopologyRepository;
+import dev.savushkin.scada.mobile.backend.application.ports.UserAssignmentRepository;
+import dev.savushkin.scada.mobile.backend.config.EscalationProperties;
+import dev.savushkin.scada.mobile.backend.config.jwt.WebSocketJwtInterceptor;
+import dev.savushkin.scada.mobile.backend.infrastructure.cluster.ClusterNode;
+import dev.savushkin.scada.mobile.backend.infrastructure.cluster.ClusterReplica;
+import dev.savushkin.scada.mobile.backend.infrastructure.escalation.EscalationAcknowledgePolicy;
+import dev.savushkin.scada.mobile.backend.infrastructure.escalation.EscalationAcknowledgedEvent;
+import dev.savushkin.scada.mobile.backend.infrastructure.escalation.EscalationRules;
+import dev.savushkin.scada.mobile.backend.services.NotificationSettingsService;
+import dev.savushkin.scada.mobile.backend.services.WorkshopService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class LiveWsHandlerAcknowledgeTest {
+
+    private static final long USER = 7L;
+    private static final String UNIT = "hassia2";
+
+    private final UserAssignmentRepository assignments = mock(UserAssignmentRepository.class);
+    private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+    private final WebSocketSession session = mock(WebSocketSession.class);
+    private final Map<String, Object> attributes = new HashMap<>();
+
+    private LiveWsHandler handler;
+
+    @BeforeEach
+    void setUp() {
+        EscalationProperties.Step step = new EscalationProperties.Step();
+        step.setAfter(Duration.ofMinutes(3));
+        step.setRoles(List.of("Master"));
+        EscalationProperties.Rule rule = new EscalationProperties.Rule();
+        rule.setSteps(List.of(step));
+        EscalationProperties properties = new EscalationProperties();
+        properties.setRules(List.of(rule));
+
+        EscalationAcknowledgePolicy policy = new EscalationAcknowledgePolicy(
+                assignments, new EscalationRules(properties), mock(PrintSrvTopologyRepository.class));
+        handler = new LiveWsHandler(
+                mock(SnapshotJsonCache.class),
+                mock(WorkshopService.class),
+                mock(NotificationSettingsService.class),
+                new ObjectMapper(),
+                new WsMetrics(new SimpleMeterRegistry()),
+                mock(ClusterNode.class),
+                mock(ClusterReplica.class),
+                eventPublisher,
+                policy);
+
+        attributes.put(WebSocketJwtInterceptor.ATTR_USER_ID, USER);
+        attributes.put(WebSocketJwtInterceptor.ATTR_ROLE, "Operator");
+        when(session.getAttributes()).thenReturn(attributes);
+        when(session.isOpen()).thenReturn(true);
+        when(session.getId()).thenReturn("s1");
+    }
+
+    @Test
+    void deniesUnassignedUserOutsideEscalationRoles() throws Exception {
+        when(assignments.canSendNotification(USER, UNIT)).thenReturn(false);
+
+        acknowledge("ALERT", UNIT);
+
+        verifyNoInteractions(eventPublisher);
+        assertThat(sentFrame())
+                .contains("\"type\":\"ERROR\"")
+                .contains("\"action\":\"ACKNOWLEDGE\"")
+                .contains("\"code\":\"FORBIDDEN\"");
+    }
+
+    @Test
+    void deniesSessionWithoutUser() throws Exception {
+        attributes.remove(WebSocketJwtInterceptor.ATTR_USER_ID);
+
+        acknowledge("ALERT", UNIT);
+
+        verifyNoInteractions(eventPublisher);
+        assertThat(sentFrame()).contains("\"code\":\"FORBIDDEN\"");
+    }
+
+    @Test
+    void rejectsUnknownSource() throws Exception {
+        acknowledge("UNITS_STATUS", UNIT);
+
+        verifyNoInteractions(eventPublisher);
+        assertThat(sentFrame()).contains("\"code\":\"BAD_REQUEST\"");
+    }
+
+    @Test
+    void assignedUserAcknowledges() throws Exception {
+        when(assignments.canSendNotification(USER, UNIT)).thenReturn(true);
+
+        acknowledge("NOTIFICATION", UNIT);
+
+        verify(eventPublisher).publishEvent(new EscalationAcknowledgedEvent("NOTIFICATION", UNIT, USER));
+        verify(session, never()).sendMessage(any());
+    }
+
+    @Test
+    void escalationRecipientRoleAcknowledges() throws Exception {
+        attributes.put(WebSocketJwtInterceptor.ATTR_ROLE, "Master");
+
+        acknowledge("ALERT", UNIT);
+
+        verify(eventPublisher).publishEvent(new EscalationAcknowledgedEvent("ALERT", UNIT, USER));
+        verify(session, never()).sendMessage(any());
+    }
+
+    private void acknowledge(String source, String unitId) {
+        handler.handleTextMessage(session, new TextMessage(
+                "{\"action\":\"ACKNOWLEDGE\",\"source\":\"%s\",\"unitId\":\"%s\"}".formatted(source, unitId)));
+    }
+
+    private String sentFrame() throws Exception {
+        ArgumentCaptor<TextMessage> frame = ArgumentCaptor.forClass(TextMessage.class);
+        verify(session).sendMessage(frame.capture());
+        return frame.getValue().getPayload();
+    }
+}
@@ -0,0 +1,106 @@
+package dev.savushkin.scada.mobile.backend.infrastructure.ws;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.savushkin.scada.mobile.backend.api.dto.AlertMessageDTO;
+import dev.savushkin.scada.mobile.backend.api.dto.AlertSnapshotMessageDTO;
+import dev.savushkin.scada.mobile.backend.api.dto.NotificationMessageDTO;
+import dev.savushkin.scada.mobile.backend.api.dto.NotificationSnapshotMessageDTO;
+import dev.savushkin.scada.mobile.backend.infrastructure.store.ActiveAlertStore;
+import dev.savushkin.scada.mobile.backend.infrastructure.store.ActiveNotificationStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SnapshotJsonCacheTest {
+
+    private final ActiveAlertStore alertStore = new ActiveAlertStore();
+    private final ActiveNotificationStore notificationStore = new ActiveNotificationStore();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private SnapshotJsonCache cache;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        cache = new SnapshotJsonCache(alertStore, notificationStore, objectMapper, registry);
+    }
+
+    @Test
+    void alertSnapshotIsSerializedOncePerStoreVersion() throws Exception {
+        alertStore.updateAndDiff("hassia1", alert("hassia1"));
+
+        String first = cache.alertSnapshot();
+        assertThat(cache.alertSnapshot()).isSameAs(first);
+        assertThat(serializations("ALERT_SNAPSHOT")).isEqualTo(1);
+
+        alertStore.updateAndDiff("hassia2", alert("hassia2"));
+        String second = cache.alertSnapshot();
+
+        assertThat(serializations("ALERT_SNAPSHOT")).isEqualTo(2);
+        assertThat(objectMapper.readTree(second))
+                .isEqualTo(objectMapper.valueToTree(AlertSnapshotMessageDTO.of(alertStore.getAll())));
+    }
+
+    @Test
+    void unchangedStoreVersionReusesAlertJsonAfterNoOpUpdate() throws Exception {
+        alertStore.updateAndDiff("hassia1", alert("hassia1"));
+        String first = cache.alertSnapshot();
+
+        alertStore.updateAndDiff("hassia1", alert("hassia1"));
+
+        assertThat(cache.alertSnapshot()).isSameAs(first);
+        assertThat(serializations("ALERT_SNAPSHOT")).isEqualTo(1);
+    }
+
+    @Test
+    void notificationSnapshotMatchesJacksonAndHonoursFilter() throws Exception {
+        notificationStore.updateAndDiff("hassia1", notification("hassia1", "1"));
+        notificationStore.updateAndDiff("hassia2", notification("hassia2", "2"));
+
+        assertThat(objectMapper.readTree(cache.notificationSnapshot()))
+                .isEqualTo(objectMapper.valueToTree(NotificationSnapshotMessageDTO.of(notificationStore.getAll())));
+        assertThat(objectMapper.readTree(cache.notificationSnapshot(n -> n.creatorId().equals("2"))))
+                .isEqualTo(objectMapper.valueToTree(NotificationSnapshotMessageDTO.of(
+                        List.of(notification("hassia2", "2")))));
+        assertThat(objectMapper.readTree(cache.notificationSnapshot(n -> false)))
+                .isEqualTo(objectMapper.valueToTree(NotificationSnapshotMessageDTO.of(List.of())));
+    }
+
+    @Test
+    void newStoreVersionSerializesOnlyNewNotifications() throws Exception {
+        notificationStore.updateAndDiff("hassia1", notification("hassia1", "1"));
+        cache.notificationSnapshot();
+        cache.notificationSnapshot();
+        assertThat(serializations("NOTIFICATION")).isEqualTo(1);
+
+        notificationStore.updateAndDiff("hassia2", notification("hassia2", "2"));
+        cache.notificationSnapshot();
+        assertThat(serializations("NOTIFICATION")).isEqualTo(2);
+
+        NotificationMessageDTO off = NotificationMessageDTO.deactivated("hassia1", "hassia1", "1", "Иванов",
+                "2026-01-01T00:01:00Z");
+        notificationStore.updateAndDiff("hassia1", off);
+        String json = cache.notificationSnapshot();
+
+        assertThat(serializations("NOTIFICATION")).isEqualTo(2);
+        assertThat(objectMapper.readTree(json))
+                .isEqualTo(objectMapper.valueToTree(NotificationSnapshotMessageDTO.of(
+                        List.of(notification("hassia2", "2")))));
+    }
+
+    private double serializations(String type) {
+        return registry.get("ws.snapshot.serializations").tag("type", type).counter().count();
+    }
+
+    private static AlertMessageDTO alert(String unitId) {
+        return AlertMessageDTO.active(1L, unitId, unitId, "Critical", List.of(), "2026-01-01T00:00:00Z");
+    }
+
+    private static NotificationMessageDTO notification(String unitId, String creatorId) {
+        return NotificationMessageDTO.activated(unitId, unitId, creatorId, "Иванов", "2026-01-01T00:00:00Z");
+    }
+}
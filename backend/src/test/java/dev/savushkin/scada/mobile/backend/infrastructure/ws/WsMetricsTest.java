@@ -0,0 +1,83 @@
+package dev.savushkin.scada.mobile.backend.infrastructure.ws;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WsMetricsTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final WsMetrics metrics = new WsMetrics(registry);
+
+    @Test
+    void broadcastIsRecordedPerEndpointAndType() {
+        String json = "{\"type\":\"UNITS_STATUS\",\"name\":\"Линия 1 ✓\"}";
+
+        metrics.recordBroadcast(WsMetrics.LIVE, "UNITS_STATUS", TimeUnit.MILLISECONDS.toNanos(2), 3, json);
+        metrics.recordBroadcast(WsMetrics.LIVE, "UNITS_STATUS", TimeUnit.MILLISECONDS.toNanos(4), 0, json);
+        metrics.recordBroadcast(WsMetrics.UNIT, "LINE_STATUS", TimeUnit.MILLISECONDS.toNanos(1), 1, "{}");
+
+        assertThat(registry.get("ws.broadcast").tags("endpoint", "live", "type", "UNITS_STATUS").timer().count())
+                .isEqualTo(2);
+        assertThat(registry.get("ws.broadcast.recipients").tags("endpoint", "live", "type", "UNITS_STATUS")
+                .summary().totalAmount()).isEqualTo(3.0);
+        // Рассылка без адресатов байтов не добавляет
+        assertThat(registry.get("ws.sent.bytes").tags("endpoint", "live", "type", "UNITS_STATUS").counter().count())
+                .isEqualTo(3.0 * json.getBytes(StandardCharsets.UTF_8).length);
+        assertThat(registry.get("ws.sent.bytes").tags("endpoint", "unit", "type", "LINE_STATUS").counter().count())
+                .isEqualTo(2.0);
+    }
+
+    @Test
+    void utf8LengthMatchesEncoder() {
+        for (String s : new String[]{"", "ascii", "Линия", "ü€", "emoji 😀"}) {
+            assertThat(WsMetrics.utf8Length(s)).as(s).isEqualTo(s.getBytes(StandardCharsets.UTF_8).length);
+        }
+    }
+
+    @Test
+    void evictionsAreTaggedByReason() {
+        metrics.recordSendFailure(WsMetrics.LIVE);
+        metrics.recordClosedEviction(WsMetrics.LIVE);
+        metrics.recordClosedEviction(WsMetrics.LIVE);
+
+        assertThat(registry.get("ws.send.failures").tag("endpoint", "live").counter().count()).isEqualTo(1.0);
+        assertThat(registry.get("ws.sessions.evicted").tags("endpoint", "live", "reason", "send_error")
+                .counter().count()).isEqualTo(1.0);
+        assertThat(registry.get("ws.sessions.evicted").tags("endpoint", "live", "reason", "closed")
+                .counter().count()).isEqualTo(2.0);
+    }
+
+    @Test
+    void gaugesFollowSuppliersAndBindOnce() {
+        AtomicInteger sessions = new AtomicInteger(2);
+        AtomicInteger first = new AtomicInteger(5);
+        metrics.bindSessionCount(WsMetrics.LIVE, sessions::get);
+        metrics.bindWorkshopSubscribers(7L, first::get);
+        metrics.bindWorkshopSubscribers(7L, () -> 100);
+        metrics.bindUnitSubscribers("hassia1", () -> 1);
+
+        sessions.set(4);
+
+        assertThat(registry.get("ws.sessions").tag("endpoint", "live").gauge().value()).isEqualTo(4.0);
+        assertThat(registry.get("ws.sessions.workshop").tag("workshop", "7").gauge().value()).isEqualTo(5.0);
+        assertThat(registry.get("ws.sessions.unit").tag("unit", "hassia1").gauge().value()).isEqualTo(1.0);
+    }
+
+    @Test
+    void dataAgeIsSkippedWithoutReceiveTime() {
+        metrics.recordDataAge("hassia1", "LINE_STATUS", null);
+        assertThat(registry.find("ws.data.age").timer()).isNull();
+
+        metrics.recordDataAge("hassia1", "LINE_STATUS", Instant.now().minusSeconds(2));
+
+        assertThat(registry.get("ws.data.age").tags("instance", "hassia1", "type", "LINE_STATUS").timer()
+                .totalTime(TimeUnit.MILLISECONDS)).isGreaterThanOrEqualTo(2000.0);
+    }
+}
@@ -0,0 +1,135 @@
+package dev.savushkin.scada.mobile.backend.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.savushkin.scada.mobile.backend.infrastructure.integration.printsrv.mock.MockPrintSrvProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Кадрирование P001 поддельного PrintSrv: {@code "P001"} + длина big-endian + JSON в windows-1251,
+ * соединение переиспользуется между запросами, сбои ломают кадр так, как их увидит клиент.
+ */
+class FakePrintSrvServerTest {
+
+    private static final Charset CHARSET = Charset.forName("windows-1251");
+    private static final byte[] MAGIC = {'P', '0', '0', '1'};
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private FakePrintSrvServer server;
+
+    @AfterEach
+    void stopServer() {
+        if (server != null) {
+            server.close();
+        }
+    }
+
+    @Test
+    void answersQueryAllFramesOnReusedConnection() throws IOException {
+        Seed seed = seed();
+        int port = start(FakePrintSrvServer.Faults.NONE, seed);
+
+        try (Socket socket = connect(port)) {
+            DataInputStream in = new DataInputStream(socket.getInputStream());
+            for (int i = 0; i < 3; i++) {
+                send(socket.getOutputStream(), seed.device());
+                JsonNode response = mapper.readTree(readFrame(in));
+                assertThat(response.path("DeviceName").asText()).isEqualTo(seed.device());
+                assertThat(response.path("Units").isObject()).isTrue();
+            }
+        }
+        assertThat(server.requestCount()).isEqualTo(3);
+        assertThat(server.injectedFaultCount()).isZero();
+    }
+
+    @Test
+    void chunkedResponseIsTheSameFrame() throws IOException {
+        Seed seed = seed();
+        int port = start(new FakePrintSrvServer.Faults(0, 0, 7, 0, 0.0, 0.0), seed);
+
+        try (Socket socket = connect(port)) {
+            send(socket.getOutputStream(), seed.device());
+            JsonNode response = mapper.readTree(readFrame(new DataInputStream(socket.getInputStream())));
+            assertThat(response.path("DeviceName").asText()).isEqualTo(seed.device());
+        }
+    }
+
+    @Test
+    void oversizedFaultSendsHeaderOnlyAndCloses() throws IOException {
+        Seed seed = seed();
+        int port = start(new FakePrintSrvServer.Faults(0, 0, 0, 0, 0.0, 1.0), seed);
+
+        try (Socket socket = connect(port)) {
+            send(socket.getOutputStream(), seed.device());
+            DataInputStream in = new DataInputStream(socket.getInputStream());
+            assertThat(in.readNBytes(4)).isEqualTo(MAGIC);
+            assertThat(in.readInt()).isGreaterThan(10 * 1024 * 1024);
+            assertThat(in.read()).isEqualTo(-1);
+        }
+        assertThat(server.injectedFaultCount()).isEqualTo(1);
+    }
+
+    @Test
+    void disconnectFaultCutsBodyInHalf() throws IOException {
+        Seed seed = seed();
+        int port = start(new FakePrintSrvServer.Faults(0, 0, 0, 0, 1.0, 0.0), seed);
+
+        try (Socket socket = connect(port)) {
+            send(socket.getOutputStream(), seed.device());
+            DataInputStream in = new DataInputStream(socket.getInputStream());
+            assertThat(in.readNBytes(4)).isEqualTo(MAGIC);
+            int length = in.readInt();
+            byte[] body = in.readAllBytes();
+            assertThat(body).hasSize(length / 2);
+        }
+    }
+
+    private int start(FakePrintSrvServer.Faults faults, Seed seed) throws IOException {
+        MockPrintSrvProperties simulation = new MockPrintSrvProperties();
+        simulation.setSimulationEnabled(false);
+        server = new FakePrintSrvServer(faults, simulation);
+        return server.addInstance(seed.instanceId(), seed.instanceId(), null, Set.of(seed.device()), 0);
+    }
+
+    private static Seed seed() {
+        Map.Entry<String, TreeSet<String>> first = LoadDataSeeder.discoverSeeds().entrySet().iterator().next();
+        return new Seed(first.getKey(), first.getValue().first());
+    }
+
+    private static Socket connect(int port) throws IOException {
+        Socket socket = new Socket(InetAddress.getLoopbackAddress(), port);
+        socket.setSoTimeout(5_000);
+        return socket;
+    }
+
+    private void send(OutputStream out, String device) throws IOException {
+        byte[] body = mapper.writeValueAsString(Map.of("DeviceName", device, "Command", "QueryAll"))
+                .getBytes(CHARSET);
+        out.write(ByteBuffer.allocate(8 + body.length).put(MAGIC).putInt(body.length).put(body).array());
+        out.flush();
+    }
+
+    private static String readFrame(DataInputStream in) throws IOException {
+        assertThat(in.readNBytes(4)).isEqualTo(MAGIC);
+        byte[] body = new byte[in.readInt()];
+        in.readFully(body);
+        return new String(body, CHARSET);
+    }
+
+    private record Seed(String instanceId, String device) {
+    }
+}
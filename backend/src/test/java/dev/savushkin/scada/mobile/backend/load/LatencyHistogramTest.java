@@ -0,0 +1,45 @@
+package dev.savushkin.scada.mobile.backend.load;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LatencyHistogramTest {
+
+    private final LatencyHistogram histogram = new LatencyHistogram();
+
+    @Test
+    void percentilesUseNearestRank() {
+        IntStream.rangeClosed(1, 1000).forEach(histogram::record);
+
+        assertThat(histogram.percentile(0.5)).isEqualTo(500);
+        assertThat(histogram.percentile(0.99)).isEqualTo(990);
+        assertThat(histogram.percentile(0.999)).isEqualTo(999);
+        assertThat(histogram.percentile(1.0)).isEqualTo(1000);
+        assertThat(histogram.summary())
+                .containsEntry("count", 1000L)
+                .containsEntry("p50", 500L)
+                .containsEntry("p90", 900L)
+                .containsEntry("max", 1000L)
+                .containsOnlyKeys("count", "p50", "p90", "p95", "p99", "p999", "max");
+    }
+
+    @Test
+    void emptyHistogramReportsZeros() {
+        assertThat(histogram.percentile(0.99)).isZero();
+        assertThat(histogram.summary()).containsEntry("count", 0L).containsEntry("max", 0L);
+    }
+
+    @Test
+    void outliersLandInLastBucketButKeepExactMax() {
+        histogram.record(-5);
+        histogram.record(10);
+        histogram.record(LatencyHistogram.MAX_MILLIS * 3L);
+
+        assertThat(histogram.percentile(0.01)).isZero();
+        assertThat(histogram.percentile(1.0)).isEqualTo(LatencyHistogram.MAX_MILLIS);
+        assertThat(histogram.summary()).containsEntry("max", LatencyHistogram.MAX_MILLIS * 3L);
+    }
+}
@@ -0,0 +1,86 @@
+package dev.savushkin.scada.mobile.backend.services;
+
+import dev.savushkin.scada.mobile.backend.application.ports.CounterTimeSeriesRepository;
+import dev.savushkin.scada.mobile.backend.application.ports.InstanceSnapshotRepository;
+import dev.savushkin.scada.mobile.backend.domain.model.CounterSample;
+import dev.savushkin.scada.mobile.backend.domain.model.DeviceSnapshot;
+import dev.savushkin.scada.mobile.backend.domain.model.UnitProperties;
+import dev.savushkin.scada.mobile.backend.domain.model.UnitSnapshot;
+import dev.savushkin.scada.mobile.backend.infrastructure.polling.PrintSrvInstancePolledEvent;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CounterTimeSeriesServiceTest {
+
+    private static final String UNIT = "hassia1";
+    private static final String PRINTER = "Printer11";
+
+    private final InstanceSnapshotRepository snapshots = mock(InstanceSnapshotRepository.class);
+    private final CounterTimeSeriesRepository repository = mock(CounterTimeSeriesRepository.class);
+    private final List<List<Double>> written = new ArrayList<>();
+
+    @Test
+    void droppedSampleIsQueuedAgainOnNextPoll() {
+        CounterTimeSeriesService service = service(1, 10);
+        recordWrites();
+
+        poll(service, 1);
+        poll(service, 2);
+        assertThat(service.getDroppedCount()).isEqualTo(1);
+        service.flush();
+
+        poll(service, 2);
+        service.flush();
+
+        assertThat(written).containsExactly(List.of(1.0), List.of(2.0));
+    }
+
+    @Test
+    void failedBatchIsRetriedBeforeNewerSamples() {
+        CounterTimeSeriesService service = service(10, 1);
+        poll(service, 1);
+        poll(service, 2);
+
+        doAnswer(invocation -> {
+            throw new IllegalStateException("database unavailable");
+        }).when(repository).appendBatch(anyList(), anyList());
+        service.flush();
+        assertThat(service.getPendingCount()).isEqualTo(2);
+
+        recordWrites();
+        service.flush();
+
+        assertThat(written).containsExactly(List.of(1.0), List.of(2.0));
+    }
+
+    private CounterTimeSeriesService service(int queueCapacity, int batchSize) {
+        return new CounterTimeSeriesService(snapshots, repository,
+                queueCapacity, batchSize, 500, 10_000, 2, 7, 90, 730);
+    }
+
+    private void recordWrites() {
+        doAnswer(invocation -> {
+            List<CounterSample> samples = invocation.getArgument(0);
+            written.add(samples.stream().map(CounterSample::value).toList());
+            return null;
+        }).when(repository).appendBatch(anyList(), anyList());
+    }
+
+    private void poll(CounterTimeSeriesService service, int curItem) {
+        UnitProperties properties = UnitProperties.builder().curItem(curItem + " | 245 | 17.01.2026").build();
+        DeviceSnapshot printer = new DeviceSnapshot(PRINTER,
+                Map.of("u1", new UnitSnapshot(1, "1", "", 0, properties)), Instant.now());
+        when(snapshots.getAllForInstance(UNIT)).thenReturn(Map.of(PRINTER, printer));
+        service.onInstancePolled(new PrintSrvInstancePolledEvent(UNIT));
+    }
+}
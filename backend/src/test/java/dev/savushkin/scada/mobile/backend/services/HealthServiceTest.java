@@ -0,0 +1,127 @@
+package dev.savushkin.scada.mobile.backend.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.savushkin.scada.mobile.backend.application.ScadaApplicationService;
+import dev.savushkin.scada.mobile.backend.config.ClusterProperties;
+import dev.savushkin.scada.mobile.backend.config.PrintSrvProperties;
+import dev.savushkin.scada.mobile.backend.infrastructure.cluster.ClusterNode;
+import dev.savushkin.scada.mobile.backend.infrastructure.ingestion.IngestionRuntime;
+import dev.savushkin.scada.mobile.backend.infrastructure.integration.printsrv.PrintSrvMapper;
+import dev.savushkin.scada.mobile.backend.infrastructure.startup.StartupMetrics;
+import dev.savushkin.scada.mobile.backend.infrastructure.startup.StartupWarmup;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.when;
+
+/**
+ * Readiness и прогрев: пока {@link StartupWarmup} не закончился, узел не готов, даже если
+ * данные уже загружены; ошибка прогрева не блокирует готовность, но видна в метриках.
+ */
+class HealthServiceTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final StartupMetrics startupMetrics = new StartupMetrics(registry);
+    private final IngestionRuntime ingestionRuntime = mock(IngestionRuntime.class);
+    private final ScadaApplicationService applicationService = mock(ScadaApplicationService.class);
+
+    @Test
+    void readinessStaysDownUntilWarmupFinishes() throws Exception {
+        when(ingestionRuntime.isInitialLoadComplete()).thenReturn(true);
+        when(applicationService.isReady()).thenReturn(true);
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        PrintSrvMapper mapper = spy(new PrintSrvMapper());
+        doAnswer(invocation -> {
+            entered.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return invocation.callRealMethod();
+        }).when(mapper).toDomainDeviceSnapshot(any());
+        StartupWarmup warmup = warmup(mapper, true);
+        HealthService health = health(warmup);
+
+        Thread starter = Thread.ofVirtual().start(warmup::start);
+        // Прогрев дошёл до маппера и стоит на нём
+        await(() -> entered.getCount() == 0 || warmup.isComplete());
+        assertThat(warmup.isComplete()).isFalse();
+        assertThat(health.isReady()).isFalse();
+
+        release.countDown();
+        starter.join(5_000);
+
+        assertThat(warmup.isComplete()).isTrue();
+        assertThat(warmup.getFailure()).isNull();
+        assertThat(health.isReady()).isTrue();
+    }
+
+    @Test
+    void warmupFailureIsReportedAndDoesNotBlockReadiness() {
+        when(ingestionRuntime.isInitialLoadComplete()).thenReturn(true);
+        when(applicationService.isReady()).thenReturn(true);
+        PrintSrvMapper mapper = mock(PrintSrvMapper.class);
+        when(mapper.toDomainDeviceSnapshot(any())).thenThrow(new IllegalStateException("broken mapper"));
+        StartupWarmup warmup = warmup(mapper, true);
+        HealthService health = health(warmup);
+
+        warmup.start();
+
+        assertThat(warmup.isComplete()).isTrue();
+        assertThat(health.getWarmupFailure()).contains("broken mapper");
+        assertThat(registry.get("app.startup.failures").tag("phase", "warmup").counter().count()).isEqualTo(1.0);
+        assertThat(health.isReady()).isTrue();
+    }
+
+    @Test
+    void disabledWarmupDoesNotHoldReadiness() {
+        when(ingestionRuntime.isInitialLoadComplete()).thenReturn(true);
+        when(applicationService.isReady()).thenReturn(true);
+        StartupWarmup warmup = warmup(mock(PrintSrvMapper.class), false);
+        HealthService health = health(warmup);
+        assertThat(health.isReady()).isFalse();
+
+        warmup.start();
+
+        assertThat(health.isReady()).isTrue();
+        assertThat(health.getWarmupFailure()).isNull();
+    }
+
+    @Test
+    void warmedUpNodeIsNotReadyBeforeInitialLoad() {
+        when(ingestionRuntime.isInitialLoadComplete()).thenReturn(false);
+        when(applicationService.isReady()).thenReturn(true);
+        StartupWarmup warmup = warmup(mock(PrintSrvMapper.class), false);
+        warmup.start();
+
+        assertThat(health(warmup).isReady()).isFalse();
+    }
+
+    private StartupWarmup warmup(PrintSrvMapper mapper, boolean enabled) {
+        PrintSrvProperties properties = new PrintSrvProperties();
+        properties.getWarmup().setEnabled(enabled);
+        properties.getWarmup().setPasses(1);
+        return new StartupWarmup(mapper, new ObjectMapper(), startupMetrics, properties);
+    }
+
+    private HealthService health(StartupWarmup warmup) {
+        return new HealthService(applicationService, ingestionRuntime, new ClusterNode(new ClusterProperties()), warmup);
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError("Condition not met within 5 s");
+            }
+            Thread.sleep(5);
+        }
+    }
+}
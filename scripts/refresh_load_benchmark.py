@@ -0,0 +1,125 @@
+#!/usr/bin/env python3
+"""
+Нагрузочный бенчмарк эндпоинта POST /auth/refresh.
+
+Моделирует пересменку: много телефонов почти одновременно обновляют токены.
+Скрипт открывает --sessions сессий (по одному /auth/login на сессию; учётные
+данные можно повторять — каждая сессия получает свой refresh-токен), затем
+--concurrency потоков в течение --duration секунд крутят ротацию токенов
+по своим сессиям. Каждый успешный ответ заменяет refresh-токен сессии
+(ротация одноразовая), поэтому сессия никогда не используется двумя потоками
+одновременно.
+
+Запуск:
+    python scripts/refresh_load_benchmark.py --base-url http://localhost:8080/api/v1.0.0 \\
+        --credentials 12345:secret --sessions 300 --concurrency 50 --duration 60
+
+Зависимостей, кроме стандартной библиотеки, нет.
+"""
+
+import argparse
+import json
+import queue
+import statistics
+import sys
+import threading
+import time
+import urllib.error
+import urllib.request
+
+
+def post_json(url: str, payload: dict, timeout: float) -> tuple[int, dict]:
+    data = json.dumps(payload).encode("utf-8")
+    request = urllib.request.Request(url, data=data, method="POST",
+                                     headers={"Content-Type": "application/json"})
+    try:
+        with urllib.request.urlopen(request, timeout=timeout) as response:
+            return response.status, json.loads(response.read() or b"{}")
+    except urllib.error.HTTPError as e:
+        return e.code, {}
+
+
+def login(base_url: str, code: str, password: str, timeout: float) -> str:
+    status, body = post_json(f"{base_url}/auth/login",
+                             {"workerCode": code, "password": password}, timeout)
+    if status != 200 or not body.get("refreshToken"):
+        raise RuntimeError(f"login failed for {code}: HTTP {status}")
+    return body["refreshToken"]
+
+
+def percentile(sorted_values: list[float], p: float) -> float:
+    if not sorted_values:
+        return 0.0
+    index = min(len(sorted_values) - 1, int(round(p / 100 * (len(sorted_values) - 1))))
+    return sorted_values[index]
+
+
+def main() -> int:
+    parser = argparse.ArgumentParser(description="Load benchmark for POST /auth/refresh")
+    parser.add_argument("--base-url", default="http://localhost:8080/api/v1.0.0")
+    parser.add_argument("--credentials", action="append", required=True,
+                        help="code:password, можно указать несколько раз")
+    parser.add_argument("--sessions", type=int, default=200)
+    parser.add_argument("--concurrency", type=int, default=50)
+    parser.add_argument("--duration", type=float, default=30.0, help="секунды")
+    parser.add_argument("--timeout", type=float, default=10.0)
+    args = parser.parse_args()
+
+    credentials = [c.split(":", 1) for c in args.credentials]
+
+    print(f"Opening {args.sessions} session(s)...")
+    sessions: queue.Queue[str] = queue.Queue()
+    for i in range(args.sessions):
+        code, password = credentials[i % len(credentials)]
+        sessions.put(login(args.base_url, code, password, args.timeout))
+
+    latencies: list[float] = []
+    errors: dict[int, int] = {}
+    lock = threading.Lock()
+    deadline = time.monotonic() + args.duration
+
+    def worker() -> None:
+        while time.monotonic() < deadline:
+            try:
+                token = sessions.get(timeout=1)
+            except queue.Empty:
+                continue
+            started = time.perf_counter()
+            status, body = post_json(f"{args.base_url}/auth/refresh",
+                                     {"refreshToken": token}, args.timeout)
+            elapsed_ms = (time.perf_counter() - started) * 1000
+            with lock:
+                if status == 200:
+                    latencies.append(elapsed_ms)
+                else:
+                    errors[status] = errors.get(status, 0) + 1
+            if status == 200 and body.get("refreshToken"):
+                sessions.put(body["refreshToken"])
+
+    print(f"Running {args.concurrency} thread(s) for {args.duration:.0f}s...")
+    threads = [threading.Thread(target=worker, daemon=True) for _ in range(args.concurrency)]
+    started = time.monotonic()
+    for t in threads:
+        t.start()
+    for t in threads:
+        t.join()
+    wall = time.monotonic() - started
+
+    latencies.sort()
+    total = len(latencies) + sum(errors.values())
+    print()
+    print(f"Requests:   {total} ({len(latencies)} ok, {sum(errors.values())} failed)")
+    print(f"Throughput: {len(latencies) / wall:.1f} refresh/s")
+    if latencies:
+        print(f"Latency ms: mean={statistics.fmean(latencies):.1f} "
+              f"p50={percentile(latencies, 50):.1f} "
+              f"p95={percentile(latencies, 95):.1f} "
+              f"p99={percentile(latencies, 99):.1f} "
+              f"max={latencies[-1]:.1f}")
+    if errors:
+        print(f"Errors:     {dict(sorted(errors.items()))}")
+    return 0 if not errors else 1
+
+
+if __name__ == "__main__":
+    sys.exit(main())